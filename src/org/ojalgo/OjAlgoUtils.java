@@ -22,6 +22,7 @@
 package org.ojalgo;
 
 import java.util.Date;
+import java.util.Optional;
 
 import org.ojalgo.machine.Hardware;
 import org.ojalgo.machine.VirtualMachine;
@@ -32,7 +33,9 @@ public abstract class OjAlgoUtils {
 
     /**
      * This is set for you, but you may want to set it to something different/better. Create a
-     * {@linkplain Hardware} instance and then call {@linkplain Hardware#virtualise()}.
+     * {@linkplain Hardware} instance and then call {@linkplain Hardware#virtualise()}. If possible the actual
+     * hardware is detected, see {@linkplain Hardware#detect()}, otherwise one of the predefined hardware
+     * profiles is used.
      */
     public static VirtualMachine ENVIRONMENT = null;
 
@@ -42,9 +45,15 @@ public abstract class OjAlgoUtils {
         final long tmpMemory = VirtualMachine.getMemory();
         final int tmpThreads = VirtualMachine.getThreads();
 
-        for (final Hardware hw : Hardware.PREDEFINED) {
-            if (hw.architecture.equals(tmpArchitecture) && (hw.threads <= tmpThreads) && (hw.memory >= tmpMemory)) {
-                ENVIRONMENT = hw.virtualise();
+        final Optional<Hardware> tmpDetected = Hardware.detect();
+
+        if (tmpDetected.isPresent()) {
+            ENVIRONMENT = tmpDetected.get().virtualise();
+        } else {
+            for (final Hardware hw : Hardware.PREDEFINED) {
+                if (hw.architecture.equals(tmpArchitecture) && (hw.threads <= tmpThreads) && (hw.memory >= tmpMemory)) {
+                    ENVIRONMENT = hw.virtualise();
+                }
             }
         }
 
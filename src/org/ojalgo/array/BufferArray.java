@@ -186,21 +186,30 @@ public abstract class BufferArray extends PlainArray<Double> {
     static final long FLOAT_ELEMENT_SIZE = JavaType.FLOAT.memory();
 
     public static Array1D<Double> make(final File file, final long count) {
-        return BufferArray.create(file, count).wrapInArray1D();
+        return BufferArray.create(file, MapMode.READ_WRITE, count).wrapInArray1D();
     }
 
     public static ArrayAnyD<Double> make(final File file, final long... structure) {
-        return BufferArray.create(file, structure).wrapInArrayAnyD(structure);
+        return BufferArray.create(file, MapMode.READ_WRITE, structure).wrapInArrayAnyD(structure);
     }
 
     public static Array2D<Double> make(final File file, final long rows, final long columns) {
-        return BufferArray.create(file, rows, columns).wrapInArray2D(rows);
+        return BufferArray.create(file, MapMode.READ_WRITE, rows, columns).wrapInArray2D(rows);
     }
 
     public static BufferArray make(final int capacity) {
         return new DoubleBufferArray(DoubleBuffer.allocate(capacity), null);
     }
 
+    /**
+     * Maps an existing file, that must be (at least) large enough to hold all the elements, read-only. Any
+     * attempt to set/modify elements will throw {@linkplain java.nio.ReadOnlyBufferException}. The same file
+     * may be mapped by several JVM processes simultaneously.
+     */
+    public static Array2D<Double> makeReadOnly(final File file, final long rows, final long columns) {
+        return BufferArray.create(file, MapMode.READ_ONLY, rows, columns).wrapInArray2D(rows);
+    }
+
     public static BufferArray wrap(final DoubleBuffer data) {
         return new DoubleBufferArray(data, null);
     }
@@ -209,20 +218,24 @@ public abstract class BufferArray extends PlainArray<Double> {
         return new FloatBufferArray(data, null);
     }
 
-    private static BasicArray<Double> create(final File file, final long... structure) {
+    private static BasicArray<Double> create(final File file, final MapMode mode, final long... structure) {
 
         final long tmpCount = StructureAnyD.count(structure);
 
+        final long tmpSize = DOUBLE_ELEMENT_SIZE * tmpCount;
+
+        if ((mode == MapMode.READ_ONLY) && (file.length() < tmpSize)) {
+            throw new IllegalArgumentException("The file is too small: " + file.length() + " < " + tmpSize);
+        }
+
         DoubleBuffer tmpDoubleBuffer = null;
 
         try {
 
-            final RandomAccessFile tmpRandomAccessFile = new RandomAccessFile(file, "rw");
+            final RandomAccessFile tmpRandomAccessFile = new RandomAccessFile(file, mode == MapMode.READ_ONLY ? "r" : "rw");
 
             final FileChannel tmpFileChannel = tmpRandomAccessFile.getChannel();
 
-            final long tmpSize = DOUBLE_ELEMENT_SIZE * tmpCount;
-
             if (tmpCount > (1L << 8)) {
 
                 final DenseArray.Factory<Double> tmpFactory = new DenseArray.Factory<Double>() {
@@ -244,6 +257,14 @@ public abstract class BufferArray extends PlainArray<Double> {
                         return PrimitiveScalar.FACTORY;
                     }
 
+                    /**
+                     * Each segment is a separate mapping, and a single mapping can't be larger than 2GB
+                     */
+                    @Override
+                    long getCapacityLimit() {
+                        return MAX_ARRAY_SIZE / DOUBLE_ELEMENT_SIZE;
+                    }
+
                     @Override
                     long getElementSize() {
                         return DOUBLE_ELEMENT_SIZE;
@@ -255,7 +276,7 @@ public abstract class BufferArray extends PlainArray<Double> {
                         final long tmpSize2 = size * DOUBLE_ELEMENT_SIZE;
                         try {
 
-                            final MappedByteBuffer tmpMap = tmpFileChannel.map(MapMode.READ_WRITE, offset, tmpSize2);
+                            final MappedByteBuffer tmpMap = tmpFileChannel.map(mode, offset, tmpSize2);
                             tmpMap.order(ByteOrder.nativeOrder());
                             return new DoubleBufferArray(tmpMap.asDoubleBuffer(), tmpRandomAccessFile);
                         } catch (final IOException exception) {
@@ -271,7 +292,7 @@ public abstract class BufferArray extends PlainArray<Double> {
 
             } else {
 
-                final MappedByteBuffer tmpMappedByteBuffer = tmpFileChannel.map(FileChannel.MapMode.READ_WRITE, 0L, tmpSize);
+                final MappedByteBuffer tmpMappedByteBuffer = tmpFileChannel.map(mode, 0L, tmpSize);
                 tmpMappedByteBuffer.order(ByteOrder.nativeOrder());
 
                 tmpDoubleBuffer = tmpMappedByteBuffer.asDoubleBuffer();
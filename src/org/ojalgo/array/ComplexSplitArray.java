@@ -0,0 +1,434 @@
+/*
+ * Copyright 1997-2018 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.array;
+
+import java.util.Arrays;
+import java.util.Spliterator;
+import java.util.Spliterators;
+
+import org.ojalgo.constant.PrimitiveMath;
+import org.ojalgo.function.BinaryFunction;
+import org.ojalgo.function.ComplexFunction;
+import org.ojalgo.function.FunctionSet;
+import org.ojalgo.function.FunctionUtils;
+import org.ojalgo.function.NullaryFunction;
+import org.ojalgo.function.ParameterFunction;
+import org.ojalgo.function.UnaryFunction;
+import org.ojalgo.function.VoidFunction;
+import org.ojalgo.function.aggregator.AggregatorSet;
+import org.ojalgo.function.aggregator.ComplexAggregator;
+import org.ojalgo.scalar.ComplexNumber;
+import org.ojalgo.scalar.PrimitiveScalar;
+import org.ojalgo.scalar.Scalar;
+import org.ojalgo.structure.Access1D;
+import org.ojalgo.structure.Mutate1D;
+
+/**
+ * A one- and/or arbitrary-dimensional array of {@linkplain org.ojalgo.scalar.ComplexNumber}, stored as two
+ * primitive double[] - one for the real parts and one for the imaginary parts. Individual
+ * {@link ComplexNumber} instances are only created when elements are accessed via the generic
+ * {@link Number} based API. Code that needs to be allocation-free should work with the {@link #real} and
+ * {@link #imaginary} arrays directly.
+ *
+ * @author apete
+ */
+public class ComplexSplitArray extends PlainArray<ComplexNumber> implements Mutate1D.Sortable {
+
+    public static final DenseArray.Factory<ComplexNumber> FACTORY = new DenseArray.Factory<ComplexNumber>() {
+
+        @Override
+        public AggregatorSet<ComplexNumber> aggregator() {
+            return ComplexAggregator.getSet();
+        }
+
+        @Override
+        public FunctionSet<ComplexNumber> function() {
+            return ComplexFunction.getSet();
+        }
+
+        @Override
+        public Scalar.Factory<ComplexNumber> scalar() {
+            return ComplexNumber.FACTORY;
+        }
+
+        @Override
+        long getElementSize() {
+            return ELEMENT_SIZE;
+        }
+
+        @Override
+        PlainArray<ComplexNumber> make(final long size) {
+            return ComplexSplitArray.make((int) size);
+        }
+
+    };
+
+    static final long ELEMENT_SIZE = 2L * Primitive64Array.ELEMENT_SIZE;
+
+    public static final ComplexSplitArray make(final int size) {
+        return new ComplexSplitArray(size);
+    }
+
+    public static final ComplexSplitArray wrap(final double[] real, final double[] imaginary) {
+        return new ComplexSplitArray(real, imaginary);
+    }
+
+    public final double[] imaginary;
+    public final double[] real;
+
+    protected ComplexSplitArray(final double[] real, final double[] imaginary) {
+
+        super(FACTORY, real.length);
+
+        if (imaginary.length != real.length) {
+            throw new IllegalArgumentException("The real and imaginary parts must have the same length!");
+        }
+
+        this.real = real;
+        this.imaginary = imaginary;
+    }
+
+    protected ComplexSplitArray(final int size) {
+
+        super(FACTORY, size);
+
+        real = new double[size];
+        imaginary = new double[size];
+    }
+
+    public final void axpy(final double a, final Mutate1D y) {
+        for (int i = 0; i < real.length; i++) {
+            y.add(i, ComplexNumber.of(a * real[i], a * imaginary[i]));
+        }
+    }
+
+    @Override
+    public boolean equals(final Object anObj) {
+        if (anObj instanceof ComplexSplitArray) {
+            final ComplexSplitArray tmpOther = (ComplexSplitArray) anObj;
+            return Arrays.equals(real, tmpOther.real) && Arrays.equals(imaginary, tmpOther.imaginary);
+        } else {
+            return super.equals(anObj);
+        }
+    }
+
+    public void fillMatching(final Access1D<?> values) {
+        final int tmpLimit = (int) Math.min(this.count(), values.count());
+        if (values instanceof ComplexSplitArray) {
+            final ComplexSplitArray tmpValues = (ComplexSplitArray) values;
+            System.arraycopy(tmpValues.real, 0, real, 0, tmpLimit);
+            System.arraycopy(tmpValues.imaginary, 0, imaginary, 0, tmpLimit);
+        } else {
+            for (int i = 0; i < tmpLimit; i++) {
+                this.set(i, values.get(i));
+            }
+        }
+    }
+
+    public void fillMatching(final Access1D<ComplexNumber> left, final BinaryFunction<ComplexNumber> function, final Access1D<ComplexNumber> right) {
+        this.fill(0, (int) FunctionUtils.min(this.count(), left.count(), right.count()), left, function, right);
+    }
+
+    public void fillMatching(final UnaryFunction<ComplexNumber> function, final Access1D<ComplexNumber> arguments) {
+        final int tmpLimit = (int) FunctionUtils.min(this.count(), arguments.count());
+        for (int i = 0; i < tmpLimit; i++) {
+            this.fillOne(i, function.invoke(arguments.get(i)));
+        }
+    }
+
+    @Override
+    public int hashCode() {
+        return (31 * Arrays.hashCode(real)) + Arrays.hashCode(imaginary);
+    }
+
+    @Override
+    public final void reset() {
+        Arrays.fill(real, PrimitiveMath.ZERO);
+        Arrays.fill(imaginary, PrimitiveMath.ZERO);
+    }
+
+    @Override
+    public final void sortAscending() {
+        final ComplexNumber[] tmpSorted = this.toArray();
+        Arrays.parallelSort(tmpSorted);
+        this.fillMatching(ComplexArray.wrap(tmpSorted));
+    }
+
+    @Override
+    public final void sortDescending() {
+        final ComplexNumber[] tmpSorted = this.toArray();
+        Arrays.parallelSort(tmpSorted, (a, b) -> b.compareTo(a));
+        this.fillMatching(ComplexArray.wrap(tmpSorted));
+    }
+
+    public final Spliterator<ComplexNumber> spliterator() {
+        return Spliterators.spliterator(this.toArray(), 0, real.length, PlainArray.CHARACTERISTICS);
+    }
+
+    @Override
+    protected final void add(final int index, final double addend) {
+        real[index] += addend;
+    }
+
+    @Override
+    protected final void add(final int index, final Number addend) {
+        final ComplexNumber tmpAddend = ComplexNumber.valueOf(addend);
+        real[index] += tmpAddend.doubleValue();
+        imaginary[index] += tmpAddend.i;
+    }
+
+    @Override
+    protected final double doubleValue(final int index) {
+        return real[index];
+    }
+
+    @Override
+    protected final void exchange(final int firstA, final int firstB, final int step, final int count) {
+        ComplexSplitArray.exchange(real, firstA, firstB, step, count);
+        ComplexSplitArray.exchange(imaginary, firstA, firstB, step, count);
+    }
+
+    @Override
+    protected final void fill(final int first, final int limit, final Access1D<ComplexNumber> left, final BinaryFunction<ComplexNumber> function,
+            final Access1D<ComplexNumber> right) {
+        for (int i = first; i < limit; i++) {
+            this.fillOne(i, function.invoke(left.get(i), right.get(i)));
+        }
+    }
+
+    @Override
+    protected final void fill(final int first, final int limit, final Access1D<ComplexNumber> left, final BinaryFunction<ComplexNumber> function,
+            final ComplexNumber right) {
+        for (int i = first; i < limit; i++) {
+            this.fillOne(i, function.invoke(left.get(i), right));
+        }
+    }
+
+    @Override
+    protected final void fill(final int first, final int limit, final ComplexNumber left, final BinaryFunction<ComplexNumber> function,
+            final Access1D<ComplexNumber> right) {
+        for (int i = first; i < limit; i++) {
+            this.fillOne(i, function.invoke(left, right.get(i)));
+        }
+    }
+
+    @Override
+    protected final void fill(final int first, final int limit, final int step, final ComplexNumber value) {
+        final double tmpRe = value.doubleValue();
+        final double tmpIm = value.i;
+        for (int i = first; i < limit; i += step) {
+            real[i] = tmpRe;
+            imaginary[i] = tmpIm;
+        }
+    }
+
+    @Override
+    protected final void fill(final int first, final int limit, final int step, final NullaryFunction<ComplexNumber> supplier) {
+        for (int i = first; i < limit; i += step) {
+            this.fillOne(i, supplier.invoke());
+        }
+    }
+
+    @Override
+    protected final void fillOne(final int index, final Access1D<?> values, final long valueIndex) {
+        this.set(index, values.get(valueIndex));
+    }
+
+    @Override
+    protected final void fillOne(final int index, final ComplexNumber value) {
+        real[index] = value.doubleValue();
+        imaginary[index] = value.i;
+    }
+
+    @Override
+    protected final void fillOne(final int index, final NullaryFunction<ComplexNumber> supplier) {
+        this.fillOne(index, supplier.invoke());
+    }
+
+    @Override
+    protected final ComplexNumber get(final int index) {
+        return ComplexNumber.of(real[index], imaginary[index]);
+    }
+
+    /**
+     * Compares the squared moduli, which gives the same ordering as {@link ComplexNumber#norm()} without
+     * calling {@link Math#hypot(double, double)}.
+     */
+    @Override
+    protected final int indexOfLargest(final int first, final int limit, final int step) {
+
+        int retVal = first;
+        double tmpLargest = PrimitiveMath.ZERO;
+        double tmpRe, tmpIm, tmpValue;
+
+        for (int i = first; i < limit; i += step) {
+            tmpRe = real[i];
+            tmpIm = imaginary[i];
+            tmpValue = (tmpRe * tmpRe) + (tmpIm * tmpIm);
+            if (tmpValue > tmpLargest) {
+                tmpLargest = tmpValue;
+                retVal = i;
+            }
+        }
+
+        return retVal;
+    }
+
+    @Override
+    protected final boolean isAbsolute(final int index) {
+        return this.get(index).isAbsolute();
+    }
+
+    @Override
+    protected final boolean isSmall(final int index, final double comparedTo) {
+        return PrimitiveScalar.isSmall(comparedTo, Math.hypot(real[index], imaginary[index]));
+    }
+
+    @Override
+    protected final void modify(final int first, final int limit, final int step, final Access1D<ComplexNumber> left,
+            final BinaryFunction<ComplexNumber> function) {
+        for (int i = first; i < limit; i += step) {
+            this.fillOne(i, function.invoke(left.get(i), this.get(i)));
+        }
+    }
+
+    @Override
+    protected final void modify(final int first, final int limit, final int step, final BinaryFunction<ComplexNumber> function,
+            final Access1D<ComplexNumber> right) {
+        for (int i = first; i < limit; i += step) {
+            this.fillOne(i, function.invoke(this.get(i), right.get(i)));
+        }
+    }
+
+    @Override
+    protected final void modify(final int first, final int limit, final int step, final BinaryFunction<ComplexNumber> function, final ComplexNumber right) {
+        for (int i = first; i < limit; i += step) {
+            this.fillOne(i, function.invoke(this.get(i), right));
+        }
+    }
+
+    @Override
+    protected final void modify(final int first, final int limit, final int step, final ComplexNumber left, final BinaryFunction<ComplexNumber> function) {
+        for (int i = first; i < limit; i += step) {
+            this.fillOne(i, function.invoke(left, this.get(i)));
+        }
+    }
+
+    @Override
+    protected final void modify(final int first, final int limit, final int step, final ParameterFunction<ComplexNumber> function, final int parameter) {
+        for (int i = first; i < limit; i += step) {
+            this.fillOne(i, function.invoke(this.get(i), parameter));
+        }
+    }
+
+    @Override
+    protected final void modify(final int first, final int limit, final int step, final UnaryFunction<ComplexNumber> function) {
+        for (int i = first; i < limit; i += step) {
+            this.fillOne(i, function.invoke(this.get(i)));
+        }
+    }
+
+    @Override
+    protected final void modifyOne(final int index, final UnaryFunction<ComplexNumber> modifier) {
+        this.fillOne(index, modifier.invoke(this.get(index)));
+    }
+
+    @Override
+    protected final int searchAscending(final ComplexNumber value) {
+        return Arrays.binarySearch(this.toArray(), value);
+    }
+
+    @Override
+    protected final void set(final int index, final double value) {
+        real[index] = value;
+        imaginary[index] = PrimitiveMath.ZERO;
+    }
+
+    @Override
+    protected final void set(final int index, final Number value) {
+        this.fillOne(index, ComplexNumber.valueOf(value));
+    }
+
+    @Override
+    protected final int size() {
+        return real.length;
+    }
+
+    @Override
+    protected final void visit(final int first, final int limit, final int step, final VoidFunction<ComplexNumber> visitor) {
+        for (int i = first; i < limit; i += step) {
+            visitor.invoke(this.get(i));
+        }
+    }
+
+    @Override
+    protected final void visitOne(final int index, final VoidFunction<ComplexNumber> visitor) {
+        visitor.invoke(this.get(index));
+    }
+
+    @Override
+    final boolean isPrimitive() {
+        return false;
+    }
+
+    @Override
+    final void modify(final long extIndex, final int intIndex, final Access1D<ComplexNumber> left, final BinaryFunction<ComplexNumber> function) {
+        this.fillOne(intIndex, function.invoke(left.get(extIndex), this.get(intIndex)));
+    }
+
+    @Override
+    final void modify(final long extIndex, final int intIndex, final BinaryFunction<ComplexNumber> function, final Access1D<ComplexNumber> right) {
+        this.fillOne(intIndex, function.invoke(this.get(intIndex), right.get(extIndex)));
+    }
+
+    @Override
+    final void modify(final long extIndex, final int intIndex, final UnaryFunction<ComplexNumber> function) {
+        this.fillOne(intIndex, function.invoke(this.get(intIndex)));
+    }
+
+    private static void exchange(final double[] data, final int firstA, final int firstB, final int step, final int count) {
+
+        int tmpIndexA = firstA;
+        int tmpIndexB = firstB;
+
+        double tmpVal;
+
+        for (int i = 0; i < count; i++) {
+
+            tmpVal = data[tmpIndexA];
+            data[tmpIndexA] = data[tmpIndexB];
+            data[tmpIndexB] = tmpVal;
+
+            tmpIndexA += step;
+            tmpIndexB += step;
+        }
+    }
+
+    private ComplexNumber[] toArray() {
+        final ComplexNumber[] retVal = new ComplexNumber[real.length];
+        for (int i = 0; i < retVal.length; i++) {
+            retVal[i] = this.get(i);
+        }
+        return retVal;
+    }
+
+}
@@ -0,0 +1,717 @@
+/*
+ * Copyright 1997-2018 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.array;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.MathContext;
+import java.util.Arrays;
+import java.util.Spliterator;
+import java.util.Spliterators;
+
+import org.ojalgo.function.BinaryFunction;
+import org.ojalgo.function.FunctionSet;
+import org.ojalgo.function.FunctionUtils;
+import org.ojalgo.function.NullaryFunction;
+import org.ojalgo.function.ParameterFunction;
+import org.ojalgo.function.RationalFunction;
+import org.ojalgo.function.UnaryFunction;
+import org.ojalgo.function.VoidFunction;
+import org.ojalgo.function.aggregator.AggregatorSet;
+import org.ojalgo.function.aggregator.RationalAggregator;
+import org.ojalgo.scalar.RationalNumber;
+import org.ojalgo.scalar.Scalar;
+import org.ojalgo.structure.Access1D;
+import org.ojalgo.structure.Mutate1D;
+import org.ojalgo.type.context.NumberContext;
+
+/**
+ * A one- and/or arbitrary-dimensional array of {@linkplain org.ojalgo.scalar.RationalNumber}, stored as two
+ * parallel long[] - numerators and denominators. The elements are always kept in their lowest terms with a
+ * non-negative denominator.
+ * <p>
+ * The {@link #addProduct(int, RationalSplitArray, int, RationalSplitArray, int)},
+ * {@link #subtractProduct(int, RationalSplitArray, int, RationalSplitArray, int)} and
+ * {@link #divide(int, RationalSplitArray, int)} methods do exact arithmetic on the long[] without creating
+ * any objects. Should an intermediate result overflow a long the calculation is redone with
+ * {@link BigInteger} and, if the (reduced) result still doesn't fit, that individual element is promoted to a
+ * side-table of {@link BigInteger} numerators/denominators. Promoted elements take part in subsequent
+ * calculations exactly. Only when an element is accessed as a {@link RationalNumber} is it (possibly)
+ * approximated.
+ *
+ * @author apete
+ */
+public class RationalSplitArray extends PlainArray<RationalNumber> implements Mutate1D.Sortable {
+
+    public static final DenseArray.Factory<RationalNumber> FACTORY = new DenseArray.Factory<RationalNumber>() {
+
+        @Override
+        public AggregatorSet<RationalNumber> aggregator() {
+            return RationalAggregator.getSet();
+        }
+
+        @Override
+        public FunctionSet<RationalNumber> function() {
+            return RationalFunction.getSet();
+        }
+
+        @Override
+        public Scalar.Factory<RationalNumber> scalar() {
+            return RationalNumber.FACTORY;
+        }
+
+        @Override
+        long getElementSize() {
+            return ELEMENT_SIZE;
+        }
+
+        @Override
+        PlainArray<RationalNumber> make(final long size) {
+            return RationalSplitArray.make((int) size);
+        }
+
+    };
+
+    static final long ELEMENT_SIZE = 2L * Primitive64Array.ELEMENT_SIZE;
+
+    private static final long DOUBLE_EXACT_LIMIT = 1L << 53;
+
+    public static final RationalSplitArray make(final int size) {
+        return new RationalSplitArray(size);
+    }
+
+    /**
+     * Greatest common divisor, always non-negative
+     */
+    private static long gcd(final long a, final long b) {
+
+        long tmpMax = Math.abs(a);
+        long tmpMin = Math.abs(b);
+
+        long tmpVal;
+        while (tmpMin != 0L) {
+            tmpVal = tmpMax % tmpMin;
+            tmpMax = tmpMin;
+            tmpMin = tmpVal;
+        }
+
+        return tmpMax;
+    }
+
+    /**
+     * @return true if a * b does not overflow (and the result is not Long.MIN_VALUE)
+     */
+    private static boolean isProductSafe(final long a, final long b) {
+
+        if ((a == Long.MIN_VALUE) || (b == Long.MIN_VALUE)) {
+            return false;
+        }
+
+        if (((Math.abs(a) | Math.abs(b)) >>> 31) == 0L) {
+            return true;
+        }
+
+        final long tmpProduct = a * b;
+
+        return (b == 0L) || (((tmpProduct / b) == a) && (tmpProduct != Long.MIN_VALUE));
+    }
+
+    public final long[] denominator;
+    public final long[] numerator;
+
+    private BigInteger[] myBigDenominators = null;
+    private BigInteger[] myBigNumerators = null;
+
+    protected RationalSplitArray(final int size) {
+
+        super(FACTORY, size);
+
+        numerator = new long[size];
+        denominator = new long[size];
+
+        Arrays.fill(denominator, 1L);
+    }
+
+    /**
+     * this[index] = this[index] + left[leftIndex] * right[rightIndex]
+     */
+    public final void addProduct(final int index, final RationalSplitArray left, final int leftIndex, final RationalSplitArray right, final int rightIndex) {
+        this.addProduct(index, false, left, leftIndex, right, rightIndex);
+    }
+
+    public final void axpy(final double a, final Mutate1D y) {
+        final RationalNumber tmpA = RationalNumber.valueOf(a);
+        for (int i = 0; i < numerator.length; i++) {
+            y.add(i, this.get(i).multiply(tmpA));
+        }
+    }
+
+    /**
+     * this[index] = source[sourceIndex]
+     */
+    public final void copy(final int index, final RationalSplitArray source, final int sourceIndex) {
+        if (source.isBig(sourceIndex)) {
+            this.setBig(index, source.myBigNumerators[sourceIndex], source.myBigDenominators[sourceIndex]);
+        } else {
+            this.setReduced(index, source.numerator[sourceIndex], source.denominator[sourceIndex]);
+        }
+    }
+
+    /**
+     * this[index] = this[index] / divisor[divisorIndex]
+     */
+    public final void divide(final int index, final RationalSplitArray divisor, final int divisorIndex) {
+
+        final long tmpNumer = numerator[index];
+        final long tmpDenom = denominator[index];
+        long tmpDivNumer = divisor.numerator[divisorIndex];
+        long tmpDivDenom = divisor.denominator[divisorIndex];
+
+        final boolean tmpBig = this.isBig(index);
+        final boolean tmpDivBig = divisor.isBig(divisorIndex);
+
+        // Non-finite values and division by zero. The long[] slots of promoted elements only hold placeholders.
+        if ((!tmpBig && (tmpDenom == 0L)) || (!tmpDivBig && ((tmpDivDenom == 0L) || (tmpDivNumer == 0L)))) {
+            this.fillOne(index, this.get(index).divide(divisor.get(divisorIndex)));
+            return;
+        }
+
+        if (!tmpBig && !tmpDivBig && (tmpDivNumer != Long.MIN_VALUE)) {
+
+            if (tmpNumer == 0L) {
+                return;
+            }
+
+            if (tmpDivNumer < 0L) {
+                tmpDivNumer = -tmpDivNumer;
+                tmpDivDenom = -tmpDivDenom;
+            }
+
+            // (n / d) / (dn / dd) = (n * dd) / (d * dn) - cross reduced
+            final long g1 = RationalSplitArray.gcd(tmpNumer, tmpDivNumer);
+            final long g2 = RationalSplitArray.gcd(tmpDivDenom, tmpDenom);
+
+            final long a = tmpNumer / g1;
+            final long b = tmpDivDenom / g2;
+            final long c = tmpDenom / g2;
+            final long d = tmpDivNumer / g1;
+
+            if (RationalSplitArray.isProductSafe(a, b) && RationalSplitArray.isProductSafe(c, d)) {
+                this.setReduced(index, a * b, c * d);
+                return;
+            }
+        }
+
+        this.setBig(index, this.getBigNumerator(index).multiply(divisor.getBigDenominator(divisorIndex)),
+                this.getBigDenominator(index).multiply(divisor.getBigNumerator(divisorIndex)));
+    }
+
+    @Override
+    public boolean equals(final Object anObj) {
+        if (anObj instanceof RationalSplitArray) {
+            final RationalSplitArray tmpOther = (RationalSplitArray) anObj;
+            return Arrays.equals(numerator, tmpOther.numerator) && Arrays.equals(denominator, tmpOther.denominator)
+                    && Arrays.equals(myBigNumerators, tmpOther.myBigNumerators) && Arrays.equals(myBigDenominators, tmpOther.myBigDenominators);
+        } else {
+            return super.equals(anObj);
+        }
+    }
+
+    public void fillMatching(final Access1D<?> values) {
+        final int tmpLimit = (int) Math.min(this.count(), values.count());
+        if (values instanceof RationalSplitArray) {
+            final RationalSplitArray tmpValues = (RationalSplitArray) values;
+            for (int i = 0; i < tmpLimit; i++) {
+                this.copy(i, tmpValues, i);
+            }
+        } else {
+            for (int i = 0; i < tmpLimit; i++) {
+                this.set(i, values.get(i));
+            }
+        }
+    }
+
+    public void fillMatching(final Access1D<RationalNumber> left, final BinaryFunction<RationalNumber> function, final Access1D<RationalNumber> right) {
+        this.fill(0, (int) FunctionUtils.min(this.count(), left.count(), right.count()), left, function, right);
+    }
+
+    public void fillMatching(final UnaryFunction<RationalNumber> function, final Access1D<RationalNumber> arguments) {
+        final int tmpLimit = (int) FunctionUtils.min(this.count(), arguments.count());
+        for (int i = 0; i < tmpLimit; i++) {
+            this.fillOne(i, function.invoke(arguments.get(i)));
+        }
+    }
+
+    @Override
+    public int hashCode() {
+        return (31 * Arrays.hashCode(numerator)) + Arrays.hashCode(denominator);
+    }
+
+    /**
+     * @return true if this element has been promoted to the {@link BigInteger} side-table
+     */
+    public final boolean isBig(final int index) {
+        return (myBigNumerators != null) && (myBigNumerators[index] != null);
+    }
+
+    @Override
+    public final void reset() {
+        Arrays.fill(numerator, 0L);
+        Arrays.fill(denominator, 1L);
+        myBigNumerators = null;
+        myBigDenominators = null;
+    }
+
+    @Override
+    public final void sortAscending() {
+        final RationalNumber[] tmpSorted = this.toArray();
+        Arrays.parallelSort(tmpSorted);
+        this.fillMatching(RationalArray.wrap(tmpSorted));
+    }
+
+    @Override
+    public final void sortDescending() {
+        final RationalNumber[] tmpSorted = this.toArray();
+        Arrays.parallelSort(tmpSorted, (a, b) -> b.compareTo(a));
+        this.fillMatching(RationalArray.wrap(tmpSorted));
+    }
+
+    public final Spliterator<RationalNumber> spliterator() {
+        return Spliterators.spliterator(this.toArray(), 0, numerator.length, PlainArray.CHARACTERISTICS);
+    }
+
+    /**
+     * this[index] = this[index] - left[leftIndex] * right[rightIndex]
+     */
+    public final void subtractProduct(final int index, final RationalSplitArray left, final int leftIndex, final RationalSplitArray right,
+            final int rightIndex) {
+        this.addProduct(index, true, left, leftIndex, right, rightIndex);
+    }
+
+    @Override
+    protected final void add(final int index, final double addend) {
+        this.fillOne(index, this.get(index).add(RationalNumber.valueOf(addend)));
+    }
+
+    @Override
+    protected final void add(final int index, final Number addend) {
+        this.fillOne(index, this.get(index).add(RationalNumber.valueOf(addend)));
+    }
+
+    @Override
+    protected final double doubleValue(final int index) {
+
+        if (this.isBig(index)) {
+            return new BigDecimal(myBigNumerators[index]).divide(new BigDecimal(myBigDenominators[index]), MathContext.DECIMAL64).doubleValue();
+        }
+
+        final long tmpNumer = numerator[index];
+        final long tmpDenom = denominator[index];
+
+        if ((tmpDenom != 0L) && (Math.abs(tmpNumer) <= DOUBLE_EXACT_LIMIT) && (tmpDenom <= DOUBLE_EXACT_LIMIT)) {
+            // Both exactly representable as double - a single division is correctly rounded
+            return (double) tmpNumer / (double) tmpDenom;
+        } else {
+            return this.get(index).doubleValue();
+        }
+    }
+
+    @Override
+    protected final void exchange(final int firstA, final int firstB, final int step, final int count) {
+
+        int tmpIndexA = firstA;
+        int tmpIndexB = firstB;
+
+        long tmpVal;
+        BigInteger tmpBig;
+
+        for (int i = 0; i < count; i++) {
+
+            tmpVal = numerator[tmpIndexA];
+            numerator[tmpIndexA] = numerator[tmpIndexB];
+            numerator[tmpIndexB] = tmpVal;
+
+            tmpVal = denominator[tmpIndexA];
+            denominator[tmpIndexA] = denominator[tmpIndexB];
+            denominator[tmpIndexB] = tmpVal;
+
+            if (myBigNumerators != null) {
+
+                tmpBig = myBigNumerators[tmpIndexA];
+                myBigNumerators[tmpIndexA] = myBigNumerators[tmpIndexB];
+                myBigNumerators[tmpIndexB] = tmpBig;
+
+                tmpBig = myBigDenominators[tmpIndexA];
+                myBigDenominators[tmpIndexA] = myBigDenominators[tmpIndexB];
+                myBigDenominators[tmpIndexB] = tmpBig;
+            }
+
+            tmpIndexA += step;
+            tmpIndexB += step;
+        }
+    }
+
+    @Override
+    protected final void fill(final int first, final int limit, final Access1D<RationalNumber> left, final BinaryFunction<RationalNumber> function,
+            final Access1D<RationalNumber> right) {
+        for (int i = first; i < limit; i++) {
+            this.fillOne(i, function.invoke(left.get(i), right.get(i)));
+        }
+    }
+
+    @Override
+    protected final void fill(final int first, final int limit, final Access1D<RationalNumber> left, final BinaryFunction<RationalNumber> function,
+            final RationalNumber right) {
+        for (int i = first; i < limit; i++) {
+            this.fillOne(i, function.invoke(left.get(i), right));
+        }
+    }
+
+    @Override
+    protected final void fill(final int first, final int limit, final int step, final NullaryFunction<RationalNumber> supplier) {
+        for (int i = first; i < limit; i += step) {
+            this.fillOne(i, supplier.invoke());
+        }
+    }
+
+    @Override
+    protected final void fill(final int first, final int limit, final int step, final RationalNumber value) {
+        final long tmpNumer = value.getNumerator();
+        final long tmpDenom = value.getDenominator();
+        for (int i = first; i < limit; i += step) {
+            this.setReduced(i, tmpNumer, tmpDenom);
+        }
+    }
+
+    @Override
+    protected final void fill(final int first, final int limit, final RationalNumber left, final BinaryFunction<RationalNumber> function,
+            final Access1D<RationalNumber> right) {
+        for (int i = first; i < limit; i++) {
+            this.fillOne(i, function.invoke(left, right.get(i)));
+        }
+    }
+
+    @Override
+    protected final void fillOne(final int index, final Access1D<?> values, final long valueIndex) {
+        this.set(index, values.get(valueIndex));
+    }
+
+    @Override
+    protected final void fillOne(final int index, final NullaryFunction<RationalNumber> supplier) {
+        this.fillOne(index, supplier.invoke());
+    }
+
+    @Override
+    protected final void fillOne(final int index, final RationalNumber value) {
+        this.setReduced(index, value.getNumerator(), value.getDenominator());
+    }
+
+    @Override
+    protected final RationalNumber get(final int index) {
+        if (this.isBig(index)) {
+            return RationalNumber.of(myBigNumerators[index], myBigDenominators[index]);
+        } else {
+            return RationalNumber.of(numerator[index], denominator[index]);
+        }
+    }
+
+    @Override
+    protected final int indexOfLargest(final int first, final int limit, final int step) {
+
+        int retVal = first;
+        double tmpLargest = 0D;
+        double tmpValue;
+
+        for (int i = first; i < limit; i += step) {
+            tmpValue = Math.abs(this.doubleValue(i));
+            if (tmpValue > tmpLargest) {
+                tmpLargest = tmpValue;
+                retVal = i;
+            }
+        }
+
+        return retVal;
+    }
+
+    @Override
+    protected final boolean isAbsolute(final int index) {
+        return this.isBig(index) ? myBigNumerators[index].signum() >= 0 : numerator[index] >= 0L;
+    }
+
+    @Override
+    protected final boolean isSmall(final int index, final double comparedTo) {
+        return this.isBig(index) ? this.get(index).isSmall(comparedTo) : (numerator[index] == 0L) || this.get(index).isSmall(comparedTo);
+    }
+
+    @Override
+    protected final void modify(final int first, final int limit, final int step, final Access1D<RationalNumber> left,
+            final BinaryFunction<RationalNumber> function) {
+        for (int i = first; i < limit; i += step) {
+            this.fillOne(i, function.invoke(left.get(i), this.get(i)));
+        }
+    }
+
+    @Override
+    protected final void modify(final int first, final int limit, final int step, final BinaryFunction<RationalNumber> function,
+            final Access1D<RationalNumber> right) {
+        for (int i = first; i < limit; i += step) {
+            this.fillOne(i, function.invoke(this.get(i), right.get(i)));
+        }
+    }
+
+    @Override
+    protected final void modify(final int first, final int limit, final int step, final BinaryFunction<RationalNumber> function, final RationalNumber right) {
+        for (int i = first; i < limit; i += step) {
+            this.fillOne(i, function.invoke(this.get(i), right));
+        }
+    }
+
+    @Override
+    protected final void modify(final int first, final int limit, final int step, final ParameterFunction<RationalNumber> function, final int parameter) {
+        for (int i = first; i < limit; i += step) {
+            this.fillOne(i, function.invoke(this.get(i), parameter));
+        }
+    }
+
+    @Override
+    protected final void modify(final int first, final int limit, final int step, final RationalNumber left, final BinaryFunction<RationalNumber> function) {
+        for (int i = first; i < limit; i += step) {
+            this.fillOne(i, function.invoke(left, this.get(i)));
+        }
+    }
+
+    @Override
+    protected final void modify(final int first, final int limit, final int step, final UnaryFunction<RationalNumber> function) {
+        for (int i = first; i < limit; i += step) {
+            this.fillOne(i, function.invoke(this.get(i)));
+        }
+    }
+
+    @Override
+    protected final void modifyOne(final int index, final UnaryFunction<RationalNumber> modifier) {
+        this.fillOne(index, modifier.invoke(this.get(index)));
+    }
+
+    @Override
+    protected final int searchAscending(final RationalNumber value) {
+        return Arrays.binarySearch(this.toArray(), value);
+    }
+
+    @Override
+    protected final void set(final int index, final double value) {
+        this.fillOne(index, RationalNumber.valueOf(value));
+    }
+
+    @Override
+    protected final void set(final int index, final Number value) {
+        this.fillOne(index, RationalNumber.valueOf(value));
+    }
+
+    @Override
+    protected final int size() {
+        return numerator.length;
+    }
+
+    @Override
+    protected final void visit(final int first, final int limit, final int step, final VoidFunction<RationalNumber> visitor) {
+        for (int i = first; i < limit; i += step) {
+            visitor.invoke(this.get(i));
+        }
+    }
+
+    @Override
+    protected final void visitOne(final int index, final VoidFunction<RationalNumber> visitor) {
+        visitor.invoke(this.get(index));
+    }
+
+    @Override
+    final boolean isPrimitive() {
+        return false;
+    }
+
+    @Override
+    final void modify(final long extIndex, final int intIndex, final Access1D<RationalNumber> left, final BinaryFunction<RationalNumber> function) {
+        this.fillOne(intIndex, function.invoke(left.get(extIndex), this.get(intIndex)));
+    }
+
+    @Override
+    final void modify(final long extIndex, final int intIndex, final BinaryFunction<RationalNumber> function, final Access1D<RationalNumber> right) {
+        this.fillOne(intIndex, function.invoke(this.get(intIndex), right.get(extIndex)));
+    }
+
+    @Override
+    final void modify(final long extIndex, final int intIndex, final UnaryFunction<RationalNumber> function) {
+        this.fillOne(intIndex, function.invoke(this.get(intIndex)));
+    }
+
+    private void addProduct(final int index, final boolean subtract, final RationalSplitArray left, final int leftIndex, final RationalSplitArray right,
+            final int rightIndex) {
+
+        final long tmpLeftNumer = left.numerator[leftIndex];
+        final long tmpLeftDenom = left.denominator[leftIndex];
+        final long tmpRightNumer = right.numerator[rightIndex];
+        final long tmpRightDenom = right.denominator[rightIndex];
+        final long tmpNumer = numerator[index];
+        final long tmpDenom = denominator[index];
+
+        if ((tmpLeftDenom == 0L) || (tmpRightDenom == 0L) || (tmpDenom == 0L)) {
+            // Infinity or NaN - let RationalNumber decide
+            final RationalNumber tmpProduct = left.get(leftIndex).multiply(right.get(rightIndex));
+            this.fillOne(index, subtract ? this.get(index).subtract(tmpProduct) : this.get(index).add(tmpProduct));
+            return;
+        }
+
+        final boolean tmpBig = this.isBig(index) || left.isBig(leftIndex) || right.isBig(rightIndex);
+
+        if (!tmpBig) {
+
+            if ((tmpLeftNumer == 0L) || (tmpRightNumer == 0L)) {
+                return;
+            }
+
+            // The product, cross reduced so that it is in its lowest terms
+            final long g1 = RationalSplitArray.gcd(tmpLeftNumer, tmpRightDenom);
+            final long g2 = RationalSplitArray.gcd(tmpRightNumer, tmpLeftDenom);
+
+            final long a = tmpLeftNumer / g1;
+            final long b = tmpRightNumer / g2;
+            final long c = tmpLeftDenom / g2;
+            final long d = tmpRightDenom / g1;
+
+            if (RationalSplitArray.isProductSafe(a, b) && RationalSplitArray.isProductSafe(c, d)) {
+
+                final long tmpProdNumer = subtract ? -(a * b) : a * b;
+                final long tmpProdDenom = c * d;
+
+                if (tmpNumer == 0L) {
+                    this.setReduced(index, tmpProdNumer, tmpProdDenom);
+                    return;
+                }
+
+                final long g = RationalSplitArray.gcd(tmpDenom, tmpProdDenom);
+                final long tmpThisFactor = tmpProdDenom / g;
+                final long tmpProdFactor = tmpDenom / g;
+
+                if (RationalSplitArray.isProductSafe(tmpNumer, tmpThisFactor) && RationalSplitArray.isProductSafe(tmpProdNumer, tmpProdFactor)
+                        && RationalSplitArray.isProductSafe(tmpDenom, tmpThisFactor)) {
+
+                    final long x = tmpNumer * tmpThisFactor;
+                    final long y = tmpProdNumer * tmpProdFactor;
+                    final long tmpSum = x + y;
+
+                    if ((((x ^ tmpSum) & (y ^ tmpSum)) >= 0L) && (tmpSum != Long.MIN_VALUE)) {
+
+                        final long tmpCommon = tmpDenom * tmpThisFactor;
+                        final long h = RationalSplitArray.gcd(tmpSum, tmpCommon);
+
+                        if (h > 1L) {
+                            this.setReduced(index, tmpSum / h, tmpCommon / h);
+                        } else {
+                            this.setReduced(index, tmpSum, tmpCommon);
+                        }
+                        return;
+                    }
+                }
+            }
+        }
+
+        // Overflow - redo it exactly with BigInteger
+        final BigInteger tmpProdNumer = left.getBigNumerator(leftIndex).multiply(right.getBigNumerator(rightIndex));
+        final BigInteger tmpProdDenom = left.getBigDenominator(leftIndex).multiply(right.getBigDenominator(rightIndex));
+        final BigInteger tmpThisNumer = this.getBigNumerator(index);
+        final BigInteger tmpThisDenom = this.getBigDenominator(index);
+
+        final BigInteger tmpCross = tmpProdNumer.multiply(tmpThisDenom);
+        final BigInteger tmpSumNumer = subtract ? tmpThisNumer.multiply(tmpProdDenom).subtract(tmpCross) : tmpThisNumer.multiply(tmpProdDenom).add(tmpCross);
+
+        this.setBig(index, tmpSumNumer, tmpThisDenom.multiply(tmpProdDenom));
+    }
+
+    private BigInteger getBigDenominator(final int index) {
+        return this.isBig(index) ? myBigDenominators[index] : BigInteger.valueOf(denominator[index]);
+    }
+
+    private BigInteger getBigNumerator(final int index) {
+        return this.isBig(index) ? myBigNumerators[index] : BigInteger.valueOf(numerator[index]);
+    }
+
+    /**
+     * Reduces to lowest terms and stores the result in the long[] if possible, otherwise in the side-table.
+     */
+    private void setBig(final int index, final BigInteger numer, final BigInteger denom) {
+
+        BigInteger tmpNumer = numer;
+        BigInteger tmpDenom = denom;
+
+        if (tmpDenom.signum() < 0) {
+            tmpNumer = tmpNumer.negate();
+            tmpDenom = tmpDenom.negate();
+        }
+
+        final BigInteger tmpGCD = tmpNumer.gcd(tmpDenom);
+        if (tmpGCD.compareTo(BigInteger.ONE) > 0) {
+            tmpNumer = tmpNumer.divide(tmpGCD);
+            tmpDenom = tmpDenom.divide(tmpGCD);
+        }
+
+        if ((tmpNumer.bitLength() < 64) && (tmpDenom.bitLength() < 64)) {
+
+            this.setReduced(index, tmpNumer.longValue(), tmpDenom.longValue());
+
+        } else {
+
+            if (myBigNumerators == null) {
+                myBigNumerators = new BigInteger[numerator.length];
+                myBigDenominators = new BigInteger[numerator.length];
+            }
+
+            myBigNumerators[index] = tmpNumer;
+            myBigDenominators[index] = tmpDenom;
+
+            numerator[index] = 0L;
+            denominator[index] = 1L;
+        }
+    }
+
+    /**
+     * The numerator/denominator pair must already be in lowest terms (and the denominator non-negative).
+     */
+    private void setReduced(final int index, final long numer, final long denom) {
+
+        numerator[index] = numer;
+        denominator[index] = denom;
+
+        if (myBigNumerators != null) {
+            myBigNumerators[index] = null;
+            myBigDenominators[index] = null;
+        }
+    }
+
+    private RationalNumber[] toArray() {
+        final RationalNumber[] retVal = new RationalNumber[numerator.length];
+        for (int i = 0; i < retVal.length; i++) {
+            retVal[i] = this.get(i);
+        }
+        return retVal;
+    }
+
+}
@@ -50,6 +50,20 @@ public abstract class AXPY implements BLAS1 {
         }
     }
 
+    /**
+     * Complex version, with y and x split in real and imaginary parts. <code>y = y + a * x</code>
+     */
+    public static void invoke(final double[] yRe, final double[] yIm, final int basey, final double aRe, final double aIm, final double[] xRe,
+            final double[] xIm, final int basex, final int first, final int limit) {
+        double tmpRe, tmpIm;
+        for (int i = first; i < limit; i++) {
+            tmpRe = xRe[basex + i];
+            tmpIm = xIm[basex + i];
+            yRe[basey + i] += (aRe * tmpRe) - (aIm * tmpIm);
+            yIm[basey + i] += (aRe * tmpIm) + (aIm * tmpRe);
+        }
+    }
+
     public static void invoke(final Mutate1D y, final double a, final BigDecimal[] x) {
         final BigDecimal tmpA = new BigDecimal(a);
         for (int i = 0; i < x.length; i++) {
@@ -0,0 +1,347 @@
+/*
+ * Copyright 1997-2018 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.array.blas;
+
+import org.ojalgo.OjAlgoUtils;
+import org.ojalgo.machine.VirtualMachine;
+
+/**
+ * The ?gemm routines perform a matrix-matrix operation with general matrices. This implementation only
+ * handles <code>C = A * B</code> with column-major double[] arrays (no transposes and no scaling). It is a
+ * packed, cache-blocked, implementation with a register tiled micro-kernel - the block sizes are derived
+ * from the L1, L2 and top level cache sizes in {@link OjAlgoUtils#ENVIRONMENT}. It only pays off for larger
+ * matrices.
+ *
+ * @author apete
+ */
+public abstract class GEMM implements BLAS3 {
+
+    /**
+     * Matrices with all dimensions (rows, columns and complexity) larger than this should use this
+     * implementation rather than the simpler unblocked ones.
+     */
+    public static int THRESHOLD = 128;
+
+    static final int MR = 4;
+    static final int NR = 4;
+
+    /**
+     * Computes the specified block, rows [firstRow,rowLimit) and columns [firstColumn,columnLimit), of the
+     * product. Any previous contents in that block is overwritten. Different (non-overlapping) blocks may be
+     * computed in parallel by different threads.
+     *
+     * @param product The product, column-major, with as many rows as left
+     * @param left The left matrix, column-major
+     * @param complexity The number of columns in left, and rows in right
+     * @param right The right matrix, column-major
+     */
+    public static void invoke(final double[] product, final int firstRow, final int rowLimit, final int firstColumn, final int columnLimit,
+            final double[] left, final int complexity, final double[] right) {
+
+        final int structure = left.length / complexity;
+
+        final VirtualMachine environment = OjAlgoUtils.ENVIRONMENT;
+        final int kc = GEMM.blockK(environment.getL1Cache());
+        final int mc = GEMM.blockM(environment.getL2Cache(), kc);
+        final int nc = GEMM.blockN(environment.cache, kc);
+
+        for (int j = firstColumn; j < columnLimit; j++) {
+            final int base = j * structure;
+            for (int i = firstRow; i < rowLimit; i++) {
+                product[base + i] = 0.0;
+            }
+        }
+
+        final double[] packedA = new double[GEMM.roundUp(Math.min(mc, rowLimit - firstRow), MR) * Math.min(kc, complexity)];
+        final double[] packedB = new double[GEMM.roundUp(Math.min(nc, columnLimit - firstColumn), NR) * Math.min(kc, complexity)];
+
+        for (int jc = firstColumn; jc < columnLimit; jc += nc) {
+            final int ncCurr = Math.min(nc, columnLimit - jc);
+
+            for (int pc = 0; pc < complexity; pc += kc) {
+                final int kcCurr = Math.min(kc, complexity - pc);
+
+                GEMM.packRight(right, complexity, pc, kcCurr, jc, ncCurr, packedB);
+
+                for (int ic = firstRow; ic < rowLimit; ic += mc) {
+                    final int mcCurr = Math.min(mc, rowLimit - ic);
+
+                    GEMM.packLeft(left, structure, ic, mcCurr, pc, kcCurr, packedA);
+
+                    for (int jr = 0; jr < ncCurr; jr += NR) {
+                        for (int ir = 0; ir < mcCurr; ir += MR) {
+                            GEMM.kernel(kcCurr, packedA, ir * kcCurr, packedB, jr * kcCurr, product, structure, ic + ir, Math.min(MR, mcCurr - ir), jc + jr,
+                                    Math.min(NR, ncCurr - jr));
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Computes the full product - any previous contents is overwritten.
+     *
+     * @see #invoke(double[], int, int, int, int, double[], int, double[])
+     */
+    public static void invoke(final double[] product, final double[] left, final int complexity, final double[] right) {
+        GEMM.invoke(product, 0, left.length / complexity, 0, right.length / complexity, left, complexity, right);
+    }
+
+    /**
+     * Computes <code>C = C - A * B</code> (or <code>C - A * B<sup>T</sup></code>) for blocks of column-major
+     * arrays - the level-3 trailing matrix update of blocked (in-place) matrix decompositions. The block of C
+     * is rows [firstRow,rowLimit) and columns [firstColumn,columnLimit) of target. A is made up of the same
+     * rows, and complexity columns starting at leftColumn, of left. B is made up of complexity rows, starting
+     * at rightRow, and the same columns of right. When transposed the roles of rows and columns in right are
+     * swapped - B(p,j) is taken from right(j,rightRow+p). The three arrays may be the same as long as the
+     * blocks do not overlap. Different (non-overlapping) blocks of C may be updated in parallel.
+     */
+    public static void subtract(final double[] target, final int structure, final int firstRow, final int rowLimit, final int firstColumn,
+            final int columnLimit, final double[] left, final int leftStructure, final int leftColumn, final double[] right, final int rightStructure,
+            final int rightRow, final int complexity, final boolean transposed) {
+
+        if ((firstRow >= rowLimit) || (firstColumn >= columnLimit) || (complexity <= 0)) {
+            return;
+        }
+
+        final VirtualMachine environment = OjAlgoUtils.ENVIRONMENT;
+        final int kc = GEMM.blockK(environment.getL1Cache());
+        final int mc = GEMM.blockM(environment.getL2Cache(), kc);
+        final int nc = GEMM.blockN(environment.cache, kc);
+
+        final double[] packedA = new double[GEMM.roundUp(Math.min(mc, rowLimit - firstRow), MR) * Math.min(kc, complexity)];
+        final double[] packedB = new double[GEMM.roundUp(Math.min(nc, columnLimit - firstColumn), NR) * Math.min(kc, complexity)];
+
+        for (int jc = firstColumn; jc < columnLimit; jc += nc) {
+            final int ncCurr = Math.min(nc, columnLimit - jc);
+
+            for (int pc = 0; pc < complexity; pc += kc) {
+                final int kcCurr = Math.min(kc, complexity - pc);
+
+                if (transposed) {
+                    GEMM.packRightTransposed(right, rightStructure, rightRow + pc, kcCurr, jc, ncCurr, packedB);
+                } else {
+                    GEMM.packRight(right, rightStructure, rightRow + pc, kcCurr, jc, ncCurr, packedB);
+                }
+                for (int i = 0, limit = GEMM.roundUp(ncCurr, NR) * kcCurr; i < limit; i++) {
+                    packedB[i] = -packedB[i];
+                }
+
+                for (int ic = firstRow; ic < rowLimit; ic += mc) {
+                    final int mcCurr = Math.min(mc, rowLimit - ic);
+
+                    GEMM.packLeft(left, leftStructure, ic, mcCurr, leftColumn + pc, kcCurr, packedA);
+
+                    for (int jr = 0; jr < ncCurr; jr += NR) {
+                        for (int ir = 0; ir < mcCurr; ir += MR) {
+                            GEMM.kernel(kcCurr, packedA, ir * kcCurr, packedB, jr * kcCurr, target, structure, ic + ir, Math.min(MR, mcCurr - ir), jc + jr,
+                                    Math.min(NR, ncCurr - jr));
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * kc : A MR x kc sliver of A and a kc x NR sliver of B should fit in (half) the L1 cache
+     */
+    static int blockK(final long l1Cache) {
+        return (int) Math.max(64L, Math.min(512L, l1Cache / (2L * 8L * (MR + NR))));
+    }
+
+    /**
+     * mc : A mc x kc block of A should fit in (half) the L2 cache
+     */
+    static int blockM(final long l2Cache, final int kc) {
+        return (int) Math.max(MR, Math.min(1024L, (l2Cache / (2L * 8L * kc)) / MR * MR));
+    }
+
+    /**
+     * nc : A kc x nc panel of B should fit in (half) the top level cache
+     */
+    static int blockN(final long topCache, final int kc) {
+        return (int) Math.max(NR, Math.min(8192L, (topCache / (2L * 8L * kc)) / NR * NR));
+    }
+
+    /**
+     * Multiplies an MR x kc sliver of A with a kc x NR sliver of B, and adds the result to the product.
+     */
+    static void kernel(final int kc, final double[] packedA, final int offsetA, final double[] packedB, final int offsetB, final double[] product,
+            final int structure, final int row, final int rows, final int column, final int columns) {
+
+        double c00 = 0.0, c10 = 0.0, c20 = 0.0, c30 = 0.0;
+        double c01 = 0.0, c11 = 0.0, c21 = 0.0, c31 = 0.0;
+        double c02 = 0.0, c12 = 0.0, c22 = 0.0, c32 = 0.0;
+        double c03 = 0.0, c13 = 0.0, c23 = 0.0, c33 = 0.0;
+
+        int a = offsetA;
+        int b = offsetB;
+        for (int p = 0; p < kc; p++) {
+
+            final double a0 = packedA[a];
+            final double a1 = packedA[a + 1];
+            final double a2 = packedA[a + 2];
+            final double a3 = packedA[a + 3];
+
+            final double b0 = packedB[b];
+            final double b1 = packedB[b + 1];
+            final double b2 = packedB[b + 2];
+            final double b3 = packedB[b + 3];
+
+            c00 += a0 * b0;
+            c10 += a1 * b0;
+            c20 += a2 * b0;
+            c30 += a3 * b0;
+            c01 += a0 * b1;
+            c11 += a1 * b1;
+            c21 += a2 * b1;
+            c31 += a3 * b1;
+            c02 += a0 * b2;
+            c12 += a1 * b2;
+            c22 += a2 * b2;
+            c32 += a3 * b2;
+            c03 += a0 * b3;
+            c13 += a1 * b3;
+            c23 += a2 * b3;
+            c33 += a3 * b3;
+
+            a += MR;
+            b += NR;
+        }
+
+        if ((rows == MR) && (columns == NR)) {
+
+            int index = row + (column * structure);
+            product[index] += c00;
+            product[index + 1] += c10;
+            product[index + 2] += c20;
+            product[index + 3] += c30;
+            index += structure;
+            product[index] += c01;
+            product[index + 1] += c11;
+            product[index + 2] += c21;
+            product[index + 3] += c31;
+            index += structure;
+            product[index] += c02;
+            product[index + 1] += c12;
+            product[index + 2] += c22;
+            product[index + 3] += c32;
+            index += structure;
+            product[index] += c03;
+            product[index + 1] += c13;
+            product[index + 2] += c23;
+            product[index + 3] += c33;
+
+        } else {
+
+            final double[] tile = { c00, c10, c20, c30, c01, c11, c21, c31, c02, c12, c22, c32, c03, c13, c23, c33 };
+
+            for (int j = 0; j < columns; j++) {
+                final int base = row + ((column + j) * structure);
+                for (int i = 0; i < rows; i++) {
+                    product[base + i] += tile[i + (j * MR)];
+                }
+            }
+        }
+    }
+
+    /**
+     * Copies a mc x kc block of A to MR-row slivers, each stored sliver-column by sliver-column. Rows beyond
+     * the matrix are padded with zeros.
+     */
+    static void packLeft(final double[] left, final int structure, final int firstRow, final int mc, final int firstColumn, final int kc,
+            final double[] packed) {
+
+        int index = 0;
+
+        for (int ir = 0; ir < mc; ir += MR) {
+            final int rows = Math.min(MR, mc - ir);
+            final int row = firstRow + ir;
+
+            for (int p = 0; p < kc; p++) {
+                final int base = row + ((firstColumn + p) * structure);
+                for (int i = 0; i < rows; i++) {
+                    packed[index + i] = left[base + i];
+                }
+                for (int i = rows; i < MR; i++) {
+                    packed[index + i] = 0.0;
+                }
+                index += MR;
+            }
+        }
+    }
+
+    /**
+     * Copies a kc x nc panel of B to NR-column slivers, each stored sliver-row by sliver-row. Columns beyond
+     * the matrix are padded with zeros.
+     */
+    static void packRight(final double[] right, final int complexity, final int firstRow, final int kc, final int firstColumn, final int nc,
+            final double[] packed) {
+
+        for (int jr = 0; jr < nc; jr += NR) {
+            final int columns = Math.min(NR, nc - jr);
+            final int offset = jr * kc;
+
+            for (int j = 0; j < columns; j++) {
+                final int base = firstRow + ((firstColumn + jr + j) * complexity);
+                for (int p = 0; p < kc; p++) {
+                    packed[offset + (p * NR) + j] = right[base + p];
+                }
+            }
+            for (int j = columns; j < NR; j++) {
+                for (int p = 0; p < kc; p++) {
+                    packed[offset + (p * NR) + j] = 0.0;
+                }
+            }
+        }
+    }
+
+    /**
+     * Same as {@link #packRight(double[], int, int, int, int, int, double[])} but with the kc x nc panel of B
+     * taken from the transpose of right - B(p,j) is right(j,p).
+     */
+    static void packRightTransposed(final double[] right, final int structure, final int firstRow, final int kc, final int firstColumn, final int nc,
+            final double[] packed) {
+
+        for (int jr = 0; jr < nc; jr += NR) {
+            final int columns = Math.min(NR, nc - jr);
+            final int offset = jr * kc;
+
+            for (int p = 0; p < kc; p++) {
+                final int base = firstColumn + jr + ((firstRow + p) * structure);
+                for (int j = 0; j < columns; j++) {
+                    packed[offset + (p * NR) + j] = right[base + j];
+                }
+                for (int j = columns; j < NR; j++) {
+                    packed[offset + (p * NR) + j] = 0.0;
+                }
+            }
+        }
+    }
+
+    static int roundUp(final int value, final int multiple) {
+        return ((value + multiple - 1) / multiple) * multiple;
+    }
+
+}
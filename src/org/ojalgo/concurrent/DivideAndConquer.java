@@ -22,7 +22,10 @@
 package org.ojalgo.concurrent;
 
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 import java.util.concurrent.Future;
+import java.util.concurrent.RecursiveAction;
 
 import org.ojalgo.OjAlgoUtils;
 import org.ojalgo.ProgrammingError;
@@ -32,49 +35,222 @@ import org.ojalgo.ProgrammingError;
  */
 public abstract class DivideAndConquer extends Object {
 
-    public DivideAndConquer() {
-        super();
+    @FunctionalInterface
+    public interface Conquerer {
+
+        void conquer(int first, int limit);
+
     }
 
     /**
-     * Synchronous execution - wait until it's finished.
-     *
-     * @param first The first index, in a range, to include.
-     * @param limit The first index NOT to include - last (excl.) index in a range.
+     * The execution backend used to run the divided parts.
      */
-    public final void invoke(final int first, final int limit, final int threshold) {
+    public interface Divider {
 
-        final int availableWorkers = OjAlgoUtils.ENVIRONMENT.threads - (DaemonPoolExecutor.INSTANCE.getActiveCount() / 2);
+        /**
+         * @return The number of workers currently available - an upper limit to how many parts the next
+         *         invocation will be divided into.
+         */
+        int available();
+
+        /**
+         * Divide the range [first, limit) in (at most) workers parts, and conquer each part.
+         */
+        void divide(Conquerer conquerer, int first, int limit, int threshold, int workers);
 
-        this.divide(first, limit, threshold, availableWorkers);
     }
 
-    protected abstract void conquer(final int first, final int limit);
+    /**
+     * Submits both halves to the {@link DaemonPoolExecutor} and then blocks, waiting for them to finish. This
+     * was the only available behaviour up to and including v47.
+     */
+    public static final Divider DAEMON_POOL = new Divider() {
 
-    final void divide(final int first, final int limit, final int threshold, final int workers) {
+        public int available() {
+            return OjAlgoUtils.ENVIRONMENT.threads - (DaemonPoolExecutor.INSTANCE.getActiveCount() / 2);
+        }
+
+        public void divide(final Conquerer conquerer, final int first, final int limit, final int threshold, final int workers) {
+
+            final int count = limit - first;
+
+            if ((count > threshold) && (workers > 1)) {
+
+                final int split = first + (count / 2);
+                final int nextWorkers = workers / 2;
+
+                final Future<?> firstPart = DaemonPoolExecutor.INSTANCE.submit(() -> this.divide(conquerer, first, split, threshold, nextWorkers));
+                final Future<?> secondPart = DaemonPoolExecutor.INSTANCE.submit(() -> this.divide(conquerer, split, limit, threshold, nextWorkers));
+
+                try {
+                    firstPart.get();
+                    secondPart.get();
+                } catch (final InterruptedException | ExecutionException exception) {
+                    exception.printStackTrace();
+                    throw new ProgrammingError(exception);
+                }
+
+            } else {
+
+                conquerer.conquer(first, limit);
+            }
+        }
+
+    };
 
-        final int count = limit - first;
+    /**
+     * Work-stealing execution. The calling thread computes one half itself while the other half is forked.
+     * When called from within a {@link ForkJoinPool} the forked half stays in that pool, otherwise it is
+     * handed to a dedicated (daemon) pool sized to the number of hardware threads.
+     */
+    public static final Divider FORK_JOIN = new Divider() {
 
-        if ((count > threshold) && (workers > 1)) {
+        public int available() {
+            return OjAlgoUtils.ENVIRONMENT.threads - (ConquerTask.POOL.getActiveThreadCount() / 2);
+        }
+
+        public void divide(final Conquerer conquerer, final int first, final int limit, final int threshold, final int workers) {
+            new ConquerTask(conquerer, first, limit, threshold, workers).compute();
+        }
+
+    };
+
+    static final class ConquerTask extends RecursiveAction {
+
+        static final ForkJoinPool POOL = new ForkJoinPool(OjAlgoUtils.ENVIRONMENT.threads);
+
+        private final Conquerer myConquerer;
+        private final int myFirst;
+        private final int myLimit;
+        private final int myThreshold;
+        private final int myWorkers;
+
+        ConquerTask(final Conquerer conquerer, final int first, final int limit, final int threshold, final int workers) {
+            super();
+            myConquerer = conquerer;
+            myFirst = first;
+            myLimit = limit;
+            myThreshold = threshold;
+            myWorkers = workers;
+        }
 
-            final int split = first + (count / 2);
-            final int nextWorkers = workers / 2;
+        @Override
+        protected void compute() {
 
-            final Future<?> firstPart = DaemonPoolExecutor.INSTANCE.submit(() -> this.divide(first, split, threshold, nextWorkers));
-            final Future<?> secondPart = DaemonPoolExecutor.INSTANCE.submit(() -> this.divide(split, limit, threshold, nextWorkers));
+            final int count = myLimit - myFirst;
 
-            try {
-                firstPart.get();
-                secondPart.get();
-            } catch (final InterruptedException | ExecutionException exception) {
-                exception.printStackTrace();
-                throw new ProgrammingError(exception);
+            if ((count > myThreshold) && (myWorkers > 1)) {
+
+                final int split = myFirst + (count / 2);
+                final int nextWorkers = myWorkers / 2;
+
+                final ConquerTask secondPart = new ConquerTask(myConquerer, split, myLimit, myThreshold, myWorkers - nextWorkers);
+
+                if (ForkJoinTask.inForkJoinPool()) {
+                    secondPart.fork();
+                } else {
+                    POOL.execute(secondPart);
+                }
+
+                new ConquerTask(myConquerer, myFirst, split, myThreshold, nextWorkers).compute();
+
+                secondPart.join();
+
+            } else {
+
+                myConquerer.conquer(myFirst, myLimit);
             }
+        }
+
+    }
+
+    private static volatile Divider DIVIDER = FORK_JOIN;
+    private static final ThreadLocal<Integer> PARALLELISM = new ThreadLocal<>();
 
+    /**
+     * @return The execution backend used by default
+     */
+    public static Divider getDivider() {
+        return DIVIDER;
+    }
+
+    /**
+     * The max number of workers any one invocation may use. If a limit has been set for the current thread,
+     * using {@link #limitParallelism(int)}, that limit is taken into account.
+     */
+    public static int getParallelism() {
+        final Integer limit = PARALLELISM.get();
+        if (limit != null) {
+            return Math.min(limit.intValue(), OjAlgoUtils.ENVIRONMENT.threads);
         } else {
+            return OjAlgoUtils.ENVIRONMENT.threads;
+        }
+    }
 
-            this.conquer(first, limit);
+    /**
+     * Limit the number of workers used by invocations originating from the current thread. Typically used in
+     * a server where many simultaneous requests (threads) each perform matrix operations, and they should
+     * share the cores rather than each of them trying to use all of them.
+     *
+     * @param maxWorkers The max number of workers - a value less than 1 removes any previously set limit
+     */
+    public static void limitParallelism(final int maxWorkers) {
+        if (maxWorkers > 0) {
+            PARALLELISM.set(Integer.valueOf(maxWorkers));
+        } else {
+            PARALLELISM.remove();
         }
     }
 
+    /**
+     * Set the execution backend used by default - {@link #FORK_JOIN} unless changed.
+     */
+    public static void setDivider(final Divider divider) {
+        ProgrammingError.throwIfNull(divider);
+        DIVIDER = divider;
+    }
+
+    private final Divider myDivider;
+
+    public DivideAndConquer() {
+        this(DIVIDER);
+    }
+
+    public DivideAndConquer(final Divider divider) {
+
+        super();
+
+        myDivider = divider;
+    }
+
+    /**
+     * Synchronous execution - wait until it's finished.
+     *
+     * @param first The first index, in a range, to include.
+     * @param limit The first index NOT to include - last (excl.) index in a range.
+     */
+    public final void invoke(final int first, final int limit, final int threshold) {
+        this.invoke(first, limit, threshold, DivideAndConquer.getParallelism());
+    }
+
+    /**
+     * Synchronous execution - wait until it's finished.
+     *
+     * @param first The first index, in a range, to include.
+     * @param limit The first index NOT to include - last (excl.) index in a range.
+     * @param maxWorkers The max number of workers to use for this invocation
+     */
+    public final void invoke(final int first, final int limit, final int threshold, final int maxWorkers) {
+
+        final int availableWorkers = Math.min(maxWorkers, myDivider.available());
+
+        this.divide(first, limit, threshold, availableWorkers);
+    }
+
+    protected abstract void conquer(final int first, final int limit);
+
+    final void divide(final int first, final int limit, final int threshold, final int workers) {
+        myDivider.divide(this::conquer, first, limit, threshold, workers);
+    }
+
 }
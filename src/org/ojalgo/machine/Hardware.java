@@ -21,7 +21,9 @@
  */
 package org.ojalgo.machine;
 
+import java.io.File;
 import java.util.Arrays;
+import java.util.Optional;
 import java.util.Set;
 import java.util.TreeSet;
 
@@ -413,6 +415,22 @@ public final class Hardware extends AbstractMachine implements Comparable<Hardwa
         PREDEFINED.add(X86_64__96);
     }
 
+    /**
+     * Attempts to detect the actual hardware (cache hierarchy, threads and memory) by reading what the
+     * operating system reports. Any container (cgroup) CPU or memory limits are taken into account. Currently
+     * only implemented for Linux, where it reads sysfs and procfs.
+     *
+     * @return The detected hardware, or empty if detection is not supported or failed
+     */
+    public static Optional<Hardware> detect() {
+        final String os = System.getProperty("os.name", "").toLowerCase();
+        if (os.contains("linux")) {
+            return LinuxHardware.detect(VirtualMachine.getArchitecture(), new File("/"));
+        } else {
+            return Optional.empty();
+        }
+    }
+
     public static Hardware makeSimple() {
         return Hardware.makeSimple(VirtualMachine.getArchitecture(), VirtualMachine.getMemory(), VirtualMachine.getThreads());
     }
@@ -527,6 +545,20 @@ public final class Hardware extends AbstractMachine implements Comparable<Hardwa
         return result;
     }
 
+    /**
+     * @return The size, in bytes, of the (per core) L1 (data) cache
+     */
+    public long getL1Cache() {
+        return myLevels[myLevels.length - 1].memory;
+    }
+
+    /**
+     * @return The size, in bytes, of the L2 cache - the L1 cache size if no L2 cache is specified
+     */
+    public long getL2Cache() {
+        return this.isL2Specified() ? myLevels[myLevels.length - 2].memory : this.getL1Cache();
+    }
+
     public boolean isL2Specified() {
         return myLevels.length > 2;
     }
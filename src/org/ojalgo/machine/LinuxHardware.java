@@ -0,0 +1,269 @@
+/*
+ * Copyright 1997-2018 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.machine;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.TreeMap;
+
+/**
+ * Builds a {@link Hardware} instance from what the Linux kernel reports in sysfs and procfs - cache hierarchy,
+ * online CPU:s and system memory - restricted by any cgroup (container) CPU quota, cpuset or memory limit.
+ *
+ * @author apete
+ */
+final class LinuxHardware {
+
+    private static final String CGROUP = "sys/fs/cgroup";
+    private static final String CPU = "sys/devices/system/cpu";
+    private static final String MEMINFO = "proc/meminfo";
+    private static final long UNLIMITED = Long.MAX_VALUE / 2L;
+
+    /**
+     * @param root The file system root, "/" except when testing
+     */
+    static Optional<Hardware> detect(final String architecture, final File root) {
+
+        final BitSet online = LinuxHardware.parseList(LinuxHardware.read(root, CPU + "/online"));
+        if (online.isEmpty()) {
+            return Optional.empty();
+        }
+
+        final int threads = Math.max(1, Math.min(online.cardinality(), LinuxHardware.getCgroupThreads(root)));
+
+        long memory = LinuxHardware.getMemTotal(root);
+        if (memory <= 0L) {
+            return Optional.empty();
+        }
+        memory = Math.min(memory, LinuxHardware.getCgroupMemory(root));
+
+        // Cache level -> { size, sharing threads }, the largest data/unified cache found at each level
+        final TreeMap<Integer, long[]> caches = new TreeMap<>();
+
+        final File cacheDir = new File(root, CPU + "/cpu" + online.nextSetBit(0) + "/cache");
+        final File[] indices = cacheDir.listFiles((dir, name) -> name.startsWith("index"));
+
+        if (indices != null) {
+            for (final File index : indices) {
+
+                final String type = LinuxHardware.read(index, "type");
+                if ("Instruction".equalsIgnoreCase(type)) {
+                    continue;
+                }
+
+                try {
+
+                    final int level = Integer.parseInt(LinuxHardware.read(index, "level"));
+                    final long size = LinuxHardware.parseSize(LinuxHardware.read(index, "size"));
+
+                    final BitSet shared = LinuxHardware.parseList(LinuxHardware.read(index, "shared_cpu_list"));
+                    shared.and(online);
+                    final int sharing = Math.max(1, Math.min(threads, shared.cardinality()));
+
+                    if ((size > 0L) && (!caches.containsKey(level) || (caches.get(level)[0] < size))) {
+                        caches.put(level, new long[] { size, sharing });
+                    }
+
+                } catch (final NumberFormatException cause) {
+                    // Skip that cache index
+                }
+            }
+        }
+
+        if (caches.isEmpty()) {
+            return Optional.empty();
+        }
+
+        final List<BasicMachine> levels = new ArrayList<>();
+        levels.add(new BasicMachine(memory, threads));
+        for (final long[] cache : caches.descendingMap().values()) {
+            levels.add(new BasicMachine(cache[0], (int) cache[1]));
+        }
+
+        return Optional.of(new Hardware(architecture, levels.toArray(new BasicMachine[levels.size()])));
+    }
+
+    /**
+     * The number of threads allowed by the cgroup (v1 or v2) CPU quota and cpuset, or
+     * {@link Integer#MAX_VALUE} if not limited.
+     */
+    static int getCgroupThreads(final File root) {
+
+        int retVal = Integer.MAX_VALUE;
+
+        long quota = -1L;
+        long period = -1L;
+
+        final String cpuMax = LinuxHardware.read(root, CGROUP + "/cpu.max");
+        if (cpuMax.length() > 0) {
+            final String[] parts = cpuMax.split("\\s+");
+            if (!"max".equals(parts[0]) && (parts.length > 1)) {
+                quota = LinuxHardware.parseLong(parts[0], -1L);
+                period = LinuxHardware.parseLong(parts[1], -1L);
+            }
+        } else {
+            quota = LinuxHardware.parseLong(LinuxHardware.read(root, CGROUP + "/cpu/cpu.cfs_quota_us"), -1L);
+            period = LinuxHardware.parseLong(LinuxHardware.read(root, CGROUP + "/cpu/cpu.cfs_period_us"), -1L);
+        }
+
+        if ((quota > 0L) && (period > 0L)) {
+            retVal = (int) Math.max(1L, (quota + period - 1L) / period);
+        }
+
+        String cpuset = LinuxHardware.read(root, CGROUP + "/cpuset.cpus.effective");
+        if (cpuset.length() == 0) {
+            cpuset = LinuxHardware.read(root, CGROUP + "/cpuset/cpuset.effective_cpus");
+        }
+        if (cpuset.length() == 0) {
+            cpuset = LinuxHardware.read(root, CGROUP + "/cpuset/cpuset.cpus");
+        }
+        final int cpusetSize = LinuxHardware.parseList(cpuset).cardinality();
+        if (cpusetSize > 0) {
+            retVal = Math.min(retVal, cpusetSize);
+        }
+
+        return retVal;
+    }
+
+    /**
+     * The cgroup (v1 or v2) memory limit, or {@link Long#MAX_VALUE} if not limited.
+     */
+    static long getCgroupMemory(final File root) {
+
+        String limit = LinuxHardware.read(root, CGROUP + "/memory.max");
+        if (limit.length() == 0) {
+            limit = LinuxHardware.read(root, CGROUP + "/memory/memory.limit_in_bytes");
+        }
+
+        final long retVal = LinuxHardware.parseLong(limit, Long.MAX_VALUE);
+
+        return (retVal > 0L) && (retVal < UNLIMITED) ? retVal : Long.MAX_VALUE;
+    }
+
+    static long getMemTotal(final File root) {
+        for (final String line : LinuxHardware.read(root, MEMINFO).split("\n")) {
+            if (line.startsWith("MemTotal:")) {
+                return LinuxHardware.parseSize(line.substring(9).replace(" ", "").replace("B", "").replace("b", ""));
+            }
+        }
+        return -1L;
+    }
+
+    /**
+     * Parses the kernel's cpu list format, e.g. "0-3,8-11,16"
+     */
+    static BitSet parseList(final String list) {
+
+        final BitSet retVal = new BitSet();
+
+        for (final String range : list.split(",")) {
+
+            final String trimmed = range.trim();
+
+            if (trimmed.length() > 0) {
+                try {
+                    final int dash = trimmed.indexOf('-');
+                    if (dash > 0) {
+                        retVal.set(Integer.parseInt(trimmed.substring(0, dash)), Integer.parseInt(trimmed.substring(dash + 1)) + 1);
+                    } else {
+                        retVal.set(Integer.parseInt(trimmed));
+                    }
+                } catch (final NumberFormatException cause) {
+                    // Skip that range
+                }
+            }
+        }
+
+        return retVal;
+    }
+
+    /**
+     * Parses sizes like "32K", "1024K" or "8M" to number of bytes
+     */
+    static long parseSize(final String size) {
+
+        final String trimmed = size.trim().toUpperCase();
+
+        if (trimmed.length() == 0) {
+            return -1L;
+        }
+
+        long factor = 1L;
+        String digits = trimmed;
+
+        switch (trimmed.charAt(trimmed.length() - 1)) {
+        case 'K':
+            factor = AbstractMachine.K;
+            break;
+        case 'M':
+            factor = AbstractMachine.K * AbstractMachine.K;
+            break;
+        case 'G':
+            factor = AbstractMachine.K * AbstractMachine.K * AbstractMachine.K;
+            break;
+        default:
+            break;
+        }
+        if (factor != 1L) {
+            digits = trimmed.substring(0, trimmed.length() - 1);
+        }
+
+        return factor * LinuxHardware.parseLong(digits, -1L);
+    }
+
+    private static long parseLong(final String value, final long defaultValue) {
+        try {
+            return Long.parseLong(value.trim());
+        } catch (final NumberFormatException cause) {
+            return defaultValue;
+        }
+    }
+
+    /**
+     * @return The (trimmed) contents of the file, or an empty string if it can't be read
+     */
+    private static String read(final File dir, final String path) {
+
+        final File file = new File(dir, path);
+
+        if (file.isFile() && file.canRead()) {
+            try {
+                return new String(Files.readAllBytes(file.toPath()), StandardCharsets.US_ASCII).trim();
+            } catch (final IOException | SecurityException cause) {
+                return "";
+            }
+        } else {
+            return "";
+        }
+    }
+
+    private LinuxHardware() {
+        super();
+    }
+
+}
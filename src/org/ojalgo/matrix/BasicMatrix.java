@@ -173,11 +173,17 @@ abstract class BasicMatrix<N extends Number, M extends BasicMatrix<N, M>> extend
     }
 
     private transient MatrixDecomposition<N> myDecomposition = null;
+    /**
+     * Element-wise operations are deferred. They're executed, in a single pass to a single new store, the
+     * first time the actual store is needed. Always read before, and written after, {@link #mySupplier} so
+     * that a thread that sees it cleared also sees the materialised store.
+     */
+    private transient volatile boolean myDeferred = false;
     private transient int myHashCode = 0;
 
     private transient Boolean myHermitian = null;
 
-    private final MatrixStore<N> myStore;
+    private volatile ElementsSupplier<N> mySupplier;
 
     private transient Boolean mySymmetric = null;
 
@@ -189,66 +195,58 @@ abstract class BasicMatrix<N extends Number, M extends BasicMatrix<N, M>> extend
         ProgrammingError.throwForIllegalInvocation();
     }
 
-    BasicMatrix(final MatrixStore<N> store) {
+    BasicMatrix(final ElementsSupplier<N> supplier) {
 
         super();
 
-        myStore = store;
+        mySupplier = supplier;
     }
 
     public M add(final double scalarAddend) {
 
-        final PhysicalStore<N> retVal = myStore.physical().copy(myStore);
-
-        final N tmpRight = myStore.physical().scalar().cast(scalarAddend);
+        final ElementsSupplier<N> supplier = mySupplier;
 
-        retVal.modifyAll(myStore.physical().function().add().second(tmpRight));
+        final N right = supplier.physical().scalar().cast(scalarAddend);
 
-        return this.getFactory().instantiate(retVal);
+        return this.defer(supplier.operateOnAll(supplier.physical().function().add().second(right)));
     }
 
     public M add(final M addend) {
 
-        ProgrammingError.throwIfNotEqualDimensions(myStore, addend);
+        final ElementsSupplier<N> supplier = mySupplier;
 
-        final PhysicalStore<N> retVal = myStore.physical().copy(addend);
+        ProgrammingError.throwIfNotEqualDimensions(this, addend);
 
-        retVal.modifyMatching(myStore, myStore.physical().function().add());
-
-        return this.getFactory().instantiate(retVal);
+        return this.defer(supplier.operateOnMatching(supplier.physical().function().add(), this.cast(addend).get()));
     }
 
     public M add(final Number scalarAddend) {
 
-        final org.ojalgo.matrix.store.PhysicalStore.Factory<N, ?> tmpPhysical = myStore.physical();
-
-        final PhysicalStore<N> retVal = tmpPhysical.copy(myStore);
+        final ElementsSupplier<N> supplier = mySupplier;
 
-        final N tmpRight = tmpPhysical.scalar().cast(scalarAddend);
+        final N right = supplier.physical().scalar().cast(scalarAddend);
 
-        retVal.modifyAll(tmpPhysical.function().add().second(tmpRight));
-
-        return this.getFactory().instantiate(retVal);
+        return this.defer(supplier.operateOnAll(supplier.physical().function().add().second(right)));
     }
 
     public N aggregateColumn(final long row, final long col, final Aggregator aggregator) {
-        return myStore.aggregateColumn(row, col, aggregator);
+        return this.getStore().aggregateColumn(row, col, aggregator);
     }
 
     public N aggregateDiagonal(final long row, final long col, final Aggregator aggregator) {
-        return myStore.aggregateDiagonal(row, col, aggregator);
+        return this.getStore().aggregateDiagonal(row, col, aggregator);
     }
 
     public N aggregateRange(final long first, final long limit, final Aggregator aggregator) {
-        return myStore.aggregateRange(first, limit, aggregator);
+        return this.getStore().aggregateRange(first, limit, aggregator);
     }
 
     public N aggregateRow(final long row, final long col, final Aggregator aggregator) {
-        return myStore.aggregateRow(row, col, aggregator);
+        return this.getStore().aggregateRow(row, col, aggregator);
     }
 
     public M conjugate() {
-        return this.getFactory().instantiate(myStore.conjugate());
+        return this.getFactory().instantiate(this.getStore().conjugate());
     }
 
     /**
@@ -257,54 +255,48 @@ abstract class BasicMatrix<N extends Number, M extends BasicMatrix<N, M>> extend
     public abstract BasicMatrix.PhysicalReceiver<N, M> copy();
 
     public long count() {
-        return myStore.count();
+        return mySupplier.count();
     }
 
     public long countColumns() {
-        return myStore.countColumns();
+        return mySupplier.countColumns();
     }
 
     public long countRows() {
-        return myStore.countRows();
+        return mySupplier.countRows();
     }
 
     public M divide(final double scalarDivisor) {
 
-        final PhysicalStore<N> retVal = myStore.physical().copy(myStore);
-
-        final N tmpRight = myStore.physical().scalar().cast(scalarDivisor);
+        final ElementsSupplier<N> supplier = mySupplier;
 
-        retVal.modifyAll(myStore.physical().function().divide().second(tmpRight));
+        final N right = supplier.physical().scalar().cast(scalarDivisor);
 
-        return this.getFactory().instantiate(retVal);
+        return this.defer(supplier.operateOnAll(supplier.physical().function().divide().second(right)));
     }
 
     public M divide(final Number scalarDivisor) {
 
-        final PhysicalStore<N> retVal = myStore.physical().copy(myStore);
+        final ElementsSupplier<N> supplier = mySupplier;
 
-        final N tmpRight = myStore.physical().scalar().cast(scalarDivisor);
+        final N right = supplier.physical().scalar().cast(scalarDivisor);
 
-        retVal.modifyAll(myStore.physical().function().divide().second(tmpRight));
-
-        return this.getFactory().instantiate(retVal);
+        return this.defer(supplier.operateOnAll(supplier.physical().function().divide().second(right)));
     }
 
     public double doubleValue(final long index) {
-        return myStore.doubleValue(index);
+        return this.getStore().doubleValue(index);
     }
 
     public double doubleValue(final long i, final long j) {
-        return myStore.doubleValue(i, j);
+        return this.getStore().doubleValue(i, j);
     }
 
     public M enforce(final NumberContext context) {
 
-        final PhysicalStore<N> tmpCopy = myStore.copy();
-
-        tmpCopy.modifyAll(myStore.physical().function().enforce(context));
+        final ElementsSupplier<N> supplier = mySupplier;
 
-        return this.getFactory().instantiate(tmpCopy);
+        return this.defer(supplier.operateOnAll(supplier.physical().function().enforce(context)));
     }
 
     /**
@@ -312,7 +304,7 @@ abstract class BasicMatrix<N extends Number, M extends BasicMatrix<N, M>> extend
      *         limits of aCntxt.
      */
     public boolean equals(final Access2D<?> another, final NumberContext precision) {
-        return Access2D.equals(myStore, another, precision);
+        return Access2D.equals(this.getStore(), another, precision);
     }
 
     @Override
@@ -343,11 +335,11 @@ abstract class BasicMatrix<N extends Number, M extends BasicMatrix<N, M>> extend
     }
 
     public N get(final long index) {
-        return myStore.get(index);
+        return this.getStore().get(index);
     }
 
     public N get(final long aRow, final long aColumn) {
-        return myStore.get(aRow, aColumn);
+        return this.getStore().get(aRow, aColumn);
     }
 
     /**
@@ -356,7 +348,7 @@ abstract class BasicMatrix<N extends Number, M extends BasicMatrix<N, M>> extend
      * @return ratio of largest to smallest singular value.
      */
     public Scalar<N> getCondition() {
-        return myStore.physical().scalar().convert(this.getComputedSingularValue().getCondition());
+        return this.getStore().physical().scalar().convert(this.getComputedSingularValue().getCondition());
     }
 
     /**
@@ -373,16 +365,16 @@ abstract class BasicMatrix<N extends Number, M extends BasicMatrix<N, M>> extend
 
         } else {
 
-            final DeterminantTask<N> tmpTask = this.getTaskDeterminant(myStore);
+            final DeterminantTask<N> tmpTask = this.getTaskDeterminant(this.getStore());
 
             if (tmpTask instanceof MatrixDecomposition.Determinant) {
                 myDecomposition = (MatrixDecomposition.Determinant<N>) tmpTask;
             }
 
-            tmpDeterminant = tmpTask.calculateDeterminant(myStore);
+            tmpDeterminant = tmpTask.calculateDeterminant(this.getStore());
         }
 
-        return myStore.physical().scalar().convert(tmpDeterminant);
+        return this.getStore().physical().scalar().convert(tmpDeterminant);
     }
 
     public List<Eigenpair> getEigenpairs() {
@@ -412,7 +404,7 @@ abstract class BasicMatrix<N extends Number, M extends BasicMatrix<N, M>> extend
      * @see org.ojalgo.matrix.decomposition.MatrixDecomposition.RankRevealing
      */
     public int getRank() {
-        return this.getRankRevealing(myStore).getRank();
+        return this.getRankRevealing(this.getStore()).getRank();
     }
 
     /**
@@ -422,17 +414,17 @@ abstract class BasicMatrix<N extends Number, M extends BasicMatrix<N, M>> extend
      */
     public Scalar<N> getTrace() {
 
-        final AggregatorFunction<N> tmpAggr = myStore.physical().aggregator().sum();
+        final AggregatorFunction<N> tmpAggr = this.getStore().physical().aggregator().sum();
 
-        myStore.visitDiagonal(tmpAggr);
+        this.getStore().visitDiagonal(tmpAggr);
 
-        return myStore.physical().scalar().convert(tmpAggr.get());
+        return this.getStore().physical().scalar().convert(tmpAggr.get());
     }
 
     @Override
     public int hashCode() {
         if (myHashCode == 0) {
-            myHashCode = MatrixUtils.hashCode(myStore);
+            myHashCode = MatrixUtils.hashCode(this.getStore());
         }
         return myHashCode;
     }
@@ -473,14 +465,14 @@ abstract class BasicMatrix<N extends Number, M extends BasicMatrix<N, M>> extend
 
         } else {
 
-            final InverterTask<N> tmpTask = this.getTaskInverter(myStore);
+            final InverterTask<N> tmpTask = this.getTaskInverter(this.getStore());
 
             if (tmpTask instanceof MatrixDecomposition.Solver) {
 
                 final MatrixDecomposition.Solver<N> tmpSolver = (MatrixDecomposition.Solver<N>) tmpTask;
                 myDecomposition = tmpSolver;
 
-                if (tmpSolver.compute(myStore)) {
+                if (tmpSolver.compute(this.getStore())) {
                     tmpInverse = tmpSolver.getInverse();
                 } else {
                     tmpInverse = null;
@@ -489,7 +481,7 @@ abstract class BasicMatrix<N extends Number, M extends BasicMatrix<N, M>> extend
             } else {
 
                 try {
-                    tmpInverse = tmpTask.invert(myStore);
+                    tmpInverse = tmpTask.invert(this.getStore());
                 } catch (final RecoverableCondition xcptn) {
                     xcptn.printStackTrace();
                     tmpInverse = null;
@@ -507,7 +499,7 @@ abstract class BasicMatrix<N extends Number, M extends BasicMatrix<N, M>> extend
     }
 
     public boolean isAbsolute(final long row, final long col) {
-        return myStore.isAbsolute(row, col);
+        return this.getStore().isAbsolute(row, col);
     }
 
     /**
@@ -515,28 +507,28 @@ abstract class BasicMatrix<N extends Number, M extends BasicMatrix<N, M>> extend
      * @see org.ojalgo.matrix.decomposition.MatrixDecomposition.RankRevealing
      */
     public boolean isFullRank() {
-        return this.getRankRevealing(myStore).isFullRank();
-        // return this.getRank() == Math.min(myStore.countRows(), myStore.countColumns());
+        return this.getRankRevealing(this.getStore()).isFullRank();
+        // return this.getRank() == Math.min(this.getStore().countRows(), this.getStore().countColumns());
     }
 
     public boolean isHermitian() {
         if (myHermitian == null) {
-            myHermitian = this.isSquare() && myStore.equals(myStore.conjugate(), NumberContext.getGeneral(6));
+            myHermitian = this.isSquare() && this.getStore().equals(this.getStore().conjugate(), NumberContext.getGeneral(6));
         }
         return myHermitian.booleanValue();
     }
 
     public boolean isSmall(final double comparedTo) {
-        return myStore.isSmall(comparedTo);
+        return this.getStore().isSmall(comparedTo);
     }
 
     public boolean isSmall(final long row, final long col, final double comparedTo) {
-        return myStore.isSmall(row, col, comparedTo);
+        return this.getStore().isSmall(row, col, comparedTo);
     }
 
     public boolean isSymmetric() {
         if (mySymmetric == null) {
-            mySymmetric = this.isSquare() && myStore.equals(myStore.transpose(), NumberContext.getGeneral(6));
+            mySymmetric = this.isSquare() && this.getStore().equals(this.getStore().transpose(), NumberContext.getGeneral(6));
         }
         return mySymmetric.booleanValue();
     }
@@ -545,40 +537,34 @@ abstract class BasicMatrix<N extends Number, M extends BasicMatrix<N, M>> extend
 
     public M multiply(final double scalarMultiplicand) {
 
-        final PhysicalStore<N> retVal = myStore.physical().copy(myStore);
+        final ElementsSupplier<N> supplier = mySupplier;
 
-        final N tmpRight = myStore.physical().scalar().cast(scalarMultiplicand);
+        final N right = supplier.physical().scalar().cast(scalarMultiplicand);
 
-        retVal.modifyAll(myStore.physical().function().multiply().second(tmpRight));
-
-        return this.getFactory().instantiate(retVal);
+        return this.defer(supplier.operateOnAll(supplier.physical().function().multiply().second(right)));
     }
 
     public M multiply(final M multiplicand) {
 
-        ProgrammingError.throwIfMultiplicationNotPossible(myStore, multiplicand);
+        ProgrammingError.throwIfMultiplicationNotPossible(this.getStore(), multiplicand);
 
-        return this.getFactory().instantiate(myStore.multiply(this.cast(multiplicand).get()));
+        return this.getFactory().instantiate(this.getStore().multiply(this.cast(multiplicand).get()));
     }
 
     public M multiply(final Number scalarMultiplicand) {
 
-        final PhysicalStore<N> retVal = myStore.physical().copy(myStore);
-
-        final N tmpRight = myStore.physical().scalar().cast(scalarMultiplicand);
+        final ElementsSupplier<N> supplier = mySupplier;
 
-        retVal.modifyAll(myStore.physical().function().multiply().second(tmpRight));
+        final N right = supplier.physical().scalar().cast(scalarMultiplicand);
 
-        return this.getFactory().instantiate(retVal);
+        return this.defer(supplier.operateOnAll(supplier.physical().function().multiply().second(right)));
     }
 
     public M negate() {
 
-        final PhysicalStore<N> retVal = myStore.copy();
-
-        retVal.modifyAll(myStore.physical().function().negate());
+        final ElementsSupplier<N> supplier = mySupplier;
 
-        return this.getFactory().instantiate(retVal);
+        return this.defer(supplier.operateOnAll(supplier.physical().function().negate()));
     }
 
     /**
@@ -589,19 +575,19 @@ abstract class BasicMatrix<N extends Number, M extends BasicMatrix<N, M>> extend
      * @return The matrix' Frobenius norm
      */
     public double norm() {
-        return myStore.norm();
+        return this.getStore().norm();
     }
 
     public M reduceColumns(Aggregator aggregator) {
-        return this.getFactory().instantiate(myStore.reduceColumns(aggregator).get());
+        return this.getFactory().instantiate(this.getStore().reduceColumns(aggregator).get());
     }
 
     public M reduceRows(Aggregator aggregator) {
-        return this.getFactory().instantiate(myStore.reduceRows(aggregator).get());
+        return this.getFactory().instantiate(this.getStore().reduceRows(aggregator).get());
     }
 
     public M signum() {
-        return this.getFactory().instantiate(myStore.signum());
+        return this.getFactory().instantiate(this.getStore().signum());
     }
 
     /**
@@ -631,14 +617,14 @@ abstract class BasicMatrix<N extends Number, M extends BasicMatrix<N, M>> extend
 
         } else {
 
-            final SolverTask<N> tmpTask = this.getTaskSolver(myStore, rhs);
+            final SolverTask<N> tmpTask = this.getTaskSolver(this.getStore(), rhs);
 
             if (tmpTask instanceof MatrixDecomposition.Solver) {
 
                 final MatrixDecomposition.Solver<N> tmpSolver = (MatrixDecomposition.Solver<N>) tmpTask;
                 myDecomposition = tmpSolver;
 
-                if (tmpSolver.compute(myStore)) {
+                if (tmpSolver.compute(this.getStore())) {
                     tmpSolution = tmpSolver.getSolution(this.cast(rhs));
                 } else {
                     tmpSolution = null;
@@ -647,7 +633,7 @@ abstract class BasicMatrix<N extends Number, M extends BasicMatrix<N, M>> extend
             } else {
 
                 try {
-                    tmpSolution = tmpTask.solve(myStore, rhs);
+                    tmpSolution = tmpTask.solve(this.getStore(), rhs);
                 } catch (final RecoverableCondition xcptn) {
                     xcptn.printStackTrace();
                     tmpSolution = null;
@@ -660,39 +646,33 @@ abstract class BasicMatrix<N extends Number, M extends BasicMatrix<N, M>> extend
 
     public M subtract(final double scalarSubtrahend) {
 
-        final PhysicalStore<N> retVal = myStore.physical().copy(myStore);
+        final ElementsSupplier<N> supplier = mySupplier;
 
-        final N tmpRight = myStore.physical().scalar().cast(scalarSubtrahend);
+        final N right = supplier.physical().scalar().cast(scalarSubtrahend);
 
-        retVal.modifyAll(myStore.physical().function().subtract().second(tmpRight));
-
-        return this.getFactory().instantiate(retVal);
+        return this.defer(supplier.operateOnAll(supplier.physical().function().subtract().second(right)));
     }
 
     public M subtract(final M subtrahend) {
 
-        ProgrammingError.throwIfNotEqualDimensions(myStore, subtrahend);
-
-        final PhysicalStore<N> retVal = myStore.physical().copy(subtrahend);
+        final ElementsSupplier<N> supplier = mySupplier;
 
-        retVal.modifyMatching(myStore, myStore.physical().function().subtract());
+        ProgrammingError.throwIfNotEqualDimensions(this, subtrahend);
 
-        return this.getFactory().instantiate(retVal);
+        return this.defer(supplier.operateOnMatching(supplier.physical().function().subtract(), this.cast(subtrahend).get()));
     }
 
     public M subtract(final Number scalarSubtrahend) {
 
-        final PhysicalStore<N> retVal = myStore.physical().copy(myStore);
+        final ElementsSupplier<N> supplier = mySupplier;
 
-        final N tmpRight = myStore.physical().scalar().cast(scalarSubtrahend);
+        final N right = supplier.physical().scalar().cast(scalarSubtrahend);
 
-        retVal.modifyAll(myStore.physical().function().subtract().second(tmpRight));
-
-        return this.getFactory().instantiate(retVal);
+        return this.defer(supplier.operateOnAll(supplier.physical().function().subtract().second(right)));
     }
 
     public void supplyTo(PhysicalStore<N> receiver) {
-        myStore.supplyTo(receiver);
+        this.getStore().supplyTo(receiver);
     }
 
     /**
@@ -703,7 +683,7 @@ abstract class BasicMatrix<N extends Number, M extends BasicMatrix<N, M>> extend
      * @return One matrix element
      */
     public Scalar<N> toScalar(final long row, final long col) {
-        return myStore.toScalar(row, col);
+        return this.getStore().toScalar(row, col);
     }
 
     @Override
@@ -718,14 +698,24 @@ abstract class BasicMatrix<N extends Number, M extends BasicMatrix<N, M>> extend
      * @see org.ojalgo.matrix.BasicMatrix#conjugate()
      */
     public M transpose() {
-        return this.getFactory().instantiate(myStore.transpose());
+        return this.getFactory().instantiate(this.getStore().transpose());
+    }
+
+    @SuppressWarnings("unchecked")
+    private M defer(final ElementsSupplier<N> supplier) {
+
+        final M retVal = this.getFactory().instantiate(supplier);
+
+        ((BasicMatrix<N, M>) retVal).myDeferred = true;
+
+        return retVal;
     }
 
     private final Eigenvalue<N> getComputedEigenvalue() {
 
         if (!this.isComputedEigenvalue()) {
-            myDecomposition = Eigenvalue.make(myStore);
-            myDecomposition.decompose(myStore);
+            myDecomposition = Eigenvalue.make(this.getStore());
+            myDecomposition.decompose(this.getStore());
         }
 
         return (Eigenvalue<N>) myDecomposition;
@@ -734,8 +724,8 @@ abstract class BasicMatrix<N extends Number, M extends BasicMatrix<N, M>> extend
     private final SingularValue<N> getComputedSingularValue() {
 
         if (!this.isComputedSingularValue()) {
-            myDecomposition = SingularValue.make(myStore);
-            myDecomposition.decompose(myStore);
+            myDecomposition = SingularValue.make(this.getStore());
+            myDecomposition.decompose(this.getStore());
         }
 
         return (SingularValue<N>) myDecomposition;
@@ -782,8 +772,32 @@ abstract class BasicMatrix<N extends Number, M extends BasicMatrix<N, M>> extend
 
     abstract MatrixFactory<N, M, ? extends LogicalBuilder<N, M>, ? extends PhysicalReceiver<N, M>, ? extends PhysicalReceiver<N, M>> getFactory();
 
+    /**
+     * Materialises deferred operations the first time it's called. Thread safe - a matrix shared between
+     * threads is materialised only once.
+     */
     final MatrixStore<N> getStore() {
-        return myStore;
+
+        if (myDeferred || !(mySupplier instanceof MatrixStore)) {
+
+            synchronized (this) {
+
+                final ElementsSupplier<N> supplier = mySupplier;
+
+                if (myDeferred || !(supplier instanceof MatrixStore)) {
+
+                    final PhysicalStore<N> retVal = supplier.physical().makeZero(supplier.countRows(), supplier.countColumns());
+                    supplier.supplyTo(retVal);
+
+                    mySupplier = retVal;
+                    myDeferred = false;
+
+                    return retVal;
+                }
+            }
+        }
+
+        return (MatrixStore<N>) mySupplier;
     }
 
     abstract DeterminantTask<N> getTaskDeterminant(final MatrixStore<N> template);
@@ -111,8 +111,8 @@ public final class ComplexMatrix extends BasicMatrix<ComplexNumber, ComplexMatri
     /**
      * This method is for internal use only - YOU should NOT use it!
      */
-    ComplexMatrix(final MatrixStore<ComplexNumber> aStore) {
-        super(aStore);
+    ComplexMatrix(final ElementsSupplier<ComplexNumber> supplier) {
+        super(supplier);
     }
 
     @Override
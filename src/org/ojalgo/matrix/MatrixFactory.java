@@ -30,6 +30,7 @@ import org.ojalgo.function.BinaryFunction;
 import org.ojalgo.function.FunctionSet;
 import org.ojalgo.function.NullaryFunction;
 import org.ojalgo.function.UnaryFunction;
+import org.ojalgo.matrix.store.ElementsSupplier;
 import org.ojalgo.matrix.store.MatrixStore;
 import org.ojalgo.matrix.store.PhysicalStore;
 import org.ojalgo.matrix.store.SparseStore;
@@ -42,7 +43,7 @@ import org.ojalgo.structure.Structure2D;
 
 /**
  * MatrixFactory creates instances of classes that implement the {@linkplain org.ojalgo.matrix.BasicMatrix}
- * interface and have a constructor that takes a MatrixStore as input.
+ * interface and have a constructor that takes an ElementsSupplier (typically a MatrixStore) as input.
  *
  * @author apete
  */
@@ -756,7 +757,7 @@ abstract class MatrixFactory<N extends Number, M extends BasicMatrix<N, M>, B ex
 
     private static Constructor<? extends BasicMatrix<?, ?>> getConstructor(final Class<? extends BasicMatrix<?, ?>> aTemplate) {
         try {
-            final Constructor<? extends BasicMatrix<?, ?>> retVal = aTemplate.getDeclaredConstructor(MatrixStore.class);
+            final Constructor<? extends BasicMatrix<?, ?>> retVal = aTemplate.getDeclaredConstructor(ElementsSupplier.class);
             retVal.setAccessible(true);
             return retVal;
         } catch (final SecurityException | NoSuchMethodException exception) {
@@ -898,9 +899,9 @@ abstract class MatrixFactory<N extends Number, M extends BasicMatrix<N, M>, B ex
     /**
      * This method is for internal use only - YOU should NOT use it!
      */
-    M instantiate(final MatrixStore<N> store) {
+    M instantiate(final ElementsSupplier<N> supplier) {
         try {
-            return myConstructor.newInstance(store);
+            return myConstructor.newInstance(supplier);
         } catch (final IllegalArgumentException anException) {
             throw new ProgrammingError(anException);
         } catch (final InstantiationException anException) {
@@ -27,10 +27,12 @@ import org.ojalgo.constant.PrimitiveMath;
 import org.ojalgo.matrix.store.MatrixStore;
 import org.ojalgo.matrix.store.PrimitiveDenseStore;
 import org.ojalgo.matrix.store.RawStore;
+import org.ojalgo.matrix.store.SparseStore;
 import org.ojalgo.scalar.ComplexNumber;
 import org.ojalgo.scalar.PrimitiveScalar;
 import org.ojalgo.structure.Access1D;
 import org.ojalgo.structure.Access2D;
+import org.ojalgo.structure.ElementView2D;
 import org.ojalgo.structure.Mutate1D;
 import org.ojalgo.type.TypeUtils;
 
@@ -215,7 +217,17 @@ public abstract class MatrixUtils {
 
         boolean retVal = tmpRowDim == tmpColDim;
 
-        if (tmpElement instanceof ComplexNumber) {
+        if (retVal && (matrix instanceof SparseStore) && !(tmpElement instanceof ComplexNumber)) {
+
+            // Only need to check the nonzeros (and their transposed counterparts)
+            final SparseStore<?> tmpSparse = (SparseStore<?>) matrix;
+            for (final ElementView2D<?, ?> tmpNonzero : tmpSparse.nonzeros()) {
+                if (!PrimitiveScalar.isSmall(PrimitiveMath.ONE, tmpNonzero.doubleValue() - tmpSparse.doubleValue(tmpNonzero.column(), tmpNonzero.row()))) {
+                    return false;
+                }
+            }
+
+        } else if (tmpElement instanceof ComplexNumber) {
 
             ComplexNumber tmpLowerLeft;
             ComplexNumber tmpUpperRight;
@@ -109,8 +109,8 @@ public final class PrimitiveMatrix extends BasicMatrix<Double, PrimitiveMatrix>
     /**
      * This method is for internal use only - YOU should NOT use it!
      */
-    PrimitiveMatrix(final MatrixStore<Double> aStore) {
-        super(aStore);
+    PrimitiveMatrix(final ElementsSupplier<Double> supplier) {
+        super(supplier);
     }
 
     @Override
@@ -110,8 +110,8 @@ public final class QuaternionMatrix extends BasicMatrix<Quaternion, QuaternionMa
     /**
      * This method is for internal use only - YOU should NOT use it!
      */
-    QuaternionMatrix(final MatrixStore<Quaternion> aStore) {
-        super(aStore);
+    QuaternionMatrix(final ElementsSupplier<Quaternion> supplier) {
+        super(supplier);
     }
 
     @Override
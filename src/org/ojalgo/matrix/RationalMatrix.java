@@ -110,8 +110,8 @@ public final class RationalMatrix extends BasicMatrix<RationalNumber, RationalMa
     /**
      * This method is for internal use only - YOU should NOT use it!
      */
-    RationalMatrix(final MatrixStore<RationalNumber> aStore) {
-        super(aStore);
+    RationalMatrix(final ElementsSupplier<RationalNumber> supplier) {
+        super(supplier);
     }
 
     @Override
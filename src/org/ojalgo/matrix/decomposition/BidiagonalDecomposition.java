@@ -23,6 +23,7 @@ package org.ojalgo.matrix.decomposition;
 
 import org.ojalgo.array.Array1D;
 import org.ojalgo.constant.PrimitiveMath;
+import org.ojalgo.matrix.store.ComplexDenseStore;
 import org.ojalgo.matrix.store.GenericDenseStore;
 import org.ojalgo.matrix.store.MatrixStore;
 import org.ojalgo.matrix.store.PhysicalStore;
@@ -44,7 +45,7 @@ abstract class BidiagonalDecomposition<N extends Number> extends InPlaceDecompos
         }
 
         Complex(boolean fullSize) {
-            super(GenericDenseStore.COMPLEX, fullSize);
+            super(ComplexDenseStore.FACTORY, fullSize);
         }
 
         @Override
@@ -26,6 +26,7 @@ import org.ojalgo.matrix.store.MatrixStore;
 import org.ojalgo.scalar.ComplexNumber;
 import org.ojalgo.scalar.Quaternion;
 import org.ojalgo.scalar.RationalNumber;
+import org.ojalgo.structure.Access1D;
 import org.ojalgo.structure.Access2D;
 import org.ojalgo.type.context.NumberContext;
 
@@ -47,7 +48,7 @@ import org.ojalgo.type.context.NumberContext;
  *
  * @author apete
  */
-public interface Cholesky<N extends Number> extends LDU<N>, MatrixDecomposition.Hermitian<N> {
+public interface Cholesky<N extends Number> extends LDU<N>, MatrixDecomposition.Hermitian<N>, MatrixDecomposition.Analysable<N> {
 
     interface Factory<N extends Number> extends MatrixDecomposition.Factory<Cholesky<N>> {
 
@@ -56,7 +57,9 @@ public interface Cholesky<N extends Number> extends LDU<N>, MatrixDecomposition.
     public static final Factory<ComplexNumber> COMPLEX = typical -> new CholeskyDecomposition.Complex();
 
     public static final Factory<Double> PRIMITIVE = typical -> {
-        if ((32L < typical.countColumns()) && (typical.count() <= DenseArray.MAX_ARRAY_SIZE)) {
+        if (SparseDecomposition.isSparse(typical)) {
+            return new SparseCholesky();
+        } else if ((32L < typical.countColumns()) && (typical.count() <= DenseArray.MAX_ARRAY_SIZE)) {
             return new CholeskyDecomposition.Primitive();
         } else {
             return new RawCholesky();
@@ -101,6 +104,26 @@ public interface Cholesky<N extends Number> extends LDU<N>, MatrixDecomposition.
         return tmpL.multiply(tmpL.conjugate());
     }
 
+    /**
+     * Extend an existing decomposition with one more row/column. If [A] is the (n x n) matrix currently
+     * decomposed, then afterwards the decomposition is that of the ((n+1) x (n+1)) matrix
+     * [[A][b];[b]<sup>H</sup>[d]]. The existing factor is kept and only the new last row of [L] is
+     * calculated - O(n<sup>2</sup>) rather than the O(n<sup>3</sup>) of a new decomposition.
+     *
+     * @param column The new last column of the (extended) matrix - the n elements of [b] followed by d.
+     * @return true if the extended matrix is still positive definite. If not the decomposition is no longer
+     *         computed.
+     */
+    boolean append(Access1D<?> column);
+
+    /**
+     * Rank-one downdate: [A] - [x][x]<sup>H</sup>. The factor is modified in place - O(n<sup>2</sup>).
+     *
+     * @param vector [x]
+     * @return true if the downdated matrix is positive definite. If not, the decomposition is left unchanged.
+     */
+    boolean downdate(Access1D<?> vector);
+
     /**
      * To use the Cholesky decomposition rather than the LU decomposition the matrix must be symmetric and
      * positive definite. It is recommended that the decomposition algorithm checks for this during
@@ -111,6 +134,15 @@ public interface Cholesky<N extends Number> extends LDU<N>, MatrixDecomposition.
      */
     public boolean isSPD();
 
+    /**
+     * Rank-one update: [A] + [x][x]<sup>H</sup>. The factor is modified in place - O(n<sup>2</sup>).
+     *
+     * @param vector [x]
+     * @return true if the decomposition was updated (requires that it was already computed and positive
+     *         definite)
+     */
+    boolean update(Access1D<?> vector);
+
     /**
      * Must implement either {@link #getL()} or {@link #getR()}.
      */
@@ -27,16 +27,21 @@ import static org.ojalgo.function.PrimitiveFunction.*;
 import org.ojalgo.RecoverableCondition;
 import org.ojalgo.array.BasicArray;
 import org.ojalgo.constant.PrimitiveMath;
+import org.ojalgo.function.BinaryFunction;
 import org.ojalgo.function.UnaryFunction;
 import org.ojalgo.function.aggregator.AggregatorFunction;
 import org.ojalgo.matrix.MatrixUtils;
+import org.ojalgo.matrix.store.ComplexDenseStore;
 import org.ojalgo.matrix.store.GenericDenseStore;
 import org.ojalgo.matrix.store.MatrixStore;
 import org.ojalgo.matrix.store.PhysicalStore;
 import org.ojalgo.matrix.store.PrimitiveDenseStore;
+import org.ojalgo.matrix.store.operation.BlockedCholesky;
 import org.ojalgo.scalar.ComplexNumber;
 import org.ojalgo.scalar.Quaternion;
 import org.ojalgo.scalar.RationalNumber;
+import org.ojalgo.scalar.Scalar;
+import org.ojalgo.structure.Access1D;
 import org.ojalgo.structure.Access2D;
 import org.ojalgo.structure.Access2D.Collectable;
 import org.ojalgo.structure.Structure2D;
@@ -46,7 +51,7 @@ abstract class CholeskyDecomposition<N extends Number> extends InPlaceDecomposit
     static final class Complex extends CholeskyDecomposition<ComplexNumber> {
 
         Complex() {
-            super(GenericDenseStore.COMPLEX);
+            super(ComplexDenseStore.FACTORY);
         }
 
     }
@@ -83,6 +88,50 @@ abstract class CholeskyDecomposition<N extends Number> extends InPlaceDecomposit
         super(aFactory);
     }
 
+    public boolean append(final Access1D<?> column) {
+
+        if (!this.isComputed() || !mySPD) {
+            return false;
+        }
+
+        final int tmpDim = this.getRowDim();
+
+        final DecompositionStore<N> tmpInPlace = this.setInPlace(this.getInPlace().logical().below(1).right(1).get());
+
+        final Scalar.Factory<N> tmpScalar = this.scalar();
+        final BinaryFunction<N> tmpSubtract = this.function().subtract();
+        final BinaryFunction<N> tmpMultiply = this.function().multiply();
+        final BinaryFunction<N> tmpDivide = this.function().divide();
+        final UnaryFunction<N> tmpConjugate = this.function().conjugate();
+
+        // Solve [L][y] = [b], [y]H is the new last row of [L]
+        final BasicArray<N> tmpSolution = this.makeArray(tmpDim);
+        double tmpSumSquares = ZERO;
+        N tmpVal;
+        for (int j = 0; j < tmpDim; j++) {
+            tmpInPlace.set(j, tmpDim, column.get(j));
+            tmpVal = tmpScalar.cast(column.get(j));
+            for (int k = 0; k < j; k++) {
+                tmpVal = tmpSubtract.invoke(tmpVal, tmpMultiply.invoke(tmpInPlace.get(j, k), tmpSolution.get(k)));
+            }
+            tmpVal = tmpDivide.invoke(tmpVal, tmpInPlace.get(j, j));
+            tmpSolution.set(j, tmpVal);
+            tmpInPlace.set(tmpDim, j, tmpConjugate.invoke(tmpVal));
+            tmpSumSquares += tmpScalar.convert(tmpVal).norm() * tmpScalar.convert(tmpVal).norm();
+        }
+
+        final double tmpDiagVal = column.doubleValue(tmpDim) - tmpSumSquares;
+
+        if (tmpDiagVal > ZERO) {
+            tmpInPlace.set(tmpDim, tmpDim, SQRT.invoke(tmpDiagVal));
+            myMaxDiag = MAX.invoke(myMaxDiag, tmpDiagVal);
+            myMinDiag = MIN.invoke(myMinDiag, tmpDiagVal);
+            return this.computed(mySPD = true);
+        } else {
+            return this.computed(mySPD = false);
+        }
+    }
+
     public N calculateDeterminant(final Access2D<?> matrix) {
         this.decompose(this.wrap(matrix));
         return this.getDeterminant();
@@ -96,6 +145,10 @@ abstract class CholeskyDecomposition<N extends Number> extends InPlaceDecomposit
         return this.compute(aStore, false);
     }
 
+    public boolean downdate(final Access1D<?> vector) {
+        return this.doUpdate(vector, true);
+    }
+
     public N getDeterminant() {
 
         final AggregatorFunction<N> tmpAggrFunc = this.aggregator().product2();
@@ -244,11 +297,92 @@ abstract class CholeskyDecomposition<N extends Number> extends InPlaceDecomposit
         }
     }
 
+    public boolean update(final Access1D<?> vector) {
+        return this.doUpdate(vector, false);
+    }
+
     @Override
     protected boolean checkSolvability() {
         return mySPD && (myMinDiag > this.getAlgorithmEpsilon());
     }
 
+    private boolean doUpdate(final Access1D<?> vector, final boolean downdate) {
+
+        if (!this.isComputed() || !mySPD) {
+            return false;
+        }
+
+        final DecompositionStore<N> tmpInPlace = this.getInPlace();
+        final int tmpDim = this.getRowDim();
+
+        final Scalar.Factory<N> tmpScalar = this.scalar();
+        final BinaryFunction<N> tmpAdd = this.function().add();
+        final BinaryFunction<N> tmpSubtract = this.function().subtract();
+        final BinaryFunction<N> tmpMultiply = this.function().multiply();
+        final BinaryFunction<N> tmpDivide = this.function().divide();
+        final UnaryFunction<N> tmpConjugate = this.function().conjugate();
+
+        final BasicArray<N> tmpWork = this.makeArray(tmpDim);
+        for (int i = 0; i < tmpDim; i++) {
+            tmpWork.set(i, tmpScalar.cast(vector.get(i)));
+        }
+
+        if (downdate) {
+            // [A] - [x][x]H is positive definite if and only if |[L]-1[x]| < 1
+            final BasicArray<N> tmpSolution = this.makeArray(tmpDim);
+            double tmpSumSquares = ZERO;
+            N tmpVal;
+            for (int j = 0; j < tmpDim; j++) {
+                tmpVal = tmpWork.get(j);
+                for (int k = 0; k < j; k++) {
+                    tmpVal = tmpSubtract.invoke(tmpVal, tmpMultiply.invoke(tmpInPlace.get(j, k), tmpSolution.get(k)));
+                }
+                tmpVal = tmpDivide.invoke(tmpVal, tmpInPlace.get(j, j));
+                tmpSolution.set(j, tmpVal);
+                tmpSumSquares += tmpScalar.convert(tmpVal).norm() * tmpScalar.convert(tmpVal).norm();
+            }
+            if (tmpSumSquares >= ONE) {
+                return false;
+            }
+        }
+
+        double tmpDiag, tmpNorm, tmpRadius;
+        N tmpCos, tmpSin, tmpSinConj, tmpWorkVal, tmpElement;
+        for (int k = 0; k < tmpDim; k++) {
+
+            tmpDiag = tmpInPlace.doubleValue(k, k);
+            tmpNorm = tmpScalar.convert(tmpWork.get(k)).norm();
+
+            tmpRadius = downdate ? SQRT.invoke((tmpDiag - tmpNorm) * (tmpDiag + tmpNorm)) : HYPOT.invoke(tmpDiag, tmpNorm);
+            tmpCos = tmpScalar.cast(tmpRadius / tmpDiag);
+            tmpSin = tmpScalar.convert(tmpWork.get(k)).divide(tmpDiag).get();
+            tmpSinConj = tmpConjugate.invoke(tmpSin);
+
+            tmpInPlace.set(k, k, tmpRadius);
+
+            for (int i = k + 1; i < tmpDim; i++) {
+                tmpWorkVal = tmpWork.get(i);
+                if (downdate) {
+                    tmpElement = tmpDivide.invoke(tmpSubtract.invoke(tmpInPlace.get(i, k), tmpMultiply.invoke(tmpSinConj, tmpWorkVal)), tmpCos);
+                } else {
+                    tmpElement = tmpDivide.invoke(tmpAdd.invoke(tmpInPlace.get(i, k), tmpMultiply.invoke(tmpSinConj, tmpWorkVal)), tmpCos);
+                }
+                tmpInPlace.set(i, k, tmpElement);
+                tmpWork.set(i, tmpSubtract.invoke(tmpMultiply.invoke(tmpCos, tmpWorkVal), tmpMultiply.invoke(tmpSin, tmpElement)));
+            }
+        }
+
+        myMaxDiag = ZERO;
+        myMinDiag = POSITIVE_INFINITY;
+        for (int ij = 0; ij < tmpDim; ij++) {
+            tmpDiag = tmpInPlace.doubleValue(ij, ij);
+            myMaxDiag = MAX.invoke(myMaxDiag, tmpDiag * tmpDiag);
+            myMinDiag = MIN.invoke(myMinDiag, tmpDiag * tmpDiag);
+        }
+
+        return this.computed(true);
+    }
+
     final boolean compute(final Access2D.Collectable<N, ? super PhysicalStore<N>> matrix, final boolean checkHermitian) {
 
         this.reset();
@@ -271,6 +405,24 @@ abstract class CholeskyDecomposition<N extends Number> extends InPlaceDecomposit
             tmpPositiveDefinite &= MatrixUtils.isHermitian(tmpInPlace);
         }
 
+        if (tmpPositiveDefinite && (tmpInPlace instanceof PrimitiveDenseStore) && (tmpMinDim > (2 * BlockedCholesky.THRESHOLD))) {
+
+            final double[] tmpData = ((PrimitiveDenseStore) tmpInPlace).data;
+            final int tmpFactored = BlockedCholesky.invoke(tmpData, tmpRowDim);
+
+            double tmpVal;
+            for (int ij = 0; (ij <= tmpFactored) && (ij < tmpMinDim); ij++) {
+                tmpVal = tmpData[ij + (ij * tmpRowDim)];
+                if (ij < tmpFactored) {
+                    tmpVal *= tmpVal;
+                }
+                myMaxDiag = MAX.invoke(myMaxDiag, tmpVal);
+                myMinDiag = MIN.invoke(myMinDiag, tmpVal);
+            }
+
+            return this.computed(mySPD = (tmpFactored == tmpMinDim));
+        }
+
         final UnaryFunction<N> tmpSqrtFunc = this.function().sqrt();
 
         // Main loop - along the diagonal
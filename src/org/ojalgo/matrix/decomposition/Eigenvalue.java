@@ -149,6 +149,30 @@ public interface Eigenvalue<N extends Number>
 
     }
 
+    /**
+     * Which eigenvalues a partial decomposition should calculate.
+     *
+     * @see Eigenvalue#makePartial(int, boolean, Spectrum)
+     */
+    enum Spectrum {
+
+        /**
+         * The eigenvalues with the largest modulus
+         */
+        LARGEST_MAGNITUDE,
+        /**
+         * The eigenvalues with the largest real part (algebraically largest if hermitian)
+         */
+        LARGEST_REAL,
+        /**
+         * The eigenvalues with the smallest real part (algebraically smallest if hermitian). These typically
+         * converge slowly - if the matrix can be factorised consider shift-invert instead,
+         * {@link Eigenvalue#makePartial(int, boolean, double)}.
+         */
+        SMALLEST_REAL;
+
+    }
+
     public static final Factory<ComplexNumber> COMPLEX = (typical, hermitian) -> hermitian ? new HermitianEvD.Complex() : null;
 
     public static final Factory<Double> PRIMITIVE = new Factory<Double>() {
@@ -205,6 +229,37 @@ public interface Eigenvalue<N extends Number>
         }
     }
 
+    /**
+     * A partial eigenvalue decomposition - only count eigenpairs at one end of the spectrum. Intended for large
+     * (sparse) matrices. The matrix is never modified, it's only used to calculate matrix-vector products
+     * (a {@link org.ojalgo.matrix.store.SparseStore} is first copied to compressed row form, that has faster
+     * products), and the decomposition is calculated using an implicitly restarted Lanczos (hermitian) or
+     * Arnoldi (general) method. [V] will have count columns (possibly one more to not split a complex
+     * conjugate pair). The determinant and trace are not available - they require all eigenvalues.
+     *
+     * @param count The number of eigenvalues (and eigenvectors) to calculate
+     * @param hermitian Is the matrix to decompose hermitian (symmetric)?
+     * @param spectrum Which eigenvalues
+     */
+    public static Eigenvalue<Double> makePartial(final int count, final boolean hermitian, final Spectrum spectrum) {
+        return hermitian ? new KrylovEvD.Lanczos(count, spectrum, Double.NaN) : new KrylovEvD.Arnoldi(count, spectrum, Double.NaN);
+    }
+
+    /**
+     * Shift-invert mode - the count eigenvalues nearest the shift. The decomposition calculates the largest
+     * eigenvalues of [[A]-shift[I]]<sup>-1</sup> and transforms them back. That requires an {@link LU}
+     * decomposition of [A]-shift[I] (sparse if [A] is sparse) but typically converges in very few
+     * iterations. This is the way to get the smallest eigenvalues (shift = 0) or interior eigenvalues.
+     *
+     * @param count The number of eigenvalues (and eigenvectors) to calculate
+     * @param hermitian Is the matrix to decompose hermitian (symmetric)?
+     * @param shift The eigenvalues nearest this value are calculated. It must not be an eigenvalue.
+     */
+    public static Eigenvalue<Double> makePartial(final int count, final boolean hermitian, final double shift) {
+        return hermitian ? new KrylovEvD.Lanczos(count, Spectrum.LARGEST_MAGNITUDE, shift)
+                : new KrylovEvD.Arnoldi(count, Spectrum.LARGEST_MAGNITUDE, shift);
+    }
+
     static <N extends Number> boolean equals(final MatrixStore<N> matrix, final Eigenvalue<N> decomposition, final NumberContext context) {
 
         final MatrixStore<N> tmpD = decomposition.getD();
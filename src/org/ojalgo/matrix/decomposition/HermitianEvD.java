@@ -36,6 +36,7 @@ import org.ojalgo.function.aggregator.AggregatorFunction;
 import org.ojalgo.function.aggregator.ComplexAggregator;
 import org.ojalgo.matrix.decomposition.function.ExchangeColumns;
 import org.ojalgo.matrix.decomposition.function.RotateRight;
+import org.ojalgo.matrix.store.ComplexDenseStore;
 import org.ojalgo.matrix.store.GenericDenseStore;
 import org.ojalgo.matrix.store.MatrixStore;
 import org.ojalgo.matrix.store.PhysicalStore;
@@ -65,7 +66,7 @@ public abstract class HermitianEvD<N extends Number> extends EigenvalueDecomposi
     static final class Complex extends HermitianEvD<ComplexNumber> {
 
         Complex() {
-            super(GenericDenseStore.COMPLEX, new DeferredTridiagonal.Complex());
+            super(ComplexDenseStore.FACTORY, new DeferredTridiagonal.Complex());
         }
 
     }
@@ -0,0 +1,806 @@
+/*
+ * Copyright 1997-2018 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.matrix.decomposition;
+
+import static org.ojalgo.constant.PrimitiveMath.*;
+import static org.ojalgo.function.PrimitiveFunction.*;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Optional;
+import java.util.Random;
+
+import org.ojalgo.ProgrammingError;
+import org.ojalgo.array.Array1D;
+import org.ojalgo.array.blas.AXPY;
+import org.ojalgo.array.blas.DOT;
+import org.ojalgo.matrix.store.CompressedColumnStore;
+import org.ojalgo.matrix.store.CompressedRowStore;
+import org.ojalgo.matrix.store.ElementsSupplier;
+import org.ojalgo.matrix.store.GenericDenseStore;
+import org.ojalgo.matrix.store.MatrixStore;
+import org.ojalgo.matrix.store.PhysicalStore;
+import org.ojalgo.matrix.store.PrimitiveDenseStore;
+import org.ojalgo.matrix.store.RawStore;
+import org.ojalgo.matrix.store.SparseStore;
+import org.ojalgo.scalar.ComplexNumber;
+import org.ojalgo.structure.Access2D;
+import org.ojalgo.structure.ElementView2D;
+
+/**
+ * Partial eigenvalue decomposition - a few eigenpairs at one end of the spectrum - of a large (typically
+ * sparse) matrix. The matrix is only accessed through matrix-vector products, so there is never a dense copy
+ * of it.
+ * <p>
+ * An orthonormal Krylov basis of (at most) m vectors is built with the Arnoldi process (with full
+ * reorthogonalisation), the Ritz pairs are calculated from the small m-by-m projected matrix, and when the
+ * basis is full it is restarted keeping only (an orthonormal basis of) the wanted Ritz vectors. That is
+ * Stewart's Krylov-Schur restart. It is mathematically equivalent to the implicitly restarted Lanczos and
+ * Arnoldi methods (with exact shifts) but numerically more robust - the restart doesn't involve any shifted
+ * QR steps.
+ * </p>
+ * <p>
+ * In shift-invert mode the operator is [[A]-s[I]]<sup>-1</sup>, applied by solving with an {@link LU}
+ * decomposition (sparse when [A] is sparse). Its largest eigenvalues t correspond to the eigenvalues of [A]
+ * nearest s, s + 1/t, and the eigenvectors are the same.
+ * </p>
+ * <p>
+ * [V] is n-by-k and [D] is k-by-k, where k is the requested number of eigenvalues (possibly one more to not
+ * split a complex conjugate pair). They satisfy [A][V] = [V][D] (to within the accuracy). The eigenvalues
+ * are ordered, the wanted end of the spectrum first. The trace and the determinant are the sum and product of
+ * the calculated eigenvalues only.
+ * </p>
+ *
+ * @author apete
+ */
+abstract class KrylovEvD extends AbstractDecomposition<Double> implements Eigenvalue<Double> {
+
+    /**
+     * General (non-symmetric) matrices. The projected matrix is upper Hessenberg (apart from the row just
+     * below the vectors kept at the previous restart) and the Ritz values may be complex.
+     */
+    static final class Arnoldi extends KrylovEvD {
+
+        private final RawEigenvalue.General myProjected = new RawEigenvalue.General();
+
+        Arnoldi(final int count, final Eigenvalue.Spectrum spectrum, final double shift) {
+            super(count, spectrum, shift);
+        }
+
+        public boolean isHermitian() {
+            return false;
+        }
+
+        @Override
+        void project(final RawStore matrix, final double[] real, final double[] imaginary, final double[][] vectors) {
+
+            myProjected.decompose(matrix);
+
+            myProjected.getEigenvalues(real, Optional.of(imaginary));
+
+            final MatrixStore<Double> tmpV = myProjected.getV();
+            for (int j = 0; j < vectors.length; j++) {
+                final double[] tmpVector = vectors[j];
+                for (int i = 0; i < tmpVector.length; i++) {
+                    tmpVector[i] = tmpV.doubleValue(i, j);
+                }
+            }
+        }
+
+    }
+
+    /**
+     * The operator whose eigenpairs are calculated - only its action on a vector is needed.
+     */
+    @FunctionalInterface
+    interface Operator {
+
+        /**
+         * @param vector The (n-by-1) vector to multiply, must not be modified
+         * @param product The (n-by-1) result
+         */
+        void multiply(PrimitiveDenseStore vector, PrimitiveDenseStore product);
+
+    }
+
+    /**
+     * Symmetric matrices. The projected matrix is tridiagonal (apart from the row and column of the vectors
+     * kept at the previous restart), it's symmetric and all Ritz values are real. This is what's known as the
+     * thick restart Lanczos method.
+     */
+    static final class Lanczos extends KrylovEvD {
+
+        private final RawEigenvalue.Symmetric myProjected = new RawEigenvalue.Symmetric();
+
+        Lanczos(final int count, final Eigenvalue.Spectrum spectrum, final double shift) {
+            super(count, spectrum, shift);
+        }
+
+        public boolean isHermitian() {
+            return true;
+        }
+
+        @Override
+        void project(final RawStore matrix, final double[] real, final double[] imaginary, final double[][] vectors) {
+
+            final double[][] tmpData = matrix.data;
+            for (int j = 0; j < tmpData.length; j++) {
+                for (int i = j + 1; i < tmpData.length; i++) {
+                    final double tmpAverage = HALF * (tmpData[i][j] + tmpData[j][i]);
+                    tmpData[i][j] = tmpAverage;
+                    tmpData[j][i] = tmpAverage;
+                }
+            }
+
+            myProjected.decompose(matrix);
+
+            myProjected.getEigenvalues(real, Optional.empty());
+            Arrays.fill(imaginary, ZERO);
+
+            final MatrixStore<Double> tmpV = myProjected.getV();
+            for (int j = 0; j < vectors.length; j++) {
+                final double[] tmpVector = vectors[j];
+                for (int i = 0; i < tmpVector.length; i++) {
+                    tmpVector[i] = tmpV.doubleValue(i, j);
+                }
+            }
+        }
+
+    }
+
+    /**
+     * Relative accuracy of the calculated eigenpairs - the norm of the residual, [A][x]-l[x], divided by |l|.
+     */
+    static final double ACCURACY = 1E-10;
+    /**
+     * The maximum number of restarts
+     */
+    static final int ITERATIONS = 300;
+    /**
+     * The Krylov basis has (at least) this many more vectors than the number of eigenvalues requested.
+     */
+    static final int MARGIN = 20;
+
+    /**
+     * SparseStore is converted to a CompressedRowStore (once) because its matrix-vector products are much
+     * faster.
+     */
+    static MatrixStore<Double> multiplicand(final MatrixStore<Double> matrix) {
+        if (matrix instanceof SparseStore<?>) {
+            return CompressedRowStore.copy(matrix);
+        } else {
+            return matrix;
+        }
+    }
+
+    /**
+     * [A]-s[I], sparse (a SparseStore) if [A] is sparse, otherwise a dense copy.
+     */
+    @SuppressWarnings("unchecked")
+    static MatrixStore<Double> shifted(final MatrixStore<Double> matrix, final double shift) {
+
+        final int tmpDim = Math.toIntExact(matrix.countRows());
+
+        if ((matrix instanceof SparseStore<?>) || (matrix instanceof CompressedRowStore) || (matrix instanceof CompressedColumnStore)) {
+
+            SparseStore<Double> tmpSparse;
+            if (matrix instanceof SparseStore<?>) {
+                tmpSparse = (SparseStore<Double>) matrix;
+            } else {
+                tmpSparse = SparseStore.PRIMITIVE.make(tmpDim, tmpDim);
+                ((ElementsSupplier<Double>) matrix).supplyTo(tmpSparse);
+            }
+
+            // The nonzeros are in column major order - the diagonal elements are merged in that order
+            final SparseStore<Double> retVal = SparseStore.PRIMITIVE.make(tmpDim, tmpDim);
+            int tmpDiagonal = 0;
+            for (final ElementView2D<Double, ?> tmpNonzero : tmpSparse.nonzeros()) {
+                final int tmpRow = (int) tmpNonzero.row();
+                final int tmpCol = (int) tmpNonzero.column();
+                while ((tmpDiagonal < tmpCol) || ((tmpDiagonal == tmpCol) && (tmpDiagonal < tmpRow))) {
+                    retVal.set(tmpDiagonal, tmpDiagonal, -shift);
+                    tmpDiagonal++;
+                }
+                if ((tmpRow == tmpCol) && (tmpRow == tmpDiagonal)) {
+                    retVal.set(tmpRow, tmpCol, tmpNonzero.doubleValue() - shift);
+                    tmpDiagonal++;
+                } else {
+                    retVal.set(tmpRow, tmpCol, tmpNonzero.doubleValue());
+                }
+            }
+            while (tmpDiagonal < tmpDim) {
+                retVal.set(tmpDiagonal, tmpDiagonal, -shift);
+                tmpDiagonal++;
+            }
+
+            return retVal;
+
+        } else {
+
+            final PrimitiveDenseStore retVal = PrimitiveDenseStore.FACTORY.copy(matrix);
+            for (int ij = 0; ij < tmpDim; ij++) {
+                retVal.add(ij, ij, -shift);
+            }
+
+            return retVal;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    static MatrixStore<Double> store(final Access2D.Collectable<Double, ? super PhysicalStore<Double>> matrix) {
+        if (matrix instanceof MatrixStore<?>) {
+            return (MatrixStore<Double>) matrix;
+        } else {
+            final PrimitiveDenseStore retVal = PrimitiveDenseStore.FACTORY.makeZero(matrix.countRows(), matrix.countColumns());
+            matrix.supplyTo(retVal);
+            return retVal;
+        }
+    }
+
+    private static double norm(final double[] vector) {
+        return SQRT.invoke(DOT.invoke(vector, 0, vector, 0, 0, vector.length));
+    }
+
+    /**
+     * Classical Gram-Schmidt, twice, against the first count basis vectors. The coefficients are added to
+     * coefficients (if not null).
+     */
+    private static void orthogonalise(final double[] vector, final PrimitiveDenseStore[] basis, final int count, final double[] coefficients) {
+
+        final int tmpDim = vector.length;
+        final double[] tmpPass = new double[count];
+
+        for (int p = 0; p < 2; p++) {
+            for (int i = 0; i < count; i++) {
+                tmpPass[i] = DOT.invoke(basis[i].data, 0, vector, 0, 0, tmpDim);
+            }
+            for (int i = 0; i < count; i++) {
+                AXPY.invoke(vector, 0, -tmpPass[i], basis[i].data, 0, 0, tmpDim);
+                if (coefficients != null) {
+                    coefficients[i] += tmpPass[i];
+                }
+            }
+        }
+    }
+
+    private final int myCount;
+    private double[] myImaginary = null;
+    private double[] myReal = null;
+    private final double myShift;
+    private final Eigenvalue.Spectrum mySpectrum;
+    private PrimitiveDenseStore myV = null;
+
+    KrylovEvD(final int count, final Eigenvalue.Spectrum spectrum, final double shift) {
+
+        super();
+
+        myCount = count;
+        mySpectrum = spectrum;
+        myShift = shift;
+    }
+
+    /**
+     * Not supported - the determinant is the product of all the eigenvalues, and only a few are calculated.
+     *
+     * @throws UnsupportedOperationException Always
+     */
+    public Double calculateDeterminant(final Access2D<?> matrix) {
+        ProgrammingError.throwForUnsupportedOptionalOperation();
+        return null;
+    }
+
+    public boolean computeValuesOnly(final Access2D.Collectable<Double, ? super PhysicalStore<Double>> matrix) {
+        return this.decompose(matrix);
+    }
+
+    public boolean decompose(final Access2D.Collectable<Double, ? super PhysicalStore<Double>> matrix) {
+
+        this.reset();
+
+        final MatrixStore<Double> tmpMatrix = KrylovEvD.store(matrix);
+        final int tmpDim = Math.toIntExact(tmpMatrix.countRows());
+
+        if (Double.isNaN(myShift)) {
+
+            final MatrixStore<Double> tmpMultiplicand = KrylovEvD.multiplicand(tmpMatrix);
+
+            return this.compute((vector, product) -> tmpMultiplicand.multiply(vector, product), tmpDim);
+
+        } else {
+
+            final MatrixStore<Double> tmpShifted = KrylovEvD.shifted(tmpMatrix, myShift);
+
+            final LU<Double> tmpLU = LU.PRIMITIVE.make(tmpShifted);
+            if (!tmpLU.decompose(tmpShifted) || !tmpLU.isSolvable()) {
+                return this.computed(false);
+            }
+
+            return this.compute((vector, product) -> {
+                final MatrixStore<Double> tmpSolution = tmpLU.getSolution(vector, product);
+                if (tmpSolution != product) {
+                    tmpSolution.supplyTo(product);
+                }
+            }, tmpDim);
+        }
+    }
+
+    public MatrixStore<Double> getD() {
+
+        final int tmpCount = myReal.length;
+
+        final PrimitiveDenseStore retVal = PrimitiveDenseStore.FACTORY.makeZero(tmpCount, tmpCount);
+        for (int j = 0; j < tmpCount; j++) {
+            retVal.set(j, j, myReal[j]);
+            if (myImaginary[j] != ZERO) {
+                retVal.set(j, j + 1, myImaginary[j]);
+                retVal.set(j + 1, j, myImaginary[j + 1]);
+                retVal.set(j + 1, j + 1, myReal[j + 1]);
+                j++;
+            }
+        }
+
+        return retVal;
+    }
+
+    /**
+     * Not supported - the determinant is the product of all the eigenvalues, and only a few are calculated.
+     *
+     * @throws UnsupportedOperationException Always
+     */
+    public Double getDeterminant() {
+        ProgrammingError.throwForUnsupportedOptionalOperation();
+        return null;
+    }
+
+    @Override
+    public Eigenpair getEigenpair(final int index) {
+
+        final Array1D<ComplexNumber> tmpVector = Array1D.COMPLEX.makeZero(myV.countRows());
+        this.eigenvector(index, tmpVector);
+
+        return new Eigenpair(ComplexNumber.of(myReal[index], myImaginary[index]), tmpVector);
+    }
+
+    public Array1D<ComplexNumber> getEigenvalues() {
+
+        final Array1D<ComplexNumber> retVal = Array1D.COMPLEX.makeZero(myReal.length);
+
+        for (int i = 0; i < myReal.length; i++) {
+            retVal.set(i, ComplexNumber.of(myReal[i], myImaginary[i]));
+        }
+
+        return retVal;
+    }
+
+    @Override
+    public MatrixStore<ComplexNumber> getEigenvectors() {
+
+        final int tmpDim = (int) myV.countRows();
+        final int tmpCount = myReal.length;
+
+        final GenericDenseStore<ComplexNumber> retVal = GenericDenseStore.COMPLEX.makeZero(tmpDim, tmpCount);
+        for (int j = 0; j < tmpCount; j++) {
+            this.eigenvector(j, retVal.sliceColumn(0, j));
+        }
+
+        return retVal;
+    }
+
+    /**
+     * Not supported - the trace is the sum of all the eigenvalues, and only a few are calculated.
+     *
+     * @throws UnsupportedOperationException Always
+     */
+    public ComplexNumber getTrace() {
+        ProgrammingError.throwForUnsupportedOptionalOperation();
+        return null;
+    }
+
+    public MatrixStore<Double> getV() {
+        return myV;
+    }
+
+    public boolean isOrdered() {
+        return true;
+    }
+
+    @Override
+    public void reset() {
+
+        super.reset();
+
+        myImaginary = null;
+        myReal = null;
+        myV = null;
+    }
+
+    @Override
+    protected PrimitiveDenseStore allocate(final long numberOfRows, final long numberOfColumns) {
+        return PrimitiveDenseStore.FACTORY.makeZero(numberOfRows, numberOfColumns);
+    }
+
+    @Override
+    protected double getDimensionalEpsilon() {
+        return (myV != null ? myV.countRows() : ONE) * MACHINE_EPSILON;
+    }
+
+    /**
+     * @param operator The operator
+     * @param dim The operator's dimension
+     * @return true if all requested eigenpairs converged
+     */
+    final boolean compute(final Operator operator, final int dim) {
+
+        final int tmpCount = Math.min(myCount, dim);
+        final int tmpSize = Math.min(dim, Math.max(2 * tmpCount + 1, tmpCount + MARGIN));
+
+        final PrimitiveDenseStore[] tmpBasis = new PrimitiveDenseStore[tmpSize + 1];
+        for (int j = 0; j <= tmpSize; j++) {
+            tmpBasis[j] = PrimitiveDenseStore.FACTORY.makeZero(dim, 1);
+        }
+
+        final double[][] tmpH = new double[tmpSize][tmpSize];
+
+        final double[] tmpReal = new double[tmpSize];
+        final double[] tmpImaginary = new double[tmpSize];
+        final double[][] tmpVectors = new double[tmpSize][tmpSize];
+        final double[] tmpResiduals = new double[tmpSize];
+
+        final Random tmpRandom = new Random(dim);
+        this.randomise(tmpBasis, 0, tmpRandom);
+
+        int tmpKept = 0;
+        boolean tmpConverged = false;
+        Integer[] tmpOrder = null;
+        int tmpWanted = 0;
+
+        for (int iter = 0; !tmpConverged && (iter < ITERATIONS); iter++) {
+
+            final double tmpBeta = this.expand(operator, tmpBasis, tmpH, tmpKept, tmpSize, tmpRandom);
+
+            final RawStore tmpCopy = new RawStore(tmpSize, tmpSize);
+            for (int i = 0; i < tmpSize; i++) {
+                System.arraycopy(tmpH[i], 0, tmpCopy.data[i], 0, tmpSize);
+            }
+            this.project(tmpCopy, tmpReal, tmpImaginary, tmpVectors);
+
+            // Normalise the Ritz vectors and estimate their residual norms: |beta| |last element|
+
+            double tmpLargest = ZERO;
+            for (int j = 0; j < tmpSize; j++) {
+                tmpLargest = MAX.invoke(tmpLargest, HYPOT.invoke(tmpReal[j], tmpImaginary[j]));
+                if ((tmpImaginary[j] != ZERO) && ((j + 1) < tmpSize)) {
+                    final double tmpNorm = HYPOT.invoke(KrylovEvD.norm(tmpVectors[j]), KrylovEvD.norm(tmpVectors[j + 1]));
+                    for (int i = 0; i < tmpSize; i++) {
+                        tmpVectors[j][i] /= tmpNorm;
+                        tmpVectors[j + 1][i] /= tmpNorm;
+                    }
+                    tmpResiduals[j] = ABS.invoke(tmpBeta) * HYPOT.invoke(tmpVectors[j][tmpSize - 1], tmpVectors[j + 1][tmpSize - 1]);
+                    tmpResiduals[j + 1] = tmpResiduals[j];
+                    j++;
+                } else {
+                    tmpImaginary[j] = ZERO;
+                    final double tmpNorm = KrylovEvD.norm(tmpVectors[j]);
+                    for (int i = 0; i < tmpSize; i++) {
+                        tmpVectors[j][i] /= tmpNorm;
+                    }
+                    tmpResiduals[j] = ABS.invoke(tmpBeta * tmpVectors[j][tmpSize - 1]);
+                }
+            }
+
+            tmpOrder = this.order(tmpReal, tmpImaginary);
+
+            // The wanted Ritz pairs - a complex conjugate pair is not split
+
+            tmpWanted = 0;
+            int tmpConvergedCount = 0;
+            tmpConverged = true;
+            final double tmpFloor = tmpSize * MACHINE_EPSILON * tmpLargest;
+            for (int o = 0; (o < tmpOrder.length) && (tmpWanted < tmpCount); o++) {
+                final int j = tmpOrder[o];
+                final int tmpWidth = tmpImaginary[j] != ZERO ? 2 : 1;
+                if (tmpResiduals[j] <= MAX.invoke(ACCURACY * HYPOT.invoke(tmpReal[j], tmpImaginary[j]), tmpFloor)) {
+                    tmpConvergedCount += tmpWidth;
+                } else {
+                    tmpConverged = false;
+                }
+                tmpWanted += tmpWidth;
+            }
+
+            if (!tmpConverged && ((iter + 1) < ITERATIONS)) {
+                final int tmpTarget = Math.min(tmpWanted + Math.min(tmpConvergedCount, (tmpSize - tmpWanted) / 2), tmpSize - 1);
+                tmpKept = this.restart(tmpBasis, tmpH, tmpBeta, tmpVectors, tmpImaginary, tmpOrder, tmpTarget);
+                if (tmpKept == 0) {
+                    this.randomise(tmpBasis, 0, tmpRandom);
+                }
+            }
+        }
+
+        this.extract(tmpBasis, tmpSize, tmpReal, tmpImaginary, tmpVectors, tmpOrder, tmpWanted);
+
+        return this.computed(tmpConverged);
+    }
+
+    abstract void project(RawStore matrix, double[] real, double[] imaginary, double[][] vectors);
+
+    /**
+     * [V] is n-by-k, not square, so the default implementation (that assumes it is) can't be used.
+     */
+    private void eigenvector(final int index, final Array1D<ComplexNumber> destination) {
+
+        final int tmpDim = (int) myV.countRows();
+
+        if (myImaginary[index] == ZERO) {
+            for (int i = 0; i < tmpDim; i++) {
+                destination.set(i, myV.doubleValue(i, index));
+            }
+        } else {
+            // The real and imaginary parts are in the columns of the pair, first the real part
+            int tmpFirst = 0;
+            int tmpWidth = myImaginary[tmpFirst] != ZERO ? 2 : 1;
+            while ((tmpFirst + tmpWidth) <= index) {
+                tmpFirst += tmpWidth;
+                tmpWidth = myImaginary[tmpFirst] != ZERO ? 2 : 1;
+            }
+            final double tmpSign = tmpFirst == index ? ONE : -ONE;
+            for (int i = 0; i < tmpDim; i++) {
+                destination.set(i, ComplexNumber.of(myV.doubleValue(i, tmpFirst), tmpSign * myV.doubleValue(i, tmpFirst + 1)));
+            }
+        }
+    }
+
+    /**
+     * Extend the Arnoldi factorisation from first to size basis vectors.
+     *
+     * @return The norm of the residual, the coupling between the last and the next (not included) basis
+     *         vector
+     */
+    private double expand(final Operator operator, final PrimitiveDenseStore[] basis, final double[][] projected, final int first, final int size,
+            final Random random) {
+
+        final double[] tmpCoefficients = new double[size + 1];
+
+        double retVal = ZERO;
+
+        for (int j = first; j < size; j++) {
+
+            final double[] tmpVector = basis[j + 1].data;
+
+            operator.multiply(basis[j], basis[j + 1]);
+
+            final double tmpInitial = KrylovEvD.norm(tmpVector);
+
+            Arrays.fill(tmpCoefficients, ZERO);
+            KrylovEvD.orthogonalise(tmpVector, basis, j + 1, tmpCoefficients);
+            for (int i = 0; i < size; i++) {
+                projected[i][j] = i <= j ? tmpCoefficients[i] : ZERO;
+            }
+
+            retVal = KrylovEvD.norm(tmpVector);
+
+            if (retVal <= ((j + 1) * MACHINE_EPSILON * tmpInitial)) {
+                // Invariant subspace - continue with a new (random) direction
+                retVal = ZERO;
+                if ((j + 1) < size) {
+                    this.randomise(basis, j + 1, random);
+                }
+            } else {
+                final double tmpScale = ONE / retVal;
+                for (int i = 0; i < tmpVector.length; i++) {
+                    tmpVector[i] *= tmpScale;
+                }
+            }
+
+            if ((j + 1) < size) {
+                projected[j + 1][j] = retVal;
+            }
+        }
+
+        return retVal;
+    }
+
+    /**
+     * The Ritz vectors of the wanted Ritz pairs, and the eigenvalues they correspond to (transformed back if
+     * shift-invert).
+     */
+    private void extract(final PrimitiveDenseStore[] basis, final int size, final double[] real, final double[] imaginary, final double[][] vectors,
+            final Integer[] order, final int wanted) {
+
+        final int tmpDim = (int) basis[0].countRows();
+
+        final int[] tmpColumns = new int[wanted];
+        myReal = new double[wanted];
+        myImaginary = new double[wanted];
+
+        for (int o = 0, c = 0; c < wanted; o++) {
+            final int j = order[o];
+            if (imaginary[j] != ZERO) {
+                tmpColumns[c] = j;
+                tmpColumns[c + 1] = j + 1;
+                if (Double.isNaN(myShift)) {
+                    myReal[c] = real[j];
+                    myImaginary[c] = imaginary[j];
+                } else {
+                    // The inverse of the 2x2 block [a b; -b a]
+                    final double tmpSquared = (real[j] * real[j]) + (imaginary[j] * imaginary[j]);
+                    myReal[c] = myShift + (real[j] / tmpSquared);
+                    myImaginary[c] = -imaginary[j] / tmpSquared;
+                }
+                myReal[c + 1] = myReal[c];
+                myImaginary[c + 1] = -myImaginary[c];
+                c += 2;
+            } else {
+                tmpColumns[c] = j;
+                myReal[c] = Double.isNaN(myShift) ? real[j] : myShift + (ONE / real[j]);
+                myImaginary[c] = ZERO;
+                c++;
+            }
+        }
+
+        myV = PrimitiveDenseStore.FACTORY.makeZero(tmpDim, wanted);
+        final double[] tmpData = myV.data;
+        for (int c = 0; c < wanted; c++) {
+            final double[] tmpVector = vectors[tmpColumns[c]];
+            final int tmpOffset = c * tmpDim;
+            for (int i = 0; i < size; i++) {
+                AXPY.invoke(tmpData, tmpOffset, tmpVector[i], basis[i].data, 0, 0, tmpDim);
+            }
+        }
+    }
+
+    /**
+     * @return The indices of the Ritz values, best first. A complex conjugate pair is represented by its
+     *         first index only.
+     */
+    private Integer[] order(final double[] real, final double[] imaginary) {
+
+        final int tmpSize = real.length;
+
+        int tmpCount = 0;
+        final Integer[] tmpOrder = new Integer[tmpSize];
+        for (int j = 0; j < tmpSize; j++) {
+            tmpOrder[tmpCount++] = j;
+            if (imaginary[j] != ZERO) {
+                j++;
+            }
+        }
+
+        Comparator<Integer> tmpComparator;
+        if (!Double.isNaN(myShift) || (mySpectrum == Eigenvalue.Spectrum.LARGEST_MAGNITUDE)) {
+            tmpComparator = Comparator.comparingDouble(j -> -HYPOT.invoke(real[j], imaginary[j]));
+        } else if (mySpectrum == Eigenvalue.Spectrum.LARGEST_REAL) {
+            tmpComparator = Comparator.comparingDouble(j -> -real[j]);
+        } else {
+            tmpComparator = Comparator.comparingDouble(j -> real[j]);
+        }
+
+        final Integer[] retVal = Arrays.copyOf(tmpOrder, tmpCount);
+        Arrays.sort(retVal, tmpComparator);
+        return retVal;
+    }
+
+    /**
+     * A new random, normalised, basis vector orthogonal to the previous ones.
+     */
+    private void randomise(final PrimitiveDenseStore[] basis, final int index, final Random random) {
+
+        final double[] tmpVector = basis[index].data;
+
+        for (int i = 0; i < tmpVector.length; i++) {
+            tmpVector[i] = random.nextDouble() - HALF;
+        }
+
+        KrylovEvD.orthogonalise(tmpVector, basis, index, null);
+
+        final double tmpScale = ONE / KrylovEvD.norm(tmpVector);
+        for (int i = 0; i < tmpVector.length; i++) {
+            tmpVector[i] *= tmpScale;
+        }
+    }
+
+    /**
+     * Krylov-Schur restart. An orthonormal basis of the (up to) target best Ritz vectors, Q, replaces the
+     * first basis vectors, [V] = [V][Q], and the projected matrix becomes [Q]<sup>T</sup>[H][Q] with the
+     * residual coupling (beta times the last row of Q) in the row below. The residual vector (the last basis
+     * vector) follows.
+     *
+     * @return The number of basis vectors kept
+     */
+    private int restart(final PrimitiveDenseStore[] basis, final double[][] projected, final double beta, final double[][] vectors,
+            final double[] imaginary, final Integer[] order, final int target) {
+
+        final int tmpSize = projected.length;
+        final int tmpDim = (int) basis[0].countRows();
+
+        final double[][] tmpQ = new double[target][];
+        int tmpKept = 0;
+        for (int o = 0; (o < order.length) && (tmpKept < target); o++) {
+            final int j = order[o];
+            final int tmpWidth = imaginary[j] != ZERO ? 2 : 1;
+            if ((tmpKept + tmpWidth) > target) {
+                break;
+            }
+            for (int w = 0; w < tmpWidth; w++) {
+                final double[] tmpColumn = vectors[j + w].clone();
+                // Modified Gram-Schmidt, twice
+                for (int p = 0; p < 2; p++) {
+                    for (int q = 0; q < tmpKept; q++) {
+                        AXPY.invoke(tmpColumn, 0, -DOT.invoke(tmpQ[q], 0, tmpColumn, 0, 0, tmpSize), tmpQ[q], 0, 0, tmpSize);
+                    }
+                }
+                final double tmpNorm = KrylovEvD.norm(tmpColumn);
+                if (tmpNorm > (tmpSize * MACHINE_EPSILON)) {
+                    for (int i = 0; i < tmpSize; i++) {
+                        tmpColumn[i] /= tmpNorm;
+                    }
+                    tmpQ[tmpKept++] = tmpColumn;
+                }
+            }
+        }
+
+        // [H][Q] and then [Q]<sup>T</sup>[H][Q]
+
+        final double[][] tmpHQ = new double[tmpKept][tmpSize];
+        for (int c = 0; c < tmpKept; c++) {
+            final double[] tmpColumn = tmpQ[c];
+            for (int i = 0; i < tmpSize; i++) {
+                tmpHQ[c][i] = DOT.invoke(projected[i], 0, tmpColumn, 0, 0, tmpSize);
+            }
+        }
+        for (int i = 0; i < tmpSize; i++) {
+            Arrays.fill(projected[i], ZERO);
+        }
+        for (int c = 0; c < tmpKept; c++) {
+            for (int r = 0; r < tmpKept; r++) {
+                projected[r][c] = DOT.invoke(tmpQ[r], 0, tmpHQ[c], 0, 0, tmpSize);
+            }
+        }
+        if (tmpKept < tmpSize) {
+            for (int c = 0; c < tmpKept; c++) {
+                projected[tmpKept][c] = beta * tmpQ[c][tmpSize - 1];
+            }
+        }
+
+        // [V][Q], row by row
+
+        final double[] tmpRow = new double[tmpKept];
+        for (int r = 0; r < tmpDim; r++) {
+            Arrays.fill(tmpRow, ZERO);
+            for (int i = 0; i < tmpSize; i++) {
+                final double tmpValue = basis[i].data[r];
+                for (int c = 0; c < tmpKept; c++) {
+                    tmpRow[c] += tmpValue * tmpQ[c][i];
+                }
+            }
+            for (int c = 0; c < tmpKept; c++) {
+                basis[c].data[r] = tmpRow[c];
+            }
+        }
+
+        final PrimitiveDenseStore tmpResidual = basis[tmpSize];
+        basis[tmpSize] = basis[tmpKept];
+        basis[tmpKept] = tmpResidual;
+
+        return tmpKept;
+    }
+
+}
@@ -28,11 +28,13 @@ import org.ojalgo.array.BasicArray;
 import org.ojalgo.constant.PrimitiveMath;
 import org.ojalgo.function.BinaryFunction;
 import org.ojalgo.function.aggregator.AggregatorFunction;
+import org.ojalgo.matrix.store.ComplexDenseStore;
 import org.ojalgo.matrix.store.GenericDenseStore;
 import org.ojalgo.matrix.store.MatrixStore;
 import org.ojalgo.matrix.store.MatrixStore.LogicalBuilder;
 import org.ojalgo.matrix.store.PhysicalStore;
 import org.ojalgo.matrix.store.PrimitiveDenseStore;
+import org.ojalgo.matrix.store.RationalDenseStore;
 import org.ojalgo.scalar.ComplexNumber;
 import org.ojalgo.scalar.PrimitiveScalar;
 import org.ojalgo.scalar.Quaternion;
@@ -47,7 +49,7 @@ abstract class LDLDecomposition<N extends Number> extends InPlaceDecomposition<N
     static final class Complex extends LDLDecomposition<ComplexNumber> {
 
         Complex() {
-            super(GenericDenseStore.COMPLEX);
+            super(ComplexDenseStore.FACTORY);
         }
 
     }
@@ -71,7 +73,7 @@ abstract class LDLDecomposition<N extends Number> extends InPlaceDecomposition<N
     static final class Rational extends LDLDecomposition<RationalNumber> {
 
         Rational() {
-            super(GenericDenseStore.RATIONAL);
+            super(RationalDenseStore.FACTORY);
         }
 
     }
@@ -52,7 +52,7 @@ import org.ojalgo.type.context.NumberContext;
  *
  * @author apete
  */
-public interface LU<N extends Number> extends LDU<N> {
+public interface LU<N extends Number> extends LDU<N>, MatrixDecomposition.Analysable<N> {
 
     interface Factory<N extends Number> extends MatrixDecomposition.Factory<LU<N>> {
 
@@ -61,7 +61,9 @@ public interface LU<N extends Number> extends LDU<N> {
     public static final Factory<ComplexNumber> COMPLEX = typical -> new LUDecomposition.Complex();
 
     public static final Factory<Double> PRIMITIVE = typical -> {
-        if ((16L < typical.countColumns()) && (typical.count() <= DenseArray.MAX_ARRAY_SIZE)) {
+        if (typical.isSquare() && SparseDecomposition.isSparse(typical)) {
+            return new SparseLU();
+        } else if ((16L < typical.countColumns()) && (typical.count() <= DenseArray.MAX_ARRAY_SIZE)) {
             return new LUDecomposition.Primitive();
         } else {
             return new RawLU();
@@ -28,11 +28,14 @@ import org.ojalgo.array.BasicArray;
 import org.ojalgo.constant.PrimitiveMath;
 import org.ojalgo.function.aggregator.Aggregator;
 import org.ojalgo.function.aggregator.AggregatorFunction;
+import org.ojalgo.matrix.store.ComplexDenseStore;
 import org.ojalgo.matrix.store.ElementsSupplier;
 import org.ojalgo.matrix.store.GenericDenseStore;
 import org.ojalgo.matrix.store.MatrixStore;
 import org.ojalgo.matrix.store.PhysicalStore;
 import org.ojalgo.matrix.store.PrimitiveDenseStore;
+import org.ojalgo.matrix.store.RationalDenseStore;
+import org.ojalgo.matrix.store.operation.BlockedLU;
 import org.ojalgo.scalar.ComplexNumber;
 import org.ojalgo.scalar.Quaternion;
 import org.ojalgo.scalar.RationalNumber;
@@ -46,7 +49,7 @@ abstract class LUDecomposition<N extends Number> extends InPlaceDecomposition<N>
     static final class Complex extends LUDecomposition<ComplexNumber> {
 
         Complex() {
-            super(GenericDenseStore.COMPLEX);
+            super(ComplexDenseStore.FACTORY);
         }
 
     }
@@ -70,7 +73,7 @@ abstract class LUDecomposition<N extends Number> extends InPlaceDecomposition<N>
     static final class Rational extends LUDecomposition<RationalNumber> {
 
         Rational() {
-            super(GenericDenseStore.RATIONAL);
+            super(RationalDenseStore.FACTORY);
         }
 
     }
@@ -271,6 +274,23 @@ abstract class LUDecomposition<N extends Number> extends InPlaceDecomposition<N>
 
         myPivot = new Pivot(tmpRowDim);
 
+        if ((tmpInPlace instanceof PrimitiveDenseStore) && (tmpMinDim > (2 * BlockedLU.THRESHOLD))) {
+
+            final int[] tmpPivots = assumeNoPivotingRequired ? null : new int[tmpMinDim];
+
+            BlockedLU.invoke(((PrimitiveDenseStore) tmpInPlace).data, tmpRowDim, this.getColDim(), tmpPivots);
+
+            if (tmpPivots != null) {
+                for (int ij = 0; ij < tmpMinDim; ij++) {
+                    if (tmpPivots[ij] != ij) {
+                        myPivot.change(tmpPivots[ij], ij);
+                    }
+                }
+            }
+
+            return this.computed(true);
+        }
+
         final BasicArray<N> tmpMultipliers = this.makeArray(tmpRowDim);
 
         // Main loop - along the diagonal
@@ -0,0 +1,509 @@
+/*
+ * Copyright 1997-2018 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.matrix.decomposition;
+
+import static org.ojalgo.constant.PrimitiveMath.*;
+import static org.ojalgo.function.PrimitiveFunction.*;
+
+import java.util.Random;
+
+import org.ojalgo.RecoverableCondition;
+import org.ojalgo.array.Array1D;
+import org.ojalgo.matrix.store.CompressedColumnStore;
+import org.ojalgo.matrix.store.CompressedRowStore;
+import org.ojalgo.matrix.store.MatrixStore;
+import org.ojalgo.matrix.store.PhysicalStore;
+import org.ojalgo.matrix.store.PrimitiveDenseStore;
+import org.ojalgo.matrix.store.SparseStore;
+import org.ojalgo.scalar.ComplexNumber;
+import org.ojalgo.structure.Access2D;
+import org.ojalgo.structure.Access2D.Collectable;
+import org.ojalgo.structure.Structure2D;
+
+/**
+ * A truncated singular value decomposition - only the k largest singular values and their singular vectors.
+ * [Q1] is m-by-k, [D] k-by-k and [Q2] n-by-k, and [Q1][D][Q2]<sup>T</sup> is the best rank k approximation of
+ * [A]. The norms, the condition number and the rank all refer to that approximation, and the inverse and the
+ * solutions are those of its pseudoinverse.
+ *
+ * @author apete
+ */
+abstract class LowRankSVD extends AbstractDecomposition<Double> implements SingularValue<Double> {
+
+    /**
+     * The largest eigenvalues of [A]<sup>T</sup>[A] (or [A][A]<sup>T</sup> if [A] has more columns than rows)
+     * calculated with the (thick restart) Lanczos method. Only matrix-vector products with [A] and
+     * [A]<sup>T</sup> are used. The smaller singular values lose precision - the eigenvalues are the singular
+     * values squared - but the largest are as accurate as with a full decomposition.
+     */
+    static final class Lanczos extends LowRankSVD {
+
+        Lanczos(final int rank) {
+            super(rank);
+        }
+
+        @Override
+        boolean doDecompose(final MatrixStore<Double> matrix) {
+
+            final MatrixStore<Double> tmpMatrix = KrylovEvD.multiplicand(matrix);
+
+            final int tmpRowDim = Math.toIntExact(matrix.countRows());
+            final int tmpColDim = Math.toIntExact(matrix.countColumns());
+            final boolean tmpTall = tmpRowDim >= tmpColDim;
+            final int tmpDim = tmpTall ? tmpColDim : tmpRowDim;
+
+            final PrimitiveDenseStore tmpIntermediate = PrimitiveDenseStore.FACTORY.makeZero(tmpTall ? tmpRowDim : tmpColDim, 1);
+            final PrimitiveDenseStore tmpTransposed = PrimitiveDenseStore.FACTORY.makeZero(1, tmpColDim);
+
+            final KrylovEvD tmpEvD = new KrylovEvD.Lanczos(this.getRequestedRank(), Eigenvalue.Spectrum.LARGEST_REAL, Double.NaN);
+
+            final boolean retVal;
+            if (tmpTall) {
+                retVal = tmpEvD.compute((vector, product) -> {
+                    tmpMatrix.multiply(vector, tmpIntermediate);
+                    LowRankSVD.multiplyTransposed(tmpMatrix, tmpIntermediate, product, tmpTransposed);
+                }, tmpDim);
+            } else {
+                retVal = tmpEvD.compute((vector, product) -> {
+                    LowRankSVD.multiplyTransposed(tmpMatrix, vector, tmpIntermediate, tmpTransposed);
+                    tmpMatrix.multiply(tmpIntermediate, product);
+                }, tmpDim);
+            }
+
+            final MatrixStore<Double> tmpV = tmpEvD.getV();
+            final int tmpRank = (int) tmpV.countColumns();
+
+            final double[] tmpValues = new double[tmpRank];
+            final Array1D<ComplexNumber> tmpEigenvalues = tmpEvD.getEigenvalues();
+            for (int j = 0; j < tmpRank; j++) {
+                tmpValues[j] = SQRT.invoke(MAX.invoke(ZERO, tmpEigenvalues.doubleValue(j)));
+            }
+
+            // The other singular vectors, [A][V] or [A]<sup>T</sup>[V], scaled by the inverse singular values
+
+            final PrimitiveDenseStore tmpFixed = PrimitiveDenseStore.FACTORY.copy(tmpV);
+            final PrimitiveDenseStore tmpOther = PrimitiveDenseStore.FACTORY.makeZero(tmpTall ? tmpRowDim : tmpColDim, tmpRank);
+
+            final PrimitiveDenseStore tmpColumn = PrimitiveDenseStore.FACTORY.makeZero(tmpDim, 1);
+            final PrimitiveDenseStore tmpProduct = PrimitiveDenseStore.FACTORY.makeZero(tmpOther.countRows(), 1);
+            for (int j = 0; j < tmpRank; j++) {
+                System.arraycopy(tmpFixed.data, j * tmpDim, tmpColumn.data, 0, tmpDim);
+                if (tmpTall) {
+                    tmpMatrix.multiply(tmpColumn, tmpProduct);
+                } else {
+                    LowRankSVD.multiplyTransposed(tmpMatrix, tmpColumn, tmpProduct, tmpTransposed);
+                }
+                final double tmpScale = tmpValues[j] > ZERO ? ONE / tmpValues[j] : ZERO;
+                final int tmpOffset = j * tmpProduct.data.length;
+                for (int i = 0; i < tmpProduct.data.length; i++) {
+                    tmpOther.data[tmpOffset + i] = tmpScale * tmpProduct.data[i];
+                }
+            }
+
+            if (tmpTall) {
+                this.factors(tmpOther, tmpValues, tmpFixed);
+            } else {
+                this.factors(tmpFixed, tmpValues, tmpOther);
+            }
+
+            return retVal;
+        }
+
+    }
+
+    /**
+     * The randomised range finder: [A] is multiplied by a Gaussian random n-by-(k+p) matrix, the product is
+     * refined with a few power iterations and then orthonormalised (QR) to [Q], an orthonormal basis for the
+     * (approximate) range of [A]. The small [Q]<sup>T</sup>[A] is decomposed with an ordinary (dense) SVD.
+     * [A] is only used in (multithreaded) products with dense m-by-(k+p) or n-by-(k+p) matrices - a handful of
+     * passes over the data. Sparse matrices are converted to compressed row/column storage once, all other
+     * stores (incl. {@link org.ojalgo.matrix.store.BufferStore}) are used as is. The results are approximate -
+     * the power iterations and the oversampling determine how close they are to those of a full decomposition.
+     */
+    static final class Randomised extends LowRankSVD {
+
+        /**
+         * [A][X]
+         */
+        private static PrimitiveDenseStore multiply(final MatrixStore<Double> matrix, final PrimitiveDenseStore right) {
+
+            final PrimitiveDenseStore retVal = PrimitiveDenseStore.FACTORY.makeZero(matrix.countRows(), right.countColumns());
+
+            matrix.multiply(right, retVal);
+
+            return retVal;
+        }
+
+        /**
+         * [A]<sup>T</sup>[X] - with the compressed row transpose if there is one, otherwise calculated as
+         * ([X]<sup>T</sup>[A])<sup>T</sup> to not access [A] in transposed order.
+         */
+        private static PrimitiveDenseStore multiplyTransposed(final MatrixStore<Double> matrix, final MatrixStore<Double> transposed,
+                final PrimitiveDenseStore right) {
+
+            if (transposed != null) {
+
+                return Randomised.multiply(transposed, right);
+
+            } else {
+
+                final PrimitiveDenseStore tmpProduct = PrimitiveDenseStore.FACTORY.makeZero(right.countColumns(), matrix.countColumns());
+
+                tmpProduct.fillByMultiplying(PrimitiveDenseStore.FACTORY.transpose(right), matrix);
+
+                return PrimitiveDenseStore.FACTORY.transpose(tmpProduct);
+            }
+        }
+
+        /**
+         * @return [Q] of the (economy size) QR decomposition of the matrix
+         */
+        private static PrimitiveDenseStore orthonormalise(final QR<Double> decomposition, final PrimitiveDenseStore matrix) {
+            decomposition.decompose(matrix);
+            return PrimitiveDenseStore.FACTORY.copy(decomposition.getQ());
+        }
+
+        private final int myOversampling;
+        private final int myPowerIterations;
+
+        Randomised(final int rank, final int oversampling, final int powerIterations) {
+
+            super(rank);
+
+            myOversampling = oversampling;
+            myPowerIterations = powerIterations;
+        }
+
+        @Override
+        boolean doDecompose(final MatrixStore<Double> matrix) {
+
+            final int tmpRowDim = Math.toIntExact(matrix.countRows());
+            final int tmpColDim = Math.toIntExact(matrix.countColumns());
+            final int tmpSize = Math.min(this.getRequestedRank() + myOversampling, Math.min(tmpRowDim, tmpColDim));
+
+            final MatrixStore<Double> tmpMatrix;
+            final MatrixStore<Double> tmpTransposed;
+            if (matrix instanceof SparseStore<?>) {
+                tmpMatrix = CompressedRowStore.copy(matrix);
+                tmpTransposed = CompressedColumnStore.copy(matrix).transpose();
+            } else {
+                tmpMatrix = matrix;
+                tmpTransposed = null;
+            }
+
+            final Random tmpRandom = new Random(tmpColDim);
+            final PrimitiveDenseStore tmpSketch = PrimitiveDenseStore.FACTORY.makeZero(tmpColDim, tmpSize);
+            for (int i = 0; i < tmpSketch.data.length; i++) {
+                tmpSketch.data[i] = tmpRandom.nextGaussian();
+            }
+
+            PrimitiveDenseStore tmpRange = Randomised.multiply(tmpMatrix, tmpSketch);
+
+            // Always QRDecomposition - with so few columns the factory would pick RawQR,
+            // and its (m-by-(k+p)) [Q] is expensive to extract
+            final QR<Double> tmpRangeQR = new QRDecomposition.Primitive(false);
+            final QR<Double> tmpCoRangeQR = new QRDecomposition.Primitive(false);
+
+            tmpRange = Randomised.orthonormalise(tmpRangeQR, tmpRange);
+            for (int p = 0; p < myPowerIterations; p++) {
+                final PrimitiveDenseStore tmpCoRange = Randomised.orthonormalise(tmpCoRangeQR,
+                        Randomised.multiplyTransposed(tmpMatrix, tmpTransposed, tmpRange));
+                tmpRange = Randomised.orthonormalise(tmpRangeQR, Randomised.multiply(tmpMatrix, tmpCoRange));
+            }
+
+            // [B]<sup>T</sup> = ([Q]<sup>T</sup>[A])<sup>T</sup> = [V][D][W]<sup>T</sup> => [A] ~ [Q][W][D][V]<sup>T</sup>
+
+            final PrimitiveDenseStore tmpProjected = Randomised.multiplyTransposed(tmpMatrix, tmpTransposed, tmpRange);
+
+            final SingularValue<Double> tmpSVD = SingularValue.PRIMITIVE.make(tmpProjected);
+            if (!tmpSVD.decompose(tmpProjected)) {
+                return false;
+            }
+
+            final int tmpRank = Math.min(this.getRequestedRank(), tmpSize);
+
+            final double[] tmpValues = new double[tmpRank];
+            final Array1D<Double> tmpSingularValues = tmpSVD.getSingularValues();
+            for (int j = 0; j < tmpRank; j++) {
+                tmpValues[j] = tmpSingularValues.doubleValue(j);
+            }
+
+            final PrimitiveDenseStore tmpQ1 = PrimitiveDenseStore.FACTORY.makeZero(tmpRowDim, tmpRank);
+            tmpQ1.fillByMultiplying(tmpRange, PrimitiveDenseStore.FACTORY.copy(tmpSVD.getQ2().logical().limits(tmpSize, tmpRank).get()));
+
+            final PrimitiveDenseStore tmpQ2 = PrimitiveDenseStore.FACTORY.copy(tmpSVD.getQ1().logical().limits(tmpColDim, tmpRank).get());
+
+            this.factors(tmpQ1, tmpValues, tmpQ2);
+
+            return true;
+        }
+
+    }
+
+    /**
+     * [A]<sup>T</sup>[x] calculated as ([x]<sup>T</sup>[A])<sup>T</sup> - works with any MatrixStore without
+     * transposing it.
+     *
+     * @param transposed A 1-by-n work vector
+     */
+    static void multiplyTransposed(final MatrixStore<Double> matrix, final PrimitiveDenseStore vector, final PrimitiveDenseStore product,
+            final PrimitiveDenseStore transposed) {
+        matrix.premultiply(vector).supplyTo(transposed);
+        System.arraycopy(transposed.data, 0, product.data, 0, product.data.length);
+    }
+
+    private int myColDim = 0;
+    private PrimitiveDenseStore myQ1 = null;
+    private PrimitiveDenseStore myQ2 = null;
+    private final int myRank;
+    private int myRowDim = 0;
+    private double[] myValues = null;
+
+    LowRankSVD(final int rank) {
+
+        super();
+
+        myRank = rank;
+    }
+
+    public boolean computeValuesOnly(final Access2D.Collectable<Double, ? super PhysicalStore<Double>> matrix) {
+        return this.decompose(matrix);
+    }
+
+    public boolean decompose(final Access2D.Collectable<Double, ? super PhysicalStore<Double>> matrix) {
+
+        this.reset();
+
+        final MatrixStore<Double> tmpMatrix = KrylovEvD.store(matrix);
+
+        myRowDim = Math.toIntExact(tmpMatrix.countRows());
+        myColDim = Math.toIntExact(tmpMatrix.countColumns());
+
+        return this.computed(this.doDecompose(tmpMatrix));
+    }
+
+    public double getCondition() {
+        return myValues[0] / myValues[myValues.length - 1];
+    }
+
+    public MatrixStore<Double> getD() {
+        final DiagonalArray1D<Double> tmpDiagonal = new DiagonalArray1D<>(this.getSingularValues(), null, null, ZERO);
+        return MatrixStore.PRIMITIVE.makeWrapper(tmpDiagonal).get();
+    }
+
+    public double getFrobeniusNorm() {
+
+        double retVal = ZERO;
+
+        for (int i = myValues.length - 1; i >= 0; i--) {
+            retVal += myValues[i] * myValues[i];
+        }
+
+        return SQRT.invoke(retVal);
+    }
+
+    public MatrixStore<Double> getInverse() {
+        return this.getInverse(this.allocate(myColDim, myRowDim));
+    }
+
+    /**
+     * [Q2][D]<sup>-1</sup>[Q1]<sup>T</sup> - the pseudoinverse of the rank k approximation. The preallocated
+     * n-by-m matrix receives the inverse.
+     */
+    public MatrixStore<Double> getInverse(final PhysicalStore<Double> preallocated) {
+
+        final PrimitiveDenseStore tmpScaled = this.scale(myQ1.transpose());
+
+        preallocated.fillByMultiplying(myQ2, tmpScaled);
+
+        return preallocated;
+    }
+
+    public double getKyFanNorm(final int k) {
+
+        double retVal = ZERO;
+
+        for (int i = Math.min(myValues.length, k) - 1; i >= 0; i--) {
+            retVal += myValues[i];
+        }
+
+        return retVal;
+    }
+
+    public double getOperatorNorm() {
+        return myValues[0];
+    }
+
+    public MatrixStore<Double> getQ1() {
+        return myQ1;
+    }
+
+    public MatrixStore<Double> getQ2() {
+        return myQ2;
+    }
+
+    public int getRank() {
+
+        final double tmpTolerance = myValues[0] * this.getDimensionalEpsilon();
+        int retVal = 0;
+        for (int i = 0; i < myValues.length; i++) {
+            if (myValues[i] > tmpTolerance) {
+                retVal++;
+            }
+        }
+        return retVal;
+    }
+
+    public Array1D<Double> getSingularValues() {
+        return Array1D.PRIMITIVE64.copy(myValues);
+    }
+
+    public MatrixStore<Double> getSolution(final Collectable<Double, ? super PhysicalStore<Double>> rhs) {
+        return this.getSolution(rhs, this.allocate(myColDim, rhs.countColumns()));
+    }
+
+    /**
+     * [Q2][D]<sup>-1</sup>[Q1]<sup>T</sup>[rhs] - the least squares solution with respect to the rank k
+     * approximation. The preallocated n-by-(rhs columns) matrix receives the solution.
+     */
+    public MatrixStore<Double> getSolution(final Collectable<Double, ? super PhysicalStore<Double>> rhs, final PhysicalStore<Double> preallocated) {
+
+        final MatrixStore<Double> tmpRHS = KrylovEvD.store(rhs);
+
+        final PrimitiveDenseStore tmpProjected = PrimitiveDenseStore.FACTORY.makeZero(myValues.length, tmpRHS.countColumns());
+        tmpProjected.fillByMultiplying(myQ1.transpose(), tmpRHS);
+
+        preallocated.fillByMultiplying(myQ2, this.scale(tmpProjected));
+
+        return preallocated;
+    }
+
+    public double getTraceNorm() {
+        return this.getKyFanNorm(myValues.length);
+    }
+
+    public MatrixStore<Double> invert(final Access2D<?> original, final PhysicalStore<Double> preallocated) throws RecoverableCondition {
+
+        this.decompose(MatrixStore.PRIMITIVE.makeWrapper(original).get());
+
+        if (this.isSolvable()) {
+            return this.getInverse(preallocated);
+        } else {
+            throw RecoverableCondition.newMatrixNotInvertible();
+        }
+    }
+
+    public boolean isFullRank() {
+        return this.getRank() == Math.min(myRowDim, myColDim);
+    }
+
+    public boolean isFullSize() {
+        return false;
+    }
+
+    public boolean isOrdered() {
+        return true;
+    }
+
+    public PhysicalStore<Double> preallocate(final Structure2D template) {
+        return this.allocate(template.countColumns(), template.countRows());
+    }
+
+    public PhysicalStore<Double> preallocate(final Structure2D templateBody, final Structure2D templateRHS) {
+        return this.allocate(templateBody.countColumns(), templateRHS.countColumns());
+    }
+
+    @Override
+    public void reset() {
+
+        super.reset();
+
+        myQ1 = null;
+        myQ2 = null;
+        myValues = null;
+    }
+
+    public MatrixStore<Double> solve(final Access2D<?> body, final Access2D<?> rhs, final PhysicalStore<Double> preallocated) throws RecoverableCondition {
+
+        this.decompose(MatrixStore.PRIMITIVE.makeWrapper(body).get());
+
+        if (this.isSolvable()) {
+            return this.getSolution(MatrixStore.PRIMITIVE.makeWrapper(rhs).get(), preallocated);
+        } else {
+            throw RecoverableCondition.newEquationSystemNotSolvable();
+        }
+    }
+
+    @Override
+    protected PrimitiveDenseStore allocate(final long numberOfRows, final long numberOfColumns) {
+        return PrimitiveDenseStore.FACTORY.makeZero(numberOfRows, numberOfColumns);
+    }
+
+    @Override
+    protected boolean checkSolvability() {
+        return (myValues != null) && (myValues.length > 0) && (myValues[0] > ZERO);
+    }
+
+    @Override
+    protected double getDimensionalEpsilon() {
+        return Math.max(myRowDim, myColDim) * MACHINE_EPSILON;
+    }
+
+    /**
+     * @param matrix The matrix to decompose
+     * @return true if the requested singular values (and vectors) were calculated with full accuracy
+     */
+    abstract boolean doDecompose(MatrixStore<Double> matrix);
+
+    final void factors(final PrimitiveDenseStore q1, final double[] values, final PrimitiveDenseStore q2) {
+        myQ1 = q1;
+        myValues = values;
+        myQ2 = q2;
+    }
+
+    /**
+     * @return The requested rank, k
+     */
+    final int getRequestedRank() {
+        return myRank;
+    }
+
+    /**
+     * @return [D]<sup>-1</sup>[matrix] with the inverse of the negligible singular values set to 0
+     */
+    private PrimitiveDenseStore scale(final MatrixStore<Double> matrix) {
+
+        final PrimitiveDenseStore retVal = PrimitiveDenseStore.FACTORY.copy(matrix);
+
+        final double tmpTolerance = myValues[0] * this.getDimensionalEpsilon();
+        for (int i = 0; i < myValues.length; i++) {
+            final double tmpValue = myValues[i];
+            final double tmpInverse = tmpValue > tmpTolerance ? ONE / tmpValue : ZERO;
+            for (int j = 0, limit = (int) retVal.countColumns(); j < limit; j++) {
+                retVal.set(i, j, tmpInverse * retVal.doubleValue(i, j));
+            }
+        }
+
+        return retVal;
+    }
+
+}
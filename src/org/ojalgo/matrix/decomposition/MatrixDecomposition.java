@@ -57,6 +57,68 @@ import org.ojalgo.structure.Structure2D;
  */
 public interface MatrixDecomposition<N extends Number> {
 
+    /**
+     * Decompositions that can be split in two phases: An analysis that only depends on the structure of the
+     * matrix - its size and (for sparse matrices) its nonzero pattern - and a numerical factorisation. With
+     * the sparse decompositions the analysis includes the fill-reducing ordering, the elimination tree, the
+     * nonzero structure of the factors and allocating all storage and workspace needed. When a sequence of
+     * matrices with the same structure is to be decomposed (Newton steps, time stepping...) analyse once and
+     * then {@link #refactor(Access2D.Collectable)} each of them.
+     * <p>
+     * The decomposition instances are not thread safe, but the analysis itself is immutable. Each thread
+     * should have its own instance, and can share the analysis of another instance by calling
+     * {@link #reuse(Analysable)}.
+     * </p>
+     * <p>
+     * The dense implementations have nothing to analyse (they already reuse their internal storage when the
+     * size doesn't change), and just use the default implementations - refactor decomposes.
+     * </p>
+     */
+    interface Analysable<N extends Number> extends MatrixDecomposition<N> {
+
+        /**
+         * Perform the structural analysis. Only the nonzero pattern of the matrix is used, not the values.
+         *
+         * @param matrix A matrix with the structure of the matrices to decompose
+         * @return true if the analysis succeeded
+         */
+        default boolean analyse(final Access2D<?> matrix) {
+            return true;
+        }
+
+        /**
+         * @return true if the analysis is done, and {@link #refactor(Access2D.Collectable)} can be called
+         */
+        default boolean isAnalysed() {
+            return true;
+        }
+
+        /**
+         * Numerical factorisation of a matrix with the same structure as analysed. This does not redo the
+         * analysis, and does not allocate any (large) new storage. If the structure turns out to be different
+         * it is analysed anew - same as {@link #decompose(Access2D.Collectable)}.
+         *
+         * @param matrix A matrix to decompose
+         * @return true if the decomposition succeeded; false if not
+         */
+        default boolean refactor(final Access2D.Collectable<N, ? super PhysicalStore<N>> matrix) {
+            return this.decompose(matrix);
+        }
+
+        /**
+         * Share the analysis of another instance (of the same implementation). Only the immutable analysis is
+         * shared - this instance gets its own storage for the factors and its own workspace.
+         *
+         * @param analysed An already analysed decomposition
+         * @return true if the analysis could be reused; false if the other instance is not analysed or is of a
+         *         different type
+         */
+        default boolean reuse(final Analysable<N> analysed) {
+            return false;
+        }
+
+    }
+
     interface Determinant<N extends Number> extends MatrixDecomposition<N>, DeterminantTask<N> {
 
         /**
@@ -0,0 +1,335 @@
+/*
+ * Copyright 1997-2018 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.matrix.decomposition;
+
+import java.util.Arrays;
+
+/**
+ * Approximate minimum degree (AMD) fill-reducing ordering, based on "An Approximate Minimum Degree Ordering
+ * Algorithm" by Amestoy, Davis and Duff. The elimination is simulated on a quotient graph, where eliminated
+ * nodes become elements representing the cliques formed, and the external degrees are approximated rather
+ * than calculated exactly. Elements are absorbed (also aggressively), dense rows/columns are postponed to
+ * the end. Supervariable detection and mass elimination are not implemented.
+ *
+ * @author apete
+ */
+final class MinimumDegree {
+
+    private static final byte ABSORBED = 2;
+    private static final byte DENSE = 3;
+    private static final byte ELEMENT = 1;
+    private static final byte VARIABLE = 0;
+
+    /**
+     * @param dim The number of rows/columns of the (square) matrix
+     * @param pointers Column pointers of a compressed sparse column representation of the nonzero pattern
+     * @param indices Row indices of a compressed sparse column representation of the nonzero pattern
+     * @return The order in which to eliminate the rows/columns - the k:th element is the (original) index of
+     *         the k:th pivot. The ordering is based on the pattern of [A]+[A]<sup>T</sup>.
+     */
+    static int[] order(final int dim, final int[] pointers, final int[] indices) {
+
+        final int[][] tmpVariables = MinimumDegree.adjacency(dim, pointers, indices);
+        final int[] tmpVariablesSize = new int[dim];
+
+        final int[][] tmpElements = new int[dim][];
+        final int[] tmpElementsSize = new int[dim];
+
+        final int[][] tmpMembers = new int[dim][];
+        final int[] tmpMembersSize = new int[dim];
+
+        final byte[] tmpStatus = new byte[dim];
+
+        final int[] tmpDegree = new int[dim];
+        final int[] tmpHead = new int[dim];
+        final int[] tmpNext = new int[dim];
+        final int[] tmpPrevious = new int[dim];
+        Arrays.fill(tmpHead, -1);
+
+        final int[] tmpMark = new int[dim];
+        final int[] tmpWeight = new int[dim];
+        final int[] tmpWeightMark = new int[dim];
+        Arrays.fill(tmpMark, -1);
+        Arrays.fill(tmpWeightMark, -1);
+
+        final int[] retVal = new int[dim];
+
+        // Rows/columns with very many nonzeros are ordered last
+
+        final int tmpDense = Math.max(16, (int) (10.0 * Math.sqrt(dim)));
+        int tmpCountDense = 0;
+        for (int i = 0; i < dim; i++) {
+            if (tmpVariables[i].length > tmpDense) {
+                tmpStatus[i] = DENSE;
+                tmpCountDense++;
+            }
+        }
+
+        final int tmpCountSparse = dim - tmpCountDense;
+
+        for (int i = 0; i < dim; i++) {
+            if (tmpStatus[i] == VARIABLE) {
+                final int[] tmpAdjacent = tmpVariables[i];
+                int tmpSize = 0;
+                for (int a = 0; a < tmpAdjacent.length; a++) {
+                    if (tmpStatus[tmpAdjacent[a]] == VARIABLE) {
+                        tmpAdjacent[tmpSize++] = tmpAdjacent[a];
+                    }
+                }
+                tmpVariablesSize[i] = tmpSize;
+                tmpElements[i] = new int[4];
+                tmpDegree[i] = tmpSize;
+                MinimumDegree.insert(i, tmpSize, tmpHead, tmpNext, tmpPrevious);
+            }
+        }
+
+        int[] tmpPivotMembers = new int[16];
+        int tmpMinDegree = 0;
+
+        for (int k = 0; k < tmpCountSparse; k++) {
+
+            // Select pivot
+
+            while (tmpHead[tmpMinDegree] == -1) {
+                tmpMinDegree++;
+            }
+            final int p = tmpHead[tmpMinDegree];
+            MinimumDegree.remove(p, tmpDegree[p], tmpHead, tmpNext, tmpPrevious);
+
+            retVal[k] = p;
+            tmpStatus[p] = ELEMENT;
+
+            // Construct the new element - the variables adjacent to p, and the members of the elements adjacent to p
+
+            int tmpPivotSize = 0;
+            tmpMark[p] = k;
+
+            final int[] tmpAdjacent = tmpVariables[p];
+            for (int a = 0, limit = tmpVariablesSize[p]; a < limit; a++) {
+                final int v = tmpAdjacent[a];
+                if ((tmpStatus[v] == VARIABLE) && (tmpMark[v] != k)) {
+                    tmpMark[v] = k;
+                    if (tmpPivotSize == tmpPivotMembers.length) {
+                        tmpPivotMembers = Arrays.copyOf(tmpPivotMembers, 2 * tmpPivotSize);
+                    }
+                    tmpPivotMembers[tmpPivotSize++] = v;
+                }
+            }
+
+            final int[] tmpAdjacentElements = tmpElements[p];
+            for (int a = 0, limit = tmpElementsSize[p]; a < limit; a++) {
+                final int e = tmpAdjacentElements[a];
+                if (tmpStatus[e] == ELEMENT) {
+                    final int[] tmpElementMembers = tmpMembers[e];
+                    for (int m = 0, mlimit = tmpMembersSize[e]; m < mlimit; m++) {
+                        final int v = tmpElementMembers[m];
+                        if ((tmpStatus[v] == VARIABLE) && (tmpMark[v] != k)) {
+                            tmpMark[v] = k;
+                            if (tmpPivotSize == tmpPivotMembers.length) {
+                                tmpPivotMembers = Arrays.copyOf(tmpPivotMembers, 2 * tmpPivotSize);
+                            }
+                            tmpPivotMembers[tmpPivotSize++] = v;
+                        }
+                    }
+                    // Absorbed by the new element
+                    tmpStatus[e] = ABSORBED;
+                    tmpMembers[e] = null;
+                }
+            }
+
+            tmpMembers[p] = Arrays.copyOf(tmpPivotMembers, tmpPivotSize);
+            tmpMembersSize[p] = tmpPivotSize;
+            tmpVariables[p] = null;
+            tmpElements[p] = null;
+
+            // Update the variables adjacent to the new element
+
+            for (int m = 0; m < tmpPivotSize; m++) {
+                final int i = tmpPivotMembers[m];
+
+                MinimumDegree.remove(i, tmpDegree[i], tmpHead, tmpNext, tmpPrevious);
+
+                // Variables that are now also reachable via p are pruned
+
+                final int[] tmpAdjacentI = tmpVariables[i];
+                int tmpSize = 0;
+                for (int a = 0, limit = tmpVariablesSize[i]; a < limit; a++) {
+                    final int v = tmpAdjacentI[a];
+                    if ((tmpStatus[v] == VARIABLE) && (tmpMark[v] != k)) {
+                        tmpAdjacentI[tmpSize++] = v;
+                    }
+                }
+                tmpVariablesSize[i] = tmpSize;
+
+                int[] tmpElementsI = tmpElements[i];
+                tmpSize = 0;
+                for (int a = 0, limit = tmpElementsSize[i]; a < limit; a++) {
+                    final int e = tmpElementsI[a];
+                    if (tmpStatus[e] == ELEMENT) {
+                        tmpElementsI[tmpSize++] = e;
+                    }
+                }
+                if (tmpSize == tmpElementsI.length) {
+                    tmpElements[i] = tmpElementsI = Arrays.copyOf(tmpElementsI, 2 * tmpSize);
+                }
+                tmpElementsI[tmpSize++] = p;
+                tmpElementsSize[i] = tmpSize;
+            }
+
+            // For the other elements calculate |Le \ Lp|
+
+            for (int m = 0; m < tmpPivotSize; m++) {
+                final int i = tmpPivotMembers[m];
+                final int[] tmpElementsI = tmpElements[i];
+                for (int a = 0, limit = tmpElementsSize[i] - 1; a < limit; a++) {
+                    final int e = tmpElementsI[a];
+                    if (tmpWeightMark[e] != k) {
+                        tmpWeightMark[e] = k;
+                        final int[] tmpElementMembers = tmpMembers[e];
+                        int tmpSize = 0;
+                        for (int b = 0, blimit = tmpMembersSize[e]; b < blimit; b++) {
+                            if (tmpStatus[tmpElementMembers[b]] == VARIABLE) {
+                                tmpElementMembers[tmpSize++] = tmpElementMembers[b];
+                            }
+                        }
+                        tmpMembersSize[e] = tmpSize;
+                        tmpWeight[e] = tmpSize;
+                    }
+                    tmpWeight[e]--;
+                }
+            }
+
+            // Approximate external degrees
+
+            final int tmpRemaining = tmpCountSparse - k - 1;
+            for (int m = 0; m < tmpPivotSize; m++) {
+                final int i = tmpPivotMembers[m];
+                final int[] tmpElementsI = tmpElements[i];
+
+                int tmpApprox = tmpVariablesSize[i] + (tmpPivotSize - 1);
+                for (int a = 0, limit = tmpElementsSize[i] - 1; a < limit; a++) {
+                    final int e = tmpElementsI[a];
+                    if (tmpStatus[e] == ELEMENT) {
+                        if (tmpWeight[e] == 0) {
+                            // Aggressive absorption - all members are also members of p
+                            tmpStatus[e] = ABSORBED;
+                            tmpMembers[e] = null;
+                        } else {
+                            tmpApprox += tmpWeight[e];
+                        }
+                    }
+                }
+
+                final int tmpNewDegree = Math.max(0, Math.min(tmpRemaining - 1, Math.min(tmpApprox, tmpDegree[i] + tmpPivotSize - 1)));
+                tmpDegree[i] = tmpNewDegree;
+                MinimumDegree.insert(i, tmpNewDegree, tmpHead, tmpNext, tmpPrevious);
+                tmpMinDegree = Math.min(tmpMinDegree, tmpNewDegree);
+            }
+        }
+
+        for (int i = 0, k = tmpCountSparse; i < dim; i++) {
+            if (tmpStatus[i] == DENSE) {
+                retVal[k++] = i;
+            }
+        }
+
+        return retVal;
+    }
+
+    /**
+     * The (symmetric) adjacency lists of the pattern of [A]+[A]<sup>T</sup>, excluding the diagonal.
+     */
+    private static int[][] adjacency(final int dim, final int[] pointers, final int[] indices) {
+
+        final int[] tmpCount = new int[dim];
+        for (int j = 0; j < dim; j++) {
+            for (int p = pointers[j], limit = pointers[j + 1]; p < limit; p++) {
+                final int i = indices[p];
+                if (i != j) {
+                    tmpCount[i]++;
+                    tmpCount[j]++;
+                }
+            }
+        }
+
+        final int[][] retVal = new int[dim][];
+        for (int i = 0; i < dim; i++) {
+            retVal[i] = new int[tmpCount[i]];
+        }
+
+        Arrays.fill(tmpCount, 0);
+        for (int j = 0; j < dim; j++) {
+            for (int p = pointers[j], limit = pointers[j + 1]; p < limit; p++) {
+                final int i = indices[p];
+                if (i != j) {
+                    retVal[i][tmpCount[i]++] = j;
+                    retVal[j][tmpCount[j]++] = i;
+                }
+            }
+        }
+
+        // Remove duplicates (entries present in both [A] and [A]T)
+
+        final int[] tmpMark = new int[dim];
+        Arrays.fill(tmpMark, -1);
+        for (int i = 0; i < dim; i++) {
+            final int[] tmpAdjacent = retVal[i];
+            int tmpSize = 0;
+            for (int a = 0; a < tmpAdjacent.length; a++) {
+                if (tmpMark[tmpAdjacent[a]] != i) {
+                    tmpMark[tmpAdjacent[a]] = i;
+                    tmpAdjacent[tmpSize++] = tmpAdjacent[a];
+                }
+            }
+            if (tmpSize < tmpAdjacent.length) {
+                retVal[i] = Arrays.copyOf(tmpAdjacent, tmpSize);
+            }
+        }
+
+        return retVal;
+    }
+
+    private static void insert(final int node, final int degree, final int[] head, final int[] next, final int[] previous) {
+        next[node] = head[degree];
+        previous[node] = -1;
+        if (head[degree] != -1) {
+            previous[head[degree]] = node;
+        }
+        head[degree] = node;
+    }
+
+    private static void remove(final int node, final int degree, final int[] head, final int[] next, final int[] previous) {
+        if (previous[node] != -1) {
+            next[previous[node]] = next[node];
+        } else {
+            head[degree] = next[node];
+        }
+        if (next[node] != -1) {
+            previous[next[node]] = previous[node];
+        }
+    }
+
+    private MinimumDegree() {
+        super();
+    }
+
+}
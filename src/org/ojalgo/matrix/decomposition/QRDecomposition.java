@@ -23,10 +23,12 @@ package org.ojalgo.matrix.decomposition;
 
 import org.ojalgo.RecoverableCondition;
 import org.ojalgo.function.aggregator.AggregatorFunction;
+import org.ojalgo.matrix.store.ComplexDenseStore;
 import org.ojalgo.matrix.store.GenericDenseStore;
 import org.ojalgo.matrix.store.MatrixStore;
 import org.ojalgo.matrix.store.PhysicalStore;
 import org.ojalgo.matrix.store.PrimitiveDenseStore;
+import org.ojalgo.matrix.store.operation.BlockedQR;
 import org.ojalgo.matrix.transformation.Householder;
 import org.ojalgo.matrix.transformation.HouseholderReference;
 import org.ojalgo.scalar.ComplexNumber;
@@ -45,7 +47,7 @@ abstract class QRDecomposition<N extends Number> extends InPlaceDecomposition<N>
         }
 
         Complex(boolean fullSize) {
-            super(GenericDenseStore.COMPLEX, fullSize);
+            super(ComplexDenseStore.FACTORY, fullSize);
         }
 
     }
@@ -108,10 +110,17 @@ abstract class QRDecomposition<N extends Number> extends InPlaceDecomposition<N>
         final int tmpRowDim = this.getRowDim();
         final int tmpColDim = this.getColDim();
 
-        final Householder<N> tmpHouseholder = this.makeHouseholder(tmpRowDim);
-
         final int tmpLimit = Math.min(tmpRowDim, tmpColDim);
 
+        if ((tmpStore instanceof PrimitiveDenseStore) && (tmpLimit > (2 * BlockedQR.THRESHOLD))) {
+
+            myNumberOfHouseholderTransformations = BlockedQR.invoke(((PrimitiveDenseStore) tmpStore).data, tmpRowDim, tmpColDim);
+
+            return this.computed(true);
+        }
+
+        final Householder<N> tmpHouseholder = this.makeHouseholder(tmpRowDim);
+
         for (int ij = 0; ij < tmpLimit; ij++) {
             if (((ij + 1) < tmpRowDim) && tmpStore.generateApplyAndCopyHouseholderColumn(ij, ij, tmpHouseholder)) {
                 tmpStore.transformLeft(tmpHouseholder, ij + 1);
@@ -30,6 +30,7 @@ import org.ojalgo.matrix.MatrixUtils;
 import org.ojalgo.matrix.store.MatrixStore;
 import org.ojalgo.matrix.store.PhysicalStore;
 import org.ojalgo.matrix.store.RawStore;
+import org.ojalgo.structure.Access1D;
 import org.ojalgo.structure.Access2D;
 import org.ojalgo.structure.Access2D.Collectable;
 import org.ojalgo.structure.Structure2D;
@@ -48,6 +49,40 @@ final class RawCholesky extends RawDecomposition implements Cholesky<Double> {
         super();
     }
 
+    public boolean append(final Access1D<?> column) {
+
+        if (!this.isComputed() || !mySPD) {
+            return false;
+        }
+
+        final double[][] tmpOld = this.getRawInPlaceData();
+        final int tmpDim = this.getRowDim();
+
+        final double[][] tmpData = this.reset(tmpDim + 1, tmpDim + 1, false);
+
+        for (int i = 0; i < tmpDim; i++) {
+            System.arraycopy(tmpOld[i], 0, tmpData[i], 0, tmpDim);
+            tmpData[i][tmpDim] = column.doubleValue(i);
+        }
+
+        // Solve [L][y] = [b], [y]T is the new last row of [L]
+        final double[] tmpNewRow = tmpData[tmpDim];
+        for (int j = 0; j < tmpDim; j++) {
+            tmpNewRow[j] = (column.doubleValue(j) - DOT.invoke(tmpNewRow, 0, tmpData[j], 0, 0, j)) / tmpData[j][j];
+        }
+
+        final double tmpVal = column.doubleValue(tmpDim) - DOT.invoke(tmpNewRow, 0, tmpNewRow, 0, 0, tmpDim);
+
+        if (tmpVal > ZERO) {
+            tmpNewRow[tmpDim] = SQRT.invoke(tmpVal);
+            myMaxDiag = MAX.invoke(myMaxDiag, tmpVal);
+            myMinDiag = MIN.invoke(myMinDiag, tmpVal);
+            return this.computed(true);
+        } else {
+            return this.computed(mySPD = false);
+        }
+    }
+
     public Double calculateDeterminant(final Access2D<?> matrix) {
 
         final double[][] retVal = this.reset(matrix, false);
@@ -84,6 +119,10 @@ final class RawCholesky extends RawDecomposition implements Cholesky<Double> {
         return this.doDecompose(retVal, tmpRawInPlaceStore);
     }
 
+    public boolean downdate(final Access1D<?> vector) {
+        return this.doUpdate(vector, true);
+    }
+
     public Double getDeterminant() {
 
         final double[][] tmpData = this.getRawInPlaceData();
@@ -189,6 +228,10 @@ final class RawCholesky extends RawDecomposition implements Cholesky<Double> {
         }
     }
 
+    public boolean update(final Access1D<?> vector) {
+        return this.doUpdate(vector, false);
+    }
+
     private boolean doDecompose(final double[][] data, final Access2D<?> input) {
 
         final int tmpDiagDim = this.getRowDim();
@@ -240,6 +283,68 @@ final class RawCholesky extends RawDecomposition implements Cholesky<Double> {
         return preallocated;
     }
 
+    private boolean doUpdate(final Access1D<?> vector, final boolean downdate) {
+
+        if (!this.isComputed() || !mySPD) {
+            return false;
+        }
+
+        final double[][] tmpData = this.getRawInPlaceData();
+        final int tmpDim = this.getRowDim();
+
+        final double[] tmpWork = new double[tmpDim];
+        for (int i = 0; i < tmpDim; i++) {
+            tmpWork[i] = vector.doubleValue(i);
+        }
+
+        if (downdate) {
+            // [A] - [x][x]T is positive definite if and only if |[L]<sup>-1</sup>[x]| < 1
+            final double[] tmpSolution = new double[tmpDim];
+            double tmpSumSquares = ZERO;
+            for (int j = 0; j < tmpDim; j++) {
+                tmpSolution[j] = (tmpWork[j] - DOT.invoke(tmpData[j], 0, tmpSolution, 0, 0, j)) / tmpData[j][j];
+                tmpSumSquares += tmpSolution[j] * tmpSolution[j];
+            }
+            if (tmpSumSquares >= ONE) {
+                return false;
+            }
+        }
+
+        double[] tmpRow;
+        double tmpDiag, tmpVal, tmpRadius, tmpCos, tmpSin;
+        for (int k = 0; k < tmpDim; k++) {
+
+            tmpDiag = tmpData[k][k];
+            tmpVal = tmpWork[k];
+
+            tmpRadius = downdate ? SQRT.invoke((tmpDiag - tmpVal) * (tmpDiag + tmpVal)) : HYPOT.invoke(tmpDiag, tmpVal);
+            tmpCos = tmpRadius / tmpDiag;
+            tmpSin = tmpVal / tmpDiag;
+
+            tmpData[k][k] = tmpRadius;
+
+            for (int i = k + 1; i < tmpDim; i++) {
+                tmpRow = tmpData[i];
+                if (downdate) {
+                    tmpRow[k] = (tmpRow[k] - (tmpSin * tmpWork[i])) / tmpCos;
+                } else {
+                    tmpRow[k] = (tmpRow[k] + (tmpSin * tmpWork[i])) / tmpCos;
+                }
+                tmpWork[i] = (tmpCos * tmpWork[i]) - (tmpSin * tmpRow[k]);
+            }
+        }
+
+        myMaxDiag = ZERO;
+        myMinDiag = POSITIVE_INFINITY;
+        for (int ij = 0; ij < tmpDim; ij++) {
+            tmpVal = tmpData[ij][ij] * tmpData[ij][ij];
+            myMaxDiag = MAX.invoke(myMaxDiag, tmpVal);
+            myMinDiag = MIN.invoke(myMinDiag, tmpVal);
+        }
+
+        return this.computed(true);
+    }
+
     @Override
     protected boolean checkSolvability() {
         return mySPD && (myMinDiag > this.getAlgorithmEpsilon());
@@ -104,11 +104,15 @@ abstract class RawDecomposition extends AbstractDecomposition<Double> {
     }
 
     double[][] reset(final Structure2D matrix, final boolean transpose) {
+        return this.reset((int) matrix.countRows(), (int) matrix.countColumns(), transpose);
+    }
+
+    double[][] reset(final int numberOfRows, final int numberOfColumns, final boolean transpose) {
 
         this.reset();
 
-        final int tmpInputRowDim = (int) matrix.countRows();
-        final int tmpInputColDim = (int) matrix.countColumns();
+        final int tmpInputRowDim = numberOfRows;
+        final int tmpInputColDim = numberOfColumns;
 
         final int tmpInPlaceRowDim = transpose ? tmpInputColDim : tmpInputRowDim;
         final int tmpInPlaceColDim = transpose ? tmpInputRowDim : tmpInputColDim;
@@ -99,6 +99,44 @@ public interface SingularValue<N extends Number> extends MatrixDecomposition<N>,
         }
     }
 
+    /**
+     * A partial (truncated) singular value decomposition - only the rank largest singular values and their
+     * singular vectors. Intended for large (sparse) matrices. The matrix is never copied or modified, it's
+     * only used to calculate matrix-vector products, and the singular values are calculated as the square
+     * roots of the largest eigenvalues of [A]<sup>T</sup>[A] (or [A][A]<sup>T</sup>) using the Lanczos
+     * method.
+     *
+     * @param rank The number of singular values (and vectors) to calculate
+     */
+    public static SingularValue<Double> makePartial(final int rank) {
+        return new LowRankSVD.Lanczos(rank);
+    }
+
+    /**
+     * A randomised truncated singular value decomposition with the default oversampling (10) and number of
+     * power iterations (2).
+     *
+     * @see #makeRandomised(int, int, int)
+     */
+    public static SingularValue<Double> makeRandomised(final int rank) {
+        return SingularValue.makeRandomised(rank, 10, 2);
+    }
+
+    /**
+     * A randomised truncated singular value decomposition - an approximation of the rank largest singular
+     * values and their singular vectors. Intended for large tall (or wide) dense, sparse or memory mapped
+     * matrices when only a low rank approximation is needed. The matrix is never copied (sparse matrices are
+     * converted to compressed storage) or modified, it is only multiplied with a few dense (thin) matrices.
+     *
+     * @param rank The number of singular values (and vectors) to calculate
+     * @param oversampling The number of additional random samples - more makes the result more accurate
+     * @param powerIterations The number of power iterations - more makes the result more accurate when the
+     *        singular values decay slowly, each costs 2 additional passes over the matrix
+     */
+    public static SingularValue<Double> makeRandomised(final int rank, final int oversampling, final int powerIterations) {
+        return new LowRankSVD.Randomised(rank, oversampling, powerIterations);
+    }
+
     static <N extends Number> boolean equals(final MatrixStore<N> matrix, final SingularValue<N> decomposition, final NumberContext context) {
 
         final int tmpRowDim = (int) matrix.countRows();
@@ -33,6 +33,7 @@ import org.ojalgo.function.PrimitiveFunction;
 import org.ojalgo.matrix.decomposition.function.ExchangeColumns;
 import org.ojalgo.matrix.decomposition.function.NegateColumn;
 import org.ojalgo.matrix.decomposition.function.RotateRight;
+import org.ojalgo.matrix.store.ComplexDenseStore;
 import org.ojalgo.matrix.store.GenericDenseStore;
 import org.ojalgo.matrix.store.MatrixStore;
 import org.ojalgo.matrix.store.PhysicalStore;
@@ -56,7 +57,7 @@ abstract class SingularValueDecomposition<N extends Number & Comparable<N>> exte
         }
 
         Complex(boolean fullSize) {
-            super(GenericDenseStore.COMPLEX, new BidiagonalDecomposition.Complex(fullSize), fullSize);
+            super(ComplexDenseStore.FACTORY, new BidiagonalDecomposition.Complex(fullSize), fullSize);
         }
 
     }
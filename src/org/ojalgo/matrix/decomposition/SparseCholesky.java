@@ -0,0 +1,699 @@
+/*
+ * Copyright 1997-2018 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.matrix.decomposition;
+
+import static org.ojalgo.constant.PrimitiveMath.*;
+import static org.ojalgo.function.PrimitiveFunction.*;
+
+import java.util.Arrays;
+
+import org.ojalgo.matrix.store.CompressedColumnStore;
+import org.ojalgo.matrix.store.MatrixStore;
+import org.ojalgo.structure.Access1D;
+import org.ojalgo.structure.Access2D;
+
+/**
+ * Supernodal, left-looking, sparse Cholesky decomposition. The rows/columns are reordered using
+ * {@link MinimumDegree} (and a postorder of the elimination tree) to reduce fill-in, and columns of [L] with
+ * identical nonzero structure are grouped into supernodes that are stored, and operated on, as dense blocks.
+ * Only the lower triangular part of the input matrix is used.
+ * <p>
+ * With [P] the fill-reducing permutation, [P][A][P]<sup>T</sup> = [L][L]<sup>T</sup>. What
+ * {@link #getL()} returns is [P]<sup>T</sup>[L] - a row permutation of a lower triangular matrix - so that
+ * [A] = [L][L]<sup>T</sup> still holds.
+ * </p>
+ * <p>
+ * The rank one update/downdate and append operations are not supported, those methods always return false.
+ * </p>
+ *
+ * @author apete
+ */
+final class SparseCholesky extends SparseDecomposition implements Cholesky<Double> {
+
+    /**
+     * The result of the symbolic analysis - it only depends on the nonzero pattern of the matrix, and is
+     * never modified once created.
+     */
+    static final class Analysis {
+
+        /**
+         * For each nonzero of the input matrix, its position in the factor storage (or -1 if not used)
+         */
+        final int[] assembly;
+        final int[] columnSuper;
+        /**
+         * The fill-reducing ordering - the k:th element is the original index of the k:th row/column
+         */
+        final int[] order;
+        final int[] superFirst;
+        final int[][] superRows;
+        /**
+         * The start, in the factor storage, of each supernode. The last element is the total size.
+         */
+        final int[] superStart;
+
+        Analysis(final int dim, final int[] pointers, final int[] indices) {
+
+            super();
+
+            // Fill-reducing ordering, then postorder the elimination tree so that supernodes are contiguous
+
+            final int[] tmpMinimumDegree = MinimumDegree.order(dim, pointers, indices);
+            final int[] tmpInverse = new int[dim];
+            for (int k = 0; k < dim; k++) {
+                tmpInverse[tmpMinimumDegree[k]] = k;
+            }
+
+            final int[] tmpPostorder = SparseCholesky.postorder(dim, SparseCholesky.tree(dim, SparseCholesky.lower(dim, pointers, indices, tmpInverse, true)));
+
+            order = new int[dim];
+            for (int k = 0; k < dim; k++) {
+                order[k] = tmpMinimumDegree[tmpPostorder[k]];
+                tmpInverse[order[k]] = k;
+            }
+
+            final Pattern tmpRows = SparseCholesky.lower(dim, pointers, indices, tmpInverse, true);
+            final Pattern tmpColumns = SparseCholesky.lower(dim, pointers, indices, tmpInverse, false);
+            final int[] tmpParent = SparseCholesky.tree(dim, tmpRows);
+
+            // Column counts - traverse the row subtrees
+
+            final int[] tmpCounts = new int[dim];
+            final int[] tmpMark = new int[dim];
+            for (int k = 0; k < dim; k++) {
+                tmpCounts[k]++;
+                tmpMark[k] = k;
+                for (int q = tmpRows.pointers[k], limit = tmpRows.pointers[k + 1]; q < limit; q++) {
+                    int i = tmpRows.indices[q];
+                    while (tmpMark[i] != k) {
+                        tmpCounts[i]++;
+                        tmpMark[i] = k;
+                        i = tmpParent[i];
+                    }
+                }
+            }
+
+            // Fundamental supernodes
+
+            final int[] tmpChildren = new int[dim];
+            for (int j = 0; j < dim; j++) {
+                if (tmpParent[j] != -1) {
+                    tmpChildren[tmpParent[j]]++;
+                }
+            }
+
+            columnSuper = new int[dim];
+            int tmpCountSupers = 0;
+            for (int j = 0; j < dim; j++) {
+                if ((j == 0) || (tmpParent[j - 1] != j) || (tmpCounts[j - 1] != (tmpCounts[j] + 1)) || (tmpChildren[j] != 1)) {
+                    tmpCountSupers++;
+                }
+                columnSuper[j] = tmpCountSupers - 1;
+            }
+
+            superFirst = new int[tmpCountSupers + 1];
+            for (int j = dim - 1; j >= 0; j--) {
+                superFirst[columnSuper[j]] = j;
+            }
+            superFirst[tmpCountSupers] = dim;
+
+            final int[] tmpSuperHead = new int[tmpCountSupers];
+            final int[] tmpSuperNext = new int[tmpCountSupers];
+            Arrays.fill(tmpSuperHead, -1);
+            for (int s = tmpCountSupers - 1; s >= 0; s--) {
+                final int tmpParentColumn = tmpParent[superFirst[s + 1] - 1];
+                if (tmpParentColumn != -1) {
+                    final int tmpParentSuper = columnSuper[tmpParentColumn];
+                    tmpSuperNext[s] = tmpSuperHead[tmpParentSuper];
+                    tmpSuperHead[tmpParentSuper] = s;
+                }
+            }
+
+            // Row structure of each supernode, and where to put each nonzero of the input matrix
+
+            superRows = new int[tmpCountSupers][];
+            superStart = new int[tmpCountSupers + 1];
+            assembly = new int[indices.length];
+            Arrays.fill(assembly, -1);
+            Arrays.fill(tmpMark, -1);
+            final int[] tmpPosition = new int[dim];
+
+            for (int s = 0; s < tmpCountSupers; s++) {
+
+                final int tmpFirst = superFirst[s];
+                final int tmpLimit = superFirst[s + 1];
+                final int tmpWidth = tmpLimit - tmpFirst;
+
+                final int[] tmpSuperRows = new int[tmpCounts[tmpFirst]];
+                int tmpSize = 0;
+                for (int j = tmpFirst; j < tmpLimit; j++) {
+                    tmpSuperRows[tmpSize++] = j;
+                    tmpMark[j] = s;
+                }
+                for (int j = tmpFirst; j < tmpLimit; j++) {
+                    for (int q = tmpColumns.pointers[j], limit = tmpColumns.pointers[j + 1]; q < limit; q++) {
+                        final int i = tmpColumns.indices[q];
+                        if (tmpMark[i] != s) {
+                            tmpMark[i] = s;
+                            tmpSuperRows[tmpSize++] = i;
+                        }
+                    }
+                }
+                for (int c = tmpSuperHead[s]; c != -1; c = tmpSuperNext[c]) {
+                    final int[] tmpChildRows = superRows[c];
+                    for (int r = superFirst[c + 1] - superFirst[c]; r < tmpChildRows.length; r++) {
+                        final int i = tmpChildRows[r];
+                        if (tmpMark[i] != s) {
+                            tmpMark[i] = s;
+                            tmpSuperRows[tmpSize++] = i;
+                        }
+                    }
+                }
+                Arrays.sort(tmpSuperRows, tmpWidth, tmpSize);
+
+                superRows[s] = tmpSuperRows;
+                superStart[s + 1] = Math.addExact(superStart[s], Math.multiplyExact(tmpSize, tmpWidth));
+
+                for (int r = 0; r < tmpSize; r++) {
+                    tmpPosition[tmpSuperRows[r]] = r;
+                }
+                for (int j = tmpFirst; j < tmpLimit; j++) {
+                    for (int q = tmpColumns.pointers[j], limit = tmpColumns.pointers[j + 1]; q < limit; q++) {
+                        assembly[tmpColumns.sources[q]] = superStart[s] + tmpPosition[tmpColumns.indices[q]] + ((j - tmpFirst) * tmpSize);
+                    }
+                }
+            }
+        }
+
+    }
+
+    /**
+     * A compressed lower triangular nonzero pattern with (for each nonzero) an index back to the original
+     * matrix.
+     */
+    static final class Pattern {
+
+        final int[] indices;
+        final int[] pointers;
+        final int[] sources;
+
+        Pattern(final int dim, final int count) {
+            super();
+            pointers = new int[dim + 1];
+            indices = new int[count];
+            sources = new int[count];
+        }
+
+    }
+
+    /**
+     * The lower triangular part of [P][A][P]<sup>T</sup> - stored column by column, or (if transpose) row by
+     * row.
+     */
+    static Pattern lower(final int dim, final int[] pointers, final int[] indices, final int[] inverse, final boolean transpose) {
+
+        int tmpCount = 0;
+        for (int c = 0; c < dim; c++) {
+            for (int q = pointers[c], limit = pointers[c + 1]; q < limit; q++) {
+                if (indices[q] >= c) {
+                    tmpCount++;
+                }
+            }
+        }
+
+        final Pattern retVal = new Pattern(dim, tmpCount);
+        final int[] tmpPointers = retVal.pointers;
+
+        for (int c = 0; c < dim; c++) {
+            for (int q = pointers[c], limit = pointers[c + 1]; q < limit; q++) {
+                final int r = indices[q];
+                if (r >= c) {
+                    final int i = inverse[r];
+                    final int j = inverse[c];
+                    tmpPointers[(transpose ? Math.max(i, j) : Math.min(i, j)) + 1]++;
+                }
+            }
+        }
+        for (int k = 0; k < dim; k++) {
+            tmpPointers[k + 1] += tmpPointers[k];
+        }
+
+        final int[] tmpNext = Arrays.copyOf(tmpPointers, dim);
+        for (int c = 0; c < dim; c++) {
+            for (int q = pointers[c], limit = pointers[c + 1]; q < limit; q++) {
+                final int r = indices[q];
+                if (r >= c) {
+                    final int i = inverse[r];
+                    final int j = inverse[c];
+                    final int tmpIndex = tmpNext[transpose ? Math.max(i, j) : Math.min(i, j)]++;
+                    retVal.indices[tmpIndex] = transpose ? Math.min(i, j) : Math.max(i, j);
+                    retVal.sources[tmpIndex] = q;
+                }
+            }
+        }
+
+        return retVal;
+    }
+
+    /**
+     * Liu's algorithm (with path compression) for the elimination tree
+     *
+     * @param rows The lower triangular pattern stored row by row
+     */
+    static int[] tree(final int dim, final Pattern rows) {
+
+        final int[] retVal = new int[dim];
+        final int[] tmpAncestor = new int[dim];
+
+        for (int k = 0; k < dim; k++) {
+            retVal[k] = -1;
+            tmpAncestor[k] = -1;
+            for (int q = rows.pointers[k], limit = rows.pointers[k + 1]; q < limit; q++) {
+                int i = rows.indices[q];
+                while ((i != -1) && (i < k)) {
+                    final int tmpNext = tmpAncestor[i];
+                    tmpAncestor[i] = k;
+                    if (tmpNext == -1) {
+                        retVal[i] = k;
+                    }
+                    i = tmpNext;
+                }
+            }
+        }
+
+        return retVal;
+    }
+
+    /**
+     * @return The nodes of the (elimination) tree in postorder
+     */
+    static int[] postorder(final int dim, final int[] parent) {
+
+        final int[] tmpHead = new int[dim];
+        final int[] tmpNext = new int[dim];
+        Arrays.fill(tmpHead, -1);
+        for (int j = dim - 1; j >= 0; j--) {
+            if (parent[j] != -1) {
+                tmpNext[j] = tmpHead[parent[j]];
+                tmpHead[parent[j]] = j;
+            }
+        }
+
+        final int[] retVal = new int[dim];
+        final int[] tmpStack = new int[dim];
+
+        int k = 0;
+        for (int j = 0; j < dim; j++) {
+            if (parent[j] == -1) {
+                int tmpTop = 0;
+                tmpStack[0] = j;
+                while (tmpTop >= 0) {
+                    final int p = tmpStack[tmpTop];
+                    final int i = tmpHead[p];
+                    if (i == -1) {
+                        tmpTop--;
+                        retVal[k++] = p;
+                    } else {
+                        tmpHead[p] = tmpNext[i];
+                        tmpStack[++tmpTop] = i;
+                    }
+                }
+            }
+        }
+
+        return retVal;
+    }
+
+    private Analysis myAnalysis = null;
+    private double[] myDiagonal = new double[0];
+    private double[] myFactor;
+    private int[] myHead;
+    private double myMaxDiag = ONE;
+    private double myMinDiag = ZERO;
+    private int[] myNext;
+    private int[] myNextRow;
+    private int[] myPosition;
+    private boolean mySPD = false;
+    private double[] myWork;
+
+    /**
+     * Not recommended to use this constructor directly. Consider using the static factory method
+     * {@linkplain org.ojalgo.matrix.decomposition.Cholesky#make(Access2D)} instead.
+     */
+    SparseCholesky() {
+        super();
+    }
+
+    /**
+     * Not supported
+     *
+     * @return false
+     */
+    public boolean append(final Access1D<?> column) {
+        return false;
+    }
+
+    /**
+     * Not supported
+     *
+     * @return false
+     */
+    public boolean downdate(final Access1D<?> vector) {
+        return false;
+    }
+
+    @Override
+    public Double getDeterminant() {
+        double retVal = ONE;
+        for (int ij = 0; ij < myDiagonal.length; ij++) {
+            retVal *= myDiagonal[ij] * myDiagonal[ij];
+        }
+        return retVal;
+    }
+
+    public MatrixStore<Double> getL() {
+
+        final Analysis tmpAnalysis = myAnalysis;
+        final int tmpDim = this.getRowDim();
+        final CompressedColumnStore.Builder retVal = CompressedColumnStore.builder(tmpDim, tmpDim, myFactor.length);
+
+        for (int s = 0, tmpCountSupers = tmpAnalysis.superRows.length; s < tmpCountSupers; s++) {
+            final int tmpFirst = tmpAnalysis.superFirst[s];
+            final int tmpWidth = tmpAnalysis.superFirst[s + 1] - tmpFirst;
+            final int[] tmpRows = tmpAnalysis.superRows[s];
+            final int tmpSize = tmpRows.length;
+            final int tmpBase = tmpAnalysis.superStart[s];
+            for (int j = 0; j < tmpWidth; j++) {
+                for (int r = j; r < tmpSize; r++) {
+                    final double tmpValue = myFactor[tmpBase + r + (j * tmpSize)];
+                    if (tmpValue != ZERO) {
+                        retVal.add(tmpAnalysis.order[tmpRows[r]], tmpFirst + j, tmpValue);
+                    }
+                }
+            }
+        }
+
+        return retVal.build();
+    }
+
+    public int getRank() {
+
+        final double tmpTolerance = SQRT.invoke(this.getAlgorithmEpsilon());
+
+        int retVal = 0;
+        for (int ij = 0; ij < myDiagonal.length; ij++) {
+            if (myDiagonal[ij] > tmpTolerance) {
+                retVal++;
+            }
+        }
+        return retVal;
+    }
+
+    @Override
+    public boolean isAnalysed() {
+        return myAnalysis != null;
+    }
+
+    public boolean isFullRank() {
+        return this.isSolvable();
+    }
+
+    public boolean isSPD() {
+        return mySPD;
+    }
+
+    /**
+     * Not supported
+     *
+     * @return false
+     */
+    public boolean update(final Access1D<?> vector) {
+        return false;
+    }
+
+    @Override
+    protected boolean checkSolvability() {
+        return mySPD && (myMinDiag > this.getAlgorithmEpsilon());
+    }
+
+    @Override
+    protected void doAnalyse() {
+        if (this.getRowDim() == this.getColDim()) {
+            myAnalysis = new Analysis(this.getRowDim(), this.getPointers(), this.getIndices());
+            this.prepare();
+        } else {
+            myAnalysis = null;
+        }
+    }
+
+    @Override
+    protected boolean doDecompose() {
+
+        final Analysis tmpAnalysis = myAnalysis;
+
+        if (tmpAnalysis == null) {
+            mySPD = false;
+            myDiagonal = new double[0];
+            return this.computed(false);
+        }
+
+        final int tmpDim = this.getRowDim();
+        final double[] tmpFactor = myFactor;
+        Arrays.fill(tmpFactor, ZERO);
+        Arrays.fill(myDiagonal, ZERO);
+
+        final double[] tmpValues = this.getValues();
+        for (int q = 0; q < tmpValues.length; q++) {
+            if (tmpAnalysis.assembly[q] >= 0) {
+                tmpFactor[tmpAnalysis.assembly[q]] += tmpValues[q];
+            }
+        }
+
+        final int tmpCountSupers = tmpAnalysis.superRows.length;
+
+        // For each supernode a list of the (descendant) supernodes that will update it next
+        final int[] tmpHead = myHead;
+        final int[] tmpNext = myNext;
+        final int[] tmpNextRow = myNextRow;
+        Arrays.fill(tmpHead, -1);
+
+        final int[] tmpPosition = myPosition;
+
+        mySPD = true;
+        myMaxDiag = ZERO;
+        myMinDiag = POSITIVE_INFINITY;
+
+        for (int s = 0; mySPD && (s < tmpCountSupers); s++) {
+
+            final int tmpFirst = tmpAnalysis.superFirst[s];
+            final int tmpLimit = tmpAnalysis.superFirst[s + 1];
+            final int tmpWidth = tmpLimit - tmpFirst;
+            final int[] tmpRows = tmpAnalysis.superRows[s];
+            final int tmpSize = tmpRows.length;
+            final int tmpBase = tmpAnalysis.superStart[s];
+
+            for (int r = 0; r < tmpSize; r++) {
+                tmpPosition[tmpRows[r]] = r;
+            }
+
+            // Updates from the descendants
+
+            int d = tmpHead[s];
+            tmpHead[s] = -1;
+            while (d != -1) {
+
+                final int tmpNextDescendant = tmpNext[d];
+
+                final int[] tmpDescendantRows = tmpAnalysis.superRows[d];
+                final int tmpDescendantSize = tmpDescendantRows.length;
+                final int tmpDescendantWidth = tmpAnalysis.superFirst[d + 1] - tmpAnalysis.superFirst[d];
+                final int tmpDescendantBase = tmpAnalysis.superStart[d];
+                final int tmpStart = tmpNextRow[d];
+
+                int tmpColumns = 0;
+                while (((tmpStart + tmpColumns) < tmpDescendantSize) && (tmpDescendantRows[tmpStart + tmpColumns] < tmpLimit)) {
+                    tmpColumns++;
+                }
+                final int tmpUpdateRows = tmpDescendantSize - tmpStart;
+
+                final double[] tmpUpdate = this.getWork(tmpUpdateRows * tmpColumns);
+                Arrays.fill(tmpUpdate, 0, tmpUpdateRows * tmpColumns, ZERO);
+
+                for (int c = 0; c < tmpColumns; c++) {
+                    final int tmpOffsetC = c * tmpUpdateRows;
+                    for (int p = 0; p < tmpDescendantWidth; p++) {
+                        final int tmpOffsetP = tmpDescendantBase + tmpStart + (p * tmpDescendantSize);
+                        final double tmpScale = tmpFactor[tmpOffsetP + c];
+                        if (tmpScale != ZERO) {
+                            for (int i = c; i < tmpUpdateRows; i++) {
+                                tmpUpdate[tmpOffsetC + i] += tmpFactor[tmpOffsetP + i] * tmpScale;
+                            }
+                        }
+                    }
+                }
+
+                for (int c = 0; c < tmpColumns; c++) {
+                    final int tmpOffsetC = c * tmpUpdateRows;
+                    final int tmpTarget = tmpBase + ((tmpDescendantRows[tmpStart + c] - tmpFirst) * tmpSize);
+                    for (int i = c; i < tmpUpdateRows; i++) {
+                        tmpFactor[tmpTarget + tmpPosition[tmpDescendantRows[tmpStart + i]]] -= tmpUpdate[tmpOffsetC + i];
+                    }
+                }
+
+                tmpNextRow[d] = tmpStart + tmpColumns;
+                if (tmpNextRow[d] < tmpDescendantSize) {
+                    final int tmpAncestor = tmpAnalysis.columnSuper[tmpDescendantRows[tmpNextRow[d]]];
+                    tmpNext[d] = tmpHead[tmpAncestor];
+                    tmpHead[tmpAncestor] = d;
+                }
+
+                d = tmpNextDescendant;
+            }
+
+            // Dense factorisation of the supernode itself
+
+            for (int j = 0; mySPD && (j < tmpWidth); j++) {
+
+                final int tmpOffsetJ = tmpBase + (j * tmpSize);
+
+                double tmpVal = tmpFactor[tmpOffsetJ + j];
+                myMaxDiag = MAX.invoke(myMaxDiag, tmpVal);
+                myMinDiag = MIN.invoke(myMinDiag, tmpVal);
+
+                if (tmpVal > ZERO) {
+
+                    tmpVal = tmpFactor[tmpOffsetJ + j] = SQRT.invoke(tmpVal);
+                    myDiagonal[tmpFirst + j] = tmpVal;
+
+                    for (int i = j + 1; i < tmpSize; i++) {
+                        tmpFactor[tmpOffsetJ + i] /= tmpVal;
+                    }
+
+                    for (int c = j + 1; c < tmpWidth; c++) {
+                        final int tmpOffsetC = tmpBase + (c * tmpSize);
+                        final double tmpScale = tmpFactor[tmpOffsetJ + c];
+                        if (tmpScale != ZERO) {
+                            for (int i = c; i < tmpSize; i++) {
+                                tmpFactor[tmpOffsetC + i] -= tmpFactor[tmpOffsetJ + i] * tmpScale;
+                            }
+                        }
+                    }
+
+                } else {
+
+                    mySPD = false;
+                }
+            }
+
+            if (tmpWidth < tmpSize) {
+                tmpNextRow[s] = tmpWidth;
+                final int tmpAncestor = tmpAnalysis.columnSuper[tmpRows[tmpWidth]];
+                tmpNext[s] = tmpHead[tmpAncestor];
+                tmpHead[tmpAncestor] = s;
+            }
+        }
+
+        return this.computed(true);
+    }
+
+    @Override
+    protected void doReuse(final SparseDecomposition analysed) {
+        myAnalysis = ((SparseCholesky) analysed).myAnalysis;
+        this.prepare();
+    }
+
+    @Override
+    protected void substitute(final double[] vector) {
+
+        final Analysis tmpAnalysis = myAnalysis;
+        final int tmpDim = tmpAnalysis.order.length;
+        final double[] tmpWork = this.getWork(tmpDim);
+
+        for (int k = 0; k < tmpDim; k++) {
+            tmpWork[k] = vector[tmpAnalysis.order[k]];
+        }
+
+        final int tmpCountSupers = tmpAnalysis.superRows.length;
+
+        // [L][y] = [P][b]
+        for (int s = 0; s < tmpCountSupers; s++) {
+            final int tmpFirst = tmpAnalysis.superFirst[s];
+            final int tmpWidth = tmpAnalysis.superFirst[s + 1] - tmpFirst;
+            final int[] tmpRows = tmpAnalysis.superRows[s];
+            final int tmpSize = tmpRows.length;
+            final int tmpBase = tmpAnalysis.superStart[s];
+            for (int j = 0; j < tmpWidth; j++) {
+                final int tmpOffsetJ = tmpBase + (j * tmpSize);
+                final double tmpVal = tmpWork[tmpFirst + j] /= myFactor[tmpOffsetJ + j];
+                for (int i = j + 1; i < tmpSize; i++) {
+                    tmpWork[tmpRows[i]] -= myFactor[tmpOffsetJ + i] * tmpVal;
+                }
+            }
+        }
+
+        // [L]T[z] = [y]
+        for (int s = tmpCountSupers - 1; s >= 0; s--) {
+            final int tmpFirst = tmpAnalysis.superFirst[s];
+            final int tmpWidth = tmpAnalysis.superFirst[s + 1] - tmpFirst;
+            final int[] tmpRows = tmpAnalysis.superRows[s];
+            final int tmpSize = tmpRows.length;
+            final int tmpBase = tmpAnalysis.superStart[s];
+            for (int j = tmpWidth - 1; j >= 0; j--) {
+                final int tmpOffsetJ = tmpBase + (j * tmpSize);
+                double tmpVal = tmpWork[tmpFirst + j];
+                for (int i = j + 1; i < tmpSize; i++) {
+                    tmpVal -= myFactor[tmpOffsetJ + i] * tmpWork[tmpRows[i]];
+                }
+                tmpWork[tmpFirst + j] = tmpVal / myFactor[tmpOffsetJ + j];
+            }
+        }
+
+        for (int k = 0; k < tmpDim; k++) {
+            vector[tmpAnalysis.order[k]] = tmpWork[k];
+        }
+    }
+
+    double getAlgorithmEpsilon() {
+        return myMaxDiag * TEN * this.getDimensionalEpsilon();
+    }
+
+    private void prepare() {
+
+        final int tmpDim = this.getRowDim();
+        final int tmpCountSupers = myAnalysis.superRows.length;
+
+        myFactor = new double[myAnalysis.superStart[tmpCountSupers]];
+        myDiagonal = new double[tmpDim];
+        myHead = new int[tmpCountSupers];
+        myNext = new int[tmpCountSupers];
+        myNextRow = new int[tmpCountSupers];
+        myPosition = new int[tmpDim];
+    }
+
+    private double[] getWork(final int size) {
+        if ((myWork == null) || (myWork.length < size)) {
+            myWork = new double[size];
+        }
+        return myWork;
+    }
+
+}
@@ -0,0 +1,450 @@
+/*
+ * Copyright 1997-2018 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.matrix.decomposition;
+
+import static org.ojalgo.constant.PrimitiveMath.*;
+
+import java.util.Arrays;
+
+import org.ojalgo.RecoverableCondition;
+import org.ojalgo.matrix.store.CompressedColumnStore;
+import org.ojalgo.matrix.store.CompressedRowStore;
+import org.ojalgo.matrix.store.ElementsSupplier;
+import org.ojalgo.matrix.store.MatrixStore;
+import org.ojalgo.matrix.store.PhysicalStore;
+import org.ojalgo.matrix.store.PrimitiveDenseStore;
+import org.ojalgo.matrix.store.SparseStore;
+import org.ojalgo.structure.Access2D;
+import org.ojalgo.structure.Access2D.Collectable;
+import org.ojalgo.structure.ElementView2D;
+import org.ojalgo.structure.Structure2D;
+
+/**
+ * Common base for the sparse direct solvers. The matrix to decompose is extracted to a compressed sparse
+ * column (CSC) representation, and the factorisations work on that and on their own sparse (supernodal)
+ * factor storage. The analysis (fill-reducing ordering, elimination tree, nonzero structure of the factors and
+ * allocation of storage/workspace) only depends on the nonzero pattern. It is reused as long as the pattern
+ * doesn't change between calls to decompose/refactor, and can be shared between instances (threads).
+ *
+ * @author apete
+ */
+abstract class SparseDecomposition extends AbstractDecomposition<Double> {
+
+    /**
+     * The sparse solvers are only used for matrices larger than this, smaller sparse matrices are handled by
+     * the dense implementations.
+     */
+    static final long THRESHOLD = 32L;
+
+    static boolean isSparse(final Structure2D typical) {
+        return ((typical instanceof SparseStore<?>) || (typical instanceof CompressedColumnStore) || (typical instanceof CompressedRowStore))
+                && (THRESHOLD < typical.countColumns());
+    }
+
+    private int myColDim;
+    private int[] myIndices = new int[0];
+    private int[] myPointers = new int[1];
+    private int myRowDim;
+    private double[] myValues = new double[0];
+
+    SparseDecomposition() {
+        super();
+    }
+
+    public boolean analyse(final Access2D<?> matrix) {
+
+        this.reset();
+
+        this.extract(matrix);
+
+        this.doAnalyse();
+
+        return this.isAnalysed();
+    }
+
+    public Double calculateDeterminant(final Access2D<?> matrix) {
+
+        this.load(matrix);
+
+        this.doDecompose();
+
+        return this.getDeterminant();
+    }
+
+    public boolean decompose(final Access2D.Collectable<Double, ? super PhysicalStore<Double>> matrix) {
+        return this.refactor(matrix);
+    }
+
+    public abstract Double getDeterminant();
+
+    public MatrixStore<Double> getInverse() {
+        return this.getInverse(this.allocate(myRowDim, myRowDim));
+    }
+
+    public MatrixStore<Double> getInverse(final PhysicalStore<Double> preallocated) {
+
+        preallocated.fillAll(ZERO);
+        for (int ij = 0; ij < myRowDim; ij++) {
+            preallocated.set(ij, ij, ONE);
+        }
+
+        return this.doSolve(preallocated);
+    }
+
+    public MatrixStore<Double> getSolution(final Collectable<Double, ? super PhysicalStore<Double>> rhs) {
+        return this.getSolution(rhs, this.allocate(rhs.countRows(), rhs.countColumns()));
+    }
+
+    public MatrixStore<Double> getSolution(final Collectable<Double, ? super PhysicalStore<Double>> rhs, final PhysicalStore<Double> preallocated) {
+
+        rhs.supplyTo(preallocated);
+
+        return this.doSolve(preallocated);
+    }
+
+    public MatrixStore<Double> invert(final Access2D<?> original, final PhysicalStore<Double> preallocated) throws RecoverableCondition {
+
+        this.load(original);
+
+        this.doDecompose();
+
+        if (this.isSolvable()) {
+            return this.getInverse(preallocated);
+        } else {
+            throw RecoverableCondition.newMatrixNotInvertible();
+        }
+    }
+
+    public abstract boolean isAnalysed();
+
+    public PhysicalStore<Double> preallocate(final Structure2D template) {
+        return this.allocate(template.countRows(), template.countRows());
+    }
+
+    public PhysicalStore<Double> preallocate(final Structure2D templateBody, final Structure2D templateRHS) {
+        return this.allocate(templateBody.countRows(), templateRHS.countColumns());
+    }
+
+    public boolean refactor(final Access2D.Collectable<Double, ? super PhysicalStore<Double>> matrix) {
+
+        this.collect(matrix);
+
+        return this.doDecompose();
+    }
+
+    public boolean reuse(final Analysable<Double> analysed) {
+
+        if ((analysed != null) && (analysed.getClass() == this.getClass()) && analysed.isAnalysed()) {
+
+            final SparseDecomposition tmpAnalysed = (SparseDecomposition) analysed;
+
+            this.reset();
+
+            // The pattern arrays are never modified, only replaced
+            myRowDim = tmpAnalysed.myRowDim;
+            myColDim = tmpAnalysed.myColDim;
+            myPointers = tmpAnalysed.myPointers;
+            myIndices = tmpAnalysed.myIndices;
+            myValues = new double[myIndices.length];
+
+            this.doReuse(tmpAnalysed);
+
+            return true;
+
+        } else {
+
+            return false;
+        }
+    }
+
+    public MatrixStore<Double> solve(final Access2D<?> body, final Access2D<?> rhs, final PhysicalStore<Double> preallocated) throws RecoverableCondition {
+
+        this.load(body);
+
+        this.doDecompose();
+
+        if (this.isSolvable()) {
+
+            preallocated.fillMatching(rhs);
+
+            return this.doSolve(preallocated);
+
+        } else {
+            throw RecoverableCondition.newEquationSystemNotSolvable();
+        }
+    }
+
+    @Override
+    protected PrimitiveDenseStore allocate(final long numberOfRows, final long numberOfColumns) {
+        return PrimitiveDenseStore.FACTORY.makeZero(numberOfRows, numberOfColumns);
+    }
+
+    /**
+     * Analyse the pattern of the matrix most recently extracted, and allocate storage/workspace accordingly.
+     */
+    protected abstract void doAnalyse();
+
+    /**
+     * Numerical factorisation of the matrix most recently extracted/loaded, using the current analysis.
+     */
+    protected abstract boolean doDecompose();
+
+    /**
+     * Take over the analysis of another instance, and allocate this instance's own storage/workspace.
+     */
+    protected abstract void doReuse(SparseDecomposition analysed);
+
+    @Override
+    protected double getDimensionalEpsilon() {
+        return Math.max(myRowDim, myColDim) * MACHINE_EPSILON;
+    }
+
+    /**
+     * Solve (in place) for one right hand side vector.
+     */
+    protected abstract void substitute(double[] vector);
+
+    @SuppressWarnings("unchecked")
+    final void collect(final Access2D.Collectable<Double, ? super PhysicalStore<Double>> matrix) {
+        if (matrix instanceof Access2D) {
+            this.load((Access2D<?>) matrix);
+        } else {
+            final PrimitiveDenseStore tmpDense = this.allocate(matrix.countRows(), matrix.countColumns());
+            matrix.supplyTo(tmpDense);
+            this.load(tmpDense);
+        }
+    }
+
+    final MatrixStore<Double> doSolve(final PhysicalStore<Double> preallocated) {
+
+        final int tmpRowDim = (int) preallocated.countRows();
+        final double[] tmpVector = new double[tmpRowDim];
+
+        for (int j = 0, limit = (int) preallocated.countColumns(); j < limit; j++) {
+            for (int i = 0; i < tmpRowDim; i++) {
+                tmpVector[i] = preallocated.doubleValue(i, j);
+            }
+            this.substitute(tmpVector);
+            for (int i = 0; i < tmpRowDim; i++) {
+                preallocated.set(i, j, tmpVector[i]);
+            }
+        }
+
+        return preallocated;
+    }
+
+    @SuppressWarnings("unchecked")
+    final void extract(final Access2D<?> matrix) {
+
+        if (matrix instanceof SparseStore<?>) {
+
+            this.extractSparse((SparseStore<?>) matrix);
+
+        } else if ((matrix instanceof CompressedColumnStore) || (matrix instanceof CompressedRowStore)) {
+
+            final SparseStore<Double> tmpSparse = SparseStore.PRIMITIVE.make(matrix.countRows(), matrix.countColumns());
+            ((ElementsSupplier<Double>) matrix).supplyTo(tmpSparse);
+            this.extractSparse(tmpSparse);
+
+        } else {
+
+            final int tmpRowDim = Math.toIntExact(matrix.countRows());
+            final int tmpColDim = Math.toIntExact(matrix.countColumns());
+
+            final int[] tmpPointers = new int[tmpColDim + 1];
+            int[] tmpIndices = new int[Math.max(tmpRowDim, tmpColDim)];
+            double[] tmpValues = new double[tmpIndices.length];
+
+            int tmpCount = 0;
+            double tmpValue;
+            for (int j = 0; j < tmpColDim; j++) {
+                for (int i = 0; i < tmpRowDim; i++) {
+                    tmpValue = matrix.doubleValue(i, j);
+                    if (tmpValue != ZERO) {
+                        if (tmpCount == tmpIndices.length) {
+                            tmpIndices = Arrays.copyOf(tmpIndices, 2 * tmpCount);
+                            tmpValues = Arrays.copyOf(tmpValues, 2 * tmpCount);
+                        }
+                        tmpIndices[tmpCount] = i;
+                        tmpValues[tmpCount] = tmpValue;
+                        tmpCount++;
+                    }
+                }
+                tmpPointers[j + 1] = tmpCount;
+            }
+
+            this.extracted(tmpRowDim, tmpColDim, tmpPointers, Arrays.copyOf(tmpIndices, tmpCount), Arrays.copyOf(tmpValues, tmpCount));
+        }
+    }
+
+    final int getColDim() {
+        return myColDim;
+    }
+
+    /**
+     * @return The row indices of the extracted nonzeros, column by column.
+     */
+    final int[] getIndices() {
+        return myIndices;
+    }
+
+    /**
+     * @return The column pointers (start and limit indices) of the extracted nonzeros.
+     */
+    final int[] getPointers() {
+        return myPointers;
+    }
+
+    final int getRowDim() {
+        return myRowDim;
+    }
+
+    /**
+     * @return The values of the extracted nonzeros, column by column.
+     */
+    final double[] getValues() {
+        return myValues;
+    }
+
+    /**
+     * Copy the values of the matrix to the current pattern if it fits, otherwise extract and analyse the
+     * matrix anew.
+     */
+    final void load(final Access2D<?> matrix) {
+        if (!this.isAnalysed() || !this.refill(matrix)) {
+            this.extract(matrix);
+            this.doAnalyse();
+        }
+    }
+
+    /**
+     * Copy the values of the matrix to the already extracted pattern. Nonzeros missing in the matrix are set
+     * to zero.
+     *
+     * @return true if successful; false if the matrix has nonzeros outside the pattern (or has a different
+     *         size)
+     */
+    @SuppressWarnings("unchecked")
+    final boolean refill(final Access2D<?> matrix) {
+
+        if ((matrix.countRows() != myRowDim) || (matrix.countColumns() != myColDim)) {
+            return false;
+        }
+
+        final int[] tmpPointers = myPointers;
+        final int[] tmpIndices = myIndices;
+        final double[] tmpValues = myValues;
+        final int tmpCount = tmpIndices.length;
+
+        if (matrix instanceof SparseStore<?>) {
+
+            int k = 0;
+            int tmpColumn = 0; // of the k:th pattern element
+
+            for (final ElementView2D<?, ?> tmpNonzero : ((SparseStore<?>) matrix).nonzeros()) {
+
+                final int tmpRow = (int) tmpNonzero.row();
+                final int tmpCol = (int) tmpNonzero.column();
+
+                while (k < tmpCount) {
+                    while (tmpPointers[tmpColumn + 1] <= k) {
+                        tmpColumn++;
+                    }
+                    if ((tmpColumn < tmpCol) || ((tmpColumn == tmpCol) && (tmpIndices[k] < tmpRow))) {
+                        tmpValues[k++] = ZERO;
+                    } else {
+                        break;
+                    }
+                }
+
+                if ((k < tmpCount) && (tmpColumn == tmpCol) && (tmpIndices[k] == tmpRow)) {
+                    tmpValues[k++] = tmpNonzero.doubleValue();
+                } else {
+                    return false;
+                }
+            }
+
+            while (k < tmpCount) {
+                tmpValues[k++] = ZERO;
+            }
+
+        } else if ((matrix instanceof CompressedColumnStore) || (matrix instanceof CompressedRowStore)) {
+
+            final SparseStore<Double> tmpSparse = SparseStore.PRIMITIVE.make(myRowDim, myColDim);
+            ((ElementsSupplier<Double>) matrix).supplyTo(tmpSparse);
+            return this.refill(tmpSparse);
+
+        } else {
+
+            double tmpValue;
+            for (int j = 0, k = 0; j < myColDim; j++) {
+                for (int i = 0, limit = tmpPointers[j + 1]; i < myRowDim; i++) {
+                    tmpValue = matrix.doubleValue(i, j);
+                    if ((k < limit) && (tmpIndices[k] == i)) {
+                        tmpValues[k++] = tmpValue;
+                    } else if (tmpValue != ZERO) {
+                        return false;
+                    }
+                }
+            }
+        }
+
+        return true;
+    }
+
+    private void extractSparse(final SparseStore<?> matrix) {
+
+        final int tmpRowDim = Math.toIntExact(matrix.countRows());
+        final int tmpColDim = Math.toIntExact(matrix.countColumns());
+
+        final int[] tmpPointers = new int[tmpColDim + 1];
+        for (final ElementView2D<?, ?> tmpNonzero : matrix.nonzeros()) {
+            tmpPointers[(int) tmpNonzero.column() + 1]++;
+        }
+        for (int j = 0; j < tmpColDim; j++) {
+            tmpPointers[j + 1] += tmpPointers[j];
+        }
+
+        final int tmpCount = tmpPointers[tmpColDim];
+        final int[] tmpIndices = new int[tmpCount];
+        final double[] tmpValues = new double[tmpCount];
+
+        // The nonzeros are iterated in column major order
+        int k = 0;
+        for (final ElementView2D<?, ?> tmpNonzero : matrix.nonzeros()) {
+            tmpIndices[k] = (int) tmpNonzero.row();
+            tmpValues[k] = tmpNonzero.doubleValue();
+            k++;
+        }
+
+        this.extracted(tmpRowDim, tmpColDim, tmpPointers, tmpIndices, tmpValues);
+    }
+
+    private void extracted(final int rowDim, final int colDim, final int[] pointers, final int[] indices, final double[] values) {
+        myRowDim = rowDim;
+        myColDim = colDim;
+        myPointers = pointers;
+        myIndices = indices;
+        myValues = values;
+    }
+
+}
@@ -0,0 +1,453 @@
+/*
+ * Copyright 1997-2018 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.matrix.decomposition;
+
+import static org.ojalgo.constant.PrimitiveMath.*;
+import static org.ojalgo.function.PrimitiveFunction.*;
+
+import java.util.Arrays;
+
+import org.ojalgo.matrix.store.CompressedColumnStore;
+import org.ojalgo.matrix.store.ElementsSupplier;
+import org.ojalgo.matrix.store.MatrixStore;
+import org.ojalgo.scalar.PrimitiveScalar;
+import org.ojalgo.structure.Access2D;
+
+/**
+ * Sparse, left-looking, LU decomposition (Gilbert-Peierls). Each column is computed with a sparse triangular
+ * solve, where the nonzero pattern is first determined by a depth first search through the already computed
+ * columns of [L]. The columns are reordered using {@link MinimumDegree} (on the pattern of
+ * [A]+[A]<sup>T</sup>) to reduce fill-in, and rows are selected using threshold partial pivoting -
+ * preferring the diagonal element, of the reordered matrix, as long as it is not too small compared to the
+ * largest candidate. Only square matrices are supported.
+ * <p>
+ * With [P] the row pivoting and [Q] the column reordering, [P][A][Q] = [L][U]. What {@link #getU()}
+ * returns is [U][Q]<sup>T</sup> - a column permutation of an upper triangular matrix - so that
+ * [P][A] = [L][U] still holds.
+ * </p>
+ *
+ * @author apete
+ */
+final class SparseLU extends SparseDecomposition implements LU<Double> {
+
+    /**
+     * A candidate pivot is accepted if its magnitude is at least this fraction of the largest candidate in
+     * the column.
+     */
+    static final double PIVOT_THRESHOLD = TENTH;
+
+    private static int signum(final int[] permutation) {
+
+        final boolean[] tmpVisited = new boolean[permutation.length];
+
+        int retVal = 1;
+        for (int i = 0; i < permutation.length; i++) {
+            if (!tmpVisited[i]) {
+                int tmpLength = 0;
+                for (int j = i; !tmpVisited[j]; j = permutation[j]) {
+                    tmpVisited[j] = true;
+                    tmpLength++;
+                }
+                if ((tmpLength % 2) == 0) {
+                    retVal = -retVal;
+                }
+            }
+        }
+        return retVal;
+    }
+
+    /**
+     * The analysis - the fill-reducing column ordering. Never modified once created.
+     */
+    private int[] myColumnOrder = null;
+    private double[] myDiagonal = new double[0];
+    private int[] myLIndices;
+    private int[] myLPointers;
+    private double[] myLValues;
+    private int[] myMark;
+    private int[] myPivotRows;
+    private int[] myReach;
+    private int[] myRowStep;
+    private int[] myStack;
+    private int[] myStackPosition;
+    private int[] myUIndices;
+    private int[] myUPointers;
+    private double[] myUValues;
+    private double[] myWork;
+
+    /**
+     * Not recommended to use this constructor directly. Consider using the static factory method
+     * {@linkplain org.ojalgo.matrix.decomposition.LU#make(Access2D)} instead.
+     */
+    SparseLU() {
+        super();
+    }
+
+    public boolean computeWithoutPivoting(final ElementsSupplier<Double> matrix) {
+        return this.decompose(matrix);
+    }
+
+    @Override
+    public Double getDeterminant() {
+
+        double retVal = SparseLU.signum(myPivotRows) * SparseLU.signum(myColumnOrder);
+
+        for (int ij = 0; ij < myDiagonal.length; ij++) {
+            retVal *= myDiagonal[ij];
+        }
+
+        return retVal;
+    }
+
+    public MatrixStore<Double> getL() {
+
+        final int tmpDim = myDiagonal.length;
+        final CompressedColumnStore.Builder retVal = CompressedColumnStore.builder(tmpDim, tmpDim, tmpDim + myLPointers[tmpDim]);
+
+        for (int j = 0; j < tmpDim; j++) {
+            retVal.add(j, j, ONE);
+            for (int p = myLPointers[j], limit = myLPointers[j + 1]; p < limit; p++) {
+                retVal.add(myLIndices[p], j, myLValues[p]);
+            }
+        }
+
+        return retVal.build();
+    }
+
+    public int[] getPivotOrder() {
+        return myPivotRows;
+    }
+
+    public int getRank() {
+
+        double tmpLargest = ZERO;
+        for (int ij = 0; ij < myDiagonal.length; ij++) {
+            tmpLargest = MAX.invoke(tmpLargest, ABS.invoke(myDiagonal[ij]));
+        }
+
+        int retVal = 0;
+        for (int ij = 0; ij < myDiagonal.length; ij++) {
+            if (!PrimitiveScalar.isSmall(tmpLargest, myDiagonal[ij])) {
+                retVal++;
+            }
+        }
+        return retVal;
+    }
+
+    public MatrixStore<Double> getU() {
+
+        final int tmpDim = myDiagonal.length;
+        final CompressedColumnStore.Builder retVal = CompressedColumnStore.builder(tmpDim, tmpDim, tmpDim + myUPointers[tmpDim]);
+
+        for (int j = 0; j < tmpDim; j++) {
+            final int tmpColumn = myColumnOrder[j];
+            for (int p = myUPointers[j], limit = myUPointers[j + 1]; p < limit; p++) {
+                retVal.add(myUIndices[p], tmpColumn, myUValues[p]);
+            }
+            retVal.add(j, tmpColumn, myDiagonal[j]);
+        }
+
+        return retVal.build();
+    }
+
+    @Override
+    public boolean isAnalysed() {
+        return myColumnOrder != null;
+    }
+
+    public boolean isFullRank() {
+        return this.getRank() == myDiagonal.length;
+    }
+
+    @Override
+    protected boolean checkSolvability() {
+        return this.isFullRank();
+    }
+
+    @Override
+    protected void doAnalyse() {
+
+        final int tmpDim = this.getRowDim();
+
+        if (tmpDim != this.getColDim()) {
+            throw new IllegalArgumentException("The sparse LU decomposition requires a square matrix!");
+        }
+
+        myColumnOrder = MinimumDegree.order(tmpDim, this.getPointers(), this.getIndices());
+
+        this.prepare();
+    }
+
+    @Override
+    protected boolean doDecompose() {
+
+        final int tmpDim = this.getRowDim();
+
+        final int[] tmpPointers = this.getPointers();
+        final int[] tmpIndices = this.getIndices();
+        final double[] tmpValues = this.getValues();
+
+        int tmpCapacity;
+
+        final int[] tmpRowStep = myRowStep;
+        Arrays.fill(tmpRowStep, -1);
+
+        final double[] tmpX = this.getWork(tmpDim);
+        Arrays.fill(tmpX, 0, tmpDim, ZERO);
+
+        final int[] tmpReach = myReach;
+        final int[] tmpStack = myStack;
+        final int[] tmpStackPosition = myStackPosition;
+        final int[] tmpMark = myMark;
+        Arrays.fill(tmpMark, -1);
+
+        int tmpCountL = 0;
+        int tmpCountU = 0;
+        int tmpFree = 0;
+
+        for (int k = 0; k < tmpDim; k++) {
+
+            final int tmpColumn = myColumnOrder[k];
+
+            // Nonzero pattern of the solution to the triangular system, in topological order
+
+            int tmpTop = tmpDim;
+            for (int q = tmpPointers[tmpColumn], limit = tmpPointers[tmpColumn + 1]; q < limit; q++) {
+                if (tmpMark[tmpIndices[q]] != k) {
+                    tmpTop = this.reach(tmpIndices[q], k, tmpTop, tmpReach, tmpStack, tmpStackPosition, tmpMark, tmpRowStep);
+                }
+            }
+
+            for (int q = tmpPointers[tmpColumn], limit = tmpPointers[tmpColumn + 1]; q < limit; q++) {
+                tmpX[tmpIndices[q]] += tmpValues[q];
+            }
+
+            // Sparse triangular solve
+
+            for (int r = tmpTop; r < tmpDim; r++) {
+                final int tmpRow = tmpReach[r];
+                final int tmpStep = tmpRowStep[tmpRow];
+                if (tmpStep >= 0) {
+                    final double tmpVal = tmpX[tmpRow];
+                    if (tmpVal != ZERO) {
+                        for (int p = myLPointers[tmpStep], limit = myLPointers[tmpStep + 1]; p < limit; p++) {
+                            tmpX[myLIndices[p]] -= myLValues[p] * tmpVal;
+                        }
+                    }
+                }
+            }
+
+            // Column of [U], and pivot selection
+
+            if ((tmpCountU + (tmpDim - tmpTop)) > myUIndices.length) {
+                tmpCapacity = Math.max(2 * myUIndices.length, tmpCountU + (tmpDim - tmpTop));
+                myUIndices = Arrays.copyOf(myUIndices, tmpCapacity);
+                myUValues = Arrays.copyOf(myUValues, tmpCapacity);
+            }
+
+            int tmpPivot = -1;
+            double tmpLargest = ZERO;
+            for (int r = tmpTop; r < tmpDim; r++) {
+                final int tmpRow = tmpReach[r];
+                final int tmpStep = tmpRowStep[tmpRow];
+                final double tmpVal = tmpX[tmpRow];
+                if (tmpStep >= 0) {
+                    if (tmpVal != ZERO) {
+                        myUIndices[tmpCountU] = tmpStep;
+                        myUValues[tmpCountU] = tmpVal;
+                        tmpCountU++;
+                    }
+                } else if (ABS.invoke(tmpVal) > tmpLargest) {
+                    tmpLargest = ABS.invoke(tmpVal);
+                    tmpPivot = tmpRow;
+                }
+            }
+            myUPointers[k + 1] = tmpCountU;
+
+            if ((tmpRowStep[tmpColumn] < 0) && (tmpMark[tmpColumn] == k) && (ABS.invoke(tmpX[tmpColumn]) >= (PIVOT_THRESHOLD * tmpLargest))) {
+                tmpPivot = tmpColumn;
+            }
+            if (tmpPivot < 0) {
+                // Structurally or numerically singular column
+                if (tmpRowStep[tmpColumn] < 0) {
+                    tmpPivot = tmpColumn;
+                } else {
+                    while (tmpRowStep[tmpFree] >= 0) {
+                        tmpFree++;
+                    }
+                    tmpPivot = tmpFree;
+                }
+            }
+
+            final double tmpPivotValue = tmpX[tmpPivot];
+            myDiagonal[k] = tmpPivotValue;
+            myPivotRows[k] = tmpPivot;
+            tmpRowStep[tmpPivot] = k;
+
+            // Column of [L]
+
+            if ((tmpCountL + (tmpDim - tmpTop)) > myLIndices.length) {
+                tmpCapacity = Math.max(2 * myLIndices.length, tmpCountL + (tmpDim - tmpTop));
+                myLIndices = Arrays.copyOf(myLIndices, tmpCapacity);
+                myLValues = Arrays.copyOf(myLValues, tmpCapacity);
+            }
+
+            if (tmpPivotValue != ZERO) {
+                for (int r = tmpTop; r < tmpDim; r++) {
+                    final int tmpRow = tmpReach[r];
+                    if ((tmpRowStep[tmpRow] < 0) && (tmpX[tmpRow] != ZERO)) {
+                        myLIndices[tmpCountL] = tmpRow;
+                        myLValues[tmpCountL] = tmpX[tmpRow] / tmpPivotValue;
+                        tmpCountL++;
+                    }
+                }
+            }
+            myLPointers[k + 1] = tmpCountL;
+
+            for (int r = tmpTop; r < tmpDim; r++) {
+                tmpX[tmpReach[r]] = ZERO;
+            }
+        }
+
+        // Row indices of [L] from the original to the pivoted order
+
+        for (int p = 0; p < tmpCountL; p++) {
+            myLIndices[p] = tmpRowStep[myLIndices[p]];
+        }
+
+        return this.computed(true);
+    }
+
+    @Override
+    protected void doReuse(final SparseDecomposition analysed) {
+        myColumnOrder = ((SparseLU) analysed).myColumnOrder;
+        this.prepare();
+    }
+
+    @Override
+    protected void substitute(final double[] vector) {
+
+        final int tmpDim = myDiagonal.length;
+        final double[] tmpWork = this.getWork(tmpDim);
+
+        for (int k = 0; k < tmpDim; k++) {
+            tmpWork[k] = vector[myPivotRows[k]];
+        }
+
+        // [L][y] = [P][b]
+        for (int k = 0; k < tmpDim; k++) {
+            final double tmpVal = tmpWork[k];
+            if (tmpVal != ZERO) {
+                for (int p = myLPointers[k], limit = myLPointers[k + 1]; p < limit; p++) {
+                    tmpWork[myLIndices[p]] -= myLValues[p] * tmpVal;
+                }
+            }
+        }
+
+        // [U][z] = [y]
+        for (int k = tmpDim - 1; k >= 0; k--) {
+            final double tmpVal = tmpWork[k] /= myDiagonal[k];
+            if (tmpVal != ZERO) {
+                for (int p = myUPointers[k], limit = myUPointers[k + 1]; p < limit; p++) {
+                    tmpWork[myUIndices[p]] -= myUValues[p] * tmpVal;
+                }
+            }
+        }
+
+        // [x] = [Q][z]
+        for (int k = 0; k < tmpDim; k++) {
+            vector[myColumnOrder[k]] = tmpWork[k];
+        }
+    }
+
+    private double[] getWork(final int size) {
+        if ((myWork == null) || (myWork.length < size)) {
+            myWork = new double[size];
+        }
+        return myWork;
+    }
+
+    private void prepare() {
+
+        final int tmpDim = this.getRowDim();
+        final int tmpCapacity = Math.max(tmpDim, this.getIndices().length);
+
+        myLPointers = new int[tmpDim + 1];
+        myLIndices = new int[tmpCapacity];
+        myLValues = new double[tmpCapacity];
+        myUPointers = new int[tmpDim + 1];
+        myUIndices = new int[tmpCapacity];
+        myUValues = new double[tmpCapacity];
+        myDiagonal = new double[tmpDim];
+        myPivotRows = new int[tmpDim];
+
+        myRowStep = new int[tmpDim];
+        myReach = new int[tmpDim];
+        myStack = new int[tmpDim];
+        myStackPosition = new int[tmpDim];
+        myMark = new int[tmpDim];
+    }
+
+    /**
+     * Depth first search from row, through the columns of [L], for the nonzero pattern of the next column.
+     * Rows are pushed on to reach (from the end) in reverse topological order.
+     *
+     * @return The new top of reach
+     */
+    private int reach(final int row, final int step, final int top, final int[] reach, final int[] stack, final int[] stackPosition, final int[] mark,
+            final int[] rowStep) {
+
+        int retVal = top;
+        int tmpHead = 0;
+        stack[0] = row;
+
+        while (tmpHead >= 0) {
+
+            final int tmpRow = stack[tmpHead];
+            final int tmpStep = rowStep[tmpRow];
+
+            if (mark[tmpRow] != step) {
+                mark[tmpRow] = step;
+                stackPosition[tmpHead] = tmpStep < 0 ? 0 : myLPointers[tmpStep];
+            }
+
+            boolean tmpDone = true;
+            for (int p = stackPosition[tmpHead], limit = tmpStep < 0 ? 0 : myLPointers[tmpStep + 1]; p < limit; p++) {
+                final int tmpNext = myLIndices[p];
+                if (mark[tmpNext] != step) {
+                    stackPosition[tmpHead] = p + 1;
+                    stack[++tmpHead] = tmpNext;
+                    tmpDone = false;
+                    break;
+                }
+            }
+
+            if (tmpDone) {
+                tmpHead--;
+                reach[--retVal] = tmpRow;
+            }
+        }
+
+        return retVal;
+    }
+
+}
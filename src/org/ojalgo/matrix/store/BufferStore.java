@@ -0,0 +1,759 @@
+/*
+ * Copyright 1997-2018 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.matrix.store;
+
+import static org.ojalgo.constant.PrimitiveMath.*;
+import static org.ojalgo.function.PrimitiveFunction.*;
+
+import java.io.File;
+import java.util.AbstractList;
+import java.util.List;
+
+import org.ojalgo.array.Array2D;
+import org.ojalgo.array.BufferArray;
+import org.ojalgo.array.DenseArray;
+import org.ojalgo.concurrent.DivideAndConquer;
+import org.ojalgo.function.BinaryFunction;
+import org.ojalgo.function.FunctionSet;
+import org.ojalgo.function.NullaryFunction;
+import org.ojalgo.function.PrimitiveFunction;
+import org.ojalgo.function.UnaryFunction;
+import org.ojalgo.function.VoidFunction;
+import org.ojalgo.function.aggregator.Aggregator;
+import org.ojalgo.function.aggregator.AggregatorFunction;
+import org.ojalgo.function.aggregator.AggregatorSet;
+import org.ojalgo.function.aggregator.PrimitiveAggregator;
+import org.ojalgo.matrix.store.operation.MultiplyBoth;
+import org.ojalgo.matrix.transformation.Householder;
+import org.ojalgo.matrix.transformation.Rotation;
+import org.ojalgo.scalar.PrimitiveScalar;
+import org.ojalgo.scalar.Scalar;
+import org.ojalgo.structure.Access1D;
+import org.ojalgo.structure.Access2D;
+
+/**
+ * A primitive double {@linkplain PhysicalStore} that keeps its elements off-heap, in direct buffers or in
+ * memory mapped files (see {@linkplain BufferArray}). The elements are stored column-major, and large
+ * matrices are split into multiple buffers/segments - the total size is not limited to 2GB.
+ * <p>
+ * Instances created by {@link #FACTORY} use direct buffers. Use {@link #make(File, long, long)} to create a
+ * matrix backed by a file, and {@link #makeReadOnly(File, long, long)} to map an existing file read-only
+ * (possibly shared by several processes).
+ * </p>
+ * <p>
+ * Can be used as input to all decompositions (they copy to their own internal storage) and as either side of
+ * a multiplication. Products and other stores created from a BufferStore are also BufferStore instances.
+ * </p>
+ *
+ * @author apete
+ */
+public final class BufferStore extends AbstractStore<Double> implements PhysicalStore<Double> {
+
+    public static final PhysicalStore.Factory<Double, BufferStore> FACTORY = new PhysicalStore.Factory<Double, BufferStore>() {
+
+        public AggregatorSet<Double> aggregator() {
+            return PrimitiveAggregator.getSet();
+        }
+
+        public DenseArray.Factory<Double> array() {
+            return BufferArray.DIRECT64;
+        }
+
+        public MatrixStore.Factory<Double> builder() {
+            return MatrixStore.PRIMITIVE;
+        }
+
+        public BufferStore columns(final Access1D<?>... source) {
+            return new BufferStore(Array2D.DIRECT64.columns(source));
+        }
+
+        public BufferStore columns(final double[]... source) {
+            return new BufferStore(Array2D.DIRECT64.columns(source));
+        }
+
+        public BufferStore columns(final List<? extends Number>... source) {
+            return new BufferStore(Array2D.DIRECT64.columns(source));
+        }
+
+        public BufferStore columns(final Number[]... source) {
+            return new BufferStore(Array2D.DIRECT64.columns(source));
+        }
+
+        public BufferStore conjugate(final Access2D<?> source) {
+            return this.transpose(source);
+        }
+
+        public BufferStore copy(final Access2D<?> source) {
+            return new BufferStore(Array2D.DIRECT64.copy(source));
+        }
+
+        public FunctionSet<Double> function() {
+            return PrimitiveFunction.getSet();
+        }
+
+        public BufferStore makeEye(final long rows, final long columns) {
+
+            final BufferStore retVal = this.makeZero(rows, columns);
+
+            retVal.fillDiagonal(0L, 0L, ONE);
+
+            return retVal;
+        }
+
+        public BufferStore makeFilled(final long rows, final long columns, final NullaryFunction<?> supplier) {
+            return new BufferStore(Array2D.DIRECT64.makeFilled(rows, columns, supplier));
+        }
+
+        public Householder<Double> makeHouseholder(final int length) {
+            return new Householder.Primitive(length);
+        }
+
+        public Rotation<Double> makeRotation(final int low, final int high, final double cos, final double sin) {
+            return new Rotation.Primitive(low, high, cos, sin);
+        }
+
+        public Rotation<Double> makeRotation(final int low, final int high, final Double cos, final Double sin) {
+            return new Rotation.Primitive(low, high, cos, sin);
+        }
+
+        public BufferStore makeZero(final long rows, final long columns) {
+            return new BufferStore(Array2D.DIRECT64.makeZero(rows, columns));
+        }
+
+        public BufferStore rows(final Access1D<?>... source) {
+            return new BufferStore(Array2D.DIRECT64.rows(source));
+        }
+
+        public BufferStore rows(final double[]... source) {
+            return new BufferStore(Array2D.DIRECT64.rows(source));
+        }
+
+        public BufferStore rows(final List<? extends Number>... source) {
+            return new BufferStore(Array2D.DIRECT64.rows(source));
+        }
+
+        public BufferStore rows(final Number[]... source) {
+            return new BufferStore(Array2D.DIRECT64.rows(source));
+        }
+
+        public Scalar.Factory<Double> scalar() {
+            return PrimitiveScalar.FACTORY;
+        }
+
+        public BufferStore transpose(final Access2D<?> source) {
+
+            final BufferStore retVal = this.makeZero(source.countColumns(), source.countRows());
+
+            retVal.regionByTransposing().fillMatching(source);
+
+            return retVal;
+        }
+
+    };
+
+    /**
+     * Same as {@linkplain MultiplyBoth} but with long indices - the number of elements may exceed
+     * {@linkplain Integer#MAX_VALUE}. Multi threaded over the product rows.
+     */
+    static final PrimitiveDenseStore.PrimitiveMultiplyBoth MULTIPLIER = (product, left, complexity, right) -> {
+
+        final int rowDim = (int) product.countRows();
+
+        if (rowDim > MultiplyBoth.THRESHOLD) {
+
+            final DivideAndConquer conquerer = new DivideAndConquer() {
+
+                @Override
+                public void conquer(final int first, final int limit) {
+                    BufferStore.multiply(product, first, limit, left, complexity, right);
+                }
+
+            };
+
+            conquerer.invoke(0, rowDim, MultiplyBoth.THRESHOLD);
+
+        } else {
+
+            BufferStore.multiply(product, 0, rowDim, left, complexity, right);
+        }
+    };
+
+    /**
+     * A matrix backed by a memory mapped file. The file is created, or extended, if necessary. Existing
+     * contents (column-major, native byte order) are retained.
+     */
+    public static BufferStore make(final File file, final long rows, final long columns) {
+        return new BufferStore(BufferArray.make(file, rows, columns));
+    }
+
+    /**
+     * A matrix backed by an existing file mapped read-only. Any attempt to modify the elements will throw
+     * {@linkplain java.nio.ReadOnlyBufferException}.
+     */
+    public static BufferStore makeReadOnly(final File file, final long rows, final long columns) {
+        return new BufferStore(BufferArray.makeReadOnly(file, rows, columns));
+    }
+
+    static void multiply(final ElementsConsumer<Double> product, final int firstRow, final int rowLimit, final Access1D<Double> left, final int complexity,
+            final Access1D<Double> right) {
+
+        final long structure = product.countRows();
+        final long colDim = product.countColumns();
+
+        final double[] leftRow = new double[complexity];
+
+        for (int i = firstRow; i < rowLimit; i++) {
+
+            for (int c = 0; c < complexity; c++) {
+                leftRow[c] = left.doubleValue(i + (c * structure));
+            }
+
+            for (long j = 0L; j < colDim; j++) {
+                final long colBase = j * complexity;
+
+                double value = ZERO;
+                for (int c = 0; c < complexity; c++) {
+                    value += leftRow[c] * right.doubleValue(colBase + c);
+                }
+
+                product.set(i, j, value);
+            }
+        }
+    }
+
+    private final Array2D<Double> myElements;
+
+    BufferStore(final Array2D<Double> elements) {
+
+        super((int) elements.countRows(), (int) elements.countColumns());
+
+        myElements = elements;
+    }
+
+    public void accept(final Access2D<?> supplied) {
+        for (long j = 0L; j < supplied.countColumns(); j++) {
+            for (long i = 0L; i < supplied.countRows(); i++) {
+                this.set(i, j, supplied.doubleValue(i, j));
+            }
+        }
+    }
+
+    public void add(final long row, final long col, final double addend) {
+        myElements.add(row, col, addend);
+    }
+
+    public void add(final long row, final long col, final Number addend) {
+        myElements.add(row, col, addend);
+    }
+
+    public Double aggregateAll(final Aggregator aggregator) {
+
+        final AggregatorFunction<Double> visitor = aggregator.getFunction(PrimitiveAggregator.getSet());
+
+        this.visitAll(visitor);
+
+        return visitor.get();
+    }
+
+    public List<Double> asList() {
+        return new AbstractList<Double>() {
+
+            @Override
+            public Double get(final int index) {
+                return myElements.get(index);
+            }
+
+            @Override
+            public Double set(final int index, final Double value) {
+                final Double retVal = myElements.get(index);
+                myElements.set(index, value);
+                return retVal;
+            }
+
+            @Override
+            public int size() {
+                return (int) myElements.count();
+            }
+        };
+    }
+
+    public BufferStore copy() {
+        return FACTORY.copy(this);
+    }
+
+    public long count() {
+        return myElements.count();
+    }
+
+    public double doubleValue(final long index) {
+        return myElements.doubleValue(index);
+    }
+
+    public double doubleValue(final long row, final long col) {
+        return myElements.doubleValue(row, col);
+    }
+
+    public void exchangeColumns(final long colA, final long colB) {
+        myElements.exchangeColumns(colA, colB);
+    }
+
+    public void exchangeRows(final long rowA, final long rowB) {
+        myElements.exchangeRows(rowA, rowB);
+    }
+
+    public void fillAll(final Double value) {
+        myElements.fillAll(value);
+    }
+
+    public void fillAll(final NullaryFunction<Double> supplier) {
+        myElements.fillAll(supplier);
+    }
+
+    public void fillByMultiplying(final Access1D<Double> left, final Access1D<Double> right) {
+
+        final int complexity = Math.toIntExact(left.count() / this.countRows());
+
+        if (complexity != (right.count() / this.countColumns())) {
+            throw new IllegalArgumentException();
+        }
+
+        MULTIPLIER.invoke(this, left, complexity, right);
+    }
+
+    public void fillColumn(final long row, final long col, final Double value) {
+        myElements.fillColumn(row, col, value);
+    }
+
+    public void fillColumn(final long row, final long col, final NullaryFunction<Double> supplier) {
+        myElements.fillColumn(row, col, supplier);
+    }
+
+    public void fillDiagonal(final long row, final long col, final Double value) {
+        myElements.fillDiagonal(row, col, value);
+    }
+
+    public void fillDiagonal(final long row, final long col, final NullaryFunction<Double> supplier) {
+        myElements.fillDiagonal(row, col, supplier);
+    }
+
+    public void fillMatching(final Access1D<?> values) {
+        final long limit = Math.min(this.count(), values.count());
+        for (long i = 0L; i < limit; i++) {
+            myElements.set(i, values.doubleValue(i));
+        }
+    }
+
+    public void fillMatching(final Access1D<Double> left, final BinaryFunction<Double> function, final Access1D<Double> right) {
+        final long limit = Math.min(this.count(), Math.min(left.count(), right.count()));
+        for (long i = 0L; i < limit; i++) {
+            myElements.set(i, function.invoke(left.doubleValue(i), right.doubleValue(i)));
+        }
+    }
+
+    public void fillOne(final long row, final long col, final Access1D<?> values, final long valueIndex) {
+        myElements.set(row, col, values.doubleValue(valueIndex));
+    }
+
+    public void fillOne(final long row, final long col, final Double value) {
+        myElements.set(row, col, value.doubleValue());
+    }
+
+    public void fillOne(final long row, final long col, final NullaryFunction<Double> supplier) {
+        myElements.set(row, col, supplier.doubleValue());
+    }
+
+    public void fillRange(final long first, final long limit, final Double value) {
+        myElements.fillRange(first, limit, value);
+    }
+
+    public void fillRange(final long first, final long limit, final NullaryFunction<Double> supplier) {
+        myElements.fillRange(first, limit, supplier);
+    }
+
+    public void fillRow(final long row, final long col, final Double value) {
+        myElements.fillRow(row, col, value);
+    }
+
+    public void fillRow(final long row, final long col, final NullaryFunction<Double> supplier) {
+        myElements.fillRow(row, col, supplier);
+    }
+
+    public Double get(final long index) {
+        return myElements.get(index);
+    }
+
+    public Double get(final long row, final long col) {
+        return myElements.get(row, col);
+    }
+
+    public long indexOfLargest() {
+        return myElements.indexOfLargest();
+    }
+
+    public long indexOfLargestInColumn(final long row, final long col) {
+        return myElements.indexOfLargestInColumn(row, col);
+    }
+
+    public long indexOfLargestInRange(final long first, final long limit) {
+        return myElements.indexOfLargestInRange(first, limit);
+    }
+
+    public long indexOfLargestInRow(final long row, final long col) {
+        return myElements.indexOfLargestInRow(row, col);
+    }
+
+    public long indexOfLargestOnDiagonal(final long first) {
+        return myElements.indexOfLargestOnDiagonal(first);
+    }
+
+    public boolean isAbsolute(final long index) {
+        return myElements.isAbsolute(index);
+    }
+
+    public boolean isAbsolute(final long row, final long col) {
+        return myElements.isAbsolute(row, col);
+    }
+
+    public boolean isSmall(final long index, final double comparedTo) {
+        return myElements.isSmall(index, comparedTo);
+    }
+
+    public boolean isSmall(final long row, final long col, final double comparedTo) {
+        return myElements.isSmall(row, col, comparedTo);
+    }
+
+    public void modifyAll(final UnaryFunction<Double> modifier) {
+        myElements.modifyAll(modifier);
+    }
+
+    public void modifyColumn(final long row, final long col, final UnaryFunction<Double> modifier) {
+        myElements.modifyColumn(row, col, modifier);
+    }
+
+    public void modifyDiagonal(final long row, final long col, final UnaryFunction<Double> modifier) {
+        myElements.modifyDiagonal(row, col, modifier);
+    }
+
+    public void modifyMatching(final Access1D<Double> left, final BinaryFunction<Double> function) {
+        myElements.modifyMatching(left, function);
+    }
+
+    public void modifyMatching(final BinaryFunction<Double> function, final Access1D<Double> right) {
+        myElements.modifyMatching(function, right);
+    }
+
+    public void modifyOne(final long row, final long col, final UnaryFunction<Double> modifier) {
+        myElements.modifyOne(row, col, modifier);
+    }
+
+    public void modifyRange(final long first, final long limit, final UnaryFunction<Double> modifier) {
+        myElements.modifyRange(first, limit, modifier);
+    }
+
+    public void modifyRow(final long row, final long col, final UnaryFunction<Double> modifier) {
+        myElements.modifyRow(row, col, modifier);
+    }
+
+    public MatrixStore<Double> multiply(final MatrixStore<Double> right) {
+
+        final BufferStore retVal = FACTORY.makeZero(this.countRows(), right.count() / this.countColumns());
+
+        retVal.fillByMultiplying(this, right);
+
+        return retVal;
+    }
+
+    public PhysicalStore.Factory<Double, BufferStore> physical() {
+        return FACTORY;
+    }
+
+    public ElementsConsumer<Double> regionByColumns(final int... columns) {
+        return new ElementsConsumer.ColumnsRegion<>(this, MULTIPLIER, columns);
+    }
+
+    public ElementsConsumer<Double> regionByLimits(final int rowLimit, final int columnLimit) {
+        return new ElementsConsumer.LimitRegion<>(this, MULTIPLIER, rowLimit, columnLimit);
+    }
+
+    public ElementsConsumer<Double> regionByOffsets(final int rowOffset, final int columnOffset) {
+        return new ElementsConsumer.OffsetRegion<>(this, MULTIPLIER, rowOffset, columnOffset);
+    }
+
+    public ElementsConsumer<Double> regionByRows(final int... rows) {
+        return new ElementsConsumer.RowsRegion<>(this, MULTIPLIER, rows);
+    }
+
+    public ElementsConsumer<Double> regionByTransposing() {
+        return new ElementsConsumer.TransposedRegion<>(this, MULTIPLIER);
+    }
+
+    public void set(final long index, final double value) {
+        myElements.set(index, value);
+    }
+
+    public void set(final long row, final long col, final double value) {
+        myElements.set(row, col, value);
+    }
+
+    public void set(final long row, final long col, final Number value) {
+        myElements.set(row, col, value);
+    }
+
+    public void substituteBackwards(final Access2D<Double> body, final boolean unitDiagonal, final boolean conjugated, final boolean hermitian) {
+
+        final int structure = this.getRowDim();
+        final int diagDim = (int) Math.min(body.countRows(), body.countColumns());
+
+        final double[] bodyRow = new double[diagDim];
+        final double[] column = new double[structure];
+
+        for (int s = 0, limit = this.getColDim(); s < limit; s++) {
+
+            this.copyColumn(s, column);
+
+            final int firstRow = hermitian ? s : 0;
+            for (int i = diagDim - 1; i >= firstRow; i--) {
+
+                for (int j = i; j < diagDim; j++) {
+                    bodyRow[j] = conjugated ? body.doubleValue(j, i) : body.doubleValue(i, j);
+                }
+
+                double value = ZERO;
+                for (int j = i + 1; j < diagDim; j++) {
+                    value += bodyRow[j] * column[j];
+                }
+                value = column[i] - value;
+                if (!unitDiagonal) {
+                    value /= bodyRow[i];
+                }
+
+                column[i] = value;
+            }
+
+            this.fillColumn(s, column);
+        }
+    }
+
+    public void substituteForwards(final Access2D<Double> body, final boolean unitDiagonal, final boolean conjugated, final boolean identity) {
+
+        final int structure = this.getRowDim();
+        final int diagDim = (int) Math.min(body.countRows(), body.countColumns());
+
+        final double[] bodyRow = new double[diagDim];
+        final double[] column = new double[structure];
+
+        for (int s = 0, limit = this.getColDim(); s < limit; s++) {
+
+            this.copyColumn(s, column);
+
+            for (int i = 0; i < diagDim; i++) {
+
+                for (int j = 0; j <= i; j++) {
+                    bodyRow[j] = conjugated ? body.doubleValue(j, i) : body.doubleValue(i, j);
+                }
+
+                double value = ZERO;
+                for (int j = identity ? s : 0; j < i; j++) {
+                    value += bodyRow[j] * column[j];
+                }
+                if (identity) {
+                    value = i == s ? ONE - value : -value;
+                } else {
+                    value = column[i] - value;
+                }
+                if (!unitDiagonal) {
+                    value /= bodyRow[i];
+                }
+
+                column[i] = value;
+            }
+
+            this.fillColumn(s, column);
+        }
+    }
+
+    public void supplyTo(final ElementsConsumer<Double> receiver) {
+        receiver.fillMatching(this);
+    }
+
+    public PrimitiveScalar toScalar(final long row, final long column) {
+        return PrimitiveScalar.of(this.doubleValue(row, column));
+    }
+
+    public void transformLeft(final Householder<Double> transformation, final int firstColumn) {
+
+        final Householder.Primitive householder = PrimitiveDenseStore.cast(transformation);
+        final double[] vector = householder.vector;
+        final int first = householder.first;
+
+        final int structure = this.getRowDim();
+        final double[] column = new double[structure];
+
+        for (int j = firstColumn, limit = this.getColDim(); j < limit; j++) {
+
+            this.copyColumn(j, column);
+
+            double scale = ZERO;
+            for (int i = first; i < structure; i++) {
+                scale += vector[i] * column[i];
+            }
+            scale *= householder.beta;
+            for (int i = first; i < structure; i++) {
+                column[i] -= scale * vector[i];
+            }
+
+            this.fillColumn(j, column);
+        }
+    }
+
+    public void transformLeft(final Rotation<Double> transformation) {
+
+        final Rotation.Primitive rotation = RawStore.cast(transformation);
+
+        final int low = rotation.low;
+        final int high = rotation.high;
+
+        if (low != high) {
+            if (!Double.isNaN(rotation.cos) && !Double.isNaN(rotation.sin)) {
+
+                double oldLow;
+                double oldHigh;
+
+                for (long j = 0L, limit = this.countColumns(); j < limit; j++) {
+
+                    oldLow = this.doubleValue(low, j);
+                    oldHigh = this.doubleValue(high, j);
+
+                    this.set(low, j, (rotation.cos * oldLow) + (rotation.sin * oldHigh));
+                    this.set(high, j, (rotation.cos * oldHigh) - (rotation.sin * oldLow));
+                }
+            } else {
+                this.exchangeRows(low, high);
+            }
+        } else {
+            if (!Double.isNaN(rotation.cos)) {
+                this.modifyRow(low, 0L, MULTIPLY.second(rotation.cos));
+            } else if (!Double.isNaN(rotation.sin)) {
+                this.modifyRow(low, 0L, DIVIDE.second(rotation.sin));
+            } else {
+                this.modifyRow(low, 0L, NEGATE);
+            }
+        }
+    }
+
+    public void transformRight(final Householder<Double> transformation, final int firstRow) {
+
+        final Householder.Primitive householder = PrimitiveDenseStore.cast(transformation);
+        final double[] vector = householder.vector;
+        final int first = householder.first;
+
+        final int structure = this.getRowDim();
+        final int limit = this.getColDim();
+
+        // The rows are not contiguous, so accumulate the scales of all rows (column by column)
+        final double[] scales = new double[structure];
+
+        for (int j = first; j < limit; j++) {
+            final double factor = vector[j];
+            for (int i = firstRow; i < structure; i++) {
+                scales[i] += this.doubleValue(i, j) * factor;
+            }
+        }
+
+        for (int j = first; j < limit; j++) {
+            final double factor = householder.beta * vector[j];
+            for (int i = firstRow; i < structure; i++) {
+                this.add(i, j, -scales[i] * factor);
+            }
+        }
+    }
+
+    public void transformRight(final Rotation<Double> transformation) {
+
+        final Rotation.Primitive rotation = RawStore.cast(transformation);
+
+        final int low = rotation.low;
+        final int high = rotation.high;
+
+        if (low != high) {
+            if (!Double.isNaN(rotation.cos) && !Double.isNaN(rotation.sin)) {
+
+                double oldLow;
+                double oldHigh;
+
+                for (long i = 0L, limit = this.countRows(); i < limit; i++) {
+
+                    oldLow = this.doubleValue(i, low);
+                    oldHigh = this.doubleValue(i, high);
+
+                    this.set(i, low, (rotation.cos * oldLow) - (rotation.sin * oldHigh));
+                    this.set(i, high, (rotation.cos * oldHigh) + (rotation.sin * oldLow));
+                }
+            } else {
+                this.exchangeColumns(low, high);
+            }
+        } else {
+            if (!Double.isNaN(rotation.cos)) {
+                this.modifyColumn(0L, high, MULTIPLY.second(rotation.cos));
+            } else if (!Double.isNaN(rotation.sin)) {
+                this.modifyColumn(0L, high, DIVIDE.second(rotation.sin));
+            } else {
+                this.modifyColumn(0L, high, NEGATE);
+            }
+        }
+    }
+
+    public void visitAll(final VoidFunction<Double> visitor) {
+        myElements.visitAll(visitor);
+    }
+
+    public void visitColumn(final long row, final long col, final VoidFunction<Double> visitor) {
+        myElements.visitColumn(row, col, visitor);
+    }
+
+    public void visitDiagonal(final long row, final long col, final VoidFunction<Double> visitor) {
+        myElements.visitDiagonal(row, col, visitor);
+    }
+
+    public void visitRange(final long first, final long limit, final VoidFunction<Double> visitor) {
+        myElements.visitRange(first, limit, visitor);
+    }
+
+    public void visitRow(final long row, final long col, final VoidFunction<Double> visitor) {
+        myElements.visitRow(row, col, visitor);
+    }
+
+    private void copyColumn(final int col, final double[] destination) {
+        final long offset = (long) col * destination.length;
+        for (int i = 0; i < destination.length; i++) {
+            destination[i] = myElements.doubleValue(offset + i);
+        }
+    }
+
+    private void fillColumn(final int col, final double[] source) {
+        final long offset = (long) col * source.length;
+        for (int i = 0; i < source.length; i++) {
+            myElements.set(offset + i, source[i]);
+        }
+    }
+
+}
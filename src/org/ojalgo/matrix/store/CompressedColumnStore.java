@@ -0,0 +1,211 @@
+/*
+ * Copyright 1997-2018 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.matrix.store;
+
+import org.ojalgo.structure.Access1D;
+import org.ojalgo.structure.Access2D;
+import org.ojalgo.structure.Structure2D;
+
+/**
+ * Compressed Sparse Column (CSC) storage of primitive double elements. Immutable - create instances using a
+ * {@link Builder}, that accepts the nonzero elements in any order, or by copying some other matrix.
+ * Transposing is free - the transpose is a {@link CompressedRowStore} sharing the same arrays.
+ *
+ * @author apete
+ */
+public final class CompressedColumnStore extends CompressedStore {
+
+    public static final class Builder implements Structure2D {
+
+        private final int myColumnsCount;
+        private final int myRowsCount;
+        private final CompressedStore.Triplets myTriplets;
+
+        Builder(final int rowsCount, final int columnsCount, final int initialCapacity) {
+            super();
+            myRowsCount = rowsCount;
+            myColumnsCount = columnsCount;
+            myTriplets = new CompressedStore.Triplets(initialCapacity);
+        }
+
+        /**
+         * Add a nonzero element. The elements may be added in any order, and if the same (row, column) is
+         * added more than once the values are summed.
+         */
+        public Builder add(final int row, final int col, final double value) {
+            if ((row < 0) || (row >= myRowsCount) || (col < 0) || (col >= myColumnsCount)) {
+                throw new ArrayIndexOutOfBoundsException("(" + row + ", " + col + ")");
+            }
+            myTriplets.add(col, row, value);
+            return this;
+        }
+
+        public CompressedColumnStore build() {
+            final double[][] values = new double[1][];
+            final int[][] compressed = myTriplets.compress(myColumnsCount, myRowsCount, values);
+            return new CompressedColumnStore(myRowsCount, myColumnsCount, compressed[0], compressed[1], values[0]);
+        }
+
+        public long countColumns() {
+            return myColumnsCount;
+        }
+
+        public long countRows() {
+            return myRowsCount;
+        }
+
+    }
+
+    public static CompressedColumnStore.Builder builder(final int rowsCount, final int columnsCount) {
+        return new CompressedColumnStore.Builder(rowsCount, columnsCount, Math.max(rowsCount, columnsCount));
+    }
+
+    public static CompressedColumnStore.Builder builder(final int rowsCount, final int columnsCount, final int expectedNonzeros) {
+        return new CompressedColumnStore.Builder(rowsCount, columnsCount, expectedNonzeros);
+    }
+
+    /**
+     * Copies the nonzero elements of any matrix. Copying a {@link SparseStore} only visits its nonzeros.
+     */
+    public static CompressedColumnStore copy(final Access2D<?> source) {
+        final int rowsCount = Math.toIntExact(source.countRows());
+        final int columnsCount = Math.toIntExact(source.countColumns());
+        final double[][] values = new double[1][];
+        final int[][] compressed = CompressedStore.compress(source, false, values);
+        return new CompressedColumnStore(rowsCount, columnsCount, compressed[0], compressed[1], values[0]);
+    }
+
+    CompressedColumnStore(final int rowsCount, final int columnsCount, final int[] pointers, final int[] indices, final double[] values) {
+        super(rowsCount, columnsCount, pointers, indices, values);
+    }
+
+    public double doubleValue(final long row, final long col) {
+        return this.value((int) col, (int) row);
+    }
+
+    public int firstInColumn(final int col) {
+        return this.firstInMajor(col, this.getRowDim());
+    }
+
+    @Override
+    public int limitOfColumn(final int col) {
+        return this.limitOfMajor(col);
+    }
+
+    /**
+     * Scatters each (scaled) column of this matrix to the product. Writes directly to the target array when
+     * the target is a {@link PrimitiveDenseStore}.
+     */
+    @Override
+    public void multiply(final Access1D<Double> right, final ElementsConsumer<Double> target) {
+
+        final int numberOfRows = this.getRowDim();
+        final int complexity = this.getColDim();
+        final int numberOfColumns = (int) (right.count() / complexity);
+
+        final double[] targetData = CompressedStore.data(target);
+        final double[] column = targetData != null ? null : new double[numberOfRows];
+
+        if (targetData != null) {
+            for (int i = 0, limit = numberOfRows * numberOfColumns; i < limit; i++) {
+                targetData[i] = 0.0;
+            }
+        } else {
+            target.reset();
+        }
+
+        for (int j = 0; j < numberOfColumns; j++) {
+
+            final double[] accumulator = targetData != null ? targetData : column;
+            final int base = targetData != null ? j * numberOfRows : 0;
+
+            for (int c = 0; c < complexity; c++) {
+                final double r = right.doubleValue(c + (j * complexity));
+                if (r != 0.0) {
+                    for (int k = pointers[c], limit = pointers[c + 1]; k < limit; k++) {
+                        accumulator[base + indices[k]] += values[k] * r;
+                    }
+                }
+            }
+
+            if (column != null) {
+                for (int i = 0; i < numberOfRows; i++) {
+                    if (column[i] != 0.0) {
+                        target.set(i, j, column[i]);
+                        column[i] = 0.0;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Sparse (column-by-column) dot products.
+     */
+    @Override
+    public ElementsSupplier<Double> premultiply(final Access1D<Double> left) {
+
+        final int complexity = this.getRowDim();
+        final int numberOfColumns = this.getColDim();
+        final int numberOfRows = (int) (left.count() / complexity);
+
+        final PrimitiveDenseStore retVal = PrimitiveDenseStore.FACTORY.makeZero(numberOfRows, numberOfColumns);
+        final double[] retData = retVal.data;
+        final double[] leftData = CompressedStore.data(left);
+
+        for (int j = 0; j < numberOfColumns; j++) {
+            final int limit = pointers[j + 1];
+            for (int r = 0; r < numberOfRows; r++) {
+                double sum = 0.0;
+                if (leftData != null) {
+                    for (int k = pointers[j]; k < limit; k++) {
+                        sum += leftData[r + (indices[k] * numberOfRows)] * values[k];
+                    }
+                } else {
+                    for (int k = pointers[j]; k < limit; k++) {
+                        sum += left.doubleValue(r + (indices[k] * numberOfRows)) * values[k];
+                    }
+                }
+                retData[r + (j * numberOfRows)] = sum;
+            }
+        }
+
+        return retVal;
+    }
+
+    public void supplyTo(final ElementsConsumer<Double> receiver) {
+
+        receiver.reset();
+
+        for (int j = 0, numberOfColumns = this.getColDim(); j < numberOfColumns; j++) {
+            for (int k = pointers[j]; k < pointers[j + 1]; k++) {
+                receiver.set(indices[k], j, values[k]);
+            }
+        }
+    }
+
+    @Override
+    public CompressedRowStore transpose() {
+        return new CompressedRowStore(this.getColDim(), this.getRowDim(), pointers, indices, values);
+    }
+
+}
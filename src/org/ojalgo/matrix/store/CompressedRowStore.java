@@ -0,0 +1,394 @@
+/*
+ * Copyright 1997-2018 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.matrix.store;
+
+import java.util.Arrays;
+
+import org.ojalgo.concurrent.DivideAndConquer;
+import org.ojalgo.matrix.store.operation.MultiplySparse;
+import org.ojalgo.structure.Access1D;
+import org.ojalgo.structure.Access2D;
+import org.ojalgo.structure.Structure2D;
+
+/**
+ * Compressed Sparse Row (CSR) storage of primitive double elements. Immutable - create instances using a
+ * {@link Builder}, that accepts the nonzero elements in any order, or by copying some other matrix.
+ * Transposing is free - the transpose is a {@link CompressedColumnStore} sharing the same arrays.
+ *
+ * @author apete
+ */
+public final class CompressedRowStore extends CompressedStore {
+
+    public static final class Builder implements Structure2D {
+
+        private final int myColumnsCount;
+        private final int myRowsCount;
+        private final CompressedStore.Triplets myTriplets;
+
+        Builder(final int rowsCount, final int columnsCount, final int initialCapacity) {
+            super();
+            myRowsCount = rowsCount;
+            myColumnsCount = columnsCount;
+            myTriplets = new CompressedStore.Triplets(initialCapacity);
+        }
+
+        /**
+         * Add a nonzero element. The elements may be added in any order, and if the same (row, column) is
+         * added more than once the values are summed.
+         */
+        public Builder add(final int row, final int col, final double value) {
+            if ((row < 0) || (row >= myRowsCount) || (col < 0) || (col >= myColumnsCount)) {
+                throw new ArrayIndexOutOfBoundsException("(" + row + ", " + col + ")");
+            }
+            myTriplets.add(row, col, value);
+            return this;
+        }
+
+        public CompressedRowStore build() {
+            final double[][] values = new double[1][];
+            final int[][] compressed = myTriplets.compress(myRowsCount, myColumnsCount, values);
+            return new CompressedRowStore(myRowsCount, myColumnsCount, compressed[0], compressed[1], values[0]);
+        }
+
+        public long countColumns() {
+            return myColumnsCount;
+        }
+
+        public long countRows() {
+            return myRowsCount;
+        }
+
+    }
+
+    public static CompressedRowStore.Builder builder(final int rowsCount, final int columnsCount) {
+        return new CompressedRowStore.Builder(rowsCount, columnsCount, Math.max(rowsCount, columnsCount));
+    }
+
+    public static CompressedRowStore.Builder builder(final int rowsCount, final int columnsCount, final int expectedNonzeros) {
+        return new CompressedRowStore.Builder(rowsCount, columnsCount, expectedNonzeros);
+    }
+
+    /**
+     * Copies the nonzero elements of any matrix. Copying a {@link SparseStore} only visits its nonzeros.
+     */
+    public static CompressedRowStore copy(final Access2D<?> source) {
+        final int rowsCount = Math.toIntExact(source.countRows());
+        final int columnsCount = Math.toIntExact(source.countColumns());
+        final double[][] values = new double[1][];
+        final int[][] compressed = CompressedStore.compress(source, true, values);
+        return new CompressedRowStore(rowsCount, columnsCount, compressed[0], compressed[1], values[0]);
+    }
+
+    CompressedRowStore(final int rowsCount, final int columnsCount, final int[] pointers, final int[] indices, final double[] values) {
+        super(rowsCount, columnsCount, pointers, indices, values);
+    }
+
+    public double doubleValue(final long row, final long col) {
+        return this.value((int) row, (int) col);
+    }
+
+    public int firstInRow(final int row) {
+        return this.firstInMajor(row, this.getColDim());
+    }
+
+    @Override
+    public int limitOfRow(final int row) {
+        return this.limitOfMajor(row);
+    }
+
+    /**
+     * Sparse (row-by-row) dot products. Large matrices are multi threaded with the rows partitioned by
+     * nonzero count.
+     */
+    @Override
+    public void multiply(final Access1D<Double> right, final ElementsConsumer<Double> target) {
+        this.multiplyInto(right, target);
+    }
+
+    /**
+     * If right is also a {@link CompressedRowStore} the product is computed row-by-row (Gustavson's
+     * algorithm) and returned as a {@link CompressedRowStore}. Large matrices are multi threaded with the
+     * rows partitioned by nonzero count. Otherwise the product is dense.
+     */
+    @Override
+    public MatrixStore<Double> multiply(final MatrixStore<Double> right) {
+
+        if (right instanceof CompressedRowStore) {
+
+            final CompressedRowStore other = (CompressedRowStore) right;
+
+            final int numberOfRows = this.getRowDim();
+            final int numberOfColumns = other.getColDim();
+
+            final int workers = MultiplySparse.SETUP.workers();
+            final int parts = (numberOfRows > MultiplySparse.THRESHOLD) && (workers > 1) ? workers : 1;
+            final int[] boundaries = MultiplySparse.partition(pointers, numberOfRows, parts);
+
+            final int[] retPointers = new int[numberOfRows + 1];
+            final int[][] partIndices = new int[parts][];
+            final double[][] partValues = new double[parts][];
+
+            if (parts > 1) {
+
+                final DivideAndConquer tmpConquerer = new DivideAndConquer() {
+
+                    @Override
+                    public void conquer(final int first, final int limit) {
+                        for (int p = first; p < limit; p++) {
+                            CompressedRowStore.this.multiply(other, boundaries[p], boundaries[p + 1], retPointers, partIndices, partValues, p);
+                        }
+                    }
+                };
+
+                tmpConquerer.invoke(0, parts, 1, parts);
+
+            } else {
+
+                this.multiply(other, 0, numberOfRows, retPointers, partIndices, partValues, 0);
+            }
+
+            for (int i = 0; i < numberOfRows; i++) {
+                retPointers[i + 1] += retPointers[i];
+            }
+
+            final int nnz = retPointers[numberOfRows];
+            final int[] retIndices = new int[nnz];
+            final double[] retValues = new double[nnz];
+            for (int p = 0; p < parts; p++) {
+                final int offset = retPointers[boundaries[p]];
+                final int length = retPointers[boundaries[p + 1]] - offset;
+                System.arraycopy(partIndices[p], 0, retIndices, offset, length);
+                System.arraycopy(partValues[p], 0, retValues, offset, length);
+            }
+
+            return new CompressedRowStore(numberOfRows, numberOfColumns, retPointers, retIndices, retValues);
+
+        } else {
+
+            return super.multiply(right);
+        }
+    }
+
+    /**
+     * Scatters each (scaled) row of this matrix to the product.
+     */
+    @Override
+    public ElementsSupplier<Double> premultiply(final Access1D<Double> left) {
+
+        final int complexity = this.getRowDim();
+        final int numberOfColumns = this.getColDim();
+        final int numberOfRows = (int) (left.count() / complexity);
+
+        final PrimitiveDenseStore retVal = PrimitiveDenseStore.FACTORY.makeZero(numberOfRows, numberOfColumns);
+        final double[] retData = retVal.data;
+
+        for (int c = 0; c < complexity; c++) {
+            final int limit = pointers[c + 1];
+            for (int r = 0; r < numberOfRows; r++) {
+                final double l = left.doubleValue(r + (c * numberOfRows));
+                if (l != 0.0) {
+                    for (int k = pointers[c]; k < limit; k++) {
+                        retData[r + (indices[k] * numberOfRows)] += l * values[k];
+                    }
+                }
+            }
+        }
+
+        return retVal;
+    }
+
+    public void supplyTo(final ElementsConsumer<Double> receiver) {
+        this.supplyInto(receiver);
+    }
+
+    @Override
+    public CompressedColumnStore transpose() {
+        return new CompressedColumnStore(this.getColDim(), this.getRowDim(), pointers, indices, values);
+    }
+
+    /**
+     * Same as {@link #multiply(Access1D, ElementsConsumer)} but only uses the primitive (double) accessors
+     * and mutators, so that the type of the elements need not be known at compile time.
+     */
+    void multiplyInto(final Access1D<?> right, final ElementsConsumer<?> target) {
+
+        final int numberOfRows = this.getRowDim();
+        final int complexity = this.getColDim();
+        final int numberOfColumns = (int) (right.count() / complexity);
+
+        double[] rightData = CompressedStore.data(right);
+        if (rightData == null) {
+            rightData = new double[complexity * numberOfColumns];
+            for (int i = 0; i < rightData.length; i++) {
+                rightData[i] = right.doubleValue(i);
+            }
+        }
+
+        final double[] targetData = CompressedStore.data(target);
+
+        if (targetData != null) {
+
+            this.multiply(targetData, rightData);
+
+        } else {
+
+            final double[] product = new double[numberOfRows * numberOfColumns];
+
+            this.multiply(product, rightData);
+
+            target.reset();
+            for (int j = 0; j < numberOfColumns; j++) {
+                for (int i = 0; i < numberOfRows; i++) {
+                    final double value = product[i + (j * numberOfRows)];
+                    if (value != 0.0) {
+                        target.set(i, j, value);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Same as {@link #supplyTo(ElementsConsumer)} but only uses the primitive (double) mutators.
+     */
+    void supplyInto(final ElementsConsumer<?> receiver) {
+
+        receiver.reset();
+
+        if (receiver instanceof SparseStore<?>) {
+
+            // A SparseStore is filled most efficiently in its own (column major) order
+
+            final double[][] transposedValues = new double[1][];
+            final int[][] transposed = CompressedStore.transpose(this.getRowDim(), this.getColDim(), pointers, indices, values, transposedValues);
+
+            for (int j = 0, numberOfColumns = this.getColDim(); j < numberOfColumns; j++) {
+                for (int k = transposed[0][j]; k < transposed[0][j + 1]; k++) {
+                    receiver.set(transposed[1][k], j, transposedValues[0][k]);
+                }
+            }
+
+        } else {
+
+            for (int i = 0, numberOfRows = this.getRowDim(); i < numberOfRows; i++) {
+                for (int k = pointers[i]; k < pointers[i + 1]; k++) {
+                    receiver.set(i, indices[k], values[k]);
+                }
+            }
+        }
+    }
+
+    /**
+     * product = this * right, both dense and column major
+     */
+    void multiply(final double[] product, final double[] right) {
+
+        final int numberOfRows = this.getRowDim();
+        final int complexity = this.getColDim();
+
+        final int workers = MultiplySparse.SETUP.workers();
+
+        if ((numberOfRows > MultiplySparse.THRESHOLD) && (workers > 1)) {
+
+            final int[] boundaries = MultiplySparse.partition(pointers, numberOfRows, workers);
+
+            final DivideAndConquer tmpConquerer = new DivideAndConquer() {
+
+                @Override
+                public void conquer(final int first, final int limit) {
+                    for (int p = first; p < limit; p++) {
+                        MultiplySparse.invoke(product, boundaries[p], boundaries[p + 1], numberOfRows, pointers, indices, values, right, complexity);
+                    }
+                }
+            };
+
+            tmpConquerer.invoke(0, workers, 1, workers);
+
+        } else {
+
+            MultiplySparse.invoke(product, 0, numberOfRows, numberOfRows, pointers, indices, values, right, complexity);
+        }
+    }
+
+    /**
+     * Gustavson's algorithm for the rows [firstRow, rowLimit). The number of nonzeros in each row i is
+     * stored in counts[i + 1], and the (row by row) concatenated column indices and values in
+     * partIndices[part] and partValues[part].
+     */
+    private void multiply(final CompressedRowStore right, final int firstRow, final int rowLimit, final int[] counts, final int[][] partIndices,
+            final double[][] partValues, final int part) {
+
+        final int numberOfColumns = right.getColDim();
+
+        final double[] accumulator = new double[numberOfColumns];
+        final int[] marker = new int[numberOfColumns];
+        Arrays.fill(marker, -1);
+        final int[] pattern = new int[numberOfColumns];
+
+        int[] retIndices = new int[Math.max(16, pointers[rowLimit] - pointers[firstRow])];
+        double[] retValues = new double[retIndices.length];
+
+        int nnz = 0;
+        for (int i = firstRow; i < rowLimit; i++) {
+
+            int count = 0;
+            for (int k = pointers[i]; k < pointers[i + 1]; k++) {
+                final int c = indices[k];
+                final double a = values[k];
+                for (int l = right.pointers[c]; l < right.pointers[c + 1]; l++) {
+                    final int j = right.indices[l];
+                    if (marker[j] != i) {
+                        marker[j] = i;
+                        pattern[count++] = j;
+                        accumulator[j] = a * right.values[l];
+                    } else {
+                        accumulator[j] += a * right.values[l];
+                    }
+                }
+            }
+
+            Arrays.sort(pattern, 0, count);
+
+            if ((nnz + count) > retIndices.length) {
+                final int capacity = Math.max(nnz + count, retIndices.length + (retIndices.length >> 1));
+                retIndices = Arrays.copyOf(retIndices, capacity);
+                retValues = Arrays.copyOf(retValues, capacity);
+            }
+
+            final int before = nnz;
+            for (int p = 0; p < count; p++) {
+                final int j = pattern[p];
+                final double value = accumulator[j];
+                if (value != 0.0) {
+                    retIndices[nnz] = j;
+                    retValues[nnz] = value;
+                    nnz++;
+                }
+            }
+            counts[i + 1] = nnz - before;
+        }
+
+        partIndices[part] = retIndices;
+        partValues[part] = retValues;
+    }
+
+}
@@ -0,0 +1,288 @@
+/*
+ * Copyright 1997-2018 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.matrix.store;
+
+import java.util.Arrays;
+
+import org.ojalgo.structure.Access2D;
+import org.ojalgo.structure.ElementView2D;
+
+/**
+ * Common parts of {@link CompressedRowStore} (CSR) and {@link CompressedColumnStore} (CSC). The nonzero
+ * elements are stored in contiguous arrays, sorted by major (row or column) index and then by minor (column
+ * or row) index. The nonzeros of major index m are at positions [pointers[m],pointers[m+1]) in the indices
+ * and values arrays. Instances are immutable.
+ *
+ * @author apete
+ */
+abstract class CompressedStore extends FactoryStore<Double> {
+
+    /**
+     * Collects unsorted (major, minor, value) triplets and compresses them.
+     */
+    static final class Triplets {
+
+        private int[] myMajors;
+        private int[] myMinors;
+        private int mySize = 0;
+        private double[] myValues;
+
+        Triplets(final int initialCapacity) {
+            super();
+            myMajors = new int[Math.max(16, initialCapacity)];
+            myMinors = new int[myMajors.length];
+            myValues = new double[myMajors.length];
+        }
+
+        void add(final int major, final int minor, final double value) {
+            if (mySize == myMajors.length) {
+                final int capacity = mySize + (mySize >> 1);
+                myMajors = Arrays.copyOf(myMajors, capacity);
+                myMinors = Arrays.copyOf(myMinors, capacity);
+                myValues = Arrays.copyOf(myValues, capacity);
+            }
+            myMajors[mySize] = major;
+            myMinors[mySize] = minor;
+            myValues[mySize] = value;
+            mySize++;
+        }
+
+        /**
+         * Two stable counting sorts - first by minor index then by major index - O(nnz + majors + minors).
+         * Duplicates are summed and (resulting) zeros removed.
+         *
+         * @return { pointers, indices } with the values stored in the supplied single element array
+         */
+        int[][] compress(final int majorCount, final int minorCount, final double[][] values) {
+
+            final int[] byMinor = Triplets.order(myMinors, mySize, minorCount, null);
+            final int[] order = Triplets.order(myMajors, mySize, majorCount, byMinor);
+
+            final int[] pointers = new int[majorCount + 1];
+            final int[] indices = new int[mySize];
+            final double[] vals = new double[mySize];
+
+            int nnz = 0;
+            int prevMajor = -1;
+            int prevMinor = -1;
+            for (int i = 0; i < mySize; i++) {
+                final int t = order[i];
+                final int major = myMajors[t];
+                final int minor = myMinors[t];
+                if ((major == prevMajor) && (minor == prevMinor)) {
+                    vals[nnz - 1] += myValues[t];
+                } else {
+                    if ((nnz > 0) && (vals[nnz - 1] == 0.0)) {
+                        nnz--;
+                        pointers[prevMajor + 1]--;
+                    }
+                    indices[nnz] = minor;
+                    vals[nnz] = myValues[t];
+                    nnz++;
+                    pointers[major + 1]++;
+                    prevMajor = major;
+                    prevMinor = minor;
+                }
+            }
+            if ((nnz > 0) && (vals[nnz - 1] == 0.0)) {
+                nnz--;
+                pointers[prevMajor + 1]--;
+            }
+
+            for (int m = 0; m < majorCount; m++) {
+                pointers[m + 1] += pointers[m];
+            }
+
+            values[0] = nnz == mySize ? vals : Arrays.copyOf(vals, nnz);
+            return new int[][] { pointers, nnz == mySize ? indices : Arrays.copyOf(indices, nnz) };
+        }
+
+        /**
+         * @return The triplet positions in stable sorted order of the keys
+         */
+        private static int[] order(final int[] keys, final int size, final int keyCount, final int[] previous) {
+
+            final int[] counts = new int[keyCount + 1];
+            for (int i = 0; i < size; i++) {
+                counts[keys[i] + 1]++;
+            }
+            for (int k = 0; k < keyCount; k++) {
+                counts[k + 1] += counts[k];
+            }
+
+            final int[] retVal = new int[size];
+            for (int i = 0; i < size; i++) {
+                final int t = previous != null ? previous[i] : i;
+                retVal[counts[keys[t]]++] = t;
+            }
+            return retVal;
+        }
+
+    }
+
+    /**
+     * @return { pointers, indices } of the requested layout, with the values stored in the supplied single
+     *         element array
+     */
+    static int[][] compress(final Access2D<?> source, final boolean byRow, final double[][] values) {
+
+        final int numberOfRows = Math.toIntExact(source.countRows());
+        final int numberOfColumns = Math.toIntExact(source.countColumns());
+
+        if (source instanceof SparseStore<?>) {
+
+            // The nonzeros of a SparseStore are already sorted in column major order
+
+            final SparseStore<?> sparse = (SparseStore<?>) source;
+            final int nnz = Math.toIntExact(sparse.nonzeros().estimateSize());
+
+            final int[] pointers = new int[numberOfColumns + 1];
+            final int[] indices = new int[nnz];
+            final double[] vals = new double[nnz];
+
+            int k = 0;
+            for (final ElementView2D<?, ?> element : sparse.nonzeros()) {
+                final long index = element.index();
+                pointers[(int) (index / numberOfRows) + 1]++;
+                indices[k] = (int) (index % numberOfRows);
+                vals[k] = element.doubleValue();
+                k++;
+            }
+            for (int j = 0; j < numberOfColumns; j++) {
+                pointers[j + 1] += pointers[j];
+            }
+
+            if (byRow) {
+                return CompressedStore.transpose(numberOfColumns, numberOfRows, pointers, indices, vals, values);
+            } else {
+                values[0] = vals;
+                return new int[][] { pointers, indices };
+            }
+
+        } else {
+
+            final Triplets triplets = new Triplets(Math.max(numberOfRows, numberOfColumns));
+            for (int j = 0; j < numberOfColumns; j++) {
+                for (int i = 0; i < numberOfRows; i++) {
+                    final double value = source.doubleValue(i, j);
+                    if (value != 0.0) {
+                        if (byRow) {
+                            triplets.add(i, j, value);
+                        } else {
+                            triplets.add(j, i, value);
+                        }
+                    }
+                }
+            }
+
+            return byRow ? triplets.compress(numberOfRows, numberOfColumns, values) : triplets.compress(numberOfColumns, numberOfRows, values);
+        }
+    }
+
+    static double[] data(final Object array) {
+        if (array instanceof PrimitiveDenseStore) {
+            return ((PrimitiveDenseStore) array).data;
+        } else {
+            return null;
+        }
+    }
+
+    /**
+     * Switch between row and column major layout (CSR and CSC) with a counting sort on the minor index. As
+     * the input is traversed in major order the output minor indices are sorted.
+     *
+     * @return { pointers, indices } of the transposed layout, with the values stored in the supplied single
+     *         element array
+     */
+    static int[][] transpose(final int majorCount, final int minorCount, final int[] pointers, final int[] indices, final double[] values,
+            final double[][] transposedValues) {
+
+        final int nnz = pointers[majorCount];
+
+        final int[] retPointers = new int[minorCount + 1];
+        final int[] retIndices = new int[nnz];
+        final double[] retValues = new double[nnz];
+
+        for (int k = 0; k < nnz; k++) {
+            retPointers[indices[k] + 1]++;
+        }
+        for (int m = 0; m < minorCount; m++) {
+            retPointers[m + 1] += retPointers[m];
+        }
+
+        final int[] next = Arrays.copyOf(retPointers, minorCount);
+        for (int major = 0; major < majorCount; major++) {
+            for (int k = pointers[major], limit = pointers[major + 1]; k < limit; k++) {
+                final int position = next[indices[k]]++;
+                retIndices[position] = major;
+                retValues[position] = values[k];
+            }
+        }
+
+        transposedValues[0] = retValues;
+        return new int[][] { retPointers, retIndices };
+    }
+
+    final int[] indices;
+    final int[] pointers;
+    final double[] values;
+
+    CompressedStore(final int rowsCount, final int columnsCount, final int[] pointers, final int[] indices, final double[] values) {
+
+        super(PrimitiveDenseStore.FACTORY, rowsCount, columnsCount);
+
+        this.pointers = pointers;
+        this.indices = indices;
+        this.values = values;
+    }
+
+    public final int countNonzeros() {
+        return values.length;
+    }
+
+    public final Double get(final long row, final long col) {
+        return this.doubleValue(row, col);
+    }
+
+    /**
+     * @return The position of minor in the indices/values arrays, or a negative value if not present
+     */
+    final int position(final int major, final int minor) {
+        return Arrays.binarySearch(indices, pointers[major], pointers[major + 1], minor);
+    }
+
+    final double value(final int major, final int minor) {
+        final int position = this.position(major, minor);
+        return position >= 0 ? values[position] : 0.0;
+    }
+
+    final int firstInMajor(final int major, final int minorCount) {
+        final int first = pointers[major];
+        return first < pointers[major + 1] ? indices[first] : minorCount;
+    }
+
+    final int limitOfMajor(final int major) {
+        final int limit = pointers[major + 1];
+        return pointers[major] < limit ? indices[limit - 1] + 1 : 0;
+    }
+
+}
@@ -40,10 +40,19 @@ abstract class MatrixPipeline<N extends Number> implements ElementsSupplier<N> {
             myOperator = operator;
         }
 
+        public ElementsSupplier<N> operateOnAll(final UnaryFunction<N> operator) {
+            return new BinaryOperatorLeft<>(myLeft, myOperator.andThen(operator), this.getContext());
+        }
+
         @Override
         public void supplyTo(final ElementsConsumer<N> receiver) {
-            this.getContext().supplyTo(receiver);
-            receiver.modifyMatching(myLeft, myOperator);
+            final ElementsSupplier<N> context = this.getContext();
+            if (context instanceof MatrixStore) {
+                receiver.fillMatching(myLeft, myOperator, (MatrixStore<N>) context);
+            } else {
+                context.supplyTo(receiver);
+                receiver.modifyMatching(myLeft, myOperator);
+            }
         }
     }
 
@@ -58,10 +67,19 @@ abstract class MatrixPipeline<N extends Number> implements ElementsSupplier<N> {
             myOperator = operator;
         }
 
+        public ElementsSupplier<N> operateOnAll(final UnaryFunction<N> operator) {
+            return new BinaryOperatorRight<>(this.getContext(), myOperator.andThen(operator), myRight);
+        }
+
         @Override
         public void supplyTo(final ElementsConsumer<N> receiver) {
-            this.getContext().supplyTo(receiver);
-            receiver.modifyMatching(myOperator, myRight);
+            final ElementsSupplier<N> context = this.getContext();
+            if (context instanceof MatrixStore) {
+                receiver.fillMatching((MatrixStore<N>) context, myOperator, myRight);
+            } else {
+                context.supplyTo(receiver);
+                receiver.modifyMatching(myOperator, myRight);
+            }
         }
     }
 
@@ -197,13 +215,64 @@ abstract class MatrixPipeline<N extends Number> implements ElementsSupplier<N> {
             myOperator = operator;
         }
 
+        public ElementsSupplier<N> operateOnAll(final UnaryFunction<N> operator) {
+            return new UnaryOperator<>(this.getContext(), myOperator.andThen(operator));
+        }
+
+        public ElementsSupplier<N> operateOnMatching(final BinaryFunction<N> operator, final MatrixStore<N> right) {
+            return new BinaryOperatorRight<>(this.getContext(), MatrixPipeline.composeFirst(operator, myOperator), right);
+        }
+
+        public ElementsSupplier<N> operateOnMatching(final MatrixStore<N> left, final BinaryFunction<N> operator) {
+            return new BinaryOperatorLeft<>(left, MatrixPipeline.composeSecond(operator, myOperator), this.getContext());
+        }
+
         @Override
         public void supplyTo(final ElementsConsumer<N> receiver) {
-            this.getContext().supplyTo(receiver);
-            receiver.modifyAll(myOperator);
+            final ElementsSupplier<N> context = this.getContext();
+            if (context instanceof MatrixStore) {
+                receiver.fillMatching(myOperator, (MatrixStore<N>) context);
+            } else {
+                context.supplyTo(receiver);
+                receiver.modifyAll(myOperator);
+            }
         }
     }
 
+    /**
+     * @return operator(before(arg1), arg2)
+     */
+    static <N extends Number> BinaryFunction<N> composeFirst(final BinaryFunction<N> operator, final UnaryFunction<N> before) {
+        return new BinaryFunction<N>() {
+
+            public double invoke(final double arg1, final double arg2) {
+                return operator.invoke(before.invoke(arg1), arg2);
+            }
+
+            public N invoke(final N arg1, final N arg2) {
+                return operator.invoke(before.invoke(arg1), arg2);
+            }
+
+        };
+    }
+
+    /**
+     * @return operator(arg1, before(arg2))
+     */
+    static <N extends Number> BinaryFunction<N> composeSecond(final BinaryFunction<N> operator, final UnaryFunction<N> before) {
+        return new BinaryFunction<N>() {
+
+            public double invoke(final double arg1, final double arg2) {
+                return operator.invoke(arg1, before.invoke(arg2));
+            }
+
+            public N invoke(final N arg1, final N arg2) {
+                return operator.invoke(arg1, before.invoke(arg2));
+            }
+
+        };
+    }
+
     private final ElementsSupplier<N> myContext;
 
     protected MatrixPipeline(final ElementsSupplier<N> context) {
@@ -0,0 +1,1118 @@
+/*
+ * Copyright 1997-2018 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.matrix.store;
+
+import java.util.List;
+
+import org.ojalgo.ProgrammingError;
+import org.ojalgo.array.Array1D;
+import org.ojalgo.array.Array2D;
+import org.ojalgo.array.BasicArray;
+import org.ojalgo.array.RationalSplitArray;
+import org.ojalgo.array.DenseArray;
+import org.ojalgo.concurrent.DivideAndConquer;
+import org.ojalgo.function.BinaryFunction;
+import org.ojalgo.function.RationalFunction;
+import org.ojalgo.function.FunctionSet;
+import org.ojalgo.function.FunctionUtils;
+import org.ojalgo.function.NullaryFunction;
+import org.ojalgo.function.UnaryFunction;
+import org.ojalgo.function.VoidFunction;
+import org.ojalgo.function.aggregator.Aggregator;
+import org.ojalgo.function.aggregator.AggregatorFunction;
+import org.ojalgo.function.aggregator.AggregatorSet;
+import org.ojalgo.function.aggregator.RationalAggregator;
+import org.ojalgo.matrix.MatrixUtils;
+import org.ojalgo.matrix.decomposition.DecompositionStore;
+import org.ojalgo.matrix.store.GenericDenseStore.GenericMultiplyBoth;
+import org.ojalgo.matrix.store.operation.*;
+import org.ojalgo.matrix.transformation.Householder;
+import org.ojalgo.matrix.transformation.HouseholderReference;
+import org.ojalgo.matrix.transformation.Rotation;
+import org.ojalgo.scalar.ComplexNumber;
+import org.ojalgo.scalar.RationalNumber;
+import org.ojalgo.scalar.Scalar;
+import org.ojalgo.structure.Access1D;
+import org.ojalgo.structure.Access2D;
+import org.ojalgo.type.context.NumberContext;
+
+/**
+ * A {@linkplain RationalNumber} implementation of {@linkplain PhysicalStore} that stores the numerators and
+ * denominators in two separate primitive long[] (see {@link RationalSplitArray}) rather than as an array of
+ * {@link RationalNumber} instances. Multiplication, the LU/Cholesky/LDL updates and the triangular
+ * substitutions work directly on the primitive arrays, are exact, and do not create any intermediate
+ * {@link RationalNumber} instances - unless some element grows too large for a long and is promoted to
+ * {@link java.math.BigInteger}. Compared to {@link GenericDenseStore#RATIONAL} this uses less memory and
+ * creates (much) less garbage, which is what matters when doing exact LU decompositions.
+ * <p>
+ * The Householder and rotation transformations are inherently inexact (they involve square roots) and are
+ * implemented with plain {@link RationalNumber} arithmetic.
+ *
+ * @author apete
+ */
+public final class RationalDenseStore extends RationalSplitArray implements PhysicalStore<RationalNumber>, DecompositionStore<RationalNumber> {
+
+    public static final PhysicalStore.Factory<RationalNumber, RationalDenseStore> FACTORY = new PhysicalStore.Factory<RationalNumber, RationalDenseStore>() {
+
+        public AggregatorSet<RationalNumber> aggregator() {
+            return RationalAggregator.getSet();
+        }
+
+        public DenseArray.Factory<RationalNumber> array() {
+            return RationalSplitArray.FACTORY;
+        }
+
+        public MatrixStore.Factory<RationalNumber> builder() {
+            return new MatrixStore.Factory<RationalNumber>() {
+
+                public LogicalBuilder<RationalNumber> makeIdentity(final int dimension) {
+                    return new LogicalBuilder<>(new IdentityStore<>(FACTORY, dimension));
+                }
+
+                public LogicalBuilder<RationalNumber> makeSingle(final RationalNumber element) {
+                    return new LogicalBuilder<>(new SingleStore<>(FACTORY, element));
+                }
+
+                public SparseStore<RationalNumber> makeSparse(final int rowsCount, final int columnsCount) {
+                    return new SparseStore<>(FACTORY, rowsCount, columnsCount);
+                }
+
+                public LogicalBuilder<RationalNumber> makeWrapper(final Access2D<?> access) {
+                    return new LogicalBuilder<>(new WrapperStore<>(FACTORY, access));
+                }
+
+                public LogicalBuilder<RationalNumber> makeZero(final int rowsCount, final int columnsCount) {
+                    return new LogicalBuilder<>(new ZeroStore<>(FACTORY, rowsCount, columnsCount));
+                }
+
+            };
+        }
+
+        public RationalDenseStore columns(final Access1D<?>... source) {
+
+            final int tmpRowDim = (int) source[0].count();
+            final int tmpColDim = source.length;
+
+            final RationalDenseStore retVal = new RationalDenseStore(tmpRowDim, tmpColDim);
+
+            Access1D<?> tmpColumn;
+            for (int j = 0; j < tmpColDim; j++) {
+                tmpColumn = source[j];
+                for (int i = 0; i < tmpRowDim; i++) {
+                    retVal.set(i + (tmpRowDim * j), tmpColumn.get(i));
+                }
+            }
+
+            return retVal;
+        }
+
+        public RationalDenseStore columns(final double[]... source) {
+
+            final int tmpRowDim = source[0].length;
+            final int tmpColDim = source.length;
+
+            final RationalDenseStore retVal = new RationalDenseStore(tmpRowDim, tmpColDim);
+
+            double[] tmpColumn;
+            for (int j = 0; j < tmpColDim; j++) {
+                tmpColumn = source[j];
+                for (int i = 0; i < tmpRowDim; i++) {
+                    retVal.set(i + (tmpRowDim * j), tmpColumn[i]);
+                }
+            }
+
+            return retVal;
+        }
+
+        public RationalDenseStore columns(final List<? extends Number>... source) {
+
+            final int tmpRowDim = source[0].size();
+            final int tmpColDim = source.length;
+
+            final RationalDenseStore retVal = new RationalDenseStore(tmpRowDim, tmpColDim);
+
+            List<? extends Number> tmpColumn;
+            for (int j = 0; j < tmpColDim; j++) {
+                tmpColumn = source[j];
+                for (int i = 0; i < tmpRowDim; i++) {
+                    retVal.set(i + (tmpRowDim * j), tmpColumn.get(i));
+                }
+            }
+
+            return retVal;
+        }
+
+        public RationalDenseStore columns(final Number[]... source) {
+
+            final int tmpRowDim = source[0].length;
+            final int tmpColDim = source.length;
+
+            final RationalDenseStore retVal = new RationalDenseStore(tmpRowDim, tmpColDim);
+
+            Number[] tmpColumn;
+            for (int j = 0; j < tmpColDim; j++) {
+                tmpColumn = source[j];
+                for (int i = 0; i < tmpRowDim; i++) {
+                    retVal.set(i + (tmpRowDim * j), tmpColumn[i]);
+                }
+            }
+
+            return retVal;
+        }
+
+        public RationalDenseStore conjugate(final Access2D<?> source) {
+
+            final RationalDenseStore retVal = new RationalDenseStore((int) source.countColumns(), (int) source.countRows());
+
+            retVal.fillTransposed(source);
+
+            return retVal;
+        }
+
+        public RationalDenseStore copy(final Access2D<?> source) {
+
+            final int tmpRowDim = (int) source.countRows();
+            final int tmpColDim = (int) source.countColumns();
+
+            final RationalDenseStore retVal = new RationalDenseStore(tmpRowDim, tmpColDim);
+
+            if (source instanceof RationalDenseStore) {
+                retVal.fillMatching(source);
+            } else {
+                for (int j = 0; j < tmpColDim; j++) {
+                    for (int i = 0; i < tmpRowDim; i++) {
+                        retVal.set(i + (tmpRowDim * j), source.get(i, j));
+                    }
+                }
+            }
+
+            return retVal;
+        }
+
+        public FunctionSet<RationalNumber> function() {
+            return RationalFunction.getSet();
+        }
+
+        public RationalDenseStore makeEye(final long rows, final long columns) {
+
+            final RationalDenseStore retVal = this.makeZero(rows, columns);
+
+            retVal.myUtility.fillDiagonal(0, 0, RationalNumber.ONE);
+
+            return retVal;
+        }
+
+        public RationalDenseStore makeFilled(final long rows, final long columns, final NullaryFunction<?> supplier) {
+
+            final RationalDenseStore retVal = this.makeZero(rows, columns);
+
+            for (int i = 0, limit = retVal.size(); i < limit; i++) {
+                retVal.set(i, supplier.get());
+            }
+
+            return retVal;
+        }
+
+        public Householder.Generic<RationalNumber> makeHouseholder(final int length) {
+            return new Householder.Generic<>(RationalNumber.FACTORY, length);
+        }
+
+        public Rotation.Generic<RationalNumber> makeRotation(final int low, final int high, final RationalNumber cos, final RationalNumber sin) {
+            return new Rotation.Generic<>(low, high, cos, sin);
+        }
+
+        public Rotation.Generic<RationalNumber> makeRotation(final int low, final int high, final double cos, final double sin) {
+            return this.makeRotation(low, high, RationalNumber.valueOf(cos), RationalNumber.valueOf(sin));
+        }
+
+        public RationalDenseStore makeZero(final long rows, final long columns) {
+            return new RationalDenseStore((int) rows, (int) columns);
+        }
+
+        public RationalDenseStore rows(final Access1D<?>... source) {
+
+            final int tmpRowDim = source.length;
+            final int tmpColDim = (int) source[0].count();
+
+            final RationalDenseStore retVal = new RationalDenseStore(tmpRowDim, tmpColDim);
+
+            Access1D<?> tmpRow;
+            for (int i = 0; i < tmpRowDim; i++) {
+                tmpRow = source[i];
+                for (int j = 0; j < tmpColDim; j++) {
+                    retVal.set(i + (tmpRowDim * j), tmpRow.get(j));
+                }
+            }
+
+            return retVal;
+        }
+
+        public RationalDenseStore rows(final double[]... source) {
+
+            final int tmpRowDim = source.length;
+            final int tmpColDim = source[0].length;
+
+            final RationalDenseStore retVal = new RationalDenseStore(tmpRowDim, tmpColDim);
+
+            double[] tmpRow;
+            for (int i = 0; i < tmpRowDim; i++) {
+                tmpRow = source[i];
+                for (int j = 0; j < tmpColDim; j++) {
+                    retVal.set(i + (tmpRowDim * j), tmpRow[j]);
+                }
+            }
+
+            return retVal;
+        }
+
+        public RationalDenseStore rows(final List<? extends Number>... source) {
+
+            final int tmpRowDim = source.length;
+            final int tmpColDim = source[0].size();
+
+            final RationalDenseStore retVal = new RationalDenseStore(tmpRowDim, tmpColDim);
+
+            List<? extends Number> tmpRow;
+            for (int i = 0; i < tmpRowDim; i++) {
+                tmpRow = source[i];
+                for (int j = 0; j < tmpColDim; j++) {
+                    retVal.set(i + (tmpRowDim * j), tmpRow.get(j));
+                }
+            }
+
+            return retVal;
+        }
+
+        public RationalDenseStore rows(final Number[]... source) {
+
+            final int tmpRowDim = source.length;
+            final int tmpColDim = source[0].length;
+
+            final RationalDenseStore retVal = new RationalDenseStore(tmpRowDim, tmpColDim);
+
+            Number[] tmpRow;
+            for (int i = 0; i < tmpRowDim; i++) {
+                tmpRow = source[i];
+                for (int j = 0; j < tmpColDim; j++) {
+                    retVal.set(i + (tmpRowDim * j), tmpRow[j]);
+                }
+            }
+
+            return retVal;
+        }
+
+        public Scalar.Factory<RationalNumber> scalar() {
+            return RationalNumber.FACTORY;
+        }
+
+        public RationalDenseStore transpose(final Access2D<?> source) {
+
+            final RationalDenseStore retVal = new RationalDenseStore((int) source.countColumns(), (int) source.countRows());
+
+            retVal.fillTransposed(source);
+
+            return retVal;
+        }
+
+    };
+
+    private final GenericMultiplyBoth<RationalNumber> multiplyBoth;
+
+    private final int myColDim;
+    private final int myRowDim;
+    private final Array2D<RationalNumber> myUtility;
+    private transient RationalSplitArray myWorkerColumn;
+
+    RationalDenseStore(final int numbRows, final int numbCols) {
+
+        super(numbRows * numbCols);
+
+        myRowDim = numbRows;
+        myColDim = numbCols;
+
+        myUtility = this.wrapInArray2D(myRowDim);
+
+        multiplyBoth = MultiplyBoth.getGeneric(myRowDim, myColDim);
+    }
+
+    public void accept(final Access2D<?> supplied) {
+        for (long j = 0L; j < supplied.countColumns(); j++) {
+            for (long i = 0L; i < supplied.countRows(); i++) {
+                this.set(i, j, supplied.get(i, j));
+            }
+        }
+    }
+
+    public void add(final long row, final long col, final double addend) {
+        myUtility.add(row, col, addend);
+    }
+
+    public void add(final long row, final long col, final Number addend) {
+        myUtility.add(row, col, addend);
+    }
+
+    public RationalNumber aggregateAll(final Aggregator aggregator) {
+
+        final int tmpRowDim = myRowDim;
+        final int tmpColDim = myColDim;
+
+        final AggregatorFunction<RationalNumber> mainAggr = aggregator.getFunction(RationalAggregator.getSet());
+
+        if (mainAggr.isMergeable() && (tmpColDim > AggregateAll.THRESHOLD)) {
+
+            final DivideAndConquer tmpConquerer = new DivideAndConquer() {
+
+                @Override
+                public void conquer(final int aFirst, final int aLimit) {
+
+                    final AggregatorFunction<RationalNumber> tmpPartAggr = aggregator.getFunction(RationalAggregator.getSet());
+
+                    RationalDenseStore.this.visit(tmpRowDim * aFirst, tmpRowDim * aLimit, 1, tmpPartAggr);
+
+                    synchronized (mainAggr) {
+                        mainAggr.merge(tmpPartAggr.get());
+                    }
+                }
+            };
+
+            tmpConquerer.invoke(0, tmpColDim, AggregateAll.THRESHOLD);
+
+        } else {
+
+            RationalDenseStore.this.visit(0, this.size(), 1, mainAggr);
+        }
+
+        return mainAggr.get();
+    }
+
+    public void applyCholesky(final int iterationPoint, final BasicArray<RationalNumber> multipliers) {
+
+        final RationalSplitArray tmpColumn = this.cast(multipliers);
+
+        if ((myColDim - iterationPoint - 1) > ApplyCholesky.THRESHOLD) {
+
+            final DivideAndConquer tmpConquerer = new DivideAndConquer() {
+
+                @Override
+                protected void conquer(final int aFirst, final int aLimit) {
+                    ApplyCholesky.invoke(RationalDenseStore.this, myRowDim, aFirst, aLimit, tmpColumn);
+                }
+            };
+
+            tmpConquerer.invoke(iterationPoint + 1, myColDim, ApplyCholesky.THRESHOLD);
+
+        } else {
+
+            ApplyCholesky.invoke(this, myRowDim, iterationPoint + 1, myColDim, tmpColumn);
+        }
+    }
+
+    public void applyLDL(final int iterationPoint, final BasicArray<RationalNumber> multipliers) {
+
+        final RationalSplitArray tmpColumn = this.cast(multipliers);
+
+        if ((myColDim - iterationPoint - 1) > ApplyLDL.THRESHOLD) {
+
+            final DivideAndConquer tmpConquerer = new DivideAndConquer() {
+
+                @Override
+                protected void conquer(final int first, final int limit) {
+                    ApplyLDL.invoke(RationalDenseStore.this, myRowDim, first, limit, tmpColumn, iterationPoint);
+                }
+            };
+
+            tmpConquerer.invoke(iterationPoint + 1, myColDim, ApplyLDL.THRESHOLD);
+
+        } else {
+
+            ApplyLDL.invoke(this, myRowDim, iterationPoint + 1, myColDim, tmpColumn, iterationPoint);
+        }
+    }
+
+    public void applyLU(final int iterationPoint, final BasicArray<RationalNumber> multipliers) {
+
+        final RationalSplitArray tmpColumn = this.cast(multipliers);
+
+        if ((myColDim - iterationPoint - 1) > ApplyLU.THRESHOLD) {
+
+            final DivideAndConquer tmpConquerer = new DivideAndConquer() {
+
+                @Override
+                protected void conquer(final int aFirst, final int aLimit) {
+                    ApplyLU.invoke(RationalDenseStore.this, myRowDim, aFirst, aLimit, tmpColumn, iterationPoint);
+                }
+            };
+
+            tmpConquerer.invoke(iterationPoint + 1, myColDim, ApplyLU.THRESHOLD);
+
+        } else {
+
+            ApplyLU.invoke(this, myRowDim, iterationPoint + 1, myColDim, tmpColumn, iterationPoint);
+        }
+    }
+
+    public Array1D<RationalNumber> asList() {
+        return myUtility.asArray1D();
+    }
+
+    public Array1D<ComplexNumber> computeInPlaceSchur(final PhysicalStore<RationalNumber> transformationCollector, final boolean eigenvalue) {
+        ProgrammingError.throwForUnsupportedOptionalOperation();
+        return null;
+    }
+
+    public MatrixStore<RationalNumber> conjugate() {
+        return new TransposedStore<>(this);
+    }
+
+    public RationalDenseStore copy() {
+        final RationalDenseStore retVal = new RationalDenseStore(myRowDim, myColDim);
+        retVal.fillMatching(this);
+        return retVal;
+    }
+
+    public long countColumns() {
+        return myColDim;
+    }
+
+    public long countRows() {
+        return myRowDim;
+    }
+
+    public void divideAndCopyColumn(final int row, final int column, final BasicArray<RationalNumber> destination) {
+
+        final int tmpRowDim = myRowDim;
+        final int tmpDiagIndex = row + (column * tmpRowDim);
+
+        final RationalSplitArray tmpDestination = destination instanceof RationalSplitArray ? (RationalSplitArray) destination : null;
+
+        for (int i = row + 1, tmpIndex = tmpDiagIndex + 1; i < tmpRowDim; i++, tmpIndex++) {
+            this.divide(tmpIndex, this, tmpDiagIndex);
+            if (tmpDestination != null) {
+                tmpDestination.copy(i, this, tmpIndex);
+            } else {
+                destination.set(i, this.get(tmpIndex));
+            }
+        }
+    }
+
+    public double doubleValue(final long row, final long col) {
+        return this.doubleValue(row + (col * myRowDim));
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public boolean equals(final Object anObj) {
+        if (anObj instanceof MatrixStore) {
+            return this.equals((MatrixStore<RationalNumber>) anObj, NumberContext.getGeneral(6));
+        } else {
+            return super.equals(anObj);
+        }
+    }
+
+    public void exchangeColumns(final long colA, final long colB) {
+        myUtility.exchangeColumns(colA, colB);
+    }
+
+    public void exchangeHermitian(final int indexA, final int indexB) {
+
+        final int tmpMin = Math.min(indexA, indexB);
+        final int tmpMax = Math.max(indexA, indexB);
+
+        RationalNumber tmpVal;
+        for (int j = 0; j < tmpMin; j++) {
+            tmpVal = this.get(tmpMin, j);
+            this.set(tmpMin, j, this.get(tmpMax, j));
+            this.set(tmpMax, j, tmpVal);
+        }
+
+        tmpVal = this.get(tmpMin, tmpMin);
+        this.set(tmpMin, tmpMin, this.get(tmpMax, tmpMax));
+        this.set(tmpMax, tmpMax, tmpVal);
+
+        for (int ij = tmpMin + 1; ij < tmpMax; ij++) {
+            tmpVal = this.get(ij, tmpMin);
+            this.set(ij, tmpMin, this.get(tmpMax, ij));
+            this.set(tmpMax, ij, tmpVal);
+        }
+
+        for (int i = tmpMax + 1; i < myRowDim; i++) {
+            tmpVal = this.get(i, tmpMin);
+            this.set(i, tmpMin, this.get(i, tmpMax));
+            this.set(i, tmpMax, tmpVal);
+        }
+    }
+
+    public void exchangeRows(final long rowA, final long rowB) {
+        myUtility.exchangeRows(rowA, rowB);
+    }
+
+    public void fillByMultiplying(final Access1D<RationalNumber> left, final Access1D<RationalNumber> right) {
+
+        final int complexity = ((int) left.count()) / myRowDim;
+
+        MultiplyNeither.invoke(this, this.cast(left), complexity, this.cast(right));
+    }
+
+    public void fillColumn(final long row, final long col, final Access1D<RationalNumber> values) {
+        myUtility.fillColumn(row, col, values);
+    }
+
+    public void fillColumn(final long row, final long col, final RationalNumber value) {
+        myUtility.fillColumn(row, col, value);
+    }
+
+    public void fillColumn(final long row, final long col, final NullaryFunction<RationalNumber> supplier) {
+        myUtility.fillColumn(row, col, supplier);
+    }
+
+    public void fillDiagonal(final long row, final long col, final RationalNumber value) {
+        myUtility.fillDiagonal(row, col, value);
+    }
+
+    public void fillDiagonal(final long row, final long col, final NullaryFunction<RationalNumber> supplier) {
+        myUtility.fillDiagonal(row, col, supplier);
+    }
+
+    @Override
+    public void fillMatching(final Access1D<?> values) {
+        if (values instanceof TransposedStore) {
+            this.fillTransposed(((TransposedStore<?>) values).getOriginal());
+        } else {
+            super.fillMatching(values);
+        }
+    }
+
+    @Override
+    public void fillMatching(final Access1D<RationalNumber> left, final BinaryFunction<RationalNumber> function, final Access1D<RationalNumber> right) {
+
+        final int matchingCount = (int) FunctionUtils.min(this.count(), left.count(), right.count());
+
+        if (myColDim > FillMatchingDual.THRESHOLD) {
+
+            final DivideAndConquer tmpConquerer = new DivideAndConquer() {
+
+                @Override
+                protected void conquer(final int first, final int limit) {
+                    RationalDenseStore.this.fill(first, limit, left, function, right);
+                }
+
+            };
+
+            tmpConquerer.invoke(0, matchingCount, FillMatchingDual.THRESHOLD * FillMatchingDual.THRESHOLD);
+
+        } else {
+
+            this.fill(0, matchingCount, left, function, right);
+        }
+    }
+
+    public void fillOne(final long row, final long col, final Access1D<?> values, final long valueIndex) {
+        this.set(row, col, values.get(valueIndex));
+    }
+
+    public void fillOne(final long row, final long col, final RationalNumber value) {
+        myUtility.fillOne(row, col, value);
+    }
+
+    public void fillOne(final long row, final long col, final NullaryFunction<RationalNumber> supplier) {
+        myUtility.fillOne(row, col, supplier);
+    }
+
+    public void fillRow(final long row, final long col, final Access1D<RationalNumber> values) {
+        myUtility.fillRow(row, col, values);
+    }
+
+    public void fillRow(final long row, final long col, final RationalNumber value) {
+        myUtility.fillRow(row, col, value);
+    }
+
+    public void fillRow(final long row, final long col, final NullaryFunction<RationalNumber> supplier) {
+        myUtility.fillRow(row, col, supplier);
+    }
+
+    public boolean generateApplyAndCopyHouseholderColumn(final int row, final int column, final Householder<RationalNumber> destination) {
+        return GenerateApplyAndCopyHouseholderColumn.invoke(this, myRowDim, row, column, (Householder.Generic<RationalNumber>) destination);
+    }
+
+    public boolean generateApplyAndCopyHouseholderRow(final int row, final int column, final Householder<RationalNumber> destination) {
+        return GenerateApplyAndCopyHouseholderRow.invoke(this, myRowDim, row, column, (Householder.Generic<RationalNumber>) destination);
+    }
+
+    public final MatrixStore<RationalNumber> get() {
+        return this;
+    }
+
+    public RationalNumber get(final long row, final long col) {
+        return myUtility.get(row, col);
+    }
+
+    @Override
+    public int hashCode() {
+        return MatrixUtils.hashCode(this);
+    }
+
+    public long indexOfLargestInColumn(final long row, final long col) {
+        return myUtility.indexOfLargestInColumn(row, col);
+    }
+
+    public long indexOfLargestInRow(final long row, final long col) {
+        return myUtility.indexOfLargestInRow(row, col);
+    }
+
+    public long indexOfLargestOnDiagonal(final long first) {
+        return myUtility.indexOfLargestOnDiagonal(first);
+    }
+
+    public boolean isAbsolute(final long row, final long col) {
+        return myUtility.isAbsolute(row, col);
+    }
+
+    public boolean isColumnSmall(final long row, final long col, final double comparedTo) {
+        return myUtility.isColumnSmall(row, col, comparedTo);
+    }
+
+    public boolean isRowSmall(final long row, final long col, final double comparedTo) {
+        return myUtility.isRowSmall(row, col, comparedTo);
+    }
+
+    public boolean isSmall(final long row, final long col, final double comparedTo) {
+        return myUtility.isSmall(row, col, comparedTo);
+    }
+
+    @Override
+    public void modifyAll(final UnaryFunction<RationalNumber> modifier) {
+
+        final int numberOfRows = myRowDim;
+        final int numberOfCols = myColDim;
+
+        if (numberOfCols > ModifyAll.THRESHOLD) {
+
+            final DivideAndConquer conquerer = new DivideAndConquer() {
+
+                @Override
+                public void conquer(final int aFirst, final int aLimit) {
+                    RationalDenseStore.this.modify(numberOfRows * aFirst, numberOfRows * aLimit, 1, modifier);
+                }
+
+            };
+
+            conquerer.invoke(0, numberOfCols, ModifyAll.THRESHOLD);
+
+        } else {
+
+            this.modify(0, numberOfRows * numberOfCols, 1, modifier);
+        }
+    }
+
+    public void modifyColumn(final long row, final long col, final UnaryFunction<RationalNumber> modifier) {
+        myUtility.modifyColumn(row, col, modifier);
+    }
+
+    public void modifyDiagonal(final long row, final long col, final UnaryFunction<RationalNumber> modifier) {
+        myUtility.modifyDiagonal(row, col, modifier);
+    }
+
+    @Override
+    public void modifyMatching(final Access1D<RationalNumber> left, final BinaryFunction<RationalNumber> function) {
+        final long tmpLimit = FunctionUtils.min(left.count(), this.count());
+        for (long i = 0L; i < tmpLimit; i++) {
+            this.fillOne(i, function.invoke(left.get(i), this.get(i)));
+        }
+    }
+
+    @Override
+    public void modifyMatching(final BinaryFunction<RationalNumber> function, final Access1D<RationalNumber> right) {
+        final long tmpLimit = FunctionUtils.min(this.count(), right.count());
+        for (long i = 0L; i < tmpLimit; i++) {
+            this.fillOne(i, function.invoke(this.get(i), right.get(i)));
+        }
+    }
+
+    public void modifyOne(final long row, final long col, final UnaryFunction<RationalNumber> modifier) {
+        this.set(row, col, modifier.invoke(this.get(row, col)));
+    }
+
+    public void modifyRow(final long row, final long col, final UnaryFunction<RationalNumber> modifier) {
+        myUtility.modifyRow(row, col, modifier);
+    }
+
+    public MatrixStore<RationalNumber> multiply(final MatrixStore<RationalNumber> right) {
+
+        final RationalDenseStore retVal = FACTORY.makeZero(myRowDim, right.count() / myColDim);
+
+        MultiplyNeither.invoke(retVal, this, myColDim, this.cast(right));
+
+        return retVal;
+    }
+
+    public RationalNumber multiplyBoth(final Access1D<RationalNumber> leftAndRight) {
+
+        final PhysicalStore<RationalNumber> tmpStep1 = FACTORY.makeZero(1L, leftAndRight.count());
+        final PhysicalStore<RationalNumber> tmpStep2 = FACTORY.makeZero(1L, 1L);
+
+        tmpStep1.fillByMultiplying(leftAndRight, this);
+
+        tmpStep2.fillByMultiplying(tmpStep1, leftAndRight);
+
+        return tmpStep2.get(0L);
+    }
+
+    public void negateColumn(final int column) {
+        myUtility.modifyColumn(0, column, RationalFunction.NEGATE);
+    }
+
+    public PhysicalStore.Factory<RationalNumber, RationalDenseStore> physical() {
+        return FACTORY;
+    }
+
+    public final ElementsConsumer<RationalNumber> regionByColumns(final int... columns) {
+        return new ElementsConsumer.ColumnsRegion<>(this, multiplyBoth, columns);
+    }
+
+    public final ElementsConsumer<RationalNumber> regionByLimits(final int rowLimit, final int columnLimit) {
+        return new ElementsConsumer.LimitRegion<>(this, multiplyBoth, rowLimit, columnLimit);
+    }
+
+    public final ElementsConsumer<RationalNumber> regionByOffsets(final int rowOffset, final int columnOffset) {
+        return new ElementsConsumer.OffsetRegion<>(this, multiplyBoth, rowOffset, columnOffset);
+    }
+
+    public final ElementsConsumer<RationalNumber> regionByRows(final int... rows) {
+        return new ElementsConsumer.RowsRegion<>(this, multiplyBoth, rows);
+    }
+
+    public final ElementsConsumer<RationalNumber> regionByTransposing() {
+        return new ElementsConsumer.TransposedRegion<>(this, multiplyBoth);
+    }
+
+    public void rotateRight(final int low, final int high, final double cos, final double sin) {
+        RotateRight.invoke(this, myRowDim, low, high, RationalNumber.valueOf(cos), RationalNumber.valueOf(sin));
+    }
+
+    public void set(final long row, final long col, final double value) {
+        myUtility.set(row, col, value);
+    }
+
+    public void set(final long row, final long col, final Number value) {
+        myUtility.set(row, col, value);
+    }
+
+    public void setToIdentity(final int col) {
+        myUtility.set(col, col, RationalNumber.ONE);
+        myUtility.fillColumn(col + 1, col, RationalNumber.ZERO);
+    }
+
+    public Array1D<RationalNumber> sliceColumn(final long row, final long col) {
+        return myUtility.sliceColumn(row, col);
+    }
+
+    public Array1D<RationalNumber> sliceDiagonal(final long row, final long col) {
+        return myUtility.sliceDiagonal(row, col);
+    }
+
+    public Array1D<RationalNumber> sliceRange(final long first, final long limit) {
+        return myUtility.sliceRange(first, limit);
+    }
+
+    public Array1D<RationalNumber> sliceRow(final long row, final long col) {
+        return myUtility.sliceRow(row, col);
+    }
+
+    public void substituteBackwards(final Access2D<RationalNumber> body, final boolean unitDiagonal, final boolean conjugated, final boolean hermitian) {
+
+        final int tmpRowDim = myRowDim;
+        final int tmpColDim = myColDim;
+
+        if (tmpColDim > SubstituteBackwards.THRESHOLD) {
+
+            final DivideAndConquer tmpConquerer = new DivideAndConquer() {
+
+                @Override
+                public void conquer(final int aFirst, final int aLimit) {
+                    SubstituteBackwards.invoke(RationalDenseStore.this, tmpRowDim, aFirst, aLimit, body, unitDiagonal, conjugated, hermitian);
+                }
+
+            };
+
+            tmpConquerer.invoke(0, tmpColDim, SubstituteBackwards.THRESHOLD);
+
+        } else {
+
+            SubstituteBackwards.invoke(this, tmpRowDim, 0, tmpColDim, body, unitDiagonal, conjugated, hermitian);
+        }
+    }
+
+    public void substituteForwards(final Access2D<RationalNumber> body, final boolean unitDiagonal, final boolean conjugated, final boolean identity) {
+
+        final int tmpRowDim = myRowDim;
+        final int tmpColDim = myColDim;
+
+        if (tmpColDim > SubstituteForwards.THRESHOLD) {
+
+            final DivideAndConquer tmpConquerer = new DivideAndConquer() {
+
+                @Override
+                public void conquer(final int aFirst, final int aLimit) {
+                    SubstituteForwards.invoke(RationalDenseStore.this, tmpRowDim, aFirst, aLimit, body, unitDiagonal, conjugated, identity);
+                }
+
+            };
+
+            tmpConquerer.invoke(0, tmpColDim, SubstituteForwards.THRESHOLD);
+
+        } else {
+
+            SubstituteForwards.invoke(this, tmpRowDim, 0, tmpColDim, body, unitDiagonal, conjugated, identity);
+        }
+    }
+
+    public void supplyTo(final ElementsConsumer<RationalNumber> receiver) {
+        receiver.fillMatching(this);
+    }
+
+    public Scalar<RationalNumber> toScalar(final long row, final long column) {
+        return myUtility.get(row, column);
+    }
+
+    @Override
+    public final String toString() {
+        return Access2D.toString(this);
+    }
+
+    public void transformLeft(final Householder<RationalNumber> transformation, final int firstColumn) {
+
+        final Householder.Generic<RationalNumber> tmpTransf = this.cast(transformation);
+
+        final int tmpRowDim = myRowDim;
+        final int tmpColDim = myColDim;
+
+        if ((tmpColDim - firstColumn) > HouseholderLeft.THRESHOLD) {
+
+            final DivideAndConquer tmpConquerer = new DivideAndConquer() {
+
+                @Override
+                public void conquer(final int aFirst, final int aLimit) {
+                    HouseholderLeft.invoke(RationalDenseStore.this, tmpRowDim, aFirst, aLimit, tmpTransf);
+                }
+
+            };
+
+            tmpConquerer.invoke(firstColumn, tmpColDim, HouseholderLeft.THRESHOLD);
+
+        } else {
+
+            HouseholderLeft.invoke(this, tmpRowDim, firstColumn, tmpColDim, tmpTransf);
+        }
+    }
+
+    public void transformLeft(final Rotation<RationalNumber> transformation) {
+
+        final Rotation.Generic<RationalNumber> tmpTransf = this.cast(transformation);
+
+        final int tmpLow = tmpTransf.low;
+        final int tmpHigh = tmpTransf.high;
+
+        if (tmpLow != tmpHigh) {
+            if ((tmpTransf.cos != null) && (tmpTransf.sin != null)) {
+                RotateLeft.invoke(this, myRowDim, tmpLow, tmpHigh, tmpTransf.cos, tmpTransf.sin);
+            } else {
+                myUtility.exchangeRows(tmpLow, tmpHigh);
+            }
+        } else {
+            if (tmpTransf.cos != null) {
+                myUtility.modifyRow(tmpLow, 0, RationalFunction.MULTIPLY.second(tmpTransf.cos));
+            } else if (tmpTransf.sin != null) {
+                myUtility.modifyRow(tmpLow, 0, RationalFunction.DIVIDE.second(tmpTransf.sin));
+            } else {
+                myUtility.modifyRow(tmpLow, 0, RationalFunction.NEGATE);
+            }
+        }
+    }
+
+    public void transformRight(final Householder<RationalNumber> transformation, final int firstRow) {
+
+        final Householder.Generic<RationalNumber> tmpTransf = this.cast(transformation);
+
+        final int tmpRowDim = myRowDim;
+        final int tmpColDim = myColDim;
+
+        if ((tmpRowDim - firstRow) > HouseholderRight.THRESHOLD) {
+
+            final DivideAndConquer tmpConquerer = new DivideAndConquer() {
+
+                @Override
+                public void conquer(final int aFirst, final int aLimit) {
+                    HouseholderRight.invoke(RationalDenseStore.this, aFirst, aLimit, tmpColDim, tmpTransf);
+                }
+
+            };
+
+            tmpConquerer.invoke(firstRow, tmpRowDim, HouseholderRight.THRESHOLD);
+
+        } else {
+
+            HouseholderRight.invoke(this, firstRow, tmpRowDim, tmpColDim, tmpTransf);
+        }
+    }
+
+    public void transformRight(final Rotation<RationalNumber> transformation) {
+
+        final Rotation.Generic<RationalNumber> tmpTransf = this.cast(transformation);
+
+        final int tmpLow = tmpTransf.low;
+        final int tmpHigh = tmpTransf.high;
+
+        if (tmpLow != tmpHigh) {
+            if ((tmpTransf.cos != null) && (tmpTransf.sin != null)) {
+                RotateRight.invoke(this, myRowDim, tmpLow, tmpHigh, tmpTransf.cos, tmpTransf.sin);
+            } else {
+                myUtility.exchangeColumns(tmpLow, tmpHigh);
+            }
+        } else {
+            if (tmpTransf.cos != null) {
+                myUtility.modifyColumn(0, tmpHigh, RationalFunction.MULTIPLY.second(tmpTransf.cos));
+            } else if (tmpTransf.sin != null) {
+                myUtility.modifyColumn(0, tmpHigh, RationalFunction.DIVIDE.second(tmpTransf.sin));
+            } else {
+                myUtility.modifyColumn(0, tmpHigh, RationalFunction.NEGATE);
+            }
+        }
+    }
+
+    public void transformSymmetric(final Householder<RationalNumber> transformation) {
+        HouseholderHermitian.invoke(this, this.cast(transformation), this.getWorkerColumn());
+    }
+
+    public MatrixStore<RationalNumber> transpose() {
+        return new TransposedStore<>(this);
+    }
+
+    public void tred2(final BasicArray<RationalNumber> mainDiagonal, final BasicArray<RationalNumber> offDiagonal, final boolean yesvecs) {
+        ProgrammingError.throwForUnsupportedOptionalOperation();
+    }
+
+    public void visitColumn(final long row, final long col, final VoidFunction<RationalNumber> visitor) {
+        myUtility.visitColumn(row, col, visitor);
+    }
+
+    public void visitDiagonal(final long row, final long col, final VoidFunction<RationalNumber> visitor) {
+        myUtility.visitDiagonal(row, col, visitor);
+    }
+
+    public void visitRow(final long row, final long col, final VoidFunction<RationalNumber> visitor) {
+        myUtility.visitRow(row, col, visitor);
+    }
+
+    private RationalDenseStore cast(final Access1D<RationalNumber> matrix) {
+        if (matrix instanceof RationalDenseStore) {
+            return (RationalDenseStore) matrix;
+        } else if (matrix instanceof Access2D<?>) {
+            return FACTORY.copy((Access2D<?>) matrix);
+        } else {
+            return FACTORY.columns(matrix);
+        }
+    }
+
+    private RationalSplitArray cast(final BasicArray<RationalNumber> array) {
+        if (array instanceof RationalSplitArray) {
+            return (RationalSplitArray) array;
+        } else {
+            final RationalSplitArray retVal = RationalSplitArray.make((int) array.count());
+            retVal.fillMatching(array);
+            return retVal;
+        }
+    }
+
+    private Householder.Generic<RationalNumber> cast(final Householder<RationalNumber> transformation) {
+        if (transformation instanceof Householder.Generic) {
+            return (Householder.Generic<RationalNumber>) transformation;
+        } else if (transformation instanceof HouseholderReference<?>) {
+            return ((Householder.Generic<RationalNumber>) ((HouseholderReference<RationalNumber>) transformation).getWorker(FACTORY)).copy(transformation);
+        } else {
+            return new Householder.Generic<>(RationalNumber.FACTORY, transformation);
+        }
+    }
+
+    private Rotation.Generic<RationalNumber> cast(final Rotation<RationalNumber> transformation) {
+        if (transformation instanceof Rotation.Generic) {
+            return (Rotation.Generic<RationalNumber>) transformation;
+        } else {
+            return new Rotation.Generic<>(transformation);
+        }
+    }
+
+    /**
+     * Fill this with the transpose of source.
+     */
+    private void fillTransposed(final Access2D<?> source) {
+
+        final int tmpRowDim = myRowDim;
+        final int tmpColDim = myColDim;
+
+        if (source instanceof RationalDenseStore) {
+
+            final RationalDenseStore tmpSource = (RationalDenseStore) source;
+
+            for (int j = 0; j < tmpColDim; j++) {
+                for (int i = 0; i < tmpRowDim; i++) {
+                    this.copy(i + (j * tmpRowDim), tmpSource, j + (i * tmpColDim));
+                }
+            }
+
+        } else {
+
+            for (int j = 0; j < tmpColDim; j++) {
+                for (int i = 0; i < tmpRowDim; i++) {
+                    this.set(i + (j * tmpRowDim), source.get(j, i));
+                }
+            }
+        }
+    }
+
+    private RationalSplitArray getWorkerColumn() {
+
+        if (myWorkerColumn == null) {
+            myWorkerColumn = RationalSplitArray.make(myRowDim);
+        } else {
+            myWorkerColumn.reset();
+        }
+
+        return myWorkerColumn;
+    }
+
+    int getColDim() {
+        return myColDim;
+    }
+
+    int getMaxDim() {
+        return Math.max(myRowDim, myColDim);
+    }
+
+    int getMinDim() {
+        return Math.min(myRowDim, myColDim);
+    }
+
+    int getRowDim() {
+        return myRowDim;
+    }
+
+}
@@ -34,6 +34,7 @@ import org.ojalgo.array.DenseArray;
 import org.ojalgo.array.Primitive64Array;
 import org.ojalgo.array.Raw1D;
 import org.ojalgo.array.Raw2D;
+import org.ojalgo.array.blas.GEMM;
 import org.ojalgo.constant.PrimitiveMath;
 import org.ojalgo.function.BinaryFunction;
 import org.ojalgo.function.FunctionSet;
@@ -47,6 +48,7 @@ import org.ojalgo.function.aggregator.AggregatorSet;
 import org.ojalgo.function.aggregator.PrimitiveAggregator;
 import org.ojalgo.matrix.MatrixUtils;
 import org.ojalgo.matrix.store.operation.MultiplyBoth;
+import org.ojalgo.matrix.store.operation.MultiplyNeither;
 import org.ojalgo.matrix.transformation.Householder;
 import org.ojalgo.matrix.transformation.Rotation;
 import org.ojalgo.scalar.PrimitiveScalar;
@@ -469,12 +471,36 @@ public final class RawStore extends Object implements PhysicalStore<Double> {
         return retVal;
     }
 
+    /**
+     * @return All rows concatenated
+     */
+    private static double[] flatten(final double[][] rows) {
+        final int tmpColDim = rows[0].length;
+        final double[] retVal = new double[rows.length * tmpColDim];
+        for (int i = 0; i < rows.length; i++) {
+            System.arraycopy(rows[i], 0, retVal, i * tmpColDim, tmpColDim);
+        }
+        return retVal;
+    }
+
     private static void multiply(final double[][] product, final double[][] left, final double[][] right) {
 
         final int tmpRowsCount = product.length;
         final int tmpComplexity = right.length;
         final int tmpColsCount = right[0].length;
 
+        if ((tmpRowsCount > GEMM.THRESHOLD) && (tmpColsCount > GEMM.THRESHOLD) && (tmpComplexity > GEMM.THRESHOLD)) {
+            // The rows of a row-major matrix concatenated is the column-major transpose: [C]T = [B]T[A]T
+            final double[] tmpProductT = new double[tmpRowsCount * tmpColsCount];
+            final double[] tmpLeftT = RawStore.flatten(right);
+            final double[] tmpRightT = RawStore.flatten(left);
+            MultiplyNeither.getPrimitive(tmpColsCount, tmpRowsCount).invoke(tmpProductT, tmpLeftT, tmpComplexity, tmpRightT);
+            for (int i = 0; i < tmpRowsCount; i++) {
+                System.arraycopy(tmpProductT, i * tmpColsCount, product[i], 0, tmpColsCount);
+            }
+            return;
+        }
+
         double[] tmpRow;
         final double[] tmpColumn = new double[tmpComplexity];
         for (int j = 0; j < tmpColsCount; j++) {
@@ -33,6 +33,7 @@ import org.ojalgo.function.UnaryFunction;
 import org.ojalgo.function.VoidFunction;
 import org.ojalgo.function.aggregator.Aggregator;
 import org.ojalgo.matrix.store.operation.MultiplyBoth;
+import org.ojalgo.matrix.store.operation.MultiplySparse;
 import org.ojalgo.scalar.ComplexNumber;
 import org.ojalgo.scalar.Quaternion;
 import org.ojalgo.scalar.RationalNumber;
@@ -90,9 +91,24 @@ public final class SparseStore<N extends Number> extends FactoryStore<N> impleme
         return SparseStore.makeSparse(physical, shape.countRows(), shape.countColumns());
     }
 
+    /**
+     * Converting to {@link CompressedRowStore} only pays off when the multiplication can then be split
+     * between several threads.
+     */
+    static boolean isParallel(final SparseStore<?> store) {
+        final long threshold = MultiplySparse.THRESHOLD;
+        return (store.countRows() > threshold) && (store.myElements.countNonzeros() > threshold) && (MultiplySparse.SETUP.workers() > 1);
+    }
+
     static <N extends Number> void multiply(final SparseStore<N> left, final SparseStore<N> right, final ElementsConsumer<N> target) {
 
-        if (left.isPrimitive()) {
+        if (left.isPrimitive() && right.isPrimitive() && SparseStore.isParallel(left)) {
+
+            final CompressedRowStore product = (CompressedRowStore) left.getCompressedRows().multiply(right.getCompressedRows());
+
+            product.supplyInto(target);
+
+        } else if (left.isPrimitive()) {
 
             target.reset();
 
@@ -106,6 +122,11 @@ public final class SparseStore<N extends Number> extends FactoryStore<N> impleme
         }
     }
 
+    /**
+     * Lazily created (primitive) CSR copy of the elements, used for repeated multiplications. Discarded on
+     * any mutation.
+     */
+    private volatile CompressedRowStore myCompressedRows = null;
     private final SparseArray<N> myElements;
     private final int[] myFirsts;
     private final int[] myLimits;
@@ -227,6 +248,8 @@ public final class SparseStore<N extends Number> extends FactoryStore<N> impleme
         final long limit = Math.min(left.count(), this.count());
         boolean notModifiesZero = function.invoke(E, ZERO) == ZERO;
 
+        this.discardCompressed();
+
         if (this.isPrimitive()) {
             if (notModifiesZero) {
                 for (NonzeroView<N> element : myElements.nonzeros()) {
@@ -255,6 +278,8 @@ public final class SparseStore<N extends Number> extends FactoryStore<N> impleme
         final long limit = Math.min(this.count(), right.count());
         boolean notModifiesZero = function.invoke(ZERO, E) == ZERO;
 
+        this.discardCompressed();
+
         if (this.isPrimitive()) {
             if (notModifiesZero) {
                 for (NonzeroView<N> element : myElements.nonzeros()) {
@@ -292,6 +317,11 @@ public final class SparseStore<N extends Number> extends FactoryStore<N> impleme
 
             SparseStore.multiply(this, (SparseStore<N>) right, target);
 
+        } else if (this.isPrimitive() && (this.countRows() > MultiplySparse.THRESHOLD)) {
+
+            // Row-by-row, with the rows partitioned by nonzero count when multi threaded
+            this.getCompressedRows().multiplyInto(right, target);
+
         } else if (this.isPrimitive()) {
 
             final long complexity = this.countColumns();
@@ -489,6 +519,7 @@ public final class SparseStore<N extends Number> extends FactoryStore<N> impleme
     }
 
     public void reset() {
+        this.discardCompressed();
         myElements.reset();
         Arrays.fill(myFirsts, this.getColDim());
         Arrays.fill(myLimits, 0);
@@ -542,6 +573,12 @@ public final class SparseStore<N extends Number> extends FactoryStore<N> impleme
         }
     }
 
+    private void discardCompressed() {
+        if (myCompressedRows != null) {
+            myCompressedRows = null;
+        }
+    }
+
     private void updateNonZeros(final long row, final long col) {
         this.updateNonZeros((int) row, (int) col);
     }
@@ -556,7 +593,24 @@ public final class SparseStore<N extends Number> extends FactoryStore<N> impleme
         myElements.visitPrimitiveNonzerosInRange(first, limit, (index, value) -> y.add(Structure2D.row(index, structure), colY, a * value));
     }
 
+    /**
+     * @return A CSR copy of the (primitive) elements, cached until this store is next modified
+     */
+    CompressedRowStore getCompressedRows() {
+        CompressedRowStore retVal = myCompressedRows;
+        if (retVal == null) {
+            synchronized (this) {
+                retVal = myCompressedRows;
+                if (retVal == null) {
+                    myCompressedRows = retVal = CompressedRowStore.copy(this);
+                }
+            }
+        }
+        return retVal;
+    }
+
     void updateNonZeros(final int row, final int col) {
+        this.discardCompressed();
         myFirsts[row] = Math.min(col, myFirsts[row]);
         myLimits[row] = Math.max(col + 1, myLimits[row]);
     }
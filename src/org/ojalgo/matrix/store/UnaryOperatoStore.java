@@ -21,6 +21,7 @@
  */
 package org.ojalgo.matrix.store;
 
+import org.ojalgo.function.BinaryFunction;
 import org.ojalgo.function.UnaryFunction;
 
 final class UnaryOperatoStore<N extends Number> extends LogicalStore<N> {
@@ -42,4 +43,17 @@ final class UnaryOperatoStore<N extends Number> extends LogicalStore<N> {
         return myOperator.invoke(this.getBase().get(row, col));
     }
 
+    @Override
+    public MatrixStore<N> operateOnAll(final UnaryFunction<N> operator) {
+        return new UnaryOperatoStore<>(this.getBase(), myOperator.andThen(operator));
+    }
+
+    public ElementsSupplier<N> operateOnMatching(final BinaryFunction<N> operator, final MatrixStore<N> right) {
+        return new MatrixPipeline.BinaryOperatorRight<>(this.getBase(), MatrixPipeline.composeFirst(operator, myOperator), right);
+    }
+
+    public ElementsSupplier<N> operateOnMatching(final MatrixStore<N> left, final BinaryFunction<N> operator) {
+        return new MatrixPipeline.BinaryOperatorLeft<>(left, MatrixPipeline.composeSecond(operator, myOperator), this.getBase());
+    }
+
 }
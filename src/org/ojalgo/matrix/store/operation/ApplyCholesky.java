@@ -21,6 +21,8 @@
  */
 package org.ojalgo.matrix.store.operation;
 
+import org.ojalgo.array.ComplexSplitArray;
+import org.ojalgo.array.RationalSplitArray;
 import org.ojalgo.array.blas.AXPY;
 import org.ojalgo.scalar.Scalar;
 
@@ -36,6 +38,25 @@ public final class ApplyCholesky extends MatrixOperation {
         }
     }
 
+    public static void invoke(final ComplexSplitArray data, final int structure, final int firstColumn, final int columnLimit,
+            final ComplexSplitArray multipliers) {
+        final double[] tmpRe = multipliers.real;
+        final double[] tmpIm = multipliers.imaginary;
+        for (int j = firstColumn; j < columnLimit; j++) {
+            AXPY.invoke(data.real, data.imaginary, j * structure, -tmpRe[j], tmpIm[j], tmpRe, tmpIm, 0, j, structure);
+        }
+    }
+
+    public static void invoke(final RationalSplitArray data, final int structure, final int firstColumn, final int columnLimit,
+            final RationalSplitArray multipliers) {
+        for (int j = firstColumn; j < columnLimit; j++) {
+            final int tmpColBase = j * structure;
+            for (int i = j; i < structure; i++) {
+                data.subtractProduct(i + tmpColBase, multipliers, j, multipliers, i);
+            }
+        }
+    }
+
     public static <N extends Number & Scalar<N>> void invoke(final N[] data, final int structure, final int firstColumn, final int columnLimit,
             final N[] multipliers) {
         for (int j = firstColumn; j < columnLimit; j++) {
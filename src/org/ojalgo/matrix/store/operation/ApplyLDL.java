@@ -21,6 +21,8 @@
  */
 package org.ojalgo.matrix.store.operation;
 
+import org.ojalgo.array.ComplexSplitArray;
+import org.ojalgo.array.RationalSplitArray;
 import org.ojalgo.array.blas.AXPY;
 import org.ojalgo.scalar.Scalar;
 
@@ -38,6 +40,35 @@ public final class ApplyLDL extends MatrixOperation {
         }
     }
 
+    public static void invoke(final ComplexSplitArray data, final int structure, final int firstColumn, final int columnLimit,
+            final ComplexSplitArray multipliers, final int iterationPoint) {
+        final double[] tmpRe = multipliers.real;
+        final double[] tmpIm = multipliers.imaginary;
+        final double tmpDiagRe = data.real[iterationPoint + (iterationPoint * structure)];
+        final double tmpDiagIm = data.imaginary[iterationPoint + (iterationPoint * structure)];
+        for (int j = firstColumn; j < columnLimit; j++) {
+            // -(diag * conj(multipliers[j]))
+            final double tmpScaleRe = -((tmpDiagRe * tmpRe[j]) + (tmpDiagIm * tmpIm[j]));
+            final double tmpScaleIm = -((tmpDiagIm * tmpRe[j]) - (tmpDiagRe * tmpIm[j]));
+            AXPY.invoke(data.real, data.imaginary, j * structure, tmpScaleRe, tmpScaleIm, tmpRe, tmpIm, 0, j, structure);
+        }
+    }
+
+    public static void invoke(final RationalSplitArray data, final int structure, final int firstColumn, final int columnLimit,
+            final RationalSplitArray multipliers, final int iterationPoint) {
+        final int tmpDiagIndex = iterationPoint + (iterationPoint * structure);
+        final RationalSplitArray tmpScale = RationalSplitArray.make(1);
+        for (int j = firstColumn; j < columnLimit; j++) {
+            // diag * multipliers[j]
+            tmpScale.reset();
+            tmpScale.addProduct(0, data, tmpDiagIndex, multipliers, j);
+            final int tmpColBase = j * structure;
+            for (int i = j; i < structure; i++) {
+                data.subtractProduct(i + tmpColBase, tmpScale, 0, multipliers, i);
+            }
+        }
+    }
+
     public static <N extends Number & Scalar<N>> void invoke(final N[] data, final int structure, final int firstColumn, final int columnLimit,
             final N[] multipliers, final int iterationPoint) {
         final Scalar<N> tmpDiagVal = data[iterationPoint + (iterationPoint * structure)];
@@ -21,6 +21,8 @@
  */
 package org.ojalgo.matrix.store.operation;
 
+import org.ojalgo.array.ComplexSplitArray;
+import org.ojalgo.array.RationalSplitArray;
 import org.ojalgo.array.blas.AXPY;
 import org.ojalgo.scalar.Scalar;
 
@@ -37,6 +39,28 @@ public final class ApplyLU extends MatrixOperation {
         }
     }
 
+    public static void invoke(final ComplexSplitArray data, final int structure, final int firstColumn, final int columnLimit,
+            final ComplexSplitArray multipliers, final int iterationPoint) {
+        final double[] tmpRe = data.real;
+        final double[] tmpIm = data.imaginary;
+        for (int j = firstColumn; j < columnLimit; j++) {
+            final int tmpIndex = iterationPoint + (j * structure);
+            AXPY.invoke(tmpRe, tmpIm, j * structure, -tmpRe[tmpIndex], -tmpIm[tmpIndex], multipliers.real, multipliers.imaginary, 0, iterationPoint + 1,
+                    structure);
+        }
+    }
+
+    public static void invoke(final RationalSplitArray data, final int structure, final int firstColumn, final int columnLimit,
+            final RationalSplitArray multipliers, final int iterationPoint) {
+        for (int j = firstColumn; j < columnLimit; j++) {
+            final int tmpColBase = j * structure;
+            final int tmpIndex = iterationPoint + tmpColBase;
+            for (int i = iterationPoint + 1; i < structure; i++) {
+                data.subtractProduct(i + tmpColBase, multipliers, i, data, tmpIndex);
+            }
+        }
+    }
+
     public static <N extends Number & Scalar<N>> void invoke(final N[] data, final int structure, final int firstColumn, final int columnLimit,
             final N[] multipliers, final int iterationPoint) {
         for (int j = firstColumn; j < columnLimit; j++) {
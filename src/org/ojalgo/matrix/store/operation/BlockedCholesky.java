@@ -0,0 +1,133 @@
+/*
+ * Copyright 1997-2018 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.matrix.store.operation;
+
+import org.ojalgo.array.blas.AXPY;
+import org.ojalgo.array.blas.GEMM;
+import org.ojalgo.concurrent.DivideAndConquer;
+import org.ojalgo.constant.PrimitiveMath;
+import org.ojalgo.function.PrimitiveFunction;
+
+/**
+ * Blocked, right-looking, Cholesky decomposition of a column-major double[]. Each panel of
+ * {@link #BLOCK} columns is factored using {@link ApplyCholesky} (level-2), and then the trailing
+ * matrix is updated with {@link GEMM#subtract(double[], int, int, int, int, int, double[], int, int, double[], int, int, int, boolean)}
+ * (level-3) - in parallel over its columns.
+ *
+ * @author apete
+ */
+public final class BlockedCholesky extends MatrixOperation {
+
+    public static final BlockedCholesky SETUP = new BlockedCholesky();
+
+    /**
+     * The panel width
+     */
+    public static final int BLOCK = 64;
+
+    /**
+     * Matrices with more than twice as many rows and columns are decomposed in blocks, and the trailing
+     * matrix is updated in parallel when it has more than this many columns.
+     */
+    public static int THRESHOLD = 64;
+
+    /**
+     * Only the lower triangular part of data is referenced and modified.
+     *
+     * @param data The (square) matrix to decompose, column-major
+     * @param dim The number of rows/columns
+     * @return The number of columns successfully factored - equal to dim if the matrix is positive definite
+     */
+    public static int invoke(final double[] data, final int dim) {
+
+        final int tmpBlock = BLOCK;
+        final int tmpParallel = Math.max(1, THRESHOLD);
+        final double[] tmpMultipliers = new double[dim];
+
+        for (int k = 0; k < dim; k += tmpBlock) {
+            final int tmpPanel = k;
+            final int tmpPanelLimit = Math.min(k + tmpBlock, dim);
+
+            for (int j = k; j < tmpPanelLimit; j++) {
+
+                final int tmpColBase = j * dim;
+                final double tmpDiagonal = data[j + tmpColBase];
+
+                if (!(tmpDiagonal > PrimitiveMath.ZERO)) {
+                    return j;
+                }
+
+                final double tmpDivisor = data[j + tmpColBase] = PrimitiveFunction.SQRT.invoke(tmpDiagonal);
+                for (int i = j + 1; i < dim; i++) {
+                    tmpMultipliers[i] = data[i + tmpColBase] /= tmpDivisor;
+                }
+
+                ApplyCholesky.invoke(data, dim, j + 1, tmpPanelLimit, tmpMultipliers);
+            }
+
+            if ((dim - tmpPanelLimit) > tmpParallel) {
+
+                final DivideAndConquer tmpConquerer = new DivideAndConquer() {
+
+                    @Override
+                    protected void conquer(final int first, final int limit) {
+                        BlockedCholesky.update(data, dim, first, limit, tmpPanel, tmpPanelLimit, tmpBlock);
+                    }
+                };
+
+                tmpConquerer.invoke(tmpPanelLimit, dim, tmpParallel);
+
+            } else {
+
+                BlockedCholesky.update(data, dim, tmpPanelLimit, dim, k, tmpPanelLimit, tmpBlock);
+            }
+        }
+
+        return dim;
+    }
+
+    /**
+     * Subtracts [L21][L21]<sup>T</sup> from (the lower triangular part of) the columns [first,limit) of the
+     * trailing matrix, where [L21] are the already factored panel columns [panel,panelLimit).
+     */
+    static void update(final double[] data, final int dim, final int first, final int limit, final int panel, final int panelLimit, final int width) {
+        for (int c = first; c < limit; c += width) {
+            final int tmpLimit = Math.min(c + width, limit);
+            for (int j = c; j < tmpLimit; j++) {
+                for (int p = panel; p < panelLimit; p++) {
+                    AXPY.invoke(data, j * dim, -data[j + (p * dim)], data, p * dim, j, tmpLimit);
+                }
+            }
+            GEMM.subtract(data, dim, tmpLimit, dim, c, tmpLimit, data, dim, panel, data, dim, panel, panelLimit - panel, true);
+        }
+    }
+
+    private BlockedCholesky() {
+        super();
+    }
+
+    @Override
+    public int threshold() {
+        return THRESHOLD;
+    }
+
+}
@@ -0,0 +1,148 @@
+/*
+ * Copyright 1997-2018 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.matrix.store.operation;
+
+import org.ojalgo.array.blas.AMAX;
+import org.ojalgo.array.blas.AXPY;
+import org.ojalgo.array.blas.GEMM;
+import org.ojalgo.concurrent.DivideAndConquer;
+import org.ojalgo.constant.PrimitiveMath;
+import org.ojalgo.type.context.NumberContext;
+
+/**
+ * Blocked, right-looking, LU decomposition (with partial pivoting) of a column-major double[]. Each panel
+ * of {@link #BLOCK} columns is factored using {@link ApplyLU} (level-2). Then the corresponding block
+ * row of [U] is solved for, and the trailing matrix updated with
+ * {@link GEMM#subtract(double[], int, int, int, int, int, double[], int, int, double[], int, int, int, boolean)}
+ * (level-3) - both in parallel over the columns.
+ *
+ * @author apete
+ */
+public final class BlockedLU extends MatrixOperation {
+
+    public static final BlockedLU SETUP = new BlockedLU();
+
+    /**
+     * The panel width
+     */
+    public static final int BLOCK = 64;
+
+    /**
+     * Matrices with more than twice as many rows and columns are decomposed in blocks, and the trailing
+     * matrix is updated in parallel when it has more than this many columns.
+     */
+    public static int THRESHOLD = 64;
+
+    /**
+     * @param data The matrix to decompose, column-major
+     * @param rows The number of rows
+     * @param columns The number of columns
+     * @param pivots Will be filled with the pivot rows - at step j row j was exchanged with row pivots[j]. If
+     *        null no pivoting is done.
+     */
+    public static void invoke(final double[] data, final int rows, final int columns, final int[] pivots) {
+
+        final int tmpBlock = BLOCK;
+        final int tmpParallel = Math.max(1, THRESHOLD);
+        final int tmpMinDim = Math.min(rows, columns);
+        final double[] tmpMultipliers = new double[rows];
+
+        for (int k = 0; k < tmpMinDim; k += tmpBlock) {
+            final int tmpPanel = k;
+            final int tmpPanelLimit = Math.min(k + tmpBlock, tmpMinDim);
+
+            for (int j = k; j < tmpPanelLimit; j++) {
+
+                final int tmpColBase = j * rows;
+
+                if (pivots != null) {
+                    final int tmpPivotRow = AMAX.invoke(data, j + tmpColBase, tmpColBase + rows, 1) - tmpColBase;
+                    pivots[j] = tmpPivotRow;
+                    if (tmpPivotRow != j) {
+                        for (int c = 0; c < columns; c++) {
+                            final int tmpIndexA = j + (c * rows);
+                            final int tmpIndexB = tmpPivotRow + (c * rows);
+                            final double tmpVal = data[tmpIndexA];
+                            data[tmpIndexA] = data[tmpIndexB];
+                            data[tmpIndexB] = tmpVal;
+                        }
+                    }
+                }
+
+                final double tmpDivisor = data[j + tmpColBase];
+
+                if (NumberContext.compare(tmpDivisor, PrimitiveMath.ZERO) != 0) {
+                    for (int i = j + 1; i < rows; i++) {
+                        tmpMultipliers[i] = data[i + tmpColBase] /= tmpDivisor;
+                    }
+                    ApplyLU.invoke(data, rows, j + 1, tmpPanelLimit, tmpMultipliers, j);
+                } else {
+                    // No transformation - make sure the trailing matrix updates agree
+                    for (int i = j; i < rows; i++) {
+                        data[i + tmpColBase] = PrimitiveMath.ZERO;
+                    }
+                }
+            }
+
+            if ((columns - tmpPanelLimit) > tmpParallel) {
+
+                final DivideAndConquer tmpConquerer = new DivideAndConquer() {
+
+                    @Override
+                    protected void conquer(final int first, final int limit) {
+                        BlockedLU.update(data, rows, first, limit, tmpPanel, tmpPanelLimit);
+                    }
+                };
+
+                tmpConquerer.invoke(tmpPanelLimit, columns, tmpParallel);
+
+            } else {
+
+                BlockedLU.update(data, rows, tmpPanelLimit, columns, tmpPanel, tmpPanelLimit);
+            }
+        }
+    }
+
+    /**
+     * Solves for the block row of [U], [U12] = [L11]<sup>-1</sup>[A12], and then subtracts [L21][U12] from
+     * the columns [first,limit) of the trailing matrix.
+     */
+    static void update(final double[] data, final int rows, final int first, final int limit, final int panel, final int panelLimit) {
+        for (int c = first; c < limit; c++) {
+            final int tmpColBase = c * rows;
+            for (int j = panel; j < panelLimit; j++) {
+                AXPY.invoke(data, tmpColBase, -data[j + tmpColBase], data, j * rows, j + 1, panelLimit);
+            }
+        }
+        GEMM.subtract(data, rows, panelLimit, rows, first, limit, data, rows, panel, data, rows, panel, panelLimit - panel, false);
+    }
+
+    private BlockedLU() {
+        super();
+    }
+
+    @Override
+    public int threshold() {
+        return THRESHOLD;
+    }
+
+}
@@ -0,0 +1,224 @@
+/*
+ * Copyright 1997-2018 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.matrix.store.operation;
+
+import org.ojalgo.array.blas.AXPY;
+import org.ojalgo.array.blas.DOT;
+import org.ojalgo.array.blas.GEMM;
+import org.ojalgo.concurrent.DivideAndConquer;
+import org.ojalgo.constant.PrimitiveMath;
+import org.ojalgo.matrix.transformation.Householder;
+
+/**
+ * Blocked Householder QR decomposition of a column-major double[]. Each panel of {@link #BLOCK}
+ * columns is factored using {@link GenerateApplyAndCopyHouseholderColumn} and {@link HouseholderLeft}
+ * (level-2). The panel's Householder transformations are then accumulated to a compact WY representation,
+ * [H1][H2]...[Hb] = [I] - [V][T][V]<sup>T</sup>, and applied to the trailing matrix all at once - in
+ * parallel over its columns. The result is identical in form to that of the unblocked algorithm; the
+ * Householder vectors are stored below the diagonal and [R] on and above it.
+ *
+ * @author apete
+ */
+public final class BlockedQR extends MatrixOperation {
+
+    public static final BlockedQR SETUP = new BlockedQR();
+
+    /**
+     * The panel width
+     */
+    public static final int BLOCK = 64;
+
+    /**
+     * Matrices with more than twice as many rows and columns are decomposed in blocks, and the trailing
+     * matrix is updated in parallel when it has more than this many columns.
+     */
+    public static int THRESHOLD = 64;
+
+    private static final int TILE = 256;
+
+    /**
+     * @param data The matrix to decompose, column-major
+     * @param rows The number of rows
+     * @param columns The number of columns
+     * @return The number of (non-trivial) Householder transformations
+     */
+    public static int invoke(final double[] data, final int rows, final int columns) {
+
+        final int tmpBlock = BLOCK;
+        final int tmpParallel = Math.max(1, THRESHOLD);
+        final int tmpMinDim = Math.min(rows, columns);
+
+        final Householder.Primitive tmpHouseholder = new Householder.Primitive(rows);
+        final double[] tmpBetas = new double[tmpBlock];
+        final double[] tmpT = new double[tmpBlock * tmpBlock];
+        final double[] tmpW = new double[tmpBlock * columns];
+
+        int retVal = 0;
+
+        for (int k = 0; k < tmpMinDim; k += tmpBlock) {
+            final int tmpPanel = k;
+            final int tmpPanelLimit = Math.min(k + tmpBlock, tmpMinDim);
+
+            for (int j = k; j < tmpPanelLimit; j++) {
+                if (((j + 1) < rows) && GenerateApplyAndCopyHouseholderColumn.invoke(data, rows, j, j, tmpHouseholder)) {
+                    HouseholderLeft.invoke(data, rows, j + 1, tmpPanelLimit, tmpHouseholder);
+                    tmpBetas[j - k] = tmpHouseholder.beta;
+                    retVal++;
+                } else {
+                    tmpBetas[j - k] = PrimitiveMath.ZERO;
+                }
+            }
+
+            if (tmpPanelLimit < columns) {
+
+                BlockedQR.triangular(data, rows, tmpPanel, tmpPanelLimit, tmpBetas, tmpT, tmpBlock);
+
+                if ((columns - tmpPanelLimit) > tmpParallel) {
+
+                    final DivideAndConquer tmpConquerer = new DivideAndConquer() {
+
+                        @Override
+                        protected void conquer(final int first, final int limit) {
+                            BlockedQR.update(data, rows, first, limit, tmpPanel, tmpPanelLimit, tmpT, tmpW, tmpBlock);
+                        }
+                    };
+
+                    tmpConquerer.invoke(tmpPanelLimit, columns, tmpParallel);
+
+                } else {
+
+                    BlockedQR.update(data, rows, tmpPanelLimit, columns, tmpPanel, tmpPanelLimit, tmpT, tmpW, tmpBlock);
+                }
+            }
+        }
+
+        return retVal;
+    }
+
+    /**
+     * Forms the upper triangular [T], structure block, such that [H1][H2]...[Hb] = [I] -
+     * [V][T][V]<sup>T</sup>. A zero beta (no transformation) results in a zero row and column.
+     */
+    static void triangular(final double[] data, final int rows, final int panel, final int panelLimit, final double[] betas, final double[] triangular,
+            final int block) {
+
+        final int tmpCount = panelLimit - panel;
+        final double[] tmpProducts = new double[tmpCount];
+
+        for (int q = 0; q < tmpCount; q++) {
+
+            final int tmpRow = panel + q;
+            final int tmpColBase = q * block;
+            final double tmpBeta = betas[q];
+
+            for (int p = 0; p < tmpCount; p++) {
+                triangular[p + tmpColBase] = PrimitiveMath.ZERO;
+            }
+            triangular[q + tmpColBase] = tmpBeta;
+
+            if (tmpBeta != PrimitiveMath.ZERO) {
+
+                // [V]T[v] with v having an implicit 1 at tmpRow
+                for (int p = 0; p < q; p++) {
+                    final int tmpBase = (panel + p) * rows;
+                    tmpProducts[p] = data[tmpRow + tmpBase] + DOT.invoke(data, tmpBase, data, tmpRow * rows, tmpRow + 1, rows);
+                }
+
+                for (int p = 0; p < q; p++) {
+                    double tmpSum = PrimitiveMath.ZERO;
+                    for (int r = p; r < q; r++) {
+                        tmpSum += triangular[p + (r * block)] * tmpProducts[r];
+                    }
+                    triangular[p + tmpColBase] = -tmpBeta * tmpSum;
+                }
+            }
+        }
+    }
+
+    /**
+     * Applies ([I] - [V][T][V]<sup>T</sup>)<sup>T</sup> to the columns [first,limit) of the trailing matrix.
+     * Those same columns of work (structure block) are used as temporary storage.
+     */
+    static void update(final double[] data, final int rows, final int first, final int limit, final int panel, final int panelLimit, final double[] triangular,
+            final double[] work, final int block) {
+
+        final int tmpCount = panelLimit - panel;
+
+        // [W] = [V]T[C], first the unit lower triangular part of [V]
+        for (int c = first; c < limit; c++) {
+            final int tmpColBase = c * rows;
+            final int tmpWorkBase = c * block;
+            for (int p = 0; p < tmpCount; p++) {
+                final int tmpRow = panel + p;
+                work[p + tmpWorkBase] = data[tmpRow + tmpColBase] + DOT.invoke(data, tmpRow * rows, data, tmpColBase, tmpRow + 1, panelLimit);
+            }
+        }
+        // ...then the rest, one tile of rows at the time
+        for (int r = panelLimit; r < rows; r += TILE) {
+            final int tmpRowLimit = Math.min(r + TILE, rows);
+            for (int c = first; c < limit; c++) {
+                final int tmpColBase = c * rows;
+                final int tmpWorkBase = c * block;
+                for (int p = 0; p < tmpCount; p++) {
+                    work[p + tmpWorkBase] += DOT.invoke(data, (panel + p) * rows, data, tmpColBase, r, tmpRowLimit);
+                }
+            }
+        }
+
+        // [W] = [T]T[W]
+        for (int c = first; c < limit; c++) {
+            final int tmpWorkBase = c * block;
+            for (int q = tmpCount - 1; q >= 0; q--) {
+                final int tmpColBase = q * block;
+                double tmpSum = PrimitiveMath.ZERO;
+                for (int p = 0; p <= q; p++) {
+                    tmpSum += triangular[p + tmpColBase] * work[p + tmpWorkBase];
+                }
+                work[q + tmpWorkBase] = tmpSum;
+            }
+        }
+
+        // [C] = [C] - [V][W], first the unit lower triangular part of [V]
+        for (int c = first; c < limit; c++) {
+            final int tmpColBase = c * rows;
+            final int tmpWorkBase = c * block;
+            for (int p = 0; p < tmpCount; p++) {
+                final int tmpRow = panel + p;
+                final double tmpVal = work[p + tmpWorkBase];
+                data[tmpRow + tmpColBase] -= tmpVal;
+                AXPY.invoke(data, tmpColBase, -tmpVal, data, tmpRow * rows, tmpRow + 1, panelLimit);
+            }
+        }
+        // ...then the rest
+        GEMM.subtract(data, rows, panelLimit, rows, first, limit, data, rows, panel, work, block, 0, tmpCount, false);
+    }
+
+    private BlockedQR() {
+        super();
+    }
+
+    @Override
+    public int threshold() {
+        return THRESHOLD;
+    }
+
+}
@@ -21,10 +21,14 @@
  */
 package org.ojalgo.matrix.store.operation;
 
+import org.ojalgo.array.ComplexSplitArray;
+import org.ojalgo.array.RationalSplitArray;
 import org.ojalgo.constant.PrimitiveMath;
 import org.ojalgo.function.PrimitiveFunction;
 import org.ojalgo.matrix.transformation.Householder;
+import org.ojalgo.scalar.ComplexNumber;
 import org.ojalgo.scalar.PrimitiveScalar;
+import org.ojalgo.scalar.RationalNumber;
 import org.ojalgo.scalar.Scalar;
 
 public final class GenerateApplyAndCopyHouseholderColumn extends MatrixOperation {
@@ -83,6 +87,128 @@ public final class GenerateApplyAndCopyHouseholderColumn extends MatrixOperation
         return retVal;
     }
 
+    public static boolean invoke(final ComplexSplitArray data, final int structure, final int row, final int col,
+            final Householder.Generic<ComplexNumber> destination) {
+
+        final double[] tmpRe = data.real;
+        final double[] tmpIm = data.imaginary;
+
+        final int tmpColBase = col * structure;
+
+        final ComplexNumber[] tmpVector = destination.vector;
+        destination.first = row;
+
+        double tmpNormInf = PrimitiveMath.ZERO;
+        for (int i = row; i < structure; i++) {
+            tmpNormInf = PrimitiveFunction.MAX.invoke(tmpNormInf, PrimitiveFunction.HYPOT.invoke(tmpRe[i + tmpColBase], tmpIm[i + tmpColBase]));
+        }
+
+        boolean retVal = tmpNormInf != PrimitiveMath.ZERO;
+        double tmpNorm2 = PrimitiveMath.ZERO;
+
+        if (retVal) {
+            double tmpValRe, tmpValIm;
+            for (int i = row + 1; i < structure; i++) {
+                tmpValRe = tmpRe[i + tmpColBase] / tmpNormInf;
+                tmpValIm = tmpIm[i + tmpColBase] / tmpNormInf;
+                tmpNorm2 += (tmpValRe * tmpValRe) + (tmpValIm * tmpValIm);
+            }
+            retVal = !PrimitiveScalar.isSmall(PrimitiveMath.ONE, tmpNorm2);
+        }
+
+        if (retVal) {
+
+            double tmpScaleRe = tmpRe[row + tmpColBase] / tmpNormInf;
+            double tmpScaleIm = tmpIm[row + tmpColBase] / tmpNormInf;
+            final double tmpScaleNorm = PrimitiveFunction.HYPOT.invoke(tmpScaleRe, tmpScaleIm);
+            tmpNorm2 += tmpScaleNorm * tmpScaleNorm;
+            tmpNorm2 = PrimitiveFunction.SQRT.invoke(tmpNorm2);
+
+            double tmpSignumRe = PrimitiveMath.ONE;
+            double tmpSignumIm = PrimitiveMath.ZERO;
+            if (!PrimitiveScalar.isSmall(PrimitiveMath.ONE, tmpScaleNorm)) {
+                final double tmpPhase = Math.atan2(tmpScaleIm, tmpScaleRe);
+                tmpSignumRe = PrimitiveFunction.COS.invoke(tmpPhase);
+                tmpSignumIm = PrimitiveFunction.SIN.invoke(tmpPhase);
+            }
+
+            tmpRe[row + tmpColBase] = tmpSignumRe * tmpNorm2 * tmpNormInf;
+            tmpIm[row + tmpColBase] = tmpSignumIm * tmpNorm2 * tmpNormInf;
+            tmpScaleRe -= tmpSignumRe * tmpNorm2;
+            tmpScaleIm -= tmpSignumIm * tmpNorm2;
+
+            tmpVector[row] = ComplexNumber.ONE;
+
+            // Divide by (normInf * scale) by multiplying with its inverse
+            final double tmpDivisorRe = tmpNormInf * tmpScaleRe;
+            final double tmpDivisorIm = tmpNormInf * tmpScaleIm;
+            final double tmpDivisorSquared = (tmpDivisorRe * tmpDivisorRe) + (tmpDivisorIm * tmpDivisorIm);
+            final double tmpInvRe = tmpDivisorRe / tmpDivisorSquared;
+            final double tmpInvIm = -tmpDivisorIm / tmpDivisorSquared;
+
+            double tmpValRe, tmpValIm;
+            for (int i = row + 1; i < structure; i++) {
+                tmpValRe = tmpRe[i + tmpColBase];
+                tmpValIm = tmpIm[i + tmpColBase];
+                tmpRe[i + tmpColBase] = (tmpValRe * tmpInvRe) - (tmpValIm * tmpInvIm);
+                tmpIm[i + tmpColBase] = (tmpValRe * tmpInvIm) + (tmpValIm * tmpInvRe);
+                tmpVector[i] = ComplexNumber.of(tmpRe[i + tmpColBase], tmpIm[i + tmpColBase]);
+            }
+
+            destination.beta = ComplexNumber.valueOf(PrimitiveFunction.HYPOT.invoke(tmpScaleRe, tmpScaleIm) / tmpNorm2);
+        }
+
+        return retVal;
+    }
+
+    public static boolean invoke(final RationalSplitArray data, final int structure, final int row, final int col,
+            final Householder.Generic<RationalNumber> destination) {
+
+        final int tmpColBase = col * structure;
+
+        final RationalNumber[] tmpVector = destination.vector;
+        destination.first = row;
+
+        double tmpNormInf = PrimitiveMath.ZERO;
+        for (int i = row; i < structure; i++) {
+            tmpNormInf = PrimitiveFunction.MAX.invoke(tmpNormInf, (tmpVector[i] = data.get(i + tmpColBase)).norm());
+        }
+
+        boolean retVal = tmpNormInf != PrimitiveMath.ZERO;
+        RationalNumber tmpVal;
+        double tmpNorm2 = PrimitiveMath.ZERO;
+
+        if (retVal) {
+            for (int i = row + 1; i < structure; i++) {
+                tmpVal = tmpVector[i].divide(tmpNormInf);
+                tmpNorm2 += tmpVal.norm() * tmpVal.norm();
+                tmpVector[i] = tmpVal;
+            }
+            retVal = !PrimitiveScalar.isSmall(PrimitiveMath.ONE, tmpNorm2);
+        }
+
+        if (retVal) {
+
+            RationalNumber tmpScale = tmpVector[row].divide(tmpNormInf);
+            tmpNorm2 += tmpScale.norm() * tmpScale.norm();
+            tmpNorm2 = PrimitiveFunction.SQRT.invoke(tmpNorm2);
+
+            data.set(row + tmpColBase, tmpScale.signum().multiply(tmpNorm2 * tmpNormInf));
+            tmpScale = tmpScale.subtract(tmpScale.signum().multiply(tmpNorm2));
+
+            tmpVector[row] = RationalNumber.ONE;
+
+            for (int i = row + 1; i < structure; i++) {
+                tmpVector[i] = tmpVector[i].divide(tmpScale);
+                data.set(i + tmpColBase, tmpVector[i]);
+            }
+
+            destination.beta = RationalNumber.valueOf(tmpScale.norm() / tmpNorm2);
+        }
+
+        return retVal;
+    }
+
     public static <N extends Number & Scalar<N>> boolean invoke(final N[] data, final int structure, final int row, final int col,
             final Householder.Generic<N> destination, final Scalar.Factory<N> scalar) {
 
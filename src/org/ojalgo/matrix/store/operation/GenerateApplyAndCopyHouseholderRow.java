@@ -21,10 +21,14 @@
  */
 package org.ojalgo.matrix.store.operation;
 
+import org.ojalgo.array.ComplexSplitArray;
+import org.ojalgo.array.RationalSplitArray;
 import org.ojalgo.constant.PrimitiveMath;
 import org.ojalgo.function.PrimitiveFunction;
 import org.ojalgo.matrix.transformation.Householder;
+import org.ojalgo.scalar.ComplexNumber;
 import org.ojalgo.scalar.PrimitiveScalar;
+import org.ojalgo.scalar.RationalNumber;
 import org.ojalgo.scalar.Scalar;
 
 public final class GenerateApplyAndCopyHouseholderRow extends MatrixOperation {
@@ -84,6 +88,130 @@ public final class GenerateApplyAndCopyHouseholderRow extends MatrixOperation {
         return retVal;
     }
 
+    public static boolean invoke(final ComplexSplitArray data, final int structure, final int row, final int col,
+            final Householder.Generic<ComplexNumber> destination) {
+
+        final double[] tmpRe = data.real;
+        final double[] tmpIm = data.imaginary;
+
+        final int tmpColDim = tmpRe.length / structure;
+
+        final ComplexNumber[] tmpVector = destination.vector;
+        destination.first = col;
+
+        double tmpNormInf = PrimitiveMath.ZERO;
+        for (int j = col; j < tmpColDim; j++) {
+            tmpNormInf = PrimitiveFunction.MAX.invoke(tmpNormInf, PrimitiveFunction.HYPOT.invoke(tmpRe[row + (j * structure)], tmpIm[row + (j * structure)]));
+        }
+
+        boolean retVal = tmpNormInf != PrimitiveMath.ZERO;
+        double tmpNorm2 = PrimitiveMath.ZERO;
+
+        if (retVal) {
+            double tmpValRe, tmpValIm;
+            for (int j = col + 1; j < tmpColDim; j++) {
+                tmpValRe = tmpRe[row + (j * structure)] / tmpNormInf;
+                tmpValIm = tmpIm[row + (j * structure)] / tmpNormInf;
+                tmpNorm2 += (tmpValRe * tmpValRe) + (tmpValIm * tmpValIm);
+            }
+            retVal = !PrimitiveScalar.isSmall(PrimitiveMath.ONE, tmpNorm2);
+        }
+
+        if (retVal) {
+
+            final int tmpIndex = row + (col * structure);
+
+            double tmpScaleRe = tmpRe[tmpIndex] / tmpNormInf;
+            double tmpScaleIm = tmpIm[tmpIndex] / tmpNormInf;
+            final double tmpScaleNorm = PrimitiveFunction.HYPOT.invoke(tmpScaleRe, tmpScaleIm);
+            tmpNorm2 += tmpScaleNorm * tmpScaleNorm;
+            tmpNorm2 = PrimitiveFunction.SQRT.invoke(tmpNorm2);
+
+            double tmpSignumRe = PrimitiveMath.ONE;
+            double tmpSignumIm = PrimitiveMath.ZERO;
+            if (!PrimitiveScalar.isSmall(PrimitiveMath.ONE, tmpScaleNorm)) {
+                final double tmpPhase = Math.atan2(tmpScaleIm, tmpScaleRe);
+                tmpSignumRe = PrimitiveFunction.COS.invoke(tmpPhase);
+                tmpSignumIm = PrimitiveFunction.SIN.invoke(tmpPhase);
+            }
+
+            tmpRe[tmpIndex] = tmpSignumRe * tmpNorm2 * tmpNormInf;
+            tmpIm[tmpIndex] = tmpSignumIm * tmpNorm2 * tmpNormInf;
+            tmpScaleRe -= tmpSignumRe * tmpNorm2;
+            tmpScaleIm -= tmpSignumIm * tmpNorm2;
+
+            tmpVector[col] = ComplexNumber.ONE;
+
+            // Divide by (normInf * scale) by multiplying with its inverse, then conjugate
+            final double tmpDivisorRe = tmpNormInf * tmpScaleRe;
+            final double tmpDivisorIm = tmpNormInf * tmpScaleIm;
+            final double tmpDivisorSquared = (tmpDivisorRe * tmpDivisorRe) + (tmpDivisorIm * tmpDivisorIm);
+            final double tmpInvRe = tmpDivisorRe / tmpDivisorSquared;
+            final double tmpInvIm = -tmpDivisorIm / tmpDivisorSquared;
+
+            double tmpValRe, tmpValIm;
+            for (int j = col + 1; j < tmpColDim; j++) {
+                tmpValRe = tmpRe[row + (j * structure)];
+                tmpValIm = tmpIm[row + (j * structure)];
+                tmpRe[row + (j * structure)] = (tmpValRe * tmpInvRe) - (tmpValIm * tmpInvIm);
+                tmpIm[row + (j * structure)] = -((tmpValRe * tmpInvIm) + (tmpValIm * tmpInvRe));
+                tmpVector[j] = ComplexNumber.of(tmpRe[row + (j * structure)], tmpIm[row + (j * structure)]);
+            }
+
+            destination.beta = ComplexNumber.valueOf(PrimitiveFunction.HYPOT.invoke(tmpScaleRe, tmpScaleIm) / tmpNorm2);
+        }
+
+        return retVal;
+    }
+
+    public static boolean invoke(final RationalSplitArray data, final int structure, final int row, final int col,
+            final Householder.Generic<RationalNumber> destination) {
+
+        final int tmpColDim = data.numerator.length / structure;
+
+        final RationalNumber[] tmpVector = destination.vector;
+        destination.first = col;
+
+        double tmpNormInf = PrimitiveMath.ZERO;
+        for (int j = col; j < tmpColDim; j++) {
+            tmpNormInf = PrimitiveFunction.MAX.invoke(tmpNormInf, (tmpVector[j] = data.get(row + (j * structure))).norm());
+        }
+
+        boolean retVal = tmpNormInf != PrimitiveMath.ZERO;
+        RationalNumber tmpVal;
+        double tmpNorm2 = PrimitiveMath.ZERO;
+
+        if (retVal) {
+            for (int j = col + 1; j < tmpColDim; j++) {
+                tmpVal = tmpVector[j].divide(tmpNormInf);
+                tmpNorm2 += tmpVal.norm() * tmpVal.norm();
+                tmpVector[j] = tmpVal;
+            }
+            retVal = !PrimitiveScalar.isSmall(PrimitiveMath.ONE, tmpNorm2);
+        }
+
+        if (retVal) {
+
+            RationalNumber tmpScale = tmpVector[col].divide(tmpNormInf);
+            tmpNorm2 += tmpScale.norm() * tmpScale.norm();
+            tmpNorm2 = PrimitiveFunction.SQRT.invoke(tmpNorm2);
+
+            data.set(row + (col * structure), tmpScale.signum().multiply(tmpNorm2 * tmpNormInf));
+            tmpScale = tmpScale.subtract(tmpScale.signum().multiply(tmpNorm2));
+
+            tmpVector[col] = RationalNumber.ONE;
+
+            for (int j = col + 1; j < tmpColDim; j++) {
+                tmpVector[j] = tmpVector[j].divide(tmpScale);
+                data.set(row + (j * structure), tmpVector[j]);
+            }
+
+            destination.beta = RationalNumber.valueOf(tmpScale.norm() / tmpNorm2);
+        }
+
+        return retVal;
+    }
+
     public static <N extends Number & Scalar<N>> boolean invoke(final N[] data, final int structure, final int row, final int col,
             final Householder.Generic<N> destination, final Scalar.Factory<N> scalar) {
 
@@ -21,6 +21,8 @@
  */
 package org.ojalgo.matrix.store.operation;
 
+import org.ojalgo.array.ComplexSplitArray;
+import org.ojalgo.scalar.ComplexNumber;
 import org.ojalgo.scalar.Scalar;
 
 /**
@@ -78,6 +80,38 @@ public final class HermitianRank2Update extends MatrixOperation {
         }
     }
 
+    public static void invoke(final ComplexSplitArray data, final int firstColumn, final int columnLimit, final ComplexNumber[] vector1,
+            final ComplexSplitArray vector2) {
+
+        final double[] tmpRe = data.real;
+        final double[] tmpIm = data.imaginary;
+        final double[] tmpVector2Re = vector2.real;
+        final double[] tmpVector2Im = vector2.imaginary;
+
+        final int structure = vector1.length;
+
+        double tmpVal1jRe, tmpVal1jIm, tmpVal2jRe, tmpVal2jIm;
+
+        int tmpIndex;
+        for (int j = firstColumn; j < columnLimit; j++) {
+
+            tmpVal1jRe = vector1[j].doubleValue();
+            tmpVal1jIm = -vector1[j].i;
+            tmpVal2jRe = tmpVector2Re[j];
+            tmpVal2jIm = -tmpVector2Im[j];
+
+            tmpIndex = j + (j * structure);
+            for (int i = j; i < structure; i++) {
+                // data -= vector2[i] * conj(vector1[j]) + vector1[i] * conj(vector2[j])
+                tmpRe[tmpIndex] -= ((tmpVector2Re[i] * tmpVal1jRe) - (tmpVector2Im[i] * tmpVal1jIm))
+                        + ((vector1[i].doubleValue() * tmpVal2jRe) - (vector1[i].i * tmpVal2jIm));
+                tmpIm[tmpIndex] -= ((tmpVector2Re[i] * tmpVal1jIm) + (tmpVector2Im[i] * tmpVal1jRe))
+                        + ((vector1[i].doubleValue() * tmpVal2jIm) + (vector1[i].i * tmpVal2jRe));
+                tmpIndex++;
+            }
+        }
+    }
+
     public static <N extends Number & Scalar<N>> void invoke(final N[] data, final int firstColumn, final int columnLimit, final N[] vector1,
             final N[] vector2) {
 
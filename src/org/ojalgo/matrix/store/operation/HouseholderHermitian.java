@@ -25,12 +25,16 @@ import static org.ojalgo.constant.PrimitiveMath.*;
 
 import java.util.Arrays;
 
+import org.ojalgo.array.ComplexSplitArray;
+import org.ojalgo.array.RationalSplitArray;
 import org.ojalgo.array.blas.AXPY;
 import org.ojalgo.array.blas.COPY;
 import org.ojalgo.concurrent.DivideAndConquer;
 import org.ojalgo.constant.PrimitiveMath;
 import org.ojalgo.function.PrimitiveFunction;
 import org.ojalgo.matrix.transformation.Householder;
+import org.ojalgo.scalar.ComplexNumber;
+import org.ojalgo.scalar.RationalNumber;
 import org.ojalgo.scalar.Scalar;
 import org.ojalgo.type.context.NumberContext;
 
@@ -96,6 +100,113 @@ public final class HouseholderHermitian extends MatrixOperation {
         }
     }
 
+    public static void invoke(final ComplexSplitArray data, final Householder.Generic<ComplexNumber> householder, final ComplexSplitArray worker) {
+
+        final ComplexNumber[] tmpVector = householder.vector;
+        final int tmpFirst = householder.first;
+        final int tmpLength = tmpVector.length;
+        final double tmpBetaRe = householder.beta.doubleValue();
+        final double tmpBetaIm = householder.beta.i;
+        final int tmpCount = tmpLength - tmpFirst;
+
+        if (tmpCount > MultiplyHermitianAndVector.THRESHOLD) {
+
+            final DivideAndConquer tmpConqurer = new DivideAndConquer() {
+
+                @Override
+                protected void conquer(final int first, final int limit) {
+                    MultiplyHermitianAndVector.invoke(worker, first, limit, data, tmpVector, tmpFirst);
+                }
+            };
+
+            tmpConqurer.invoke(tmpFirst, tmpLength, MultiplyHermitianAndVector.THRESHOLD);
+
+        } else {
+
+            MultiplyHermitianAndVector.invoke(worker, tmpFirst, tmpLength, data, tmpVector, tmpFirst);
+        }
+
+        final double[] tmpWorkerRe = worker.real;
+        final double[] tmpWorkerIm = worker.imaginary;
+
+        double tmpValRe = PrimitiveMath.ZERO;
+        double tmpValIm = PrimitiveMath.ZERO;
+        for (int c = tmpFirst; c < tmpLength; c++) {
+            // tmpVal += conj(tmpVector[c]) * worker[c]
+            tmpValRe += (tmpVector[c].doubleValue() * tmpWorkerRe[c]) + (tmpVector[c].i * tmpWorkerIm[c]);
+            tmpValIm += (tmpVector[c].doubleValue() * tmpWorkerIm[c]) - (tmpVector[c].i * tmpWorkerRe[c]);
+        }
+        // tmpVal *= (tmpBeta / TWO)
+        final double tmpHalfRe = ((tmpValRe * tmpBetaRe) - (tmpValIm * tmpBetaIm)) / PrimitiveMath.TWO;
+        final double tmpHalfIm = ((tmpValRe * tmpBetaIm) + (tmpValIm * tmpBetaRe)) / PrimitiveMath.TWO;
+        double tmpDiffRe, tmpDiffIm;
+        for (int c = tmpFirst; c < tmpLength; c++) {
+            // worker[c] = tmpBeta * (worker[c] - (tmpVal * tmpVector[c]))
+            tmpDiffRe = tmpWorkerRe[c] - ((tmpHalfRe * tmpVector[c].doubleValue()) - (tmpHalfIm * tmpVector[c].i));
+            tmpDiffIm = tmpWorkerIm[c] - ((tmpHalfRe * tmpVector[c].i) + (tmpHalfIm * tmpVector[c].doubleValue()));
+            tmpWorkerRe[c] = (tmpBetaRe * tmpDiffRe) - (tmpBetaIm * tmpDiffIm);
+            tmpWorkerIm[c] = (tmpBetaRe * tmpDiffIm) + (tmpBetaIm * tmpDiffRe);
+        }
+
+        if (tmpCount > HermitianRank2Update.THRESHOLD) {
+
+            final DivideAndConquer tmpConqurer = new DivideAndConquer() {
+
+                @Override
+                protected void conquer(final int first, final int limit) {
+                    HermitianRank2Update.invoke(data, first, limit, tmpVector, worker);
+                }
+            };
+
+            tmpConqurer.invoke(tmpFirst, tmpLength, HermitianRank2Update.THRESHOLD);
+
+        } else {
+
+            HermitianRank2Update.invoke(data, tmpFirst, tmpLength, tmpVector, worker);
+        }
+    }
+
+    public static void invoke(final RationalSplitArray data, final Householder.Generic<RationalNumber> householder, final RationalSplitArray worker) {
+
+        final RationalNumber[] tmpVector = householder.vector;
+        final int tmpFirst = householder.first;
+        final int tmpLength = tmpVector.length;
+        final RationalNumber tmpBeta = householder.beta;
+
+        // worker = [data] * vector, only the lower triangular part of data is referenced
+        RationalNumber tmpVal;
+        for (int i = tmpFirst; i < tmpLength; i++) {
+            tmpVal = RationalNumber.ZERO;
+            for (int c = tmpFirst; c < i; c++) {
+                tmpVal = tmpVal.add(data.get(i + (c * tmpLength)).multiply(tmpVector[c]));
+            }
+            for (int c = i; c < tmpLength; c++) {
+                tmpVal = tmpVal.add(data.get(c + (i * tmpLength)).multiply(tmpVector[c]));
+            }
+            worker.set(i, tmpVal);
+        }
+
+        tmpVal = RationalNumber.ZERO;
+        for (int c = tmpFirst; c < tmpLength; c++) {
+            tmpVal = tmpVal.add(tmpVector[c].multiply(worker.get(c)));
+        }
+        tmpVal = tmpVal.multiply(tmpBeta).divide(PrimitiveMath.TWO);
+        for (int c = tmpFirst; c < tmpLength; c++) {
+            worker.set(c, tmpBeta.multiply(worker.get(c).subtract(tmpVal.multiply(tmpVector[c]))));
+        }
+
+        // Rank 2 update of the lower triangular part
+        RationalNumber tmpVal1j;
+        RationalNumber tmpVal2j;
+        for (int j = tmpFirst; j < tmpLength; j++) {
+            tmpVal1j = tmpVector[j];
+            tmpVal2j = worker.get(j);
+            for (int i = j, tmpIndex = j + (j * tmpLength); i < tmpLength; i++, tmpIndex++) {
+                data.set(tmpIndex, data.get(tmpIndex).subtract(worker.get(i).multiply(tmpVal1j).add(tmpVector[i].multiply(tmpVal2j))));
+            }
+        }
+    }
+
     public static <N extends Number & Scalar<N>> void invoke(final N[] data, final Householder.Generic<N> householder, final N[] worker,
             final Scalar.Factory<N> scalar) {
 
@@ -21,9 +21,14 @@
  */
 package org.ojalgo.matrix.store.operation;
 
+import org.ojalgo.array.ComplexSplitArray;
+import org.ojalgo.array.RationalSplitArray;
 import org.ojalgo.array.blas.AXPY;
 import org.ojalgo.array.blas.DOT;
+import org.ojalgo.constant.PrimitiveMath;
 import org.ojalgo.matrix.transformation.Householder;
+import org.ojalgo.scalar.ComplexNumber;
+import org.ojalgo.scalar.RationalNumber;
 import org.ojalgo.scalar.Scalar;
 
 public final class HouseholderLeft extends MatrixOperation {
@@ -46,6 +51,67 @@ public final class HouseholderLeft extends MatrixOperation {
         }
     }
 
+    public static void invoke(final ComplexSplitArray data, final int structure, final int first, final int limit,
+            final Householder.Generic<ComplexNumber> householder) {
+
+        final double[] tmpRe = data.real;
+        final double[] tmpIm = data.imaginary;
+
+        final ComplexNumber[] tmpHouseholderVector = householder.vector;
+        final int tmpFirstNonZero = householder.first;
+        final double tmpBetaRe = householder.beta.doubleValue();
+        final double tmpBetaIm = householder.beta.i;
+
+        ComplexNumber tmpVector;
+        double tmpScaleRe, tmpScaleIm, tmpVal;
+        int tmpIndex;
+        for (int j = first; j < limit; j++) {
+            tmpScaleRe = PrimitiveMath.ZERO;
+            tmpScaleIm = PrimitiveMath.ZERO;
+            tmpIndex = tmpFirstNonZero + (j * structure);
+            for (int i = tmpFirstNonZero; i < structure; i++) {
+                tmpVector = tmpHouseholderVector[i];
+                tmpScaleRe += (tmpVector.doubleValue() * tmpRe[tmpIndex]) + (tmpVector.i * tmpIm[tmpIndex]);
+                tmpScaleIm += (tmpVector.doubleValue() * tmpIm[tmpIndex]) - (tmpVector.i * tmpRe[tmpIndex]);
+                tmpIndex++;
+            }
+            tmpVal = (tmpScaleRe * tmpBetaRe) - (tmpScaleIm * tmpBetaIm);
+            tmpScaleIm = (tmpScaleRe * tmpBetaIm) + (tmpScaleIm * tmpBetaRe);
+            tmpScaleRe = tmpVal;
+            tmpIndex = tmpFirstNonZero + (j * structure);
+            for (int i = tmpFirstNonZero; i < structure; i++) {
+                tmpVector = tmpHouseholderVector[i];
+                tmpRe[tmpIndex] -= (tmpScaleRe * tmpVector.doubleValue()) - (tmpScaleIm * tmpVector.i);
+                tmpIm[tmpIndex] -= (tmpScaleRe * tmpVector.i) + (tmpScaleIm * tmpVector.doubleValue());
+                tmpIndex++;
+            }
+        }
+    }
+
+    public static void invoke(final RationalSplitArray data, final int structure, final int first, final int limit,
+            final Householder.Generic<RationalNumber> householder) {
+
+        final RationalNumber[] tmpHouseholderVector = householder.vector;
+        final int tmpFirstNonZero = householder.first;
+        final RationalNumber tmpBeta = householder.beta;
+
+        RationalNumber tmpScale;
+        int tmpIndex;
+        for (int j = first; j < limit; j++) {
+            tmpScale = RationalNumber.ZERO;
+            tmpIndex = tmpFirstNonZero + (j * structure);
+            for (int i = tmpFirstNonZero; i < structure; i++) {
+                tmpScale = tmpScale.add(tmpHouseholderVector[i].multiply(data.get(tmpIndex++)));
+            }
+            tmpScale = tmpScale.multiply(tmpBeta);
+            tmpIndex = tmpFirstNonZero + (j * structure);
+            for (int i = tmpFirstNonZero; i < structure; i++) {
+                data.set(tmpIndex, data.get(tmpIndex).subtract(tmpScale.multiply(tmpHouseholderVector[i])));
+                tmpIndex++;
+            }
+        }
+    }
+
     public static <N extends Number & Scalar<N>> void invoke(final N[] data, final int structure, final int first, final int limit,
             final Householder.Generic<N> householder, final Scalar.Factory<N> scalar) {
 
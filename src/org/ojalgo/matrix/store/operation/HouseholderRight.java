@@ -21,9 +21,13 @@
  */
 package org.ojalgo.matrix.store.operation;
 
+import org.ojalgo.array.ComplexSplitArray;
+import org.ojalgo.array.RationalSplitArray;
 import org.ojalgo.array.blas.AXPY;
 import org.ojalgo.constant.PrimitiveMath;
 import org.ojalgo.matrix.transformation.Householder;
+import org.ojalgo.scalar.ComplexNumber;
+import org.ojalgo.scalar.RationalNumber;
 import org.ojalgo.scalar.Scalar;
 
 public final class HouseholderRight extends MatrixOperation {
@@ -47,6 +51,73 @@ public final class HouseholderRight extends MatrixOperation {
         }
     }
 
+    public static void invoke(final ComplexSplitArray data, final int first, final int limit, final int tmpColDim,
+            final Householder.Generic<ComplexNumber> householder) {
+
+        final double[] tmpRe = data.real;
+        final double[] tmpIm = data.imaginary;
+
+        final ComplexNumber[] tmpHouseholderVector = householder.vector;
+        final int tmpFirstNonZero = householder.first;
+        final double tmpBetaRe = householder.beta.doubleValue();
+        final double tmpBetaIm = householder.beta.i;
+
+        final int tmpRowDim = tmpRe.length / tmpColDim;
+
+        ComplexNumber tmpVector;
+        double tmpSumRe, tmpSumIm, tmpScaleRe, tmpScaleIm;
+        int tmpIndex;
+        for (int i = first; i < limit; i++) {
+            // sum = Σ v[j] * a[i,j] and scale = beta * conj(sum)
+            tmpSumRe = PrimitiveMath.ZERO;
+            tmpSumIm = PrimitiveMath.ZERO;
+            tmpIndex = i + (tmpFirstNonZero * tmpRowDim);
+            for (int j = tmpFirstNonZero; j < tmpColDim; j++) {
+                tmpVector = tmpHouseholderVector[j];
+                tmpSumRe += (tmpVector.doubleValue() * tmpRe[tmpIndex]) - (tmpVector.i * tmpIm[tmpIndex]);
+                tmpSumIm += (tmpVector.doubleValue() * tmpIm[tmpIndex]) + (tmpVector.i * tmpRe[tmpIndex]);
+                tmpIndex += tmpRowDim;
+            }
+            tmpScaleRe = (tmpBetaRe * tmpSumRe) + (tmpBetaIm * tmpSumIm);
+            tmpScaleIm = (tmpBetaIm * tmpSumRe) - (tmpBetaRe * tmpSumIm);
+            // a[i,j] = conj(conj(a[i,j]) - scale * v[j])
+            tmpIndex = i + (tmpFirstNonZero * tmpRowDim);
+            for (int j = tmpFirstNonZero; j < tmpColDim; j++) {
+                tmpVector = tmpHouseholderVector[j];
+                tmpRe[tmpIndex] -= (tmpScaleRe * tmpVector.doubleValue()) - (tmpScaleIm * tmpVector.i);
+                tmpIm[tmpIndex] += (tmpScaleRe * tmpVector.i) + (tmpScaleIm * tmpVector.doubleValue());
+                tmpIndex += tmpRowDim;
+            }
+        }
+    }
+
+    public static void invoke(final RationalSplitArray data, final int first, final int limit, final int tmpColDim,
+            final Householder.Generic<RationalNumber> householder) {
+
+        final RationalNumber[] tmpHouseholderVector = householder.vector;
+        final int tmpFirstNonZero = householder.first;
+        final RationalNumber tmpBeta = householder.beta;
+
+        final int tmpRowDim = data.numerator.length / tmpColDim;
+
+        RationalNumber tmpScale;
+        int tmpIndex;
+        for (int i = first; i < limit; i++) {
+            tmpScale = RationalNumber.ZERO;
+            tmpIndex = i + (tmpFirstNonZero * tmpRowDim);
+            for (int j = tmpFirstNonZero; j < tmpColDim; j++) {
+                tmpScale = tmpScale.add(tmpHouseholderVector[j].multiply(data.get(tmpIndex)));
+                tmpIndex += tmpRowDim;
+            }
+            tmpScale = tmpScale.multiply(tmpBeta);
+            tmpIndex = i + (tmpFirstNonZero * tmpRowDim);
+            for (int j = tmpFirstNonZero; j < tmpColDim; j++) {
+                data.set(tmpIndex, data.get(tmpIndex).subtract(tmpScale.multiply(tmpHouseholderVector[j])));
+                tmpIndex += tmpRowDim;
+            }
+        }
+    }
+
     public static <N extends Number & Scalar<N>> void invoke(final N[] data, final int first, final int limit, final int tmpColDim,
             final Householder.Generic<N> householder, final Scalar.Factory<N> scalar) {
 
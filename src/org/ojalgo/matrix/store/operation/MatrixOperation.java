@@ -21,8 +21,9 @@
  */
 package org.ojalgo.matrix.store.operation;
 
-import org.ojalgo.OjAlgoUtils;
 import org.ojalgo.array.blas.AXPY;
+import org.ojalgo.array.blas.GEMM;
+import org.ojalgo.concurrent.DivideAndConquer;
 
 /**
  * @author apete
@@ -49,6 +50,9 @@ public abstract class MatrixOperation {
         AggregateAll.THRESHOLD = Math.min(maxValue, AggregateAll.THRESHOLD);
         ApplyCholesky.THRESHOLD = Math.min(maxValue, ApplyCholesky.THRESHOLD);
         ApplyLU.THRESHOLD = Math.min(maxValue, ApplyLU.THRESHOLD);
+        BlockedCholesky.THRESHOLD = Math.min(maxValue, BlockedCholesky.THRESHOLD);
+        BlockedLU.THRESHOLD = Math.min(maxValue, BlockedLU.THRESHOLD);
+        BlockedQR.THRESHOLD = Math.min(maxValue, BlockedQR.THRESHOLD);
         FillMatchingDual.THRESHOLD = Math.min(maxValue, FillMatchingDual.THRESHOLD);
         FillMatchingSingle.THRESHOLD = Math.min(maxValue, FillMatchingSingle.THRESHOLD);
         GenerateApplyAndCopyHouseholderColumn.THRESHOLD = Math.min(maxValue, GenerateApplyAndCopyHouseholderColumn.THRESHOLD);
@@ -57,11 +61,13 @@ public abstract class MatrixOperation {
         HouseholderLeft.THRESHOLD = Math.min(maxValue, HouseholderLeft.THRESHOLD);
         HouseholderRight.THRESHOLD = Math.min(maxValue, HouseholderRight.THRESHOLD);
         AXPY.THRESHOLD = Math.min(maxValue, AXPY.THRESHOLD);
+        GEMM.THRESHOLD = Math.min(maxValue, GEMM.THRESHOLD);
         ModifyAll.THRESHOLD = Math.min(maxValue, ModifyAll.THRESHOLD);
         MultiplyBoth.THRESHOLD = Math.min(maxValue, MultiplyBoth.THRESHOLD);
         MultiplyHermitianAndVector.THRESHOLD = Math.min(maxValue, MultiplyHermitianAndVector.THRESHOLD);
         MultiplyLeft.THRESHOLD = Math.min(maxValue, MultiplyLeft.THRESHOLD);
         MultiplyRight.THRESHOLD = Math.min(maxValue, MultiplyRight.THRESHOLD);
+        MultiplySparse.THRESHOLD = Math.min(maxValue, MultiplySparse.THRESHOLD);
         RotateLeft.THRESHOLD = Math.min(maxValue, RotateLeft.THRESHOLD);
         RotateRight.THRESHOLD = Math.min(maxValue, RotateRight.THRESHOLD);
         SubstituteBackwards.THRESHOLD = Math.min(maxValue, SubstituteBackwards.THRESHOLD);
@@ -78,6 +84,9 @@ public abstract class MatrixOperation {
         AggregateAll.THRESHOLD = Math.max(minValue, AggregateAll.THRESHOLD);
         ApplyCholesky.THRESHOLD = Math.max(minValue, ApplyCholesky.THRESHOLD);
         ApplyLU.THRESHOLD = Math.max(minValue, ApplyLU.THRESHOLD);
+        BlockedCholesky.THRESHOLD = Math.max(minValue, BlockedCholesky.THRESHOLD);
+        BlockedLU.THRESHOLD = Math.max(minValue, BlockedLU.THRESHOLD);
+        BlockedQR.THRESHOLD = Math.max(minValue, BlockedQR.THRESHOLD);
         FillMatchingDual.THRESHOLD = Math.max(minValue, FillMatchingDual.THRESHOLD);
         FillMatchingSingle.THRESHOLD = Math.max(minValue, FillMatchingSingle.THRESHOLD);
         GenerateApplyAndCopyHouseholderColumn.THRESHOLD = Math.max(minValue, GenerateApplyAndCopyHouseholderColumn.THRESHOLD);
@@ -86,11 +95,13 @@ public abstract class MatrixOperation {
         HouseholderLeft.THRESHOLD = Math.max(minValue, HouseholderLeft.THRESHOLD);
         HouseholderRight.THRESHOLD = Math.max(minValue, HouseholderRight.THRESHOLD);
         AXPY.THRESHOLD = Math.max(minValue, AXPY.THRESHOLD);
+        GEMM.THRESHOLD = Math.max(minValue, GEMM.THRESHOLD);
         ModifyAll.THRESHOLD = Math.max(minValue, ModifyAll.THRESHOLD);
         MultiplyBoth.THRESHOLD = Math.max(minValue, MultiplyBoth.THRESHOLD);
         MultiplyHermitianAndVector.THRESHOLD = Math.max(minValue, MultiplyHermitianAndVector.THRESHOLD);
         MultiplyLeft.THRESHOLD = Math.max(minValue, MultiplyLeft.THRESHOLD);
         MultiplyRight.THRESHOLD = Math.max(minValue, MultiplyRight.THRESHOLD);
+        MultiplySparse.THRESHOLD = Math.max(minValue, MultiplySparse.THRESHOLD);
         RotateLeft.THRESHOLD = Math.max(minValue, RotateLeft.THRESHOLD);
         RotateRight.THRESHOLD = Math.max(minValue, RotateRight.THRESHOLD);
         SubstituteBackwards.THRESHOLD = Math.max(minValue, SubstituteBackwards.THRESHOLD);
@@ -103,8 +114,11 @@ public abstract class MatrixOperation {
 
     public abstract int threshold();
 
+    /**
+     * @see DivideAndConquer#getParallelism()
+     */
     public int workers() {
-        return OjAlgoUtils.ENVIRONMENT.threads;
+        return DivideAndConquer.getParallelism();
     }
 
 }
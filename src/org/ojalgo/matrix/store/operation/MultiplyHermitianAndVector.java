@@ -23,6 +23,9 @@ package org.ojalgo.matrix.store.operation;
 
 import static org.ojalgo.constant.PrimitiveMath.*;
 
+import org.ojalgo.array.ComplexSplitArray;
+import org.ojalgo.constant.PrimitiveMath;
+import org.ojalgo.scalar.ComplexNumber;
 import org.ojalgo.scalar.Scalar;
 
 /**
@@ -55,6 +58,34 @@ public final class MultiplyHermitianAndVector extends MatrixOperation {
         }
     }
 
+    public static void invoke(final ComplexSplitArray productMatrix, final int firstRow, final int rowLimit, final ComplexSplitArray hermitianMatrix,
+            final ComplexNumber[] rightVector, final int firstColumn) {
+
+        final double[] tmpRe = hermitianMatrix.real;
+        final double[] tmpIm = hermitianMatrix.imaginary;
+
+        final int structure = rightVector.length;
+
+        double tmpValRe, tmpValIm;
+        int tmpIndex;
+        for (int i = firstRow; i < rowLimit; i++) {
+            tmpValRe = PrimitiveMath.ZERO;
+            tmpValIm = PrimitiveMath.ZERO;
+            for (int c = firstColumn; c < i; c++) {
+                tmpIndex = i + (c * structure);
+                tmpValRe += (tmpRe[tmpIndex] * rightVector[c].doubleValue()) - (tmpIm[tmpIndex] * rightVector[c].i);
+                tmpValIm += (tmpRe[tmpIndex] * rightVector[c].i) + (tmpIm[tmpIndex] * rightVector[c].doubleValue());
+            }
+            for (int c = i; c < structure; c++) {
+                tmpIndex = c + (i * structure);
+                tmpValRe += (tmpRe[tmpIndex] * rightVector[c].doubleValue()) + (tmpIm[tmpIndex] * rightVector[c].i);
+                tmpValIm += (tmpRe[tmpIndex] * rightVector[c].i) - (tmpIm[tmpIndex] * rightVector[c].doubleValue());
+            }
+            productMatrix.real[i] = tmpValRe;
+            productMatrix.imaginary[i] = tmpValIm;
+        }
+    }
+
     public static <N extends Number & Scalar<N>> void invoke(final N[] productMatrix, final int firstRow, final int rowLimit, final N[] hermitianMatrix,
             final N[] rightVector, final int firstColumn, final Scalar.Factory<N> scalar) {
 
@@ -23,7 +23,10 @@ package org.ojalgo.matrix.store.operation;
 
 import java.util.Arrays;
 
+import org.ojalgo.array.ComplexSplitArray;
+import org.ojalgo.array.RationalSplitArray;
 import org.ojalgo.array.blas.AXPY;
+import org.ojalgo.array.blas.GEMM;
 import org.ojalgo.concurrent.DivideAndConquer;
 import org.ojalgo.constant.PrimitiveMath;
 import org.ojalgo.matrix.store.GenericDenseStore.GenericMultiplyNeither;
@@ -535,6 +538,55 @@ public final class MultiplyNeither extends MatrixOperation {
         }
     };
 
+    static final PrimitiveMultiplyNeither PRIMITIVE_BLOCKED = (product, left, complexity, right) -> {
+
+        final int rows = left.length / complexity;
+        final int columns = right.length / complexity;
+
+        if (complexity <= GEMM.THRESHOLD) {
+            if (rows > THRESHOLD) {
+                MultiplyNeither.PRIMITIVE_MT.invoke(product, left, complexity, right);
+            } else {
+                MultiplyNeither.PRIMITIVE.invoke(product, left, complexity, right);
+            }
+            return;
+        }
+
+        final int workers = DivideAndConquer.getParallelism();
+
+        // The same criterion for parallel execution as in getPrimitive(long, long)
+        if ((workers > 1) && (rows > THRESHOLD)) {
+
+            // Twice as many (2D) tiles as workers, roughly square and with dimensions a multiple of the micro-kernel
+            final int tiles = 2 * workers;
+            final int rowTiles = Math.max(1, Math.min(tiles, (int) Math.round(Math.sqrt(((double) tiles * rows) / columns))));
+            final int columnTiles = (tiles + rowTiles - 1) / rowTiles;
+            final int tileRows = 4 * ((rows + (4 * rowTiles) - 1) / (4 * rowTiles));
+            final int tileColumns = 4 * ((columns + (4 * columnTiles) - 1) / (4 * columnTiles));
+
+            final DivideAndConquer tmpConquerer = new DivideAndConquer() {
+
+                @Override
+                public void conquer(final int first, final int limit) {
+                    for (int t = first; t < limit; t++) {
+                        final int firstRow = (t % rowTiles) * tileRows;
+                        final int firstColumn = (t / rowTiles) * tileColumns;
+                        if ((firstRow < rows) && (firstColumn < columns)) {
+                            GEMM.invoke(product, firstRow, Math.min(rows, firstRow + tileRows), firstColumn, Math.min(columns, firstColumn + tileColumns), left,
+                                    complexity, right);
+                        }
+                    }
+                }
+            };
+
+            tmpConquerer.invoke(0, rowTiles * columnTiles, 1, workers);
+
+        } else {
+
+            GEMM.invoke(product, left, complexity, right);
+        }
+    };
+
     static final PrimitiveMultiplyNeither PRIMITIVE_MT = (product, left, complexity, right) -> {
 
         Arrays.fill(product, 0.0);
@@ -581,7 +633,9 @@ public final class MultiplyNeither extends MatrixOperation {
     }
 
     public static PrimitiveMultiplyNeither getPrimitive(final long rows, final long columns) {
-        if (rows > THRESHOLD) {
+        if ((rows > GEMM.THRESHOLD) && (columns > GEMM.THRESHOLD)) {
+            return PRIMITIVE_BLOCKED;
+        } else if (rows > THRESHOLD) {
             return PRIMITIVE_MT;
         } else if (rows == 10) {
             return PRIMITIVE_0XN;
@@ -608,6 +662,62 @@ public final class MultiplyNeither extends MatrixOperation {
         }
     }
 
+    /**
+     * Complex matrix multiplication with all three matrices stored as split real/imaginary primitive arrays.
+     * The product is overwritten.
+     */
+    public static void invoke(final ComplexSplitArray product, final ComplexSplitArray left, final int complexity, final ComplexSplitArray right) {
+
+        product.reset();
+
+        final int tmpColDim = right.real.length / complexity;
+
+        if ((left.real.length / complexity) > THRESHOLD) {
+
+            final DivideAndConquer tmpConquerer = new DivideAndConquer() {
+
+                @Override
+                public void conquer(final int first, final int limit) {
+                    MultiplyNeither.invoke(product, first, limit, left, complexity, right);
+                }
+            };
+
+            tmpConquerer.invoke(0, tmpColDim, THRESHOLD);
+
+        } else {
+
+            MultiplyNeither.invoke(product, 0, tmpColDim, left, complexity, right);
+        }
+    }
+
+    /**
+     * Exact rational matrix multiplication with all three matrices stored as primitive numerator/denominator
+     * arrays. The product is overwritten.
+     */
+    public static void invoke(final RationalSplitArray product, final RationalSplitArray left, final int complexity, final RationalSplitArray right) {
+
+        product.reset();
+
+        final int tmpColDim = right.numerator.length / complexity;
+
+        if ((left.numerator.length / complexity) > THRESHOLD) {
+
+            final DivideAndConquer tmpConquerer = new DivideAndConquer() {
+
+                @Override
+                public void conquer(final int first, final int limit) {
+                    MultiplyNeither.invoke(product, first, limit, left, complexity, right);
+                }
+            };
+
+            tmpConquerer.invoke(0, tmpColDim, THRESHOLD);
+
+        } else {
+
+            MultiplyNeither.invoke(product, 0, tmpColDim, left, complexity, right);
+        }
+    }
+
     static void invoke(final double[] product, final int firstColumn, final int columnLimit, final double[] left, final int complexity, final double[] right) {
 
         final int structure = left.length / complexity;
@@ -622,6 +732,42 @@ public final class MultiplyNeither extends MatrixOperation {
         }
     }
 
+    static void invoke(final ComplexSplitArray product, final int firstColumn, final int columnLimit, final ComplexSplitArray left, final int complexity,
+            final ComplexSplitArray right) {
+
+        final int structure = left.real.length / complexity;
+
+        final double[] leftColumnRe = new double[structure];
+        final double[] leftColumnIm = new double[structure];
+        for (int c = 0; c < complexity; c++) {
+            System.arraycopy(left.real, c * structure, leftColumnRe, 0, structure);
+            System.arraycopy(left.imaginary, c * structure, leftColumnIm, 0, structure);
+
+            for (int j = firstColumn; j < columnLimit; j++) {
+                final int tmpIndex = c + (j * complexity);
+                AXPY.invoke(product.real, product.imaginary, j * structure, right.real[tmpIndex], right.imaginary[tmpIndex], leftColumnRe, leftColumnIm, 0, 0,
+                        structure);
+            }
+        }
+    }
+
+    static void invoke(final RationalSplitArray product, final int firstColumn, final int columnLimit, final RationalSplitArray left, final int complexity,
+            final RationalSplitArray right) {
+
+        final int structure = left.numerator.length / complexity;
+
+        for (int c = 0; c < complexity; c++) {
+            for (int j = firstColumn; j < columnLimit; j++) {
+                final int tmpRightIndex = c + (j * complexity);
+                final int tmpProductBase = j * structure;
+                final int tmpLeftBase = c * structure;
+                for (int i = 0; i < structure; i++) {
+                    product.addProduct(i + tmpProductBase, left, i + tmpLeftBase, right, tmpRightIndex);
+                }
+            }
+        }
+    }
+
     static <N extends Number & Scalar<N>> void invoke(final N[] product, final int firstColumn, final int columnLimit, final N[] left, final int complexity,
             final N[] right, final Scalar.Factory<N> scalar) {
 
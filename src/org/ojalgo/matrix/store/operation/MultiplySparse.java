@@ -0,0 +1,107 @@
+/*
+ * Copyright 1997-2018 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.matrix.store.operation;
+
+import java.util.Arrays;
+
+/**
+ * Sparse-dense multiplication with the sparse (left) matrix in compressed row (CSR) form. When multi
+ * threaded the rows are partitioned so that each part has roughly the same number of nonzeros, rather than
+ * the same number of rows.
+ *
+ * @author apete
+ */
+public final class MultiplySparse extends MatrixOperation {
+
+    public static final MultiplySparse SETUP = new MultiplySparse();
+
+    /**
+     * The number of rows above which multiplication is multi threaded
+     */
+    public static int THRESHOLD = 128;
+
+    /**
+     * @param product Dense, column major, [rowsCount, right.length / complexity]
+     * @param firstRow The first row to calculate
+     * @param rowLimit The row limit
+     * @param rowsCount The number of rows in the sparse matrix and the product
+     * @param pointers The nonzeros of row i are at positions [pointers[i],pointers[i+1])
+     * @param indices The column indices of the nonzeros
+     * @param values The nonzero values
+     * @param right Dense, column major, [complexity, right.length / complexity]
+     * @param complexity The number of columns in the sparse matrix
+     */
+    public static void invoke(final double[] product, final int firstRow, final int rowLimit, final int rowsCount, final int[] pointers, final int[] indices,
+            final double[] values, final double[] right, final int complexity) {
+
+        final int numberOfColumns = right.length / complexity;
+
+        for (int j = 0; j < numberOfColumns; j++) {
+            final int rightBase = j * complexity;
+            final int productBase = j * rowsCount;
+            for (int i = firstRow; i < rowLimit; i++) {
+                double sum = 0.0;
+                for (int k = pointers[i], limit = pointers[i + 1]; k < limit; k++) {
+                    sum += values[k] * right[rightBase + indices[k]];
+                }
+                product[productBase + i] = sum;
+            }
+        }
+    }
+
+    /**
+     * Split the range [0, majorCount) in (at most) parts ranges each covering roughly the same number of
+     * nonzeros.
+     *
+     * @return parts + 1 boundaries, the first being 0 and the last majorCount
+     */
+    public static int[] partition(final int[] pointers, final int majorCount, final int parts) {
+
+        final int nnz = pointers[majorCount];
+
+        final int[] retVal = new int[parts + 1];
+        for (int p = 1; p < parts; p++) {
+            final int target = (int) (((long) nnz * p) / parts);
+            int major = Arrays.binarySearch(pointers, retVal[p - 1], majorCount, target);
+            if (major < 0) {
+                major = -(major + 1);
+            }
+            while ((major > retVal[p - 1]) && (pointers[major - 1] == target)) {
+                major--;
+            }
+            retVal[p] = major;
+        }
+        retVal[parts] = majorCount;
+
+        return retVal;
+    }
+
+    private MultiplySparse() {
+        super();
+    }
+
+    @Override
+    public int threshold() {
+        return THRESHOLD;
+    }
+
+}
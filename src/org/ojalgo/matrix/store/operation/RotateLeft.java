@@ -21,6 +21,10 @@
  */
 package org.ojalgo.matrix.store.operation;
 
+import org.ojalgo.array.ComplexSplitArray;
+import org.ojalgo.array.RationalSplitArray;
+import org.ojalgo.scalar.ComplexNumber;
+import org.ojalgo.scalar.RationalNumber;
 import org.ojalgo.scalar.Scalar;
 
 public final class RotateLeft extends MatrixOperation {
@@ -50,6 +54,61 @@ public final class RotateLeft extends MatrixOperation {
         }
     }
 
+    public static void invoke(final ComplexSplitArray data, final int structure, final int rowA, final int rowB, final ComplexNumber cos,
+            final ComplexNumber sin) {
+
+        final double[] tmpRe = data.real;
+        final double[] tmpIm = data.imaginary;
+
+        final double cosRe = cos.doubleValue();
+        final double cosIm = cos.i;
+        final double sinRe = sin.doubleValue();
+        final double sinIm = sin.i;
+
+        double oldARe, oldAIm, oldBRe, oldBIm;
+
+        int indexA = rowA;
+        int indexB = rowB;
+
+        for (int j = 0, lim = tmpRe.length / structure; j < lim; j++) {
+
+            oldARe = tmpRe[indexA];
+            oldAIm = tmpIm[indexA];
+            oldBRe = tmpRe[indexB];
+            oldBIm = tmpIm[indexB];
+
+            tmpRe[indexA] = ((cosRe * oldARe) - (cosIm * oldAIm)) + ((sinRe * oldBRe) - (sinIm * oldBIm));
+            tmpIm[indexA] = ((cosRe * oldAIm) + (cosIm * oldARe)) + ((sinRe * oldBIm) + (sinIm * oldBRe));
+            tmpRe[indexB] = ((cosRe * oldBRe) - (cosIm * oldBIm)) - ((sinRe * oldARe) - (sinIm * oldAIm));
+            tmpIm[indexB] = ((cosRe * oldBIm) + (cosIm * oldBRe)) - ((sinRe * oldAIm) + (sinIm * oldARe));
+
+            indexA += structure;
+            indexB += structure;
+        }
+    }
+
+    public static void invoke(final RationalSplitArray data, final int structure, final int rowA, final int rowB, final RationalNumber cos,
+            final RationalNumber sin) {
+
+        RationalNumber oldA;
+        RationalNumber oldB;
+
+        int indexA = rowA;
+        int indexB = rowB;
+
+        for (int j = 0, lim = data.numerator.length / structure; j < lim; j++) {
+
+            oldA = data.get(indexA);
+            oldB = data.get(indexB);
+
+            data.set(indexA, cos.multiply(oldA).add(sin.multiply(oldB)));
+            data.set(indexB, cos.multiply(oldB).subtract(sin.multiply(oldA)));
+
+            indexA += structure;
+            indexB += structure;
+        }
+    }
+
     public static <N extends Number & Scalar<N>> void invoke(final N[] data, final int structure, final int rowA, final int rowB, final N cos, final N sin) {
 
         N oldA;
@@ -21,7 +21,11 @@
  */
 package org.ojalgo.matrix.store.operation;
 
+import org.ojalgo.array.ComplexSplitArray;
+import org.ojalgo.array.RationalSplitArray;
 import org.ojalgo.constant.PrimitiveMath;
+import org.ojalgo.scalar.ComplexNumber;
+import org.ojalgo.scalar.RationalNumber;
 import org.ojalgo.scalar.Scalar;
 import org.ojalgo.structure.Access2D;
 
@@ -67,6 +71,121 @@ public final class SubstituteForwards extends MatrixOperation {
         }
     }
 
+    public static void invoke(final ComplexSplitArray data, final int structure, final int first, final int limit, final Access2D<ComplexNumber> body,
+            final boolean unitDiagonal, final boolean conjugated, final boolean identity) {
+
+        final double[] tmpRe = data.real;
+        final double[] tmpIm = data.imaginary;
+
+        final int tmpDiagDim = (int) Math.min(body.countRows(), body.countColumns());
+        final double[] tmpBodyRowRe = new double[tmpDiagDim];
+        final double[] tmpBodyRowIm = new double[tmpDiagDim];
+
+        final ComplexSplitArray tmpSplitBody = body instanceof ComplexSplitArray ? (ComplexSplitArray) body : null;
+        final int tmpBodyStructure = (int) body.countRows();
+
+        double tmpValRe, tmpValIm, tmpInvRe = PrimitiveMath.ONE, tmpInvIm = PrimitiveMath.ZERO, tmpR, tmpD;
+        int tmpColBaseIndex, tmpIndex;
+
+        for (int i = 0; i < tmpDiagDim; i++) {
+
+            for (int j = 0; j <= i; j++) {
+                if (tmpSplitBody != null) {
+                    tmpIndex = conjugated ? j + (i * tmpBodyStructure) : i + (j * tmpBodyStructure);
+                    tmpBodyRowRe[j] = tmpSplitBody.real[tmpIndex];
+                    tmpBodyRowIm[j] = conjugated ? -tmpSplitBody.imaginary[tmpIndex] : tmpSplitBody.imaginary[tmpIndex];
+                } else {
+                    final ComplexNumber tmpBodyVal = conjugated ? body.get(j, i) : body.get(i, j);
+                    tmpBodyRowRe[j] = tmpBodyVal.doubleValue();
+                    tmpBodyRowIm[j] = conjugated ? -tmpBodyVal.i : tmpBodyVal.i;
+                }
+            }
+
+            if (!unitDiagonal) {
+                // 1 / diagonal element
+                if (Math.abs(tmpBodyRowRe[i]) > Math.abs(tmpBodyRowIm[i])) {
+                    tmpR = tmpBodyRowIm[i] / tmpBodyRowRe[i];
+                    tmpD = tmpBodyRowRe[i] + (tmpR * tmpBodyRowIm[i]);
+                    tmpInvRe = PrimitiveMath.ONE / tmpD;
+                    tmpInvIm = -tmpR / tmpD;
+                } else {
+                    tmpR = tmpBodyRowRe[i] / tmpBodyRowIm[i];
+                    tmpD = tmpBodyRowIm[i] + (tmpR * tmpBodyRowRe[i]);
+                    tmpInvRe = tmpR / tmpD;
+                    tmpInvIm = -PrimitiveMath.ONE / tmpD;
+                }
+            }
+
+            for (int s = first; s < limit; s++) {
+                tmpColBaseIndex = s * structure;
+
+                tmpValRe = PrimitiveMath.ZERO;
+                tmpValIm = PrimitiveMath.ZERO;
+                for (int j = identity ? s : 0; j < i; j++) {
+                    tmpIndex = j + tmpColBaseIndex;
+                    tmpValRe += (tmpBodyRowRe[j] * tmpRe[tmpIndex]) - (tmpBodyRowIm[j] * tmpIm[tmpIndex]);
+                    tmpValIm += (tmpBodyRowRe[j] * tmpIm[tmpIndex]) + (tmpBodyRowIm[j] * tmpRe[tmpIndex]);
+                }
+                tmpIndex = i + tmpColBaseIndex;
+                if (identity) {
+                    tmpValRe = i == s ? PrimitiveMath.ONE - tmpValRe : -tmpValRe;
+                    tmpValIm = -tmpValIm;
+                } else {
+                    tmpValRe = tmpRe[tmpIndex] - tmpValRe;
+                    tmpValIm = tmpIm[tmpIndex] - tmpValIm;
+                }
+
+                tmpRe[tmpIndex] = (tmpValRe * tmpInvRe) - (tmpValIm * tmpInvIm);
+                tmpIm[tmpIndex] = (tmpValRe * tmpInvIm) + (tmpValIm * tmpInvRe);
+            }
+        }
+    }
+
+    /**
+     * Exact rational substitution - no intermediate {@link RationalNumber} instances are created unless the
+     * body is some other kind of {@link Access2D}.
+     */
+    public static void invoke(final RationalSplitArray data, final int structure, final int first, final int limit, final Access2D<RationalNumber> body,
+            final boolean unitDiagonal, final boolean conjugated, final boolean identity) {
+
+        final int tmpDiagDim = (int) Math.min(body.countRows(), body.countColumns());
+        final RationalSplitArray tmpBodyRow = RationalSplitArray.make(tmpDiagDim);
+
+        final RationalSplitArray tmpSplitBody = body instanceof RationalSplitArray ? (RationalSplitArray) body : null;
+        final int tmpBodyStructure = (int) body.countRows();
+
+        int tmpColBaseIndex, tmpIndex;
+
+        for (int i = 0; i < tmpDiagDim; i++) {
+
+            for (int j = 0; j <= i; j++) {
+                if (tmpSplitBody != null) {
+                    tmpBodyRow.copy(j, tmpSplitBody, conjugated ? j + (i * tmpBodyStructure) : i + (j * tmpBodyStructure));
+                } else {
+                    tmpBodyRow.set(j, conjugated ? body.get(j, i) : body.get(i, j));
+                }
+            }
+
+            for (int s = first; s < limit; s++) {
+
+                tmpColBaseIndex = s * structure;
+                tmpIndex = i + tmpColBaseIndex;
+
+                if (identity) {
+                    data.set(tmpIndex, i == s ? PrimitiveMath.ONE : PrimitiveMath.ZERO);
+                }
+
+                for (int j = identity ? s : 0; j < i; j++) {
+                    data.subtractProduct(tmpIndex, tmpBodyRow, j, data, j + tmpColBaseIndex);
+                }
+
+                if (!unitDiagonal) {
+                    data.divide(tmpIndex, tmpBodyRow, i);
+                }
+            }
+        }
+    }
+
     public static <N extends Number & Scalar<N>> void invoke(final N[] data, final int structure, final int first, final int limit, final Access2D<N> body,
             final boolean unitDiagonal, final boolean conjugated, final boolean identity, final Scalar.Factory<N> scalar) {
 
@@ -0,0 +1,486 @@
+/*
+ * Copyright 1997-2018 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.matrix.store.operation;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.function.IntConsumer;
+import java.util.function.IntFunction;
+import java.util.function.IntSupplier;
+
+import org.ojalgo.OjAlgoUtils;
+import org.ojalgo.ProgrammingError;
+import org.ojalgo.array.Primitive64Array;
+import org.ojalgo.array.blas.AXPY;
+import org.ojalgo.array.blas.GEMM;
+import org.ojalgo.concurrent.DivideAndConquer;
+import org.ojalgo.function.PrimitiveFunction;
+import org.ojalgo.function.aggregator.PrimitiveAggregator;
+import org.ojalgo.matrix.store.PrimitiveDenseStore;
+import org.ojalgo.matrix.transformation.Householder;
+import org.ojalgo.random.Uniform;
+
+/**
+ * A named set of matrix operation thresholds - the matrix sizes at which the various operations switch from
+ * single to multi threaded execution. The built-in thresholds are reasonable for a typical laptop.
+ * {@link #calibrate()} micro-benchmarks the operations on the current host to find better values. A profile
+ * can be saved and then loaded (and applied) on subsequent JVM starts.
+ *
+ * <pre>
+ * ThresholdProfile.calibrate().save(file); // Once
+ * ThresholdProfile.load(file).apply(); // At every startup
+ * </pre>
+ *
+ * The thresholds are shared by all element types. Calibration is done using primitive double elements.
+ *
+ * @author apete
+ */
+public final class ThresholdProfile {
+
+    /**
+     * An operation's sequential implementation applied to a part, [first, limit), of its full range. The
+     * full range of a benchmark is always [0, size).
+     */
+    @FunctionalInterface
+    interface Kernel {
+
+        void invoke(int first, int limit);
+
+    }
+
+    static final class Operation {
+
+        /**
+         * Returns 2 tasks to time for a specific (square) matrix size - the operation as executed below and
+         * above the threshold - or null if there is no benchmark.
+         */
+        final IntFunction<Runnable[]> benchmark;
+        final IntSupplier getter;
+        final IntConsumer setter;
+
+        Operation(final IntSupplier getter, final IntConsumer setter, final IntFunction<Runnable[]> benchmark) {
+            super();
+            this.getter = getter;
+            this.setter = setter;
+            this.benchmark = benchmark;
+        }
+
+    }
+
+    /**
+     * The smallest matrix size that is benchmarked
+     */
+    public static int MIN_SIZE = 16;
+    /**
+     * Parallel execution has to be at least this much faster, than sequential execution, to be considered
+     * better.
+     */
+    public static double SPEEDUP = 1.1;
+
+    private static final long BATCH_NANOS = 500_000L;
+    private static final int BATCHES = 7;
+    private static final Map<String, Operation> OPERATIONS = new LinkedHashMap<>();
+
+    static {
+
+        OPERATIONS.put("AggregateAll", new Operation(() -> AggregateAll.THRESHOLD, value -> AggregateAll.THRESHOLD = value, ThresholdProfile.parallel(size -> {
+            final Primitive64Array array = Primitive64Array.wrap(ThresholdProfile.random(size, size).data);
+            return (first, limit) -> array.visitRange(size * first, size * limit, PrimitiveAggregator.getSet().sum());
+        })));
+        OPERATIONS.put("ApplyCholesky", new Operation(() -> ApplyCholesky.THRESHOLD, value -> ApplyCholesky.THRESHOLD = value, ThresholdProfile.parallel(size -> {
+            final double[] data = ThresholdProfile.random(size + 1, size + 1).data;
+            final double[] multipliers = new double[size + 1];
+            return (first, limit) -> ApplyCholesky.invoke(data, size + 1, first + 1, limit + 1, multipliers);
+        })));
+        OPERATIONS.put("ApplyLDL", new Operation(() -> ApplyLDL.THRESHOLD, value -> ApplyLDL.THRESHOLD = value, ThresholdProfile.parallel(size -> {
+            final double[] data = ThresholdProfile.random(size + 1, size + 1).data;
+            final double[] multipliers = new double[size + 1];
+            return (first, limit) -> ApplyLDL.invoke(data, size + 1, first + 1, limit + 1, multipliers, 0);
+        })));
+        OPERATIONS.put("ApplyLDU", new Operation(() -> ApplyLDU.THRESHOLD, value -> ApplyLDU.THRESHOLD = value, null));
+        OPERATIONS.put("ApplyLU", new Operation(() -> ApplyLU.THRESHOLD, value -> ApplyLU.THRESHOLD = value, ThresholdProfile.parallel(size -> {
+            final double[] data = ThresholdProfile.random(size + 1, size + 1).data;
+            final double[] multipliers = new double[size + 1];
+            return (first, limit) -> ApplyLU.invoke(data, size + 1, first + 1, limit + 1, multipliers, 0);
+        })));
+        OPERATIONS.put("AXPY", new Operation(() -> AXPY.THRESHOLD, value -> AXPY.THRESHOLD = value, null));
+        OPERATIONS.put("BlockedCholesky", new Operation(() -> BlockedCholesky.THRESHOLD, value -> BlockedCholesky.THRESHOLD = value, null));
+        OPERATIONS.put("BlockedLU", new Operation(() -> BlockedLU.THRESHOLD, value -> BlockedLU.THRESHOLD = value, null));
+        OPERATIONS.put("BlockedQR", new Operation(() -> BlockedQR.THRESHOLD, value -> BlockedQR.THRESHOLD = value, null));
+        OPERATIONS.put("FillMatchingDual", new Operation(() -> FillMatchingDual.THRESHOLD, value -> FillMatchingDual.THRESHOLD = value, ThresholdProfile.parallel(size -> {
+            final double[] data = new double[size * size];
+            final double[] left = ThresholdProfile.random(size, size).data;
+            final double[] right = ThresholdProfile.random(size, size).data;
+            return (first, limit) -> {
+                for (int i = size * first, end = size * limit; i < end; i++) {
+                    data[i] = PrimitiveFunction.ADD.invoke(left[i], right[i]);
+                }
+            };
+        })));
+        OPERATIONS.put("FillMatchingSingle", new Operation(() -> FillMatchingSingle.THRESHOLD, value -> FillMatchingSingle.THRESHOLD = value, ThresholdProfile.parallel(size -> {
+            final double[] data = new double[size * size];
+            final PrimitiveDenseStore values = ThresholdProfile.random(size, size);
+            return (first, limit) -> FillMatchingSingle.copy(data, size, first, limit, values);
+        })));
+        OPERATIONS.put("GEMM", new Operation(() -> GEMM.THRESHOLD, value -> GEMM.THRESHOLD = value, size -> {
+            // Not a parallel threshold - the unblocked and the blocked (GEMM) implementations, both single threaded
+            final double[] product = new double[size * size];
+            final double[] left = ThresholdProfile.random(size, size).data;
+            final double[] right = ThresholdProfile.random(size, size).data;
+            return new Runnable[] { () -> {
+                Arrays.fill(product, 0.0);
+                MultiplyNeither.invoke(product, 0, size, left, size, right);
+            }, () -> GEMM.invoke(product, left, size, right) };
+        }));
+        OPERATIONS.put("GenerateApplyAndCopyHouseholderColumn", new Operation(() -> GenerateApplyAndCopyHouseholderColumn.THRESHOLD,
+                value -> GenerateApplyAndCopyHouseholderColumn.THRESHOLD = value, null));
+        OPERATIONS.put("GenerateApplyAndCopyHouseholderRow",
+                new Operation(() -> GenerateApplyAndCopyHouseholderRow.THRESHOLD, value -> GenerateApplyAndCopyHouseholderRow.THRESHOLD = value, null));
+        OPERATIONS.put("HermitianRank2Update", new Operation(() -> HermitianRank2Update.THRESHOLD, value -> HermitianRank2Update.THRESHOLD = value, null));
+        OPERATIONS.put("HouseholderLeft", new Operation(() -> HouseholderLeft.THRESHOLD, value -> HouseholderLeft.THRESHOLD = value, ThresholdProfile.parallel(size -> {
+            final double[] data = ThresholdProfile.random(size, size).data;
+            final Householder.Primitive householder = new Householder.Primitive(size);
+            return (first, limit) -> HouseholderLeft.invoke(data, size, first, limit, householder);
+        })));
+        OPERATIONS.put("HouseholderRight", new Operation(() -> HouseholderRight.THRESHOLD, value -> HouseholderRight.THRESHOLD = value, ThresholdProfile.parallel(size -> {
+            final double[] data = ThresholdProfile.random(size, size).data;
+            final Householder.Primitive householder = new Householder.Primitive(size);
+            final double[] worker = new double[size];
+            return (first, limit) -> HouseholderRight.invoke(data, size, first, limit, size, householder, worker);
+        })));
+        OPERATIONS.put("ModifyAll", new Operation(() -> ModifyAll.THRESHOLD, value -> ModifyAll.THRESHOLD = value, ThresholdProfile.parallel(size -> {
+            final Primitive64Array array = Primitive64Array.wrap(ThresholdProfile.random(size, size).data);
+            return (first, limit) -> array.modifyRange(size * first, size * limit, PrimitiveFunction.ABS);
+        })));
+        OPERATIONS.put("MultiplyBoth", new Operation(() -> MultiplyBoth.THRESHOLD, value -> MultiplyBoth.THRESHOLD = value, ThresholdProfile.parallel(size -> {
+            final double[] product = new double[size * size];
+            final PrimitiveDenseStore left = ThresholdProfile.random(size, size);
+            final PrimitiveDenseStore right = ThresholdProfile.random(size, size);
+            return (first, limit) -> MultiplyBoth.invoke(product, first, limit, left, size, right);
+        })));
+        OPERATIONS.put("MultiplyHermitianAndVector",
+                new Operation(() -> MultiplyHermitianAndVector.THRESHOLD, value -> MultiplyHermitianAndVector.THRESHOLD = value, null));
+        OPERATIONS.put("MultiplyLeft", new Operation(() -> MultiplyLeft.THRESHOLD, value -> MultiplyLeft.THRESHOLD = value, ThresholdProfile.parallel(size -> {
+            final double[] product = new double[size * size];
+            final PrimitiveDenseStore left = ThresholdProfile.random(size, size);
+            final double[] right = ThresholdProfile.random(size, size).data;
+            return (first, limit) -> MultiplyLeft.invoke(product, first, limit, left, size, right);
+        })));
+        OPERATIONS.put("MultiplyNeither", new Operation(() -> MultiplyNeither.THRESHOLD, value -> MultiplyNeither.THRESHOLD = value, ThresholdProfile.parallel(size -> {
+            final double[] product = new double[size * size];
+            final double[] left = ThresholdProfile.random(size, size).data;
+            final double[] right = ThresholdProfile.random(size, size).data;
+            return (first, limit) -> MultiplyNeither.invoke(product, first, limit, left, size, right);
+        })));
+        OPERATIONS.put("MultiplyRight", new Operation(() -> MultiplyRight.THRESHOLD, value -> MultiplyRight.THRESHOLD = value, ThresholdProfile.parallel(size -> {
+            final double[] product = new double[size * size];
+            final double[] left = ThresholdProfile.random(size, size).data;
+            final PrimitiveDenseStore right = ThresholdProfile.random(size, size);
+            return (first, limit) -> MultiplyRight.invoke(product, first, limit, left, size, right);
+        })));
+        OPERATIONS.put("MultiplySparse", new Operation(() -> MultiplySparse.THRESHOLD, value -> MultiplySparse.THRESHOLD = value, ThresholdProfile.parallel(size -> {
+            // Banded, 9 nonzeros per row (fewer at the ends)
+            final int[] pointers = new int[size + 1];
+            final int[] indices = new int[9 * size];
+            final double[] values = new double[9 * size];
+            int nnz = 0;
+            for (int i = 0; i < size; i++) {
+                for (int j = Math.max(0, i - 4), limit = Math.min(size, i + 5); j < limit; j++) {
+                    indices[nnz] = j;
+                    values[nnz] = Math.random();
+                    nnz++;
+                }
+                pointers[i + 1] = nnz;
+            }
+            final double[] right = ThresholdProfile.random(size, 1).data;
+            final double[] product = new double[size];
+            return (first, limit) -> MultiplySparse.invoke(product, first, limit, size, pointers, indices, values, right, size);
+        })));
+        OPERATIONS.put("RotateLeft", new Operation(() -> RotateLeft.THRESHOLD, value -> RotateLeft.THRESHOLD = value, null));
+        OPERATIONS.put("RotateRight", new Operation(() -> RotateRight.THRESHOLD, value -> RotateRight.THRESHOLD = value, null));
+        OPERATIONS.put("SubstituteBackwards", new Operation(() -> SubstituteBackwards.THRESHOLD, value -> SubstituteBackwards.THRESHOLD = value, ThresholdProfile.parallel(size -> {
+            final PrimitiveDenseStore body = ThresholdProfile.triangular(size, true);
+            final double[] rhs = ThresholdProfile.random(size, size).data;
+            final double[] data = new double[rhs.length];
+            return (first, limit) -> {
+                System.arraycopy(rhs, size * first, data, size * first, size * (limit - first));
+                SubstituteBackwards.invoke(data, size, first, limit, body, false, false, false);
+            };
+        })));
+        OPERATIONS.put("SubstituteForwards", new Operation(() -> SubstituteForwards.THRESHOLD, value -> SubstituteForwards.THRESHOLD = value, ThresholdProfile.parallel(size -> {
+            final PrimitiveDenseStore body = ThresholdProfile.triangular(size, false);
+            final double[] rhs = ThresholdProfile.random(size, size).data;
+            final double[] data = new double[rhs.length];
+            return (first, limit) -> {
+                System.arraycopy(rhs, size * first, data, size * first, size * (limit - first));
+                SubstituteForwards.invoke(data, size, first, limit, body, false, false, false);
+            };
+        })));
+    }
+
+    /**
+     * Benchmarks all operations, that have a benchmark defined, using matrix sizes up to 512.
+     *
+     * @see #calibrate(int)
+     */
+    public static ThresholdProfile calibrate() {
+        return ThresholdProfile.calibrate(512);
+    }
+
+    /**
+     * For each operation, and for increasing matrix sizes (powers of 2), time execution of the operation both
+     * sequentially and split in 2 parallel parts. The threshold is set to the smallest size where the parallel
+     * execution is (significantly) faster. Operations without a benchmark, or where parallel execution never
+     * pays off up to maxSize, retain their current value. ({@link GEMM#THRESHOLD} is not a parallel threshold
+     * - there the unblocked and the blocked implementations are compared instead.)
+     * <p>
+     * The operations' (sequential) kernels are invoked directly, and split explicitly, so the currently active
+     * thresholds are neither used nor modified - call {@link #apply()} on the returned profile to do that.
+     *
+     * @param maxSize The largest matrix size to benchmark
+     */
+    public static ThresholdProfile calibrate(final int maxSize) {
+
+        final ThresholdProfile retVal = ThresholdProfile.current();
+
+        for (final Map.Entry<String, Operation> entry : OPERATIONS.entrySet()) {
+
+            final Operation operation = entry.getValue();
+
+            if (operation.benchmark != null) {
+
+                int calibrated = operation.getter.getAsInt();
+
+                for (int size = MIN_SIZE; size <= maxSize; size *= 2) {
+
+                    final Runnable[] tasks = operation.benchmark.apply(size);
+
+                    final double below = ThresholdProfile.time(tasks[0]);
+                    final double above = ThresholdProfile.time(tasks[1]);
+
+                    if ((SPEEDUP * above) < below) {
+                        calibrated = size;
+                        break;
+                    }
+                }
+
+                retVal.myThresholds.put(entry.getKey(), calibrated);
+            }
+        }
+
+        return retVal;
+    }
+
+    /**
+     * @return A profile containing the currently active thresholds
+     */
+    public static ThresholdProfile current() {
+
+        final ThresholdProfile retVal = new ThresholdProfile();
+
+        for (final Map.Entry<String, Operation> entry : OPERATIONS.entrySet()) {
+            retVal.myThresholds.put(entry.getKey(), entry.getValue().getter.getAsInt());
+        }
+
+        return retVal;
+    }
+
+    public static ThresholdProfile load(final File file) {
+        try (InputStream input = new FileInputStream(file)) {
+            return ThresholdProfile.load(input);
+        } catch (final IOException cause) {
+            throw new ProgrammingError(cause);
+        }
+    }
+
+    /**
+     * Reads a profile in {@link Properties} format - operation names mapped to threshold values. Unknown
+     * operations are ignored, and operations not mentioned retain their currently active thresholds.
+     */
+    public static ThresholdProfile load(final InputStream input) throws IOException {
+
+        final Properties properties = new Properties();
+        properties.load(input);
+
+        final ThresholdProfile retVal = ThresholdProfile.current();
+
+        for (final String key : properties.stringPropertyNames()) {
+            if (OPERATIONS.containsKey(key)) {
+                retVal.myThresholds.put(key, Integer.valueOf(properties.getProperty(key).trim()));
+            }
+        }
+
+        return retVal;
+    }
+
+    /**
+     * @return The names of all operations that have a threshold
+     */
+    public static Set<String> operations() {
+        return Collections.unmodifiableSet(OPERATIONS.keySet());
+    }
+
+    /**
+     * The kernel over the full range, and split in 2 parts executed in parallel. The operations' (sequential)
+     * kernels are invoked, and split, explicitly - the active thresholds are not used.
+     */
+    static IntFunction<Runnable[]> parallel(final IntFunction<Kernel> benchmark) {
+        return size -> {
+
+            final Kernel kernel = benchmark.apply(size);
+
+            final DivideAndConquer conquerer = new DivideAndConquer() {
+
+                @Override
+                protected void conquer(final int first, final int limit) {
+                    kernel.invoke(first, limit);
+                }
+
+            };
+
+            return new Runnable[] { () -> kernel.invoke(0, size), () -> conquerer.invoke(0, size, size / 2, 2) };
+        };
+    }
+
+    static PrimitiveDenseStore random(final int rows, final int columns) {
+        return PrimitiveDenseStore.FACTORY.makeFilled(rows, columns, new Uniform());
+    }
+
+    /**
+     * @param upper true for upper, false for lower, triangular
+     * @return A well conditioned (diagonally dominant) triangular matrix
+     */
+    static PrimitiveDenseStore triangular(final int size, final boolean upper) {
+        final PrimitiveDenseStore retVal = PrimitiveDenseStore.FACTORY.makeZero(size, size);
+        final Uniform uniform = new Uniform();
+        for (int j = 0; j < size; j++) {
+            for (int i = upper ? 0 : j, limit = upper ? j : size; i < limit; i++) {
+                retVal.set(i, j, uniform.doubleValue());
+            }
+            retVal.set(j, j, size);
+        }
+        return retVal;
+    }
+
+    /**
+     * @return The best (min) average execution time, in nanoseconds, from a number of batches
+     */
+    static double time(final Runnable task) {
+
+        task.run();
+
+        int iterations = 1;
+        long elapsed;
+        do {
+            final long start = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+                task.run();
+            }
+            elapsed = System.nanoTime() - start;
+            iterations *= 2;
+        } while (elapsed < BATCH_NANOS);
+        iterations /= 2;
+
+        double retVal = (double) elapsed / iterations;
+
+        for (int b = 1; b < BATCHES; b++) {
+            final long start = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+                task.run();
+            }
+            retVal = Math.min(retVal, (double) (System.nanoTime() - start) / iterations);
+        }
+
+        return retVal;
+    }
+
+    private final Map<String, Integer> myThresholds = new LinkedHashMap<>();
+
+    private ThresholdProfile() {
+        super();
+    }
+
+    /**
+     * Make this profile's thresholds the currently active ones.
+     */
+    public void apply() {
+        for (final Map.Entry<String, Integer> entry : myThresholds.entrySet()) {
+            OPERATIONS.get(entry.getKey()).setter.accept(entry.getValue().intValue());
+        }
+    }
+
+    public int getThreshold(final String operation) {
+        final Integer retVal = myThresholds.get(operation);
+        if (retVal != null) {
+            return retVal.intValue();
+        } else {
+            throw new IllegalArgumentException("No such operation: " + operation);
+        }
+    }
+
+    public void save(final File file) {
+        try (OutputStream output = new FileOutputStream(file)) {
+            this.save(output);
+        } catch (final IOException cause) {
+            throw new ProgrammingError(cause);
+        }
+    }
+
+    /**
+     * Writes this profile in {@link Properties} format. The environment it was created in is recorded as a
+     * comment.
+     */
+    public void save(final OutputStream output) throws IOException {
+
+        final Properties properties = new Properties();
+
+        for (final Map.Entry<String, Integer> entry : myThresholds.entrySet()) {
+            properties.setProperty(entry.getKey(), entry.getValue().toString());
+        }
+
+        properties.store(output, OjAlgoUtils.ENVIRONMENT.toString());
+    }
+
+    public void setThreshold(final String operation, final int threshold) {
+        if (myThresholds.containsKey(operation)) {
+            myThresholds.put(operation, threshold);
+        } else {
+            throw new IllegalArgumentException("No such operation: " + operation);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return myThresholds.toString();
+    }
+
+}
@@ -27,10 +27,12 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 
 import org.ojalgo.ProgrammingError;
+import org.ojalgo.array.SparseArray.NonzeroPrimitiveCallback;
 import org.ojalgo.constant.BigMath;
 import org.ojalgo.function.BinaryFunction;
 import org.ojalgo.function.PrimitiveFunction;
@@ -71,10 +73,45 @@ import org.ojalgo.type.TypeUtils;
  */
 public final class Expression extends ModelEntity<Expression> {
 
+    @FunctionalInterface
+    interface QuadraticCallback {
+
+        void call(int row, int column, double value);
+
+    }
+
+    private static Map<IntIndex, BigDecimal> makeLinear(final ExpressionsBasedModel model, final Map<IntIndex, BigDecimal> factorsToCopy) {
+        if (model.options.model_primitive) {
+            if (factorsToCopy instanceof PrimitiveFactors) {
+                return new PrimitiveFactors.Linear((PrimitiveFactors<IntIndex>) factorsToCopy);
+            } else {
+                final PrimitiveFactors<IntIndex> retVal = new PrimitiveFactors.Linear();
+                retVal.putAll(factorsToCopy);
+                return retVal;
+            }
+        } else {
+            return new HashMap<>(factorsToCopy);
+        }
+    }
+
+    private static Map<IntRowColumn, BigDecimal> makeQuadratic(final ExpressionsBasedModel model, final Map<IntRowColumn, BigDecimal> factorsToCopy) {
+        if (model.options.model_primitive) {
+            if (factorsToCopy instanceof PrimitiveFactors) {
+                return new PrimitiveFactors.Quadratic((PrimitiveFactors<IntRowColumn>) factorsToCopy);
+            } else {
+                final PrimitiveFactors<IntRowColumn> retVal = new PrimitiveFactors.Quadratic();
+                retVal.putAll(factorsToCopy);
+                return retVal;
+            }
+        } else {
+            return new HashMap<>(factorsToCopy);
+        }
+    }
+
     private transient boolean myInfeasible = false;
-    private final HashMap<IntIndex, BigDecimal> myLinear;
+    private final Map<IntIndex, BigDecimal> myLinear;
     private final ExpressionsBasedModel myModel;
-    private final HashMap<IntRowColumn, BigDecimal> myQuadratic;
+    private final Map<IntRowColumn, BigDecimal> myQuadratic;
     private transient boolean myRedundant = false;
     private final boolean myShallowCopy;
 
@@ -96,11 +133,8 @@ public final class Expression extends ModelEntity<Expression> {
 
             myShallowCopy = false;
 
-            myLinear = new HashMap<>();
-            myLinear.putAll(expressionToCopy.getLinear());
-
-            myQuadratic = new HashMap<>();
-            myQuadratic.putAll(expressionToCopy.getQuadratic());
+            myLinear = Expression.makeLinear(destinationModel, expressionToCopy.getLinear());
+            myQuadratic = Expression.makeQuadratic(destinationModel, expressionToCopy.getQuadratic());
 
         } else {
 
@@ -119,14 +153,20 @@ public final class Expression extends ModelEntity<Expression> {
 
         myShallowCopy = false;
 
-        myLinear = new HashMap<>();
-        myQuadratic = new HashMap<>();
+        myLinear = Expression.makeLinear(model, Collections.emptyMap());
+        myQuadratic = Expression.makeQuadratic(model, Collections.emptyMap());
 
         ProgrammingError.throwIfNull(myModel, myLinear, myQuadratic);
     }
 
     public Expression add(final IntIndex key, final Number value) {
 
+        if (myLinear instanceof PrimitiveFactors) {
+            ProgrammingError.throwIfNull(key);
+            ((PrimitiveFactors<IntIndex>) myLinear).add(key, value.doubleValue());
+            return this;
+        }
+
         final BigDecimal tmpExisting = myLinear.get(key);
 
         if (tmpExisting != null) {
@@ -140,6 +180,12 @@ public final class Expression extends ModelEntity<Expression> {
 
     public Expression add(final IntRowColumn key, final Number value) {
 
+        if (myQuadratic instanceof PrimitiveFactors) {
+            ProgrammingError.throwIfNull(key);
+            ((PrimitiveFactors<IntRowColumn>) myQuadratic).add(key, value.doubleValue());
+            return this;
+        }
+
         final BigDecimal tmpExisting = myQuadratic.get(key);
 
         if (tmpExisting != null) {
@@ -335,7 +381,11 @@ public final class Expression extends ModelEntity<Expression> {
     }
 
     public double getAdjustedLinearFactor(final IntIndex key) {
-        return this.getLinearFactor(key, true).doubleValue();
+        if (myLinear instanceof PrimitiveFactors) {
+            return this.adjust(((PrimitiveFactors<IntIndex>) myLinear).doubleValue(key));
+        } else {
+            return this.getLinearFactor(key, true).doubleValue();
+        }
     }
 
     public double getAdjustedLinearFactor(final Variable aVar) {
@@ -347,7 +397,11 @@ public final class Expression extends ModelEntity<Expression> {
     }
 
     public double getAdjustedQuadraticFactor(final IntRowColumn key) {
-        return this.getQuadraticFactor(key, true).doubleValue();
+        if (myQuadratic instanceof PrimitiveFactors) {
+            return this.adjust(((PrimitiveFactors<IntRowColumn>) myQuadratic).doubleValue(key));
+        } else {
+            return this.getQuadraticFactor(key, true).doubleValue();
+        }
     }
 
     public double getAdjustedQuadraticFactor(final Variable aVar1, final Variable aVar2) {
@@ -432,7 +486,11 @@ public final class Expression extends ModelEntity<Expression> {
 
     public Expression set(final IntIndex key, final Number value) {
 
-        if (key != null) {
+        if ((key != null) && (myLinear instanceof PrimitiveFactors)) {
+
+            ((PrimitiveFactors<IntIndex>) myLinear).set(key, value.doubleValue());
+
+        } else if (key != null) {
 
             final BigDecimal tmpValue = TypeUtils.toBigDecimal(value);
 
@@ -452,7 +510,11 @@ public final class Expression extends ModelEntity<Expression> {
 
     public Expression set(final IntRowColumn key, final Number value) {
 
-        if (key != null) {
+        if ((key != null) && (myQuadratic instanceof PrimitiveFactors)) {
+
+            ((PrimitiveFactors<IntRowColumn>) myQuadratic).set(key, value.doubleValue());
+
+        } else if (key != null) {
 
             final BigDecimal tmpValue = TypeUtils.toBigDecimal(value);
 
@@ -561,6 +623,32 @@ public final class Expression extends ModelEntity<Expression> {
         }
     }
 
+    /**
+     * Calls the visitor with each (adjusted) linear factor and the index of its variable. Doesn't create
+     * any keys or BigDecimal values, and with {@linkplain Optimisation.Options#model_primitive} set this is
+     * the fastest way to translate the expression to solver form.
+     */
+    public void visitAdjustedLinearFactors(final NonzeroPrimitiveCallback visitor) {
+        if (myLinear instanceof PrimitiveFactors) {
+            final int tmpAdjExp = this.getAdjustmentExponent();
+            if (tmpAdjExp != 0) {
+                final double tmpScale = Math.pow(10.0, tmpAdjExp);
+                ((PrimitiveFactors<IntIndex>) myLinear).visit((index, value) -> visitor.call(index, value * tmpScale));
+            } else {
+                ((PrimitiveFactors<IntIndex>) myLinear).visit(visitor);
+            }
+        } else {
+            for (final Entry<IntIndex, BigDecimal> tmpEntry : myLinear.entrySet()) {
+                visitor.call(tmpEntry.getKey().index, this.convert(tmpEntry.getValue(), true).doubleValue());
+            }
+        }
+    }
+
+    private double adjust(final double value) {
+        final int tmpAdjExp = this.getAdjustmentExponent();
+        return tmpAdjExp != 0 ? value * Math.pow(10.0, tmpAdjExp) : value;
+    }
+
     private final BigDecimal convert(final BigDecimal value, final boolean adjusted) {
 
         if (value != null) {
@@ -657,6 +745,18 @@ public final class Expression extends ModelEntity<Expression> {
         return retVal;
     }
 
+    /**
+     * If the factors are stored as primitives, turn the (building) hash tables into sorted arrays.
+     */
+    void compact() {
+        if (myLinear instanceof PrimitiveFactors) {
+            ((PrimitiveFactors<IntIndex>) myLinear).compact();
+        }
+        if (myQuadratic instanceof PrimitiveFactors) {
+            ((PrimitiveFactors<IntRowColumn>) myQuadratic).compact();
+        }
+    }
+
     Expression copy(final ExpressionsBasedModel destinationModel, final boolean deep) {
         return new Expression(this, destinationModel, deep);
     }
@@ -690,21 +790,17 @@ public final class Expression extends ModelEntity<Expression> {
         final CompoundFunction<Double> retVal = CompoundFunction.makePrimitive(myModel.countVariables());
 
         if (this.isAnyQuadraticFactorNonZero()) {
-            for (final Entry<IntRowColumn, BigDecimal> tmpEntry : myQuadratic.entrySet()) {
-                retVal.quadratic().set(tmpEntry.getKey().row, tmpEntry.getKey().column, tmpEntry.getValue().doubleValue());
-            }
+            this.visitQuadratic((row, column, value) -> retVal.quadratic().set(row, column, value));
         }
 
         if (this.isAnyLinearFactorNonZero()) {
-            for (final Entry<IntIndex, BigDecimal> tmpEntry : myLinear.entrySet()) {
-                retVal.linear().set(tmpEntry.getKey().index, tmpEntry.getValue().doubleValue());
-            }
+            this.visitLinear((index, value) -> retVal.linear().set(index, value));
         }
 
         return retVal;
     }
 
-    HashMap<IntIndex, BigDecimal> getLinear() {
+    Map<IntIndex, BigDecimal> getLinear() {
         return myLinear;
     }
 
@@ -717,9 +813,7 @@ public final class Expression extends ModelEntity<Expression> {
         final LinearFunction<Double> retVal = LinearFunction.makePrimitive(myModel.countVariables());
 
         if (this.isAnyLinearFactorNonZero()) {
-            for (final Entry<IntIndex, BigDecimal> tmpEntry : myLinear.entrySet()) {
-                retVal.linear().set(tmpEntry.getKey().index, tmpEntry.getValue().doubleValue());
-            }
+            this.visitLinear((index, value) -> retVal.linear().set(index, value));
         }
 
         return retVal;
@@ -729,7 +823,7 @@ public final class Expression extends ModelEntity<Expression> {
         return myModel;
     }
 
-    HashMap<IntRowColumn, BigDecimal> getQuadratic() {
+    Map<IntRowColumn, BigDecimal> getQuadratic() {
         return myQuadratic;
     }
 
@@ -742,9 +836,7 @@ public final class Expression extends ModelEntity<Expression> {
         final QuadraticFunction<Double> retVal = QuadraticFunction.makePrimitive(myModel.countVariables());
 
         if (this.isAnyQuadraticFactorNonZero()) {
-            for (final Entry<IntRowColumn, BigDecimal> tmpEntry : myQuadratic.entrySet()) {
-                retVal.quadratic().set(tmpEntry.getKey().row, tmpEntry.getKey().column, tmpEntry.getValue().doubleValue());
-            }
+            this.visitQuadratic((row, column, value) -> retVal.quadratic().set(row, column, value));
         }
 
         return retVal;
@@ -841,18 +933,58 @@ public final class Expression extends ModelEntity<Expression> {
     void visitAllParameters(final VoidFunction<BigDecimal> largest, final VoidFunction<BigDecimal> smallest) {
 
         if (this.isAnyQuadraticFactorNonZero()) {
-            for (final BigDecimal quadraticFactor : myQuadratic.values()) {
-                largest.invoke(quadraticFactor);
-                smallest.invoke(quadraticFactor);
+            if (myQuadratic instanceof PrimitiveFactors) {
+                ((PrimitiveFactors<IntRowColumn>) myQuadratic).visit((key, quadraticFactor) -> {
+                    largest.invoke(quadraticFactor);
+                    smallest.invoke(quadraticFactor);
+                });
+            } else {
+                for (final BigDecimal quadraticFactor : myQuadratic.values()) {
+                    largest.invoke(quadraticFactor);
+                    smallest.invoke(quadraticFactor);
+                }
             }
         } else if (this.isAnyLinearFactorNonZero()) {
-            for (final BigDecimal linearFactor : myLinear.values()) {
-                largest.invoke(linearFactor);
-                smallest.invoke(linearFactor);
+            if (myLinear instanceof PrimitiveFactors) {
+                ((PrimitiveFactors<IntIndex>) myLinear).visit((key, linearFactor) -> {
+                    largest.invoke(linearFactor);
+                    smallest.invoke(linearFactor);
+                });
+            } else {
+                for (final BigDecimal linearFactor : myLinear.values()) {
+                    largest.invoke(linearFactor);
+                    smallest.invoke(linearFactor);
+                }
             }
         } else {
             super.visitAllParameters(largest, smallest);
         }
     }
 
+    /**
+     * Calls the visitor with each (not adjusted) linear factor and the index of its variable.
+     */
+    void visitLinear(final NonzeroPrimitiveCallback visitor) {
+        if (myLinear instanceof PrimitiveFactors) {
+            ((PrimitiveFactors<IntIndex>) myLinear).visit(visitor);
+        } else {
+            for (final Entry<IntIndex, BigDecimal> tmpEntry : myLinear.entrySet()) {
+                visitor.call(tmpEntry.getKey().index, tmpEntry.getValue().doubleValue());
+            }
+        }
+    }
+
+    /**
+     * Calls the visitor with each (not adjusted) quadratic factor and the indices of its variables.
+     */
+    void visitQuadratic(final QuadraticCallback visitor) {
+        if (myQuadratic instanceof PrimitiveFactors) {
+            ((PrimitiveFactors<IntRowColumn>) myQuadratic).visit((key, value) -> visitor.call((int) (key >>> 32), (int) key, value));
+        } else {
+            for (final Entry<IntRowColumn, BigDecimal> tmpEntry : myQuadratic.entrySet()) {
+                visitor.call(tmpEntry.getKey().row, tmpEntry.getKey().column, tmpEntry.getValue().doubleValue());
+            }
+        }
+    }
+
 }
@@ -182,14 +182,29 @@ public final class ExpressionsBasedModel extends AbstractModel<GenericSolver> {
          */
         protected abstract boolean isSolutionMapped();
 
+        /**
+         * Propagate the (changed) range of a model variable to an already built solver. The default
+         * implementation does nothing, and returns false.
+         *
+         * @return true if the solver was updated in-place, false if it needs to be rebuilt
+         */
+        protected boolean updateRange(final ExpressionsBasedModel model, final UpdatableSolver solver, final Variable variable) {
+            return false;
+        }
+
     }
 
     public static final class Intermediate implements Optimisation.Solver {
 
         private boolean myInPlaceUpdatesOK = true;
         private transient ExpressionsBasedModel.Integration<?> myIntegration = null;
+        /**
+         * The variable limits when the solver was built
+         */
+        private transient BigDecimal[] myLowerLimits = null;
         private final ExpressionsBasedModel myModel;
         private transient Optimisation.Solver mySolver = null;
+        private transient BigDecimal[] myUpperLimits = null;
 
         Intermediate(final ExpressionsBasedModel model) {
             super();
@@ -253,7 +268,10 @@ public final class ExpressionsBasedModel extends AbstractModel<GenericSolver> {
                 final Optimisation.Result derivedSolution = myModel.getVariableValues();
 
                 if (derivedSolution.getState().isFeasible()) {
-                    return new Optimisation.Result(State.DISTINCT, derivedSolution);
+                    // Dual fixing may have picked one of several optimal solutions
+                    final PresolveStatistics statistics = myModel.getPresolveStatistics();
+                    final boolean distinct = (statistics == null) || (statistics.countDualFixings() == 0L);
+                    return new Optimisation.Result(distinct ? State.DISTINCT : State.OPTIMAL, derivedSolution);
                 } else {
                     return new Optimisation.Result(State.INVALID, derivedSolution);
                 }
@@ -280,6 +298,14 @@ public final class ExpressionsBasedModel extends AbstractModel<GenericSolver> {
 
         public void update(final Variable variable) {
 
+            if (myInPlaceUpdatesOK && (mySolver != null) && (mySolver instanceof UpdatableSolver) && this.isWithinLimitsWhenBuilt(variable)) {
+                // Narrowing the range, possibly fixing the variable
+                if (this.getIntegration().updateRange(myModel, (UpdatableSolver) mySolver, variable)) {
+                    // Solver updated in-place
+                    return;
+                }
+            }
+
             if (myInPlaceUpdatesOK && (mySolver != null) && (mySolver instanceof UpdatableSolver) && variable.isFixed()) {
                 final UpdatableSolver updatableSolver = (UpdatableSolver) mySolver;
 
@@ -316,10 +342,41 @@ public final class ExpressionsBasedModel extends AbstractModel<GenericSolver> {
         Optimisation.Solver getSolver() {
             if (mySolver == null) {
                 mySolver = this.getIntegration().build(myModel);
+                final int numberOfVariables = myModel.countVariables();
+                myLowerLimits = new BigDecimal[numberOfVariables];
+                myUpperLimits = new BigDecimal[numberOfVariables];
+                for (int i = 0; i < numberOfVariables; i++) {
+                    final Variable variable = myModel.getVariable(i);
+                    myLowerLimits[i] = variable.getLowerLimit();
+                    myUpperLimits[i] = variable.getUpperLimit();
+                }
             }
             return mySolver;
         }
 
+        /**
+         * Solvers (may) have the variable limits built in to their constraints. Only a range within the
+         * limits the solver was built with can be updated in-place.
+         */
+        private boolean isWithinLimitsWhenBuilt(final Variable variable) {
+
+            final int index = myModel.indexOf(variable);
+
+            final BigDecimal lowerWhenBuilt = myLowerLimits[index];
+            final BigDecimal lower = variable.getLowerLimit();
+            if ((lowerWhenBuilt != null) && ((lower == null) || (lower.compareTo(lowerWhenBuilt) < 0))) {
+                return false;
+            }
+
+            final BigDecimal upperWhenBuilt = myUpperLimits[index];
+            final BigDecimal upper = variable.getUpperLimit();
+            if ((upperWhenBuilt != null) && ((upper == null) || (upper.compareTo(upperWhenBuilt) > 0))) {
+                return false;
+            }
+
+            return true;
+        }
+
     }
 
     public static abstract class Presolver extends Simplifier<Expression, Presolver> {
@@ -422,6 +479,7 @@ public final class ExpressionsBasedModel extends AbstractModel<GenericSolver> {
     static {
         ExpressionsBasedModel.addPresolver(Presolvers.ZERO_ONE_TWO);
         ExpressionsBasedModel.addPresolver(Presolvers.OPPOSITE_SIGN);
+        ExpressionsBasedModel.addPresolver(Presolvers.BOUND_PROPAGATION);
         // ExpressionsBasedModel.addPresolver(Presolvers.BINARY_VALUE);
         // ExpressionsBasedModel.addPresolver(Presolvers.BIGSTUFF);
 
@@ -461,6 +519,8 @@ public final class ExpressionsBasedModel extends AbstractModel<GenericSolver> {
     private final List<Variable> myNegativeVariables = new ArrayList<>();
     private transient int[] myPositiveIndices = null;
     private final List<Variable> myPositiveVariables = new ArrayList<>();
+    private transient PresolveStatistics myPresolveStatistics = null;
+    private transient boolean[] myReferenced = null;
     private final ArrayList<Variable> myVariables = new ArrayList<>();
     private final boolean myWorkCopy;
 
@@ -501,8 +561,13 @@ public final class ExpressionsBasedModel extends AbstractModel<GenericSolver> {
     }
 
     ExpressionsBasedModel(final ExpressionsBasedModel modelToCopy, final boolean workCopy, final boolean allEntities) {
+        this(modelToCopy, workCopy, allEntities, modelToCopy.options);
+    }
+
+    ExpressionsBasedModel(final ExpressionsBasedModel modelToCopy, final boolean workCopy, final boolean allEntities,
+            final Optimisation.Options someOptions) {
 
-        super(modelToCopy.options);
+        super(someOptions);
 
         this.setMinimisation(modelToCopy.isMinimisation());
 
@@ -763,6 +828,13 @@ public final class ExpressionsBasedModel extends AbstractModel<GenericSolver> {
         return Collections.unmodifiableList(myPositiveVariables);
     }
 
+    /**
+     * @return Counters and timings from the most recent presolve, or null if the model was never presolved
+     */
+    public PresolveStatistics getPresolveStatistics() {
+        return myPresolveStatistics;
+    }
+
     public Variable getVariable(final int index) {
         return myVariables.get(index);
     }
@@ -1135,6 +1207,9 @@ public final class ExpressionsBasedModel extends AbstractModel<GenericSolver> {
 
         final ExpressionsBasedModel retVal = new ExpressionsBasedModel(this, true, false);
 
+        // Presolved again, as a work copy, to also get the (objective dependent) dual fixing
+        retVal.presolve();
+
         return retVal;
     }
 
@@ -1304,9 +1379,22 @@ public final class ExpressionsBasedModel extends AbstractModel<GenericSolver> {
             }
         }
 
+        myReferenced = new boolean[myVariables.size()];
+        for (final Expression tmpExpression : myExpressions.values()) {
+            for (final IntIndex tmpKey : tmpExpression.getLinearKeySet()) {
+                myReferenced[tmpKey.index] = true;
+            }
+            for (final IntRowColumn tmpKey : tmpExpression.getQuadraticKeySet()) {
+                myReferenced[tmpKey.row] = true;
+                myReferenced[tmpKey.column] = true;
+            }
+        }
+
         for (final Variable tmpVariable : myVariables) {
             Presolvers.FIXED_OR_UNBOUNDED.simplify(tmpVariable, this);
         }
+
+        myReferenced = null;
     }
 
     Stream<Expression> expressions() {
@@ -1367,15 +1455,41 @@ public final class ExpressionsBasedModel extends AbstractModel<GenericSolver> {
         return myVariables.stream().anyMatch(v -> v.isUnbounded());
     }
 
+    /**
+     * Is the variable included in any expression (constraint or objective)?
+     */
+    boolean isReferenced(final Variable variable) {
+        if (myReferenced != null) {
+            return myReferenced[variable.getIndex().index];
+        } else {
+            return this.expressions().anyMatch(expr -> expr.includes(variable));
+        }
+    }
+
     Optimisation.Result optimise() {
 
-        if (PRESOLVERS.size() > 0) {
-            this.scanEntities();
-        }
+        final Optimisation.Result retSolution;
+
+        if ((options.portfolio != null) && (options.portfolio.size() > 0)) {
+
+            // Each strategy solves its own copy - this model is not presolved
+            retSolution = SolverPortfolio.race(this);
+
+        } else {
+
+            if (options.model_primitive) {
+                // Done here, before any (multi threaded) solver reads the shared factors
+                myExpressions.values().forEach(Expression::compact);
+            }
+
+            if (PRESOLVERS.size() > 0) {
+                this.scanEntities();
+            }
 
-        Intermediate prepared = this.prepare();
+            final Intermediate prepared = this.prepare();
 
-        final Optimisation.Result retSolution = prepared.solve(null);
+            retSolution = prepared.solve(null);
+        }
 
         for (int i = 0, limit = myVariables.size(); i < limit; i++) {
             final Variable tmpVariable = myVariables.get(i);
@@ -1390,31 +1504,17 @@ public final class ExpressionsBasedModel extends AbstractModel<GenericSolver> {
         return new Optimisation.Result(retState, retValue, retSolution);
     }
 
+    /**
+     * Only the constraints that include a variable that was fixed, or had its bounds tightened, are
+     * re-evaluated - see {@link PresolveEngine}. The column pass (dual fixing) depends on the objective
+     * function, and is therefore only performed on work copies, such as branch-and-bound nodes and the
+     * model returned by {@link #simplify()} (and only if there are any presolvers registered).
+     */
     final void presolve() {
 
         myExpressions.values().forEach(expr -> expr.reset());
 
-        boolean needToRepeat = false;
-
-        do {
-
-            final Set<IntIndex> fixedVariables = this.getFixedVariables();
-            BigDecimal fixedValue;
-
-            needToRepeat = false;
-
-            for (final Expression expr : this.getExpressions()) {
-                if (!needToRepeat && expr.isConstraint() && !expr.isInfeasible() && !expr.isRedundant() && (expr.countQuadraticFactors() == 0)) {
-                    fixedValue = options.solution.enforce(expr.calculateFixedValue(fixedVariables));
-                    for (final Presolver presolver : PRESOLVERS) {
-                        if (!needToRepeat) {
-                            needToRepeat |= presolver.simplify(expr, fixedVariables, fixedValue, this::getVariable, options.feasibility);
-                        }
-                    }
-                }
-            }
-
-        } while (needToRepeat);
+        myPresolveStatistics = new PresolveEngine(this).presolve(PRESOLVERS, myWorkCopy && (PRESOLVERS.size() > 0));
 
         this.categoriseVariables();
     }
@@ -105,6 +105,15 @@ public abstract class GenericSolver implements Optimisation.Solver {
      */
     protected abstract MatrixStore<Double> extractSolution();
 
+    /**
+     * @return In portfolio mode, see {@linkplain org.ojalgo.optimisation.Optimisation.Options#portfolio}, the
+     *         best solution found so far by any of the competing solvers. Otherwise null.
+     */
+    protected final Optimisation.Result getSharedIncumbent() {
+        final SolverPortfolio portfolio = options.getPortfolio();
+        return portfolio != null ? portfolio.getIncumbent() : null;
+    }
+
     protected final State getState() {
         return myState;
     }
@@ -117,6 +126,14 @@ public abstract class GenericSolver implements Optimisation.Solver {
         return myIterationsCount.incrementAndGet();
     }
 
+    /**
+     * @return true if this solver competes in a portfolio race that has already been decided
+     */
+    protected final boolean isCancelled() {
+        final SolverPortfolio portfolio = options.getPortfolio();
+        return (portfolio != null) && portfolio.isCancelled();
+    }
+
     protected final boolean isDebug() {
         return options.logger_detailed && this.isProgress();
     }
@@ -124,10 +141,10 @@ public abstract class GenericSolver implements Optimisation.Solver {
     /**
      * Should be called at the start of an iteration (before it actually starts) to check if you should abort
      * instead. Will return false if either the iterations count or the execution time has reached their
-     * respective limits.
+     * respective limits, or if the solver has been cancelled.
      */
     protected final boolean isIterationAllowed() {
-        if (myState.isFailure()) {
+        if (myState.isFailure() || this.isCancelled()) {
             return false;
         } else if (myState.isFeasible()) {
             return (this.countTime() < options.time_suffice) && (this.countIterations() < options.iterations_suffice);
@@ -166,4 +183,15 @@ public abstract class GenericSolver implements Optimisation.Solver {
         myState = state;
     }
 
+    /**
+     * In portfolio mode this makes an (integer) solution available to the competing solvers. Otherwise it
+     * does nothing.
+     */
+    protected final void shareIncumbent(final Optimisation.Result solution) {
+        final SolverPortfolio portfolio = options.getPortfolio();
+        if (portfolio != null) {
+            portfolio.offer(solution);
+        }
+    }
+
 }
@@ -23,13 +23,18 @@ package org.ojalgo.optimisation;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
+import org.ojalgo.OjAlgoUtils;
 import org.ojalgo.ProgrammingError;
 import org.ojalgo.array.Array1D;
 import org.ojalgo.array.BigArray;
 import org.ojalgo.netio.BasicLogger;
 import org.ojalgo.optimisation.integer.IntegerSolver;
+import org.ojalgo.optimisation.linear.RevisedSimplexSolver;
+import org.ojalgo.optimisation.linear.SimplexSolver;
 import org.ojalgo.structure.Access1D;
 import org.ojalgo.type.CalendarDateUnit;
 import org.ojalgo.type.TypeUtils;
@@ -173,6 +178,15 @@ public interface Optimisation {
          */
         public int iterations_suffice = Integer.MAX_VALUE;
 
+        /**
+         * If true linear problems (LP:s) are solved using the {@linkplain RevisedSimplexSolver} rather than
+         * the tableau based {@linkplain SimplexSolver}. The revised solver works with a sparse constraints body
+         * and a factorised basis, and is typically the better choice for large and sparse problems. It also
+         * supports in-place variable range updates, and then re-optimises from the previous optimal basis
+         * (dual simplex) - that makes re-solving branch-and-bound nodes (of MIP:s) much cheaper.
+         */
+        public boolean linear_revised = false;
+
         /**
          * If this is null nothing is printed, if it is not null then progress/debug messages are printed to
          * that {@linkplain org.ojalgo.netio.BasicLogger.Printer}.
@@ -191,15 +205,9 @@ public interface Optimisation {
         public Class<? extends Optimisation.Solver> logger_solver = null;
 
         /**
-         * The branch-and-bound nodes/subproblems come in pairs, and each node has a displacement (the
-         * fractional amount removed by the new bound). Every pair's total displacement is always exactly 1.0.
-         * From each pair the node with the smallest displacement (0.0 - 0.5) is always evaluated directly.
-         * The other node (with displacement 0.5 - 1.0) can either be forked off and evalueated in another
-         * thread, or deferred to be evaluated later in order of creation. Nodes with displacement larger than
-         * this value are deferred. If this value is set to 0.5 or less then everything is deferred,
-         * effectively making the MIP solver single threaded and deterministic. If this value is set to 1.0 or
-         * more then nothinng is deferred
+         * @deprecated v48 No longer used. Nodes are scheduled according to {@link #mip_selection}.
          */
+        @Deprecated
         public double mip_defer = 0.99;
 
         /**
@@ -211,6 +219,45 @@ public interface Optimisation {
          */
         public double mip_gap = 1.0E-4;
 
+        /**
+         * The max number of open (created but not yet evaluated) branch-and-bound nodes. Regardless of this
+         * value the open nodes are never allowed to use more than a quarter of the memory available when the
+         * solve starts. When the limit is reached new nodes are evaluated directly, depth-first, by the
+         * worker that created them.
+         */
+        public int mip_nodes = Integer.MAX_VALUE;
+
+        /**
+         * The number of threads (workers) evaluating branch-and-bound nodes. The calling thread is one of
+         * them, the others are taken from the {@linkplain org.ojalgo.concurrent.DaemonPoolExecutor}. Setting
+         * this to 1 makes the MIP solver single threaded and deterministic.
+         */
+        public int mip_parallelism = OjAlgoUtils.ENVIRONMENT.cores;
+
+        /**
+         * How the open branch-and-bound nodes are scheduled.
+         */
+        public IntegerSolver.NodeSelection mip_selection = IntegerSolver.NodeSelection.HYBRID;
+
+        /**
+         * If true, expressions created (added to an {@linkplain ExpressionsBasedModel}) after this is set
+         * store their linear and quadratic factors as primitive doubles - using open addressing hash tables
+         * while the model is built, and sorted arrays once it is optimised - rather than in HashMap:s of
+         * BigDecimal. That uses a fraction of the memory and is faster to translate to solver form, but the
+         * factors are no longer exact decimal numbers. Presolve still works with BigDecimal.
+         */
+        public boolean model_primitive = false;
+
+        /**
+         * Opt-in portfolio mode. If not null (or empty) {@linkplain ExpressionsBasedModel} will, instead of
+         * solving the model once, solve one copy of the model per strategy concurrently. Each strategy is
+         * given its own copy of these options to modify (pricing rules, {@link #mip_selection}...). The
+         * competing solvers share integer solutions (and thereby the objective function bound used to prune
+         * the branch-and-bound trees). The first solver to prove optimality (or infeasibility) wins, and the
+         * others are cancelled. Remember that each strategy may use {@linkplain #mip_parallelism} threads.
+         */
+        public List<Consumer<Optimisation.Options>> portfolio = null;
+
         /**
          * For display only!
          */
@@ -244,6 +291,7 @@ public interface Optimisation {
         public boolean validate = false;
 
         private Object myConfigurator = null;
+        private transient SolverPortfolio myPortfolio = null;
 
         public Options() {
             super();
@@ -304,6 +352,21 @@ public interface Optimisation {
         protected Object clone() throws CloneNotSupportedException {
             return super.clone();
         }
+
+        /**
+         * A copy of these options for one of the strategies competing in a portfolio race - the copy is
+         * linked to that race rather than defining one.
+         */
+        Options derive(final SolverPortfolio portfolio) {
+            final Options retVal = this.copy();
+            retVal.portfolio = null;
+            retVal.myPortfolio = portfolio;
+            return retVal;
+        }
+
+        SolverPortfolio getPortfolio() {
+            return myPortfolio;
+        }
     }
 
     public static final class Result implements Optimisation, Access1D<BigDecimal>, Comparable<Optimisation.Result> {
@@ -0,0 +1,313 @@
+/*
+ * Copyright 1997-2018 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.optimisation;
+
+import java.math.BigDecimal;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.Set;
+
+import org.ojalgo.constant.BigMath;
+import org.ojalgo.structure.Structure1D.IntIndex;
+import org.ojalgo.structure.Structure2D.IntRowColumn;
+
+/**
+ * Worklist driven presolve. Instead of re-scanning every expression each time some presolver modified the
+ * model, a variable-to-constraint incidence index is built once, and only the constraints that include a
+ * newly fixed or tightened variable are re-evaluated. When the worklist runs empty a column pass (dual
+ * fixing) is performed, and if that fixes any variables the affected constraints are queued again.
+ *
+ * @author apete
+ */
+final class PresolveEngine {
+
+    /**
+     * A relative change smaller than this, of a variable bound, is not considered significant enough to
+     * re-evaluate the constraints that variable is part of. Prevents (infinitely) many small tightenings.
+     */
+    private static final double SIGNIFICANT = 0.001;
+    /**
+     * The number of times a variable's (significantly) tightened bounds may cause its constraints to be
+     * re-evaluated. Newly fixed variables always do. Without a limit, bound changes could ripple back and
+     * forth along chains of constraints.
+     */
+    private static final int TIGHTENINGS = 3;
+
+    private static boolean isApplicable(final Expression expression) {
+        return expression.isConstraint() && !expression.isInfeasible() && !expression.isRedundant() && (expression.countQuadraticFactors() == 0);
+    }
+
+    private static boolean isIntegral(final BigDecimal value) {
+        return (value.signum() == 0) || (value.stripTrailingZeros().scale() <= 0);
+    }
+
+    private static boolean isSignificant(final BigDecimal before, final BigDecimal after) {
+        if (after == null) {
+            return false;
+        } else if (before == null) {
+            return true;
+        } else {
+            final double change = Math.abs(after.doubleValue() - before.doubleValue());
+            return change > (SIGNIFICANT * Math.max(1.0, Math.abs(before.doubleValue())));
+        }
+    }
+
+    private final Set<IntIndex> myFixed;
+    private final List<Expression>[] myIncidence;
+    private final BigDecimal[] myLower;
+    private final ExpressionsBasedModel myModel;
+    /**
+     * The variables a presolver looked up, from the variable resolver, while simplifying the current
+     * expression. Those are the only ones it could have modified.
+     */
+    private final List<IntIndex> myResolved = new ArrayList<>();
+    private final List<Expression> myObjectives = new ArrayList<>();
+    private final boolean[] myQuadratic;
+    private final Set<Expression> myQueued = Collections.newSetFromMap(new IdentityHashMap<>());
+    private final ArrayDeque<Expression> myQueue = new ArrayDeque<>();
+    private final PresolveStatistics myStatistics = new PresolveStatistics();
+    private final int[] myTightenings;
+    private final BigDecimal[] myUpper;
+
+    @SuppressWarnings("unchecked")
+    PresolveEngine(final ExpressionsBasedModel model) {
+
+        super();
+
+        myModel = model;
+
+        final int numberOfVariables = model.countVariables();
+
+        myFixed = new HashSet<>(model.getFixedVariables());
+        myIncidence = new List[numberOfVariables];
+        myLower = new BigDecimal[numberOfVariables];
+        myUpper = new BigDecimal[numberOfVariables];
+        myQuadratic = new boolean[numberOfVariables];
+        myTightenings = new int[numberOfVariables];
+
+        for (int i = 0; i < numberOfVariables; i++) {
+            final Variable variable = model.getVariable(i);
+            myIncidence[i] = new ArrayList<>();
+            myLower[i] = variable.getLowerLimit();
+            myUpper[i] = variable.getUpperLimit();
+        }
+
+        for (final Expression expression : model.getExpressions()) {
+            if (expression.countQuadraticFactors() > 0) {
+                for (final IntRowColumn key : expression.getQuadraticKeySet()) {
+                    myQuadratic[key.row] = true;
+                    myQuadratic[key.column] = true;
+                }
+            }
+            if (expression.isObjective()) {
+                myObjectives.add(expression);
+            }
+            if (expression.isConstraint()) {
+                for (final IntIndex key : expression.getLinearKeySet()) {
+                    myIncidence[key.index].add(expression);
+                }
+                this.enqueue(expression);
+            }
+        }
+    }
+
+    /**
+     * @param presolvers The presolvers to run, in order, on each evaluated constraint
+     * @param columns Whether or not to perform the column (dual fixing) pass
+     */
+    PresolveStatistics presolve(final Collection<ExpressionsBasedModel.Presolver> presolvers, final boolean columns) {
+
+        final long started = System.nanoTime();
+
+        final Set<IntIndex> fixedVariables = Collections.unmodifiableSet(myFixed);
+
+        do {
+
+            Expression expression;
+            while ((expression = myQueue.poll()) != null) {
+                myQueued.remove(expression);
+
+                if (!PresolveEngine.isApplicable(expression)) {
+                    continue;
+                }
+
+                myStatistics.evaluated();
+
+                final BigDecimal fixedValue = myModel.options.solution.enforce(expression.calculateFixedValue(myFixed));
+
+                myResolved.clear();
+
+                for (final ExpressionsBasedModel.Presolver presolver : presolvers) {
+                    final long before = System.nanoTime();
+                    final boolean reduced = presolver.simplify(expression, fixedVariables, fixedValue, this::resolve, myModel.options.feasibility);
+                    myStatistics.invoked(presolver, System.nanoTime() - before, reduced);
+                    if (reduced || !PresolveEngine.isApplicable(expression)) {
+                        break;
+                    }
+                }
+
+                for (final IntIndex key : expression.getLinearKeySet()) {
+                    this.update(key.index);
+                }
+                // A presolver may have modified variables, not part of this expression, that it resolved
+                for (int r = 0, limit = myResolved.size(); r < limit; r++) {
+                    this.update(myResolved.get(r).index);
+                }
+            }
+
+            if (columns) {
+                final long before = System.nanoTime();
+                this.fixDominatedColumns();
+                myStatistics.column(System.nanoTime() - before);
+            }
+
+        } while (!myQueue.isEmpty());
+
+        myStatistics.total(System.nanoTime() - started);
+
+        return myStatistics;
+    }
+
+    private void enqueue(final Expression expression) {
+        if (myQueued.add(expression)) {
+            myQueue.add(expression);
+        }
+    }
+
+    /**
+     * Dual fixing: A variable whose objective contribution does not prefer a larger (smaller) value, and
+     * that is not needed to satisfy any constraint by being larger (smaller), can be fixed at its lower
+     * (upper) bound without losing (all) optimal solutions. That includes variables not referenced by any
+     * constraint at all.
+     */
+    private void fixDominatedColumns() {
+
+        if (myModel.isInfeasible()) {
+            return;
+        }
+
+        final int numberOfVariables = myIncidence.length;
+
+        final BigDecimal[] costs = new BigDecimal[numberOfVariables];
+        for (int i = 0; i < numberOfVariables; i++) {
+            final BigDecimal weight = myModel.getVariable(i).getContributionWeight();
+            costs[i] = weight != null ? weight : BigMath.ZERO;
+        }
+        for (final Expression objective : myObjectives) {
+            final BigDecimal weight = objective.getContributionWeight();
+            if (weight != null) {
+                for (final Entry<IntIndex, BigDecimal> entry : objective.getLinearEntrySet()) {
+                    costs[entry.getKey().index] = costs[entry.getKey().index].add(weight.multiply(entry.getValue()));
+                }
+            }
+        }
+
+        final boolean maximisation = myModel.isMaximisation();
+
+        for (int i = 0; i < numberOfVariables; i++) {
+
+            final Variable variable = myModel.getVariable(i);
+
+            if (myQuadratic[i] || variable.isFixed() || variable.isUnbounded()) {
+                continue;
+            }
+
+            final int direction = maximisation ? -costs[i].signum() : costs[i].signum();
+
+            boolean downLocked = false;
+            boolean upLocked = false;
+
+            final IntIndex key = variable.getIndex();
+            for (final Expression constraint : myIncidence[i]) {
+                if (!constraint.isRedundant()) {
+                    final int factor = constraint.get(key).signum();
+                    if (constraint.isLowerLimitSet()) {
+                        downLocked |= factor > 0;
+                        upLocked |= factor < 0;
+                    }
+                    if (constraint.isUpperLimitSet()) {
+                        upLocked |= factor > 0;
+                        downLocked |= factor < 0;
+                    }
+                }
+            }
+
+            BigDecimal value = null;
+            if ((direction >= 0) && !downLocked && variable.isLowerLimitSet()) {
+                value = variable.getLowerLimit();
+            } else if ((direction <= 0) && !upLocked && variable.isUpperLimitSet()) {
+                value = variable.getUpperLimit();
+            }
+
+            if ((value != null) && (!variable.isInteger() || PresolveEngine.isIntegral(value))) {
+                variable.setFixed(value);
+                myStatistics.dualFixed();
+                this.update(i);
+            }
+        }
+    }
+
+    private Variable resolve(final IntIndex index) {
+        myResolved.add(index);
+        return myModel.getVariable(index);
+    }
+
+    /**
+     * Compares the variable's bounds to the snapshot, and if it has been fixed or significantly tightened
+     * (a limited number of times) queues all constraints the variable is part of.
+     */
+    private void update(final int index) {
+
+        final Variable variable = myModel.getVariable(index);
+
+        final BigDecimal lower = variable.getLowerLimit();
+        final BigDecimal upper = variable.getUpperLimit();
+
+        final boolean fixed = variable.isFixed() && myFixed.add(variable.getIndex());
+        final boolean tightenedLower = PresolveEngine.isSignificant(myLower[index], lower);
+        final boolean tightenedUpper = PresolveEngine.isSignificant(myUpper[index], upper);
+
+        if (fixed) {
+            myStatistics.fixed();
+        } else if (tightenedLower || tightenedUpper) {
+            myStatistics.tightened();
+        } else {
+            return;
+        }
+
+        myLower[index] = lower;
+        myUpper[index] = upper;
+
+        if (fixed || (myTightenings[index]++ < TIGHTENINGS)) {
+            for (final Expression constraint : myIncidence[index]) {
+                this.enqueue(constraint);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,196 @@
+/*
+ * Copyright 1997-2018 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.optimisation;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+
+/**
+ * Counters and timings collected by {@link ExpressionsBasedModel}'s presolve. Each registered
+ * {@link ExpressionsBasedModel.Presolver} gets its own number of invocations, number of reductions (times it
+ * reported a change) and accumulated time. In addition there are totals for the whole presolve run.
+ *
+ * @author apete
+ */
+public final class PresolveStatistics {
+
+    static final class Counter {
+
+        long invocations = 0L;
+        long nanos = 0L;
+        long reductions = 0L;
+
+    }
+
+    private static final Counter NONE = new Counter();
+
+    private static String name(final ExpressionsBasedModel.Presolver presolver) {
+        for (final Field field : Presolvers.class.getFields()) {
+            if (Modifier.isStatic(field.getModifiers())) {
+                try {
+                    if (field.get(null) == presolver) {
+                        return field.getName();
+                    }
+                } catch (final IllegalAccessException cause) {
+                    // Not possible with public fields, fall through
+                }
+            }
+        }
+        return presolver.getClass().getName();
+    }
+
+    private long myColumnNanos = 0L;
+    private final Map<ExpressionsBasedModel.Presolver, Counter> myCounters = new LinkedHashMap<>();
+    private long myDualFixings = 0L;
+    private long myEvaluations = 0L;
+    private long myFixedVariables = 0L;
+    private long myTightenedBounds = 0L;
+    private long myTotalNanos = 0L;
+
+    PresolveStatistics() {
+        super();
+    }
+
+    /**
+     * @return The number of variables fixed by the column pass (dual fixing). Those reductions preserve
+     *         optimality, but not necessarily uniqueness, of the solution.
+     */
+    public long countDualFixings() {
+        return myDualFixings;
+    }
+
+    /**
+     * @return The number of times an expression was taken from the worklist and evaluated
+     */
+    public long countEvaluations() {
+        return myEvaluations;
+    }
+
+    /**
+     * @return The number of variables that were fixed by the presolve
+     */
+    public long countFixedVariables() {
+        return myFixedVariables;
+    }
+
+    /**
+     * @return The number of times the presolver was invoked
+     */
+    public long countInvocations(final ExpressionsBasedModel.Presolver presolver) {
+        return myCounters.getOrDefault(presolver, NONE).invocations;
+    }
+
+    /**
+     * @return The number of times the presolver reported that it modified the model
+     */
+    public long countReductions(final ExpressionsBasedModel.Presolver presolver) {
+        return myCounters.getOrDefault(presolver, NONE).reductions;
+    }
+
+    /**
+     * @return The number of times a variable bound was tightened (without necessarily fixing the variable)
+     */
+    public long countTightenedBounds() {
+        return myTightenedBounds;
+    }
+
+    /**
+     * @return Time spent in the column (dual fixing) passes
+     */
+    public long getColumnNanos() {
+        return myColumnNanos;
+    }
+
+    /**
+     * @return Time spent in the presolver
+     */
+    public long getNanos(final ExpressionsBasedModel.Presolver presolver) {
+        return myCounters.getOrDefault(presolver, NONE).nanos;
+    }
+
+    /**
+     * @return Total time spent presolving
+     */
+    public long getTotalNanos() {
+        return myTotalNanos;
+    }
+
+    @Override
+    public String toString() {
+
+        final StringBuilder retVal = new StringBuilder();
+
+        retVal.append("Presolve: evaluations=").append(myEvaluations);
+        retVal.append(" fixed=").append(myFixedVariables);
+        retVal.append(" dual=").append(myDualFixings);
+        retVal.append(" tightened=").append(myTightenedBounds);
+        retVal.append(" columns=").append(myColumnNanos / 1_000_000.0).append("ms");
+        retVal.append(" total=").append(myTotalNanos / 1_000_000.0).append("ms");
+
+        for (final Entry<ExpressionsBasedModel.Presolver, Counter> entry : myCounters.entrySet()) {
+            final Counter counter = entry.getValue();
+            retVal.append("\n\t").append(PresolveStatistics.name(entry.getKey()));
+            retVal.append(": invocations=").append(counter.invocations);
+            retVal.append(" reductions=").append(counter.reductions);
+            retVal.append(" time=").append(counter.nanos / 1_000_000.0).append("ms");
+        }
+
+        return retVal.toString();
+    }
+
+    void column(final long nanos) {
+        myColumnNanos += nanos;
+    }
+
+    void dualFixed() {
+        myDualFixings++;
+    }
+
+    void evaluated() {
+        myEvaluations++;
+    }
+
+    void fixed() {
+        myFixedVariables++;
+    }
+
+    void invoked(final ExpressionsBasedModel.Presolver presolver, final long nanos, final boolean reduced) {
+        final Counter counter = myCounters.computeIfAbsent(presolver, key -> new Counter());
+        counter.invocations++;
+        counter.nanos += nanos;
+        if (reduced) {
+            counter.reductions++;
+        }
+    }
+
+    void tightened() {
+        myTightenedBounds++;
+    }
+
+    void total(final long nanos) {
+        myTotalNanos = nanos;
+    }
+
+}
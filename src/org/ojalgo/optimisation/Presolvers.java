@@ -91,6 +91,136 @@ public abstract class Presolvers {
 
     };
 
+    /**
+     * Activity based bound propagation. The smallest/largest possible value of the expression (given the
+     * bounds of its non-fixed variables) is compared to the expression's limits. If the limits can't be met
+     * the expression is marked as infeasible, otherwise the bounds of integer variables are tightened (and
+     * rounded) to what the limits, and the other variables' bounds, allow. Bounds of continuous variables
+     * are never modified - they only contribute to the activity.
+     */
+    public static final ExpressionsBasedModel.Presolver BOUND_PROPAGATION = new ExpressionsBasedModel.Presolver(30) {
+
+        @Override
+        public boolean simplify(final Expression expression, final Set<IntIndex> fixedVariables, final BigDecimal fixedValue,
+                final Function<IntIndex, Variable> variableResolver, final NumberContext precision) {
+
+            final BigDecimal compLowLim = expression.getLowerLimit() != null ? expression.getLowerLimit().subtract(fixedValue) : null;
+            final BigDecimal compUppLim = expression.getUpperLimit() != null ? expression.getUpperLimit().subtract(fixedValue) : null;
+
+            BigDecimal minActivity = ZERO;
+            BigDecimal maxActivity = ZERO;
+            int minInfinite = 0;
+            int maxInfinite = 0;
+            boolean anyInteger = false;
+
+            for (final Entry<IntIndex, BigDecimal> entry : expression.getLinearEntrySet()) {
+                if (!fixedVariables.contains(entry.getKey()) && (entry.getValue().signum() != 0)) {
+
+                    final Variable variable = variableResolver.apply(entry.getKey());
+                    anyInteger |= variable.isInteger();
+
+                    final BigDecimal minContr = Presolvers.getMinContribution(entry.getValue(), variable);
+                    if (minContr != null) {
+                        minActivity = minActivity.add(minContr);
+                    } else {
+                        minInfinite++;
+                    }
+
+                    final BigDecimal maxContr = Presolvers.getMaxContribution(entry.getValue(), variable);
+                    if (maxContr != null) {
+                        maxActivity = maxActivity.add(maxContr);
+                    } else {
+                        maxInfinite++;
+                    }
+                }
+            }
+
+            if ((compUppLim != null) && (minInfinite == 0) && precision.isMoreThan(compUppLim, minActivity)) {
+                expression.setInfeasible();
+                return false;
+            }
+            if ((compLowLim != null) && (maxInfinite == 0) && precision.isLessThan(compLowLim, maxActivity)) {
+                expression.setInfeasible();
+                return false;
+            }
+
+            if (!anyInteger || ((minInfinite > 1) && (maxInfinite > 1))) {
+                return false;
+            }
+
+            boolean didFixVariable = false;
+
+            for (final Entry<IntIndex, BigDecimal> entry : expression.getLinearEntrySet()) {
+                if (!fixedVariables.contains(entry.getKey()) && (entry.getValue().signum() != 0)) {
+
+                    final Variable variable = variableResolver.apply(entry.getKey());
+                    if (!variable.isInteger()) {
+                        continue;
+                    }
+
+                    final BigDecimal factor = entry.getValue();
+                    final BigDecimal oldLower = variable.getLowerLimit();
+                    final BigDecimal oldUpper = variable.getUpperLimit();
+                    BigDecimal newLower = oldLower;
+                    BigDecimal newUpper = oldUpper;
+
+                    if (compUppLim != null) {
+                        // The smallest possible activity of all the other variables
+                        final BigDecimal minContr = Presolvers.getMinContribution(factor, variable);
+                        BigDecimal others = null;
+                        if (minInfinite == 0) {
+                            others = minActivity.subtract(minContr);
+                        } else if ((minInfinite == 1) && (minContr == null)) {
+                            others = minActivity;
+                        }
+                        if (others != null) {
+                            final BigDecimal limit = precision.enforce(DIVIDE.invoke(compUppLim.subtract(others), factor));
+                            if (factor.signum() > 0) {
+                                newUpper = Presolvers.min(newUpper, limit.setScale(0, RoundingMode.FLOOR));
+                            } else {
+                                newLower = Presolvers.max(newLower, limit.setScale(0, RoundingMode.CEILING));
+                            }
+                        }
+                    }
+
+                    if (compLowLim != null) {
+                        // The largest possible activity of all the other variables
+                        final BigDecimal maxContr = Presolvers.getMaxContribution(factor, variable);
+                        BigDecimal others = null;
+                        if (maxInfinite == 0) {
+                            others = maxActivity.subtract(maxContr);
+                        } else if ((maxInfinite == 1) && (maxContr == null)) {
+                            others = maxActivity;
+                        }
+                        if (others != null) {
+                            final BigDecimal limit = precision.enforce(DIVIDE.invoke(compLowLim.subtract(others), factor));
+                            if (factor.signum() > 0) {
+                                newLower = Presolvers.max(newLower, limit.setScale(0, RoundingMode.CEILING));
+                            } else {
+                                newUpper = Presolvers.min(newUpper, limit.setScale(0, RoundingMode.FLOOR));
+                            }
+                        }
+                    }
+
+                    if ((newLower != oldLower) || (newUpper != oldUpper)) {
+                        if ((newLower != null) && (newUpper != null) && (newLower.compareTo(newUpper) > 0)) {
+                            expression.setInfeasible();
+                            return false;
+                        }
+                        variable.lower(newLower).upper(newUpper);
+                        if (variable.isEqualityConstraint()) {
+                            variable.setValue(variable.getLowerLimit());
+                            didFixVariable = true;
+                        }
+                    }
+                }
+            }
+
+            return didFixVariable;
+        }
+
+    };
+
     /**
      * Verifies that the variable is actually referenced/used in some expression. If not then that variable
      * can either be fixed or marked as unbounded. Also makes sure integer variables have integer lower/upper
@@ -113,7 +243,7 @@ public abstract class Presolvers {
 
             if (variable.isObjective() && !variable.isFixed() && !variable.isUnbounded()) {
 
-                final boolean includedAnywhere = model.expressions().anyMatch(expr -> expr.includes(variable));
+                final boolean includedAnywhere = model.isReferenced(variable);
                 if (!includedAnywhere) {
 
                     final int weightSignum = variable.getContributionWeight().signum();
@@ -552,4 +682,34 @@ public abstract class Presolvers {
         return variableA.isEqualityConstraint() || variableB.isEqualityConstraint();
     }
 
+    /**
+     * The largest possible contribution, factor * variable, given the variable's bounds. Null if unbounded.
+     */
+    static BigDecimal getMaxContribution(final BigDecimal factor, final Variable variable) {
+        final BigDecimal limit = factor.signum() > 0 ? variable.getUpperLimit() : variable.getLowerLimit();
+        return limit != null ? factor.multiply(limit) : null;
+    }
+
+    /**
+     * The smallest possible contribution, factor * variable, given the variable's bounds. Null if unbounded.
+     */
+    static BigDecimal getMinContribution(final BigDecimal factor, final Variable variable) {
+        final BigDecimal limit = factor.signum() > 0 ? variable.getLowerLimit() : variable.getUpperLimit();
+        return limit != null ? factor.multiply(limit) : null;
+    }
+
+    /**
+     * The larger (tighter lower bound) of the two, where null means no bound.
+     */
+    static BigDecimal max(final BigDecimal current, final BigDecimal candidate) {
+        return (current == null) || (candidate.compareTo(current) > 0) ? candidate : current;
+    }
+
+    /**
+     * The smaller (tighter upper bound) of the two, where null means no bound.
+     */
+    static BigDecimal min(final BigDecimal current, final BigDecimal candidate) {
+        return (current == null) || (candidate.compareTo(current) < 0) ? candidate : current;
+    }
+
 }
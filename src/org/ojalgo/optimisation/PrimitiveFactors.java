@@ -0,0 +1,451 @@
+/*
+ * Copyright 1997-2018 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.optimisation;
+
+import java.math.BigDecimal;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import org.ojalgo.array.SparseArray.NonzeroPrimitiveCallback;
+import org.ojalgo.structure.Structure1D.IntIndex;
+import org.ojalgo.structure.Structure2D.IntRowColumn;
+
+/**
+ * Stores an {@link Expression}'s factors as primitive long keys and double values. While the expression is
+ * being built an open addressing (linear probing) hash table is used. {@link #compact()} turns that into
+ * sorted, exactly sized, arrays - lookups are then binary searches. Adding a new key to a compacted instance
+ * turns it back into a hash table.
+ * <p>
+ * The {@link Map} interface is implemented to keep the rest of {@link Expression} (and the presolvers)
+ * unaware of how the factors are stored, but keys and values are then created on demand. Anything
+ * performance critical should use the primitive methods instead.
+ * <p>
+ * Reading is thread safe, but (as with {@link java.util.HashMap}) modifying, including compacting, is not.
+ *
+ * @author apete
+ */
+abstract class PrimitiveFactors<K> extends AbstractMap<K, BigDecimal> {
+
+    static final class Linear extends PrimitiveFactors<IntIndex> {
+
+        Linear() {
+            super();
+        }
+
+        Linear(final PrimitiveFactors<IntIndex> factorsToCopy) {
+            super(factorsToCopy);
+        }
+
+        @Override
+        IntIndex decode(final long key) {
+            return new IntIndex((int) key);
+        }
+
+        @Override
+        long encode(final Object key) {
+            return key instanceof IntIndex ? ((IntIndex) key).index : EMPTY;
+        }
+
+    }
+
+    static final class Quadratic extends PrimitiveFactors<IntRowColumn> {
+
+        Quadratic() {
+            super();
+        }
+
+        Quadratic(final PrimitiveFactors<IntRowColumn> factorsToCopy) {
+            super(factorsToCopy);
+        }
+
+        @Override
+        IntRowColumn decode(final long key) {
+            return new IntRowColumn((int) (key >>> 32), (int) key);
+        }
+
+        @Override
+        long encode(final Object key) {
+            if (key instanceof IntRowColumn) {
+                final IntRowColumn rowColumn = (IntRowColumn) key;
+                return ((long) rowColumn.row << 32) | (rowColumn.column & 0xFFFFFFFFL);
+            } else {
+                return EMPTY;
+            }
+        }
+
+    }
+
+    /**
+     * Valid keys are never negative
+     */
+    static final long EMPTY = -1L;
+
+    private static final int INITIAL_CAPACITY = 8;
+    private static final double LOAD_FACTOR = 0.6;
+
+    private static int hash(final long key) {
+        final long mixed = key * 0x9E3779B97F4A7C15L;
+        return (int) (mixed ^ (mixed >>> 32));
+    }
+
+    private long[] myKeys;
+    private int mySize;
+    private boolean mySorted;
+    private double[] myValues;
+
+    PrimitiveFactors() {
+
+        super();
+
+        myKeys = new long[INITIAL_CAPACITY];
+        Arrays.fill(myKeys, EMPTY);
+        myValues = new double[INITIAL_CAPACITY];
+        mySize = 0;
+        mySorted = false;
+    }
+
+    PrimitiveFactors(final PrimitiveFactors<K> factorsToCopy) {
+
+        super();
+
+        myKeys = factorsToCopy.myKeys.clone();
+        myValues = factorsToCopy.myValues.clone();
+        mySize = factorsToCopy.mySize;
+        mySorted = factorsToCopy.mySorted;
+    }
+
+    @Override
+    public void clear() {
+        myKeys = new long[INITIAL_CAPACITY];
+        Arrays.fill(myKeys, EMPTY);
+        myValues = new double[INITIAL_CAPACITY];
+        mySize = 0;
+        mySorted = false;
+    }
+
+    @Override
+    public boolean containsKey(final Object key) {
+        final long encoded = this.encode(key);
+        return (encoded != EMPTY) && (this.find(encoded) >= 0);
+    }
+
+    @Override
+    public Set<Entry<K, BigDecimal>> entrySet() {
+        return new AbstractSet<Entry<K, BigDecimal>>() {
+
+            @Override
+            public boolean contains(final Object obj) {
+                if (obj instanceof Entry) {
+                    final Entry<?, ?> entry = (Entry<?, ?>) obj;
+                    final BigDecimal value = PrimitiveFactors.this.get(entry.getKey());
+                    return (value != null) && value.equals(entry.getValue());
+                } else {
+                    return false;
+                }
+            }
+
+            @Override
+            public Iterator<Entry<K, BigDecimal>> iterator() {
+                return new Iterator<Entry<K, BigDecimal>>() {
+
+                    private int myNext = this.seek(0);
+
+                    public boolean hasNext() {
+                        return myNext < myKeys.length;
+                    }
+
+                    public Entry<K, BigDecimal> next() {
+                        if (myNext >= myKeys.length) {
+                            throw new NoSuchElementException();
+                        }
+                        final int slot = myNext;
+                        myNext = this.seek(slot + 1);
+                        return new SimpleImmutableEntry<>(PrimitiveFactors.this.decode(myKeys[slot]), BigDecimal.valueOf(myValues[slot]));
+                    }
+
+                    private int seek(final int from) {
+                        int slot = from;
+                        if (mySorted) {
+                            return slot < mySize ? slot : myKeys.length;
+                        }
+                        while ((slot < myKeys.length) && (myKeys[slot] == EMPTY)) {
+                            slot++;
+                        }
+                        return slot;
+                    }
+
+                };
+            }
+
+            @Override
+            public int size() {
+                return mySize;
+            }
+
+        };
+    }
+
+    @Override
+    public BigDecimal get(final Object key) {
+        final long encoded = this.encode(key);
+        if (encoded == EMPTY) {
+            return null;
+        }
+        final int slot = this.find(encoded);
+        return slot >= 0 ? BigDecimal.valueOf(myValues[slot]) : null;
+    }
+
+    @Override
+    public BigDecimal put(final K key, final BigDecimal value) {
+        final BigDecimal retVal = this.get(key);
+        this.set(key, value.doubleValue());
+        return retVal;
+    }
+
+    @Override
+    public void putAll(final Map<? extends K, ? extends BigDecimal> map) {
+        for (final Entry<? extends K, ? extends BigDecimal> entry : map.entrySet()) {
+            this.set(entry.getKey(), entry.getValue().doubleValue());
+        }
+    }
+
+    @Override
+    public BigDecimal remove(final Object key) {
+        final long encoded = this.encode(key);
+        if (encoded == EMPTY) {
+            return null;
+        }
+        final int slot = this.find(encoded);
+        if (slot < 0) {
+            return null;
+        }
+        final BigDecimal retVal = BigDecimal.valueOf(myValues[slot]);
+        this.delete(slot);
+        return retVal;
+    }
+
+    @Override
+    public int size() {
+        return mySize;
+    }
+
+    private void delete(final int slot) {
+
+        if (mySorted) {
+
+            final int tail = mySize - slot - 1;
+            System.arraycopy(myKeys, slot + 1, myKeys, slot, tail);
+            System.arraycopy(myValues, slot + 1, myValues, slot, tail);
+            mySize--;
+
+        } else {
+
+            // Backward shift deletion - no tombstones
+            final int mask = myKeys.length - 1;
+            int hole = slot;
+            int next = (hole + 1) & mask;
+            while (myKeys[next] != EMPTY) {
+                final int home = PrimitiveFactors.hash(myKeys[next]) & mask;
+                if (((next - home) & mask) >= ((next - hole) & mask)) {
+                    myKeys[hole] = myKeys[next];
+                    myValues[hole] = myValues[next];
+                    hole = next;
+                }
+                next = (next + 1) & mask;
+            }
+            myKeys[hole] = EMPTY;
+            myValues[hole] = 0.0;
+            mySize--;
+        }
+    }
+
+    /**
+     * @return The slot/position of the key, or a negative number if not present
+     */
+    private int find(final long key) {
+
+        if (mySorted) {
+
+            return Arrays.binarySearch(myKeys, 0, mySize, key);
+
+        } else {
+
+            final int mask = myKeys.length - 1;
+            int slot = PrimitiveFactors.hash(key) & mask;
+            long existing;
+            while ((existing = myKeys[slot]) != EMPTY) {
+                if (existing == key) {
+                    return slot;
+                }
+                slot = (slot + 1) & mask;
+            }
+            return -1;
+        }
+    }
+
+    private void insert(final long key, final double value) {
+
+        if ((mySize + 1) > (LOAD_FACTOR * myKeys.length)) {
+            this.rehash(myKeys.length * 2);
+        }
+
+        final int mask = myKeys.length - 1;
+        int slot = PrimitiveFactors.hash(key) & mask;
+        while (myKeys[slot] != EMPTY) {
+            slot = (slot + 1) & mask;
+        }
+        myKeys[slot] = key;
+        myValues[slot] = value;
+        mySize++;
+    }
+
+    /**
+     * Builds a new hash table, with the specified capacity, from the current keys/values - regardless of
+     * whether they are currently sorted or hashed.
+     */
+    private void rehash(final int capacity) {
+
+        final long[] oldKeys = myKeys;
+        final double[] oldValues = myValues;
+        final int oldLength = mySorted ? mySize : oldKeys.length;
+
+        myKeys = new long[capacity];
+        Arrays.fill(myKeys, EMPTY);
+        myValues = new double[capacity];
+        mySize = 0;
+        mySorted = false;
+
+        for (int i = 0; i < oldLength; i++) {
+            if (oldKeys[i] != EMPTY) {
+                this.insert(oldKeys[i], oldValues[i]);
+            }
+        }
+    }
+
+    private void set(final long key, final int slot, final double value) {
+        if (slot >= 0) {
+            if (value != 0.0) {
+                myValues[slot] = value;
+            } else {
+                this.delete(slot);
+            }
+        } else if (value != 0.0) {
+            if (mySorted) {
+                this.rehash(Math.max(INITIAL_CAPACITY, Integer.highestOneBit(Math.max(1, mySize)) << 2));
+            }
+            this.insert(key, value);
+        }
+    }
+
+    /**
+     * Adds to the existing value (or sets it if there is none)
+     */
+    void add(final K key, final double value) {
+        final long encoded = this.encode(key);
+        final int slot = this.find(encoded);
+        this.set(encoded, slot, (slot >= 0 ? myValues[slot] : 0.0) + value);
+    }
+
+    /**
+     * Turn the hash table into sorted, exactly sized, arrays. Does nothing if already compact.
+     */
+    void compact() {
+
+        if (!mySorted) {
+
+            final long[] keys = new long[mySize];
+            final double[] values = new double[mySize];
+
+            int count = 0;
+            for (int i = 0; i < myKeys.length; i++) {
+                if (myKeys[i] != EMPTY) {
+                    keys[count++] = myKeys[i];
+                }
+            }
+            Arrays.sort(keys);
+            for (int i = 0; i < count; i++) {
+                values[i] = myValues[this.find(keys[i])];
+            }
+
+            myKeys = keys;
+            myValues = values;
+            mySorted = true;
+        }
+    }
+
+    abstract K decode(long key);
+
+    /**
+     * @return The value, or 0.0 if not present
+     */
+    double doubleValue(final Object key) {
+        final long encoded = this.encode(key);
+        if (encoded == EMPTY) {
+            return 0.0;
+        }
+        final int slot = this.find(encoded);
+        return slot >= 0 ? myValues[slot] : 0.0;
+    }
+
+    /**
+     * @return The encoded key, or {@link #EMPTY} if the object is not a (valid) key
+     */
+    abstract long encode(Object key);
+
+    boolean isCompact() {
+        return mySorted;
+    }
+
+    /**
+     * Sets the value, removing the key if the value is 0.0
+     */
+    void set(final K key, final double value) {
+        final long encoded = this.encode(key);
+        if (encoded == EMPTY) {
+            throw new IllegalArgumentException();
+        }
+        this.set(encoded, this.find(encoded), value);
+    }
+
+    /**
+     * Calls the callback with each key and value - in increasing key order if compact.
+     */
+    void visit(final NonzeroPrimitiveCallback callback) {
+        if (mySorted) {
+            for (int i = 0; i < mySize; i++) {
+                callback.call(myKeys[i], myValues[i]);
+            }
+        } else {
+            for (int i = 0; i < myKeys.length; i++) {
+                if (myKeys[i] != EMPTY) {
+                    callback.call(myKeys[i], myValues[i]);
+                }
+            }
+        }
+    }
+
+}
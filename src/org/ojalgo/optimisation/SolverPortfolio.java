@@ -0,0 +1,138 @@
+/*
+ * Copyright 1997-2018 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.optimisation;
+
+import java.util.List;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.function.Consumer;
+
+import org.ojalgo.ProgrammingError;
+import org.ojalgo.concurrent.DaemonPoolExecutor;
+
+/**
+ * Solves several copies of the same model concurrently, each configured by one of the strategies in
+ * {@linkplain Optimisation.Options#portfolio}. The competing solvers share the best integer solution found
+ * so far, and the first one to prove optimality cancels the others.
+ *
+ * @author apete
+ */
+final class SolverPortfolio {
+
+    static Optimisation.Result race(final ExpressionsBasedModel model) {
+
+        final List<Consumer<Optimisation.Options>> strategies = model.options.portfolio;
+
+        final SolverPortfolio portfolio = new SolverPortfolio(model.isMinimisation());
+
+        final CompletionService<Optimisation.Result> service = new ExecutorCompletionService<>(DaemonPoolExecutor::invoke);
+
+        for (final Consumer<Optimisation.Options> strategy : strategies) {
+
+            final Optimisation.Options strategyOptions = model.options.derive(portfolio);
+            strategy.accept(strategyOptions);
+
+            final ExpressionsBasedModel strategyModel = new ExpressionsBasedModel(model, false, true, strategyOptions);
+
+            service.submit(strategyModel::optimise);
+        }
+
+        Optimisation.Result retVal = null;
+
+        try {
+
+            for (int s = 0, limit = strategies.size(); s < limit; s++) {
+
+                final Optimisation.Result result = service.take().get();
+
+                if (SolverPortfolio.isProven(result.getState())) {
+                    retVal = result;
+                    break;
+                } else if ((retVal == null) || portfolio.isBetter(result, retVal)) {
+                    retVal = result;
+                }
+            }
+
+        } catch (final InterruptedException cause) {
+            Thread.currentThread().interrupt();
+        } catch (final ExecutionException cause) {
+            throw new ProgrammingError(cause.getCause());
+        } finally {
+            portfolio.cancel();
+        }
+
+        if (retVal == null) {
+            retVal = new Optimisation.Result(Optimisation.State.FAILED, model.getVariableValues());
+        }
+
+        return retVal;
+    }
+
+    /**
+     * Optimality, infeasibility or unboundedness - any one of these decides the race.
+     */
+    private static boolean isProven(final Optimisation.State state) {
+        return state.isOptimal() || (state == Optimisation.State.INFEASIBLE) || (state == Optimisation.State.UNBOUNDED);
+    }
+
+    private volatile boolean myCancelled = false;
+    private volatile Optimisation.Result myIncumbent = null;
+    private final boolean myMinimisation;
+
+    SolverPortfolio(final boolean minimisation) {
+        super();
+        myMinimisation = minimisation;
+    }
+
+    private boolean isBetter(final Optimisation.Result candidate, final Optimisation.Result reference) {
+        if (!candidate.getState().isFeasible()) {
+            return false;
+        } else if (!reference.getState().isFeasible()) {
+            return true;
+        } else if (myMinimisation) {
+            return candidate.getValue() < reference.getValue();
+        } else {
+            return candidate.getValue() > reference.getValue();
+        }
+    }
+
+    void cancel() {
+        myCancelled = true;
+    }
+
+    Optimisation.Result getIncumbent() {
+        return myIncumbent;
+    }
+
+    boolean isCancelled() {
+        return myCancelled;
+    }
+
+    synchronized void offer(final Optimisation.Result solution) {
+        final Optimisation.Result currentlyTheBest = myIncumbent;
+        if ((currentlyTheBest == null) || this.isBetter(solution, currentlyTheBest)) {
+            myIncumbent = solution;
+        }
+    }
+
+}
@@ -32,4 +32,18 @@ public interface UpdatableSolver extends Optimisation.Solver {
         return false;
     }
 
+    /**
+     * Change the range of a variable in-place - typically to tighten it, as when branching in a
+     * branch-and-bound search. A solver that supports this is expected to make use of its current state
+     * (optimal basis) when the problem is re-solved.
+     *
+     * @param index The, solver specific, variable index
+     * @param lower The new lower limit
+     * @param upper The new upper limit, possibly {@link Double#POSITIVE_INFINITY}
+     * @return true if updating the range is supported and was successful, otherwise false
+     */
+    default boolean updateRange(final int index, final double lower, final double upper) {
+        return false;
+    }
+
 }
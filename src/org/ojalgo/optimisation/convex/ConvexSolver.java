@@ -476,13 +476,14 @@ public abstract class ConvexSolver extends GenericSolver implements UpdatableSol
             for (int i = 0; i < numbEqExpr; i++) {
 
                 final Expression tmpExpression = tmpEqExpr.get(i).compensate(fixedVariables);
+                final int row = i;
 
-                for (final IntIndex tmpKey : tmpExpression.getLinearKeySet()) {
-                    final int tmpIndex = sourceModel.indexOfFreeVariable(tmpKey.index);
+                tmpExpression.visitAdjustedLinearFactors((index, factor) -> {
+                    final int tmpIndex = sourceModel.indexOfFreeVariable((int) index);
                     if (tmpIndex >= 0) {
-                        mtrxAE.set(i, tmpIndex, tmpExpression.getAdjustedLinearFactor(tmpKey));
+                        mtrxAE.set(row, tmpIndex, factor);
                     }
-                }
+                });
                 mtrxBE.set(i, 0, tmpExpression.getAdjustedUpperLimit());
             }
 
@@ -512,22 +513,15 @@ public abstract class ConvexSolver extends GenericSolver implements UpdatableSol
 
         PhysicalStore<Double> mtrxC = null;
         if (tmpObjExpr.isAnyLinearFactorNonZero()) {
-            mtrxC = FACTORY.makeZero(numbVars, 1);
-            if (sourceModel.isMinimisation()) {
-                for (final IntIndex tmpKey : tmpObjExpr.getLinearKeySet()) {
-                    final int tmpIndex = sourceModel.indexOfFreeVariable(tmpKey.index);
-                    if (tmpIndex >= 0) {
-                        mtrxC.set(tmpIndex, 0, -tmpObjExpr.getAdjustedLinearFactor(tmpKey));
-                    }
-                }
-            } else {
-                for (final IntIndex tmpKey : tmpObjExpr.getLinearKeySet()) {
-                    final int tmpIndex = sourceModel.indexOfFreeVariable(tmpKey.index);
-                    if (tmpIndex >= 0) {
-                        mtrxC.set(tmpIndex, 0, tmpObjExpr.getAdjustedLinearFactor(tmpKey));
-                    }
+            final PhysicalStore<Double> tmpC = FACTORY.makeZero(numbVars, 1);
+            final boolean tmpNegate = sourceModel.isMinimisation();
+            tmpObjExpr.visitAdjustedLinearFactors((index, factor) -> {
+                final int tmpIndex = sourceModel.indexOfFreeVariable((int) index);
+                if (tmpIndex >= 0) {
+                    tmpC.set(tmpIndex, 0, tmpNegate ? -factor : factor);
                 }
-            }
+            });
+            mtrxC = tmpC;
         }
 
         destinationBuilder.objective(mtrxQ, mtrxC);
@@ -557,12 +551,12 @@ public abstract class ConvexSolver extends GenericSolver implements UpdatableSol
                 for (int i = 0; i < numbUpExpr; i++) {
                     final SparseArray<Double> rowAI = mtrxAI.addRow();
                     final Expression tmpExpression = tmpUpExpr.get(i).compensate(fixedVariables);
-                    for (final IntIndex tmpKey : tmpExpression.getLinearKeySet()) {
-                        final int tmpIndex = sourceModel.indexOfFreeVariable(tmpKey.index);
+                    tmpExpression.visitAdjustedLinearFactors((index, factor) -> {
+                        final int tmpIndex = sourceModel.indexOfFreeVariable((int) index);
                         if (tmpIndex >= 0) {
-                            rowAI.set(tmpIndex, tmpExpression.getAdjustedLinearFactor(tmpKey));
+                            rowAI.set(tmpIndex, factor);
                         }
-                    }
+                    });
                     mtrxBI.set(i, 0, tmpExpression.getAdjustedUpperLimit());
                 }
             }
@@ -580,12 +574,12 @@ public abstract class ConvexSolver extends GenericSolver implements UpdatableSol
                 for (int i = 0; i < numbLoExpr; i++) {
                     final SparseArray<Double> rowAI = mtrxAI.addRow();
                     final Expression tmpExpression = tmpLoExpr.get(i).compensate(fixedVariables);
-                    for (final IntIndex tmpKey : tmpExpression.getLinearKeySet()) {
-                        final int tmpIndex = sourceModel.indexOfFreeVariable(tmpKey.index);
+                    tmpExpression.visitAdjustedLinearFactors((index, factor) -> {
+                        final int tmpIndex = sourceModel.indexOfFreeVariable((int) index);
                         if (tmpIndex >= 0) {
-                            rowAI.set(tmpIndex, -tmpExpression.getAdjustedLinearFactor(tmpKey));
+                            rowAI.set(tmpIndex, -factor);
                         }
-                    }
+                    });
                     mtrxBI.set(numbUpExpr + numbUpVar + i, 0, -tmpExpression.getAdjustedLowerLimit());
                 }
             }
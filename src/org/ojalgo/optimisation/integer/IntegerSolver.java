@@ -25,14 +25,17 @@ import static org.ojalgo.constant.PrimitiveMath.*;
 import static org.ojalgo.function.PrimitiveFunction.*;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
-import java.util.Queue;
-import java.util.concurrent.ConcurrentLinkedQueue;
-import java.util.concurrent.ForkJoinPool;
-import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.ToDoubleFunction;
 
+import org.ojalgo.OjAlgoUtils;
+import org.ojalgo.ProgrammingError;
+import org.ojalgo.concurrent.DaemonPoolExecutor;
 import org.ojalgo.function.PrimitiveFunction;
 import org.ojalgo.function.aggregator.Aggregator;
 import org.ojalgo.function.multiary.MultiaryFunction;
@@ -77,60 +80,44 @@ public final class IntegerSolver extends GenericSolver {
 
     }
 
-    final class BranchAndBoundNodeTask extends RecursiveTask<Boolean> {
-
-        private final NodeKey myKey;
-        private final PrinterBuffer myPrinter = IntegerSolver.this.isDebug() ? new CharacterRing().asPrinter() : null;
-
-        private BranchAndBoundNodeTask(final NodeKey key) {
-
-            super();
-
-            myKey = key;
-        }
-
-        BranchAndBoundNodeTask() {
-
-            super();
-
-            myKey = new NodeKey(IntegerSolver.this.getIntegerModel());
-        }
-
-        @Override
-        public String toString() {
-            return myKey.toString();
-        }
-
-        @Override
-        protected Boolean compute() {
-
-            final ExpressionsBasedModel nodeModel = IntegerSolver.this.getNodeModel();
-            myKey.setNodeState(nodeModel, IntegerSolver.this.getIntegerIndices());
-
-            if (IntegerSolver.this.isIntegerSolutionFound()) {
-
-                final double bestIntegerSolutionValue = IntegerSolver.this.getBestResultSoFar().getValue();
-
-                double nudge = MAX.invoke(ABS.invoke(bestIntegerSolutionValue) * options.mip_gap, options.mip_gap);
-
-                if (nodeModel.isMinimisation()) {
-                    final BigDecimal upper = TypeUtils.toBigDecimal(bestIntegerSolutionValue - nudge, options.feasibility);
-                    nodeModel.limitObjective(null, upper);
-                } else {
-                    final BigDecimal lower = TypeUtils.toBigDecimal(bestIntegerSolutionValue + nudge, options.feasibility);
-                    nodeModel.limitObjective(lower, null);
-                }
-            }
+    /**
+     * How the open branch-and-bound nodes are scheduled. Set using
+     * {@linkplain org.ojalgo.optimisation.Optimisation.Options#mip_selection}.
+     */
+    public enum NodeSelection {
 
-            final Boolean retVal = IntegerSolver.this.compute(myKey, nodeModel.prepare(), myPrinter);
+        /**
+         * Both child nodes are added to the pool, and the node with the best bound (the best parent node
+         * objective function value) is always evaluated next. Tends to minimise the number of nodes
+         * evaluated, but typically finds the first integer solution late and keeps many nodes open.
+         */
+        BEST_BOUND(false),
+        /**
+         * Both child nodes are added to the pool, and nodes are evaluated in order of their estimated
+         * integer objective function value - the bound degraded by pseudo-costs learned from the nodes
+         * evaluated so far.
+         */
+        BEST_ESTIMATE(false),
+        /**
+         * Every worker dives, always evaluating the child node with the smallest displacement directly.
+         * The other child is added to the pool, and the most recently created node is resumed when a dive
+         * ends.
+         */
+        DEPTH_FIRST(true),
+        /**
+         * Dives like {@link #DEPTH_FIRST}, and resumes the most recently created node until an integer
+         * solution is found. After that dives are resumed from the node with the best bound.
+         */
+        HYBRID(true);
 
-            IntegerSolver.this.recycleNodeModel(nodeModel);
+        private final boolean myDiving;
 
-            return retVal;
+        NodeSelection(final boolean diving) {
+            myDiving = diving;
         }
 
-        NodeKey getKey() {
-            return myKey;
+        boolean isDiving() {
+            return myDiving;
         }
 
     }
@@ -236,8 +223,11 @@ public final class IntegerSolver extends GenericSolver {
         }
     }
 
+    static double getRecency(final NodeKey nodeKey) {
+        return -nodeKey.sequence;
+    }
+
     private volatile Optimisation.Result myBestResultSoFar = null;
-    private final Queue<NodeKey> myDeferredNodes = new ConcurrentLinkedQueue<>();
     private final MultiaryFunction.TwiceDifferentiable<Double> myFunction;
     /**
      * One entry per integer variable, the entry is the global index of that integer variable
@@ -247,7 +237,14 @@ public final class IntegerSolver extends GenericSolver {
     private final double[] myIntegerSignificances;
     private final AtomicInteger myIntegerSolutionsCount = new AtomicInteger();
     private final boolean myMinimisation;
+    private volatile NodePool myNodePool = null;
     private final NodeStatistics myNodeStatistics = new NodeStatistics();
+    /**
+     * Per integer variable; the accumulated objective function degradation per unit displacement, and the
+     * number of observations.
+     */
+    private final double[] myPseudoCosts;
+    private final int[] myPseudoCostsCount;
 
     protected IntegerSolver(final ExpressionsBasedModel model, final Options solverOptions) {
 
@@ -264,6 +261,9 @@ public final class IntegerSolver extends GenericSolver {
             myIntegerIndices[i] = myIntegerModel.indexOf(integerVariables.get(i));
         }
 
+        myPseudoCosts = new double[myIntegerIndices.length];
+        myPseudoCostsCount = new int[myIntegerIndices.length];
+
         myIntegerSignificances = new double[myIntegerIndices.length];
         Arrays.fill(myIntegerSignificances, ONE);
         final MatrixStore<Double> gradient = this.getGradient(Access1D.asPrimitive1D(model.getVariableValues()));
@@ -286,16 +286,30 @@ public final class IntegerSolver extends GenericSolver {
 
         this.resetIterationsCount();
 
-        final BranchAndBoundNodeTask rootNodeTask = new BranchAndBoundNodeTask();
+        final int workers = Math.max(1, options.mip_parallelism);
 
-        boolean normalExit = ForkJoinPool.commonPool().invoke(rootNodeTask).booleanValue();
-        while (normalExit && (myDeferredNodes.size() > 0)) {
-            NodeKey nodeKey = myDeferredNodes.poll();
-            if (this.isGoodEnoughToContinueBranching(nodeKey.objective)) {
-                normalExit &= ForkJoinPool.commonPool().invoke(new BranchAndBoundNodeTask(nodeKey)).booleanValue();
+        myNodePool = new NodePool(this.getNodeCapacity(), workers, this.getNodePriority());
+        myNodePool.offer(new NodeKey(this.getIntegerModel()));
+
+        // The calling thread is one of the workers
+        final List<Future<Boolean>> helpers = new ArrayList<>(workers - 1);
+        for (int w = 1; w < workers; w++) {
+            helpers.add(DaemonPoolExecutor.invoke(this::work));
+        }
+
+        boolean normalExit = this.work().booleanValue();
+        for (final Future<Boolean> helper : helpers) {
+            try {
+                normalExit &= helper.get().booleanValue();
+            } catch (final InterruptedException cause) {
+                Thread.currentThread().interrupt();
+                normalExit = false;
+            } catch (final ExecutionException cause) {
+                throw new ProgrammingError(cause.getCause());
             }
         }
-        myDeferredNodes.clear();
+
+        myNodePool = null;
 
         final Optimisation.Result bestSolutionFound = this.getBestResultSoFar();
 
@@ -370,6 +384,10 @@ public final class IntegerSolver extends GenericSolver {
             final int branchIntegerIndex = this.identifyNonIntegerVariable(nodeResult, nodeKey);
             final double tmpSolutionValue = this.evaluateFunction(nodeResult);
 
+            if (nodeKey.index >= 0) {
+                this.addPseudoCost(nodeKey, tmpSolutionValue);
+            }
+
             if (branchIntegerIndex == -1) {
                 if (this.isDebug()) {
                     nodePrinter.println("Integer solution! Store it among the others, and stop this branch!");
@@ -411,37 +429,36 @@ public final class IntegerSolver extends GenericSolver {
                     final NodeKey upperBranch = nodeKey.createUpperBranch(branchIntegerIndex, variableValue, tmpSolutionValue);
 
                     final NodeKey nextTask;
-                    final BranchAndBoundNodeTask forkedTask;
+                    final NodeKey otherTask;
 
                     if (upperBranch.displacement <= HALF) {
                         nextTask = upperBranch;
-                        if (lowerBranch.displacement < options.mip_defer) {
-                            forkedTask = new BranchAndBoundNodeTask(lowerBranch);
-                        } else {
-                            forkedTask = null;
-                            myDeferredNodes.offer(lowerBranch);
-                        }
+                        otherTask = lowerBranch;
                     } else {
                         nextTask = lowerBranch;
-                        if (upperBranch.displacement < options.mip_defer) {
-                            forkedTask = new BranchAndBoundNodeTask(upperBranch);
-                        } else {
-                            forkedTask = null;
-                            myDeferredNodes.offer(upperBranch);
-                        }
+                        otherTask = upperBranch;
                     }
 
-                    if (forkedTask != null) {
+                    final NodePool nodePool = myNodePool;
 
-                        forkedTask.fork();
+                    // When the pool is full the nodes are evaluated here, depth-first
+                    final boolean dive = options.mip_selection.isDiving() || !nodePool.offer(nextTask);
+                    final boolean deferred = nodePool.offer(otherTask);
 
-                        return this.compute(nextTask, nodeModel, nodePrinter) && forkedTask.join();
+                    boolean retVal = true;
 
+                    if (dive) {
+                        retVal = this.compute(nextTask, nodeModel, nodePrinter).booleanValue();
                     } else {
+                        nodeModel.dispose();
+                    }
 
-                        return this.compute(nextTask, nodeModel, nodePrinter);
+                    if (!deferred) {
+                        retVal = retVal && this.evaluate(otherTask);
                     }
 
+                    return retVal;
+
                 } else {
                     if (this.isDebug()) {
                         nodePrinter.println("Can't find better integer solutions - stop this branch!");
@@ -570,6 +587,11 @@ public final class IntegerSolver extends GenericSolver {
             myBestResultSoFar = result;
             this.setState(Optimisation.State.FEASIBLE);
 
+            final NodePool nodePool = myNodePool;
+            if ((nodePool != null) && (options.mip_selection == NodeSelection.HYBRID)) {
+                nodePool.reorder(this.getNodePriority());
+            }
+
         } else if (myMinimisation && (result.getValue() < currentlyTheBest.getValue())) {
 
             myBestResultSoFar = result;
@@ -596,6 +618,8 @@ public final class IntegerSolver extends GenericSolver {
         }
 
         myIntegerSolutionsCount.incrementAndGet();
+
+        this.shareIncumbent(myBestResultSoFar);
     }
 
     protected void recycleNodeModel(ExpressionsBasedModel model) {
@@ -634,15 +658,111 @@ public final class IntegerSolver extends GenericSolver {
         return retVal;
     }
 
+    private double getBound(final NodeKey nodeKey) {
+        return myMinimisation ? nodeKey.objective : -nodeKey.objective;
+    }
+
+    private double getEstimate(final NodeKey nodeKey) {
+        if (nodeKey.index >= 0) {
+            return this.getBound(nodeKey) + (nodeKey.displacement * this.getPseudoCost(nodeKey.index));
+        } else {
+            return this.getBound(nodeKey);
+        }
+    }
+
+    /**
+     * The worker loop - take nodes from the pool and evaluate them until there are no more open nodes.
+     */
+    private Boolean work() {
+
+        final NodePool nodePool = myNodePool;
+
+        try {
+
+            NodeKey nodeKey;
+            while ((nodeKey = nodePool.take()) != null) {
+                if (!this.evaluate(nodeKey)) {
+                    nodePool.stop();
+                    return Boolean.FALSE;
+                }
+            }
+
+            return Boolean.TRUE;
+
+        } catch (final RuntimeException cause) {
+            nodePool.stop();
+            throw cause;
+        }
+    }
+
     void addIntegerSignificance(final int index, final double significance) {
         myIntegerSignificances[index] = HYPOT.invoke(myIntegerSignificances[index], significance);
     }
 
+    void addPseudoCost(final NodeKey nodeKey, final double nodeValue) {
+
+        final double degradation = myMinimisation ? nodeValue - nodeKey.objective : nodeKey.objective - nodeValue;
+
+        if (!Double.isNaN(degradation) && (nodeKey.displacement > ZERO)) {
+            synchronized (myPseudoCosts) {
+                myPseudoCosts[nodeKey.index] += MAX.invoke(degradation, ZERO) / nodeKey.displacement;
+                myPseudoCostsCount[nodeKey.index]++;
+            }
+        }
+    }
+
     int countExploredNodes() {
         // return myExploredNodes.size();
         return 0;
     }
 
+    /**
+     * Evaluate a node using a new node model. Nodes that can't lead to better integer solutions than the
+     * best found so far are abandoned.
+     */
+    boolean evaluate(final NodeKey nodeKey) {
+
+        final Optimisation.Result sharedIncumbent = this.getSharedIncumbent();
+        if (sharedIncumbent != null) {
+            // Another solver, in the same portfolio race, may have found a better integer solution
+            final Optimisation.Result currentlyTheBest = myBestResultSoFar;
+            if ((currentlyTheBest == null) || (myMinimisation ? sharedIncumbent.getValue() < currentlyTheBest.getValue()
+                    : sharedIncumbent.getValue() > currentlyTheBest.getValue())) {
+                this.markInteger(null, null, sharedIncumbent);
+            }
+        }
+
+        if (!this.isGoodEnoughToContinueBranching(nodeKey.objective)) {
+            return myNodeStatistics.abandoned();
+        }
+
+        final PrinterBuffer nodePrinter = this.isDebug() ? new CharacterRing().asPrinter() : null;
+
+        final ExpressionsBasedModel nodeModel = this.getNodeModel();
+        nodeKey.setNodeState(nodeModel, this.getIntegerIndices());
+
+        if (this.isIntegerSolutionFound()) {
+
+            final double bestIntegerSolutionValue = this.getBestResultSoFar().getValue();
+
+            final double nudge = MAX.invoke(ABS.invoke(bestIntegerSolutionValue) * options.mip_gap, options.mip_gap);
+
+            if (nodeModel.isMinimisation()) {
+                final BigDecimal upper = TypeUtils.toBigDecimal(bestIntegerSolutionValue - nudge, options.feasibility);
+                nodeModel.limitObjective(null, upper);
+            } else {
+                final BigDecimal lower = TypeUtils.toBigDecimal(bestIntegerSolutionValue + nudge, options.feasibility);
+                nodeModel.limitObjective(lower, null);
+            }
+        }
+
+        final boolean retVal = this.compute(nodeKey, nodeModel.prepare(), nodePrinter).booleanValue();
+
+        this.recycleNodeModel(nodeModel);
+
+        return retVal;
+    }
+
     int getGlobalIndex(final int integerIndex) {
         return myIntegerIndices[integerIndex];
     }
@@ -655,6 +775,52 @@ public final class IntegerSolver extends GenericSolver {
         return myIntegerSignificances[index];
     }
 
+    /**
+     * The max number of open nodes. An open node is essentially 2 int[] (lower and upper bounds) with one
+     * element per integer variable. Regardless of {@linkplain Optimisation.Options#mip_nodes} the open nodes
+     * may not use more than a quarter of the currently available memory.
+     */
+    int getNodeCapacity() {
+
+        final long nodeSize = 64L + (8L * myIntegerIndices.length);
+        final long nodeMemory = OjAlgoUtils.ENVIRONMENT.getAvailableMemory() / 4L;
+
+        return (int) Math.max(1L, Math.min(options.mip_nodes, nodeMemory / nodeSize));
+    }
+
+    /**
+     * Lower is better
+     */
+    ToDoubleFunction<NodeKey> getNodePriority() {
+        switch (options.mip_selection) {
+        case BEST_BOUND:
+            return this::getBound;
+        case BEST_ESTIMATE:
+            return this::getEstimate;
+        case HYBRID:
+            return this.isIntegerSolutionFound() ? this::getBound : IntegerSolver::getRecency;
+        default:
+            return IntegerSolver::getRecency;
+        }
+    }
+
+    double getPseudoCost(final int index) {
+        synchronized (myPseudoCosts) {
+            if (myPseudoCostsCount[index] > 0) {
+                return myPseudoCosts[index] / myPseudoCostsCount[index];
+            } else {
+                // No observations for this variable, use the average of all the others
+                double sum = ZERO;
+                int count = 0;
+                for (int i = 0; i < myPseudoCosts.length; i++) {
+                    sum += myPseudoCosts[i];
+                    count += myPseudoCostsCount[i];
+                }
+                return count > 0 ? sum / count : ZERO;
+            }
+        }
+    }
+
     /**
      * Should return the index of the (best) integer variable to branch on. Returning a negative index means
      * an integer solution has been found (no further branching). Does NOT return a global variable index -
@@ -0,0 +1,151 @@
+/*
+ * Copyright 1997-2018 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.optimisation.integer;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * The open (not yet evaluated) branch-and-bound nodes, shared by the worker threads. The nodes are ordered by
+ * a priority - lower is better - calculated when a node is added. Ties are broken in favour of the most
+ * recently created node.
+ * <p>
+ * The pool also keeps track of how many workers are busy evaluating nodes. A worker asking for a node when
+ * the pool is empty waits until either another worker adds nodes or all workers are idle - then the search
+ * is finished.
+ *
+ * @author apete
+ */
+final class NodePool {
+
+    private static final class Entry {
+
+        final NodeKey key;
+        final double priority;
+
+        Entry(final NodeKey key, final double priority) {
+            super();
+            this.key = key;
+            this.priority = priority;
+        }
+
+    }
+
+    private static final Comparator<Entry> ORDER = (entry1, entry2) -> {
+        final int retVal = Double.compare(entry1.priority, entry2.priority);
+        return retVal != 0 ? retVal : Long.compare(entry2.key.sequence, entry1.key.sequence);
+    };
+
+    private int myBusy;
+    private final int myCapacity;
+    private ToDoubleFunction<NodeKey> myPriority;
+    private final PriorityQueue<Entry> myQueue = new PriorityQueue<>(ORDER);
+    private boolean myStopped = false;
+
+    /**
+     * @param capacity The max number of open nodes
+     * @param workers The number of workers that will be taking nodes from this pool
+     * @param priority Calculates the priority of a node (lower is better)
+     */
+    NodePool(final int capacity, final int workers, final ToDoubleFunction<NodeKey> priority) {
+
+        super();
+
+        myCapacity = capacity;
+        myBusy = workers;
+        myPriority = priority;
+    }
+
+    /**
+     * @return false if the pool was full, and the node must be evaluated by the caller. When the pool is
+     *         stopped nodes are (silently) discarded.
+     */
+    synchronized boolean offer(final NodeKey key) {
+        if (myStopped) {
+            return true;
+        } else if (myQueue.size() >= myCapacity) {
+            return false;
+        } else {
+            myQueue.offer(new Entry(key, myPriority.applyAsDouble(key)));
+            this.notifyAll();
+            return true;
+        }
+    }
+
+    /**
+     * Change how nodes are prioritised. The priorities of the nodes already in the pool are recalculated.
+     */
+    synchronized void reorder(final ToDoubleFunction<NodeKey> priority) {
+
+        myPriority = priority;
+
+        final List<Entry> entries = new ArrayList<>(myQueue);
+        myQueue.clear();
+        for (final Entry entry : entries) {
+            myQueue.offer(new Entry(entry.key, priority.applyAsDouble(entry.key)));
+        }
+    }
+
+    synchronized int size() {
+        return myQueue.size();
+    }
+
+    /**
+     * Discard all open nodes and release any waiting workers.
+     */
+    synchronized void stop() {
+        myStopped = true;
+        myQueue.clear();
+        this.notifyAll();
+    }
+
+    /**
+     * Called by a worker that has finished evaluating its previous node (or is just starting).
+     *
+     * @return The best open node, or null when the search is finished (or stopped).
+     */
+    synchronized NodeKey take() {
+
+        myBusy--;
+
+        while (!myStopped && myQueue.isEmpty() && (myBusy > 0)) {
+            try {
+                this.wait();
+            } catch (final InterruptedException cause) {
+                Thread.currentThread().interrupt();
+                myStopped = true;
+            }
+        }
+
+        if (myStopped || myQueue.isEmpty()) {
+            this.notifyAll();
+            return null;
+        } else {
+            myBusy++;
+            return myQueue.poll().key;
+        }
+    }
+
+}
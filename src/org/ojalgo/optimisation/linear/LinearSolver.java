@@ -21,6 +21,8 @@
  */
 package org.ojalgo.optimisation.linear;
 
+import static org.ojalgo.constant.PrimitiveMath.*;
+
 import java.math.BigDecimal;
 import java.util.List;
 
@@ -100,7 +102,7 @@ public abstract class LinearSolver extends GenericSolver implements UpdatableSol
 
     }
 
-    public static final class ModelIntegration extends ExpressionsBasedModel.Integration<LinearSolver> {
+    public static class ModelIntegration extends ExpressionsBasedModel.Integration<LinearSolver> {
 
         public LinearSolver build(final ConvexSolver.Builder convexBuilder, final Optimisation.Options options) {
 
@@ -113,7 +115,11 @@ public abstract class LinearSolver extends GenericSolver implements UpdatableSol
 
             final SimplexTableau tableau = SimplexSolver.build(model);
 
-            return new SimplexSolver(tableau, model.options);
+            if (model.options.linear_revised) {
+                return new RevisedSimplexSolver(tableau, model.options, RevisedSimplexSolver.Pricing.PARTIAL);
+            } else {
+                return new SimplexSolver(tableau, model.options);
+            }
         }
 
         public boolean isCapable(final ExpressionsBasedModel model) {
@@ -194,6 +200,33 @@ public abstract class LinearSolver extends GenericSolver implements UpdatableSol
             return true;
         }
 
+        /**
+         * A model variable is split into a positive and a negative part, x = x<sup>+</sup> -
+         * x<sup>-</sup>, and the range [l,u] translates to x<sup>+</sup> in [max(l,0),max(u,0)] and
+         * x<sup>-</sup> in [max(-u,0),max(-l,0)].
+         */
+        @Override
+        protected boolean updateRange(final ExpressionsBasedModel model, final UpdatableSolver solver, final Variable variable) {
+
+            final double lower = variable.isLowerLimitSet() ? variable.getLowerLimit().doubleValue() : NEGATIVE_INFINITY;
+            final double upper = variable.isUpperLimitSet() ? variable.getUpperLimit().doubleValue() : POSITIVE_INFINITY;
+
+            final int positiveIndex = model.indexOfPositiveVariable(variable);
+            final int negativeIndex = model.indexOfNegativeVariable(variable);
+
+            boolean retVal = (positiveIndex >= 0) || (negativeIndex >= 0);
+
+            if (retVal && (positiveIndex >= 0)) {
+                retVal = solver.updateRange(positiveIndex, Math.max(lower, ZERO), Math.max(upper, ZERO));
+            }
+
+            if (retVal && (negativeIndex >= 0)) {
+                retVal = solver.updateRange(model.getPositiveVariables().size() + negativeIndex, Math.max(-upper, ZERO), Math.max(-lower, ZERO));
+            }
+
+            return retVal;
+        }
+
     }
 
     public static LinearSolver.Builder getBuilder() {
@@ -0,0 +1,999 @@
+/*
+ * Copyright 1997-2018 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.optimisation.linear;
+
+import static org.ojalgo.constant.PrimitiveMath.*;
+
+import java.util.Arrays;
+
+import org.ojalgo.matrix.store.PhysicalStore;
+import org.ojalgo.matrix.store.PrimitiveDenseStore;
+import org.ojalgo.optimisation.ExpressionsBasedModel;
+import org.ojalgo.optimisation.Optimisation;
+import org.ojalgo.structure.Access1D;
+import org.ojalgo.structure.ElementView1D;
+
+/**
+ * A revised (primal) simplex solver for problems in the same LP standard form as {@link SimplexSolver}.
+ * Rather than pivoting a complete tableau it keeps the constraints body in sparse (column) form and a
+ * factorisation of the basis. The basis inverse is kept in product form - a sequence of sparse eta matrices
+ * - that is extended with one eta per iteration and periodically refactorised from scratch. The cost of an
+ * iteration is proportional to the number of nonzeros in the constraints body and the eta file rather than
+ * to the size of the tableau.
+ * <p>
+ * Phase 1 starts from an all artificial basis and minimises the sum of the artificial variables. Phase 2
+ * then optimises the actual objective with the artificial variables not allowed to (re)enter the basis.
+ * </p>
+ * <p>
+ * The variables may have (finite) upper limits and non-zero lower limits, set with
+ * {@link #updateRange(int, double, double)}, that are handled directly rather than as constraints. When
+ * the ranges are changed after an optimal solution has been found, the next solve starts from that optimal
+ * basis and re-optimises using the dual simplex method - typically just a few iterations. This is what
+ * makes re-solving branch-and-bound nodes cheap.
+ * </p>
+ * <p>
+ * Use it by setting {@link Optimisation.Options#linear_revised} or by registering a
+ * {@link RevisedSimplexSolver.ModelIntegration} with {@link ExpressionsBasedModel#addIntegration(ExpressionsBasedModel.Integration)}.
+ * </p>
+ *
+ * @author apete
+ */
+public final class RevisedSimplexSolver extends LinearSolver {
+
+    /**
+     * An {@link ExpressionsBasedModel.Integration} that always uses the revised simplex solver for models
+     * that are linear (no integer variables and no quadratic expressions).
+     */
+    public static final class ModelIntegration extends LinearSolver.ModelIntegration {
+
+        private final Pricing myPricing;
+
+        public ModelIntegration() {
+            this(Pricing.PARTIAL);
+        }
+
+        public ModelIntegration(final Pricing pricing) {
+            super();
+            myPricing = pricing;
+        }
+
+        @Override
+        public LinearSolver build(final ExpressionsBasedModel model) {
+            return new RevisedSimplexSolver(SimplexSolver.build(model), model.options, myPricing);
+        }
+
+    }
+
+    /**
+     * How the entering variable is chosen
+     */
+    public enum Pricing {
+
+        /**
+         * Approximate steepest edge. Chooses the largest reduced cost relative to a reference framework
+         * weight. Requires computing the pivot row each iteration, but typically results in significantly
+         * fewer iterations.
+         */
+        DEVEX,
+
+        /**
+         * Most negative reduced cost among a limited (cyclically moving) segment of the columns. A segment is
+         * only extended if it contains no candidate. Cheap iterations.
+         */
+        PARTIAL;
+
+    }
+
+    /**
+     * The basis is refactorised (at least) this often
+     */
+    static final int REFACTORISATION_INTERVAL = 100;
+    /**
+     * How many times, in a row, phase 1 may refactorise and retry when the ratio test finds no limiting
+     * basic variable, before giving up
+     */
+    static final int RETRY_LIMIT = 3;
+
+    private static final double FEASIBILITY = 1E-9;
+    /**
+     * A basic variable further outside its range than this is primal infeasible
+     */
+    private static final double INFEASIBILITY = 1E-7;
+    private static final double OPTIMALITY = 1E-9;
+    private static final double PIVOT = 1E-9;
+
+    /**
+     * Nonbasic variables are at their lower limit unless flagged here
+     */
+    private final boolean[] myAtUpper;
+    /**
+     * The basic variable of each row, artificial variables are indexed [n,n+m)
+     */
+    private final int[] myBasis;
+    private final double[] myBasicValues;
+    private final int[] myColumnIndices;
+    private final int[] myColumnPointers;
+    private final double[] myColumnValues;
+    private final double[] myCost;
+    private final double[] myDuals;
+    private int myEtaCount = 0;
+    private int[] myEtaIndices;
+    private int myEtaNonzeros = 0;
+    private int[] myEtaRows;
+    private int[] myEtaStarts;
+    private double[] myEtaValues;
+    private final double[] myLowerLimits;
+    private final int myNumberOfConstraints;
+    private final int myNumberOfVariables;
+    private boolean myPhase1 = true;
+    /**
+     * The row of each basic variable, or -1 if nonbasic
+     */
+    private final int[] myPositions;
+    private final Pricing myPricing;
+    private int myPricingStart = 0;
+    private int myRetries = 0;
+    private final double[] myRHS;
+    /**
+     * The pivot row of the basis inverse, e<sub>r</sub><sup>T</sup>B<sup>-1</sup>
+     */
+    private final double[] myRho;
+    /**
+     * The artificial variable columns are +/- unit vectors, with the signs chosen to make their initial
+     * values non-negative
+     */
+    private final double[] mySigns;
+    private int myUpdates = 0;
+    private final double[] myUpperLimits;
+    /**
+     * The current basis is the optimal basis from the previous solve
+     */
+    private boolean myWarm = false;
+    private final double[] myWeights;
+    private final double[] myWork;
+
+    RevisedSimplexSolver(final SimplexTableau tableau, final Optimisation.Options solverOptions, final Pricing pricing) {
+
+        super(solverOptions);
+
+        myPricing = pricing;
+
+        final int m = tableau.countConstraints();
+        final int n = tableau.countVariables();
+        myNumberOfConstraints = m;
+        myNumberOfVariables = n;
+
+        // Constraints body to sparse column form - count, then fill
+
+        myColumnPointers = new int[n + 1];
+        for (int i = 0; i < m; i++) {
+            for (final ElementView1D<Double, ?> nz : tableau.sliceTableauRow(i).nonzeros()) {
+                final long j = nz.index();
+                if ((j < n) && (nz.doubleValue() != ZERO)) {
+                    myColumnPointers[(int) j + 1]++;
+                }
+            }
+        }
+        for (int j = 0; j < n; j++) {
+            myColumnPointers[j + 1] += myColumnPointers[j];
+        }
+        myColumnIndices = new int[myColumnPointers[n]];
+        myColumnValues = new double[myColumnPointers[n]];
+        final int[] next = Arrays.copyOf(myColumnPointers, n);
+        for (int i = 0; i < m; i++) {
+            for (final ElementView1D<Double, ?> nz : tableau.sliceTableauRow(i).nonzeros()) {
+                final long j = nz.index();
+                final double value = nz.doubleValue();
+                if ((j < n) && (value != ZERO)) {
+                    final int position = next[(int) j]++;
+                    myColumnIndices[position] = i;
+                    myColumnValues[position] = value;
+                }
+            }
+        }
+
+        myRHS = new double[m];
+        final Access1D<Double> rhs = tableau.sliceConstraintsRHS();
+        for (int i = 0; i < m; i++) {
+            myRHS[i] = rhs.doubleValue(i);
+        }
+
+        myCost = new double[n];
+        final Access1D<Double> objective = tableau.sliceTableauRow(m);
+        for (int j = 0; j < n; j++) {
+            myCost[j] = objective.doubleValue(j);
+        }
+
+        myLowerLimits = new double[n];
+        myUpperLimits = new double[n];
+        Arrays.fill(myUpperLimits, POSITIVE_INFINITY);
+        myAtUpper = new boolean[n];
+
+        myBasis = new int[m];
+        myPositions = new int[n + m];
+        myBasicValues = new double[m];
+        mySigns = new double[m];
+
+        myDuals = new double[m];
+        myWork = new double[m];
+        myRho = new double[m];
+        myWeights = pricing == Pricing.DEVEX ? new double[n] : null;
+
+        myEtaRows = new int[Math.max(16, m)];
+        myEtaStarts = new int[myEtaRows.length + 1];
+        myEtaIndices = new int[Math.max(16, 4 * m)];
+        myEtaValues = new double[myEtaIndices.length];
+    }
+
+    /**
+     * Same as {@link #updateRange(int, double, double)} with lower and upper both set to value.
+     */
+    public boolean fixVariable(final int index, final double value) {
+        return this.updateRange(index, value, value);
+    }
+
+    public Result solve(final Result kickStarter) {
+
+        this.resetIterationsCount();
+        myRetries = 0;
+
+        if (myWarm) {
+            // Still dual feasible, possibly primal infeasible - not feasible until the dual simplex says so
+            myPhase1 = false;
+            this.setState(State.UNEXPLORED);
+        } else {
+            this.reset();
+            this.checkPhase();
+        }
+
+        while (this.isIterationAllowed() && this.needsAnotherIteration()) {
+            this.incrementIterationsCount();
+        }
+
+        myWarm = this.getState().isOptimal();
+
+        return this.buildResult();
+    }
+
+    /**
+     * Change the range of one of the variables. The lower limit must be non-negative (all variables in the
+     * LP standard form are) and the upper limit may be {@link Double#POSITIVE_INFINITY}. If the problem was
+     * previously solved to optimality, the next solve continues from that basis using the dual simplex
+     * method.
+     *
+     * @return false if the index or the range is invalid, otherwise true
+     */
+    public boolean updateRange(final int index, final double lower, final double upper) {
+
+        if ((index < 0) || (index >= myNumberOfVariables) || (lower < ZERO) || (upper < lower)) {
+            return false;
+        }
+
+        final double before = this.getNonbasicValue(index);
+
+        myLowerLimits[index] = lower;
+        myUpperLimits[index] = upper;
+        if (upper == POSITIVE_INFINITY) {
+            myAtUpper[index] = false;
+        }
+
+        if (myWarm && (myPositions[index] < 0)) {
+            // The basic variables compensate for the nonbasic value change
+            final double change = this.getNonbasicValue(index) - before;
+            if (change != ZERO) {
+                this.loadColumn(myWork, index);
+                this.ftran(myWork);
+                for (int i = 0; i < myNumberOfConstraints; i++) {
+                    myBasicValues[i] -= change * myWork[i];
+                }
+            }
+        }
+
+        return true;
+    }
+
+    private void addEta(final double[] alpha, final int pivotRow) {
+
+        final int m = myNumberOfConstraints;
+
+        if (myEtaCount == myEtaRows.length) {
+            myEtaRows = Arrays.copyOf(myEtaRows, 2 * myEtaCount);
+            myEtaStarts = Arrays.copyOf(myEtaStarts, (2 * myEtaCount) + 1);
+        }
+        if ((myEtaNonzeros + m) > myEtaIndices.length) {
+            final int capacity = Math.max(myEtaNonzeros + m, 2 * myEtaIndices.length);
+            myEtaIndices = Arrays.copyOf(myEtaIndices, capacity);
+            myEtaValues = Arrays.copyOf(myEtaValues, capacity);
+        }
+
+        final double pivot = alpha[pivotRow];
+
+        myEtaIndices[myEtaNonzeros] = pivotRow;
+        myEtaValues[myEtaNonzeros] = ONE / pivot;
+        myEtaNonzeros++;
+
+        for (int i = 0; i < m; i++) {
+            final double value = alpha[i];
+            if ((i != pivotRow) && (value != ZERO)) {
+                myEtaIndices[myEtaNonzeros] = i;
+                myEtaValues[myEtaNonzeros] = -value / pivot;
+                myEtaNonzeros++;
+            }
+        }
+
+        myEtaRows[myEtaCount] = pivotRow;
+        myEtaCount++;
+        myEtaStarts[myEtaCount] = myEtaNonzeros;
+    }
+
+    /**
+     * y = B<sup>-T</sup>y
+     */
+    private void btran(final double[] y) {
+        for (int k = myEtaCount - 1; k >= 0; k--) {
+            double sum = ZERO;
+            for (int e = myEtaStarts[k], limit = myEtaStarts[k + 1]; e < limit; e++) {
+                sum += myEtaValues[e] * y[myEtaIndices[e]];
+            }
+            y[myEtaRows[k]] = sum;
+        }
+    }
+
+    /**
+     * x<sub>B</sub> = B<sup>-1</sup>(b - N x<sub>N</sub>)
+     */
+    private void calculateBasicValues() {
+
+        System.arraycopy(myRHS, 0, myBasicValues, 0, myNumberOfConstraints);
+
+        for (int j = 0; j < myNumberOfVariables; j++) {
+            if (myPositions[j] < 0) {
+                final double value = this.getNonbasicValue(j);
+                if (value != ZERO) {
+                    for (int k = myColumnPointers[j], limit = myColumnPointers[j + 1]; k < limit; k++) {
+                        myBasicValues[myColumnIndices[k]] -= value * myColumnValues[k];
+                    }
+                }
+            }
+        }
+
+        this.ftran(myBasicValues);
+    }
+
+    /**
+     * Updates the phase, and the state, based on the current basic solution
+     */
+    private void checkPhase() {
+
+        final int n = myNumberOfVariables;
+
+        double infeasibility = ZERO;
+        for (int i = 0; i < myNumberOfConstraints; i++) {
+            if (myBasis[i] >= n) {
+                infeasibility += Math.abs(myBasicValues[i]);
+            }
+        }
+
+        if (infeasibility <= (FEASIBILITY * (ONE + myNumberOfConstraints))) {
+            myPhase1 = false;
+            this.setState(State.FEASIBLE);
+        } else {
+            // Same as the tableau solver - nothing valid to report until phase 1 is done
+            myPhase1 = true;
+            this.setState(State.UNEXPLORED);
+        }
+    }
+
+    private double cost(final int variable) {
+        if (myPhase1) {
+            return variable >= myNumberOfVariables ? ONE : ZERO;
+        } else {
+            return variable >= myNumberOfVariables ? ZERO : myCost[variable];
+        }
+    }
+
+    private double dot(final double[] y, final int column) {
+        double retVal = ZERO;
+        for (int k = myColumnPointers[column], limit = myColumnPointers[column + 1]; k < limit; k++) {
+            retVal += y[myColumnIndices[k]] * myColumnValues[k];
+        }
+        return retVal;
+    }
+
+    /**
+     * @return The row with the basic variable furthest outside its range, or -1 if all are (sufficiently)
+     *         feasible
+     */
+    private int findInfeasibleRow() {
+
+        int retVal = -1;
+        double largest = INFEASIBILITY;
+
+        for (int i = 0; i < myNumberOfConstraints; i++) {
+            final int variable = myBasis[i];
+            final double value = myBasicValues[i];
+            final double infeasibility = Math.max(this.getLowerLimit(variable) - value, value - this.getUpperLimit(variable));
+            if (infeasibility > largest) {
+                largest = infeasibility;
+                retVal = i;
+            }
+        }
+
+        return retVal;
+    }
+
+    /**
+     * x = B<sup>-1</sup>x
+     */
+    private void ftran(final double[] x) {
+        for (int k = 0; k < myEtaCount; k++) {
+            final int pivotRow = myEtaRows[k];
+            final double pivotValue = x[pivotRow];
+            if (pivotValue != ZERO) {
+                for (int e = myEtaStarts[k], limit = myEtaStarts[k + 1]; e < limit; e++) {
+                    final int i = myEtaIndices[e];
+                    if (i == pivotRow) {
+                        x[i] = myEtaValues[e] * pivotValue;
+                    } else {
+                        x[i] += myEtaValues[e] * pivotValue;
+                    }
+                }
+            }
+        }
+    }
+
+    private double getLowerLimit(final int variable) {
+        return variable >= myNumberOfVariables ? ZERO : myLowerLimits[variable];
+    }
+
+    private double getNonbasicValue(final int variable) {
+        return myAtUpper[variable] ? myUpperLimits[variable] : myLowerLimits[variable];
+    }
+
+    /**
+     * @return How far the basic variable in row can move, in the direction of change, before reaching one
+     *         of its limits (never negative)
+     */
+    private double getSlack(final int row, final double change) {
+        final int variable = myBasis[row];
+        if (change < ZERO) {
+            return Math.max(myBasicValues[row] - this.getLowerLimit(variable), ZERO);
+        } else {
+            return Math.max(this.getUpperLimit(variable) - myBasicValues[row], ZERO);
+        }
+    }
+
+    /**
+     * In phase 2 the artificial variables are fixed at zero
+     */
+    private double getUpperLimit(final int variable) {
+        if (variable >= myNumberOfVariables) {
+            return myPhase1 ? POSITIVE_INFINITY : ZERO;
+        } else {
+            return myUpperLimits[variable];
+        }
+    }
+
+    /**
+     * Can the reduced cost, of a nonbasic variable, be improved upon by moving that variable away from its
+     * current limit.
+     */
+    private boolean isAttractive(final int variable, final double reduced) {
+        if (myLowerLimits[variable] == myUpperLimits[variable]) {
+            return false;
+        } else if (myAtUpper[variable]) {
+            return reduced > OPTIMALITY;
+        } else {
+            return reduced < -OPTIMALITY;
+        }
+    }
+
+    /**
+     * One dual simplex iteration, with the basic variable in pivotRow leaving to its violated limit.
+     *
+     * @return false if the problem was found to be infeasible
+     */
+    private boolean iterateDual(final int pivotRow) {
+
+        final int n = myNumberOfVariables;
+
+        final int leaving = myBasis[pivotRow];
+        final double value = myBasicValues[pivotRow];
+        final boolean toLower = value < this.getLowerLimit(leaving);
+        final double target = toLower ? this.getLowerLimit(leaving) : this.getUpperLimit(leaving);
+
+        final double[] rho = myRho;
+        Arrays.fill(rho, ZERO);
+        rho[pivotRow] = ONE;
+        this.btran(rho);
+
+        // Dual ratio test - the entering variable keeps the reduced costs dual feasible
+
+        int entering = -1;
+        double bestRatio = POSITIVE_INFINITY;
+        double bestPivot = ZERO;
+        for (int j = 0; j < n; j++) {
+            if ((myPositions[j] < 0) && (myLowerLimits[j] != myUpperLimits[j])) {
+                final double alpha = this.dot(rho, j);
+                final boolean eligible;
+                if (toLower) {
+                    eligible = myAtUpper[j] ? alpha > PIVOT : alpha < -PIVOT;
+                } else {
+                    eligible = myAtUpper[j] ? alpha < -PIVOT : alpha > PIVOT;
+                }
+                if (eligible) {
+                    final double ratio = Math.abs(this.cost(j) - this.dot(myDuals, j)) / Math.abs(alpha);
+                    if ((ratio < (bestRatio - OPTIMALITY)) || ((ratio <= (bestRatio + OPTIMALITY)) && (Math.abs(alpha) > bestPivot))) {
+                        bestRatio = Math.min(ratio, bestRatio);
+                        bestPivot = Math.abs(alpha);
+                        entering = j;
+                    }
+                }
+            }
+        }
+
+        if (entering < 0) {
+            // No nonbasic variable can move the leaving variable towards its range
+            return false;
+        }
+
+        final double[] alpha = myWork;
+        this.loadColumn(alpha, entering);
+        this.ftran(alpha);
+
+        final double change = (value - target) / alpha[pivotRow];
+        for (int i = 0; i < myNumberOfConstraints; i++) {
+            if (alpha[i] != ZERO) {
+                myBasicValues[i] -= change * alpha[i];
+            }
+        }
+        myBasicValues[pivotRow] = this.getNonbasicValue(entering) + change;
+
+        myPositions[leaving] = -1;
+        if (leaving < n) {
+            myAtUpper[leaving] = !toLower;
+        }
+        myBasis[pivotRow] = entering;
+        myPositions[entering] = pivotRow;
+
+        this.addEta(alpha, pivotRow);
+        myUpdates++;
+
+        return true;
+    }
+
+    private void loadColumn(final double[] column, final int variable) {
+        Arrays.fill(column, ZERO);
+        for (int k = myColumnPointers[variable], limit = myColumnPointers[variable + 1]; k < limit; k++) {
+            column[myColumnIndices[k]] = myColumnValues[k];
+        }
+    }
+
+    /**
+     * @return The entering variable, or -1 if the current basis is optimal (for the current phase)
+     */
+    private int price() {
+
+        final int n = myNumberOfVariables;
+
+        int retVal = -1;
+
+        if (myPricing == Pricing.DEVEX) {
+
+            double best = ZERO;
+            for (int j = 0; j < n; j++) {
+                if (myPositions[j] < 0) {
+                    final double reduced = this.cost(j) - this.dot(myDuals, j);
+                    if (this.isAttractive(j, reduced)) {
+                        final double score = (reduced * reduced) / myWeights[j];
+                        if (score > best) {
+                            best = score;
+                            retVal = j;
+                        }
+                    }
+                }
+            }
+
+        } else {
+
+            final int segment = Math.max(64, n / 8);
+
+            double best = OPTIMALITY;
+            for (int scanned = 0; (scanned < n) && (retVal < 0); scanned += segment) {
+                for (int s = 0; (s < segment) && ((scanned + s) < n); s++) {
+                    final int j = (myPricingStart + scanned + s) % n;
+                    if (myPositions[j] < 0) {
+                        final double reduced = this.cost(j) - this.dot(myDuals, j);
+                        if (this.isAttractive(j, reduced) && (Math.abs(reduced) > best)) {
+                            best = Math.abs(reduced);
+                            retVal = j;
+                        }
+                    }
+                }
+                if (retVal >= 0) {
+                    myPricingStart = (myPricingStart + scanned + segment) % n;
+                }
+            }
+        }
+
+        return retVal;
+    }
+
+    /**
+     * Harris' two pass ratio test - first the max step allowing basic variables to become slightly
+     * infeasible, then among the rows within that step the one with the largest pivot element.
+     *
+     * @param direction +1 if the entering variable increases, -1 if it decreases
+     * @return The leaving row, or -1 if no basic variable limits the step
+     */
+    private int ratioTest(final double[] alpha, final double direction) {
+
+        final int n = myNumberOfVariables;
+
+        // Phase 2 with artificials, at zero level, still in the basis - they must not change
+        if (!myPhase1) {
+            int retVal = -1;
+            double largest = PIVOT;
+            for (int i = 0; i < myNumberOfConstraints; i++) {
+                if ((myBasis[i] >= n) && (Math.abs(alpha[i]) > largest)) {
+                    largest = Math.abs(alpha[i]);
+                    retVal = i;
+                }
+            }
+            if (retVal >= 0) {
+                return retVal;
+            }
+        }
+
+        double maxStep = POSITIVE_INFINITY;
+        for (int i = 0; i < myNumberOfConstraints; i++) {
+            final double change = -direction * alpha[i];
+            if ((change < -PIVOT) || (change > PIVOT)) {
+                final double step = (this.getSlack(i, change) + FEASIBILITY) / Math.abs(change);
+                if (step < maxStep) {
+                    maxStep = step;
+                }
+            }
+        }
+
+        int retVal = -1;
+        double largest = ZERO;
+        for (int i = 0; i < myNumberOfConstraints; i++) {
+            final double change = -direction * alpha[i];
+            if (((change < -PIVOT) || (change > PIVOT)) && ((this.getSlack(i, change) / Math.abs(change)) <= maxStep)
+                    && (Math.abs(change) > largest)) {
+                largest = Math.abs(change);
+                retVal = i;
+            }
+        }
+
+        return retVal;
+    }
+
+    /**
+     * Rebuild the eta file from scratch for the current set of basic variables, and recalculate the basic
+     * variable values. Columns that turn out to be (numerically) linearly dependent are replaced by
+     * artificial variables.
+     */
+    private void refactorise() {
+
+        final int m = myNumberOfConstraints;
+        final int n = myNumberOfVariables;
+
+        myEtaCount = 0;
+        myEtaNonzeros = 0;
+        myUpdates = 0;
+
+        final int[] oldBasis = myBasis.clone();
+        final boolean[] assigned = new boolean[m];
+
+        // Basic artificial variables have unit columns and always belong to their own rows
+        for (int i = 0; i < m; i++) {
+            final int variable = oldBasis[i];
+            myPositions[variable] = -1;
+            myBasis[i] = n + i;
+            if (variable >= n) {
+                assigned[variable - n] = true;
+            }
+            if (mySigns[i] < ZERO) {
+                Arrays.fill(myWork, ZERO);
+                myWork[i] = NEG;
+                this.addEta(myWork, i);
+            }
+        }
+
+        // The structural columns, sparsest first
+        final Integer[] structural = Arrays.stream(oldBasis).filter(v -> v < n).boxed().toArray(Integer[]::new);
+        Arrays.sort(structural, (a, b) -> Integer.compare(myColumnPointers[a + 1] - myColumnPointers[a], myColumnPointers[b + 1] - myColumnPointers[b]));
+
+        for (final Integer variable : structural) {
+
+            this.loadColumn(myWork, variable);
+            this.ftran(myWork);
+
+            int pivotRow = -1;
+            double largest = PIVOT;
+            for (int i = 0; i < m; i++) {
+                if (!assigned[i] && (Math.abs(myWork[i]) > largest)) {
+                    largest = Math.abs(myWork[i]);
+                    pivotRow = i;
+                }
+            }
+
+            if (pivotRow >= 0) {
+                this.addEta(myWork, pivotRow);
+                myBasis[pivotRow] = variable;
+                assigned[pivotRow] = true;
+            }
+        }
+
+        // Rows without a structural column get their artificial variable
+        for (int i = 0; i < m; i++) {
+            myPositions[myBasis[i]] = i;
+        }
+
+        this.calculateBasicValues();
+    }
+
+    /**
+     * Cold start - an all artificial basis with the (structural) variables at their lower limits
+     */
+    private void reset() {
+
+        final int m = myNumberOfConstraints;
+        final int n = myNumberOfVariables;
+
+        myEtaCount = 0;
+        myEtaNonzeros = 0;
+        myUpdates = 0;
+
+        Arrays.fill(myPositions, -1);
+        Arrays.fill(myAtUpper, false);
+        for (int i = 0; i < m; i++) {
+            myBasis[i] = n + i;
+            myPositions[n + i] = i;
+        }
+        Arrays.fill(mySigns, ONE);
+
+        this.calculateBasicValues();
+
+        for (int i = 0; i < m; i++) {
+            if (myBasicValues[i] < ZERO) {
+                mySigns[i] = NEG;
+                Arrays.fill(myWork, ZERO);
+                myWork[i] = NEG;
+                this.addEta(myWork, i);
+                myBasicValues[i] = -myBasicValues[i];
+            }
+        }
+
+        if (myWeights != null) {
+            Arrays.fill(myWeights, ONE);
+        }
+    }
+
+    /**
+     * y = B<sup>-T</sup>c<sub>B</sub>
+     */
+    private void updateDuals() {
+        for (int i = 0; i < myNumberOfConstraints; i++) {
+            myDuals[i] = this.cost(myBasis[i]);
+        }
+        this.btran(myDuals);
+    }
+
+    private void updateWeights(final int entering, final int pivotRow, final double[] alpha) {
+
+        final int n = myNumberOfVariables;
+
+        final double[] rho = myRho;
+        Arrays.fill(rho, ZERO);
+        rho[pivotRow] = ONE;
+        this.btran(rho);
+
+        final double pivot = alpha[pivotRow];
+        final double enteringWeight = myWeights[entering];
+
+        for (int j = 0; j < n; j++) {
+            if ((myPositions[j] < 0) && (j != entering)) {
+                final double ratio = this.dot(rho, j) / pivot;
+                if (ratio != ZERO) {
+                    myWeights[j] = Math.max(myWeights[j], ratio * ratio * enteringWeight);
+                }
+            }
+        }
+
+        final int leaving = myBasis[pivotRow];
+        if (leaving < n) {
+            myWeights[leaving] = Math.max(enteringWeight / (pivot * pivot), ONE);
+        }
+    }
+
+    @Override
+    protected double evaluateFunction(final Access1D<?> solution) {
+        double retVal = ZERO;
+        for (int j = 0; j < myNumberOfVariables; j++) {
+            retVal += myCost[j] * solution.doubleValue(j);
+        }
+        return retVal;
+    }
+
+    @Override
+    protected PhysicalStore<Double> extractSolution() {
+
+        final PrimitiveDenseStore retVal = PrimitiveDenseStore.FACTORY.makeZero(myNumberOfVariables, 1);
+
+        for (int j = 0; j < myNumberOfVariables; j++) {
+            final int row = myPositions[j];
+            final double value = row >= 0 ? myBasicValues[row] : this.getNonbasicValue(j);
+            retVal.set(j, Math.min(Math.max(value, myLowerLimits[j]), myUpperLimits[j]));
+        }
+
+        return retVal;
+    }
+
+    @Override
+    protected Result buildResult() {
+
+        final boolean phase1 = myPhase1;
+        myPhase1 = false;
+        this.updateDuals();
+        myPhase1 = phase1;
+
+        return super.buildResult().multipliers(Access1D.wrap(myDuals.clone()));
+    }
+
+    @Override
+    protected boolean initialise(final Result kickStarter) {
+        return false;
+    }
+
+    /**
+     * Performs one iteration, if needed and possible. In phase 2 primal infeasibilities, caused by changed
+     * variable ranges, are first removed with dual simplex iterations.
+     */
+    @Override
+    protected boolean needsAnotherIteration() {
+
+        if (myUpdates >= REFACTORISATION_INTERVAL) {
+            this.refactorise();
+            if (myPhase1) {
+                this.checkPhase();
+            }
+        }
+
+        this.updateDuals();
+
+        if (!myPhase1) {
+            final int infeasibleRow = this.findInfeasibleRow();
+            if (infeasibleRow >= 0) {
+                if (this.iterateDual(infeasibleRow)) {
+                    return true;
+                } else {
+                    this.setState(State.INFEASIBLE);
+                    return false;
+                }
+            } else if (!this.getState().isFeasible()) {
+                this.setState(State.FEASIBLE);
+            }
+        }
+
+        final int entering = this.price();
+
+        if (entering < 0) {
+            if (myPhase1) {
+                this.checkPhase();
+                if (myPhase1) {
+                    this.setState(State.INFEASIBLE);
+                    return false;
+                } else {
+                    return true;
+                }
+            } else {
+                this.setState(State.OPTIMAL);
+                return false;
+            }
+        }
+
+        final double direction = myAtUpper[entering] ? NEG : ONE;
+
+        final double[] alpha = myWork;
+        this.loadColumn(alpha, entering);
+        this.ftran(alpha);
+
+        final int pivotRow = this.ratioTest(alpha, direction);
+
+        final double range = myUpperLimits[entering] - myLowerLimits[entering];
+        final double step;
+        if (pivotRow < 0) {
+            step = POSITIVE_INFINITY;
+        } else if (!myPhase1 && (myBasis[pivotRow] >= myNumberOfVariables)) {
+            // A basic artificial variable, in phase 2, leaves at zero level
+            step = ZERO;
+        } else {
+            final double change = -direction * alpha[pivotRow];
+            step = this.getSlack(pivotRow, change) / Math.abs(change);
+        }
+
+        if (range <= step) {
+
+            if (range == POSITIVE_INFINITY) {
+                if (myPhase1) {
+                    // Can't happen in exact arithmetic - refactorise and try again, but not forever
+                    if (myRetries++ < RETRY_LIMIT) {
+                        myUpdates = REFACTORISATION_INTERVAL;
+                        return true;
+                    } else {
+                        this.setState(State.FAILED);
+                        return false;
+                    }
+                } else {
+                    this.setState(State.UNBOUNDED);
+                    return false;
+                }
+            }
+
+            // Bound flip - the entering variable reaches its other limit before any basic variable does
+            for (int i = 0; i < myNumberOfConstraints; i++) {
+                if (alpha[i] != ZERO) {
+                    myBasicValues[i] -= direction * range * alpha[i];
+                }
+            }
+            myAtUpper[entering] = !myAtUpper[entering];
+
+        } else {
+
+            if (myWeights != null) {
+                this.updateWeights(entering, pivotRow, alpha);
+            }
+
+            final int leaving = myBasis[pivotRow];
+            final boolean toUpper = (-direction * alpha[pivotRow]) > ZERO;
+
+            for (int i = 0; i < myNumberOfConstraints; i++) {
+                if (alpha[i] != ZERO) {
+                    myBasicValues[i] -= direction * step * alpha[i];
+                }
+            }
+            myBasicValues[pivotRow] = this.getNonbasicValue(entering) + (direction * step);
+
+            myPositions[leaving] = -1;
+            if (leaving < myNumberOfVariables) {
+                myAtUpper[leaving] = toUpper;
+            }
+            myBasis[pivotRow] = entering;
+            myPositions[entering] = pivotRow;
+
+            this.addEta(alpha, pivotRow);
+            myUpdates++;
+        }
+
+        myRetries = 0;
+
+        if (myPhase1) {
+            this.checkPhase();
+        }
+
+        return true;
+    }
+
+}
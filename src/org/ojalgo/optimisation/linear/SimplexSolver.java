@@ -174,20 +174,21 @@ public final class SimplexSolver extends LinearSolver {
         final int tmpNegVarsBaseIndex = tmpPosVarsBaseIndex + tmpPosVariables.size();
         final int tmpSlaVarsBaseIndex = tmpNegVarsBaseIndex + tmpNegVariables.size();
 
-        for (final IntIndex tmpKey : tmpObjFunc.getLinearKeySet()) {
+        final boolean tmpMaximisation = model.isMaximisation();
+        tmpObjFunc.visitAdjustedLinearFactors((index, value) -> {
 
-            final double tmpFactor = model.isMaximisation() ? -tmpObjFunc.getAdjustedLinearFactor(tmpKey) : tmpObjFunc.getAdjustedLinearFactor(tmpKey);
+            final double tmpFactor = tmpMaximisation ? -value : value;
 
-            final int tmpPosInd = model.indexOfPositiveVariable(tmpKey.index);
+            final int tmpPosInd = model.indexOfPositiveVariable((int) index);
             if (tmpPosInd >= 0) {
                 retVal.objective().set(tmpPosInd, tmpFactor);
             }
 
-            final int tmpNegInd = model.indexOfNegativeVariable(tmpKey.index);
+            final int tmpNegInd = model.indexOfNegativeVariable((int) index);
             if (tmpNegInd >= 0) {
                 retVal.objective().set(tmpNegVarsBaseIndex + tmpNegInd, -tmpFactor);
             }
-        }
+        });
 
         int tmpConstrBaseIndex = 0;
         int tmpCurrentSlackVarIndex = tmpSlaVarsBaseIndex;
@@ -202,39 +203,13 @@ public final class SimplexSolver extends LinearSolver {
 
                 retVal.constraintsRHS().set(tmpConstrBaseIndex + c, -tmpRHS);
 
-                for (final IntIndex tmpKey : tmpExpr.getLinearKeySet()) {
-
-                    final double tmpFactor = tmpExpr.getAdjustedLinearFactor(tmpKey);
-
-                    final int tmpPosInd = model.indexOfPositiveVariable(tmpKey.index);
-                    if (tmpPosInd >= 0) {
-                        retVal.constraintsBody().set(tmpConstrBaseIndex + c, tmpPosVarsBaseIndex + tmpPosInd, -tmpFactor);
-                    }
-
-                    final int tmpNegInd = model.indexOfNegativeVariable(tmpKey.index);
-                    if (tmpNegInd >= 0) {
-                        retVal.constraintsBody().set(tmpConstrBaseIndex + c, tmpNegVarsBaseIndex + tmpNegInd, tmpFactor);
-                    }
-                }
+                SimplexSolver.setConstraintBody(retVal, model, tmpExpr, tmpConstrBaseIndex + c, tmpPosVarsBaseIndex, tmpNegVarsBaseIndex, true);
 
             } else {
 
                 retVal.constraintsRHS().set(tmpConstrBaseIndex + c, tmpRHS);
 
-                for (final IntIndex tmpKey : tmpExpr.getLinearKeySet()) {
-
-                    final double tmpFactor = tmpExpr.getAdjustedLinearFactor(tmpKey);
-
-                    final int tmpPosInd = model.indexOfPositiveVariable(tmpKey.index);
-                    if (tmpPosInd >= 0) {
-                        retVal.constraintsBody().set(tmpConstrBaseIndex + c, tmpPosVarsBaseIndex + tmpPosInd, tmpFactor);
-                    }
-
-                    final int tmpNegInd = model.indexOfNegativeVariable(tmpKey.index);
-                    if (tmpNegInd >= 0) {
-                        retVal.constraintsBody().set(tmpConstrBaseIndex + c, tmpNegVarsBaseIndex + tmpNegInd, -tmpFactor);
-                    }
-                }
+                SimplexSolver.setConstraintBody(retVal, model, tmpExpr, tmpConstrBaseIndex + c, tmpPosVarsBaseIndex, tmpNegVarsBaseIndex, false);
             }
         }
         tmpConstrBaseIndex += tmpExprsEqLength;
@@ -249,20 +224,7 @@ public final class SimplexSolver extends LinearSolver {
 
                 retVal.constraintsRHS().set(tmpConstrBaseIndex + c, -tmpRHS);
 
-                for (final IntIndex tmpKey : tmpExpr.getLinearKeySet()) {
-
-                    final double tmpFactor = tmpExpr.getAdjustedLinearFactor(tmpKey);
-
-                    final int tmpPosInd = model.indexOfPositiveVariable(tmpKey.index);
-                    if (tmpPosInd >= 0) {
-                        retVal.constraintsBody().set(tmpConstrBaseIndex + c, tmpPosVarsBaseIndex + tmpPosInd, -tmpFactor);
-                    }
-
-                    final int tmpNegInd = model.indexOfNegativeVariable(tmpKey.index);
-                    if (tmpNegInd >= 0) {
-                        retVal.constraintsBody().set(tmpConstrBaseIndex + c, tmpNegVarsBaseIndex + tmpNegInd, tmpFactor);
-                    }
-                }
+                SimplexSolver.setConstraintBody(retVal, model, tmpExpr, tmpConstrBaseIndex + c, tmpPosVarsBaseIndex, tmpNegVarsBaseIndex, true);
 
                 retVal.constraintsBody().set(tmpConstrBaseIndex + c, tmpCurrentSlackVarIndex++, ONE);
 
@@ -270,20 +232,7 @@ public final class SimplexSolver extends LinearSolver {
 
                 retVal.constraintsRHS().set(tmpConstrBaseIndex + c, tmpRHS);
 
-                for (final IntIndex tmpKey : tmpExpr.getLinearKeySet()) {
-
-                    final double tmpFactor = tmpExpr.getAdjustedLinearFactor(tmpKey);
-
-                    final int tmpPosInd = model.indexOfPositiveVariable(tmpKey.index);
-                    if (tmpPosInd >= 0) {
-                        retVal.constraintsBody().set(tmpConstrBaseIndex + c, tmpPosVarsBaseIndex + tmpPosInd, tmpFactor);
-                    }
-
-                    final int tmpNegInd = model.indexOfNegativeVariable(tmpKey.index);
-                    if (tmpNegInd >= 0) {
-                        retVal.constraintsBody().set(tmpConstrBaseIndex + c, tmpNegVarsBaseIndex + tmpNegInd, -tmpFactor);
-                    }
-                }
+                SimplexSolver.setConstraintBody(retVal, model, tmpExpr, tmpConstrBaseIndex + c, tmpPosVarsBaseIndex, tmpNegVarsBaseIndex, false);
 
                 retVal.constraintsBody().set(tmpConstrBaseIndex + c, tmpCurrentSlackVarIndex++, NEG);
             }
@@ -300,20 +249,7 @@ public final class SimplexSolver extends LinearSolver {
 
                 retVal.constraintsRHS().set(tmpConstrBaseIndex + c, -tmpRHS);
 
-                for (final IntIndex tmpKey : tmpExpr.getLinearKeySet()) {
-
-                    final double tmpFactor = tmpExpr.getAdjustedLinearFactor(tmpKey);
-
-                    final int tmpPosInd = model.indexOfPositiveVariable(tmpKey.index);
-                    if (tmpPosInd >= 0) {
-                        retVal.constraintsBody().set(tmpConstrBaseIndex + c, tmpPosVarsBaseIndex + tmpPosInd, -tmpFactor);
-                    }
-
-                    final int tmpNegInd = model.indexOfNegativeVariable(tmpKey.index);
-                    if (tmpNegInd >= 0) {
-                        retVal.constraintsBody().set(tmpConstrBaseIndex + c, tmpNegVarsBaseIndex + tmpNegInd, tmpFactor);
-                    }
-                }
+                SimplexSolver.setConstraintBody(retVal, model, tmpExpr, tmpConstrBaseIndex + c, tmpPosVarsBaseIndex, tmpNegVarsBaseIndex, true);
 
                 retVal.constraintsBody().set(tmpConstrBaseIndex + c, tmpCurrentSlackVarIndex++, NEG);
 
@@ -321,20 +257,7 @@ public final class SimplexSolver extends LinearSolver {
 
                 retVal.constraintsRHS().set(tmpConstrBaseIndex + c, tmpRHS);
 
-                for (final IntIndex tmpKey : tmpExpr.getLinearKeySet()) {
-
-                    final double tmpFactor = tmpExpr.getAdjustedLinearFactor(tmpKey);
-
-                    final int tmpPosInd = model.indexOfPositiveVariable(tmpKey.index);
-                    if (tmpPosInd >= 0) {
-                        retVal.constraintsBody().set(tmpConstrBaseIndex + c, tmpPosVarsBaseIndex + tmpPosInd, tmpFactor);
-                    }
-
-                    final int tmpNegInd = model.indexOfNegativeVariable(tmpKey.index);
-                    if (tmpNegInd >= 0) {
-                        retVal.constraintsBody().set(tmpConstrBaseIndex + c, tmpNegVarsBaseIndex + tmpNegInd, -tmpFactor);
-                    }
-                }
+                SimplexSolver.setConstraintBody(retVal, model, tmpExpr, tmpConstrBaseIndex + c, tmpPosVarsBaseIndex, tmpNegVarsBaseIndex, false);
 
                 retVal.constraintsBody().set(tmpConstrBaseIndex + c, tmpCurrentSlackVarIndex++, ONE);
             }
@@ -447,6 +370,29 @@ public final class SimplexSolver extends LinearSolver {
         }
     }
 
+    /**
+     * Sets the (adjusted) linear factors of a constraint expression in a tableau row, split on the positive
+     * and negative parts of the variables.
+     */
+    static void setConstraintBody(final SimplexTableau tableau, final ExpressionsBasedModel model, final Expression expression, final int row,
+            final int posVarsBaseIndex, final int negVarsBaseIndex, final boolean negate) {
+
+        expression.visitAdjustedLinearFactors((index, value) -> {
+
+            final double factor = negate ? -value : value;
+
+            final int posInd = model.indexOfPositiveVariable((int) index);
+            if (posInd >= 0) {
+                tableau.constraintsBody().set(row, posVarsBaseIndex + posInd, factor);
+            }
+
+            final int negInd = model.indexOfNegativeVariable((int) index);
+            if (negInd >= 0) {
+                tableau.constraintsBody().set(row, negVarsBaseIndex + negInd, -factor);
+            }
+        });
+    }
+
     private final IterationPoint myPoint;
 
     private final SimplexTableau myTableau;
@@ -33,6 +33,13 @@ import org.ojalgo.type.context.NumberContext;
 
 public final class SampleSet implements Access1D<Double> {
 
+    /**
+     * Sample sets with more samples than this have their median and quartiles estimated, in one pass, using
+     * the quantile sketch of {@link SampleStatistics}, rather than calculated exactly by copying and sorting
+     * the samples.
+     */
+    public static int SORTING_LIMIT = 1_000_000;
+
     public static SampleSet make() {
         return new SampleSet(Primitive64Array.make(4));
     }
@@ -171,13 +178,7 @@ public final class SampleSet implements Access1D<Double> {
     public double getMaximum() {
 
         if (Double.isNaN(myMax)) {
-
-            myMax = NEGATIVE_INFINITY;
-
-            final long tmpLimit = mySamples.count();
-            for (long i = 0L; i < tmpLimit; i++) {
-                myMax = MAX.invoke(myMax, mySamples.doubleValue(i));
-            }
+            this.calculateMoments();
         }
 
         return myMax;
@@ -186,22 +187,17 @@ public final class SampleSet implements Access1D<Double> {
     public double getMean() {
 
         if (Double.isNaN(myMean)) {
-
-            myMean = ZERO;
-
-            final long tmpLimit = mySamples.count();
-            for (long i = 0L; i < tmpLimit; i++) {
-                myMean += mySamples.doubleValue(i);
-            }
-
-            myMean /= mySamples.count();
+            this.calculateMoments();
         }
 
         return myMean;
     }
 
     /**
-     * Potentially expensive as it requires copying and sorting of the samples.
+     * Potentially expensive as it requires copying and sorting of the samples - unless there are more than
+     * {@link #SORTING_LIMIT} of them, then it's an estimate.
+     *
+     * @see #getStatistics()
      */
     public double getMedian() {
         return this.getQuartile2();
@@ -213,20 +209,17 @@ public final class SampleSet implements Access1D<Double> {
     public double getMinimum() {
 
         if (Double.isNaN(myMin)) {
-
-            myMin = POSITIVE_INFINITY;
-
-            final long tmpLimit = mySamples.count();
-            for (long i = 0L; i < tmpLimit; i++) {
-                myMin = MIN.invoke(myMin, mySamples.doubleValue(i));
-            }
+            this.calculateMoments();
         }
 
         return myMin;
     }
 
     /**
-     * Potentially expensive as it requires copying and sorting of the samples.
+     * Potentially expensive as it requires copying and sorting of the samples - unless there are more than
+     * {@link #SORTING_LIMIT} of them, then it's an estimate.
+     *
+     * @see #getStatistics()
      */
     public double getQuartile1() {
 
@@ -238,7 +231,10 @@ public final class SampleSet implements Access1D<Double> {
     }
 
     /**
-     * Potentially expensive as it requires copying and sorting of the samples.
+     * Potentially expensive as it requires copying and sorting of the samples - unless there are more than
+     * {@link #SORTING_LIMIT} of them, then it's an estimate.
+     *
+     * @see #getStatistics()
      */
     public double getQuartile2() {
 
@@ -250,7 +246,10 @@ public final class SampleSet implements Access1D<Double> {
     }
 
     /**
-     * Potentially expensive as it requires copying and sorting of the samples.
+     * Potentially expensive as it requires copying and sorting of the samples - unless there are more than
+     * {@link #SORTING_LIMIT} of them, then it's an estimate.
+     *
+     * @see #getStatistics()
      */
     public double getQuartile3() {
 
@@ -276,6 +275,22 @@ public final class SampleSet implements Access1D<Double> {
         return retVal;
     }
 
+    /**
+     * Calculates all the statistics in one pass, without copying or sorting the samples. The quantiles
+     * (median, quartiles...) are approximate.
+     */
+    public SampleStatistics getStatistics() {
+
+        final SampleStatistics retVal = new SampleStatistics();
+
+        final long tmpLimit = mySamples.count();
+        for (long i = 0L; i < tmpLimit; i++) {
+            retVal.accept(mySamples.doubleValue(i));
+        }
+
+        return retVal;
+    }
+
     public double getStandardDeviation() {
         return SQRT.invoke(this.getVariance());
     }
@@ -326,7 +341,7 @@ public final class SampleSet implements Access1D<Double> {
     public double getVariance() {
 
         if (Double.isNaN(myVariance)) {
-            myVariance = this.getCovariance(this);
+            this.calculateMoments();
         }
 
         return myVariance;
@@ -372,9 +387,57 @@ public final class SampleSet implements Access1D<Double> {
                 + ", Min=" + this.getMinimum() + ", Max=" + this.getMaximum();
     }
 
+    /**
+     * Mean, variance, min and max in one pass (Welford's algorithm).
+     */
+    private void calculateMoments() {
+
+        final long tmpLimit = mySamples.count();
+
+        double tmpMin = POSITIVE_INFINITY;
+        double tmpMax = NEGATIVE_INFINITY;
+        double tmpMean = ZERO;
+        double tmpSumOfSquares = ZERO;
+
+        double tmpValue, tmpDelta;
+        for (long i = 0L; i < tmpLimit; i++) {
+
+            tmpValue = mySamples.doubleValue(i);
+
+            tmpDelta = tmpValue - tmpMean;
+            tmpMean += tmpDelta / (i + 1L);
+            tmpSumOfSquares += tmpDelta * (tmpValue - tmpMean);
+
+            tmpMin = MIN.invoke(tmpMin, tmpValue);
+            tmpMax = MAX.invoke(tmpMax, tmpValue);
+        }
+
+        // Don't overwrite what's already been set (for an empty set the mean stays NaN)
+        if (Double.isNaN(myMin)) {
+            myMin = tmpMin;
+        }
+        if (Double.isNaN(myMax)) {
+            myMax = tmpMax;
+        }
+        myMean = tmpLimit > 0L ? tmpMean : NaN;
+        myVariance = tmpSumOfSquares / (tmpLimit - 1L);
+    }
+
     private void calculateQuartiles() {
 
         final int tmpSize = (int) this.getSamples().count();
+
+        if (tmpSize > SORTING_LIMIT) {
+
+            final SampleStatistics tmpStatistics = this.getStatistics();
+
+            myQuartile1 = tmpStatistics.getQuartile1();
+            myQuartile2 = tmpStatistics.getQuartile2();
+            myQuartile3 = tmpStatistics.getQuartile3();
+
+            return;
+        }
+
         final double[] tmpSortedCopy = this.getSortedCopy();
 
         switch (tmpSize) {
@@ -0,0 +1,398 @@
+/*
+ * Copyright 1997-2018 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.random;
+
+import static org.ojalgo.constant.PrimitiveMath.*;
+
+import java.util.Arrays;
+import java.util.function.DoubleConsumer;
+
+import org.ojalgo.function.PrimitiveFunction;
+
+/**
+ * One pass (streaming) sample statistics. Samples are not stored, only the count, mean, sum of squared
+ * deviations from the mean (Welford's algorithm), minimum and maximum - and a bounded size (KLL) quantile
+ * sketch. Statistics accumulated separately, in different threads, can be merged.
+ * <p>
+ * The quantiles are approximate. The sketch retains (roughly) 3 * sketchSize samples, and the error, in
+ * terms of rank, is about 1.7 / sketchSize (1% with the default size 200). As long as the number of samples
+ * does not exceed the sketch size they're all kept and the quantiles are exact.
+ *
+ * @see SampleSet
+ * @see <a href="https://arxiv.org/abs/1603.05346">Optimal Quantile Approximation in Streams</a>
+ * @author apete
+ */
+public final class SampleStatistics implements DoubleConsumer {
+
+    private static final int DEFAULT_SKETCH_SIZE = 200;
+    private static final int MINIMUM_CAPACITY = 2;
+
+    private long myCount = 0L;
+    private transient long[] myCumulativeWeights = null;
+    private int[] myLevelSizes;
+    private double[][] myLevels;
+    private double myMaximum = NEGATIVE_INFINITY;
+    private double myMean = ZERO;
+    private double myMinimum = POSITIVE_INFINITY;
+    private long myRandomBits;
+    private int myRetained;
+    private int myRetainedLimit;
+    private final int mySketchSize;
+    private transient double[] mySortedValues = null;
+    private double mySumOfSquares = ZERO;
+
+    public SampleStatistics() {
+        this(DEFAULT_SKETCH_SIZE);
+    }
+
+    /**
+     * @param sketchSize Determines the size, and thereby the accuracy, of the quantile sketch
+     */
+    public SampleStatistics(final int sketchSize) {
+
+        super();
+
+        mySketchSize = Math.max(MINIMUM_CAPACITY, sketchSize);
+
+        this.reset();
+    }
+
+    public void accept(final double value) {
+
+        myCount++;
+
+        final double tmpDelta = value - myMean;
+        myMean += tmpDelta / myCount;
+        mySumOfSquares += tmpDelta * (value - myMean);
+
+        if (value < myMinimum) {
+            myMinimum = value;
+        }
+        if (value > myMaximum) {
+            myMaximum = value;
+        }
+
+        this.append(0, value);
+        myRetained++;
+        if (myRetained >= myRetainedLimit) {
+            this.compress();
+        }
+        mySortedValues = null;
+    }
+
+    public long count() {
+        return myCount;
+    }
+
+    public double getInterquartileRange() {
+        return this.getQuartile3() - this.getQuartile1();
+    }
+
+    /**
+     * @return {@link Double#NEGATIVE_INFINITY} if there are no samples - same as {@link SampleSet}
+     */
+    public double getMaximum() {
+        return myMaximum;
+    }
+
+    /**
+     * @return {@link Double#NaN} if there are no samples - same as {@link SampleSet}
+     */
+    public double getMean() {
+        return myCount > 0L ? myMean : NaN;
+    }
+
+    /**
+     * Approximate
+     */
+    public double getMedian() {
+        return this.getQuantile(HALF);
+    }
+
+    /**
+     * @return {@link Double#POSITIVE_INFINITY} if there are no samples - same as {@link SampleSet}
+     */
+    public double getMinimum() {
+        return myMinimum;
+    }
+
+    /**
+     * Approximate - estimated using the quantile sketch. The minimum and maximum (probability 0.0 and 1.0)
+     * are exact.
+     *
+     * @param probability [0.0, 1.0]
+     * @return The smallest (retained) sample such that at least that fraction of all samples are less than
+     *         or equal to it, or {@link Double#NaN} if there are no samples.
+     */
+    public double getQuantile(final double probability) {
+
+        if (myCount <= 0L) {
+            return NaN;
+        } else if (probability <= ZERO) {
+            return myMinimum;
+        } else if (probability >= ONE) {
+            return myMaximum;
+        }
+
+        if (mySortedValues == null) {
+            this.sort();
+        }
+
+        final double tmpRank = probability * myCount;
+
+        int tmpLow = 0;
+        int tmpHigh = myCumulativeWeights.length - 1;
+        while (tmpLow < tmpHigh) {
+            final int tmpMiddle = (tmpLow + tmpHigh) >>> 1;
+            if (myCumulativeWeights[tmpMiddle] < tmpRank) {
+                tmpLow = tmpMiddle + 1;
+            } else {
+                tmpHigh = tmpMiddle;
+            }
+        }
+
+        return mySortedValues[tmpLow];
+    }
+
+    /**
+     * Approximate
+     */
+    public double getQuartile1() {
+        return this.getQuantile(0.25);
+    }
+
+    /**
+     * Approximate
+     */
+    public double getQuartile2() {
+        return this.getQuantile(HALF);
+    }
+
+    /**
+     * Approximate
+     */
+    public double getQuartile3() {
+        return this.getQuantile(0.75);
+    }
+
+    public double getStandardDeviation() {
+        return PrimitiveFunction.SQRT.invoke(this.getVariance());
+    }
+
+    /**
+     * @see SampleSet#getSumOfSquares()
+     */
+    public double getSumOfSquares() {
+        return mySumOfSquares;
+    }
+
+    /**
+     * The sample variance - the sum of squares divided by (count - 1).
+     */
+    public double getVariance() {
+        return myCount > 1L ? mySumOfSquares / (myCount - 1L) : ZERO;
+    }
+
+    /**
+     * Add the statistics of another (disjoint) set of samples to these.
+     */
+    public void merge(final SampleStatistics other) {
+
+        if (other.myCount > 0L) {
+
+            if (myCount > 0L) {
+
+                final long tmpCount = myCount + other.myCount;
+                final double tmpDelta = other.myMean - myMean;
+
+                myMean += (tmpDelta * other.myCount) / tmpCount;
+                mySumOfSquares += other.mySumOfSquares + ((((tmpDelta * tmpDelta) * myCount) * other.myCount) / tmpCount);
+                myCount = tmpCount;
+
+                myMinimum = Math.min(myMinimum, other.myMinimum);
+                myMaximum = Math.max(myMaximum, other.myMaximum);
+
+            } else {
+
+                myCount = other.myCount;
+                myMean = other.myMean;
+                mySumOfSquares = other.mySumOfSquares;
+                myMinimum = other.myMinimum;
+                myMaximum = other.myMaximum;
+            }
+
+            while (myLevels.length < other.myLevels.length) {
+                this.grow();
+            }
+            for (int h = 0; h < other.myLevels.length; h++) {
+                final int tmpSize = other.myLevelSizes[h];
+                for (int i = 0; i < tmpSize; i++) {
+                    this.append(h, other.myLevels[h][i]);
+                }
+                myRetained += tmpSize;
+            }
+            while (myRetained >= myRetainedLimit) {
+                this.compress();
+            }
+            mySortedValues = null;
+        }
+    }
+
+    public void reset() {
+
+        myCount = 0L;
+        myMaximum = NEGATIVE_INFINITY;
+        myMean = ZERO;
+        myMinimum = POSITIVE_INFINITY;
+        mySumOfSquares = ZERO;
+
+        myLevels = new double[][] { new double[mySketchSize + 1] };
+        myLevelSizes = new int[1];
+        myRetained = 0;
+        myRetainedLimit = this.capacity(0);
+        myRandomBits = 0x9E3779B97F4A7C15L;
+        mySortedValues = null;
+        myCumulativeWeights = null;
+    }
+
+    @Override
+    public String toString() {
+        return "Sample statistics Size=" + myCount + ", Mean=" + this.getMean() + ", Var=" + this.getVariance() + ", StdDev=" + this.getStandardDeviation()
+                + ", Min=" + this.getMinimum() + ", Max=" + this.getMaximum();
+    }
+
+    private void append(final int level, final double value) {
+        double[] tmpLevel = myLevels[level];
+        final int tmpSize = myLevelSizes[level];
+        if (tmpSize >= tmpLevel.length) {
+            myLevels[level] = tmpLevel = Arrays.copyOf(tmpLevel, Math.max(MINIMUM_CAPACITY, tmpSize * 2));
+        }
+        tmpLevel[tmpSize] = value;
+        myLevelSizes[level] = tmpSize + 1;
+    }
+
+    /**
+     * The capacity of a level (compactor) decreases geometrically, by a factor 2/3, from the top level and
+     * down.
+     */
+    private int capacity(final int level) {
+        final int tmpDepth = myLevels.length - level - 1;
+        return Math.max(MINIMUM_CAPACITY, (int) Math.ceil(mySketchSize * Math.pow(TWO_THIRDS, tmpDepth)) + 1);
+    }
+
+    /**
+     * Sorts the lowest level that is full, and promotes every other sample (odd or even positions chosen at
+     * random) to the next level, where each sample represents twice as many.
+     */
+    private void compress() {
+
+        for (int h = 0; h < myLevels.length; h++) {
+
+            final int tmpSize = myLevelSizes[h];
+
+            if (tmpSize >= this.capacity(h)) {
+
+                if ((h + 1) >= myLevels.length) {
+                    this.grow();
+                }
+
+                final double[] tmpLevel = myLevels[h];
+                Arrays.sort(tmpLevel, 0, tmpSize);
+
+                // With an odd number of samples the first (smallest) one stays
+                final int tmpFirst = tmpSize % 2;
+                final int tmpPairs = tmpSize / 2;
+
+                myRandomBits ^= myRandomBits << 13;
+                myRandomBits ^= myRandomBits >>> 7;
+                myRandomBits ^= myRandomBits << 17;
+                final int tmpOffset = (int) (myRandomBits & 1L);
+
+                for (int p = 0; p < tmpPairs; p++) {
+                    this.append(h + 1, tmpLevel[tmpFirst + (2 * p) + tmpOffset]);
+                }
+
+                myLevelSizes[h] = tmpFirst;
+                myRetained -= tmpPairs;
+
+                return;
+            }
+        }
+    }
+
+    private void grow() {
+
+        final int tmpNumberOfLevels = myLevels.length + 1;
+
+        myLevels = Arrays.copyOf(myLevels, tmpNumberOfLevels);
+        myLevels[tmpNumberOfLevels - 1] = new double[MINIMUM_CAPACITY];
+        myLevelSizes = Arrays.copyOf(myLevelSizes, tmpNumberOfLevels);
+
+        myRetainedLimit = 0;
+        for (int h = 0; h < tmpNumberOfLevels; h++) {
+            myRetainedLimit += this.capacity(h);
+        }
+    }
+
+    /**
+     * Merges the (sorted) levels to one sorted array of samples with the cumulative weights.
+     */
+    private void sort() {
+
+        double[] tmpValues = new double[0];
+        long[] tmpWeights = new long[0];
+
+        for (int h = 0; h < myLevels.length; h++) {
+
+            final int tmpSize = myLevelSizes[h];
+            final double[] tmpLevel = myLevels[h];
+            Arrays.sort(tmpLevel, 0, tmpSize);
+
+            final long tmpWeight = 1L << h;
+
+            final double[] tmpMergedValues = new double[tmpValues.length + tmpSize];
+            final long[] tmpMergedWeights = new long[tmpMergedValues.length];
+
+            int i = 0, j = 0, m = 0;
+            while ((i < tmpValues.length) || (j < tmpSize)) {
+                if ((j >= tmpSize) || ((i < tmpValues.length) && (tmpValues[i] <= tmpLevel[j]))) {
+                    tmpMergedValues[m] = tmpValues[i];
+                    tmpMergedWeights[m++] = tmpWeights[i++];
+                } else {
+                    tmpMergedValues[m] = tmpLevel[j++];
+                    tmpMergedWeights[m++] = tmpWeight;
+                }
+            }
+
+            tmpValues = tmpMergedValues;
+            tmpWeights = tmpMergedWeights;
+        }
+
+        for (int m = 1; m < tmpWeights.length; m++) {
+            tmpWeights[m] += tmpWeights[m - 1];
+        }
+
+        myCumulativeWeights = tmpWeights;
+        mySortedValues = tmpValues;
+    }
+
+}
@@ -26,15 +26,33 @@ import static org.ojalgo.constant.PrimitiveMath.*;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.SplittableRandom;
 import java.util.TreeSet;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.IntFunction;
 
-import org.ojalgo.array.Array2D;
+import org.ojalgo.concurrent.DivideAndConquer;
+import org.ojalgo.function.PrimitiveFunction;
+import org.ojalgo.matrix.store.PrimitiveDenseStore;
 import org.ojalgo.random.ContinuousDistribution;
 import org.ojalgo.random.Distribution;
+import org.ojalgo.random.SampleStatistics;
 import org.ojalgo.type.keyvalue.ComparableToDouble;
 
 abstract class AbstractProcess<D extends Distribution> implements RandomProcess<D> {
 
+    @FunctionalInterface
+    interface RealisationReceiver {
+
+        void receive(int realisation, int step, double value);
+
+    }
+
+    /**
+     * The number of realisations simulated using the same random number generator.
+     */
+    static final int BLOCK_SIZE = 256;
+
     private final TreeSet<ComparableToDouble<Double>> myObservations = new TreeSet<>();
 
     protected AbstractProcess() {
@@ -99,27 +117,50 @@ abstract class AbstractProcess<D extends Distribution> implements RandomProcess<
         }
     }
 
-    /**
-     * @return An array of sample sets. The array has aNumberOfSteps elements, and each sample set has
-     *         aNumberOfRealisations samples.
-     */
     public final RandomProcess.SimulationResults simulate(final int numberOfRealisations, final int numberOfSteps, final double stepSize) {
+        return this.simulate(numberOfRealisations, numberOfSteps, stepSize, ThreadLocalRandom.current().nextLong());
+    }
+
+    public final RandomProcess.SimulationResults simulate(final int numberOfRealisations, final int numberOfSteps, final double stepSize, final long seed) {
 
-        final List<ComparableToDouble<Double>> tmpInitialState = new ArrayList<>(myObservations);
         final double tmpInitialValue = this.getValue();
 
-        final Array2D<Double> tmpRealisationValues = Array2D.PRIMITIVE64.makeZero(numberOfRealisations, numberOfSteps);
+        final PrimitiveDenseStore tmpRealisationValues = PrimitiveDenseStore.FACTORY.makeZero(numberOfRealisations, numberOfSteps);
+        final double[] tmpData = tmpRealisationValues.data;
+
+        this.simulate(numberOfRealisations, numberOfSteps, stepSize, seed, block -> (r, s, value) -> tmpData[r + (s * numberOfRealisations)] = value);
+
+        return new RandomProcess.SimulationResults(tmpInitialValue, tmpRealisationValues);
+    }
+
+    public final SampleStatistics[] summarise(final int numberOfRealisations, final int numberOfSteps, final double stepSize, final long seed) {
+
+        final SampleStatistics[][] tmpPartials = new SampleStatistics[(numberOfRealisations + BLOCK_SIZE - 1) / BLOCK_SIZE][];
+
+        this.simulate(numberOfRealisations, numberOfSteps, stepSize, seed, block -> {
+
+            final SampleStatistics[] tmpPartial = new SampleStatistics[numberOfSteps];
+            for (int s = 0; s < numberOfSteps; s++) {
+                tmpPartial[s] = new SampleStatistics();
+            }
+
+            tmpPartials[block] = tmpPartial;
+
+            return (r, s, value) -> tmpPartial[s].accept(value);
+        });
 
-        for (int r = 0; r < numberOfRealisations; r++) {
-            double tmpCurrentValue = tmpInitialValue;
+        final SampleStatistics[] retVal = new SampleStatistics[numberOfSteps];
+        for (int s = 0; s < numberOfSteps; s++) {
+            retVal[s] = new SampleStatistics();
+        }
+        // Merged in block order - the same result regardless of how the blocks were divided between threads
+        for (final SampleStatistics[] tmpPartial : tmpPartials) {
             for (int s = 0; s < numberOfSteps; s++) {
-                tmpCurrentValue = this.step(tmpCurrentValue, stepSize, this.getNormalisedRandomIncrement());
-                tmpRealisationValues.set(r, s, tmpCurrentValue);
+                retVal[s].merge(tmpPartial[s]);
             }
-            this.setObservations(tmpInitialState);
         }
 
-        return new RandomProcess.SimulationResults(tmpInitialValue, tmpRealisationValues);
+        return retVal;
     }
 
     protected abstract double getNormalisedRandomIncrement();
@@ -131,6 +172,93 @@ abstract class AbstractProcess<D extends Distribution> implements RandomProcess<
 
     protected abstract double step(double currentValue, final double stepSize, final double normalisedRandomIncrement);
 
+    /**
+     * @param receiverFactory Called once for each block of realisations, with the block index, to get a
+     *        receiver for that block's values. The receivers may be called from different threads but each
+     *        receiver from only one thread.
+     */
+    private void simulate(final int numberOfRealisations, final int numberOfSteps, final double stepSize, final long seed,
+            final IntFunction<RealisationReceiver> receiverFactory) {
+
+        final List<ComparableToDouble<Double>> tmpInitialState = new ArrayList<>(myObservations);
+        final double tmpInitialValue = this.getValue();
+
+        final int tmpNumberOfBlocks = (numberOfRealisations + BLOCK_SIZE - 1) / BLOCK_SIZE;
+
+        final SplittableRandom tmpMaster = new SplittableRandom(seed);
+        final SplittableRandom[] tmpGenerators = new SplittableRandom[tmpNumberOfBlocks];
+        for (int b = 0; b < tmpNumberOfBlocks; b++) {
+            tmpGenerators[b] = tmpMaster.split();
+        }
+
+        final DivideAndConquer tmpConquerer = new DivideAndConquer() {
+
+            @Override
+            protected void conquer(final int first, final int limit) {
+
+                final AbstractProcess<D> tmpProcess = AbstractProcess.this.copy();
+
+                final double[] tmpIncrements = new double[numberOfSteps];
+
+                for (int b = first; b < limit; b++) {
+
+                    final SplittableRandom tmpGenerator = tmpGenerators[b];
+                    final RealisationReceiver tmpReceiver = receiverFactory.apply(b);
+                    final int tmpLimit = Math.min((b + 1) * BLOCK_SIZE, numberOfRealisations);
+
+                    for (int r = b * BLOCK_SIZE; r < tmpLimit; r++) {
+
+                        tmpProcess.setObservations(tmpInitialState);
+                        tmpProcess.fillNormalisedRandomIncrements(tmpGenerator, tmpIncrements);
+
+                        double tmpCurrentValue = tmpInitialValue;
+                        for (int s = 0; s < numberOfSteps; s++) {
+                            tmpCurrentValue = tmpProcess.step(tmpCurrentValue, stepSize, tmpIncrements[s]);
+                            tmpReceiver.receive(r, s, tmpCurrentValue);
+                        }
+                    }
+                }
+            }
+
+        };
+
+        tmpConquerer.invoke(0, tmpNumberOfBlocks, 1);
+    }
+
+    /**
+     * @return A new instance, with the same parameters (but not the same observations), that can be used to
+     *         simulate realisations of this process in another thread.
+     */
+    abstract AbstractProcess<D> copy();
+
+    /**
+     * Fills the array with independent normalised random increments, generated in batch using the supplied
+     * generator. The default implementation generates standard normal variates (with the Marsaglia polar
+     * method).
+     */
+    void fillNormalisedRandomIncrements(final SplittableRandom generator, final double[] increments) {
+
+        final int tmpLength = increments.length;
+
+        double tmpU, tmpV, tmpS, tmpFactor;
+
+        for (int i = 0; i < tmpLength; i += 2) {
+
+            do {
+                tmpU = (TWO * generator.nextDouble()) - ONE;
+                tmpV = (TWO * generator.nextDouble()) - ONE;
+                tmpS = (tmpU * tmpU) + (tmpV * tmpV);
+            } while ((tmpS >= ONE) || (tmpS == ZERO));
+
+            tmpFactor = PrimitiveFunction.SQRT.invoke((-TWO * PrimitiveFunction.LOG.invoke(tmpS)) / tmpS);
+
+            increments[i] = tmpU * tmpFactor;
+            if ((i + 1) < tmpLength) {
+                increments[i + 1] = tmpV * tmpFactor;
+            }
+        }
+    }
+
     abstract double getExpected(double stepSize);
 
     abstract double getLowerConfidenceQuantile(double stepSize, final double confidence);
@@ -26,11 +26,13 @@ import static org.ojalgo.function.PrimitiveFunction.*;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.TreeSet;
 
 import org.ojalgo.constant.PrimitiveMath;
 import org.ojalgo.function.PrimitiveFunction;
+import org.ojalgo.matrix.decomposition.Cholesky;
 import org.ojalgo.matrix.decomposition.Eigenvalue;
 import org.ojalgo.matrix.decomposition.MatrixDecomposition;
 import org.ojalgo.matrix.decomposition.SingularValue;
@@ -51,6 +53,12 @@ import org.ojalgo.type.keyvalue.ComparableToDouble;
  * as the underlying implementation, of {@linkplain GaussianProcess}. Prior to calling
  * {@linkplain #getDistribution(Comparable...)} you must call {@linkplain #addObservation(Comparable, double)}
  * one or more times.
+ * <p>
+ * The covariance matrix of the observations is Cholesky decomposed, and that decomposition is kept. When more
+ * observations are added it is extended rather than recalculated - O(n<sup>2</sup>) per observation rather
+ * than O(n<sup>3</sup>). Should the covariance matrix not be (numerically) positive definite a
+ * {@linkplain SingularValue} decomposition is used instead, and then the decomposition is recalculated each
+ * time.
  *
  * @author apete
  */
@@ -90,6 +98,12 @@ public final class GaussianField<K extends Comparable<? super K>> {
     private final Covariance<K> myCovarianceFunction;
     private final Mean<K> myMeanFunction;
 
+    private MatrixDecomposition.Solver<Double> myC22 = null;
+    private final Cholesky<Double> myCholesky = Cholesky.PRIMITIVE.make();
+    /**
+     * The observations in the order they appear in the (decomposed) covariance matrix
+     */
+    private final LinkedHashSet<ComparableToDouble<K>> myDecomposed = new LinkedHashSet<>();
     private final TreeSet<ComparableToDouble<K>> myObservations;
 
     @SuppressWarnings("unchecked")
@@ -127,6 +141,7 @@ public final class GaussianField<K extends Comparable<? super K>> {
     public void calibrate() {
         myMeanFunction.calibrate(myObservations);
         myCovarianceFunction.calibrate(myObservations, myMeanFunction);
+        myC22 = null;
     }
 
     public Normal1D getDistribution(final boolean cleanCovariances, final K... evaluationPoint) {
@@ -190,7 +205,7 @@ public final class GaussianField<K extends Comparable<? super K>> {
 
     MatrixStore<Double> getC12(final K[] args) {
 
-        final List<ComparableToDouble<K>> tmpObservations = this.getObservations();
+        final List<ComparableToDouble<K>> tmpObservations = this.getDecomposed();
 
         final int tmpRowDim = args.length;
         final int tmpColDim = tmpObservations.size();
@@ -208,7 +223,7 @@ public final class GaussianField<K extends Comparable<? super K>> {
 
     MatrixStore<Double> getC21(final K[] args) {
 
-        final List<ComparableToDouble<K>> tmpObservations = this.getObservations();
+        final List<ComparableToDouble<K>> tmpObservations = this.getDecomposed();
 
         final int tmpRowDim = tmpObservations.size();
         final int tmpColDim = args.length;
@@ -224,28 +239,108 @@ public final class GaussianField<K extends Comparable<? super K>> {
         return retVal;
     }
 
+    /**
+     * @return A decomposition of the covariance matrix of the observations, in the order given by
+     *         {@link #getDecomposed()}
+     */
     MatrixDecomposition.Solver<Double> getC22() {
 
+        final int tmpDecomposedCount = myDecomposed.size();
+
+        final List<ComparableToDouble<K>> tmpAdded = new ArrayList<>();
+        int tmpRetained = 0;
+        for (final ComparableToDouble<K> tmpObservation : myObservations) {
+            if (myDecomposed.contains(tmpObservation)) {
+                tmpRetained++;
+            } else {
+                tmpAdded.add(tmpObservation);
+            }
+        }
+
+        if (tmpRetained != tmpDecomposedCount) {
+
+            myC22 = null;
+
+        } else if ((myC22 == myCholesky) && (tmpAdded.size() > 0)) {
+
+            for (final ComparableToDouble<K> tmpObservation : tmpAdded) {
+                if (myCholesky.append(this.getC22Column(tmpObservation.key)) && myCholesky.isSolvable()) {
+                    myDecomposed.add(tmpObservation);
+                } else {
+                    myC22 = null;
+                    break;
+                }
+            }
+
+        } else if (tmpAdded.size() > 0) {
+
+            myC22 = null;
+        }
+
+        if (myC22 == null) {
+
+            myDecomposed.clear();
+            myDecomposed.addAll(myObservations);
+
+            final List<ComparableToDouble<K>> tmpObservations = this.getObservations();
+
+            final int tmpSize = tmpObservations.size();
+
+            final PrimitiveDenseStore tmpMatrix = FACTORY.makeZero(tmpSize, tmpSize);
+
+            for (int j = 0; j < tmpSize; j++) {
+                final K tmpColumnKey = tmpObservations.get(j).key;
+                for (int i = 0; i < tmpSize; i++) {
+                    tmpMatrix.set(i, j, myCovarianceFunction.invoke(tmpObservations.get(i).key, tmpColumnKey));
+                }
+            }
+
+            if (myCholesky.decompose(tmpMatrix) && myCholesky.isSolvable()) {
+                myC22 = myCholesky;
+            } else {
+                final SingularValue<Double> tmpSVD = SingularValue.PRIMITIVE.make();
+                tmpSVD.decompose(tmpMatrix);
+                myC22 = tmpSVD;
+            }
+        }
+
+        return myC22;
+    }
+
+    Covariance<K> getCovarianceFunction() {
+        return myCovarianceFunction;
+    }
+
+    /**
+     * The covariance matrix of the observations, in key order.
+     */
+    MatrixStore<Double> getCovariances() {
+
         final List<ComparableToDouble<K>> tmpObservations = this.getObservations();
 
         final int tmpSize = tmpObservations.size();
 
-        final PrimitiveDenseStore tmpMatrix = FACTORY.makeZero(tmpSize, tmpSize);
+        final PrimitiveDenseStore retVal = FACTORY.makeZero(tmpSize, tmpSize);
 
         for (int j = 0; j < tmpSize; j++) {
             final K tmpColumnKey = tmpObservations.get(j).key;
             for (int i = 0; i < tmpSize; i++) {
-                tmpMatrix.set(i, j, myCovarianceFunction.invoke(tmpObservations.get(i).key, tmpColumnKey));
+                retVal.set(i, j, myCovarianceFunction.invoke(tmpObservations.get(i).key, tmpColumnKey));
             }
         }
 
-        final SingularValue<Double> retVal = SingularValue.PRIMITIVE.make();
-
-        retVal.decompose(tmpMatrix);
-
         return retVal;
     }
 
+    /**
+     * The observations in the same order as the rows/columns of {@link #getC22()}. Not necessarily key
+     * order - observations added after the covariance matrix was decomposed are appended at the end.
+     */
+    List<ComparableToDouble<K>> getDecomposed() {
+        this.getC22();
+        return new ArrayList<>(myDecomposed);
+    }
+
     MatrixStore<Double> getM1(final K[] args) {
 
         final int tmpLength = args.length;
@@ -261,7 +356,7 @@ public final class GaussianField<K extends Comparable<? super K>> {
 
     MatrixStore<Double> getM2() {
 
-        final List<ComparableToDouble<K>> tmpObservations = this.getObservations();
+        final List<ComparableToDouble<K>> tmpObservations = this.getDecomposed();
 
         final int tmpSize = tmpObservations.size();
 
@@ -276,7 +371,7 @@ public final class GaussianField<K extends Comparable<? super K>> {
 
     MatrixStore<Double> getM2differenses() {
 
-        final List<ComparableToDouble<K>> tmpObservations = this.getObservations();
+        final List<ComparableToDouble<K>> tmpObservations = this.getDecomposed();
 
         final int tmpSize = tmpObservations.size();
 
@@ -293,6 +388,10 @@ public final class GaussianField<K extends Comparable<? super K>> {
         return retVal;
     }
 
+    Mean<K> getMeanFunction() {
+        return myMeanFunction;
+    }
+
     List<ComparableToDouble<K>> getObservations() {
         return new ArrayList<>(myObservations);
     }
@@ -301,4 +400,19 @@ public final class GaussianField<K extends Comparable<? super K>> {
         return this.getC22().getSolution(this.getC21(args)).logical().transpose().get();
     }
 
+    private PrimitiveDenseStore getC22Column(final K key) {
+
+        final int tmpSize = myDecomposed.size();
+
+        final PrimitiveDenseStore retVal = FACTORY.makeZero(tmpSize + 1, 1);
+
+        int i = 0;
+        for (final ComparableToDouble<K> tmpObservation : myDecomposed) {
+            retVal.set(i++, 0, myCovarianceFunction.invoke(tmpObservation.key, key));
+        }
+        retVal.set(tmpSize, 0, myCovarianceFunction.invoke(key, key));
+
+        return retVal;
+    }
+
 }
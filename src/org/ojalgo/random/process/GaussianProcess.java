@@ -86,17 +86,24 @@ public final class GaussianProcess extends AbstractProcess<Normal> {
     @Override
     protected double step(final double currentValue, final double stepSize, final double normalisedRandomIncrement) {
 
-        final Normal tmpDistr = this.getDistribution(stepSize);
+        final double tmpNextKey = this.getObservations().last().key + stepSize;
+
+        final Normal tmpDistr = this.getDistribution(tmpNextKey);
 
         final double retVal = (normalisedRandomIncrement * tmpDistr.getStandardDeviation()) + tmpDistr.getExpected();
 
-        this.addObservation(this.getObservations().last().key + stepSize, retVal);
+        this.addObservation(tmpNextKey, retVal);
 
         return retVal;
     }
 
+    @Override
+    GaussianProcess copy() {
+        return new GaussianProcess(myDelegate.getMeanFunction(), myDelegate.getCovarianceFunction());
+    }
+
     MatrixStore<Double> getCovariances() {
-        return myDelegate.getC22().reconstruct();
+        return myDelegate.getCovariances();
     }
 
     @Override
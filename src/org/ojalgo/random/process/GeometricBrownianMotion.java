@@ -162,6 +162,11 @@ public final class GeometricBrownianMotion extends AbstractProcess<LogNormal> {
         return retVal;
     }
 
+    @Override
+    GeometricBrownianMotion copy() {
+        return new GeometricBrownianMotion(myLocalDrift, myDiffusionFunction);
+    }
+
     /**
      * Expected future value
      */
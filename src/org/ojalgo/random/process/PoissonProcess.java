@@ -23,6 +23,8 @@ package org.ojalgo.random.process;
 
 import static org.ojalgo.constant.PrimitiveMath.*;
 
+import java.util.SplittableRandom;
+
 import org.ojalgo.ProgrammingError;
 import org.ojalgo.function.PrimitiveFunction;
 import org.ojalgo.random.Exponential;
@@ -72,6 +74,27 @@ public final class PoissonProcess extends AbstractProcess<Poisson> {
         return retVal;
     }
 
+    @Override
+    PoissonProcess copy() {
+        return new PoissonProcess(myRate);
+    }
+
+    /**
+     * Poisson distributed (with λ = 1) increments, consistent with {@link #getNormalisedRandomIncrement()}.
+     */
+    @Override
+    void fillNormalisedRandomIncrements(final SplittableRandom generator, final double[] increments) {
+        for (int i = 0; i < increments.length; i++) {
+            int tmpCount = -1;
+            double tmpSum = ZERO;
+            while (tmpSum <= ONE) {
+                tmpCount++;
+                tmpSum -= PrimitiveFunction.LOG.invoke(generator.nextDouble());
+            }
+            increments[i] = tmpCount;
+        }
+    }
+
     @Override
     double getExpected(final double stepSize) {
         return myRate * stepSize;
@@ -21,11 +21,14 @@
  */
 package org.ojalgo.random.process;
 
-import org.ojalgo.array.Array1D;
 import org.ojalgo.array.Array2D;
+import org.ojalgo.matrix.store.PrimitiveDenseStore;
 import org.ojalgo.random.Distribution;
 import org.ojalgo.random.SampleSet;
+import org.ojalgo.random.SampleStatistics;
 import org.ojalgo.series.primitive.PrimitiveSeries;
+import org.ojalgo.structure.Access1D;
+import org.ojalgo.structure.Access2D;
 
 /**
  * A random/stochastic process is a collection of random variables representing the evolution of some random
@@ -39,13 +42,14 @@ public interface RandomProcess<D extends Distribution> {
 
         private final double myInitialValue;
 
-        private final Array2D<Double> myResults;
+        private final Access2D.Sliceable<Double> myResults;
 
         /**
          * @param initialValue Initial value
          * @param results (Random values) scenarios/realisations/series in rows, and sample sets in columns.
+         *        Typically an {@link Array2D} or a {@link PrimitiveDenseStore}.
          */
-        public SimulationResults(final double initialValue, final Array2D<Double> results) {
+        public SimulationResults(final double initialValue, final Access2D.Sliceable<Double> results) {
 
             super();
 
@@ -78,19 +82,38 @@ public interface RandomProcess<D extends Distribution> {
             return SampleSet.wrap(myResults.sliceColumn(0, index));
         }
 
+        /**
+         * One pass statistics, including (approximate) quantiles, of the sample set at index.
+         *
+         * @see SampleSet#getStatistics()
+         */
+        public SampleStatistics getStatistics(final int index) {
+
+            final Access1D<Double> tmpSlicedColumn = myResults.sliceColumn(0, index);
+
+            final SampleStatistics retVal = new SampleStatistics();
+
+            final long tmpLimit = tmpSlicedColumn.count();
+            for (long i = 0L; i < tmpLimit; i++) {
+                retVal.accept(tmpSlicedColumn.doubleValue(i));
+            }
+
+            return retVal;
+        }
+
         /**
          * A series representing one scenario. Each series has length "number of simulation steps" + 1 as the
          * series includes the initial value.
          */
         public PrimitiveSeries getScenario(final int index) {
 
-            final Array1D<Double> tmpSlicedRow = myResults.sliceRow(index, 0);
+            final Access1D<Double> tmpSlicedRow = myResults.sliceRow(index, 0);
 
             return new PrimitiveSeries() {
 
                 @Override
                 public int size() {
-                    return tmpSlicedRow.size() + 1;
+                    return (int) tmpSlicedRow.count() + 1;
                 }
 
                 @Override
@@ -114,9 +137,29 @@ public interface RandomProcess<D extends Distribution> {
     D getDistribution(double evaluationPoint);
 
     /**
+     * Same as {@link #simulate(int, int, double, long)} but with a random seed.
+     */
+    RandomProcess.SimulationResults simulate(final int numberOfRealisations, final int numberOfSteps, final double stepSize);
+
+    /**
+     * The realisations are simulated in parallel. They are divided in fixed size blocks, and each block is
+     * given its own random number generator, split off a master generator initialised with the seed. The
+     * results are reproducible - the same seed always gives the same results regardless of the number of
+     * threads used.
+     *
+     * @param seed The seed of the master random number generator
      * @return An array of sample sets. The array has aNumberOfSteps elements, and each sample set has
      *         aNumberOfRealisations samples.
      */
-    RandomProcess.SimulationResults simulate(final int numberOfRealisations, final int numberOfSteps, final double stepSize);
+    RandomProcess.SimulationResults simulate(final int numberOfRealisations, final int numberOfSteps, final double stepSize, final long seed);
+
+    /**
+     * Simulates the realisations the same way as {@link #simulate(int, int, double, long)} does, but without
+     * keeping them. Each step's values are aggregated to (streaming) sample statistics as they are generated,
+     * so the memory required does not depend on the number of realisations.
+     *
+     * @return An array of sample statistics - one for each step.
+     */
+    SampleStatistics[] summarise(final int numberOfRealisations, final int numberOfSteps, final double stepSize, final long seed);
 
 }
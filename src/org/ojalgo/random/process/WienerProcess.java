@@ -62,6 +62,11 @@ public final class WienerProcess extends AbstractProcess<Normal> {
         return retVal;
     }
 
+    @Override
+    WienerProcess copy() {
+        return new WienerProcess();
+    }
+
     @Override
     double getExpected(final double stepSize) {
         return this.getValue();
@@ -116,6 +116,33 @@ public final class RationalNumber extends Number implements Scalar<RationalNumbe
         }
     }
 
+    /**
+     * Numerator and denominator are reduced to their lowest terms. If they still don't fit in a long both are
+     * shifted right (the value is approximated).
+     */
+    public static RationalNumber of(BigInteger numer, BigInteger denom) {
+
+        final BigInteger gcd = numer.gcd(denom);
+        if (gcd.compareTo(BigInteger.ONE) > 0) {
+            numer = numer.divide(gcd);
+            denom = denom.divide(gcd);
+        }
+
+        if (denom.signum() == -1) {
+            numer = numer.negate();
+            denom = denom.negate();
+        }
+
+        final int bits = Math.max(numer.bitLength(), denom.bitLength());
+        if (bits > MAX_BITS) {
+            final int shift = bits - MAX_BITS;
+            numer = numer.shiftRight(shift);
+            denom = denom.shiftRight(shift);
+        }
+
+        return RationalNumber.of(numer.longValueExact(), denom.longValueExact());
+    }
+
     public static RationalNumber rational(final double d) {
         if (d < 0) {
             return RationalNumber.rational(-d, 1.0, 39).negate();
@@ -305,29 +332,6 @@ public final class RationalNumber extends Number implements Scalar<RationalNumbe
         return RationalNumber.of(retNumer, retDenom);
     }
 
-    private static RationalNumber of(BigInteger numer, BigInteger denom) {
-
-        final BigInteger gcd = numer.gcd(denom);
-        if (gcd.compareTo(BigInteger.ONE) > 0) {
-            numer = numer.divide(gcd);
-            denom = denom.divide(gcd);
-        }
-
-        if (denom.signum() == -1) {
-            numer = numer.negate();
-            denom = denom.negate();
-        }
-
-        final int bits = Math.max(numer.bitLength(), denom.bitLength());
-        if (bits > MAX_BITS) {
-            final int shift = bits - MAX_BITS;
-            numer = numer.shiftRight(shift);
-            denom = denom.shiftRight(shift);
-        }
-
-        return RationalNumber.of(numer.longValueExact(), denom.longValueExact());
-    }
-
     private static RationalNumber rational(final double d, final double error, final int depthLimit) {
         assert (d >= 0);
         if (d > Long.MAX_VALUE) {
@@ -533,6 +537,14 @@ public final class RationalNumber extends Number implements Scalar<RationalNumbe
         return this;
     }
 
+    public long getDenominator() {
+        return myDenominator;
+    }
+
+    public long getNumerator() {
+        return myNumerator;
+    }
+
     @Override
     public int hashCode() {
         final int prime = 31;
@@ -685,12 +697,4 @@ public final class RationalNumber extends Number implements Scalar<RationalNumbe
         }
     }
 
-    long getDenominator() {
-        return myDenominator;
-    }
-
-    long getNumerator() {
-        return myNumerator;
-    }
-
 }
@@ -150,6 +150,25 @@ public interface BasicSeries<K extends Comparable<? super K>, V extends Number>
             return this.doBuild(denseArrayFactory, accumularor);
         }
 
+        /**
+         * Same as {@link #build(org.ojalgo.array.DenseArray.Factory)} but the series is stored in segments
+         * (chunks) of sorted primitive keys and corresponding values. Intended for large, mostly appended
+         * to, series. The head/sub/tail maps are views rather than copies.
+         */
+        public <N extends Number> BasicSeries.NaturallySequenced<K, N> buildSegmented(final DenseArray.Factory<N> denseArrayFactory) {
+            ProgrammingError.throwIfNull(denseArrayFactory);
+            return new SegmentedSeries<>(denseArrayFactory, this.getMapper(), null);
+        }
+
+        /**
+         * @see #buildSegmented(org.ojalgo.array.DenseArray.Factory)
+         */
+        public <N extends Number> BasicSeries.NaturallySequenced<K, N> buildSegmented(final DenseArray.Factory<N> denseArrayFactory,
+                final BinaryFunction<N> accumularor) {
+            ProgrammingError.throwIfNull(denseArrayFactory, accumularor);
+            return new SegmentedSeries<>(denseArrayFactory, this.getMapper(), accumularor);
+        }
+
         public TimeSeriesBuilder<K> reference(final K reference) {
             myReference = reference;
             return this;
@@ -161,17 +180,21 @@ public interface BasicSeries<K extends Comparable<? super K>, V extends Number>
         }
 
         private <N extends Number> BasicSeries.NaturallySequenced<K, N> doBuild(final DenseArray.Factory<N> arrayFactory, final BinaryFunction<N> accumularor) {
+            return new MappedIndexSeries<>(arrayFactory, this.getMapper(), accumularor);
+        }
+
+        private Structure1D.IndexMapper<K> getMapper() {
             if (myReference != null) {
                 if (myResolution != null) {
-                    return new MappedIndexSeries<>(arrayFactory, myTimeIndex.from(myReference, myResolution), accumularor);
+                    return myTimeIndex.from(myReference, myResolution);
                 } else {
-                    return new MappedIndexSeries<>(arrayFactory, myTimeIndex.from(myReference), accumularor);
+                    return myTimeIndex.from(myReference);
                 }
             } else {
                 if (myResolution != null) {
-                    return new MappedIndexSeries<>(arrayFactory, myTimeIndex.plain(myResolution), accumularor);
+                    return myTimeIndex.plain(myResolution);
                 } else {
-                    return new MappedIndexSeries<>(arrayFactory, myTimeIndex.plain(), accumularor);
+                    return myTimeIndex.plain();
                 }
             }
         }
@@ -206,8 +229,19 @@ public interface BasicSeries<K extends Comparable<? super K>, V extends Number>
         return new MappedIndexSeries<>(arrayFactory, indexMapper, accumulator);
     }
 
+    /**
+     * If all the series are segmented (see {@link TimeSeriesBuilder#buildSegmented(DenseArray.Factory)}) the
+     * keys and values are aligned directly on the primitive arrays, otherwise this is the same as
+     * {@link CoordinatedSet#from(List)}.
+     */
+    @SuppressWarnings("unchecked")
     static <K extends Comparable<? super K>> CoordinatedSet<K> coordinate(final List<? extends BasicSeries<K, ?>> uncoordinated) {
-        return CoordinatedSet.from(uncoordinated);
+        for (final BasicSeries<K, ?> individual : uncoordinated) {
+            if (!(individual instanceof SegmentedSeries<?, ?>) || individual.isEmpty()) {
+                return CoordinatedSet.from(uncoordinated);
+            }
+        }
+        return SegmentedSeries.coordinate((List<? extends SegmentedSeries<K, ?>>) uncoordinated);
     }
 
     static <K extends Comparable<? super K>> K findEarliestFirstKey(final Collection<? extends BasicSeries<K, ?>> collection) {
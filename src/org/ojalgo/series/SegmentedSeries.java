@@ -0,0 +1,882 @@
+/*
+ * Copyright 1997-2018 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.series;
+
+import static org.ojalgo.constant.PrimitiveMath.*;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.UUID;
+
+import org.ojalgo.array.DenseArray;
+import org.ojalgo.array.PrimitiveArray;
+import org.ojalgo.function.BinaryFunction;
+import org.ojalgo.netio.ASCII;
+import org.ojalgo.series.primitive.CoordinatedSet;
+import org.ojalgo.series.primitive.DataSeries;
+import org.ojalgo.series.primitive.PrimitiveSeries;
+import org.ojalgo.type.ColourData;
+import org.ojalgo.type.TypeUtils;
+
+/**
+ * A {@link BasicSeries.NaturallySequenced} implementation intended for large, mostly appended to, (time)
+ * series. The keys are mapped to long indices that are stored in sorted long[] segments, with the values in
+ * corresponding {@link DenseArray} segments - double[] with Primitive64Array, float[] with Primitive32Array.
+ * Appending a key after the last key is O(1), lookups are O(log n), and the head/sub/tail maps are views
+ * sharing the same storage (nothing is copied).
+ *
+ * @author apete
+ */
+final class SegmentedSeries<K extends Comparable<? super K>, N extends Number> extends AbstractMap<K, N> implements BasicSeries.NaturallySequenced<K, N> {
+
+    /**
+     * The storage, shared by a series and all its views.
+     */
+    static final class Segments<N extends Number> {
+
+        private static final int INITIAL_SEGMENT_SIZE = 16;
+
+        static int indexOf(final long position) {
+            return (int) position;
+        }
+
+        static long position(final int segment, final int index) {
+            return ((long) segment << 32) | index;
+        }
+
+        static int segmentOf(final long position) {
+            return (int) (position >>> 32);
+        }
+
+        private static <N extends Number> void copy(final DenseArray<N> source, final int sourcePosition, final DenseArray<N> destination,
+                final int destinationPosition, final int length) {
+
+            final boolean tmpBackwards = (source == destination) && (destinationPosition > sourcePosition);
+
+            if (source instanceof PrimitiveArray) {
+                if (tmpBackwards) {
+                    for (int i = length - 1; i >= 0; i--) {
+                        destination.set(destinationPosition + i, source.doubleValue(sourcePosition + i));
+                    }
+                } else {
+                    for (int i = 0; i < length; i++) {
+                        destination.set(destinationPosition + i, source.doubleValue(sourcePosition + i));
+                    }
+                }
+            } else {
+                if (tmpBackwards) {
+                    for (int i = length - 1; i >= 0; i--) {
+                        destination.set(destinationPosition + i, source.get(sourcePosition + i));
+                    }
+                } else {
+                    for (int i = 0; i < length; i++) {
+                        destination.set(destinationPosition + i, source.get(sourcePosition + i));
+                    }
+                }
+            }
+        }
+
+        private final DenseArray.Factory<N> myFactory;
+        private long[][] myKeys;
+        private int myNumberOfSegments = 0;
+        private final int mySegmentCapacity;
+        private int[] mySizes;
+        private DenseArray<N>[] myValues;
+
+        @SuppressWarnings("unchecked")
+        Segments(final DenseArray.Factory<N> factory, final int segmentCapacity) {
+
+            super();
+
+            myFactory = factory;
+            mySegmentCapacity = Math.max(2, segmentCapacity);
+
+            myKeys = new long[INITIAL_SEGMENT_SIZE][];
+            mySizes = new int[INITIAL_SEGMENT_SIZE];
+            myValues = new DenseArray[INITIAL_SEGMENT_SIZE];
+        }
+
+        /**
+         * @return The position of the first key greater than or equal to the input key
+         */
+        long ceiling(final long key) {
+
+            if (myNumberOfSegments == 0) {
+                return Segments.position(0, 0);
+            }
+
+            final int tmpSegment = this.segment(key);
+            final int tmpSize = mySizes[tmpSegment];
+
+            final int tmpPosition = Segments.lowerBound(myKeys[tmpSegment], tmpSize, key);
+
+            if (tmpPosition < tmpSize) {
+                return Segments.position(tmpSegment, tmpPosition);
+            } else {
+                return Segments.position(tmpSegment + 1, 0);
+            }
+        }
+
+        /**
+         * The number of keys from (incl) one position to (excl) another.
+         */
+        long count(final long first, final long limit) {
+
+            if (first >= limit) {
+                return 0L;
+            }
+
+            final int tmpFirstSegment = Segments.segmentOf(first);
+            final int tmpLimitSegment = Segments.segmentOf(limit);
+
+            if (tmpFirstSegment == tmpLimitSegment) {
+                return Segments.indexOf(limit) - Segments.indexOf(first);
+            }
+
+            long retVal = mySizes[tmpFirstSegment] - Segments.indexOf(first);
+            for (int s = tmpFirstSegment + 1; s < tmpLimitSegment; s++) {
+                retVal += mySizes[s];
+            }
+            retVal += Segments.indexOf(limit);
+            return retVal;
+        }
+
+        double doubleValue(final long key) {
+            if (myNumberOfSegments > 0) {
+                final int tmpSegment = this.segment(key);
+                final int tmpPosition = Arrays.binarySearch(myKeys[tmpSegment], 0, mySizes[tmpSegment], key);
+                if (tmpPosition >= 0) {
+                    return myValues[tmpSegment].doubleValue(tmpPosition);
+                }
+            }
+            return NaN;
+        }
+
+        /**
+         * Copies keys and values, from (incl) one position to (excl) another, to the arrays.
+         */
+        void extract(final long first, final long limit, final long[] keys, final double[] values) {
+
+            int tmpSegment = Segments.segmentOf(first);
+            int tmpPosition = Segments.indexOf(first);
+
+            final int tmpLength = keys.length;
+
+            for (int i = 0; i < tmpLength; i++) {
+
+                while (tmpPosition >= mySizes[tmpSegment]) {
+                    tmpSegment++;
+                    tmpPosition = 0;
+                }
+
+                keys[i] = myKeys[tmpSegment][tmpPosition];
+                values[i] = myValues[tmpSegment].doubleValue(tmpPosition);
+
+                tmpPosition++;
+            }
+        }
+
+        N get(final long key) {
+            if (myNumberOfSegments > 0) {
+                final int tmpSegment = this.segment(key);
+                final int tmpPosition = Arrays.binarySearch(myKeys[tmpSegment], 0, mySizes[tmpSegment], key);
+                if (tmpPosition >= 0) {
+                    return myValues[tmpSegment].get(tmpPosition);
+                }
+            }
+            return null;
+        }
+
+        long key(final long position) {
+            return myKeys[Segments.segmentOf(position)][Segments.indexOf(position)];
+        }
+
+        long next(final long position) {
+            final int tmpSegment = Segments.segmentOf(position);
+            final int tmpPosition = Segments.indexOf(position) + 1;
+            if (tmpPosition < mySizes[tmpSegment]) {
+                return Segments.position(tmpSegment, tmpPosition);
+            } else {
+                return Segments.position(tmpSegment + 1, 0);
+            }
+        }
+
+        /**
+         * @return The position of the last key less than the input key, or -1 if there is no such key
+         */
+        long lower(final long key) {
+
+            final long tmpCeiling = this.ceiling(key);
+
+            final int tmpSegment = Segments.segmentOf(tmpCeiling);
+            final int tmpPosition = Segments.indexOf(tmpCeiling);
+
+            if (tmpPosition > 0) {
+                return Segments.position(tmpSegment, tmpPosition - 1);
+            } else if (tmpSegment > 0) {
+                return Segments.position(tmpSegment - 1, mySizes[tmpSegment - 1] - 1);
+            } else {
+                return -1L;
+            }
+        }
+
+        double put(final long key, final double value, final BinaryFunction<N> accumulator) {
+
+            long tmpPosition = this.insert(key);
+
+            if (tmpPosition >= 0L) {
+
+                myValues[Segments.segmentOf(tmpPosition)].set(Segments.indexOf(tmpPosition), value);
+
+                return accumulator != null ? value : NaN;
+
+            } else {
+
+                tmpPosition = -tmpPosition - 1L;
+
+                final DenseArray<N> tmpValues = myValues[Segments.segmentOf(tmpPosition)];
+                final int tmpIndex = Segments.indexOf(tmpPosition);
+
+                final double tmpOldValue = tmpValues.doubleValue(tmpIndex);
+
+                if (accumulator != null) {
+                    final double tmpNewValue = accumulator.invoke(tmpOldValue, value);
+                    tmpValues.set(tmpIndex, tmpNewValue);
+                    return tmpNewValue;
+                } else {
+                    tmpValues.set(tmpIndex, value);
+                    return tmpOldValue;
+                }
+            }
+        }
+
+        N put(final long key, final N value, final BinaryFunction<N> accumulator) {
+
+            long tmpPosition = this.insert(key);
+
+            if (tmpPosition >= 0L) {
+
+                myValues[Segments.segmentOf(tmpPosition)].set(Segments.indexOf(tmpPosition), value);
+
+                return accumulator != null ? value : null;
+
+            } else {
+
+                tmpPosition = -tmpPosition - 1L;
+
+                final DenseArray<N> tmpValues = myValues[Segments.segmentOf(tmpPosition)];
+                final int tmpIndex = Segments.indexOf(tmpPosition);
+
+                final N tmpOldValue = tmpValues.get(tmpIndex);
+
+                if (accumulator != null) {
+                    final N tmpNewValue = accumulator.invoke(tmpOldValue, value);
+                    tmpValues.set(tmpIndex, tmpNewValue);
+                    return tmpNewValue;
+                } else {
+                    tmpValues.set(tmpIndex, value);
+                    return tmpOldValue;
+                }
+            }
+        }
+
+        DenseArray<N> values(final int segment) {
+            return myValues[segment];
+        }
+
+        int size(final int segment) {
+            return mySizes[segment];
+        }
+
+        private void addSegment(final int segment, final long[] keys, final DenseArray<N> values, final int size) {
+
+            if (myNumberOfSegments >= myKeys.length) {
+                final int tmpNewLength = myKeys.length * 2;
+                myKeys = Arrays.copyOf(myKeys, tmpNewLength);
+                mySizes = Arrays.copyOf(mySizes, tmpNewLength);
+                myValues = Arrays.copyOf(myValues, tmpNewLength);
+            }
+
+            final int tmpToMove = myNumberOfSegments - segment;
+            System.arraycopy(myKeys, segment, myKeys, segment + 1, tmpToMove);
+            System.arraycopy(mySizes, segment, mySizes, segment + 1, tmpToMove);
+            System.arraycopy(myValues, segment, myValues, segment + 1, tmpToMove);
+
+            myKeys[segment] = keys;
+            mySizes[segment] = size;
+            myValues[segment] = values;
+
+            myNumberOfSegments++;
+        }
+
+        /**
+         * Makes sure there is room for one more element in the segment.
+         */
+        private void ensureRoom(final int segment) {
+
+            final long[] tmpKeys = myKeys[segment];
+            final int tmpSize = mySizes[segment];
+
+            if (tmpSize >= tmpKeys.length) {
+
+                final int tmpNewLength = Math.min(mySegmentCapacity, tmpKeys.length * 2);
+
+                myKeys[segment] = Arrays.copyOf(tmpKeys, tmpNewLength);
+
+                final DenseArray<N> tmpValues = myFactory.makeZero(tmpNewLength);
+                Segments.copy(myValues[segment], 0, tmpValues, 0, tmpSize);
+                myValues[segment] = tmpValues;
+            }
+        }
+
+        /**
+         * @return The position of the key if it was inserted, or (-position - 1) if it already existed.
+         */
+        private long insert(final long key) {
+
+            int tmpSegment = myNumberOfSegments - 1;
+
+            if ((tmpSegment < 0) || (key > myKeys[tmpSegment][mySizes[tmpSegment] - 1])) {
+                // Append
+
+                if ((tmpSegment < 0) || (mySizes[tmpSegment] >= mySegmentCapacity)) {
+                    tmpSegment++;
+                    final int tmpLength = Math.min(mySegmentCapacity, INITIAL_SEGMENT_SIZE);
+                    this.addSegment(tmpSegment, new long[tmpLength], myFactory.makeZero(tmpLength), 0);
+                } else {
+                    this.ensureRoom(tmpSegment);
+                }
+
+                final int tmpPosition = mySizes[tmpSegment]++;
+                myKeys[tmpSegment][tmpPosition] = key;
+
+                return Segments.position(tmpSegment, tmpPosition);
+            }
+
+            tmpSegment = this.segment(key);
+            int tmpPosition = Arrays.binarySearch(myKeys[tmpSegment], 0, mySizes[tmpSegment], key);
+
+            if (tmpPosition >= 0) {
+                return -Segments.position(tmpSegment, tmpPosition) - 1L;
+            }
+
+            tmpPosition = -(tmpPosition + 1);
+
+            if (mySizes[tmpSegment] >= mySegmentCapacity) {
+                this.split(tmpSegment);
+                if (tmpPosition > mySizes[tmpSegment]) {
+                    tmpPosition -= mySizes[tmpSegment];
+                    tmpSegment++;
+                }
+            }
+
+            this.ensureRoom(tmpSegment);
+
+            final long[] tmpKeys = myKeys[tmpSegment];
+            final int tmpToMove = mySizes[tmpSegment] - tmpPosition;
+            System.arraycopy(tmpKeys, tmpPosition, tmpKeys, tmpPosition + 1, tmpToMove);
+            Segments.copy(myValues[tmpSegment], tmpPosition, myValues[tmpSegment], tmpPosition + 1, tmpToMove);
+            tmpKeys[tmpPosition] = key;
+            mySizes[tmpSegment]++;
+
+            return Segments.position(tmpSegment, tmpPosition);
+        }
+
+        /**
+         * @return The last segment with a first key less than or equal to the input key (or 0)
+         */
+        private int segment(final long key) {
+
+            int tmpLow = 0;
+            int tmpHigh = myNumberOfSegments - 1;
+
+            while (tmpLow < tmpHigh) {
+                final int tmpMiddle = (tmpLow + tmpHigh + 1) >>> 1;
+                if (myKeys[tmpMiddle][0] <= key) {
+                    tmpLow = tmpMiddle;
+                } else {
+                    tmpHigh = tmpMiddle - 1;
+                }
+            }
+
+            return tmpLow;
+        }
+
+        /**
+         * Moves the upper half of a (full) segment to a new segment.
+         */
+        private void split(final int segment) {
+
+            final int tmpSize = mySizes[segment];
+            final int tmpHalf = tmpSize / 2;
+            final int tmpMoved = tmpSize - tmpHalf;
+
+            final long[] tmpKeys = new long[mySegmentCapacity];
+            System.arraycopy(myKeys[segment], tmpHalf, tmpKeys, 0, tmpMoved);
+
+            final DenseArray<N> tmpValues = myFactory.makeZero(mySegmentCapacity);
+            Segments.copy(myValues[segment], tmpHalf, tmpValues, 0, tmpMoved);
+
+            mySizes[segment] = tmpHalf;
+
+            this.addSegment(segment + 1, tmpKeys, tmpValues, tmpMoved);
+        }
+
+        private static int lowerBound(final long[] keys, final int size, final long key) {
+            final int tmpPosition = Arrays.binarySearch(keys, 0, size, key);
+            return tmpPosition >= 0 ? tmpPosition : -(tmpPosition + 1);
+        }
+
+    }
+
+    static final int SEGMENT_CAPACITY = 4096;
+
+    /**
+     * Aligns the series to the union of their keys, from the latest first key to the earliest last key. A
+     * missing value is replaced by the previous value. The keys of series with a different index mapper are
+     * translated to the first series' index space.
+     */
+    static <K extends Comparable<? super K>> CoordinatedSet<K> coordinate(final List<? extends SegmentedSeries<K, ?>> uncoordinated) {
+
+        final int tmpNumberOfSeries = uncoordinated.size();
+
+        final IndexMapper<K> tmpMapper = uncoordinated.get(0).mapper();
+
+        final long[][] tmpKeys = new long[tmpNumberOfSeries][];
+        final double[][] tmpValues = new double[tmpNumberOfSeries][];
+
+        long tmpFirst = Long.MIN_VALUE;
+        long tmpLast = Long.MAX_VALUE;
+
+        for (int s = 0; s < tmpNumberOfSeries; s++) {
+
+            final SegmentedSeries<K, ?> tmpSeries = uncoordinated.get(s);
+
+            final long tmpFirstPosition = tmpSeries.firstPosition();
+            final long tmpLimitPosition = tmpSeries.limitPosition();
+
+            final int tmpCount = (int) tmpSeries.getSegments().count(tmpFirstPosition, tmpLimitPosition);
+
+            tmpKeys[s] = new long[tmpCount];
+            tmpValues[s] = new double[tmpCount];
+            tmpSeries.getSegments().extract(tmpFirstPosition, tmpLimitPosition, tmpKeys[s], tmpValues[s]);
+
+            final IndexMapper<K> tmpSeriesMapper = tmpSeries.mapper();
+            if (tmpSeriesMapper != tmpMapper) {
+                for (int i = 0; i < tmpCount; i++) {
+                    tmpKeys[s][i] = tmpMapper.toIndex(tmpSeriesMapper.toKey(tmpKeys[s][i]));
+                }
+            }
+
+            tmpFirst = Math.max(tmpFirst, tmpKeys[s][0]);
+            tmpLast = Math.min(tmpLast, tmpKeys[s][tmpCount - 1]);
+        }
+
+        int tmpUnionSize = 0;
+        for (int s = 0; s < tmpNumberOfSeries; s++) {
+            tmpUnionSize += Segments.lowerBound(tmpKeys[s], tmpKeys[s].length, tmpLast + 1L)
+                    - Segments.lowerBound(tmpKeys[s], tmpKeys[s].length, tmpFirst);
+        }
+        long[] tmpUnion = new long[tmpUnionSize];
+        tmpUnionSize = 0;
+        for (int s = 0; s < tmpNumberOfSeries; s++) {
+            final int tmpFrom = Segments.lowerBound(tmpKeys[s], tmpKeys[s].length, tmpFirst);
+            final int tmpTo = Segments.lowerBound(tmpKeys[s], tmpKeys[s].length, tmpLast + 1L);
+            System.arraycopy(tmpKeys[s], tmpFrom, tmpUnion, tmpUnionSize, tmpTo - tmpFrom);
+            tmpUnionSize += tmpTo - tmpFrom;
+        }
+        Arrays.sort(tmpUnion);
+        int tmpUnique = 0;
+        for (int i = 0; i < tmpUnionSize; i++) {
+            if ((tmpUnique == 0) || (tmpUnion[i] != tmpUnion[tmpUnique - 1])) {
+                tmpUnion[tmpUnique++] = tmpUnion[i];
+            }
+        }
+        tmpUnion = Arrays.copyOf(tmpUnion, tmpUnique);
+
+        final PrimitiveSeries[] tmpCoordinated = new PrimitiveSeries[tmpNumberOfSeries];
+
+        for (int s = 0; s < tmpNumberOfSeries; s++) {
+
+            final long[] tmpSeriesKeys = tmpKeys[s];
+            final double[] tmpSeriesValues = tmpValues[s];
+            final double[] tmpOutput = new double[tmpUnique];
+
+            int j = Segments.lowerBound(tmpSeriesKeys, tmpSeriesKeys.length, tmpFirst);
+            double tmpCurrent = NaN;
+
+            for (int u = 0; u < tmpUnique; u++) {
+                if ((j < tmpSeriesKeys.length) && (tmpSeriesKeys[j] == tmpUnion[u])) {
+                    final double tmpValue = tmpSeriesValues[j++];
+                    if (!Double.isNaN(tmpValue)) {
+                        tmpCurrent = tmpValue;
+                    }
+                }
+                tmpOutput[u] = tmpCurrent;
+            }
+
+            tmpCoordinated[s] = DataSeries.wrap(tmpOutput);
+        }
+
+        return CoordinatedSet.wrap(tmpCoordinated, tmpMapper.toKey(tmpFirst), tmpMapper.toKey(tmpLast));
+    }
+
+    private final BinaryFunction<N> myAccumulator;
+    private ColourData myColour = null;
+    private final long myFirst;
+    private final long myLimit;
+    private final IndexMapper<K> myMapper;
+    private String myName = null;
+    private final Segments<N> mySegments;
+
+    SegmentedSeries(final DenseArray.Factory<N> denseArrayFactory, final IndexMapper<K> indexMapper, final BinaryFunction<N> accumulator) {
+        this(new Segments<>(denseArrayFactory, SEGMENT_CAPACITY), indexMapper, accumulator, Long.MIN_VALUE, Long.MAX_VALUE);
+    }
+
+    SegmentedSeries(final Segments<N> segments, final IndexMapper<K> indexMapper, final BinaryFunction<N> accumulator, final long first, final long limit) {
+        super();
+        mySegments = segments;
+        myMapper = indexMapper;
+        myAccumulator = accumulator;
+        myFirst = first;
+        myLimit = limit;
+    }
+
+    /**
+     * A view, not a copy. It is invalidated if keys are later inserted (other than appended).
+     */
+    public PrimitiveSeries asPrimitive() {
+
+        final long tmpFirstPosition = this.firstPosition();
+        final long tmpLimitPosition = this.limitPosition();
+
+        final int tmpFirstSegment = Segments.segmentOf(tmpFirstPosition);
+        final int tmpOffset = Segments.indexOf(tmpFirstPosition);
+        final int tmpSize = (int) mySegments.count(tmpFirstPosition, tmpLimitPosition);
+
+        // Cumulative sizes of the segments, starting at the first (partial) segment
+        final int tmpNumberOfSegments = (Segments.segmentOf(tmpLimitPosition) - tmpFirstSegment) + 1;
+        final int[] tmpStarts = new int[tmpNumberOfSegments];
+        for (int s = 1; s < tmpNumberOfSegments; s++) {
+            tmpStarts[s] = tmpStarts[s - 1] + (mySegments.size((tmpFirstSegment + s) - 1) - (s == 1 ? tmpOffset : 0));
+        }
+
+        return new PrimitiveSeries() {
+
+            @Override
+            public int size() {
+                return tmpSize;
+            }
+
+            @Override
+            public double value(final int index) {
+
+                int tmpSegment = Arrays.binarySearch(tmpStarts, index);
+                if (tmpSegment < 0) {
+                    tmpSegment = -(tmpSegment + 2);
+                }
+
+                final int tmpPosition = (index - tmpStarts[tmpSegment]) + (tmpSegment == 0 ? tmpOffset : 0);
+
+                return mySegments.values(tmpFirstSegment + tmpSegment).doubleValue(tmpPosition);
+            }
+
+        };
+    }
+
+    public SegmentedSeries<K, N> colour(final ColourData colour) {
+        this.setColour(colour);
+        return this;
+    }
+
+    public Comparator<? super K> comparator() {
+        return null;
+    }
+
+    @Override
+    public boolean containsKey(final Object key) {
+        return this.get(key) != null;
+    }
+
+    public double doubleValue(final K key) {
+        return this.doubleValue(myMapper.toIndex(key));
+    }
+
+    public double doubleValue(final long index) {
+        if ((myFirst <= index) && (index < myLimit)) {
+            return mySegments.doubleValue(index);
+        } else {
+            return NaN;
+        }
+    }
+
+    @Override
+    public Set<Map.Entry<K, N>> entrySet() {
+        return new AbstractSet<Map.Entry<K, N>>() {
+
+            @Override
+            public Iterator<Map.Entry<K, N>> iterator() {
+
+                final long tmpLimitPosition = SegmentedSeries.this.limitPosition();
+
+                return new Iterator<Map.Entry<K, N>>() {
+
+                    private long myPosition = SegmentedSeries.this.firstPosition();
+
+                    public boolean hasNext() {
+                        return myPosition < tmpLimitPosition;
+                    }
+
+                    public Map.Entry<K, N> next() {
+
+                        if (myPosition >= tmpLimitPosition) {
+                            throw new NoSuchElementException();
+                        }
+
+                        final DenseArray<N> tmpValues = mySegments.values(Segments.segmentOf(myPosition));
+                        final int tmpIndex = Segments.indexOf(myPosition);
+                        final K tmpKey = myMapper.toKey(mySegments.key(myPosition));
+
+                        myPosition = mySegments.next(myPosition);
+
+                        return new Map.Entry<K, N>() {
+
+                            public K getKey() {
+                                return tmpKey;
+                            }
+
+                            public N getValue() {
+                                return tmpValues.get(tmpIndex);
+                            }
+
+                            public N setValue(final N value) {
+                                final N retVal = tmpValues.get(tmpIndex);
+                                tmpValues.set(tmpIndex, value);
+                                return retVal;
+                            }
+
+                        };
+                    }
+
+                };
+            }
+
+            @Override
+            public int size() {
+                return SegmentedSeries.this.size();
+            }
+
+        };
+    }
+
+    public K firstKey() {
+        final long tmpPosition = this.firstPosition();
+        if (tmpPosition >= this.limitPosition()) {
+            throw new NoSuchElementException();
+        }
+        return myMapper.toKey(mySegments.key(tmpPosition));
+    }
+
+    public N firstValue() {
+        return this.get(this.firstKey());
+    }
+
+    public N get(final K key) {
+        return this.get(myMapper.toIndex(key));
+    }
+
+    public N get(final long index) {
+        if ((myFirst <= index) && (index < myLimit)) {
+            return mySegments.get(index);
+        } else {
+            return null;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public N get(final Object key) {
+        if (key instanceof Comparable<?>) {
+            return this.get(myMapper.toIndex((K) key));
+        } else {
+            return null;
+        }
+    }
+
+    public ColourData getColour() {
+        if (myColour == null) {
+            myColour = ColourData.random();
+        }
+        return myColour;
+    }
+
+    public String getName() {
+        if (myName == null) {
+            myName = UUID.randomUUID().toString();
+        }
+        return myName;
+    }
+
+    public SegmentedSeries<K, N> headMap(final K toKey) {
+        return this.view(myFirst, myMapper.toIndex(toKey));
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return this.firstPosition() >= this.limitPosition();
+    }
+
+    public K lastKey() {
+        final long tmpPosition = mySegments.lower(myLimit);
+        if ((tmpPosition < 0L) || (mySegments.key(tmpPosition) < myFirst)) {
+            throw new NoSuchElementException();
+        }
+        return myMapper.toKey(mySegments.key(tmpPosition));
+    }
+
+    public N lastValue() {
+        return this.get(this.lastKey());
+    }
+
+    public IndexMapper<K> mapper() {
+        return myMapper;
+    }
+
+    public SegmentedSeries<K, N> name(final String name) {
+        this.setName(name);
+        return this;
+    }
+
+    public double put(final K key, final double value) {
+        return this.put(myMapper.toIndex(key), value);
+    }
+
+    @Override
+    public N put(final K key, final N value) {
+        return this.put(myMapper.toIndex(key), value);
+    }
+
+    public double put(final long index, final double value) {
+        this.checkRange(index);
+        return mySegments.put(index, value, myAccumulator);
+    }
+
+    public N put(final long index, final N value) {
+        this.checkRange(index);
+        return mySegments.put(index, value, myAccumulator);
+    }
+
+    @Override
+    public int size() {
+        return (int) mySegments.count(this.firstPosition(), this.limitPosition());
+    }
+
+    public K step(final K key) {
+        return myMapper.next(key);
+    }
+
+    public SegmentedSeries<K, N> subMap(final K fromKey, final K toKey) {
+        return this.view(myMapper.toIndex(fromKey), myMapper.toIndex(toKey));
+    }
+
+    public SegmentedSeries<K, N> tailMap(final K fromKey) {
+        return this.view(myMapper.toIndex(fromKey), myLimit);
+    }
+
+    @Override
+    public String toString() {
+
+        final StringBuilder retVal = new StringBuilder();
+
+        if (myName != null) {
+            retVal.append(myName);
+            retVal.append(ASCII.NBSP);
+        }
+
+        if (myColour != null) {
+            retVal.append(TypeUtils.toHexString(myColour.getRGB()));
+            retVal.append(ASCII.NBSP);
+        }
+
+        final int tmpSize = this.size();
+
+        if (tmpSize <= 30) {
+            retVal.append(super.toString());
+        } else {
+            retVal.append("First:");
+            retVal.append(this.firstKey());
+            retVal.append(ASCII.EQUALS);
+            retVal.append(this.firstValue());
+            retVal.append(ASCII.NBSP);
+            retVal.append("Last:");
+            retVal.append(this.lastKey());
+            retVal.append(ASCII.EQUALS);
+            retVal.append(this.lastValue());
+            retVal.append(ASCII.NBSP);
+            retVal.append("Size:");
+            retVal.append(tmpSize);
+        }
+
+        return retVal.toString();
+    }
+
+    private void checkRange(final long index) {
+        if ((index < myFirst) || (myLimit <= index)) {
+            throw new IllegalArgumentException("Key out of range!");
+        }
+    }
+
+    /**
+     * The view is restricted to the intersection of this series' range and [first, limit).
+     */
+    private SegmentedSeries<K, N> view(final long first, final long limit) {
+        return new SegmentedSeries<>(mySegments, myMapper, myAccumulator, Math.max(myFirst, first), Math.min(myLimit, Math.max(first, limit)));
+    }
+
+    long firstPosition() {
+        return mySegments.ceiling(myFirst);
+    }
+
+    Segments<N> getSegments() {
+        return mySegments;
+    }
+
+    long limitPosition() {
+        return mySegments.ceiling(myLimit);
+    }
+
+    void setColour(final ColourData colour) {
+        myColour = colour;
+    }
+
+    void setName(final String name) {
+        myName = name;
+    }
+
+}
@@ -74,6 +74,15 @@ public class CoordinatedSet<K extends Comparable<? super K>> {
         return new CoordinatedSet<>(coordinated, first, last);
     }
 
+    /**
+     * @param coordinated Already coordinated series - same size and corresponding keys
+     * @param first The first key
+     * @param last The last key
+     */
+    public static <K extends Comparable<? super K>> CoordinatedSet<K> wrap(final PrimitiveSeries[] coordinated, final K first, final K last) {
+        return new CoordinatedSet<>(coordinated, first, last);
+    }
+
     private final PrimitiveSeries[] myCoordinated;
     private final K myFirstKey;
     private final K myLastKey;
@@ -0,0 +1,127 @@
+/*
+ * Copyright 1997-2018 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.concurrent;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.ojalgo.OjAlgoUtils;
+import org.ojalgo.TestUtils;
+
+/**
+ * @author apete
+ */
+public class DivideAndConquerTest {
+
+    static void doTestEachIndexExactlyOnce(final DivideAndConquer.Divider divider, final int maxWorkers) {
+
+        final int limit = 1000;
+        final int threshold = 10;
+
+        final AtomicIntegerArray counts = new AtomicIntegerArray(limit);
+        final Set<Thread> threads = Collections.newSetFromMap(new ConcurrentHashMap<>());
+
+        final DivideAndConquer conquerer = new DivideAndConquer(divider) {
+
+            @Override
+            protected void conquer(final int first, final int limit) {
+                threads.add(Thread.currentThread());
+                for (int i = first; i < limit; i++) {
+                    counts.incrementAndGet(i);
+                }
+            }
+        };
+
+        conquerer.invoke(0, limit, threshold, maxWorkers);
+
+        for (int i = 0; i < limit; i++) {
+            TestUtils.assertEquals(1, counts.get(i));
+        }
+
+        TestUtils.assertTrue(threads.size() <= Math.max(1, maxWorkers));
+    }
+
+    @AfterEach
+    public void resetParallelism() {
+        DivideAndConquer.limitParallelism(0);
+    }
+
+    @Test
+    public void testDaemonPool() {
+        DivideAndConquerTest.doTestEachIndexExactlyOnce(DivideAndConquer.DAEMON_POOL, OjAlgoUtils.ENVIRONMENT.threads);
+    }
+
+    @Test
+    public void testForkJoin() {
+        DivideAndConquerTest.doTestEachIndexExactlyOnce(DivideAndConquer.FORK_JOIN, OjAlgoUtils.ENVIRONMENT.threads);
+        DivideAndConquerTest.doTestEachIndexExactlyOnce(DivideAndConquer.FORK_JOIN, 3);
+        DivideAndConquerTest.doTestEachIndexExactlyOnce(DivideAndConquer.FORK_JOIN, 1);
+    }
+
+    @Test
+    public void testForkJoinCallerParticipates() {
+
+        final Set<Thread> threads = Collections.newSetFromMap(new ConcurrentHashMap<>());
+
+        new DivideAndConquer(DivideAndConquer.FORK_JOIN) {
+
+            @Override
+            protected void conquer(final int first, final int limit) {
+                threads.add(Thread.currentThread());
+            }
+
+        }.invoke(0, 100, 1, 4);
+
+        TestUtils.assertTrue(threads.contains(Thread.currentThread()));
+    }
+
+    @Test
+    public void testLimitParallelism() {
+
+        TestUtils.assertEquals(OjAlgoUtils.ENVIRONMENT.threads, DivideAndConquer.getParallelism());
+
+        DivideAndConquer.limitParallelism(1);
+        TestUtils.assertEquals(1, DivideAndConquer.getParallelism());
+
+        final Set<Thread> threads = Collections.newSetFromMap(new ConcurrentHashMap<>());
+
+        new DivideAndConquer() {
+
+            @Override
+            protected void conquer(final int first, final int limit) {
+                threads.add(Thread.currentThread());
+            }
+
+        }.invoke(0, 1000, 1);
+
+        TestUtils.assertEquals(1, threads.size());
+        TestUtils.assertTrue(threads.contains(Thread.currentThread()));
+
+        DivideAndConquer.limitParallelism(0);
+        TestUtils.assertEquals(OjAlgoUtils.ENVIRONMENT.threads, DivideAndConquer.getParallelism());
+    }
+
+}
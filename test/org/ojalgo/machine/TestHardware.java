@@ -1,5 +1,11 @@
 package org.ojalgo.machine;
 
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
 import org.junit.jupiter.api.Test;
 import org.ojalgo.TestUtils;
 
@@ -131,6 +137,76 @@ public class TestHardware {
         this.doTest(tmpHardware, tmpThreads, tmpCores, tmpUnits);
     }
 
+    @Test
+    public void testLinuxDetection() throws IOException {
+
+        final File root = TestHardware.makeLinuxRoot(16);
+
+        final Hardware tmpHardware = LinuxHardware.detect("x86_64", root).get();
+
+        this.doTest(tmpHardware, 16, 8, 1);
+        TestUtils.assertEquals(16L * 1024L * 1024L * 1024L, tmpHardware.memory);
+        TestUtils.assertEquals(20L * 1024L * 1024L, tmpHardware.cache);
+    }
+
+    @Test
+    public void testLinuxDetectionInContainer() throws IOException {
+
+        final File root = TestHardware.makeLinuxRoot(16);
+
+        TestHardware.write(root, "sys/fs/cgroup/cpu.max", "400000 100000");
+        TestHardware.write(root, "sys/fs/cgroup/memory.max", "2147483648");
+
+        final Hardware tmpHardware = LinuxHardware.detect("x86_64", root).get();
+
+        this.doTest(tmpHardware, 4, 2, 1);
+        TestUtils.assertEquals(2L * 1024L * 1024L * 1024L, tmpHardware.memory);
+
+        TestUtils.assertEquals(Integer.MAX_VALUE, LinuxHardware.getCgroupThreads(TestHardware.makeLinuxRoot(2)));
+    }
+
+    @Test
+    public void testLinuxDetectionNotPossible() throws IOException {
+        TestUtils.assertFalse(LinuxHardware.detect("x86_64", Files.createTempDirectory("ojAlgo").toFile()).isPresent());
+    }
+
+    /**
+     * 1 CPU with 16 threads, 2 threads per core sharing L1 and L2, and a 20MB L3 shared by all.
+     */
+    static File makeLinuxRoot(final int threads) throws IOException {
+
+        final File root = Files.createTempDirectory("ojAlgo").toFile();
+
+        TestHardware.write(root, "proc/meminfo", "MemTotal:       16777216 kB\nMemFree:         5225680 kB\n");
+        TestHardware.write(root, "sys/devices/system/cpu/online", "0-" + (threads - 1));
+
+        final String cache = "sys/devices/system/cpu/cpu0/cache/";
+        TestHardware.write(root, cache + "index0/level", "1");
+        TestHardware.write(root, cache + "index0/type", "Data");
+        TestHardware.write(root, cache + "index0/size", "32K");
+        TestHardware.write(root, cache + "index0/shared_cpu_list", "0," + (threads / 2));
+        TestHardware.write(root, cache + "index1/level", "1");
+        TestHardware.write(root, cache + "index1/type", "Instruction");
+        TestHardware.write(root, cache + "index1/size", "64K");
+        TestHardware.write(root, cache + "index1/shared_cpu_list", "0," + (threads / 2));
+        TestHardware.write(root, cache + "index2/level", "2");
+        TestHardware.write(root, cache + "index2/type", "Unified");
+        TestHardware.write(root, cache + "index2/size", "1024K");
+        TestHardware.write(root, cache + "index2/shared_cpu_list", "0," + (threads / 2));
+        TestHardware.write(root, cache + "index3/level", "3");
+        TestHardware.write(root, cache + "index3/type", "Unified");
+        TestHardware.write(root, cache + "index3/size", "20M");
+        TestHardware.write(root, cache + "index3/shared_cpu_list", "0-" + (threads - 1));
+
+        return root;
+    }
+
+    static void write(final File root, final String path, final String contents) throws IOException {
+        final Path file = new File(root, path).toPath();
+        Files.createDirectories(file.getParent());
+        Files.write(file, contents.getBytes(StandardCharsets.US_ASCII));
+    }
+
     private void doTest(final Hardware hardware, final int threads, final int cores, final int units) {
         TestUtils.assertEquals("threads", threads, hardware.threads);
         TestUtils.assertEquals("cores", cores, hardware.cores);
@@ -0,0 +1,168 @@
+/*
+ * Copyright 1997-2018 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.matrix;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+import org.ojalgo.TestUtils;
+import org.ojalgo.function.PrimitiveFunction;
+import org.ojalgo.matrix.store.MatrixStore;
+import org.ojalgo.matrix.store.PhysicalStore;
+import org.ojalgo.matrix.store.PrimitiveDenseStore;
+import org.ojalgo.random.Uniform;
+import org.ojalgo.type.context.NumberContext;
+
+/**
+ * Element-wise BasicMatrix operations are deferred and executed in a single pass when the result is needed.
+ *
+ * @author apete
+ */
+public class DeferredOperationsTest extends MatrixTests {
+
+    private static final NumberContext PRECISION = new NumberContext(12, 14);
+
+    private static double expected(final PrimitiveMatrix a, final PrimitiveMatrix b, final PrimitiveMatrix c, final long i, final long j) {
+        return -((2.0 * a.doubleValue(i, j)) + b.doubleValue(i, j) - c.doubleValue(i, j)) / 4.0;
+    }
+
+    @Test
+    public void testChainedElementWise() {
+
+        final PrimitiveMatrix a = PrimitiveMatrix.FACTORY.makeFilled(9, 7, new Uniform());
+        final PrimitiveMatrix b = PrimitiveMatrix.FACTORY.makeFilled(9, 7, new Uniform());
+        final PrimitiveMatrix c = PrimitiveMatrix.FACTORY.makeFilled(9, 7, new Uniform());
+
+        final PrimitiveMatrix actual = a.multiply(2.0).add(b).subtract(c).negate().divide(4.0);
+
+        TestUtils.assertEquals(9L, actual.countRows());
+        TestUtils.assertEquals(7L, actual.countColumns());
+
+        for (long j = 0L; j < 7L; j++) {
+            for (long i = 0L; i < 9L; i++) {
+                TestUtils.assertEquals(DeferredOperationsTest.expected(a, b, c, i, j), actual.doubleValue(i, j), PRECISION);
+            }
+        }
+
+        final RationalMatrix rational = RationalMatrix.FACTORY.copy(a).multiply(2.0).add(RationalMatrix.FACTORY.copy(b))
+                .subtract(RationalMatrix.FACTORY.copy(c)).negate().divide(4.0);
+
+        TestUtils.assertEquals(actual, rational, PRECISION);
+
+        final ComplexMatrix complex = ComplexMatrix.FACTORY.copy(a).multiply(2.0).add(ComplexMatrix.FACTORY.copy(b))
+                .subtract(ComplexMatrix.FACTORY.copy(c)).negate().divide(4.0);
+
+        TestUtils.assertEquals(actual, complex, PRECISION);
+    }
+
+    @Test
+    public void testConcurrentMaterialisation() throws InterruptedException, ExecutionException {
+
+        final PrimitiveMatrix a = PrimitiveMatrix.FACTORY.makeFilled(50, 50, new Uniform());
+        final PrimitiveMatrix b = PrimitiveMatrix.FACTORY.makeFilled(50, 50, new Uniform());
+
+        final PrimitiveMatrix shared = a.multiply(2.0).add(b);
+
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            final List<Future<MatrixStore<Double>>> stores = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                stores.add(executor.submit(shared::getStore));
+            }
+            final MatrixStore<Double> first = stores.get(0).get();
+            for (final Future<MatrixStore<Double>> store : stores) {
+                TestUtils.assertTrue(first == store.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        for (long j = 0L; j < 50L; j++) {
+            for (long i = 0L; i < 50L; i++) {
+                TestUtils.assertEquals((2.0 * a.doubleValue(i, j)) + b.doubleValue(i, j), shared.doubleValue(i, j), PRECISION);
+            }
+        }
+    }
+
+    @Test
+    public void testFusedUnaryAndBinary() {
+
+        final MatrixStore<Double> a = PrimitiveDenseStore.FACTORY.makeFilled(6, 4, new Uniform());
+        final MatrixStore<Double> b = PrimitiveDenseStore.FACTORY.makeFilled(6, 4, new Uniform());
+
+        // A unary operation followed by a binary one, with the unary operand on either side
+        final MatrixStore<Double> right = a.operateOnAll(PrimitiveFunction.MULTIPLY.second(2.0)).operateOnMatching(PrimitiveFunction.SUBTRACT, b).get();
+        final MatrixStore<Double> left = a.operateOnAll(PrimitiveFunction.MULTIPLY.second(2.0)).operateOnMatching(b, PrimitiveFunction.SUBTRACT).get();
+
+        // Same thing, but with a pipeline (the product [I][A]) as the unary operation's input
+        final MatrixStore<Double> pipeline = a.premultiply(MatrixStore.PRIMITIVE.makeIdentity(6).get()).operateOnAll(PrimitiveFunction.MULTIPLY.second(2.0))
+                .operateOnMatching(PrimitiveFunction.SUBTRACT, b).get();
+
+        for (long j = 0L; j < 4L; j++) {
+            for (long i = 0L; i < 6L; i++) {
+                final double expected = (2.0 * a.doubleValue(i, j)) - b.doubleValue(i, j);
+                TestUtils.assertEquals(expected, right.doubleValue(i, j), PRECISION);
+                TestUtils.assertEquals(-expected, left.doubleValue(i, j), PRECISION);
+                TestUtils.assertEquals(expected, pipeline.doubleValue(i, j), PRECISION);
+            }
+        }
+    }
+
+    @Test
+    public void testMaterialisedOnce() {
+
+        final PrimitiveMatrix a = PrimitiveMatrix.FACTORY.makeFilled(5, 5, new Uniform());
+        final PrimitiveMatrix b = PrimitiveMatrix.FACTORY.makeFilled(5, 5, new Uniform());
+
+        final MatrixStore<Double> storeA = a.getStore();
+
+        final PrimitiveMatrix sum = a.add(b).multiply(3.0);
+
+        final MatrixStore<Double> first = sum.getStore();
+        TestUtils.assertTrue(first instanceof PhysicalStore);
+        TestUtils.assertTrue(first == sum.getStore());
+
+        // The operands are not modified
+        TestUtils.assertTrue(storeA == a.getStore());
+
+        // Further operations on an already materialised result
+        final PrimitiveMatrix twice = sum.add(sum);
+        for (long j = 0L; j < 5L; j++) {
+            for (long i = 0L; i < 5L; i++) {
+                final double value = 3.0 * (a.doubleValue(i, j) + b.doubleValue(i, j));
+                TestUtils.assertEquals(value, sum.doubleValue(i, j), PRECISION);
+                TestUtils.assertEquals(value + value, twice.doubleValue(i, j), PRECISION);
+            }
+        }
+
+        // Decompositions and solvers work with the deferred results as input
+        final PrimitiveMatrix shifted = a.add(PrimitiveMatrix.FACTORY.makeIdentity(5).multiply(10.0));
+        final PrimitiveMatrix solution = shifted.solve(b);
+        TestUtils.assertEquals(b, shifted.multiply(solution), PRECISION);
+    }
+
+}
@@ -0,0 +1,321 @@
+/*
+ * Copyright 1997-2018 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.matrix.decomposition;
+
+import static org.ojalgo.constant.PrimitiveMath.*;
+
+import java.util.function.IntFunction;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.ojalgo.TestUtils;
+import org.ojalgo.function.PrimitiveFunction;
+import org.ojalgo.matrix.store.ComplexDenseStore;
+import org.ojalgo.matrix.store.MatrixStore;
+import org.ojalgo.matrix.store.PhysicalStore;
+import org.ojalgo.matrix.store.PrimitiveDenseStore;
+import org.ojalgo.matrix.store.SparseStore;
+import org.ojalgo.matrix.store.operation.BlockedCholesky;
+import org.ojalgo.matrix.store.operation.MatrixOperation;
+import org.ojalgo.random.Normal;
+import org.ojalgo.random.Uniform;
+import org.ojalgo.scalar.ComplexNumber;
+import org.ojalgo.type.context.NumberContext;
+
+/**
+ * @author apete
+ */
+public class CholeskyTest {
+
+    private static final NumberContext PRECISION = new NumberContext(12, 10);
+
+    static PrimitiveDenseStore makeSPD(final int dim) {
+        final PrimitiveDenseStore tmpRandom = PrimitiveDenseStore.FACTORY.makeFilled(dim, dim, new Normal());
+        final PrimitiveDenseStore retVal = PrimitiveDenseStore.FACTORY.makeEye(dim, dim);
+        retVal.modifyMatching(tmpRandom.multiply(tmpRandom.transpose()), PrimitiveFunction.ADD);
+        return retVal;
+    }
+
+    @BeforeEach
+    public void minimiseAllBranchLimits() {
+        TestUtils.minimiseAllBranchLimits();
+    }
+
+    @Test
+    public void testAppend() {
+
+        final int tmpDim = 9;
+        final PrimitiveDenseStore tmpMatrix = CholeskyTest.makeSPD(tmpDim);
+
+        for (final Cholesky<Double> tmpDecomp : MatrixDecompositionTests.getCholeskyPrimitive()) {
+
+            tmpDecomp.decompose(tmpMatrix.logical().limits(1, 1).get());
+
+            for (int ij = 1; ij < tmpDim; ij++) {
+                TestUtils.assertTrue(tmpDecomp.append(tmpMatrix.sliceColumn(0, ij).subList(0, ij + 1)));
+                TestUtils.assertEquals(tmpMatrix.logical().limits(ij + 1, ij + 1).get(), tmpDecomp.reconstruct(), PRECISION);
+            }
+
+            TestUtils.assertTrue(tmpDecomp.isSolvable());
+
+            final Cholesky<Double> tmpDirect = Cholesky.PRIMITIVE.make(tmpMatrix);
+            tmpDirect.decompose(tmpMatrix);
+            TestUtils.assertEquals(tmpDirect.getL(), tmpDecomp.getL(), PRECISION);
+
+            // Not positive definite
+            final PrimitiveDenseStore tmpColumn = PrimitiveDenseStore.FACTORY.makeZero(tmpDim + 1, 1);
+            tmpColumn.set(0, 0, 1.0);
+            TestUtils.assertFalse(tmpDecomp.append(tmpColumn));
+            TestUtils.assertFalse(tmpDecomp.isSolvable());
+        }
+    }
+
+    @Test
+    public void testAnalyseAndRefactor() {
+
+        final int tmpDim = 300;
+        final Uniform tmpUniform = new Uniform(0, tmpDim);
+        final Normal tmpNormal = new Normal();
+
+        // Triplets of a symmetric, diagonally dominant, pattern
+
+        final int tmpCount = 3 * tmpDim;
+        final int[] tmpRows = new int[tmpCount];
+        final int[] tmpColumns = new int[tmpCount];
+        final double[] tmpValues = new double[tmpCount];
+        final double[] tmpDiagonal = new double[tmpDim];
+        for (int t = 0; t < tmpCount; t++) {
+            tmpRows[t] = tmpUniform.intValue();
+            tmpColumns[t] = tmpUniform.intValue();
+            tmpValues[t] = tmpNormal.doubleValue();
+            tmpDiagonal[tmpRows[t]] += 2.0 * Math.abs(tmpValues[t]);
+            tmpDiagonal[tmpColumns[t]] += 2.0 * Math.abs(tmpValues[t]);
+        }
+
+        final IntFunction<SparseStore<Double>> tmpMaker = shift -> {
+            final SparseStore<Double> retVal = SparseStore.PRIMITIVE.make(tmpDim, tmpDim);
+            for (int t = 0; t < tmpCount; t++) {
+                if (tmpRows[t] != tmpColumns[t]) {
+                    retVal.set(tmpRows[t], tmpColumns[t], tmpValues[t]);
+                    retVal.set(tmpColumns[t], tmpRows[t], tmpValues[t]);
+                }
+            }
+            for (int ij = 0; ij < tmpDim; ij++) {
+                retVal.set(ij, ij, ONE + shift + tmpDiagonal[ij]);
+            }
+            return retVal;
+        };
+
+        final PrimitiveDenseStore tmpRHS = PrimitiveDenseStore.FACTORY.makeFilled(tmpDim, 1, tmpNormal);
+
+        final Cholesky<Double> tmpAnalysed = Cholesky.PRIMITIVE.make(tmpMaker.apply(0));
+        TestUtils.assertFalse(tmpAnalysed.isAnalysed());
+        TestUtils.assertTrue(tmpAnalysed.analyse(tmpMaker.apply(0)));
+        TestUtils.assertTrue(tmpAnalysed.isAnalysed());
+        TestUtils.assertFalse(tmpAnalysed.isComputed());
+
+        // Each thread has its own instance, sharing the analysis
+
+        IntStream.range(0, 16).parallel().forEach(shift -> {
+
+            final SparseStore<Double> tmpMatrix = tmpMaker.apply(shift);
+
+            final Cholesky<Double> tmpRefactored = Cholesky.PRIMITIVE.make(tmpMatrix);
+            TestUtils.assertTrue(tmpRefactored.reuse(tmpAnalysed));
+            TestUtils.assertTrue(tmpRefactored.refactor(tmpMatrix));
+
+            final Cholesky<Double> tmpDense = new CholeskyDecomposition.Primitive();
+            tmpDense.decompose(tmpMatrix);
+
+            TestUtils.assertEquals(tmpDense.getSolution(tmpRHS), tmpRefactored.getSolution(tmpRHS), PRECISION);
+            TestUtils.assertEquals(tmpDense.getDeterminant(), tmpRefactored.getDeterminant(), PRECISION);
+        });
+
+        // A different pattern is analysed anew
+        final SparseStore<Double> tmpOther = tmpMaker.apply(1);
+        tmpOther.set(0, tmpDim - 1, 0.5);
+        tmpOther.set(tmpDim - 1, 0, 0.5);
+        TestUtils.assertTrue(tmpAnalysed.refactor(tmpOther));
+        TestUtils.assertEquals(tmpOther, tmpAnalysed.reconstruct(), PRECISION);
+
+        // Dense implementations just decompose
+        final Cholesky<Double> tmpDense = new CholeskyDecomposition.Primitive();
+        TestUtils.assertFalse(tmpDense.reuse(tmpAnalysed));
+        TestUtils.assertTrue(tmpDense.refactor(tmpOther));
+        TestUtils.assertEquals(tmpOther, tmpDense.reconstruct(), PRECISION);
+    }
+
+    @Test
+    public void testBlocked() {
+
+        MatrixOperation.setThresholdsMinValue(100000);
+
+        final PrimitiveDenseStore tmpMatrix = CholeskyTest.makeSPD(97);
+        final PrimitiveDenseStore tmpRHS = PrimitiveDenseStore.FACTORY.makeFilled(97, 3, new Normal());
+
+        final Cholesky<Double> tmpUnblocked = new CholeskyDecomposition.Primitive();
+        TestUtils.assertTrue(tmpUnblocked.decompose(tmpMatrix));
+
+        BlockedCholesky.THRESHOLD = 8;
+
+        final Cholesky<Double> tmpBlocked = new CholeskyDecomposition.Primitive();
+        TestUtils.assertTrue(tmpBlocked.decompose(tmpMatrix));
+
+        TestUtils.assertTrue(tmpBlocked.isSolvable());
+        TestUtils.assertEquals(tmpUnblocked.getL(), tmpBlocked.getL(), PRECISION);
+        TestUtils.assertEquals(tmpMatrix, tmpBlocked.reconstruct(), PRECISION);
+        TestUtils.assertEquals(tmpUnblocked.getSolution(tmpRHS), tmpBlocked.getSolution(tmpRHS), PRECISION);
+        TestUtils.assertEquals(tmpUnblocked.getRank(), tmpBlocked.getRank());
+
+        // Not positive definite
+        tmpMatrix.set(60, 60, -1.0);
+        tmpBlocked.decompose(tmpMatrix);
+        TestUtils.assertFalse(tmpBlocked.isSPD());
+        TestUtils.assertFalse(tmpBlocked.isSolvable());
+    }
+
+    @Test
+    public void testComplexUpdate() {
+
+        final int tmpDim = 6;
+        final Normal tmpNormal = new Normal();
+
+        final PhysicalStore<ComplexNumber> tmpRandom = ComplexDenseStore.FACTORY.makeZero(tmpDim, tmpDim);
+        final PhysicalStore<ComplexNumber> tmpVector = ComplexDenseStore.FACTORY.makeZero(tmpDim, 1);
+        for (long i = 0L; i < tmpRandom.count(); i++) {
+            tmpRandom.set(i, ComplexNumber.of(tmpNormal.doubleValue(), tmpNormal.doubleValue()));
+        }
+        for (long i = 0L; i < tmpVector.count(); i++) {
+            tmpVector.set(i, ComplexNumber.of(tmpNormal.doubleValue(), tmpNormal.doubleValue()));
+        }
+
+        final MatrixStore<ComplexNumber> tmpMatrix = tmpRandom.multiply(tmpRandom.conjugate()).add(ComplexDenseStore.FACTORY.makeEye(tmpDim, tmpDim));
+        final MatrixStore<ComplexNumber> tmpUpdated = tmpMatrix.add(tmpVector.multiply(tmpVector.conjugate()));
+
+        final Cholesky<ComplexNumber> tmpDecomp = Cholesky.COMPLEX.make(tmpMatrix);
+        tmpDecomp.decompose(tmpMatrix);
+
+        TestUtils.assertTrue(tmpDecomp.update(tmpVector));
+        CholeskyTest.assertComplexEquals(tmpUpdated, tmpDecomp.reconstruct());
+
+        TestUtils.assertTrue(tmpDecomp.downdate(tmpVector));
+        CholeskyTest.assertComplexEquals(tmpMatrix, tmpDecomp.reconstruct());
+    }
+
+    @Test
+    public void testSparse() {
+
+        final int tmpDim = 200;
+        final Uniform tmpUniform = new Uniform(0, tmpDim);
+        final Normal tmpNormal = new Normal();
+
+        final int[][] tmpPattern = new int[tmpDim][];
+        for (int j = 0; j < tmpDim; j++) {
+            tmpPattern[j] = new int[] { tmpUniform.intValue(), tmpUniform.intValue(), tmpUniform.intValue() };
+        }
+
+        final SparseStore<Double> tmpMatrix = SparseStore.PRIMITIVE.make(tmpDim, tmpDim);
+        final PrimitiveDenseStore tmpRHS = PrimitiveDenseStore.FACTORY.makeFilled(tmpDim, 3, tmpNormal);
+
+        final Cholesky<Double> tmpSparse = Cholesky.PRIMITIVE.make(tmpMatrix);
+        TestUtils.assertTrue(tmpSparse instanceof SparseCholesky);
+
+        final Cholesky<Double> tmpDense = new CholeskyDecomposition.Primitive();
+
+        for (int r = 0; r < 2; r++) {
+
+            // Second time around same pattern, different values - symmetric and diagonally dominant
+            final double[] tmpDiagonal = new double[tmpDim];
+            for (int j = 0; j < tmpDim; j++) {
+                for (final int i : tmpPattern[j]) {
+                    if (i != j) {
+                        final double tmpValue = tmpNormal.doubleValue();
+                        tmpMatrix.set(i, j, tmpValue);
+                        tmpMatrix.set(j, i, tmpValue);
+                        tmpDiagonal[i] += Math.abs(tmpValue);
+                        tmpDiagonal[j] += Math.abs(tmpValue);
+                    }
+                }
+            }
+            for (int j = 0; j < tmpDim; j++) {
+                tmpMatrix.set(j, j, ONE + tmpDiagonal[j]);
+            }
+
+            TestUtils.assertTrue(tmpSparse.decompose(tmpMatrix));
+            tmpDense.decompose(tmpMatrix);
+
+            TestUtils.assertTrue(tmpSparse.isSPD());
+            TestUtils.assertTrue(tmpSparse.isSolvable());
+            TestUtils.assertEquals(tmpMatrix, tmpSparse.reconstruct(), PRECISION);
+            TestUtils.assertEquals(tmpDense.getRank(), tmpSparse.getRank());
+            TestUtils.assertEquals(tmpDense.getDeterminant(), tmpSparse.getDeterminant(), PRECISION);
+            TestUtils.assertEquals(tmpDense.getSolution(tmpRHS), tmpSparse.getSolution(tmpRHS), PRECISION);
+        }
+
+        TestUtils.assertFalse(tmpSparse.update(tmpRHS.sliceColumn(0, 0)));
+
+        // Not positive definite
+        tmpMatrix.set(100, 100, -1.0);
+        tmpSparse.decompose(tmpMatrix);
+        TestUtils.assertFalse(tmpSparse.isSPD());
+        TestUtils.assertFalse(tmpSparse.isSolvable());
+    }
+
+    @Test
+    public void testUpdateAndDowndate() {
+
+        final int tmpDim = 9;
+        final PrimitiveDenseStore tmpMatrix = CholeskyTest.makeSPD(tmpDim);
+        final PrimitiveDenseStore tmpVector = PrimitiveDenseStore.FACTORY.makeFilled(tmpDim, 1, new Normal());
+        final MatrixStore<Double> tmpUpdated = tmpMatrix.add(tmpVector.multiply(tmpVector.transpose()));
+
+        for (final Cholesky<Double> tmpDecomp : MatrixDecompositionTests.getCholeskyPrimitive()) {
+
+            tmpDecomp.decompose(tmpMatrix);
+
+            TestUtils.assertTrue(tmpDecomp.update(tmpVector));
+            TestUtils.assertEquals(tmpUpdated, tmpDecomp.reconstruct(), PRECISION);
+
+            final Cholesky<Double> tmpDirect = Cholesky.PRIMITIVE.make(tmpUpdated);
+            tmpDirect.decompose(tmpUpdated);
+            TestUtils.assertEquals(tmpDirect.getL(), tmpDecomp.getL(), PRECISION);
+
+            TestUtils.assertTrue(tmpDecomp.downdate(tmpVector));
+            TestUtils.assertEquals(tmpMatrix, tmpDecomp.reconstruct(), PRECISION);
+
+            // Downdating with a (much) larger vector would make it indefinite - rejected and left unchanged
+            final MatrixStore<Double> tmpL = tmpDecomp.getL().copy();
+            TestUtils.assertFalse(tmpDecomp.downdate(tmpVector.multiply(100.0)));
+            TestUtils.assertEquals(tmpL, tmpDecomp.getL());
+            TestUtils.assertTrue(tmpDecomp.isSolvable());
+        }
+    }
+
+    static void assertComplexEquals(final MatrixStore<ComplexNumber> expected, final MatrixStore<ComplexNumber> actual) {
+        for (long i = 0L; i < expected.count(); i++) {
+            TestUtils.assertEquals(expected.get(i).doubleValue(), actual.get(i).doubleValue(), PRECISION);
+            TestUtils.assertEquals(expected.get(i).i, actual.get(i).i, PRECISION);
+        }
+    }
+
+}
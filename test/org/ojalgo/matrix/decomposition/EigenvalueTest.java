@@ -25,6 +25,8 @@ import static org.ojalgo.constant.PrimitiveMath.*;
 import static org.ojalgo.function.PrimitiveFunction.*;
 
 import java.math.MathContext;
+import java.util.Arrays;
+import java.util.Optional;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -38,7 +40,10 @@ import org.ojalgo.matrix.store.GenericDenseStore;
 import org.ojalgo.matrix.store.MatrixStore;
 import org.ojalgo.matrix.store.PhysicalStore;
 import org.ojalgo.matrix.store.PrimitiveDenseStore;
+import org.ojalgo.matrix.store.SparseStore;
 import org.ojalgo.netio.BasicLogger;
+import org.ojalgo.random.Normal;
+import org.ojalgo.random.Uniform;
 import org.ojalgo.scalar.ComplexNumber;
 import org.ojalgo.structure.Access1D;
 import org.ojalgo.type.context.NumberContext;
@@ -141,6 +146,111 @@ public class EigenvalueTest {
         TestUtils.assertEquals(tmpExpectedDiagonal, tmpEigenvaluesOnly, accuracyContext);
     }
 
+    @Test
+    public void testPartial() {
+
+        final NumberContext tmpPrecision = new NumberContext(8, 8);
+
+        // 2D Laplacian (5-point stencil) on a 20 x 20 grid
+
+        final int tmpGrid = 20;
+        final int tmpDim = tmpGrid * tmpGrid;
+
+        final SparseStore<Double> tmpLaplacian = SparseStore.PRIMITIVE.make(tmpDim, tmpDim);
+        for (int j = 0; j < tmpDim; j++) {
+            if (j >= tmpGrid) {
+                tmpLaplacian.set(j - tmpGrid, j, -ONE);
+            }
+            if ((j % tmpGrid) > 0) {
+                tmpLaplacian.set(j - 1, j, -ONE);
+            }
+            tmpLaplacian.set(j, j, FOUR);
+            if ((j % tmpGrid) < (tmpGrid - 1)) {
+                tmpLaplacian.set(j + 1, j, -ONE);
+            }
+            if ((j + tmpGrid) < tmpDim) {
+                tmpLaplacian.set(j + tmpGrid, j, -ONE);
+            }
+        }
+
+        final double[] tmpExpected = new double[tmpDim];
+        final Eigenvalue<Double> tmpFull = Eigenvalue.PRIMITIVE.make(tmpLaplacian, true);
+        tmpFull.decompose(PrimitiveDenseStore.FACTORY.copy(tmpLaplacian));
+        tmpFull.getEigenvalues(tmpExpected, Optional.empty());
+        Arrays.sort(tmpExpected);
+
+        final Eigenvalue<Double> tmpLargest = Eigenvalue.makePartial(5, true, Eigenvalue.Spectrum.LARGEST_REAL);
+        TestUtils.assertTrue(tmpLargest.decompose(tmpLaplacian));
+        TestUtils.assertEquals(ZERO, tmpLaplacian.multiply(tmpLargest.getV()).subtract(tmpLargest.getV().multiply(tmpLargest.getD())).norm(), tmpPrecision);
+        TestUtils.assertEquals(5, tmpLargest.getV().countColumns());
+        for (int i = 0; i < 5; i++) {
+            TestUtils.assertEquals(tmpExpected[tmpDim - 1 - i], tmpLargest.getEigenvalues().doubleValue(i), tmpPrecision);
+        }
+
+        // The trace and determinant would require all the eigenvalues
+        try {
+            tmpLargest.getTrace();
+            TestUtils.fail();
+        } catch (final UnsupportedOperationException expected) {
+            // Expected
+        }
+        try {
+            tmpLargest.getDeterminant();
+            TestUtils.fail();
+        } catch (final UnsupportedOperationException expected) {
+            // Expected
+        }
+
+        // Shift-invert - the eigenvalues nearest 0 (the smallest)
+
+        final Eigenvalue<Double> tmpSmallest = Eigenvalue.makePartial(5, true, ZERO);
+        TestUtils.assertTrue(tmpSmallest.decompose(tmpLaplacian));
+        TestUtils.assertEquals(ZERO, tmpLaplacian.multiply(tmpSmallest.getV()).subtract(tmpSmallest.getV().multiply(tmpSmallest.getD())).norm(), tmpPrecision);
+        for (int i = 0; i < 5; i++) {
+            TestUtils.assertEquals(tmpExpected[i], tmpSmallest.getEigenvalues().doubleValue(i), tmpPrecision);
+        }
+
+        // General (non-symmetric) sparse matrix with complex eigenvalues
+
+        final Uniform tmpUniform = new Uniform(0, tmpDim);
+        final Normal tmpNormal = new Normal();
+
+        final SparseStore<Double> tmpGeneral = SparseStore.PRIMITIVE.make(tmpDim, tmpDim);
+        for (int j = 0; j < tmpDim; j++) {
+            tmpGeneral.set(j, j, ONE + tmpUniform.doubleValue() / tmpDim);
+            for (int k = 0; k < 3; k++) {
+                tmpGeneral.set(tmpUniform.intValue(), j, tmpNormal.doubleValue());
+            }
+        }
+
+        final Eigenvalue<Double> tmpDense = Eigenvalue.PRIMITIVE.make(tmpGeneral, false);
+        tmpDense.decompose(PrimitiveDenseStore.FACTORY.copy(tmpGeneral));
+        final double[] tmpModuli = new double[tmpDim];
+        for (int i = 0; i < tmpDim; i++) {
+            tmpModuli[i] = tmpDense.getEigenvalues().get(i).norm();
+        }
+        Arrays.sort(tmpModuli);
+
+        final Eigenvalue<Double> tmpMagnitude = Eigenvalue.makePartial(6, false, Eigenvalue.Spectrum.LARGEST_MAGNITUDE);
+        TestUtils.assertTrue(tmpMagnitude.decompose(tmpGeneral));
+        TestUtils.assertEquals(ZERO, tmpGeneral.multiply(tmpMagnitude.getV()).subtract(tmpMagnitude.getV().multiply(tmpMagnitude.getD())).norm(), tmpPrecision);
+        for (int i = 0; i < 6; i++) {
+            TestUtils.assertEquals(tmpModuli[tmpDim - 1 - i], tmpMagnitude.getEigenvalues().get(i).norm(), tmpPrecision);
+        }
+        final MatrixStore<ComplexNumber> tmpComplex = GenericDenseStore.COMPLEX.copy(tmpGeneral);
+        for (int j = 0; j < (int) tmpMagnitude.getV().countColumns(); j++) {
+            final Eigenvalue.Eigenpair tmpPair = tmpMagnitude.getEigenpair(j);
+            final MatrixStore<ComplexNumber> tmpProduct = tmpComplex.multiply(GenericDenseStore.COMPLEX.columns(tmpPair.vector));
+            for (int i = 0; i < tmpDim; i++) {
+                TestUtils.assertEquals(ZERO, tmpPair.value.multiply(tmpPair.vector.get(i)).subtract(tmpProduct.get(i)).norm(), tmpPrecision);
+            }
+        }
+
+        final Eigenvalue<Double> tmpNearest = Eigenvalue.makePartial(6, false, HALF);
+        TestUtils.assertTrue(tmpNearest.decompose(tmpGeneral));
+        TestUtils.assertEquals(ZERO, tmpGeneral.multiply(tmpNearest.getV()).subtract(tmpNearest.getV().multiply(tmpNearest.getD())).norm(), tmpPrecision);
+    }
+
     @Test
     public void testPaulsMathNote() {
 
@@ -28,7 +28,12 @@ import org.ojalgo.matrix.P20061119Case;
 import org.ojalgo.matrix.RationalMatrix;
 import org.ojalgo.matrix.store.GenericDenseStore;
 import org.ojalgo.matrix.store.PrimitiveDenseStore;
+import org.ojalgo.matrix.store.SparseStore;
+import org.ojalgo.matrix.store.operation.BlockedLU;
+import org.ojalgo.matrix.store.operation.MatrixOperation;
 import org.ojalgo.netio.BasicLogger;
+import org.ojalgo.random.Normal;
+import org.ojalgo.random.Uniform;
 import org.ojalgo.scalar.ComplexNumber;
 import org.ojalgo.scalar.RationalNumber;
 import org.ojalgo.type.context.NumberContext;
@@ -43,6 +48,92 @@ public class LUTest {
         TestUtils.minimiseAllBranchLimits();
     }
 
+    @Test
+    public void testBlocked() {
+
+        final NumberContext tmpPrecision = new NumberContext(8, 10);
+
+        final int[][] tmpShapes = { { 97, 97 }, { 101, 43 }, { 43, 101 } };
+
+        for (final int[] tmpShape : tmpShapes) {
+
+            MatrixOperation.setThresholdsMinValue(100000);
+
+            final PrimitiveDenseStore tmpMatrix = PrimitiveDenseStore.FACTORY.makeFilled(tmpShape[0], tmpShape[1], new Normal());
+
+            final LU<Double> tmpUnblocked = new LUDecomposition.Primitive();
+            tmpUnblocked.decompose(tmpMatrix);
+
+            BlockedLU.THRESHOLD = 8;
+
+            final LU<Double> tmpBlocked = new LUDecomposition.Primitive();
+            tmpBlocked.decompose(tmpMatrix);
+
+            TestUtils.assertEquals(tmpUnblocked.getPivotOrder(), tmpBlocked.getPivotOrder());
+            TestUtils.assertEquals(tmpUnblocked.getL(), tmpBlocked.getL(), tmpPrecision);
+            TestUtils.assertEquals(tmpUnblocked.getU(), tmpBlocked.getU(), tmpPrecision);
+            TestUtils.assertTrue(LU.equals(tmpMatrix, tmpBlocked, tmpPrecision));
+            TestUtils.assertEquals(tmpUnblocked.getRank(), tmpBlocked.getRank());
+        }
+    }
+
+    @Test
+    public void testSparse() {
+
+        final NumberContext tmpPrecision = new NumberContext(8, 10);
+
+        final int tmpDim = 200;
+        final Uniform tmpUniform = new Uniform(0, tmpDim);
+        final Normal tmpNormal = new Normal();
+
+        final int[][] tmpPattern = new int[tmpDim][];
+        for (int j = 0; j < tmpDim; j++) {
+            tmpPattern[j] = new int[] { j, tmpUniform.intValue(), tmpUniform.intValue(), tmpUniform.intValue() };
+        }
+
+        final SparseStore<Double> tmpMatrix = SparseStore.PRIMITIVE.make(tmpDim, tmpDim);
+        final PrimitiveDenseStore tmpRHS = PrimitiveDenseStore.FACTORY.makeFilled(tmpDim, 3, tmpNormal);
+
+        final LU<Double> tmpSparse = LU.PRIMITIVE.make(tmpMatrix);
+        TestUtils.assertTrue(tmpSparse instanceof SparseLU);
+
+        final LU<Double> tmpDense = new LUDecomposition.Primitive();
+
+        for (int r = 0; r < 2; r++) {
+
+            // Second time around same pattern, different values
+            for (int j = 0; j < tmpDim; j++) {
+                for (final int i : tmpPattern[j]) {
+                    tmpMatrix.set(i, j, tmpNormal.doubleValue());
+                }
+            }
+
+            TestUtils.assertTrue(tmpSparse.decompose(tmpMatrix));
+            tmpDense.decompose(tmpMatrix);
+
+            TestUtils.assertTrue(LU.equals(tmpMatrix, tmpSparse, tmpPrecision));
+            TestUtils.assertEquals(tmpDense.getRank(), tmpSparse.getRank());
+            TestUtils.assertEquals(tmpDense.getDeterminant(), tmpSparse.getDeterminant(), tmpPrecision);
+            TestUtils.assertEquals(tmpDense.getSolution(tmpRHS), tmpSparse.getSolution(tmpRHS), tmpPrecision);
+            TestUtils.assertEquals(tmpDense.getInverse(), tmpSparse.getInverse(), tmpPrecision);
+        }
+
+        // Sharing the analysis
+        final LU<Double> tmpShared = LU.PRIMITIVE.make(tmpMatrix);
+        TestUtils.assertTrue(tmpShared.reuse(tmpSparse));
+        TestUtils.assertTrue(tmpShared.refactor(tmpMatrix));
+        TestUtils.assertEquals(tmpSparse.getSolution(tmpRHS), tmpShared.getSolution(tmpRHS), tmpPrecision);
+
+        // Singular
+        for (int i = 0; i < tmpDim; i++) {
+            tmpMatrix.set(i, 100, 0.0);
+        }
+        tmpSparse.decompose(tmpMatrix);
+        TestUtils.assertTrue(LU.equals(tmpMatrix, tmpSparse, tmpPrecision));
+        TestUtils.assertEquals(tmpDim - 1, tmpSparse.getRank());
+        TestUtils.assertFalse(tmpSparse.isSolvable());
+    }
+
     @Test
     public void testP20061119Case() {
 
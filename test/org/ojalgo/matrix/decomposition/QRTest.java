@@ -32,9 +32,11 @@ import org.ojalgo.matrix.store.GenericDenseStore;
 import org.ojalgo.matrix.store.MatrixStore;
 import org.ojalgo.matrix.store.PhysicalStore;
 import org.ojalgo.matrix.store.PrimitiveDenseStore;
+import org.ojalgo.matrix.store.operation.BlockedQR;
 import org.ojalgo.matrix.store.operation.MatrixOperation;
 import org.ojalgo.matrix.transformation.Householder;
 import org.ojalgo.netio.BasicLogger;
+import org.ojalgo.random.Normal;
 import org.ojalgo.scalar.ComplexNumber;
 import org.ojalgo.scalar.RationalNumber;
 import org.ojalgo.type.context.NumberContext;
@@ -60,6 +62,38 @@ public class QRTest {
         TestUtils.minimiseAllBranchLimits();
     }
 
+    @Test
+    public void testBlocked() {
+
+        final NumberContext tmpPrecision = new NumberContext(8, 10);
+
+        final int[][] tmpShapes = { { 97, 97 }, { 101, 43 }, { 43, 101 } };
+
+        for (final int[] tmpShape : tmpShapes) {
+
+            MatrixOperation.setThresholdsMinValue(100000);
+
+            final PrimitiveDenseStore tmpMatrix = PrimitiveDenseStore.FACTORY.makeFilled(tmpShape[0], tmpShape[1], new Normal());
+            final PrimitiveDenseStore tmpRHS = PrimitiveDenseStore.FACTORY.makeFilled(tmpShape[0], 3, new Normal());
+
+            final QR<Double> tmpUnblocked = new QRDecomposition.Primitive();
+            tmpUnblocked.decompose(tmpMatrix);
+
+            BlockedQR.THRESHOLD = 8;
+
+            final QR<Double> tmpBlocked = new QRDecomposition.Primitive();
+            tmpBlocked.decompose(tmpMatrix);
+
+            TestUtils.assertEquals(tmpUnblocked.getQ(), tmpBlocked.getQ(), tmpPrecision);
+            TestUtils.assertEquals(tmpUnblocked.getR(), tmpBlocked.getR(), tmpPrecision);
+            TestUtils.assertEquals(tmpMatrix, tmpBlocked.reconstruct(), tmpPrecision);
+            TestUtils.assertEquals(tmpUnblocked.getDeterminant(), tmpBlocked.getDeterminant(), tmpPrecision);
+            if (tmpShape[0] >= tmpShape[1]) {
+                TestUtils.assertEquals(tmpUnblocked.getSolution(tmpRHS), tmpBlocked.getSolution(tmpRHS), tmpPrecision);
+            }
+        }
+    }
+
     @Test
     public void testDiagonalCase() {
 
@@ -21,6 +21,11 @@
  */
 package org.ojalgo.matrix.decomposition;
 
+import static org.ojalgo.constant.PrimitiveMath.*;
+import static org.ojalgo.function.PrimitiveFunction.*;
+
+import java.util.Arrays;
+
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.ojalgo.TestUtils;
@@ -36,11 +41,15 @@ import org.ojalgo.matrix.P20050827Case;
 import org.ojalgo.matrix.P20061119Case;
 import org.ojalgo.matrix.P20071019Case;
 import org.ojalgo.matrix.RationalMatrix;
+import org.ojalgo.matrix.store.BufferStore;
 import org.ojalgo.matrix.store.GenericDenseStore;
 import org.ojalgo.matrix.store.MatrixStore;
 import org.ojalgo.matrix.store.PhysicalStore;
 import org.ojalgo.matrix.store.PrimitiveDenseStore;
+import org.ojalgo.matrix.store.SparseStore;
 import org.ojalgo.netio.BasicLogger;
+import org.ojalgo.random.Normal;
+import org.ojalgo.random.Uniform;
 import org.ojalgo.scalar.ComplexNumber;
 import org.ojalgo.scalar.RationalNumber;
 import org.ojalgo.structure.Access2D;
@@ -174,6 +183,43 @@ public class SingularValueTest {
 
     }
 
+    @Test
+    public void testPartial() {
+
+        final NumberContext tmpPrecision = new NumberContext(8, 8);
+
+        final Uniform tmpUniform = new Uniform(0, 300);
+        final Normal tmpNormal = new Normal();
+
+        final SparseStore<Double> tmpTall = SparseStore.PRIMITIVE.make(300, 100);
+        for (int j = 0; j < 100; j++) {
+            for (int k = 0; k < 5; k++) {
+                tmpTall.set(tmpUniform.intValue(), j, tmpNormal.doubleValue() * (ONE + (TEN / (ONE + j))));
+            }
+        }
+
+        for (final MatrixStore<Double> tmpMatrix : Arrays.asList(tmpTall, tmpTall.transpose().copy())) {
+
+            final SingularValue<Double> tmpFull = SingularValue.PRIMITIVE.make(tmpMatrix);
+            tmpFull.decompose(PrimitiveDenseStore.FACTORY.copy(tmpMatrix));
+
+            final SingularValue<Double> tmpPartial = SingularValue.makePartial(5);
+            TestUtils.assertTrue(tmpPartial.decompose(tmpMatrix));
+
+            TestUtils.assertEquals(tmpFull.getSingularValues().sliceRange(0, 5), tmpPartial.getSingularValues(), tmpPrecision);
+            TestUtils.assertEquals(ZERO, tmpMatrix.multiply(tmpPartial.getQ2()).subtract(tmpPartial.getQ1().multiply(tmpPartial.getD())).norm(), tmpPrecision);
+            TestUtils.assertEquals(MatrixStore.PRIMITIVE.makeIdentity(5).get(), tmpPartial.getQ1().transpose().multiply(tmpPartial.getQ1()), tmpPrecision);
+            TestUtils.assertEquals(tmpFull.getOperatorNorm(), tmpPartial.getOperatorNorm(), tmpPrecision);
+            TestUtils.assertEquals(5, tmpPartial.getRank());
+            TestUtils.assertFalse(tmpPartial.isFullRank());
+
+            // The pseudoinverse of the rank 5 approximation
+            final MatrixStore<Double> tmpApproximation = tmpPartial.reconstruct();
+            final MatrixStore<Double> tmpInverse = tmpPartial.getInverse();
+            TestUtils.assertEquals(ZERO, tmpApproximation.subtract(tmpApproximation.multiply(tmpInverse).multiply(tmpApproximation)).norm(), tmpPrecision);
+        }
+    }
+
     @Test
     public void testRandomActuallyComplexCase() {
 
@@ -225,6 +271,66 @@ public class SingularValueTest {
         this.doTestTypes(MTRX_TALL);
     }
 
+    @Test
+    public void testRandomised() {
+
+        final NumberContext tmpPrecision = new NumberContext(8, 8);
+
+        final Uniform tmpUniform = new Uniform(0, 1000);
+        final Normal tmpNormal = new Normal();
+
+        // Exactly rank 8 - dense, memory mapped (buffer) and sparse
+
+        final PrimitiveDenseStore tmpLeft = PrimitiveDenseStore.FACTORY.makeFilled(1000, 8, tmpNormal);
+        final PrimitiveDenseStore tmpRight = PrimitiveDenseStore.FACTORY.makeFilled(8, 150, tmpNormal);
+        final PrimitiveDenseStore tmpDense = PrimitiveDenseStore.FACTORY.makeZero(1000, 150);
+        tmpDense.fillByMultiplying(tmpLeft, tmpRight);
+
+        final SparseStore<Double> tmpSparse = SparseStore.PRIMITIVE.make(1000, 150);
+        for (int j = 0; j < 150; j += 20) {
+            for (int k = 0; k < 50; k++) {
+                tmpSparse.set(tmpUniform.intValue(), j, tmpNormal.doubleValue());
+            }
+        }
+
+        for (final MatrixStore<Double> tmpMatrix : Arrays.asList(tmpDense, BufferStore.FACTORY.copy(tmpDense), tmpDense.transpose().copy(), tmpSparse,
+                tmpSparse.transpose().copy())) {
+
+            final SingularValue<Double> tmpFull = SingularValue.PRIMITIVE.make(tmpMatrix);
+            tmpFull.decompose(PrimitiveDenseStore.FACTORY.copy(tmpMatrix));
+
+            final SingularValue<Double> tmpRandomised = SingularValue.makeRandomised(8);
+            TestUtils.assertTrue(tmpRandomised.decompose(tmpMatrix));
+
+            TestUtils.assertEquals(tmpFull.getSingularValues().sliceRange(0, 8), tmpRandomised.getSingularValues(), tmpPrecision);
+            TestUtils.assertEquals(ZERO, tmpMatrix.subtract(tmpRandomised.reconstruct()).norm() / tmpMatrix.norm(), tmpPrecision);
+            TestUtils.assertEquals(MatrixStore.PRIMITIVE.makeIdentity(8).get(), tmpRandomised.getQ1().transpose().multiply(tmpRandomised.getQ1()),
+                    tmpPrecision);
+            TestUtils.assertEquals(MatrixStore.PRIMITIVE.makeIdentity(8).get(), tmpRandomised.getQ2().transpose().multiply(tmpRandomised.getQ2()),
+                    tmpPrecision);
+        }
+
+        // Not low rank, but with decaying singular values - the largest are still found
+
+        final PrimitiveDenseStore tmpDecaying = PrimitiveDenseStore.FACTORY.makeFilled(1000, 150, tmpNormal);
+        for (int j = 0; j < 150; j++) {
+            final double tmpScale = POWER.invoke(HALF, j);
+            for (int i = 0; i < 1000; i++) {
+                tmpDecaying.set(i, j, tmpScale * tmpDecaying.doubleValue(i, j));
+            }
+        }
+
+        final SingularValue<Double> tmpFull = SingularValue.PRIMITIVE.make(tmpDecaying);
+        tmpFull.decompose(tmpDecaying);
+
+        final SingularValue<Double> tmpRandomised = SingularValue.makeRandomised(5);
+        TestUtils.assertTrue(tmpRandomised.decompose(tmpDecaying));
+
+        TestUtils.assertEquals(tmpFull.getSingularValues().sliceRange(0, 5), tmpRandomised.getSingularValues(), new NumberContext(6, 6));
+        TestUtils.assertEquals(ZERO, tmpDecaying.multiply(tmpRandomised.getQ2()).subtract(tmpRandomised.getQ1().multiply(tmpRandomised.getD())).norm(),
+                new NumberContext(6, 6));
+    }
+
     @Test
     public void testRecreationFat() {
 
@@ -0,0 +1,188 @@
+/*
+ * Copyright 1997-2018 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.matrix.store;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ReadOnlyBufferException;
+
+import org.junit.jupiter.api.Test;
+import org.ojalgo.TestUtils;
+import org.ojalgo.matrix.decomposition.Cholesky;
+import org.ojalgo.matrix.decomposition.LU;
+import org.ojalgo.matrix.decomposition.QR;
+import org.ojalgo.matrix.transformation.Householder;
+import org.ojalgo.matrix.transformation.Rotation;
+import org.ojalgo.random.Normal;
+import org.ojalgo.random.Uniform;
+
+public class BufferStoreTest {
+
+    public BufferStoreTest() {
+        super();
+    }
+
+    @Test
+    public void testDecompositions() {
+
+        final PrimitiveDenseStore dense = PrimitiveDenseStore.FACTORY.makeSPD(43);
+        final BufferStore buffer = BufferStore.FACTORY.copy(dense);
+        final PrimitiveDenseStore rhs = PrimitiveDenseStore.FACTORY.makeFilled(43, 3, new Normal());
+
+        final LU<Double> lu = LU.PRIMITIVE.make();
+        lu.decompose(dense);
+        final MatrixStore<Double> expected = lu.getSolution(rhs);
+        lu.decompose(buffer);
+        TestUtils.assertEquals(expected, lu.getSolution(BufferStore.FACTORY.copy(rhs)));
+
+        final QR<Double> qr = QR.PRIMITIVE.make();
+        qr.decompose(buffer);
+        TestUtils.assertEquals(expected, qr.getSolution(rhs));
+
+        final Cholesky<Double> cholesky = Cholesky.PRIMITIVE.make();
+        cholesky.decompose(buffer);
+        TestUtils.assertTrue(cholesky.isSolvable());
+        TestUtils.assertEquals(expected, cholesky.getSolution(rhs));
+    }
+
+    @Test
+    public void testMemoryMappedFile() throws IOException {
+
+        final File file = File.createTempFile("BufferStoreTest", ".bin");
+        file.deleteOnExit();
+
+        final PrimitiveDenseStore expected = PrimitiveDenseStore.FACTORY.makeFilled(97, 53, new Uniform());
+
+        final BufferStore writable = BufferStore.make(file, 97, 53);
+        writable.fillMatching(expected);
+        TestUtils.assertEquals(expected, writable);
+
+        TestUtils.assertEquals(8L * 97L * 53L, file.length());
+
+        final BufferStore readOnly = BufferStore.makeReadOnly(file, 97, 53);
+        TestUtils.assertEquals(expected, readOnly);
+
+        // Changes are visible through the other mapping
+        writable.set(7, 11, 3.14);
+        TestUtils.assertEquals(3.14, readOnly.doubleValue(7, 11));
+
+        try {
+            readOnly.set(0, 0, 1.0);
+            TestUtils.fail("Should not be possible to modify a read-only mapping!");
+        } catch (final ReadOnlyBufferException expectedException) {
+            // Expected
+        }
+
+        try {
+            BufferStore.makeReadOnly(file, 98, 53);
+            TestUtils.fail("The file is too small!");
+        } catch (final IllegalArgumentException expectedException) {
+            // Expected
+        }
+    }
+
+    @Test
+    public void testMultiply() {
+
+        final PrimitiveDenseStore denseA = PrimitiveDenseStore.FACTORY.makeFilled(37, 23, new Normal());
+        final PrimitiveDenseStore denseB = PrimitiveDenseStore.FACTORY.makeFilled(23, 29, new Normal());
+        final MatrixStore<Double> expected = denseA.multiply(denseB);
+
+        final BufferStore bufferA = BufferStore.FACTORY.copy(denseA);
+        final BufferStore bufferB = BufferStore.FACTORY.copy(denseB);
+
+        TestUtils.assertEquals(denseA, bufferA);
+        TestUtils.assertEquals(expected, bufferA.multiply(bufferB));
+        TestUtils.assertEquals(expected, bufferA.multiply(denseB));
+        TestUtils.assertEquals(expected, denseA.multiply(bufferB));
+
+        TestUtils.assertEquals(denseA.transpose(), BufferStore.FACTORY.transpose(denseA));
+        TestUtils.assertEquals(expected.transpose(), bufferB.transpose().multiply(bufferA.transpose()));
+
+        final BufferStore product = BufferStore.FACTORY.makeZero(37, 29);
+        product.fillByMultiplying(denseA, bufferB);
+        TestUtils.assertEquals(expected, product);
+    }
+
+    @Test
+    public void testSubstitute() {
+
+        final PrimitiveDenseStore body = PrimitiveDenseStore.FACTORY.makeSPD(11);
+        final PrimitiveDenseStore rhs = PrimitiveDenseStore.FACTORY.makeFilled(11, 5, new Normal());
+
+        for (final boolean unitDiagonal : new boolean[] { false, true }) {
+            for (final boolean conjugated : new boolean[] { false, true }) {
+                for (final boolean flag : new boolean[] { false, true }) {
+
+                    final PrimitiveDenseStore expectedBackwards = rhs.copy();
+                    final BufferStore actualBackwards = BufferStore.FACTORY.copy(rhs);
+                    expectedBackwards.substituteBackwards(body, unitDiagonal, conjugated, flag);
+                    actualBackwards.substituteBackwards(body, unitDiagonal, conjugated, flag);
+                    TestUtils.assertEquals(expectedBackwards, actualBackwards);
+
+                    final PrimitiveDenseStore expectedForwards = rhs.copy();
+                    final BufferStore actualForwards = BufferStore.FACTORY.copy(rhs);
+                    expectedForwards.substituteForwards(body, unitDiagonal, conjugated, flag);
+                    actualForwards.substituteForwards(body, unitDiagonal, conjugated, flag);
+                    TestUtils.assertEquals(expectedForwards, actualForwards);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testTransformations() {
+
+        final PrimitiveDenseStore expected = PrimitiveDenseStore.FACTORY.makeFilled(9, 9, new Normal());
+        final BufferStore actual = BufferStore.FACTORY.copy(expected);
+
+        final Normal random = new Normal();
+
+        final Householder.Primitive householder = new Householder.Primitive(9);
+        householder.first = 2;
+        double norm2 = 0.0;
+        for (int i = householder.first; i < 9; i++) {
+            householder.vector[i] = random.doubleValue();
+            norm2 += householder.vector[i] * householder.vector[i];
+        }
+        householder.beta = 2.0 / norm2;
+
+        expected.transformLeft(householder, 1);
+        actual.transformLeft(householder, 1);
+        TestUtils.assertEquals(expected, actual);
+
+        expected.transformRight(householder, 3);
+        actual.transformRight(householder, 3);
+        TestUtils.assertEquals(expected, actual);
+
+        final Rotation.Primitive rotation = new Rotation.Primitive(2, 6, Math.cos(0.3), Math.sin(0.3));
+
+        expected.transformLeft(rotation);
+        actual.transformLeft(rotation);
+        TestUtils.assertEquals(expected, actual);
+
+        expected.transformRight(rotation);
+        actual.transformRight(rotation);
+        TestUtils.assertEquals(expected, actual);
+    }
+
+}
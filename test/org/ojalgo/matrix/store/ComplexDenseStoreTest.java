@@ -0,0 +1,182 @@
+/*
+ * Copyright 1997-2018 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.matrix.store;
+
+import org.junit.jupiter.api.Test;
+import org.ojalgo.TestUtils;
+import org.ojalgo.array.ComplexSplitArray;
+import org.ojalgo.function.ComplexFunction;
+import org.ojalgo.matrix.decomposition.Cholesky;
+import org.ojalgo.matrix.decomposition.LU;
+import org.ojalgo.matrix.decomposition.QR;
+import org.ojalgo.matrix.transformation.Householder;
+import org.ojalgo.matrix.transformation.Rotation;
+import org.ojalgo.random.Normal;
+import org.ojalgo.scalar.ComplexNumber;
+import org.ojalgo.structure.Access2D;
+import org.ojalgo.type.context.NumberContext;
+
+public class ComplexDenseStoreTest {
+
+    private static final NumberContext PRECISION = new NumberContext(12, 12);
+
+    static void assertComplexEquals(final Access2D<ComplexNumber> expected, final Access2D<ComplexNumber> actual) {
+
+        TestUtils.assertEquals(expected.countRows(), actual.countRows());
+        TestUtils.assertEquals(expected.countColumns(), actual.countColumns());
+
+        double tmpNormDiff = 0.0;
+        double tmpNormExpt = 0.0;
+        for (long i = 0L; i < expected.count(); i++) {
+            tmpNormDiff = Math.hypot(tmpNormDiff, actual.get(i).subtract(expected.get(i)).norm());
+            tmpNormExpt = Math.hypot(tmpNormExpt, expected.get(i).norm());
+        }
+        TestUtils.assertTrue(tmpNormDiff + " !<< " + tmpNormExpt, PRECISION.isSmall(tmpNormExpt, tmpNormDiff));
+    }
+
+    static GenericDenseStore<ComplexNumber> makeRandom(final int rows, final int columns) {
+
+        final Normal tmpNormal = new Normal();
+
+        final GenericDenseStore<ComplexNumber> retVal = GenericDenseStore.COMPLEX.makeZero(rows, columns);
+        for (int j = 0; j < columns; j++) {
+            for (int i = 0; i < rows; i++) {
+                retVal.set(i, j, ComplexNumber.of(tmpNormal.doubleValue(), tmpNormal.doubleValue()));
+            }
+        }
+        return retVal;
+    }
+
+    public ComplexDenseStoreTest() {
+        super();
+    }
+
+    @Test
+    public void testDecompositions() {
+
+        final GenericDenseStore<ComplexNumber> random = ComplexDenseStoreTest.makeRandom(43, 43);
+        final ComplexDenseStore body = ComplexDenseStore.FACTORY.copy(random);
+        final ComplexDenseStore rhs = ComplexDenseStore.FACTORY.copy(ComplexDenseStoreTest.makeRandom(43, 3));
+
+        final LU<ComplexNumber> lu = LU.COMPLEX.make();
+        lu.decompose(body);
+        ComplexDenseStoreTest.assertComplexEquals(rhs, body.multiply(lu.getSolution(rhs)));
+
+        final QR<ComplexNumber> qr = QR.COMPLEX.make();
+        qr.decompose(body);
+        ComplexDenseStoreTest.assertComplexEquals(rhs, body.multiply(qr.getSolution(rhs)));
+
+        // A Hermitian positive definite matrix
+        final ComplexDenseStore hermitian = ComplexDenseStore.FACTORY.makeEye(43, 43);
+        hermitian.modifyAll(ComplexFunction.MULTIPLY.second(ComplexNumber.valueOf(43.0)));
+        hermitian.modifyMatching(ComplexFunction.ADD, body.conjugate().multiply(body));
+
+        final Cholesky<ComplexNumber> cholesky = Cholesky.COMPLEX.make();
+        cholesky.decompose(hermitian);
+        TestUtils.assertTrue(cholesky.isSolvable());
+        ComplexDenseStoreTest.assertComplexEquals(rhs, hermitian.multiply(cholesky.getSolution(rhs)));
+    }
+
+    @Test
+    public void testMultiply() {
+
+        final GenericDenseStore<ComplexNumber> genericA = ComplexDenseStoreTest.makeRandom(37, 23);
+        final GenericDenseStore<ComplexNumber> genericB = ComplexDenseStoreTest.makeRandom(23, 29);
+        final MatrixStore<ComplexNumber> expected = genericA.multiply(genericB);
+
+        final ComplexDenseStore splitA = ComplexDenseStore.FACTORY.copy(genericA);
+        final ComplexDenseStore splitB = ComplexDenseStore.FACTORY.copy(genericB);
+
+        ComplexDenseStoreTest.assertComplexEquals(genericA, splitA);
+        ComplexDenseStoreTest.assertComplexEquals(expected, splitA.multiply(splitB));
+        ComplexDenseStoreTest.assertComplexEquals(expected, splitA.multiply(genericB));
+
+        final ComplexDenseStore product = ComplexDenseStore.FACTORY.makeZero(37, 29);
+        product.fillByMultiplying(genericA, splitB);
+        ComplexDenseStoreTest.assertComplexEquals(expected, product);
+
+        ComplexDenseStoreTest.assertComplexEquals(genericA.conjugate(), ComplexDenseStore.FACTORY.conjugate(splitA));
+        ComplexDenseStoreTest.assertComplexEquals(genericA.transpose(), ComplexDenseStore.FACTORY.transpose(splitA));
+        ComplexDenseStoreTest.assertComplexEquals(expected.conjugate(), splitB.conjugate().multiply(splitA.conjugate()));
+    }
+
+    @Test
+    public void testSplitArray() {
+
+        final ComplexSplitArray array = ComplexSplitArray.make(5);
+        array.set(1, ComplexNumber.of(1.0, -2.0));
+        array.add(1, ComplexNumber.I);
+        array.set(3, 4.0);
+
+        TestUtils.assertEquals(ComplexNumber.of(1.0, -1.0), array.get(1));
+        TestUtils.assertEquals(1.0, array.real[1]);
+        TestUtils.assertEquals(-1.0, array.imaginary[1]);
+        TestUtils.assertEquals(4.0, array.doubleValue(3));
+        TestUtils.assertEquals(3L, array.indexOfLargest());
+    }
+
+    @Test
+    public void testTransformations() {
+
+        final GenericDenseStore<ComplexNumber> generic = ComplexDenseStoreTest.makeRandom(17, 13);
+        final ComplexDenseStore split = ComplexDenseStore.FACTORY.copy(generic);
+
+        final Householder<ComplexNumber> genericColumn = GenericDenseStore.COMPLEX.makeHouseholder(17);
+        final Householder<ComplexNumber> splitColumn = ComplexDenseStore.FACTORY.makeHouseholder(17);
+        TestUtils.assertTrue(generic.generateApplyAndCopyHouseholderColumn(2, 1, genericColumn));
+        TestUtils.assertTrue(split.generateApplyAndCopyHouseholderColumn(2, 1, splitColumn));
+        ComplexDenseStoreTest.assertComplexEquals(generic, split);
+
+        generic.transformLeft(genericColumn, 2);
+        split.transformLeft(splitColumn, 2);
+        ComplexDenseStoreTest.assertComplexEquals(generic, split);
+
+        final Householder<ComplexNumber> genericRow = GenericDenseStore.COMPLEX.makeHouseholder(13);
+        final Householder<ComplexNumber> splitRow = ComplexDenseStore.FACTORY.makeHouseholder(13);
+        TestUtils.assertTrue(generic.generateApplyAndCopyHouseholderRow(3, 4, genericRow));
+        TestUtils.assertTrue(split.generateApplyAndCopyHouseholderRow(3, 4, splitRow));
+        ComplexDenseStoreTest.assertComplexEquals(generic, split);
+
+        generic.transformRight(genericRow, 4);
+        split.transformRight(splitRow, 4);
+        ComplexDenseStoreTest.assertComplexEquals(generic, split);
+
+        final ComplexNumber cos = ComplexNumber.makePolar(0.6, 0.3);
+        final ComplexNumber sin = ComplexNumber.makePolar(0.8, -1.1);
+        generic.transformLeft(new Rotation.Generic<>(3, 7, cos, sin));
+        split.transformLeft(new Rotation.Generic<>(3, 7, cos, sin));
+        generic.transformRight(new Rotation.Generic<>(2, 5, cos, sin));
+        split.transformRight(new Rotation.Generic<>(2, 5, cos, sin));
+        ComplexDenseStoreTest.assertComplexEquals(generic, split);
+
+        final GenericDenseStore<ComplexNumber> genericRHS = ComplexDenseStoreTest.makeRandom(13, 4);
+        final ComplexDenseStore splitRHS = ComplexDenseStore.FACTORY.copy(genericRHS);
+        final MatrixStore<ComplexNumber> upper = generic.logical().limits(13, 13).triangular(true, false).get();
+        genericRHS.substituteBackwards(upper, false, false, false);
+        splitRHS.substituteBackwards(split.logical().limits(13, 13).triangular(true, false).get(), false, false, false);
+        ComplexDenseStoreTest.assertComplexEquals(genericRHS, splitRHS);
+        genericRHS.substituteForwards(generic, true, true, false);
+        splitRHS.substituteForwards(split, true, true, false);
+        ComplexDenseStoreTest.assertComplexEquals(genericRHS, splitRHS);
+    }
+
+}
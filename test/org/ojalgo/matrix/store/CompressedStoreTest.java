@@ -0,0 +1,187 @@
+/*
+ * Copyright 1997-2018 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.matrix.store;
+
+import org.junit.jupiter.api.Test;
+import org.ojalgo.TestUtils;
+import org.ojalgo.function.PrimitiveFunction;
+import org.ojalgo.matrix.store.operation.MultiplySparse;
+import org.ojalgo.random.Uniform;
+
+public class CompressedStoreTest {
+
+    public CompressedStoreTest() {
+        super();
+    }
+
+    @Test
+    public void testBuilderSortsAndSumsDuplicates() {
+
+        final CompressedRowStore.Builder builder = CompressedRowStore.builder(3, 4);
+        builder.add(2, 3, 1.0).add(0, 1, 2.0).add(2, 0, 3.0).add(0, 1, 4.0).add(1, 2, 5.0).add(1, 2, -5.0);
+
+        final CompressedRowStore csr = builder.build();
+
+        TestUtils.assertEquals(3, csr.countNonzeros());
+        TestUtils.assertEquals(6.0, csr.doubleValue(0, 1));
+        TestUtils.assertEquals(0.0, csr.doubleValue(1, 2));
+        TestUtils.assertEquals(3.0, csr.doubleValue(2, 0));
+        TestUtils.assertEquals(1.0, csr.doubleValue(2, 3));
+
+        TestUtils.assertEquals(1, csr.firstInRow(0));
+        TestUtils.assertEquals(2, csr.limitOfRow(0));
+        TestUtils.assertEquals(4, csr.firstInRow(1));
+        TestUtils.assertEquals(0, csr.limitOfRow(1));
+
+        final CompressedColumnStore csc = CompressedColumnStore.copy(csr);
+        TestUtils.assertEquals(csr, csc);
+        TestUtils.assertEquals(csr.transpose(), csc.transpose());
+    }
+
+    @Test
+    public void testMultiply() {
+
+        final SparseStore<Double> sparseA = SparseStore.makePrimitive(17, 23);
+        final SparseStore<Double> sparseB = SparseStore.makePrimitive(23, 19);
+        SparsePerformance.fill(sparseA);
+        SparsePerformance.fill(sparseB);
+
+        final PhysicalStore<Double> denseA = sparseA.copy();
+        final PhysicalStore<Double> denseB = sparseB.copy();
+        final MatrixStore<Double> expected = denseA.multiply(denseB);
+
+        final CompressedRowStore csrA = CompressedRowStore.copy(sparseA);
+        final CompressedColumnStore cscA = CompressedColumnStore.copy(denseA);
+        final CompressedRowStore csrB = CompressedRowStore.copy(sparseB);
+        final CompressedColumnStore cscB = CompressedColumnStore.copy(sparseB);
+
+        TestUtils.assertEquals(denseA, csrA);
+        TestUtils.assertEquals(denseA, cscA);
+
+        TestUtils.assertEquals(expected, csrA.multiply(denseB));
+        TestUtils.assertEquals(expected, cscA.multiply(denseB));
+        TestUtils.assertEquals(expected, csrA.multiply(csrB));
+        TestUtils.assertEquals(expected, cscA.multiply(cscB));
+
+        TestUtils.assertEquals(expected, csrB.premultiply(denseA).get());
+        TestUtils.assertEquals(expected, cscB.premultiply(denseA).get());
+
+        final SparseStore<Double> sparseC = SparseStore.makePrimitive(17, 19);
+        csrA.multiply(denseB, sparseC);
+        TestUtils.assertEquals(expected, sparseC);
+        cscA.multiply(denseB, sparseC);
+        TestUtils.assertEquals(expected, sparseC);
+
+        TestUtils.assertEquals(denseA.transpose(), csrA.transpose());
+        TestUtils.assertEquals(denseB.transpose().multiply(denseA.transpose()), cscB.transpose().multiply(cscA.transpose()));
+    }
+
+    /**
+     * The CSR copy, used for sparse-dense multiplication, is reused until the sparse store is modified
+     */
+    @Test
+    public void testMultiplyCompressedRowsCached() {
+
+        final SparseStore<Double> sparse = SparseStore.makePrimitive(200, 100);
+        for (int i = 0; i < 1000; i++) {
+            sparse.set(Uniform.randomInteger(200), Uniform.randomInteger(100), Math.random());
+        }
+
+        final PhysicalStore<Double> vector = PrimitiveDenseStore.FACTORY.makeFilled(100, 1, new Uniform());
+
+        final int threshold = MultiplySparse.THRESHOLD;
+        try {
+            MultiplySparse.THRESHOLD = 16;
+
+            TestUtils.assertEquals(sparse.copy().multiply(vector), sparse.multiply(vector));
+            final CompressedRowStore cached = sparse.getCompressedRows();
+            TestUtils.assertEquals(sparse.copy().multiply(vector), sparse.multiply(vector));
+            TestUtils.assertTrue(cached == sparse.getCompressedRows());
+
+            sparse.set(3, 5, 7.0);
+            TestUtils.assertFalse(cached == sparse.getCompressedRows());
+            TestUtils.assertEquals(sparse.copy().multiply(vector), sparse.multiply(vector));
+
+            sparse.add(4, 6, 1.0);
+            TestUtils.assertEquals(sparse.copy().multiply(vector), sparse.multiply(vector));
+
+            sparse.modifyMatching(PrimitiveFunction.MULTIPLY, sparse.copy());
+            TestUtils.assertEquals(sparse.copy().multiply(vector), sparse.multiply(vector));
+
+            sparse.reset();
+            TestUtils.assertEquals(0, sparse.getCompressedRows().countNonzeros());
+
+        } finally {
+            MultiplySparse.THRESHOLD = threshold;
+        }
+    }
+
+    @Test
+    public void testMultiplyParallel() {
+
+        final SparseStore<Double> sparseA = SparseStore.makePrimitive(500, 300);
+        final SparseStore<Double> sparseB = SparseStore.makePrimitive(300, 400);
+        for (int i = 0; i < 3000; i++) {
+            sparseA.set(Uniform.randomInteger(500), Uniform.randomInteger(300), Math.random());
+            sparseB.set(Uniform.randomInteger(300), Uniform.randomInteger(400), Math.random());
+        }
+        // A few dense rows to make the nonzeros unevenly distributed
+        for (int j = 0; j < 300; j++) {
+            sparseA.set(7, j, Math.random());
+            sparseA.set(8, j, Math.random());
+        }
+
+        final PhysicalStore<Double> denseA = sparseA.copy();
+        final PhysicalStore<Double> denseB = sparseB.copy();
+        final PhysicalStore<Double> vector = PrimitiveDenseStore.FACTORY.makeFilled(300, 1, new Uniform());
+
+        final int threshold = MultiplySparse.THRESHOLD;
+        try {
+            MultiplySparse.THRESHOLD = 16;
+
+            TestUtils.assertEquals(denseA.multiply(vector), sparseA.multiply(vector));
+            TestUtils.assertEquals(denseA.multiply(denseB), sparseA.multiply(denseB));
+            TestUtils.assertEquals(denseA.multiply(denseB), sparseA.multiply(sparseB));
+
+        } finally {
+            MultiplySparse.THRESHOLD = threshold;
+        }
+    }
+
+    @Test
+    public void testPartitionByNonzeros() {
+
+        final int[] pointers = new int[] { 0, 100, 100, 101, 102, 103, 104, 105, 106, 200 };
+
+        final int[] boundaries = MultiplySparse.partition(pointers, 9, 4);
+
+        TestUtils.assertEquals(0, boundaries[0]);
+        TestUtils.assertEquals(9, boundaries[4]);
+        for (int p = 0; p < 4; p++) {
+            TestUtils.assertTrue(boundaries[p] <= boundaries[p + 1]);
+        }
+        // The first row alone has half of the nonzeros
+        TestUtils.assertEquals(1, boundaries[1]);
+        TestUtils.assertEquals(1, boundaries[2]);
+    }
+
+}
@@ -33,6 +33,40 @@ public class MultiplicationTest {
         super();
     }
 
+    @Test
+    public void testBlockedMultiplication() {
+
+        final int[][] shapes = new int[][] { { 150, 140, 130 }, { 257, 131, 263 }, { 133, 600, 201 } };
+
+        for (int s = 0; s < shapes.length; s++) {
+
+            final int rows = shapes[s][0];
+            final int columns = shapes[s][1];
+            final int complexity = shapes[s][2];
+
+            final PrimitiveDenseStore left = PrimitiveDenseStore.FACTORY.makeFilled(rows, complexity, new Normal());
+            final PrimitiveDenseStore right = PrimitiveDenseStore.FACTORY.makeFilled(complexity, columns, new Uniform());
+
+            final PrimitiveDenseStore expected = PrimitiveDenseStore.FACTORY.makeZero(rows, columns);
+            for (int j = 0; j < columns; j++) {
+                for (int i = 0; i < rows; i++) {
+                    double sum = 0.0;
+                    for (int c = 0; c < complexity; c++) {
+                        sum += left.doubleValue(i, c) * right.doubleValue(c, j);
+                    }
+                    expected.set(i, j, sum);
+                }
+            }
+
+            final PrimitiveDenseStore blocked = PrimitiveDenseStore.FACTORY.makeZero(rows, columns);
+            blocked.fillByMultiplying(left, right);
+            TestUtils.assertEquals(expected, blocked);
+
+            final RawStore raw = RawStore.FACTORY.copy(left).multiply(RawStore.FACTORY.copy(right));
+            TestUtils.assertEquals(expected, raw);
+        }
+    }
+
     @Test
     @Tag("slow")
     public void testRepeatedMultiplications() {
@@ -0,0 +1,144 @@
+/*
+ * Copyright 1997-2018 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.matrix.store;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.ojalgo.TestUtils;
+import org.ojalgo.array.RationalSplitArray;
+import org.ojalgo.matrix.decomposition.LU;
+import org.ojalgo.scalar.RationalNumber;
+import org.ojalgo.type.context.NumberContext;
+
+public class RationalDenseStoreTest {
+
+    static RationalDenseStore makeHilbert(final int dim) {
+        final RationalDenseStore retVal = RationalDenseStore.FACTORY.makeZero(dim, dim);
+        for (int j = 0; j < dim; j++) {
+            for (int i = 0; i < dim; i++) {
+                retVal.set(i, j, RationalNumber.of(1L, 1L + i + j));
+            }
+        }
+        return retVal;
+    }
+
+    @Test
+    public void testExactLU() {
+
+        // The Hilbert matrix is notoriously ill-conditioned - with exact arithmetic that doesn't matter
+        final int tmpDim = 9;
+        final RationalDenseStore tmpBody = RationalDenseStoreTest.makeHilbert(tmpDim);
+
+        final RationalDenseStore tmpExpected = RationalDenseStore.FACTORY.makeZero(tmpDim, 1);
+        tmpExpected.fillAll(RationalNumber.ONE);
+
+        final MatrixStore<RationalNumber> tmpRHS = tmpBody.multiply(tmpExpected);
+
+        final LU<RationalNumber> tmpLU = LU.RATIONAL.make(tmpBody);
+        tmpLU.decompose(tmpBody);
+
+        final MatrixStore<RationalNumber> tmpSolution = tmpLU.getSolution(tmpRHS);
+
+        for (int i = 0; i < tmpDim; i++) {
+            // Exactly, not just approximately
+            TestUtils.assertTrue(RationalNumber.ONE.equals(tmpSolution.get(i, 0)));
+        }
+    }
+
+    @Test
+    public void testMultiply() {
+
+        final Random tmpRandom = new Random(123L);
+
+        final GenericDenseStore<RationalNumber> tmpLeft = GenericDenseStore.RATIONAL.makeZero(7, 5);
+        final GenericDenseStore<RationalNumber> tmpRight = GenericDenseStore.RATIONAL.makeZero(5, 3);
+        for (long i = 0L; i < tmpLeft.count(); i++) {
+            tmpLeft.set(i, RationalNumber.of(tmpRandom.nextInt(201) - 100, 1 + tmpRandom.nextInt(50)));
+        }
+        for (long i = 0L; i < tmpRight.count(); i++) {
+            tmpRight.set(i, RationalNumber.of(tmpRandom.nextInt(201) - 100, 1 + tmpRandom.nextInt(50)));
+        }
+
+        final MatrixStore<RationalNumber> tmpExpected = tmpLeft.multiply(tmpRight);
+        final MatrixStore<RationalNumber> tmpActual = RationalDenseStore.FACTORY.copy(tmpLeft).multiply(RationalDenseStore.FACTORY.copy(tmpRight));
+
+        for (long i = 0L; i < tmpExpected.count(); i++) {
+            TestUtils.assertTrue(tmpExpected.get(i).equals(tmpActual.get(i)));
+        }
+    }
+
+    @Test
+    public void testOverflowPromotion() {
+
+        final RationalSplitArray tmpArray = RationalSplitArray.make(2);
+        tmpArray.set(0, RationalNumber.of(1L << 62, 3L));
+        tmpArray.set(1, RationalNumber.of(5L, 7L));
+
+        // (2^62/3)^2 doesn't fit in a long
+        tmpArray.addProduct(1, tmpArray, 0, tmpArray, 0);
+        TestUtils.assertTrue(tmpArray.isBig(1));
+        TestUtils.assertFalse(tmpArray.isBig(0));
+
+        // ...but subtracting it again is exact and brings it back to the primitive arrays
+        tmpArray.subtractProduct(1, tmpArray, 0, tmpArray, 0);
+        TestUtils.assertFalse(tmpArray.isBig(1));
+        TestUtils.assertEquals(5L, tmpArray.numerator[1]);
+        TestUtils.assertEquals(7L, tmpArray.denominator[1]);
+
+        // 7 * 2^62 / 15
+        tmpArray.divide(0, tmpArray, 1);
+        TestUtils.assertTrue(tmpArray.isBig(0));
+
+        tmpArray.divide(0, tmpArray, 0);
+        TestUtils.assertFalse(tmpArray.isBig(0));
+        TestUtils.assertEquals(1L, tmpArray.numerator[0]);
+        TestUtils.assertEquals(1L, tmpArray.denominator[0]);
+    }
+
+    @Test
+    public void testPromotedDivisor() {
+
+        final RationalSplitArray tmpArray = RationalSplitArray.make(3);
+        tmpArray.set(0, RationalNumber.of(1L << 62, 3L));
+        tmpArray.set(1, RationalNumber.of(5L, 7L));
+        tmpArray.set(2, RationalNumber.of(1L << 61, 5L));
+
+        // 7 * 2^62 / 15 and 7 * 2^61 / 25
+        tmpArray.divide(0, tmpArray, 1);
+        tmpArray.divide(2, tmpArray, 1);
+        TestUtils.assertTrue(tmpArray.isBig(0));
+        TestUtils.assertTrue(tmpArray.isBig(2));
+
+        // Both promoted - exactly 10/3
+        tmpArray.divide(0, tmpArray, 2);
+        TestUtils.assertFalse(tmpArray.isBig(0));
+        TestUtils.assertEquals(10L, tmpArray.numerator[0]);
+        TestUtils.assertEquals(3L, tmpArray.denominator[0]);
+
+        // Only the divisor promoted - 125 / (49 * 2^61)
+        tmpArray.divide(1, tmpArray, 2);
+        TestUtils.assertTrue(tmpArray.isBig(1));
+        TestUtils.assertEquals(1.0, (tmpArray.doubleValue(1) * 49.0 * (1L << 61)) / 125.0, NumberContext.getGeneral(12));
+    }
+
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright 1997-2018 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.matrix.store.operation;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import org.junit.jupiter.api.Test;
+import org.ojalgo.TestUtils;
+
+/**
+ * @author apete
+ */
+public class ThresholdProfileTest {
+
+    @Test
+    public void testCalibrationDoesNotChangeActiveThresholds() {
+
+        final ThresholdProfile before = ThresholdProfile.current();
+
+        final ThresholdProfile calibrated = ThresholdProfile.calibrate(32);
+
+        TestUtils.assertEquals(before.toString(), ThresholdProfile.current().toString());
+
+        // Either a benchmarked size where parallel execution paid off, or the value it had before
+        for (final String operation : ThresholdProfile.operations()) {
+            final int threshold = calibrated.getThreshold(operation);
+            TestUtils.assertTrue(operation, (threshold == before.getThreshold(operation)) || (threshold == 16) || (threshold == 32));
+        }
+    }
+
+    @Test
+    public void testSaveLoadApply() throws IOException {
+
+        final ThresholdProfile original = ThresholdProfile.current();
+
+        final ThresholdProfile modified = ThresholdProfile.current();
+        modified.setThreshold("MultiplyBoth", 123);
+        modified.setThreshold("ApplyLU", 456);
+
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        modified.save(output);
+
+        final ThresholdProfile loaded = ThresholdProfile.load(new ByteArrayInputStream(output.toByteArray()));
+
+        TestUtils.assertEquals(123, loaded.getThreshold("MultiplyBoth"));
+        TestUtils.assertEquals(456, loaded.getThreshold("ApplyLU"));
+
+        try {
+            loaded.apply();
+            TestUtils.assertEquals(123, MultiplyBoth.THRESHOLD);
+            TestUtils.assertEquals(456, ApplyLU.THRESHOLD);
+        } finally {
+            original.apply();
+        }
+
+        TestUtils.assertEquals(original.toString(), ThresholdProfile.current().toString());
+    }
+
+}
@@ -0,0 +1,268 @@
+/*
+ * Copyright 1997-2018 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.optimisation;
+
+import static org.ojalgo.constant.BigMath.*;
+
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.Set;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.Test;
+import org.ojalgo.TestUtils;
+import org.ojalgo.netio.BasicLogger;
+import org.ojalgo.random.Uniform;
+import org.ojalgo.structure.Structure1D.IntIndex;
+import org.ojalgo.type.context.NumberContext;
+
+public class PresolveTest {
+
+    private static ExpressionsBasedModel makeKnapsacks(final int numberOfItems, final int numberOfKnapsacks) {
+
+        final Uniform weights = new Uniform(1, 9);
+
+        final ExpressionsBasedModel retVal = new ExpressionsBasedModel();
+
+        for (int i = 0; i < numberOfItems; i++) {
+            retVal.addVariable("X" + i).integer(true).lower(ZERO).upper(THREE).weight(BigDecimal.valueOf(Math.floor(weights.doubleValue())));
+        }
+
+        for (int k = 0; k < numberOfKnapsacks; k++) {
+            final Expression knapsack = retVal.addExpression("K" + k).upper(BigDecimal.valueOf(10 * (k + 1)));
+            for (int i = 0; i < numberOfItems; i++) {
+                if (((i + k) % 3) != 0) {
+                    knapsack.set(i, BigDecimal.valueOf(Math.floor(weights.doubleValue())));
+                }
+            }
+        }
+
+        // An item that has value but takes no space, and an item without value
+        retVal.addExpression("FREE").lower(ONE).set(0, ONE).set(1, ONE);
+
+        return retVal;
+    }
+
+    @Test
+    public void testBoundPropagation() {
+
+        final ExpressionsBasedModel model = new ExpressionsBasedModel();
+        final Variable x = model.addVariable("X").integer(true).lower(ZERO).upper(TEN);
+        final Variable y = model.addVariable("Y").integer(true).lower(ZERO).upper(TEN);
+        final Variable z = model.addVariable("Z").lower(ZERO).upper(TEN);
+
+        final Expression expression = model.addExpression("E").upper(SEVEN).set(x, THREE).set(y, TWO).set(z, ONE);
+
+        final boolean fixed = Presolvers.BOUND_PROPAGATION.simplify(expression, Collections.emptySet(), ZERO, model::getVariable, model.options.feasibility);
+
+        TestUtils.assertFalse(fixed);
+        TestUtils.assertFalse(expression.isInfeasible());
+        TestUtils.assertEquals(TWO, x.getUpperLimit());
+        TestUtils.assertEquals(THREE, y.getUpperLimit());
+        // Continuous variables are not tightened
+        TestUtils.assertEquals(TEN, z.getUpperLimit());
+
+        expression.lower(HUNDRED);
+
+        Presolvers.BOUND_PROPAGATION.simplify(expression, Collections.emptySet(), ZERO, model::getVariable, model.options.feasibility);
+
+        TestUtils.assertTrue(expression.isInfeasible());
+    }
+
+    /**
+     * A long chain of equality constraints where fixing the first variable makes it possible to fix the next,
+     * and so on. With the worklist only the constraints next to a newly fixed variable are re-evaluated.
+     */
+    @Test
+    public void testChainIsPropagatedIncrementally() {
+
+        final int length = 500;
+
+        final ExpressionsBasedModel model = new ExpressionsBasedModel();
+        for (int i = 0; i < length; i++) {
+            model.addVariable("X" + i).lower(ZERO).upper(BigDecimal.valueOf(length + 10));
+        }
+        // Added in reverse order to make sure the worklist, not the iteration order, does the job
+        for (int i = length - 1; i > 0; i--) {
+            model.addExpression("C" + i).level(ONE).set(i, ONE).set(i - 1, NEG);
+        }
+        model.addExpression("START").level(THREE).set(0, ONE);
+
+        model.presolve();
+
+        for (int i = 0; i < length; i++) {
+            final Variable variable = model.getVariable(i);
+            TestUtils.assertTrue(variable.isFixed());
+            TestUtils.assertEquals(BigDecimal.valueOf(3 + i), variable.getValue());
+        }
+
+        final PresolveStatistics statistics = model.getPresolveStatistics();
+
+        if (OptimisationTests.DEBUG) {
+            BasicLogger.debug(statistics);
+        }
+
+        TestUtils.assertEquals(length, statistics.countFixedVariables());
+        TestUtils.assertTrue(statistics.countEvaluations() <= (6 * length));
+        TestUtils.assertTrue(statistics.countInvocations(Presolvers.ZERO_ONE_TWO) > 0L);
+        TestUtils.assertTrue(statistics.getTotalNanos() > 0L);
+    }
+
+    @Test
+    public void testDualFixing() {
+
+        final ExpressionsBasedModel model = new ExpressionsBasedModel();
+        final Variable x = model.addVariable("X").lower(ZERO).upper(TEN).weight(ONE);
+        final Variable y = model.addVariable("Y").lower(ZERO).upper(TEN).weight(TWO);
+        final Variable z = model.addVariable("Z").lower(ONE).upper(TEN).weight(ONE);
+
+        model.addExpression("DEMAND").lower(FIVE).set(x, ONE).set(y, ONE);
+        model.addExpression("BALANCE").upper(FOUR).set(z, ONE).set(x, NEG);
+        model.addExpression("CAP").upper(EIGHT).set(x, ONE).set(y, ONE);
+
+        final Optimisation.Result reference = model.minimise();
+
+        // The user's model is never dual fixed - the objective may change
+        TestUtils.assertFalse(z.isFixed());
+        TestUtils.assertEquals(0L, model.getPresolveStatistics().countDualFixings());
+
+        final ExpressionsBasedModel workCopy = model.relax(false);
+        workCopy.presolve();
+
+        // Z only ever makes constraints harder to satisfy when it increases, and costs to increase
+        TestUtils.assertTrue(workCopy.getVariable(z.getIndex()).isFixed());
+        TestUtils.assertEquals(ONE, workCopy.getVariable(z.getIndex()).getValue());
+        // X and Y are needed to satisfy DEMAND
+        TestUtils.assertFalse(workCopy.getVariable(x.getIndex()).isFixed());
+        TestUtils.assertFalse(workCopy.getVariable(y.getIndex()).isFixed());
+        TestUtils.assertTrue(workCopy.getPresolveStatistics().countDualFixings() >= 1L);
+
+        TestUtils.assertEquals(reference.getValue(), workCopy.minimise().getValue(), 1E-9);
+
+        // Maximising the same (user) model is not affected by what the work copy did
+        TestUtils.assertEquals(20.0, model.maximise().getValue(), 1E-9);
+    }
+
+    /**
+     * A presolver may modify variables that are not part of the expression it simplifies, provided it
+     * resolves them using the supplied variable resolver. Only the constraints of those variables are
+     * re-evaluated.
+     */
+    @Test
+    public void testPresolverModifiesOtherVariable() {
+
+        final ExpressionsBasedModel model = new ExpressionsBasedModel();
+        final Variable x = model.addVariable("X").lower(ZERO).upper(TEN);
+        final Variable y = model.addVariable("Y").lower(ZERO).upper(TEN);
+        final Variable z = model.addVariable("Z").lower(ZERO).upper(TEN);
+
+        model.addExpression("NEXT").level(FIVE).set(y, ONE).set(z, ONE);
+        final Expression link = model.addExpression("LINK").upper(THREE).set(x, ONE);
+
+        final ExpressionsBasedModel.Presolver other = new ExpressionsBasedModel.Presolver(1) {
+
+            @Override
+            public boolean simplify(final Expression expression, final Set<IntIndex> fixedVariables, final BigDecimal fixedValue,
+                    final Function<IntIndex, Variable> variableResolver, final NumberContext precision) {
+                if ((expression == link) && !fixedVariables.contains(y.getIndex())) {
+                    variableResolver.apply(y.getIndex()).setFixed(TWO);
+                    return true;
+                } else {
+                    return false;
+                }
+            }
+
+        };
+
+        ExpressionsBasedModel.addPresolver(other);
+        try {
+            model.presolve();
+        } finally {
+            ExpressionsBasedModel.removePresolver(other);
+        }
+
+        // NEXT was re-evaluated after Y was fixed, and Z could then be fixed too
+        TestUtils.assertTrue(z.isFixed());
+        TestUtils.assertEquals(THREE, z.getValue());
+        TestUtils.assertFalse(x.isFixed());
+
+        final PresolveStatistics statistics = model.getPresolveStatistics();
+        TestUtils.assertEquals(2L, statistics.countFixedVariables());
+        TestUtils.assertEquals(3L, statistics.countEvaluations());
+    }
+
+    @Test
+    public void testSameSolutionWithoutPresolvers() {
+
+        for (int r = 0; r < 5; r++) {
+
+            final ExpressionsBasedModel model = PresolveTest.makeKnapsacks(12, 3);
+
+            final Optimisation.Result presolved = model.maximise();
+
+            final ExpressionsBasedModel.Presolver[] defaults = { Presolvers.ZERO_ONE_TWO, Presolvers.OPPOSITE_SIGN, Presolvers.BOUND_PROPAGATION };
+
+            Optimisation.Result plain;
+            try {
+                ExpressionsBasedModel.clearPresolvers();
+                plain = model.copy().maximise();
+            } finally {
+                for (final ExpressionsBasedModel.Presolver presolver : defaults) {
+                    ExpressionsBasedModel.addPresolver(presolver);
+                }
+            }
+
+            if (OptimisationTests.DEBUG) {
+                BasicLogger.debug("Presolved: {}", presolved);
+                BasicLogger.debug("Plain: {}", plain);
+                BasicLogger.debug(model.getPresolveStatistics());
+            }
+
+            TestUtils.assertStateNotLessThanOptimal(presolved);
+            TestUtils.assertStateNotLessThanOptimal(plain);
+            TestUtils.assertEquals(plain.getValue(), presolved.getValue(), 1E-9);
+        }
+    }
+
+    @Test
+    public void testSimplifyDualFixes() {
+
+        final ExpressionsBasedModel model = new ExpressionsBasedModel();
+        final Variable x = model.addVariable("X").lower(ZERO).upper(TEN).weight(ONE);
+        final Variable y = model.addVariable("Y").lower(ZERO).upper(TEN).weight(TWO);
+        final Variable z = model.addVariable("Z").lower(ONE).upper(TEN).weight(ONE);
+
+        model.addExpression("DEMAND").lower(FIVE).set(x, ONE).set(y, ONE);
+        model.addExpression("BALANCE").upper(FOUR).set(z, ONE).set(x, NEG);
+
+        final ExpressionsBasedModel simplified = model.simplify();
+
+        // The returned copy is dual fixed, the user's model is not
+        TestUtils.assertTrue(simplified.getVariable(z.getIndex()).isFixed());
+        TestUtils.assertEquals(ONE, simplified.getVariable(z.getIndex()).getValue());
+        TestUtils.assertTrue(simplified.getPresolveStatistics().countDualFixings() >= 1L);
+        TestUtils.assertFalse(z.isFixed());
+
+        TestUtils.assertEquals(model.minimise().getValue(), simplified.minimise().getValue(), 1E-9);
+    }
+
+}
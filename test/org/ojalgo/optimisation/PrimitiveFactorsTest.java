@@ -0,0 +1,181 @@
+/*
+ * Copyright 1997-2018 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.optimisation;
+
+import static org.ojalgo.constant.BigMath.*;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Map.Entry;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.ojalgo.TestUtils;
+import org.ojalgo.structure.Structure1D.IntIndex;
+import org.ojalgo.structure.Structure2D.IntRowColumn;
+
+public class PrimitiveFactorsTest {
+
+    private static void assertEqualFactors(final BigDecimal expected, final BigDecimal actual) {
+        if ((expected == null) || (actual == null)) {
+            TestUtils.assertTrue((expected == null) && (actual == null));
+        } else {
+            TestUtils.assertEquals(0, expected.compareTo(actual));
+        }
+    }
+
+    private static ExpressionsBasedModel makeModel(final boolean primitive, final boolean integer, final boolean quadratic) {
+
+        final Random random = new Random(123L);
+
+        final ExpressionsBasedModel retVal = new ExpressionsBasedModel();
+        retVal.options.model_primitive = primitive;
+
+        final int numberOfVariables = 20;
+        for (int j = 0; j < numberOfVariables; j++) {
+            retVal.addVariable("X" + j).lower(ZERO).upper(FIVE).integer(integer).weight(quadratic ? null : BigDecimal.valueOf(1 + random.nextInt(9)));
+        }
+
+        for (int i = 0; i < 8; i++) {
+            final Expression constraint = retVal.addExpression("C" + i).upper(BigDecimal.valueOf(20 + random.nextInt(20)));
+            for (int j = 0; j < numberOfVariables; j++) {
+                if (random.nextInt(3) != 0) {
+                    constraint.set(j, BigDecimal.valueOf(1 + random.nextInt(9)));
+                }
+            }
+        }
+
+        final Expression total = retVal.addExpression("TOTAL").lower(TEN);
+        for (int j = 0; j < numberOfVariables; j++) {
+            total.set(j, ONE);
+        }
+
+        if (quadratic) {
+            final Expression objective = retVal.addExpression("OBJECTIVE").weight(ONE);
+            for (int j = 0; j < numberOfVariables; j++) {
+                objective.set(j, j, BigDecimal.valueOf(1 + random.nextInt(3)));
+                objective.set(j, -random.nextInt(20));
+            }
+        }
+
+        return retVal;
+    }
+
+    @Test
+    public void testFactorsMatchHashMap() {
+
+        final Random random = new Random(42L);
+
+        final HashMap<IntIndex, BigDecimal> expectedLinear = new HashMap<>();
+        final PrimitiveFactors<IntIndex> actualLinear = new PrimitiveFactors.Linear();
+        final HashMap<IntRowColumn, BigDecimal> expectedQuadratic = new HashMap<>();
+        final PrimitiveFactors<IntRowColumn> actualQuadratic = new PrimitiveFactors.Quadratic();
+
+        for (int i = 0; i < 20_000; i++) {
+
+            final IntIndex linearKey = new IntIndex(random.nextInt(500));
+            final IntRowColumn quadraticKey = new IntRowColumn(random.nextInt(40), random.nextInt(40));
+            final BigDecimal value = BigDecimal.valueOf(random.nextInt(100) - 50);
+
+            switch (random.nextInt(4)) {
+            case 0:
+                PrimitiveFactorsTest.assertEqualFactors(expectedLinear.remove(linearKey), actualLinear.remove(linearKey));
+                PrimitiveFactorsTest.assertEqualFactors(expectedQuadratic.remove(quadraticKey), actualQuadratic.remove(quadraticKey));
+                break;
+            case 1:
+                if (random.nextInt(100) == 0) {
+                    actualLinear.compact();
+                    actualQuadratic.compact();
+                    TestUtils.assertTrue(actualLinear.isCompact());
+                }
+                break;
+            default:
+                if (value.signum() != 0) {
+                    expectedLinear.put(linearKey, value);
+                    actualLinear.set(linearKey, value.doubleValue());
+                    expectedQuadratic.put(quadraticKey, value);
+                    actualQuadratic.set(quadraticKey, value.doubleValue());
+                }
+                break;
+            }
+
+            TestUtils.assertEquals(expectedLinear.size(), actualLinear.size());
+            TestUtils.assertEquals(expectedQuadratic.size(), actualQuadratic.size());
+            PrimitiveFactorsTest.assertEqualFactors(expectedLinear.get(linearKey), actualLinear.get(linearKey));
+            PrimitiveFactorsTest.assertEqualFactors(expectedQuadratic.get(quadraticKey), actualQuadratic.get(quadraticKey));
+        }
+
+        for (final Entry<IntRowColumn, BigDecimal> entry : expectedQuadratic.entrySet()) {
+            PrimitiveFactorsTest.assertEqualFactors(entry.getValue(), actualQuadratic.get(entry.getKey()));
+        }
+
+        actualLinear.compact();
+
+        long previous = -1L;
+        for (final Entry<IntIndex, BigDecimal> entry : actualLinear.entrySet()) {
+            // Compact instances iterate in key order
+            TestUtils.assertTrue(entry.getKey().index > previous);
+            previous = entry.getKey().index;
+            PrimitiveFactorsTest.assertEqualFactors(expectedLinear.get(entry.getKey()), entry.getValue());
+        }
+    }
+
+    @Test
+    public void testSameSolutionInteger() {
+
+        final Optimisation.Result expected = PrimitiveFactorsTest.makeModel(false, true, false).maximise();
+        final Optimisation.Result actual = PrimitiveFactorsTest.makeModel(true, true, false).maximise();
+
+        TestUtils.assertStateNotLessThanOptimal(actual);
+        TestUtils.assertEquals(expected.getValue(), actual.getValue(), 1E-9);
+    }
+
+    @Test
+    public void testSameSolutionLinear() {
+
+        final ExpressionsBasedModel model = PrimitiveFactorsTest.makeModel(true, false, false);
+
+        final Optimisation.Result expected = PrimitiveFactorsTest.makeModel(false, false, false).maximise();
+        final Optimisation.Result actual = model.maximise();
+
+        TestUtils.assertStateNotLessThanOptimal(actual);
+        TestUtils.assertEquals(expected.getValue(), actual.getValue(), 1E-9);
+        TestUtils.assertEquals(expected, actual, model.options.feasibility);
+
+        // Solving compacts the factors, that should not stop the model from being modified
+        model.getExpression("TOTAL").set(0, TWO).add(new IntIndex(1), ONE);
+        PrimitiveFactorsTest.assertEqualFactors(TWO, model.getExpression("TOTAL").get(new IntIndex(0)));
+        PrimitiveFactorsTest.assertEqualFactors(TWO, model.getExpression("TOTAL").get(new IntIndex(1)));
+        TestUtils.assertTrue(model.validate(model.maximise()));
+    }
+
+    @Test
+    public void testSameSolutionQuadratic() {
+
+        final Optimisation.Result expected = PrimitiveFactorsTest.makeModel(false, false, true).minimise();
+        final Optimisation.Result actual = PrimitiveFactorsTest.makeModel(true, false, true).minimise();
+
+        TestUtils.assertStateNotLessThanOptimal(actual);
+        TestUtils.assertEquals(expected.getValue(), actual.getValue(), 1E-6);
+    }
+
+}
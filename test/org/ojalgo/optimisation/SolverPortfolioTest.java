@@ -0,0 +1,137 @@
+/*
+ * Copyright 1997-2018 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.optimisation;
+
+import static org.ojalgo.constant.BigMath.*;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.Test;
+import org.ojalgo.TestUtils;
+import org.ojalgo.netio.BasicLogger;
+import org.ojalgo.optimisation.integer.IntegerSolver.NodeSelection;
+import org.ojalgo.structure.Access1D;
+import org.ojalgo.type.context.NumberContext;
+
+public class SolverPortfolioTest {
+
+    private static final NumberContext PRECISION = new NumberContext(7, 6);
+
+    private static ExpressionsBasedModel makeKnapsack(final int numberOfItems, final boolean integer) {
+
+        final ExpressionsBasedModel retVal = new ExpressionsBasedModel();
+
+        final Expression capacity = retVal.addExpression("CAPACITY").upper(BigDecimal.valueOf(3 * numberOfItems));
+        final Expression balance = retVal.addExpression("BALANCE").upper(BigDecimal.valueOf(numberOfItems));
+
+        for (int i = 0; i < numberOfItems; i++) {
+            final Variable item = retVal.addVariable("X" + i).integer(integer).lower(ZERO).upper(TWO).weight(BigDecimal.valueOf(3 + ((7 * i) % 11)));
+            capacity.set(item, BigDecimal.valueOf(2 + ((5 * i) % 9)));
+            balance.set(item, BigDecimal.valueOf(((3 * i) % 5) - 1));
+        }
+
+        return retVal;
+    }
+
+    @Test
+    public void testIncumbentAndCancellation() {
+
+        final SolverPortfolio portfolio = new SolverPortfolio(false);
+
+        final Optimisation.Result worse = new Optimisation.Result(Optimisation.State.FEASIBLE, 1.0, Access1D.wrap(new double[] { 1.0 }));
+        final Optimisation.Result better = new Optimisation.Result(Optimisation.State.FEASIBLE, 2.0, Access1D.wrap(new double[] { 2.0 }));
+
+        TestUtils.assertTrue(portfolio.getIncumbent() == null);
+
+        portfolio.offer(worse);
+        TestUtils.assertTrue(portfolio.getIncumbent() == worse);
+
+        portfolio.offer(better);
+        TestUtils.assertTrue(portfolio.getIncumbent() == better);
+
+        // Maximisation - a lower value is not an improvement
+        portfolio.offer(worse);
+        TestUtils.assertTrue(portfolio.getIncumbent() == better);
+
+        TestUtils.assertFalse(portfolio.isCancelled());
+        portfolio.cancel();
+        TestUtils.assertTrue(portfolio.isCancelled());
+    }
+
+    @Test
+    public void testLinearRace() {
+
+        final ExpressionsBasedModel reference = SolverPortfolioTest.makeKnapsack(30, false);
+        final Optimisation.Result expected = reference.maximise();
+
+        final ExpressionsBasedModel model = SolverPortfolioTest.makeKnapsack(30, false);
+        model.options.portfolio = Arrays.asList(o -> o.linear_revised = false, o -> o.linear_revised = true);
+        final Optimisation.Result actual = model.maximise();
+
+        if (OptimisationTests.DEBUG) {
+            BasicLogger.debug("Expected: {}", expected);
+            BasicLogger.debug("Actual: {}", actual);
+        }
+
+        TestUtils.assertStateNotLessThanOptimal(actual);
+        TestUtils.assertEquals(expected.getValue(), actual.getValue(), PRECISION);
+        TestUtils.assertTrue(model.validate(actual));
+    }
+
+    @Test
+    public void testMixedIntegerRace() {
+
+        final ExpressionsBasedModel reference = SolverPortfolioTest.makeKnapsack(25, true);
+        reference.options.mip_parallelism = 1;
+        final Optimisation.Result expected = reference.maximise();
+
+        final Consumer<Optimisation.Options> depthFirst = o -> o.mip_selection = NodeSelection.DEPTH_FIRST;
+        final Consumer<Optimisation.Options> bestBound = o -> o.mip_selection = NodeSelection.BEST_BOUND;
+        final Consumer<Optimisation.Options> bestEstimate = o -> o.mip_selection = NodeSelection.BEST_ESTIMATE;
+
+        final ExpressionsBasedModel model = SolverPortfolioTest.makeKnapsack(25, true);
+        model.options.mip_parallelism = 1;
+        model.options.portfolio = Arrays.asList(depthFirst, bestBound, bestEstimate);
+        final Optimisation.Result actual = model.maximise();
+
+        if (OptimisationTests.DEBUG) {
+            BasicLogger.debug("Expected: {}", expected);
+            BasicLogger.debug("Actual: {}", actual);
+        }
+
+        TestUtils.assertStateNotLessThanOptimal(actual);
+        TestUtils.assertEquals(expected.getValue(), actual.getValue(), PRECISION);
+        TestUtils.assertTrue(model.validate(actual));
+
+        // The strategies modified their own copies of the options
+        TestUtils.assertEquals(NodeSelection.HYBRID, model.options.mip_selection);
+
+        // The model itself was not presolved, all variables got their values
+        for (final Variable variable : model.getVariables()) {
+            TestUtils.assertFalse(variable.isFixed());
+            TestUtils.assertTrue(variable.getValue() != null);
+        }
+    }
+
+}
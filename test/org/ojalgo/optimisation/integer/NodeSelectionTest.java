@@ -0,0 +1,143 @@
+/*
+ * Copyright 1997-2018 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.optimisation.integer;
+
+import java.math.BigDecimal;
+
+import org.junit.jupiter.api.Test;
+import org.ojalgo.TestUtils;
+import org.ojalgo.optimisation.Expression;
+import org.ojalgo.optimisation.ExpressionsBasedModel;
+import org.ojalgo.optimisation.Optimisation;
+import org.ojalgo.optimisation.Variable;
+import org.ojalgo.optimisation.integer.IntegerSolver.NodeSelection;
+
+/**
+ * Every node selection strategy, with any number of workers and any open node limit, should find the same
+ * optimal solution.
+ *
+ * @author apete
+ */
+public class NodeSelectionTest extends OptimisationIntegerTests {
+
+    /**
+     * A multi-dimensional knapsack problem with general (bounded) integer variables.
+     */
+    static ExpressionsBasedModel buildModel() {
+
+        final int numberOfItems = 15;
+
+        final ExpressionsBasedModel retVal = new ExpressionsBasedModel();
+
+        for (int i = 0; i < numberOfItems; i++) {
+            retVal.addVariable(Variable.make("X" + i).lower(0).upper(3).weight(11 + ((7 * i) % 13)).integer(true));
+        }
+
+        final Expression weight = retVal.addExpression("Weight").upper(57);
+        final Expression volume = retVal.addExpression("Volume").upper(43);
+        for (int i = 0; i < numberOfItems; i++) {
+            weight.set(i, 5 + ((3 * i) % 7));
+            volume.set(i, 3 + ((5 * i) % 11));
+        }
+
+        return retVal;
+    }
+
+    static Optimisation.Result solve(final NodeSelection selection, final int parallelism, final int nodes) {
+
+        final ExpressionsBasedModel model = NodeSelectionTest.buildModel();
+
+        model.options.mip_selection = selection;
+        model.options.mip_parallelism = parallelism;
+        model.options.mip_nodes = nodes;
+
+        final Optimisation.Result result = model.maximise();
+
+        TestUtils.assertStateNotLessThanOptimal(result);
+        TestUtils.assertTrue(model.validate(result));
+
+        return result;
+    }
+
+    @Test
+    public void testOpenNodesLimit() {
+
+        final double expected = NodeSelectionTest.solve(NodeSelection.DEPTH_FIRST, 1, Integer.MAX_VALUE).getValue();
+
+        for (final NodeSelection selection : NodeSelection.values()) {
+            for (final int nodes : new int[] { 1, 2, 5 }) {
+                TestUtils.assertEquals(expected, NodeSelectionTest.solve(selection, 1, nodes).getValue(), 1E-6);
+                TestUtils.assertEquals(expected, NodeSelectionTest.solve(selection, 3, nodes).getValue(), 1E-6);
+            }
+        }
+    }
+
+    @Test
+    public void testParallelWorkers() {
+
+        final double expected = NodeSelectionTest.solve(NodeSelection.DEPTH_FIRST, 1, Integer.MAX_VALUE).getValue();
+
+        for (final NodeSelection selection : NodeSelection.values()) {
+            for (final int parallelism : new int[] { 2, 4, 8 }) {
+                TestUtils.assertEquals(expected, NodeSelectionTest.solve(selection, parallelism, Integer.MAX_VALUE).getValue(), 1E-6);
+            }
+        }
+    }
+
+    @Test
+    public void testSameOptimumAllStrategies() {
+
+        final Optimisation.Result reference = NodeSelectionTest.solve(NodeSelection.DEPTH_FIRST, 1, Integer.MAX_VALUE);
+
+        for (final NodeSelection selection : NodeSelection.values()) {
+
+            final Optimisation.Result result = NodeSelectionTest.solve(selection, 1, Integer.MAX_VALUE);
+
+            TestUtils.assertEquals(reference.getValue(), result.getValue(), 1E-6);
+
+            for (long i = 0L; i < result.count(); i++) {
+                final double value = result.doubleValue(i);
+                TestUtils.assertEquals(Math.rint(value), value, 1E-6);
+            }
+        }
+    }
+
+    @Test
+    public void testSmallInfeasible() {
+
+        final ExpressionsBasedModel model = new ExpressionsBasedModel();
+        model.addVariable(Variable.make("X").lower(0).upper(10).weight(1).integer(true));
+        model.addVariable(Variable.make("Y").lower(0).upper(10).weight(1).integer(true));
+
+        // 2X + 2Y = 7 has no integer solution
+        final Expression sum = model.addExpression("Sum").level(new BigDecimal(7));
+        sum.set(0, 2);
+        sum.set(1, 2);
+
+        for (final NodeSelection selection : NodeSelection.values()) {
+            model.options.mip_selection = selection;
+            model.options.mip_parallelism = 3;
+            TestUtils.assertFalse(model.minimise().getState().isFeasible());
+        }
+    }
+
+}
@@ -0,0 +1,257 @@
+/*
+ * Copyright 1997-2018 Optimatika Permission is hereby granted, free of charge, to any person
+ * obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software
+ * without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions: The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software. THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE
+ * AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.ojalgo.optimisation.linear;
+
+import java.io.File;
+import java.math.BigDecimal;
+
+import org.junit.jupiter.api.Test;
+import org.ojalgo.TestUtils;
+import org.ojalgo.optimisation.Expression;
+import org.ojalgo.optimisation.ExpressionsBasedModel;
+import org.ojalgo.optimisation.ExpressionsBasedModel.Intermediate;
+import org.ojalgo.optimisation.MathProgSysModel;
+import org.ojalgo.optimisation.Optimisation;
+import org.ojalgo.optimisation.Variable;
+import org.ojalgo.type.context.NumberContext;
+
+/**
+ * Solves the same models with {@link RevisedSimplexSolver}, using both pricing rules, and
+ * {@link SimplexSolver}, and compares the results.
+ *
+ * @author apete
+ */
+public class RevisedSimplexTest extends OptimisationLinearTests {
+
+    private static final String PATH = "./test/org/ojalgo/optimisation/linear/";
+    private static final NumberContext PRECISION = new NumberContext(7, 6);
+
+    private static void assertSameAsTableau(final ExpressionsBasedModel model) {
+
+        model.options.linear_revised = false;
+        final Optimisation.Result expected = model.minimise();
+
+        for (final RevisedSimplexSolver.Pricing pricing : RevisedSimplexSolver.Pricing.values()) {
+
+            final RevisedSimplexSolver.ModelIntegration integration = new RevisedSimplexSolver.ModelIntegration(pricing);
+            ExpressionsBasedModel.addIntegration(integration);
+            try {
+
+                final Optimisation.Result actual = model.minimise();
+
+                TestUtils.assertStateNotLessThanOptimal(actual);
+                TestUtils.assertEquals(pricing.name(), expected.getValue(), actual.getValue(), PRECISION);
+                TestUtils.assertTrue(pricing.name(), model.validate(actual, PRECISION));
+
+            } finally {
+                ExpressionsBasedModel.removeIntegration(integration);
+            }
+        }
+
+        model.options.linear_revised = true;
+        final Optimisation.Result actual = model.minimise();
+        model.options.linear_revised = false;
+
+        TestUtils.assertStateNotLessThanOptimal(actual);
+        TestUtils.assertEquals(expected.getValue(), actual.getValue(), PRECISION);
+    }
+
+    private static ExpressionsBasedModel read(final String name) {
+        return MathProgSysModel.make(new File(PATH + name)).getExpressionsBasedModel();
+    }
+
+    /**
+     * A small MIP solved using branch-and-bound, with the node LP:s re-solved in-place
+     */
+    /**
+     * Tighten the ranges, so that the basis becomes primal infeasible, and abort the (dual simplex) re-solve
+     * after a single iteration - the result must not be reported as feasible.
+     */
+    @Test
+    public void testAbortWarmStart() {
+
+        final ExpressionsBasedModel model = RevisedSimplexTest.read("blend.mps");
+        model.options.linear_revised = true;
+
+        final Intermediate intermediate = model.prepare();
+        final Optimisation.Result result = intermediate.solve(null);
+        TestUtils.assertStateNotLessThanOptimal(result);
+
+        for (final Variable variable : model.getVariables()) {
+            final BigDecimal value = result.get(model.indexOf(variable));
+            if (!variable.isEqualityConstraint() && (value.signum() > 0)) {
+                variable.upper(value.multiply(BigDecimal.valueOf(0.5)));
+                intermediate.update(variable);
+            }
+        }
+
+        model.options.iterations_abort = 1;
+
+        TestUtils.assertFalse(intermediate.solve(null).getState().isFeasible());
+    }
+
+    @Test
+    public void testBranchAndBound() {
+
+        final int[][] weights = { { 12, 7, 11, 8, 9, 6, 14, 5 }, { 4, 10, 6, 9, 3, 12, 7, 8 } };
+        final int[] values = { 24, 13, 23, 15, 16, 11, 29, 9 };
+
+        final ExpressionsBasedModel model = new ExpressionsBasedModel();
+        final Variable[] variables = new Variable[values.length];
+        for (int j = 0; j < values.length; j++) {
+            variables[j] = model.addVariable("x" + j).integer(true).lower(0).upper(3).weight(values[j]);
+        }
+        for (int i = 0; i < weights.length; i++) {
+            final Expression constraint = model.addExpression("c" + i).upper(50 + (10 * i));
+            for (int j = 0; j < values.length; j++) {
+                constraint.set(variables[j], weights[i][j]);
+            }
+        }
+
+        model.options.linear_revised = false;
+        final Optimisation.Result expected = model.maximise();
+
+        model.options.linear_revised = true;
+        final Optimisation.Result actual = model.maximise();
+
+        TestUtils.assertStateNotLessThanOptimal(actual);
+        TestUtils.assertEquals(expected.getValue(), actual.getValue(), PRECISION);
+        TestUtils.assertTrue(model.validate(actual, PRECISION));
+    }
+
+    /**
+     * Aborted while still in phase 1 - same state as the tableau solver reports
+     */
+    @Test
+    public void testAbortInPhase1() {
+
+        final ExpressionsBasedModel model = RevisedSimplexTest.read("blend.mps");
+        model.options.iterations_abort = 2;
+
+        model.options.linear_revised = false;
+        final Optimisation.Result expected = model.minimise();
+
+        model.options.linear_revised = true;
+        final Optimisation.Result actual = model.minimise();
+
+        TestUtils.assertEquals(Optimisation.State.UNEXPLORED, expected.getState());
+        TestUtils.assertEquals(expected.getState(), actual.getState());
+    }
+
+    @Test
+    public void testInfeasible() {
+
+        final ExpressionsBasedModel model = new ExpressionsBasedModel();
+        final Variable x = model.addVariable("x").lower(0).weight(1);
+        final Variable y = model.addVariable("y").lower(0).weight(1);
+
+        final Expression sum = model.addExpression("sum").upper(1);
+        sum.set(x, 1);
+        sum.set(y, 1);
+
+        final Expression diff = model.addExpression("diff").lower(2);
+        diff.set(x, 1);
+        diff.set(y, -1);
+
+        model.options.linear_revised = true;
+
+        TestUtils.assertEquals(Optimisation.State.INFEASIBLE, model.minimise().getState());
+    }
+
+    @Test
+    public void testNetlib() {
+        for (final String name : new String[] { "afiro.mps", "adlittle.mps", "blend.mps", "boeing2.mps", "kb2.mps", "sc50b.mps", "share2b.mps" }) {
+            RevisedSimplexTest.assertSameAsTableau(RevisedSimplexTest.read(name));
+        }
+    }
+
+    /**
+     * More iterations than the refactorisation interval
+     */
+    @Test
+    public void testRefactorisation() {
+
+        final int size = 3 * RevisedSimplexSolver.REFACTORISATION_INTERVAL;
+
+        final ExpressionsBasedModel model = new ExpressionsBasedModel();
+        final Variable[] variables = new Variable[size];
+        for (int j = 0; j < size; j++) {
+            variables[j] = model.addVariable("x" + j).lower(0).weight(-(1 + (j % 7)));
+        }
+        for (int i = 0; i < size; i++) {
+            final Expression constraint = model.addExpression("c" + i).upper(10 + (i % 5));
+            constraint.set(variables[i], 2 + (i % 3));
+            constraint.set(variables[(i + 1) % size], 1);
+            constraint.set(variables[(i + 7) % size], 1 + (i % 2));
+        }
+
+        RevisedSimplexTest.assertSameAsTableau(model);
+    }
+
+    /**
+     * Tighten the ranges of some variables, of an already solved model, and re-solve in-place. Compare with
+     * solving the same problem from scratch.
+     */
+    @Test
+    public void testUpdateRange() {
+
+        final ExpressionsBasedModel model = RevisedSimplexTest.read("blend.mps");
+        model.options.linear_revised = true;
+
+        final Intermediate intermediate = model.prepare();
+        Optimisation.Result result = intermediate.solve(null);
+        TestUtils.assertStateNotLessThanOptimal(result);
+
+        for (int round = 0; round < 5; round++) {
+
+            // Tighten the upper limits of a few variables that are (currently) positive
+            int count = 0;
+            for (final Variable variable : model.getVariables()) {
+                final BigDecimal value = result.get(model.indexOf(variable));
+                if ((count < 3) && !variable.isEqualityConstraint() && (value.signum() > 0)) {
+                    variable.upper(value.multiply(BigDecimal.valueOf(0.9)));
+                    intermediate.update(variable);
+                    count++;
+                }
+            }
+
+            result = intermediate.solve(null);
+
+            final ExpressionsBasedModel copy = model.copy();
+            copy.options.linear_revised = false;
+            final Optimisation.Result expected = copy.minimise();
+
+            TestUtils.assertStateNotLessThanOptimal(expected);
+            TestUtils.assertStateNotLessThanOptimal(result);
+            TestUtils.assertEquals(expected.getValue(), model.objective().evaluate(result).doubleValue(), PRECISION);
+            TestUtils.assertTrue(model.validate(result, PRECISION));
+        }
+    }
+
+    @Test
+    public void testUnbounded() {
+
+        final ExpressionsBasedModel model = new ExpressionsBasedModel();
+        final Variable x = model.addVariable("x").lower(0).weight(-1);
+        final Variable y = model.addVariable("y").lower(0).weight(-1);
+
+        final Expression diff = model.addExpression("diff").upper(1);
+        diff.set(x, 1);
+        diff.set(y, -1);
+
+        model.options.linear_revised = true;
+
+        TestUtils.assertEquals(Optimisation.State.UNBOUNDED, model.minimise().getState());
+    }
+
+}
@@ -21,6 +21,8 @@
  */
 package org.ojalgo.random;
 
+import java.util.Arrays;
+
 import org.junit.jupiter.api.Test;
 import org.ojalgo.TestUtils;
 import org.ojalgo.array.Primitive64Array;
@@ -62,6 +64,18 @@ public class SampleSetTest {
             // Important NOT to throw an exception!
             TestUtils.fail(exception.getMessage());
         }
+
+        // Min/max, before anything else is calculated, are the infinite initial values
+        final SampleSet tmpFresh = SampleSet.wrap(tmpSamples);
+        TestUtils.assertEquals(Double.NEGATIVE_INFINITY, tmpFresh.getMaximum());
+        TestUtils.assertEquals(Double.POSITIVE_INFINITY, tmpFresh.getMinimum());
+
+        // ...and SampleStatistics agrees
+        final SampleStatistics tmpStatistics = tmpFresh.getStatistics();
+        TestUtils.assertEquals(tmpFresh.getMaximum(), tmpStatistics.getMaximum());
+        TestUtils.assertEquals(tmpFresh.getMean(), tmpStatistics.getMean());
+        TestUtils.assertEquals(tmpFresh.getMinimum(), tmpStatistics.getMinimum());
+        TestUtils.assertEquals(Double.NaN, tmpStatistics.getMedian());
     }
 
     @Test
@@ -172,4 +186,135 @@ public class SampleSetTest {
 
     }
 
+    @Test
+    public void testStatistics() {
+
+        final Normal tmpDistribution = new Normal(1.0, 2.0);
+
+        final SampleSet tmpSampleSet = SampleSet.make(tmpDistribution, 1_000);
+
+        final SampleStatistics tmpAll = new SampleStatistics();
+        final SampleStatistics tmpFirstPart = new SampleStatistics();
+        final SampleStatistics tmpSecondPart = new SampleStatistics();
+        for (int i = 0; i < tmpSampleSet.size(); i++) {
+            final double tmpValue = tmpSampleSet.doubleValue(i);
+            tmpAll.accept(tmpValue);
+            if (i < 300) {
+                tmpFirstPart.accept(tmpValue);
+            } else {
+                tmpSecondPart.accept(tmpValue);
+            }
+        }
+
+        final SampleStatistics tmpMerged = new SampleStatistics();
+        tmpMerged.merge(tmpFirstPart);
+        tmpMerged.merge(new SampleStatistics());
+        tmpMerged.merge(tmpSecondPart);
+
+        for (final SampleStatistics tmpStatistics : new SampleStatistics[] { tmpAll, tmpMerged }) {
+            TestUtils.assertEquals(tmpSampleSet.count(), tmpStatistics.count());
+            TestUtils.assertEquals(tmpSampleSet.getMean(), tmpStatistics.getMean(), 1E-12);
+            TestUtils.assertEquals(tmpSampleSet.getVariance(), tmpStatistics.getVariance(), 1E-11);
+            TestUtils.assertEquals(tmpSampleSet.getSumOfSquares(), tmpStatistics.getSumOfSquares(), 1E-8);
+            TestUtils.assertEquals(tmpSampleSet.getMinimum(), tmpStatistics.getMinimum());
+            TestUtils.assertEquals(tmpSampleSet.getMaximum(), tmpStatistics.getMaximum());
+        }
+    }
+
+    @Test
+    public void testQuantileSketch() {
+
+        final int tmpSize = 1_000_000;
+        final int tmpParts = 8;
+
+        final Normal tmpDistribution = new Normal();
+
+        final double[] tmpSamples = new double[tmpSize];
+
+        final SampleStatistics tmpAll = new SampleStatistics();
+        final SampleStatistics[] tmpPartials = new SampleStatistics[tmpParts];
+        for (int p = 0; p < tmpParts; p++) {
+            tmpPartials[p] = new SampleStatistics();
+        }
+
+        for (int i = 0; i < tmpSize; i++) {
+            tmpSamples[i] = tmpDistribution.doubleValue();
+            tmpAll.accept(tmpSamples[i]);
+            tmpPartials[i % tmpParts].accept(tmpSamples[i]);
+        }
+
+        final SampleStatistics tmpMerged = new SampleStatistics();
+        for (int p = 0; p < tmpParts; p++) {
+            tmpMerged.merge(tmpPartials[p]);
+        }
+
+        Arrays.sort(tmpSamples);
+
+        for (final SampleStatistics tmpStatistics : new SampleStatistics[] { tmpAll, tmpMerged }) {
+
+            TestUtils.assertEquals(tmpSize, tmpStatistics.count());
+            TestUtils.assertEquals(tmpSamples[0], tmpStatistics.getQuantile(0.0));
+            TestUtils.assertEquals(tmpSamples[tmpSize - 1], tmpStatistics.getQuantile(1.0));
+
+            for (final double tmpProbability : new double[] { 0.01, 0.05, 0.25, 0.5, 0.75, 0.95, 0.99 }) {
+
+                final double tmpEstimate = tmpStatistics.getQuantile(tmpProbability);
+
+                // The estimate's (actual) rank should be within 2% of the requested
+                final int tmpRank = Math.abs(Arrays.binarySearch(tmpSamples, tmpEstimate));
+                TestUtils.assertEquals(tmpProbability, (double) tmpRank / tmpSize, 0.02);
+            }
+        }
+
+        TestUtils.assertEquals(tmpAll.getMedian(), tmpAll.getQuartile2());
+        TestUtils.assertTrue(tmpAll.getQuartile1() < tmpAll.getMedian());
+        TestUtils.assertTrue(tmpAll.getMedian() < tmpAll.getQuartile3());
+    }
+
+    @Test
+    public void testQuantileSketchExact() {
+
+        final Primitive64Array tmpSamples = Primitive64Array.wrap(new double[] { 43, 6, 40, 15, 36, 7, 39, 41, 42, 47, 49 });
+
+        final SampleStatistics tmpStatistics = SampleSet.wrap(tmpSamples).getStatistics();
+
+        TestUtils.assertEquals(6.0, tmpStatistics.getMinimum());
+        TestUtils.assertEquals(15.0, tmpStatistics.getQuartile1());
+        TestUtils.assertEquals(40.0, tmpStatistics.getMedian());
+        TestUtils.assertEquals(43.0, tmpStatistics.getQuartile3());
+        TestUtils.assertEquals(49.0, tmpStatistics.getMaximum());
+    }
+
+    @Test
+    public void testSortingLimit() {
+
+        final int tmpSize = 100_000;
+
+        final Normal tmpDistribution = new Normal();
+
+        final double[] tmpSamples = new double[tmpSize];
+        for (int i = 0; i < tmpSize; i++) {
+            tmpSamples[i] = tmpDistribution.doubleValue();
+        }
+
+        final SampleSet tmpExact = SampleSet.wrap(Primitive64Array.wrap(tmpSamples));
+
+        final int tmpLimit = SampleSet.SORTING_LIMIT;
+        try {
+
+            SampleSet.SORTING_LIMIT = tmpSize / 10;
+
+            final SampleSet tmpEstimated = SampleSet.wrap(Primitive64Array.wrap(tmpSamples));
+
+            final double tmpTolerance = tmpExact.getInterquartileRange() / 10.0;
+
+            TestUtils.assertEquals(tmpExact.getQuartile1(), tmpEstimated.getQuartile1(), tmpTolerance);
+            TestUtils.assertEquals(tmpExact.getMedian(), tmpEstimated.getMedian(), tmpTolerance);
+            TestUtils.assertEquals(tmpExact.getQuartile3(), tmpEstimated.getQuartile3(), tmpTolerance);
+
+        } finally {
+            SampleSet.SORTING_LIMIT = tmpLimit;
+        }
+    }
+
 }
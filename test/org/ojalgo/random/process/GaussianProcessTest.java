@@ -39,10 +39,9 @@ import org.ojalgo.type.keyvalue.ComparableToDouble;
  */
 public class GaussianProcessTest {
 
-    @Test
-    public void testTutorial() {
+    static GaussianField.Covariance<Double> makeTutorialCovariance() {
 
-        final GaussianField.Covariance<Double> tmpCovar = new GaussianField.Covariance<Double>() {
+        return new GaussianField.Covariance<Double>() {
 
             public void calibrate(final Collection<ComparableToDouble<Double>> observations, final Mean<Double> mean) {
             }
@@ -68,8 +67,35 @@ public class GaussianProcessTest {
             }
 
         };
+    }
+
+    @Test
+    public void testIncremental() {
+
+        final double[][] tmpObservations = { { -1.5, -1.6 }, { -1.0, -1.1 }, { -0.75, -0.4 }, { -0.4, 0.1 }, { -0.25, 0.5 }, { 0.0, 0.8 } };
+
+        final GaussianProcess tmpIncremental = new GaussianProcess(GaussianProcessTest.makeTutorialCovariance());
+
+        for (int i = 0; i < tmpObservations.length; i++) {
+
+            tmpIncremental.addObservation(tmpObservations[i][0], tmpObservations[i][1]);
+            final Normal tmpIncrDistr = tmpIncremental.getDistribution(0.2);
+
+            final GaussianProcess tmpFresh = new GaussianProcess(GaussianProcessTest.makeTutorialCovariance());
+            for (int j = i; j >= 0; j--) {
+                tmpFresh.addObservation(tmpObservations[j][0], tmpObservations[j][1]);
+            }
+            final Normal tmpFreshDistr = tmpFresh.getDistribution(0.2);
+
+            TestUtils.assertEquals("Mean", tmpFreshDistr.getExpected(), tmpIncrDistr.getExpected(), 1E-10);
+            TestUtils.assertEquals("Variance", tmpFreshDistr.getVariance(), tmpIncrDistr.getVariance(), 1E-10);
+        }
+    }
+
+    @Test
+    public void testTutorial() {
 
-        final GaussianProcess tmpProc = new GaussianProcess(tmpCovar);
+        final GaussianProcess tmpProc = new GaussianProcess(GaussianProcessTest.makeTutorialCovariance());
         tmpProc.addObservation(-1.5, -1.6);
         tmpProc.addObservation(-1.0, -1.1);
         tmpProc.addObservation(-0.75, -0.4);
@@ -0,0 +1,170 @@
+/*
+ * Copyright 1997-2018 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.random.process;
+
+import org.junit.jupiter.api.Test;
+import org.ojalgo.TestUtils;
+import org.ojalgo.concurrent.DivideAndConquer;
+import org.ojalgo.random.SampleSet;
+import org.ojalgo.random.SampleStatistics;
+import org.ojalgo.random.process.RandomProcess.SimulationResults;
+
+/**
+ * @author apete
+ */
+public class SimulationTest extends RandomProcessTests {
+
+    private static final long SEED = 20181216L;
+
+    @Test
+    public void testExpectedValues() {
+
+        final int tmpRealisations = 100_000;
+        final int tmpSteps = 4;
+        final double tmpStepSize = 0.25;
+
+        final RandomProcess<?>[] tmpProcesses = { GeometricBrownianMotion.make(1.1, 0.04), new WienerProcess(), new PoissonProcess(3.0) };
+
+        for (final RandomProcess<?> tmpProcess : tmpProcesses) {
+
+            final SampleStatistics[] tmpStatistics = tmpProcess.summarise(tmpRealisations, tmpSteps, tmpStepSize, SEED);
+
+            TestUtils.assertEquals(tmpSteps, tmpStatistics.length);
+
+            for (int s = 0; s < tmpSteps; s++) {
+
+                final double tmpHorizon = (s + 1) * tmpStepSize;
+
+                final double tmpExpected = tmpProcess.getDistribution(tmpHorizon).getExpected();
+                final double tmpStdDev = tmpProcess.getDistribution(tmpHorizon).getStandardDeviation();
+
+                TestUtils.assertEquals(tmpRealisations, tmpStatistics[s].count());
+                // Within 5 standard errors
+                TestUtils.assertEquals(tmpProcess.getClass().getSimpleName(), tmpExpected, tmpStatistics[s].getMean(),
+                        (5.0 * tmpStdDev) / Math.sqrt(tmpRealisations));
+            }
+        }
+    }
+
+    @Test
+    public void testReproducible() {
+
+        final GeometricBrownianMotion tmpProcess = GeometricBrownianMotion.make(1.05, 0.01);
+
+        final SimulationResults tmpParallel = tmpProcess.simulate(2_000, 12, 1.0 / 12.0, SEED);
+
+        DivideAndConquer.limitParallelism(1);
+        final SimulationResults tmpSequential;
+        try {
+            tmpSequential = tmpProcess.simulate(2_000, 12, 1.0 / 12.0, SEED);
+        } finally {
+            DivideAndConquer.limitParallelism(0);
+        }
+
+        TestUtils.assertEquals(tmpParallel.countScenarios(), tmpSequential.countScenarios());
+        TestUtils.assertEquals(tmpParallel.countSampleSets(), tmpSequential.countSampleSets());
+
+        for (int s = 0; s < tmpParallel.countSampleSets(); s++) {
+            final SampleSet tmpExpected = tmpParallel.getSampleSet(s);
+            final SampleSet tmpActual = tmpSequential.getSampleSet(s);
+            for (int r = 0; r < tmpExpected.size(); r++) {
+                TestUtils.assertTrue(tmpExpected.doubleValue(r) == tmpActual.doubleValue(r));
+            }
+        }
+
+        // The initial value is left unchanged
+        TestUtils.assertEquals(1.0, tmpProcess.getValue());
+
+        // Different seed - different results
+        TestUtils.assertFalse(tmpParallel.getSampleSet(0).getMean() == tmpProcess.simulate(2_000, 12, 1.0 / 12.0, SEED + 1L).getSampleSet(0).getMean());
+    }
+
+    @Test
+    public void testSummariseGaussianProcess() {
+
+        final GaussianProcess tmpProcess = new GaussianProcess(GaussianProcessTest.makeTutorialCovariance());
+        tmpProcess.addObservation(-1.5, -1.6);
+        tmpProcess.addObservation(-1.0, -1.1);
+        tmpProcess.addObservation(-0.75, -0.4);
+        tmpProcess.addObservation(-0.4, 0.1);
+        tmpProcess.addObservation(-0.25, 0.5);
+        tmpProcess.addObservation(0.0, 0.8);
+
+        this.doTestSummarise(tmpProcess, 1_000, 3, 0.1);
+        TestUtils.assertEquals(6, tmpProcess.getObservations().size());
+    }
+
+    @Test
+    public void testSummariseMatchesSimulate() {
+        this.doTestSummarise(GeometricBrownianMotion.make(1.05, 0.01), 3_000, 10, 0.1);
+        this.doTestSummarise(new WienerProcess(), 3_000, 10, 0.1);
+        this.doTestSummarise(new PoissonProcess(2.0), 3_000, 10, 0.1);
+    }
+
+    /**
+     * The partial statistics are merged per block of realisations, in block order, so the results are
+     * (exactly) the same regardless of the number of threads.
+     */
+    @Test
+    public void testSummariseReproducible() {
+
+        final GeometricBrownianMotion tmpProcess = GeometricBrownianMotion.make(1.05, 0.01);
+
+        final SampleStatistics[] tmpParallel = tmpProcess.summarise(2_000, 12, 1.0 / 12.0, SEED);
+
+        DivideAndConquer.limitParallelism(1);
+        final SampleStatistics[] tmpSequential;
+        try {
+            tmpSequential = tmpProcess.summarise(2_000, 12, 1.0 / 12.0, SEED);
+        } finally {
+            DivideAndConquer.limitParallelism(0);
+        }
+
+        for (int s = 0; s < tmpParallel.length; s++) {
+            TestUtils.assertTrue(tmpParallel[s].getMean() == tmpSequential[s].getMean());
+            TestUtils.assertTrue(tmpParallel[s].getVariance() == tmpSequential[s].getVariance());
+            TestUtils.assertTrue(tmpParallel[s].getMedian() == tmpSequential[s].getMedian());
+        }
+    }
+
+    private void doTestSummarise(final RandomProcess<?> process, final int realisations, final int steps, final double stepSize) {
+
+        final SimulationResults tmpResults = process.simulate(realisations, steps, stepSize, SEED);
+        final SampleStatistics[] tmpStatistics = process.summarise(realisations, steps, stepSize, SEED);
+
+        for (int s = 0; s < steps; s++) {
+
+            final SampleSet tmpSampleSet = tmpResults.getSampleSet(s);
+
+            TestUtils.assertEquals(tmpSampleSet.count(), tmpStatistics[s].count());
+            TestUtils.assertEquals(tmpSampleSet.getMean(), tmpStatistics[s].getMean(), 1E-12);
+            TestUtils.assertEquals(tmpSampleSet.getVariance(), tmpStatistics[s].getVariance(), 1E-10);
+            TestUtils.assertEquals(tmpSampleSet.getMinimum(), tmpStatistics[s].getMinimum());
+            TestUtils.assertEquals(tmpSampleSet.getMaximum(), tmpStatistics[s].getMaximum());
+
+            final SampleStatistics tmpFromResults = tmpResults.getStatistics(s);
+            TestUtils.assertEquals(tmpSampleSet.getMean(), tmpFromResults.getMean(), 1E-12);
+            TestUtils.assertEquals(tmpStatistics[s].getMedian(), tmpFromResults.getMedian(), tmpSampleSet.getInterquartileRange() / 10.0);
+        }
+    }
+
+}
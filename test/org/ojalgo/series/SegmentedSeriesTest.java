@@ -0,0 +1,200 @@
+/*
+ * Copyright 1997-2018 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.series;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import org.junit.jupiter.api.Test;
+import org.ojalgo.TestUtils;
+import org.ojalgo.array.Primitive32Array;
+import org.ojalgo.array.Primitive64Array;
+import org.ojalgo.function.PrimitiveFunction;
+import org.ojalgo.series.primitive.CoordinatedSet;
+import org.ojalgo.series.primitive.PrimitiveSeries;
+import org.ojalgo.structure.Structure1D.IndexMapper;
+import org.ojalgo.type.CalendarDateUnit;
+import org.ojalgo.type.TimeIndex;
+
+/**
+ * @author apete
+ */
+public class SegmentedSeriesTest {
+
+    private static final LocalDate START = LocalDate.of(2000, 1, 1);
+
+    private static void assertEquals(final SortedMap<LocalDate, Double> expected, final BasicSeries<LocalDate, Double> actual) {
+
+        TestUtils.assertEquals(expected.size(), actual.size());
+
+        if (!expected.isEmpty()) {
+            TestUtils.assertEquals(expected.firstKey(), actual.firstKey());
+            TestUtils.assertEquals(expected.lastKey(), actual.lastKey());
+        }
+
+        final Iterator<Map.Entry<LocalDate, Double>> tmpActualIterator = actual.entrySet().iterator();
+        for (final Map.Entry<LocalDate, Double> tmpExpected : expected.entrySet()) {
+            final Map.Entry<LocalDate, Double> tmpActual = tmpActualIterator.next();
+            TestUtils.assertEquals(tmpExpected.getKey(), tmpActual.getKey());
+            TestUtils.assertEquals(tmpExpected.getValue(), tmpActual.getValue());
+            TestUtils.assertEquals(tmpExpected.getValue(), actual.get(tmpExpected.getKey()));
+        }
+        TestUtils.assertFalse(tmpActualIterator.hasNext());
+
+        final PrimitiveSeries tmpPrimitive = actual.asPrimitive();
+        TestUtils.assertEquals(expected.size(), tmpPrimitive.size());
+        int i = 0;
+        for (final Double tmpValue : expected.values()) {
+            TestUtils.assertEquals(tmpValue.doubleValue(), tmpPrimitive.value(i++));
+        }
+    }
+
+    private static SegmentedSeries<LocalDate, Double> make(final int segmentCapacity) {
+        final IndexMapper<LocalDate> tmpMapper = TimeIndex.LOCAL_DATE.plain();
+        return new SegmentedSeries<>(new SegmentedSeries.Segments<>(Primitive64Array.FACTORY, segmentCapacity), tmpMapper, null, Long.MIN_VALUE,
+                Long.MAX_VALUE);
+    }
+
+    @Test
+    public void testAccumulator() {
+
+        final BasicSeries.NaturallySequenced<LocalDate, Double> tmpSeries = BasicSeries.LOCAL_DATE.buildSegmented(Primitive64Array.FACTORY,
+                PrimitiveFunction.ADD);
+
+        tmpSeries.put(START, 1.0);
+        tmpSeries.put(START, 2.0);
+        tmpSeries.put(START.plusDays(1L), 3.0);
+
+        TestUtils.assertEquals(2, tmpSeries.size());
+        TestUtils.assertEquals(3.0, tmpSeries.doubleValue(START));
+        TestUtils.assertEquals(3.0, tmpSeries.doubleValue(START.plusDays(1L)));
+    }
+
+    @Test
+    public void testAppendAndComplete() {
+
+        final BasicSeries.NaturallySequenced<LocalDate, Double> tmpSeries = new BasicSeries.TimeSeriesBuilder<>(TimeIndex.LOCAL_DATE)
+                .resolution(CalendarDateUnit.DAY).buildSegmented(Primitive32Array.FACTORY);
+
+        for (int d = 0; d < 20_000; d += 2) {
+            tmpSeries.put(START.plusDays(d), (double) d);
+        }
+
+        TestUtils.assertEquals(10_000, tmpSeries.size());
+        TestUtils.assertEquals(START.plusDays(19_998L), tmpSeries.lastKey());
+        TestUtils.assertEquals(START.plusDays(19_999L), tmpSeries.nextKey());
+        TestUtils.assertTrue(Double.isNaN(tmpSeries.doubleValue(START.plusDays(1L))));
+
+        tmpSeries.complete();
+
+        TestUtils.assertEquals(19_999, tmpSeries.size());
+        TestUtils.assertEquals(2.0, tmpSeries.doubleValue(START.plusDays(3L)));
+        TestUtils.assertEquals(19_996.0, tmpSeries.doubleValue(START.plusDays(19_997L)));
+    }
+
+    @Test
+    public void testCoordinate() {
+
+        final Random tmpRandom = new Random(123L);
+
+        final List<BasicSeries<LocalDate, Double>> tmpSegmented = new ArrayList<>();
+        final List<BasicSeries<LocalDate, Double>> tmpTreeBased = new ArrayList<>();
+
+        for (int s = 0; s < 4; s++) {
+
+            final SegmentedSeries<LocalDate, Double> tmpSeries = SegmentedSeriesTest.make(16);
+            final BasicSeries<LocalDate, Double> tmpTree = BasicSeries.LOCAL_DATE.build(Primitive64Array.FACTORY);
+
+            for (int d = s * 10; d < (1_000 - (s * 7)); d++) {
+                if (tmpRandom.nextInt(3) == 0) {
+                    final double tmpValue = tmpRandom.nextDouble();
+                    tmpSeries.put(START.plusDays(d), tmpValue);
+                    tmpTree.put(START.plusDays(d), tmpValue);
+                }
+            }
+
+            tmpSegmented.add(tmpSeries);
+            tmpTreeBased.add(tmpTree);
+        }
+
+        final CoordinatedSet<LocalDate> tmpExpected = CoordinatedSet.from(tmpTreeBased);
+        final CoordinatedSet<LocalDate> tmpActual = BasicSeries.coordinate(tmpSegmented);
+
+        TestUtils.assertEquals(tmpExpected.getFirstKey(), tmpActual.getFirstKey());
+        TestUtils.assertEquals(tmpExpected.getLastKey(), tmpActual.getLastKey());
+        TestUtils.assertEquals(tmpExpected.size(), tmpActual.size());
+
+        for (int s = 0; s < tmpExpected.size(); s++) {
+            final double[] tmpExpectedValues = tmpExpected.getSeries(s).values();
+            final double[] tmpActualValues = tmpActual.getSeries(s).values();
+            TestUtils.assertTrue(Arrays.equals(tmpExpectedValues, tmpActualValues));
+        }
+    }
+
+    @Test
+    public void testRandomInsertAndViews() {
+
+        final Random tmpRandom = new Random(456L);
+
+        final SegmentedSeries<LocalDate, Double> tmpSeries = SegmentedSeriesTest.make(8);
+        final TreeMap<LocalDate, Double> tmpExpected = new TreeMap<>();
+
+        for (int i = 0; i < 2_000; i++) {
+            final LocalDate tmpKey = START.plusDays(tmpRandom.nextInt(3_000));
+            final Double tmpValue = tmpRandom.nextDouble();
+            final Double tmpExpectedOld = tmpExpected.put(tmpKey, tmpValue);
+            final Double tmpActualOld = tmpSeries.put(tmpKey, tmpValue);
+            TestUtils.assertTrue(tmpExpectedOld == null ? tmpActualOld == null : tmpExpectedOld.equals(tmpActualOld));
+        }
+
+        SegmentedSeriesTest.assertEquals(tmpExpected, tmpSeries);
+
+        final LocalDate tmpFrom = START.plusDays(1_000L);
+        final LocalDate tmpTo = START.plusDays(2_000L);
+
+        SegmentedSeriesTest.assertEquals(tmpExpected.headMap(tmpTo), tmpSeries.headMap(tmpTo));
+        SegmentedSeriesTest.assertEquals(tmpExpected.tailMap(tmpFrom), tmpSeries.tailMap(tmpFrom));
+        SegmentedSeriesTest.assertEquals(tmpExpected.subMap(tmpFrom, tmpTo), tmpSeries.subMap(tmpFrom, tmpTo));
+        SegmentedSeriesTest.assertEquals(tmpExpected.subMap(tmpFrom, tmpTo).headMap(START.plusDays(1_500L)),
+                tmpSeries.subMap(tmpFrom, tmpTo).headMap(START.plusDays(1_500L)));
+
+        // The views share the storage
+        final SegmentedSeries<LocalDate, Double> tmpView = tmpSeries.subMap(tmpFrom, tmpTo);
+        tmpView.put(START.plusDays(1_234L), 1.234);
+        TestUtils.assertEquals(1.234, tmpSeries.doubleValue(START.plusDays(1_234L)));
+
+        try {
+            tmpView.put(START.plusDays(2_345L), 2.345);
+            TestUtils.fail("Key out of range!");
+        } catch (final IllegalArgumentException expected) {
+            TestUtils.assertTrue(Double.isNaN(tmpSeries.doubleValue(START.plusDays(2_345L))) || tmpExpected.containsKey(START.plusDays(2_345L)));
+        }
+    }
+
+}